@@ -315,9 +315,14 @@ public class ConfigurationEngineDefaults implements Serializable
         private Integer threadPoolInboundCapacity;
         private Integer threadPoolRouteExecCapacity;
         private Integer threadPoolOutboundCapacity;
+        private boolean isThreadPoolInboundPartitioned;
+        private QueueStrategy threadPoolQueueStrategy;
+        private WaitStrategy threadPoolQueueWaitStrategy;
 
         private boolean engineFairlock;
 
+        private long sendBatchDispatchMaxLatency;
+
         /**
          * Ctor - sets up defaults.
          */
@@ -347,6 +352,8 @@ public class ConfigurationEngineDefaults implements Serializable
             threadPoolInboundNumThreads = 2;
             threadPoolRouteExecNumThreads = 2;
             threadPoolOutboundNumThreads = 2;
+            threadPoolQueueStrategy = QueueStrategy.BLOCKING;
+            threadPoolQueueWaitStrategy = WaitStrategy.PARK;
         }
 
         /**
@@ -696,6 +703,71 @@ public class ConfigurationEngineDefaults implements Serializable
             this.threadPoolInboundCapacity = capacity;
         }
 
+        /**
+         * Returns true if inbound threading assigns events to single-threaded lanes by context partition,
+         * or false if inbound events are processed by any thread of the inbound thread pool (the default).
+         * @return indicator whether inbound threading is partition-affine
+         */
+        public boolean isThreadPoolInboundPartitioned()
+        {
+            return isThreadPoolInboundPartitioned;
+        }
+
+        /**
+         * Set to true to have inbound threading assign events to single-threaded lanes by context partition.
+         * <p>
+         * When enabled, the engine allocates as many lanes as the number of inbound threads. Events are assigned to a lane
+         * by the partition key of the hash-segmented or keyed-segmented context that applies to their event type,
+         * such that all events of the same context partition are processed by the same thread in arrival order.
+         * Events of a type that no such context partitions are assigned to a lane by event type.
+         * @param threadPoolInboundPartitioned indicator whether inbound threading is partition-affine
+         */
+        public void setThreadPoolInboundPartitioned(boolean threadPoolInboundPartitioned)
+        {
+            isThreadPoolInboundPartitioned = threadPoolInboundPartitioned;
+        }
+
+        /**
+         * Returns the kind of work queue backing the inbound, outbound, timer execution and route execution thread pools.
+         * @return queue strategy
+         */
+        public QueueStrategy getThreadPoolQueueStrategy()
+        {
+            return threadPoolQueueStrategy;
+        }
+
+        /**
+         * Sets the kind of work queue backing the inbound, outbound, timer execution and route execution thread pools.
+         * <p>
+         * The default is {@link QueueStrategy#BLOCKING}.
+         * @param threadPoolQueueStrategy queue strategy
+         */
+        public void setThreadPoolQueueStrategy(QueueStrategy threadPoolQueueStrategy)
+        {
+            this.threadPoolQueueStrategy = threadPoolQueueStrategy;
+        }
+
+        /**
+         * Returns the technique by which threads wait on a full or empty ring buffer work queue.
+         * @return wait strategy
+         */
+        public WaitStrategy getThreadPoolQueueWaitStrategy()
+        {
+            return threadPoolQueueWaitStrategy;
+        }
+
+        /**
+         * Sets the technique by which threads wait on a full or empty ring buffer work queue,
+         * applicable only to the {@link QueueStrategy#RING_BUFFER} queue strategy.
+         * <p>
+         * The default is {@link WaitStrategy#PARK}.
+         * @param threadPoolQueueWaitStrategy wait strategy
+         */
+        public void setThreadPoolQueueWaitStrategy(WaitStrategy threadPoolQueueWaitStrategy)
+        {
+            this.threadPoolQueueWaitStrategy = threadPoolQueueWaitStrategy;
+        }
+
         /**
          * Returns the capacity of the route execution queue, or null if none defined (the unbounded case, default).
          * @return capacity or null if none defined
@@ -808,6 +880,28 @@ public class ConfigurationEngineDefaults implements Serializable
             this.namedWindowConsumerDispatchLocking = namedWindowConsumerDispatchLocking;
         }
 
+        /**
+         * Returns the maximum time in milliseconds that listener and subscriber output produced by events
+         * sent as a batch (see {@link EPRuntime#sendEventBatch(Object[])}) may be held back before it is dispatched.
+         * <p>
+         * The default is zero, meaning results are dispatched once at the end of each batch.
+         * @return maximum batch dispatch latency in milliseconds, or zero for dispatch at end of batch
+         */
+        public long getSendBatchDispatchMaxLatency() {
+            return sendBatchDispatchMaxLatency;
+        }
+
+        /**
+         * Sets the maximum time in milliseconds that listener and subscriber output produced by events
+         * sent as a batch (see {@link EPRuntime#sendEventBatch(Object[])}) may be held back before it is dispatched.
+         * <p>
+         * The default is zero, meaning results are dispatched once at the end of each batch.
+         * @param sendBatchDispatchMaxLatency maximum batch dispatch latency in milliseconds, or zero for dispatch at end of batch
+         */
+        public void setSendBatchDispatchMaxLatency(long sendBatchDispatchMaxLatency) {
+            this.sendBatchDispatchMaxLatency = sendBatchDispatchMaxLatency;
+        }
+
         /**
          * Enumeration of blocking techniques.
          */
@@ -825,6 +919,44 @@ public class ConfigurationEngineDefaults implements Serializable
              */
             SUSPEND
         }
+
+        /**
+         * Enumeration of work queues for thread pools.
+         */
+        public enum QueueStrategy
+        {
+            /**
+             * Lock-based blocking queue, linked when unbounded or array-backed when a capacity is provided, and the default.
+             */
+            BLOCKING,
+
+            /**
+             * Lock-free multi-producer multi-consumer ring buffer preallocated to the capacity provided, or to a default capacity
+             * of 1024 when none is provided, waiting according to the wait strategy when full or empty.
+             */
+            RING_BUFFER
+        }
+
+        /**
+         * Enumeration of techniques for waiting on a full or empty ring buffer work queue.
+         */
+        public enum WaitStrategy
+        {
+            /**
+             * Busy spin, lowest latency at the cost of a fully used core per waiting thread.
+             */
+            BUSY_SPIN,
+
+            /**
+             * Spin yielding to other threads between attempts.
+             */
+            YIELD,
+
+            /**
+             * Park the waiting thread for short and increasing periods between attempts, and the default.
+             */
+            PARK
+        }
     }
 
     /**
@@ -833,8 +965,10 @@ public class ConfigurationEngineDefaults implements Serializable
     public static class ViewResources implements Serializable
     {
         private boolean shareViews;
+        private boolean shareContextPartitionViews;
         private boolean allowMultipleExpiryPolicies;
         private boolean iterableUnbound;
+        private boolean timeWindowBulkExpiry;
         private static final long serialVersionUID = 2527853225433208362L;
 
         /**
@@ -843,8 +977,10 @@ public class ConfigurationEngineDefaults implements Serializable
         protected ViewResources()
         {
             shareViews = true;
+            shareContextPartitionViews = false;
             allowMultipleExpiryPolicies = false;
             iterableUnbound = false;
+            timeWindowBulkExpiry = false;
         }
 
         /**
@@ -869,6 +1005,28 @@ public class ConfigurationEngineDefaults implements Serializable
             this.shareViews = shareViews;
         }
 
+        /**
+         * Returns true to indicate the engine shares view resources between statements of the same context
+         * partition, or false (the default) to indicate each context partition of each statement receives own view resources.
+         * <p>
+         * Applies only when view resources are shared between statements.
+         * @return indicator whether view resources are shared between statements within a context partition
+         */
+        public boolean isShareContextPartitionViews()
+        {
+            return shareContextPartitionViews;
+        }
+
+        /**
+         * Set the flag to instruct the engine whether to share view resources between statements
+         * of the same context partition.
+         * @param shareContextPartitionViews is true to share view resources between statements of the same context partition
+         */
+        public void setShareContextPartitionViews(boolean shareContextPartitionViews)
+        {
+            this.shareContextPartitionViews = shareContextPartitionViews;
+        }
+
         /**
          * By default this setting is false and thereby multiple expiry policies
          * provided by views can only be combined if any of the retain-keywords is also specified for the stream.
@@ -910,6 +1068,26 @@ public class ConfigurationEngineDefaults implements Serializable
         public void setIterableUnbound(boolean iterableUnbound) {
             this.iterableUnbound = iterableUnbound;
         }
+
+        /**
+         * Returns true to indicate that time windows expire in bulk when the engine advances time by a time span,
+         * or false (the default) to indicate that time windows expire at each intermediate time of a time span.
+         * <p>
+         * With bulk expiry a time window that would expire events at an intermediate time of a time span instead
+         * expires all such events at the end of the time span and posts them as a single remove stream batch.
+         * @return indicator whether time windows expire in bulk for time spans
+         */
+        public boolean isTimeWindowBulkExpiry() {
+            return timeWindowBulkExpiry;
+        }
+
+        /**
+         * Sets the flag to indicate whether time windows expire in bulk when the engine advances time by a time span.
+         * @param timeWindowBulkExpiry is true to expire in bulk, or false to expire at each intermediate time
+         */
+        public void setTimeWindowBulkExpiry(boolean timeWindowBulkExpiry) {
+            this.timeWindowBulkExpiry = timeWindowBulkExpiry;
+        }
     }
 
     /**
@@ -923,6 +1101,7 @@ public class ConfigurationEngineDefaults implements Serializable
         private ConfigurationEventTypeLegacy.AccessorStyle defaultAccessorStyle;
         private Configuration.EventRepresentation defaultEventRepresentation;
         private int anonymousCacheSize = 5;
+        private PropertyGetterCodegen propertyGetterCodegen;
 
         /**
          * Ctor.
@@ -932,6 +1111,7 @@ public class ConfigurationEngineDefaults implements Serializable
             this.classPropertyResolutionStyle = Configuration.PropertyResolutionStyle.getDefault();
             this.defaultAccessorStyle = ConfigurationEventTypeLegacy.AccessorStyle.JAVABEAN;
             this.defaultEventRepresentation = Configuration.EventRepresentation.getDefault();
+            this.propertyGetterCodegen = PropertyGetterCodegen.FASTCLASS;
         }
 
         /**
@@ -1003,6 +1183,24 @@ public class ConfigurationEngineDefaults implements Serializable
         public void setAnonymousCacheSize(int anonymousCacheSize) {
             this.anonymousCacheSize = anonymousCacheSize;
         }
+
+        /**
+         * Returns the code generation for property getters of Java object events, FASTCLASS unless changed.
+         * @return code generation
+         */
+        public PropertyGetterCodegen getPropertyGetterCodegen() {
+            return propertyGetterCodegen;
+        }
+
+        /**
+         * Sets the code generation for property getters of Java object events.
+         * <p>
+         * Applies to event classes that do not disable code generation in their class-specific configuration.
+         * @param propertyGetterCodegen code generation
+         */
+        public void setPropertyGetterCodegen(PropertyGetterCodegen propertyGetterCodegen) {
+            this.propertyGetterCodegen = propertyGetterCodegen;
+        }
     }
 
     /**
@@ -1614,7 +1812,11 @@ public class ConfigurationEngineDefaults implements Serializable
         private ThreadingProfile threadingProfile = ThreadingProfile.NORMAL;
         private FilterServiceProfile filterServiceProfile = FilterServiceProfile.READMOSTLY;
         private int filterServiceMaxFilterWidth = 16;
+        private int filterServiceRangeTreeThreshold = 16;
+        private boolean filterExprCompile;
+        private SchedulingServiceProfile schedulingServiceProfile = SchedulingServiceProfile.SORTED;
         private int declaredExprValueCacheSize = 1;
+        private boolean fireAndForgetParallel;
 
         private static final long serialVersionUID = 0L;
 
@@ -1748,6 +1950,59 @@ public class ConfigurationEngineDefaults implements Serializable
             this.filterServiceMaxFilterWidth = filterServiceMaxFilterWidth;
         }
 
+        /**
+         * Returns the number of ranges above which a range filter index for an event property, such as for
+         * "between" and "in" ranges, also keeps the ranges in an interval tree for matching.
+         * @return interval tree threshold, 16 by default
+         */
+        public int getFilterServiceRangeTreeThreshold() {
+            return filterServiceRangeTreeThreshold;
+        }
+
+        /**
+         * Sets the number of ranges above which a range filter index for an event property, such as for
+         * "between" and "in" ranges, also keeps the ranges in an interval tree for matching.
+         * Zero means the index always uses an interval tree.
+         * @param filterServiceRangeTreeThreshold interval tree threshold
+         */
+        public void setFilterServiceRangeTreeThreshold(int filterServiceRangeTreeThreshold) {
+            this.filterServiceRangeTreeThreshold = filterServiceRangeTreeThreshold;
+        }
+
+        /**
+         * Returns indicator whether filter boolean expressions that cannot be reverse-indexed are compiled,
+         * for evaluating them sharing event property reads, instead of interpreting each expression.
+         * @return compile indicator, false by default
+         */
+        public boolean isFilterExprCompile() {
+            return filterExprCompile;
+        }
+
+        /**
+         * Sets indicator whether filter boolean expressions that cannot be reverse-indexed are compiled,
+         * for evaluating them sharing event property reads, instead of interpreting each expression.
+         * @param filterExprCompile compile indicator
+         */
+        public void setFilterExprCompile(boolean filterExprCompile) {
+            this.filterExprCompile = filterExprCompile;
+        }
+
+        /**
+         * Returns the scheduling service profile that selects the data structure for keeping schedules.
+         * @return scheduling service profile
+         */
+        public SchedulingServiceProfile getSchedulingServiceProfile() {
+            return schedulingServiceProfile;
+        }
+
+        /**
+         * Sets the scheduling service profile that selects the data structure for keeping schedules.
+         * @param schedulingServiceProfile scheduling service profile
+         */
+        public void setSchedulingServiceProfile(SchedulingServiceProfile schedulingServiceProfile) {
+            this.schedulingServiceProfile = schedulingServiceProfile;
+        }
+
         /**
          * Returns the cache size for declared expression values
          * @return value
@@ -1763,6 +2018,24 @@ public class ConfigurationEngineDefaults implements Serializable
         public void setDeclaredExprValueCacheSize(int declaredExprValueCacheSize) {
             this.declaredExprValueCacheSize = declaredExprValueCacheSize;
         }
+
+        /**
+         * Returns indicator whether fire-and-forget queries evaluate their where-clause and stream filter expressions
+         * in parallel over segments of the named window or table snapshot.
+         * @return parallel indicator, false by default
+         */
+        public boolean isFireAndForgetParallel() {
+            return fireAndForgetParallel;
+        }
+
+        /**
+         * Sets indicator whether fire-and-forget queries evaluate their where-clause and stream filter expressions
+         * in parallel over segments of the named window or table snapshot.
+         * @param fireAndForgetParallel parallel indicator
+         */
+        public void setFireAndForgetParallel(boolean fireAndForgetParallel) {
+            this.fireAndForgetParallel = fireAndForgetParallel;
+        }
     }
 
     /**
@@ -1794,7 +2067,54 @@ public class ConfigurationEngineDefaults implements Serializable
         /**
          * For very dynamic filters that come and go in a highly threaded environment.
          */
-        READWRITE
+        READWRITE,
+
+        /**
+         * For filters that rarely change and a high event rate evaluated by many threads: evaluating events
+         * does not lock, changing filters copies the changed filter index structures.
+         */
+        COPYONWRITE
+    }
+
+    /**
+     * Scheduling service profile.
+     */
+    public enum SchedulingServiceProfile
+    {
+        /**
+         * Keeps schedules sorted by time, the default.
+         */
+        SORTED,
+
+        /**
+         * Keeps schedules in a hierarchical timing wheel with constant-time add and remove,
+         * for many schedules that are frequently added and removed such as by time windows and pattern timers.
+         */
+        TIMINGWHEEL,
+
+        /**
+         * Keeps schedules sorted by time in stripes by statement context partition, each stripe with its own lock,
+         * for multiple threads that add and remove schedules concurrently.
+         */
+        STRIPED
+    }
+
+    /**
+     * Code generation for property getters of Java object events.
+     */
+    public enum PropertyGetterCodegen
+    {
+        /**
+         * Read methods are invoked through a CGLib fast class, the default.
+         */
+        FASTCLASS,
+
+        /**
+         * Read methods are invoked through an accessor class generated per property by the JVM lambda metafactory,
+         * which the JIT compiler can inline into filter and view evaluation. Read methods that are not public
+         * or not visible to the engine class loader use the fast class instead.
+         */
+        LAMBDA
     }
 
     /**
@@ -1157,6 +1157,11 @@ class ConfigurationParser {
                 configuration.getEngineDefaults().getThreading().setThreadPoolInbound(result.isEnabled());
                 configuration.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(result.getNumThreads());
                 configuration.getEngineDefaults().getThreading().setThreadPoolInboundCapacity(result.getCapacity());
+                String partitionedText = getOptionalAttribute(subElement, "partitioned");
+                if (partitionedText != null)
+                {
+                    configuration.getEngineDefaults().getThreading().setThreadPoolInboundPartitioned(Boolean.parseBoolean(partitionedText));
+                }
             }
             if (subElement.getNodeName().equals("threadpool-outbound"))
             {
@@ -1179,6 +1184,24 @@ class ConfigurationParser {
                 configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecNumThreads(result.getNumThreads());
                 configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecCapacity(result.getCapacity());
             }
+            if (subElement.getNodeName().equals("threadpool-queue"))
+            {
+                String strategyText = getRequiredAttribute(subElement, "strategy");
+                configuration.getEngineDefaults().getThreading().setThreadPoolQueueStrategy(
+                        ConfigurationEngineDefaults.Threading.QueueStrategy.valueOf(strategyText.toUpperCase()));
+                String waitStrategyText = getOptionalAttribute(subElement, "wait-strategy");
+                if (waitStrategyText != null)
+                {
+                    configuration.getEngineDefaults().getThreading().setThreadPoolQueueWaitStrategy(
+                            ConfigurationEngineDefaults.Threading.WaitStrategy.valueOf(waitStrategyText.toUpperCase()));
+                }
+            }
+            if (subElement.getNodeName().equals("send-batch"))
+            {
+                String maxLatencyText = getRequiredAttribute(subElement, "dispatch-max-latency-msec");
+                Long maxLatency = Long.parseLong(maxLatencyText);
+                configuration.getEngineDefaults().getThreading().setSendBatchDispatchMaxLatency(maxLatency);
+            }
         }
     }
 
@@ -1212,6 +1235,12 @@ class ConfigurationParser {
                 Boolean value = Boolean.parseBoolean(valueText);
                 configuration.getEngineDefaults().getViewResources().setShareViews(value);
             }
+            if (subElement.getNodeName().equals("share-context-partition-views"))
+            {
+                String valueText = getRequiredAttribute(subElement, "enabled");
+                Boolean value = Boolean.parseBoolean(valueText);
+                configuration.getEngineDefaults().getViewResources().setShareContextPartitionViews(value);
+            }
             if (subElement.getNodeName().equals("allow-multiple-expiry-policy"))
             {
                 String valueText = getRequiredAttribute(subElement, "enabled");
@@ -1224,6 +1253,12 @@ class ConfigurationParser {
                 Boolean value = Boolean.parseBoolean(valueText);
                 configuration.getEngineDefaults().getViewResources().setIterableUnbound(value);
             }
+            if (subElement.getNodeName().equals("time-window-bulk-expiry"))
+            {
+                String valueText = getRequiredAttribute(subElement, "enabled");
+                Boolean value = Boolean.parseBoolean(valueText);
+                configuration.getEngineDefaults().getViewResources().setTimeWindowBulkExpiry(value);
+            }
         }
     }
 
@@ -1553,11 +1588,27 @@ class ConfigurationParser {
             ConfigurationEngineDefaults.FilterServiceProfile profile = ConfigurationEngineDefaults.FilterServiceProfile.valueOf(filterServiceProfileStr.toUpperCase());
             configuration.getEngineDefaults().getExecution().setFilterServiceProfile(profile);
         }
+        String schedulingServiceProfileStr = getOptionalAttribute(parentElement, "scheduling-service-profile");
+        if (schedulingServiceProfileStr != null)
+        {
+            ConfigurationEngineDefaults.SchedulingServiceProfile profile = ConfigurationEngineDefaults.SchedulingServiceProfile.valueOf(schedulingServiceProfileStr.toUpperCase());
+            configuration.getEngineDefaults().getExecution().setSchedulingServiceProfile(profile);
+        }
         String filterServiceMaxFilterWidthStr = getOptionalAttribute(parentElement, "filter-service-max-filter-width");
         if (filterServiceMaxFilterWidthStr != null)
         {
             configuration.getEngineDefaults().getExecution().setFilterServiceMaxFilterWidth(Integer.parseInt(filterServiceMaxFilterWidthStr));
         }
+        String filterServiceRangeTreeThresholdStr = getOptionalAttribute(parentElement, "filter-service-range-tree-threshold");
+        if (filterServiceRangeTreeThresholdStr != null)
+        {
+            configuration.getEngineDefaults().getExecution().setFilterServiceRangeTreeThreshold(Integer.parseInt(filterServiceRangeTreeThresholdStr));
+        }
+        String filterExprCompileStr = getOptionalAttribute(parentElement, "filter-expr-compile");
+        if (filterExprCompileStr != null)
+        {
+            configuration.getEngineDefaults().getExecution().setFilterExprCompile(Boolean.parseBoolean(filterExprCompileStr));
+        }
         String allowIsolatedServiceStr = getOptionalAttribute(parentElement, "allow-isolated-service");
         if (allowIsolatedServiceStr != null)
         {
@@ -1569,6 +1620,11 @@ class ConfigurationParser {
         {
             configuration.getEngineDefaults().getExecution().setDeclaredExprValueCacheSize(Integer.parseInt(declExprValueCacheSizeStr));
         }
+        String fireAndForgetParallelStr = getOptionalAttribute(parentElement, "fire-and-forget-parallel");
+        if (fireAndForgetParallelStr != null)
+        {
+            configuration.getEngineDefaults().getExecution().setFireAndForgetParallel(Boolean.parseBoolean(fireAndForgetParallelStr));
+        }
     }
 
     private static void handleDefaultScriptConfig(Configuration configuration, Element parentElement)
@@ -1664,6 +1720,15 @@ class ConfigurationParser {
                     configuration.getEngineDefaults().getEventMeta().setAnonymousCacheSize(Integer.parseInt(sizeNode.getTextContent()));
                 }
             }
+
+            if (subElement.getNodeName().equals("property-getter"))
+            {
+                Node codegenNode = subElement.getAttributes().getNamedItem("codegen");
+                if (codegenNode != null) {
+                    ConfigurationEngineDefaults.PropertyGetterCodegen value = ConfigurationEngineDefaults.PropertyGetterCodegen.valueOf(codegenNode.getTextContent().toUpperCase());
+                    configuration.getEngineDefaults().getEventMeta().setPropertyGetterCodegen(value);
+                }
+            }
         }
     }
 
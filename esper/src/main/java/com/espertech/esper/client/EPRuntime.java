@@ -15,6 +15,7 @@ import com.espertech.esper.client.soda.EPStatementObjectModel;
 import com.espertech.esper.client.util.EventRenderer;
 
 import java.net.URI;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -76,6 +77,35 @@ public interface EPRuntime
      */
     public void sendEvent(org.w3c.dom.Node node) throws EPException;
 
+    /**
+     * Send a batch of event objects to the event stream processing runtime.
+     * <p>
+     * Each event is processed in the order provided and exactly as if sent by {@link #sendEvent(Object)}, including
+     * the processing of any events routed or inserted-into other streams as a result of the event.
+     * The engine however acquires its processing lock once per batch and dispatches results to listeners and
+     * subscribers once at the end of the batch, or when the batch dispatch latency configured
+     * by {@link ConfigurationEngineDefaults.Threading#setSendBatchDispatchMaxLatency(long)} is exceeded.
+     * Listeners may therefore receive the output of multiple events of the batch in one invocation.
+     * <p>
+     * Elements of the batch can be Java object events or {@link EventBean} instances. Use an {@link EventSender}
+     * for batches of Map, Object-array or XML DOM events.
+     *
+     * @param events is the batch of events to sent to the runtime
+     * @throws EPException is thrown when the processing of an event lead to an error
+     */
+    public void sendEventBatch(Object[] events) throws EPException;
+
+    /**
+     * Send a collection of event objects as a batch to the event stream processing runtime, in iteration order,
+     * see {@link #sendEventBatch(Object[])}.
+     *
+     * @param events is the batch of events to sent to the runtime
+     * @throws EPException is thrown when the processing of an event lead to an error
+     */
+    public default void sendEventBatch(Collection<?> events) throws EPException {
+        sendEventBatch(events.toArray());
+    }
+
     /**
      * Number of events evaluated over the lifetime of the event stream processing runtime,
      * or since the last resetStats() call.
@@ -8,6 +8,8 @@
  **************************************************************************************/
 package com.espertech.esper.client;
 
+import java.util.Collection;
+
 /**
  * Returns a facility to process event objects that are of a known type.
  * <p>
@@ -30,6 +32,31 @@ public interface EventSender
      */
     public void sendEvent(Object theEvent) throws EPException;
 
+    /**
+     * Processes a batch of event objects, in the order provided.
+     * <p>
+     * The engine acquires its processing lock once per batch and dispatches results to listeners once per batch,
+     * see {@link EPRuntime#sendEventBatch(Object[])}.
+     * <p>
+     * The default implementation processes each event by calling {@link #sendEvent(Object)}.
+     * @param events to process
+     * @throws EPException if a runtime error occured.
+     */
+    public default void sendEventBatch(Object[] events) throws EPException {
+        for (Object theEvent : events) {
+            sendEvent(theEvent);
+        }
+    }
+
+    /**
+     * Processes a collection of event objects as a batch, in iteration order, see {@link #sendEventBatch(Object[])}.
+     * @param events to process
+     * @throws EPException if a runtime error occured.
+     */
+    public default void sendEventBatch(Collection<?> events) throws EPException {
+        sendEventBatch(events.toArray());
+    }
+
     /**
      * Route the event object back to the event stream processing runtime for internal dispatching,
      * to avoid the possibility of a stack overflow due to nested calls to sendEvent.
@@ -79,6 +79,11 @@ public enum HintEnum
      */
     PREFER_MERGE_JOIN("PREFER_MERGE_JOIN", false, false, false),
 
+    /**
+     * For use with join query plans to select among alternative lookup orders according to runtime index statistics.
+     */
+    ADAPTIVE_JOIN("ADAPTIVE_JOIN", false, false, false),
+
     /**
      * For use everywhere where indexes are used (subquery, joins, fire-and-forget, onl-select etc.), index hint.
      */
@@ -107,7 +112,27 @@ public enum HintEnum
     /**
      * For use with output rate limiting to enable certain optimization that may however change output.
      */
-    ENABLE_OUTPUTLIMIT_OPT("ENABLE_OUTPUTLIMIT_OPT", false, false, false);
+    ENABLE_OUTPUTLIMIT_OPT("ENABLE_OUTPUTLIMIT_OPT", false, false, false),
+
+    /**
+     * For use with time and length data windows to keep window contents of object-array and map events in off-heap columnar storage.
+     */
+    WINDOW_OFFHEAP("WINDOW_OFFHEAP", false, false, false),
+
+    /**
+     * For use with group-by to keep aggregation state of all groups in primitive arrays per aggregation function.
+     */
+    AGGREGATION_COLUMNAR("AGGREGATION_COLUMNAR", false, false, false),
+
+    /**
+     * For use with create-window to build hash indexes of the named window for lock-free reads by subqueries.
+     */
+    INDEX_CONCURRENT_READ("INDEX_CONCURRENT_READ", false, false, false),
+
+    /**
+     * For use with fire-and-forget queries to evaluate filter expressions in parallel over segments of the snapshot.
+     */
+    FIRE_AND_FORGET_PARALLEL("FIRE_AND_FORGET_PARALLEL", false, false, false);
 
     private final String value;
     private final boolean acceptsParameters;
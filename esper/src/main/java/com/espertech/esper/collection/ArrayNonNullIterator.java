@@ -0,0 +1,63 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator over an array that skips null elements.
+ */
+public class ArrayNonNullIterator<T> implements Iterator<T>
+{
+    private final Object[] array;
+    private final int length;
+    private int position;
+
+    /**
+     * Ctor.
+     * @param array to iterate
+     * @param length number of leading array elements to iterate
+     */
+    public ArrayNonNullIterator(Object[] array, int length)
+    {
+        this.array = array;
+        this.length = length;
+        advance();
+    }
+
+    public boolean hasNext()
+    {
+        return position < length;
+    }
+
+    public T next()
+    {
+        if (position >= length)
+        {
+            throw new NoSuchElementException();
+        }
+        T value = (T) array[position++];
+        advance();
+        return value;
+    }
+
+    public void remove()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    private void advance()
+    {
+        while (position < length && array[position] == null)
+        {
+            position++;
+        }
+    }
+}
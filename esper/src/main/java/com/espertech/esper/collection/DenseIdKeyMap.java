@@ -0,0 +1,275 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Map of keys to dense integer ids, for use by storage that keeps state per key in arrays indexed by the id.
+ * <p>
+ * Keys are kept in an open-addressing table with linear probing, without an entry object per key.
+ * Adding a key reuses an id released by a removal, if any, or else assigns the next id, so that ids
+ * remain dense within {@link #getIdCapacity()}.
+ * Removal uses backward-shift deletion and does not leave tombstones.
+ * <p>
+ * The null key is allowed.
+ */
+public class DenseIdKeyMap
+{
+    private static final int NO_ID = -1;
+    private static final Object NULL_KEY = new Object();
+
+    private Object[] tableKeys;
+    private int[] tableIds;
+    private int mask;
+    private int size;
+
+    private Object[] keysById;
+    private int idCapacity;
+    private int[] freeIds;
+    private int numFreeIds;
+
+    /**
+     * Ctor.
+     */
+    public DenseIdKeyMap()
+    {
+        clear();
+    }
+
+    /**
+     * Clear out the map.
+     */
+    public void clear()
+    {
+        tableKeys = new Object[16];
+        tableIds = new int[16];
+        mask = 15;
+        size = 0;
+        keysById = new Object[8];
+        idCapacity = 0;
+        freeIds = new int[4];
+        numFreeIds = 0;
+    }
+
+    /**
+     * Returns the id for the key.
+     * @param key to look up
+     * @return id or -1 if the key is not in the map
+     */
+    public int get(Object key)
+    {
+        if (key == null)
+        {
+            key = NULL_KEY;
+        }
+        int slot = hash(key) & mask;
+        while (true)
+        {
+            Object existing = tableKeys[slot];
+            if (existing == null)
+            {
+                return NO_ID;
+            }
+            if (existing.equals(key))
+            {
+                return tableIds[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Adds a key that is not already in the map and assigns an id.
+     * @param key to add
+     * @return assigned id
+     */
+    public int add(Object key)
+    {
+        if (key == null)
+        {
+            key = NULL_KEY;
+        }
+        if ((size + 1) * 4 > tableKeys.length * 3)
+        {
+            resize(tableKeys.length * 2);
+        }
+
+        int id;
+        if (numFreeIds > 0)
+        {
+            id = freeIds[--numFreeIds];
+        }
+        else
+        {
+            id = idCapacity++;
+            if (id == keysById.length)
+            {
+                Object[] newKeysById = new Object[keysById.length * 2];
+                System.arraycopy(keysById, 0, newKeysById, 0, keysById.length);
+                keysById = newKeysById;
+            }
+        }
+        keysById[id] = key;
+        insert(key, id);
+        size++;
+        return id;
+    }
+
+    /**
+     * Removes the key, releasing its id for reuse by keys added later.
+     * @param key to remove
+     * @return id that the key had or -1 if the key was not in the map
+     */
+    public int remove(Object key)
+    {
+        if (key == null)
+        {
+            key = NULL_KEY;
+        }
+        int slot = hash(key) & mask;
+        while (true)
+        {
+            Object existing = tableKeys[slot];
+            if (existing == null)
+            {
+                return NO_ID;
+            }
+            if (existing.equals(key))
+            {
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int id = tableIds[slot];
+        deleteSlot(slot);
+        size--;
+
+        keysById[id] = null;
+        if (numFreeIds == freeIds.length)
+        {
+            int[] newFreeIds = new int[freeIds.length * 2];
+            System.arraycopy(freeIds, 0, newFreeIds, 0, freeIds.length);
+            freeIds = newFreeIds;
+        }
+        freeIds[numFreeIds++] = id;
+        return id;
+    }
+
+    /**
+     * Returns the key for the id.
+     * @param id of the key
+     * @return key
+     */
+    public Object getKey(int id)
+    {
+        Object key = keysById[id];
+        return key == NULL_KEY ? null : key;
+    }
+
+    /**
+     * Returns true if the id is assigned to a key.
+     * @param id to check
+     * @return indicator
+     */
+    public boolean isAssigned(int id)
+    {
+        return id < idCapacity && keysById[id] != null;
+    }
+
+    /**
+     * Returns the number of keys.
+     * @return size
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns an upper bound for assigned ids, i.e. all assigned ids are less than the capacity.
+     * @return id capacity
+     */
+    public int getIdCapacity()
+    {
+        return idCapacity;
+    }
+
+    /**
+     * Returns a new collection of the keys in the map.
+     * @return keys
+     */
+    public Collection<Object> getKeys()
+    {
+        List<Object> keys = new ArrayList<Object>(size);
+        for (int i = 0; i < idCapacity; i++)
+        {
+            if (keysById[i] != null)
+            {
+                keys.add(keysById[i] == NULL_KEY ? null : keysById[i]);
+            }
+        }
+        return keys;
+    }
+
+    private void insert(Object key, int id)
+    {
+        int slot = hash(key) & mask;
+        while (tableKeys[slot] != null)
+        {
+            slot = (slot + 1) & mask;
+        }
+        tableKeys[slot] = key;
+        tableIds[slot] = id;
+    }
+
+    private void deleteSlot(int slot)
+    {
+        // shift back following entries of the probe sequence that would otherwise become unreachable
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (tableKeys[next] != null)
+        {
+            int home = hash(tableKeys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask))
+            {
+                tableKeys[gap] = tableKeys[next];
+                tableIds[gap] = tableIds[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        tableKeys[gap] = null;
+    }
+
+    private void resize(int newLength)
+    {
+        Object[] oldKeys = tableKeys;
+        int[] oldIds = tableIds;
+        tableKeys = new Object[newLength];
+        tableIds = new int[newLength];
+        mask = newLength - 1;
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            if (oldKeys[i] != null)
+            {
+                insert(oldKeys[i], oldIds[i]);
+            }
+        }
+    }
+
+    private static int hash(Object key)
+    {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,266 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Hash map of primitive long keys to non-null values, using open addressing with linear probing
+ * so that lookups neither box the key nor allocate.
+ * <p>
+ * For iteration use {@link #getTableLength()} and {@link #getValueAt(int)}, which returns null for empty table slots,
+ * and {@link #getKeyAt(int)}. Not thread-safe.
+ */
+public class LongHashMap<V>
+{
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    /**
+     * Ctor.
+     */
+    public LongHashMap()
+    {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Ctor for a copy of the map.
+     * @param other map to copy
+     */
+    public LongHashMap(LongHashMap<V> other)
+    {
+        this.keys = other.keys.clone();
+        this.values = other.values.clone();
+        this.mask = other.mask;
+        this.size = other.size;
+    }
+
+    /**
+     * Returns the value for the key, or null if the key is not found.
+     * @param key to look up
+     * @return value or null
+     */
+    public V get(long key)
+    {
+        int index = indexOf(key);
+        while (true)
+        {
+            Object value = values[index];
+            if (value == null)
+            {
+                return null;
+            }
+            if (keys[index] == key)
+            {
+                return (V) value;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Puts a value for the key.
+     * @param key key
+     * @param value non-null value
+     * @return previous value or null if the key was not found
+     */
+    public V put(long key, V value)
+    {
+        if (value == null)
+        {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        int index = indexOf(key);
+        while (true)
+        {
+            Object existing = values[index];
+            if (existing == null)
+            {
+                break;
+            }
+            if (keys[index] == key)
+            {
+                values[index] = value;
+                return (V) existing;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        size++;
+        if (size * 2 > values.length)
+        {
+            resize(values.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Removes the key.
+     * @param key to remove
+     * @return removed value or null if the key was not found
+     */
+    public V remove(long key)
+    {
+        int index = indexOf(key);
+        while (true)
+        {
+            Object value = values[index];
+            if (value == null)
+            {
+                return null;
+            }
+            if (keys[index] == key)
+            {
+                shiftBack(index);
+                size--;
+                return (V) value;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Returns the number of keys.
+     * @return size
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns true if there are no keys.
+     * @return empty indicator
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Removes all keys.
+     */
+    public void clear()
+    {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Returns a read-only collection view of the values, in table order.
+     * @return values
+     */
+    public Collection<V> values()
+    {
+        return new AbstractCollection<V>() {
+            public Iterator<V> iterator() {
+                return new ArrayNonNullIterator<V>(values, values.length);
+            }
+
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Returns the length of the table for iteration.
+     * @return table length
+     */
+    public int getTableLength()
+    {
+        return values.length;
+    }
+
+    /**
+     * Returns the key at the table slot, only meaningful when the value at the slot is not null.
+     * @param index table slot
+     * @return key
+     */
+    public long getKeyAt(int index)
+    {
+        return keys[index];
+    }
+
+    /**
+     * Returns the value at the table slot or null for an empty slot.
+     * @param index table slot
+     * @return value or null
+     */
+    public V getValueAt(int index)
+    {
+        return (V) values[index];
+    }
+
+    private int indexOf(long key)
+    {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    // closes the gap left by a removed entry by moving back entries of the same probe sequence
+    private void shiftBack(int gap)
+    {
+        int index = gap;
+        while (true)
+        {
+            index = (index + 1) & mask;
+            Object value = values[index];
+            if (value == null)
+            {
+                break;
+            }
+            int home = indexOf(keys[index]);
+            // move the entry if its home slot is not cyclically within (gap, index]
+            if (gap <= index ? (home <= gap || home > index) : (home <= gap && home > index))
+            {
+                keys[gap] = keys[index];
+                values[gap] = value;
+                gap = index;
+            }
+        }
+        values[gap] = null;
+    }
+
+    private void resize(int capacity)
+    {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++)
+        {
+            if (oldValues[i] != null)
+            {
+                int index = indexOf(oldKeys[i]);
+                while (values[index] != null)
+                {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity)
+    {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+}
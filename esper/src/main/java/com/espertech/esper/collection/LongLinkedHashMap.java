@@ -0,0 +1,355 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Hash map of primitive long keys to non-null values that iterates in key insertion order, so that lookups
+ * neither box the key nor allocate. In addition to the long keys the map can hold a null key, see {@link #putNullKey(Object)},
+ * which takes its position in insertion order the same as any other key.
+ * <p>
+ * Entries are kept in insertion order in dense arrays and an open-addressing table with linear probing
+ * indexes into the entry arrays. Replacing the value of a key keeps its position. Removal leaves an empty entry
+ * that is reclaimed when the entry arrays are compacted.
+ * <p>
+ * For iteration use {@link #getTableLength()} and {@link #getValueAt(int)}, which returns null for removed entries,
+ * and {@link #getKeyAt(int)} and {@link #isNullKeyAt(int)}. Not thread-safe.
+ */
+public class LongLinkedHashMap<V>
+{
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] entryKeys;
+    private Object[] entryValues;
+    private int entryCount;
+    private int size;
+    private int nullKeyEntry = -1;
+    private int[] table;
+    private int mask;
+
+    /**
+     * Ctor.
+     */
+    public LongLinkedHashMap()
+    {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Returns the value for the key, or null if the key is not found.
+     * @param key to look up
+     * @return value or null
+     */
+    public V get(long key)
+    {
+        int index = indexOf(key);
+        while (true)
+        {
+            int entry = table[index] - 1;
+            if (entry < 0)
+            {
+                return null;
+            }
+            if (entryKeys[entry] == key)
+            {
+                return (V) entryValues[entry];
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Puts a value for the key, appending the key if not already present.
+     * @param key key
+     * @param value non-null value
+     * @return previous value or null if the key was not found
+     */
+    public V put(long key, V value)
+    {
+        if (value == null)
+        {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        int index = indexOf(key);
+        while (true)
+        {
+            int entry = table[index] - 1;
+            if (entry < 0)
+            {
+                break;
+            }
+            if (entryKeys[entry] == key)
+            {
+                Object existing = entryValues[entry];
+                entryValues[entry] = value;
+                return (V) existing;
+            }
+            index = (index + 1) & mask;
+        }
+        if (entryCount == entryKeys.length)
+        {
+            rebuild();
+            index = indexOf(key);
+            while (table[index] != 0)
+            {
+                index = (index + 1) & mask;
+            }
+        }
+        entryKeys[entryCount] = key;
+        entryValues[entryCount] = value;
+        table[index] = ++entryCount;
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the key.
+     * @param key to remove
+     * @return removed value or null if the key was not found
+     */
+    public V remove(long key)
+    {
+        int index = indexOf(key);
+        while (true)
+        {
+            int entry = table[index] - 1;
+            if (entry < 0)
+            {
+                return null;
+            }
+            if (entryKeys[entry] == key)
+            {
+                Object value = entryValues[entry];
+                entryValues[entry] = null;
+                shiftBack(index);
+                size--;
+                if (size == 0)
+                {
+                    entryCount = 0;
+                }
+                return (V) value;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Returns the value for the null key, or null if the null key is not found.
+     * @return value or null
+     */
+    public V getNullKey()
+    {
+        return nullKeyEntry < 0 ? null : (V) entryValues[nullKeyEntry];
+    }
+
+    /**
+     * Puts a value for the null key, appending the null key if not already present.
+     * @param value non-null value
+     * @return previous value or null if the null key was not found
+     */
+    public V putNullKey(V value)
+    {
+        if (value == null)
+        {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        if (nullKeyEntry >= 0)
+        {
+            Object existing = entryValues[nullKeyEntry];
+            entryValues[nullKeyEntry] = value;
+            return (V) existing;
+        }
+        if (entryCount == entryKeys.length)
+        {
+            rebuild();
+        }
+        entryValues[entryCount] = value;
+        nullKeyEntry = entryCount++;
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the null key.
+     * @return removed value or null if the null key was not found
+     */
+    public V removeNullKey()
+    {
+        if (nullKeyEntry < 0)
+        {
+            return null;
+        }
+        Object value = entryValues[nullKeyEntry];
+        entryValues[nullKeyEntry] = null;
+        nullKeyEntry = -1;
+        size--;
+        if (size == 0)
+        {
+            entryCount = 0;
+        }
+        return (V) value;
+    }
+
+    /**
+     * Returns the number of keys.
+     * @return size
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns true if there are no keys.
+     * @return empty indicator
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Removes all keys.
+     */
+    public void clear()
+    {
+        Arrays.fill(entryValues, 0, entryCount, null);
+        Arrays.fill(table, 0);
+        entryCount = 0;
+        size = 0;
+        nullKeyEntry = -1;
+    }
+
+    /**
+     * Returns a read-only collection view of the values, in key insertion order.
+     * @return values
+     */
+    public Collection<V> values()
+    {
+        return new AbstractCollection<V>() {
+            public Iterator<V> iterator() {
+                return new ArrayNonNullIterator<V>(entryValues, entryCount);
+            }
+
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Returns the number of entries for iteration, including removed entries.
+     * @return entry count
+     */
+    public int getTableLength()
+    {
+        return entryCount;
+    }
+
+    /**
+     * Returns true if the entry holds the null key.
+     * @param index entry index
+     * @return null key indicator
+     */
+    public boolean isNullKeyAt(int index)
+    {
+        return index == nullKeyEntry;
+    }
+
+    /**
+     * Returns the key of the entry, only meaningful when the value of the entry is not null and the entry does not hold the null key.
+     * @param index entry index
+     * @return key
+     */
+    public long getKeyAt(int index)
+    {
+        return entryKeys[index];
+    }
+
+    /**
+     * Returns the value of the entry or null for a removed entry.
+     * @param index entry index
+     * @return value or null
+     */
+    public V getValueAt(int index)
+    {
+        return (V) entryValues[index];
+    }
+
+    private int indexOf(long key)
+    {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    // closes the gap left by a removed entry by moving back table slots of the same probe sequence
+    private void shiftBack(int gap)
+    {
+        int index = gap;
+        while (true)
+        {
+            index = (index + 1) & mask;
+            int entry = table[index];
+            if (entry == 0)
+            {
+                break;
+            }
+            int home = indexOf(entryKeys[entry - 1]);
+            // move the slot if its home slot is not cyclically within (gap, index]
+            if (gap <= index ? (home <= gap || home > index) : (home <= gap && home > index))
+            {
+                table[gap] = entry;
+                gap = index;
+            }
+        }
+        table[gap] = 0;
+    }
+
+    // compacts removed entries, growing the entry arrays when mostly populated
+    private void rebuild()
+    {
+        long[] oldKeys = entryKeys;
+        Object[] oldValues = entryValues;
+        int oldCount = entryCount;
+        int oldNullKeyEntry = nullKeyEntry;
+        allocate(size * 2 > oldKeys.length ? oldKeys.length * 2 : oldKeys.length);
+        for (int i = 0; i < oldCount; i++)
+        {
+            if (i == oldNullKeyEntry)
+            {
+                entryValues[entryCount] = oldValues[i];
+                nullKeyEntry = entryCount++;
+            }
+            else if (oldValues[i] != null)
+            {
+                int index = indexOf(oldKeys[i]);
+                while (table[index] != 0)
+                {
+                    index = (index + 1) & mask;
+                }
+                entryKeys[entryCount] = oldKeys[i];
+                entryValues[entryCount] = oldValues[i];
+                table[index] = ++entryCount;
+            }
+        }
+    }
+
+    private void allocate(int capacity)
+    {
+        entryKeys = new long[capacity];
+        entryValues = new Object[capacity];
+        entryCount = 0;
+        table = new int[capacity * 2];
+        mask = table.length - 1;
+    }
+}
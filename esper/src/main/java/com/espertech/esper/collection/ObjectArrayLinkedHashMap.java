@@ -0,0 +1,298 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Hash map of composite keys, each key being an array of values compared element-wise, to non-null values
+ * that iterates in key insertion order.
+ * <p>
+ * Lookups take a probe array that the caller may reuse between calls, so that a lookup does not allocate
+ * a {@link MultiKeyUntyped} or other key object. Only when a new key gets appended is the probe array copied.
+ * Key arrays returned by {@link #getKeyAt(int)} are owned by the map and must not be modified.
+ * <p>
+ * Entries are kept in insertion order in dense arrays and an open-addressing table with linear probing
+ * indexes into the entry arrays. Replacing the value of a key keeps its position. Removal leaves an empty entry
+ * that is reclaimed when the entry arrays are compacted.
+ * <p>
+ * For iteration use {@link #getTableLength()} and {@link #getValueAt(int)}, which returns null for removed entries,
+ * and {@link #getKeyAt(int)}. Not thread-safe.
+ */
+public class ObjectArrayLinkedHashMap<V>
+{
+    private static final int MIN_CAPACITY = 8;
+
+    private Object[][] entryKeys;
+    private int[] entryHashes;
+    private Object[] entryValues;
+    private int entryCount;
+    private int size;
+    private int[] table;
+    private int mask;
+
+    /**
+     * Ctor.
+     */
+    public ObjectArrayLinkedHashMap()
+    {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Returns the value for the key, or null if the key is not found.
+     * @param probe key values to look up, not retained
+     * @return value or null
+     */
+    public V get(Object[] probe)
+    {
+        int hash = hash(probe);
+        int index = hash & mask;
+        while (true)
+        {
+            int entry = table[index] - 1;
+            if (entry < 0)
+            {
+                return null;
+            }
+            if (entryHashes[entry] == hash && Arrays.equals(entryKeys[entry], probe))
+            {
+                return (V) entryValues[entry];
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Puts a value for the key, appending a copy of the key values if the key is not already present.
+     * @param probe key values, not retained
+     * @param value non-null value
+     * @return previous value or null if the key was not found
+     */
+    public V put(Object[] probe, V value)
+    {
+        if (value == null)
+        {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        int hash = hash(probe);
+        int index = hash & mask;
+        while (true)
+        {
+            int entry = table[index] - 1;
+            if (entry < 0)
+            {
+                break;
+            }
+            if (entryHashes[entry] == hash && Arrays.equals(entryKeys[entry], probe))
+            {
+                Object existing = entryValues[entry];
+                entryValues[entry] = value;
+                return (V) existing;
+            }
+            index = (index + 1) & mask;
+        }
+        if (entryCount == entryKeys.length)
+        {
+            rebuild();
+            index = hash & mask;
+            while (table[index] != 0)
+            {
+                index = (index + 1) & mask;
+            }
+        }
+        entryKeys[entryCount] = probe.clone();
+        entryHashes[entryCount] = hash;
+        entryValues[entryCount] = value;
+        table[index] = ++entryCount;
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the key.
+     * @param probe key values, not retained
+     * @return removed value or null if the key was not found
+     */
+    public V remove(Object[] probe)
+    {
+        int hash = hash(probe);
+        int index = hash & mask;
+        while (true)
+        {
+            int entry = table[index] - 1;
+            if (entry < 0)
+            {
+                return null;
+            }
+            if (entryHashes[entry] == hash && Arrays.equals(entryKeys[entry], probe))
+            {
+                Object value = entryValues[entry];
+                entryKeys[entry] = null;
+                entryValues[entry] = null;
+                shiftBack(index);
+                size--;
+                if (size == 0)
+                {
+                    entryCount = 0;
+                }
+                return (V) value;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Returns the number of keys.
+     * @return size
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns true if there are no keys.
+     * @return empty indicator
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Removes all keys.
+     */
+    public void clear()
+    {
+        Arrays.fill(entryKeys, 0, entryCount, null);
+        Arrays.fill(entryValues, 0, entryCount, null);
+        Arrays.fill(table, 0);
+        entryCount = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns a read-only collection view of the values, in key insertion order.
+     * @return values
+     */
+    public Collection<V> values()
+    {
+        return new AbstractCollection<V>() {
+            public Iterator<V> iterator() {
+                return new ArrayNonNullIterator<V>(entryValues, entryCount);
+            }
+
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Returns the number of entries for iteration, including removed entries.
+     * @return entry count
+     */
+    public int getTableLength()
+    {
+        return entryCount;
+    }
+
+    /**
+     * Returns the key values of the entry, or null for a removed entry.
+     * @param index entry index
+     * @return key values owned by the map
+     */
+    public Object[] getKeyAt(int index)
+    {
+        return entryKeys[index];
+    }
+
+    /**
+     * Returns the value of the entry or null for a removed entry.
+     * @param index entry index
+     * @return value or null
+     */
+    public V getValueAt(int index)
+    {
+        return (V) entryValues[index];
+    }
+
+    private static int hash(Object[] probe)
+    {
+        int hash = 1;
+        for (Object value : probe)
+        {
+            hash = 31 * hash + (value == null ? 0 : value.hashCode());
+        }
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    // closes the gap left by a removed entry by moving back table slots of the same probe sequence
+    private void shiftBack(int gap)
+    {
+        int index = gap;
+        while (true)
+        {
+            index = (index + 1) & mask;
+            int entry = table[index];
+            if (entry == 0)
+            {
+                break;
+            }
+            int home = entryHashes[entry - 1] & mask;
+            // move the slot if its home slot is not cyclically within (gap, index]
+            if (gap <= index ? (home <= gap || home > index) : (home <= gap && home > index))
+            {
+                table[gap] = entry;
+                gap = index;
+            }
+        }
+        table[gap] = 0;
+    }
+
+    // compacts removed entries, growing the entry arrays when mostly populated
+    private void rebuild()
+    {
+        Object[][] oldKeys = entryKeys;
+        int[] oldHashes = entryHashes;
+        Object[] oldValues = entryValues;
+        int oldCount = entryCount;
+        allocate(size * 2 > oldKeys.length ? oldKeys.length * 2 : oldKeys.length);
+        for (int i = 0; i < oldCount; i++)
+        {
+            if (oldValues[i] != null)
+            {
+                int index = oldHashes[i] & mask;
+                while (table[index] != 0)
+                {
+                    index = (index + 1) & mask;
+                }
+                entryKeys[entryCount] = oldKeys[i];
+                entryHashes[entryCount] = oldHashes[i];
+                entryValues[entryCount] = oldValues[i];
+                table[index] = ++entryCount;
+            }
+        }
+    }
+
+    private void allocate(int capacity)
+    {
+        entryKeys = new Object[capacity][];
+        entryHashes = new int[capacity];
+        entryValues = new Object[capacity];
+        entryCount = 0;
+        table = new int[capacity * 2];
+        mask = table.length - 1;
+    }
+}
@@ -0,0 +1,522 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+import com.espertech.esper.util.JavaClassHelper;
+import com.espertech.esper.util.SerializerUtil;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * First-in first-out buffer of rows of values that keeps the values outside of the Java heap in columnar form.
+ * <p>
+ * Rows are written to segments of a fixed number of rows each. Per segment, each column occupies a region
+ * of a direct {@link ByteBuffer} with a null marker and a fixed-width value per row, and values of variable length,
+ * i.e. strings and serialized objects, occupy a separate direct buffer of the segment. An optional timestamp column
+ * keeps the time at which each row was added. Rows are identified by an ascending row id and are removed
+ * oldest-first only, and segments are released when their last row is removed.
+ * <p>
+ * Rows that cannot be encoded, such as rows with values that are not serializable, are kept as objects on the heap.
+ * Not thread-safe.
+ */
+public final class OffHeapColumnarBuffer
+{
+    /**
+     * Default number of rows per segment.
+     */
+    public final static int DEFAULT_ROWS_PER_SEGMENT = 1024;
+
+    private final static int INITIAL_VAR_CAPACITY = 4096;
+    private final static byte ROW_COLUMNAR = 0;
+    private final static byte ROW_ONHEAP = 1;
+
+    private final ColumnType[] columnTypes;
+    private final boolean timestamped;
+    private final int rowsPerSegment;
+    private final int timestampOffset;
+    private final int flagOffset;
+    private final int[] nullOffsets;
+    private final int[] valueOffsets;
+    private final int segmentBytes;
+    private final LongHashMap<Object> onHeapRows;
+
+    private Segment[] segments;
+    private int segmentHead;
+    private int segmentCount;
+    private long firstRowId;
+    private long nextRowId;
+
+    /**
+     * Ctor.
+     * @param columnClasses type of each column
+     * @param timestamped true to keep a timestamp per row
+     * @param rowsPerSegment number of rows per segment
+     */
+    public OffHeapColumnarBuffer(Class[] columnClasses, boolean timestamped, int rowsPerSegment)
+    {
+        if (rowsPerSegment < 1)
+        {
+            throw new IllegalArgumentException("Invalid number of rows per segment");
+        }
+        this.columnTypes = new ColumnType[columnClasses.length];
+        this.timestamped = timestamped;
+        this.rowsPerSegment = rowsPerSegment;
+        this.nullOffsets = new int[columnClasses.length];
+        this.valueOffsets = new int[columnClasses.length];
+        this.onHeapRows = new LongHashMap<Object>();
+
+        int offset = 0;
+        timestampOffset = offset;
+        if (timestamped)
+        {
+            offset += 8 * rowsPerSegment;
+        }
+        flagOffset = offset;
+        offset += rowsPerSegment;
+        for (int i = 0; i < columnClasses.length; i++)
+        {
+            columnTypes[i] = ColumnType.forClass(columnClasses[i]);
+            nullOffsets[i] = offset;
+            offset += rowsPerSegment;
+            valueOffsets[i] = offset;
+            offset += columnTypes[i].width * rowsPerSegment;
+        }
+        segmentBytes = offset;
+        segments = new Segment[4];
+    }
+
+    /**
+     * Returns true if a column of the given type is kept in fixed-width form rather than in serialized form.
+     * @param clazz column type
+     * @return indicator
+     */
+    public static boolean isFixedWidthColumn(Class clazz)
+    {
+        return ColumnType.forClass(clazz) != ColumnType.OBJECT;
+    }
+
+    /**
+     * Adds a row of values in columnar form, or if the values cannot be encoded adds the given object as an on-heap row.
+     * @param timestamp timestamp of the row, ignored if not timestamped
+     * @param values values, one per column
+     * @param onHeapValue object to keep for the row if the values cannot be encoded
+     * @return row id
+     */
+    public long add(long timestamp, Object[] values, Object onHeapValue)
+    {
+        byte[][] serialized = null;
+        if (values == null || values.length != columnTypes.length)
+        {
+            return addOnHeap(timestamp, onHeapValue);
+        }
+        for (int i = 0; i < columnTypes.length; i++)
+        {
+            if (values[i] == null)
+            {
+                continue;
+            }
+            if (!columnTypes[i].accepts(values[i]))
+            {
+                return addOnHeap(timestamp, onHeapValue);
+            }
+            if (columnTypes[i] == ColumnType.OBJECT)
+            {
+                if (serialized == null)
+                {
+                    serialized = new byte[columnTypes.length][];
+                }
+                try
+                {
+                    serialized[i] = SerializerUtil.objectToByteArr(values[i]);
+                }
+                catch (RuntimeException ex)
+                {
+                    return addOnHeap(timestamp, onHeapValue);
+                }
+            }
+        }
+
+        Segment segment = allocateRow();
+        int row = segment.count;
+        if (timestamped)
+        {
+            segment.fixed.putLong(timestampOffset + row * 8, timestamp);
+        }
+        segment.fixed.put(flagOffset + row, ROW_COLUMNAR);
+        for (int i = 0; i < columnTypes.length; i++)
+        {
+            Object value = values[i];
+            if (value == null)
+            {
+                segment.fixed.put(nullOffsets[i] + row, (byte) 1);
+                continue;
+            }
+            segment.fixed.put(nullOffsets[i] + row, (byte) 0);
+            int index = valueOffsets[i] + row * columnTypes[i].width;
+            switch (columnTypes[i])
+            {
+                case BOOLEAN:
+                    segment.fixed.put(index, ((Boolean) value) ? (byte) 1 : (byte) 0);
+                    break;
+                case BYTE:
+                    segment.fixed.put(index, (Byte) value);
+                    break;
+                case SHORT:
+                    segment.fixed.putShort(index, (Short) value);
+                    break;
+                case CHAR:
+                    segment.fixed.putChar(index, (Character) value);
+                    break;
+                case INT:
+                    segment.fixed.putInt(index, (Integer) value);
+                    break;
+                case LONG:
+                    segment.fixed.putLong(index, (Long) value);
+                    break;
+                case FLOAT:
+                    segment.fixed.putFloat(index, (Float) value);
+                    break;
+                case DOUBLE:
+                    segment.fixed.putDouble(index, (Double) value);
+                    break;
+                case STRING:
+                    writeVar(segment, index, ((String) value).getBytes(StandardCharsets.UTF_8));
+                    break;
+                default:
+                    writeVar(segment, index, serialized[i]);
+                    break;
+            }
+        }
+        segment.count++;
+        return nextRowId++;
+    }
+
+    /**
+     * Adds an on-heap row.
+     * @param timestamp timestamp of the row, ignored if not timestamped
+     * @param value object to keep for the row
+     * @return row id
+     */
+    public long addOnHeap(long timestamp, Object value)
+    {
+        Segment segment = allocateRow();
+        int row = segment.count;
+        if (timestamped)
+        {
+            segment.fixed.putLong(timestampOffset + row * 8, timestamp);
+        }
+        segment.fixed.put(flagOffset + row, ROW_ONHEAP);
+        onHeapRows.put(nextRowId, value);
+        segment.count++;
+        return nextRowId++;
+    }
+
+    /**
+     * Returns true if the row is an on-heap row.
+     * @param rowId row id
+     * @return indicator
+     */
+    public boolean isOnHeap(long rowId)
+    {
+        Segment segment = getSegment(rowId);
+        return segment.fixed.get(flagOffset + (int) (rowId - segment.baseRowId)) == ROW_ONHEAP;
+    }
+
+    /**
+     * Returns the object kept for an on-heap row.
+     * @param rowId row id
+     * @return object
+     */
+    public Object getOnHeap(long rowId)
+    {
+        return onHeapRows.get(rowId);
+    }
+
+    /**
+     * Reads the values of a row in columnar form.
+     * @param rowId row id
+     * @return values, or null for an on-heap row
+     */
+    public Object[] read(long rowId)
+    {
+        Segment segment = getSegment(rowId);
+        int row = (int) (rowId - segment.baseRowId);
+        if (segment.fixed.get(flagOffset + row) == ROW_ONHEAP)
+        {
+            return null;
+        }
+        Object[] values = new Object[columnTypes.length];
+        for (int i = 0; i < columnTypes.length; i++)
+        {
+            if (segment.fixed.get(nullOffsets[i] + row) != 0)
+            {
+                continue;
+            }
+            int index = valueOffsets[i] + row * columnTypes[i].width;
+            switch (columnTypes[i])
+            {
+                case BOOLEAN:
+                    values[i] = segment.fixed.get(index) != 0;
+                    break;
+                case BYTE:
+                    values[i] = segment.fixed.get(index);
+                    break;
+                case SHORT:
+                    values[i] = segment.fixed.getShort(index);
+                    break;
+                case CHAR:
+                    values[i] = segment.fixed.getChar(index);
+                    break;
+                case INT:
+                    values[i] = segment.fixed.getInt(index);
+                    break;
+                case LONG:
+                    values[i] = segment.fixed.getLong(index);
+                    break;
+                case FLOAT:
+                    values[i] = segment.fixed.getFloat(index);
+                    break;
+                case DOUBLE:
+                    values[i] = segment.fixed.getDouble(index);
+                    break;
+                case STRING:
+                    values[i] = new String(readVar(segment, index), StandardCharsets.UTF_8);
+                    break;
+                default:
+                    values[i] = SerializerUtil.byteArrToObject(readVar(segment, index));
+                    break;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Returns the timestamp of a row.
+     * @param rowId row id
+     * @return timestamp
+     */
+    public long getTimestamp(long rowId)
+    {
+        if (!timestamped)
+        {
+            throw new UnsupportedOperationException("Buffer does not keep timestamps");
+        }
+        Segment segment = getSegment(rowId);
+        return segment.fixed.getLong(timestampOffset + (int) (rowId - segment.baseRowId) * 8);
+    }
+
+    /**
+     * Adds the delta to the timestamp of each row.
+     * @param delta to add
+     */
+    public void adjustTimestamps(long delta)
+    {
+        if (!timestamped)
+        {
+            return;
+        }
+        for (long rowId = firstRowId; rowId < nextRowId; rowId++)
+        {
+            Segment segment = getSegment(rowId);
+            int index = timestampOffset + (int) (rowId - segment.baseRowId) * 8;
+            segment.fixed.putLong(index, segment.fixed.getLong(index) + delta);
+        }
+    }
+
+    /**
+     * Removes the oldest row, releasing its segment if it is the last row of the segment.
+     */
+    public void removeFirst()
+    {
+        if (firstRowId == nextRowId)
+        {
+            throw new IllegalStateException("Buffer is empty");
+        }
+        Segment segment = segments[segmentHead];
+        int row = (int) (firstRowId - segment.baseRowId);
+        if (segment.fixed.get(flagOffset + row) == ROW_ONHEAP)
+        {
+            onHeapRows.remove(firstRowId);
+        }
+        firstRowId++;
+        if (row == rowsPerSegment - 1 || firstRowId == nextRowId)
+        {
+            segments[segmentHead] = null;
+            segmentHead = (segmentHead + 1) % segments.length;
+            segmentCount--;
+        }
+    }
+
+    /**
+     * Returns the row id of the oldest row.
+     * @return row id
+     */
+    public long getFirstRowId()
+    {
+        return firstRowId;
+    }
+
+    /**
+     * Returns the row id that the next row added receives, which is one more then the row id of the newest row.
+     * @return row id
+     */
+    public long getNextRowId()
+    {
+        return nextRowId;
+    }
+
+    /**
+     * Returns the number of rows.
+     * @return size
+     */
+    public int size()
+    {
+        return (int) (nextRowId - firstRowId);
+    }
+
+    /**
+     * Returns true if there are no rows.
+     * @return indicator
+     */
+    public boolean isEmpty()
+    {
+        return firstRowId == nextRowId;
+    }
+
+    /**
+     * Returns the number of segments held.
+     * @return segment count
+     */
+    public int getSegmentCount()
+    {
+        return segmentCount;
+    }
+
+    private Segment allocateRow()
+    {
+        if (segmentCount > 0)
+        {
+            Segment last = segments[(segmentHead + segmentCount - 1) % segments.length];
+            if (last.count < rowsPerSegment && last.baseRowId + last.count == nextRowId)
+            {
+                return last;
+            }
+        }
+        if (segmentCount == segments.length)
+        {
+            Segment[] grown = new Segment[segments.length * 2];
+            for (int i = 0; i < segmentCount; i++)
+            {
+                grown[i] = segments[(segmentHead + i) % segments.length];
+            }
+            segments = grown;
+            segmentHead = 0;
+        }
+        Segment segment = new Segment(nextRowId, ByteBuffer.allocateDirect(segmentBytes));
+        segments[(segmentHead + segmentCount) % segments.length] = segment;
+        segmentCount++;
+        return segment;
+    }
+
+    private Segment getSegment(long rowId)
+    {
+        if (rowId < firstRowId || rowId >= nextRowId)
+        {
+            throw new IndexOutOfBoundsException("Row id " + rowId + " not in buffer");
+        }
+        long base = segments[segmentHead].baseRowId;
+        int index = (int) ((rowId - base) / rowsPerSegment);
+        return segments[(segmentHead + index) % segments.length];
+    }
+
+    private void writeVar(Segment segment, int index, byte[] bytes)
+    {
+        if (segment.var == null)
+        {
+            segment.var = ByteBuffer.allocateDirect(Math.max(INITIAL_VAR_CAPACITY, bytes.length));
+        }
+        else if (segment.var.remaining() < bytes.length)
+        {
+            ByteBuffer grown = ByteBuffer.allocateDirect(Math.max(segment.var.capacity() * 2, segment.var.position() + bytes.length));
+            segment.var.flip();
+            grown.put(segment.var);
+            segment.var = grown;
+        }
+        segment.fixed.putInt(index, segment.var.position());
+        segment.fixed.putInt(index + 4, bytes.length);
+        segment.var.put(bytes);
+    }
+
+    private byte[] readVar(Segment segment, int index)
+    {
+        int position = segment.fixed.getInt(index);
+        int length = segment.fixed.getInt(index + 4);
+        byte[] bytes = new byte[length];
+        ByteBuffer dup = segment.var.duplicate();
+        dup.position(position);
+        dup.get(bytes);
+        return bytes;
+    }
+
+    private static enum ColumnType
+    {
+        BOOLEAN(1, Boolean.class),
+        BYTE(1, Byte.class),
+        SHORT(2, Short.class),
+        CHAR(2, Character.class),
+        INT(4, Integer.class),
+        LONG(8, Long.class),
+        FLOAT(4, Float.class),
+        DOUBLE(8, Double.class),
+        STRING(8, String.class),
+        OBJECT(8, null);
+
+        private final int width;
+        private final Class boxedType;
+
+        private ColumnType(int width, Class boxedType)
+        {
+            this.width = width;
+            this.boxedType = boxedType;
+        }
+
+        private boolean accepts(Object value)
+        {
+            return boxedType == null || value.getClass() == boxedType;
+        }
+
+        private static ColumnType forClass(Class clazz)
+        {
+            Class boxed = JavaClassHelper.getBoxedType(clazz);
+            for (ColumnType type : values())
+            {
+                if (type.boxedType != null && type.boxedType == boxed)
+                {
+                    return type;
+                }
+            }
+            return OBJECT;
+        }
+    }
+
+    private static class Segment
+    {
+        private final long baseRowId;
+        private final ByteBuffer fixed;
+        private ByteBuffer var;
+        private int count;
+
+        private Segment(long baseRowId, ByteBuffer fixed)
+        {
+            this.baseRowId = baseRowId;
+            this.fixed = fixed;
+        }
+    }
+}
@@ -0,0 +1,620 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+import java.util.*;
+
+/**
+ * Sorted map that is a balanced (AVL) binary tree of which each node has a weight and knows the total weight of its subtree,
+ * for finding an entry by position within the sorted weights and for finding the total weight of the entries before a key,
+ * in logarithmic time.
+ * <p>
+ * The weight of an entry is provided when putting the entry and is typically the number of items that the value represents,
+ * such as 1 for a single event and the list size for a list of events. Weights must not be negative.
+ * <p>
+ * Keys are compared using the comparator, or by natural order if no comparator is provided. As for a tree map,
+ * null keys are only allowed if the comparator accepts nulls.
+ * The entry set view is read-only. This implementation is not synchronized.
+ */
+public class OrderStatisticTreeMap<K, V> extends AbstractMap<K, V>
+{
+    private final Comparator<? super K> comparator;
+    private Node<K, V> root;
+    private int size;
+
+    // holds the previous value during put and remove
+    private V previousValue;
+
+    /**
+     * Ctor for natural order of keys.
+     */
+    public OrderStatisticTreeMap()
+    {
+        this(null);
+    }
+
+    /**
+     * Ctor.
+     * @param comparator for comparing keys, or null for natural order of keys
+     */
+    public OrderStatisticTreeMap(Comparator<? super K> comparator)
+    {
+        this.comparator = comparator;
+    }
+
+    /**
+     * Returns the comparator.
+     * @return comparator or null for natural order
+     */
+    public Comparator<? super K> comparator()
+    {
+        return comparator;
+    }
+
+    /**
+     * Returns the value for the key.
+     * @param key to look up
+     * @return value or null if the key is not in the map
+     */
+    public V get(Object key)
+    {
+        Node<K, V> node = getNode(key);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Puts the key and value with a weight of one.
+     * @param key key
+     * @param value value
+     * @return previous value or null if the key was not in the map
+     */
+    public V put(K key, V value)
+    {
+        return put(key, value, 1);
+    }
+
+    /**
+     * Puts the key and value with the weight, replacing the value and weight if the key is already in the map.
+     * @param key key
+     * @param value value
+     * @param weight weight of the entry
+     * @return previous value or null if the key was not in the map
+     */
+    public V put(K key, V value, int weight)
+    {
+        if (key == null && comparator == null)
+        {
+            throw new NullPointerException("Null key not supported for natural order");
+        }
+        previousValue = null;
+        root = insert(root, key, value, weight);
+        V previous = previousValue;
+        previousValue = null;
+        return previous;
+    }
+
+    /**
+     * Removes the key.
+     * @param key to remove
+     * @return value that was removed or null if the key was not in the map
+     */
+    public V remove(Object key)
+    {
+        if ((key == null && comparator == null) || root == null)
+        {
+            return null;
+        }
+        previousValue = null;
+        root = delete(root, (K) key);
+        V previous = previousValue;
+        previousValue = null;
+        return previous;
+    }
+
+    /**
+     * Clear out the map.
+     */
+    public void clear()
+    {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * Returns the number of keys.
+     * @return size
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns true if the map has no keys.
+     * @return indicator
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Returns the sum of the weights of all entries.
+     * @return total weight
+     */
+    public int getTotalWeight()
+    {
+        return root == null ? 0 : root.totalWeight;
+    }
+
+    /**
+     * Returns the lowest key.
+     * @return key
+     * @throws NoSuchElementException if the map is empty
+     */
+    public K firstKey()
+    {
+        if (root == null)
+        {
+            throw new NoSuchElementException();
+        }
+        return firstNode().key;
+    }
+
+    /**
+     * Returns the highest key.
+     * @return key
+     * @throws NoSuchElementException if the map is empty
+     */
+    public K lastKey()
+    {
+        if (root == null)
+        {
+            throw new NoSuchElementException();
+        }
+        return lastNode().key;
+    }
+
+    /**
+     * Returns the entry of the lowest key.
+     * @return entry or null if the map is empty
+     */
+    public Map.Entry<K, V> firstEntry()
+    {
+        return root == null ? null : firstNode();
+    }
+
+    /**
+     * Returns the entry of the highest key.
+     * @return entry or null if the map is empty
+     */
+    public Map.Entry<K, V> lastEntry()
+    {
+        return root == null ? null : lastNode();
+    }
+
+    /**
+     * Returns the entry at the position within the sorted weights, i.e. the entry for which the total weight of
+     * the entries before it is less than or equal to the index and the total weight including the entry is greater
+     * than the index.
+     * @param index position starting at zero and less than the total weight
+     * @return entry or null if the index is out of range
+     */
+    public Map.Entry<K, V> select(int index)
+    {
+        if (index < 0)
+        {
+            return null;
+        }
+        Node<K, V> node = root;
+        while (node != null)
+        {
+            int leftWeight = totalWeight(node.left);
+            if (index < leftWeight)
+            {
+                node = node.left;
+            }
+            else if (index < leftWeight + node.weight)
+            {
+                return node;
+            }
+            else
+            {
+                index -= leftWeight + node.weight;
+                node = node.right;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the total weight of the entries with a key lower than the key.
+     * @param key to compare
+     * @return total weight of lower entries
+     */
+    public int getWeightBefore(Object key)
+    {
+        int weight = 0;
+        Node<K, V> node = root;
+        while (node != null)
+        {
+            int compared = compare((K) key, node.key);
+            if (compared <= 0)
+            {
+                node = node.left;
+            }
+            else
+            {
+                weight += totalWeight(node.left) + node.weight;
+                node = node.right;
+            }
+        }
+        return weight;
+    }
+
+    /**
+     * Returns an iterator over values in ascending or descending key order.
+     * The iterator does not support removal and must not be used after the map changes.
+     * @param descending true for descending order
+     * @return iterator
+     */
+    public Iterator<V> valueIterator(boolean descending)
+    {
+        return new ValueIterator<K, V>(root, descending);
+    }
+
+    public boolean containsKey(Object key)
+    {
+        return getNode(key) != null;
+    }
+
+    public Set<Map.Entry<K, V>> entrySet()
+    {
+        return new AbstractSet<Map.Entry<K, V>>()
+        {
+            public Iterator<Map.Entry<K, V>> iterator()
+            {
+                final ValueIterator<K, V> nodes = new ValueIterator<K, V>(root, false);
+                return new Iterator<Map.Entry<K, V>>()
+                {
+                    public boolean hasNext()
+                    {
+                        return nodes.hasNext();
+                    }
+
+                    public Map.Entry<K, V> next()
+                    {
+                        return nodes.nextNode();
+                    }
+
+                    public void remove()
+                    {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+
+            public int size()
+            {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Returns an iterator over keys in ascending order.
+     * The iterator does not support removal and must not be used after the map changes.
+     * @return iterator
+     */
+    public Iterator<K> keyIterator()
+    {
+        final ValueIterator<K, V> nodes = new ValueIterator<K, V>(root, false);
+        return new Iterator<K>()
+        {
+            public boolean hasNext()
+            {
+                return nodes.hasNext();
+            }
+
+            public K next()
+            {
+                return nodes.nextNode().key;
+            }
+
+            public void remove()
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private Node<K, V> getNode(Object key)
+    {
+        if (key == null && comparator == null)
+        {
+            return null;
+        }
+        Node<K, V> node = root;
+        while (node != null)
+        {
+            int compared = compare((K) key, node.key);
+            if (compared < 0)
+            {
+                node = node.left;
+            }
+            else if (compared > 0)
+            {
+                node = node.right;
+            }
+            else
+            {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private Node<K, V> firstNode()
+    {
+        Node<K, V> node = root;
+        while (node.left != null)
+        {
+            node = node.left;
+        }
+        return node;
+    }
+
+    private Node<K, V> lastNode()
+    {
+        Node<K, V> node = root;
+        while (node.right != null)
+        {
+            node = node.right;
+        }
+        return node;
+    }
+
+    private Node<K, V> insert(Node<K, V> node, K key, V value, int weight)
+    {
+        if (node == null)
+        {
+            size++;
+            return new Node<K, V>(key, value, weight);
+        }
+        int compared = compare(key, node.key);
+        if (compared < 0)
+        {
+            node.left = insert(node.left, key, value, weight);
+        }
+        else if (compared > 0)
+        {
+            node.right = insert(node.right, key, value, weight);
+        }
+        else
+        {
+            previousValue = node.value;
+            node.value = value;
+            node.weight = weight;
+            update(node);
+            return node;
+        }
+        return rebalance(node);
+    }
+
+    private Node<K, V> delete(Node<K, V> node, K key)
+    {
+        if (node == null)
+        {
+            return null;
+        }
+        int compared = compare(key, node.key);
+        if (compared < 0)
+        {
+            node.left = delete(node.left, key);
+        }
+        else if (compared > 0)
+        {
+            node.right = delete(node.right, key);
+        }
+        else
+        {
+            previousValue = node.value;
+            size--;
+            if (node.left == null)
+            {
+                return node.right;
+            }
+            if (node.right == null)
+            {
+                return node.left;
+            }
+            // replace by the lowest node of the right subtree
+            Node<K, V> successor = node.right;
+            while (successor.left != null)
+            {
+                successor = successor.left;
+            }
+            successor.right = deleteFirst(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+        return rebalance(node);
+    }
+
+    private Node<K, V> deleteFirst(Node<K, V> node)
+    {
+        if (node.left == null)
+        {
+            return node.right;
+        }
+        node.left = deleteFirst(node.left);
+        return rebalance(node);
+    }
+
+    private Node<K, V> rebalance(Node<K, V> node)
+    {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1)
+        {
+            if (height(node.left.left) < height(node.left.right))
+            {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1)
+        {
+            if (height(node.right.right) < height(node.right.left))
+            {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node<K, V> rotateRight(Node<K, V> node)
+    {
+        Node<K, V> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private Node<K, V> rotateLeft(Node<K, V> node)
+    {
+        Node<K, V> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private int compare(K first, K second)
+    {
+        if (comparator != null)
+        {
+            return comparator.compare(first, second);
+        }
+        return ((Comparable<Object>) first).compareTo(second);
+    }
+
+    private static void update(Node node)
+    {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.totalWeight = totalWeight(node.left) + node.weight + totalWeight(node.right);
+    }
+
+    private static int height(Node node)
+    {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int totalWeight(Node node)
+    {
+        return node == null ? 0 : node.totalWeight;
+    }
+
+    private static final class Node<K, V> implements Map.Entry<K, V>
+    {
+        private final K key;
+        private V value;
+        private int weight;
+        private int totalWeight;
+        private int height;
+        private Node<K, V> left;
+        private Node<K, V> right;
+
+        private Node(K key, V value, int weight)
+        {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.totalWeight = weight;
+            this.height = 1;
+        }
+
+        public K getKey()
+        {
+            return key;
+        }
+
+        public V getValue()
+        {
+            return value;
+        }
+
+        public V setValue(V value)
+        {
+            throw new UnsupportedOperationException("Entry is read-only");
+        }
+
+        public String toString()
+        {
+            return key + "=" + value;
+        }
+    }
+
+    private static final class ValueIterator<K, V> implements Iterator<V>
+    {
+        private final boolean descending;
+        private Node<K, V>[] stack;
+        private int stackSize;
+
+        private ValueIterator(Node<K, V> root, boolean descending)
+        {
+            this.descending = descending;
+            this.stack = new Node[root == null ? 1 : root.height + 1];
+            pushPath(root);
+        }
+
+        public boolean hasNext()
+        {
+            return stackSize > 0;
+        }
+
+        public V next()
+        {
+            return nextNode().value;
+        }
+
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        private Node<K, V> nextNode()
+        {
+            if (stackSize == 0)
+            {
+                throw new NoSuchElementException();
+            }
+            Node<K, V> node = stack[--stackSize];
+            pushPath(descending ? node.left : node.right);
+            return node;
+        }
+
+        private void pushPath(Node<K, V> node)
+        {
+            while (node != null)
+            {
+                if (stackSize == stack.length)
+                {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[stackSize++] = node;
+                node = descending ? node.right : node.left;
+            }
+        }
+    }
+}
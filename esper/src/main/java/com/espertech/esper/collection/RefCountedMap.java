@@ -10,6 +10,7 @@ package com.espertech.esper.collection;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Reference-counting map based on a HashMap implementation that stores as a value a pair of value and reference counter.
@@ -117,6 +118,26 @@ public class RefCountedMap<K,V>
         return false;
     }
 
+    /**
+     * Returns the reference count for a given key, or zero if the key was not found.
+     * @param key to look up
+     * @return reference count
+     */
+    public int getReferenceCount(K key)
+    {
+        Pair<V, Integer> refValue = refMap.get(key);
+        return refValue == null ? 0 : refValue.getSecond();
+    }
+
+    /**
+     * Returns the keys currently referenced.
+     * @return keys
+     */
+    public Set<K> keySet()
+    {
+        return refMap.keySet();
+    }
+
     /**
      * Clear out the collection.
      */
@@ -0,0 +1,238 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+/**
+ * First-in-first-out queue of comparable values that returns the minimum or maximum of the values in the queue,
+ * for use by aggregations over data windows that remove values in the same order as values are added.
+ * <p>
+ * The queue is a two-stack sliding aggregation: values are pushed onto the back stack which keeps a running
+ * minimum or maximum, and when the front stack is empty the back stack is moved onto the front stack
+ * computing for each position the minimum or maximum of the position and all newer positions of the front stack.
+ * Adding and removing a value costs constant time amortized and computing the minimum or maximum costs constant time.
+ * Consecutive equal values share one position with a count.
+ * <p>
+ * Removal expects the oldest value. When removal receives any other value the queue does not change
+ * and indicates the out-of-order removal to the caller, who can then use {@link #toRefCountedSet()}.
+ */
+public class TwoStackMinMaxQueue<K>
+{
+    private final boolean max;
+
+    private Object[] frontValues;
+    private Object[] frontAggregates;
+    private int[] frontCounts;
+    private int frontSize;          // position frontSize - 1 is the oldest value
+
+    private Object[] backValues;
+    private int[] backCounts;
+    private int backSize;           // position backSize - 1 is the newest value
+    private Object backAggregate;
+
+    private long countPoints;
+
+    /**
+     * Ctor.
+     * @param max true for the maximum, false for the minimum
+     */
+    public TwoStackMinMaxQueue(boolean max)
+    {
+        this.max = max;
+        clear();
+    }
+
+    /**
+     * Clear out the queue.
+     */
+    public void clear()
+    {
+        frontValues = new Object[4];
+        frontAggregates = new Object[4];
+        frontCounts = new int[4];
+        frontSize = 0;
+        backValues = new Object[4];
+        backCounts = new int[4];
+        backSize = 0;
+        backAggregate = null;
+        countPoints = 0;
+    }
+
+    /**
+     * Add a value as the newest value.
+     * @param value to add, not null
+     */
+    public void add(K value)
+    {
+        countPoints++;
+        if (backSize > 0)
+        {
+            if (value.equals(backValues[backSize - 1]))
+            {
+                backCounts[backSize - 1]++;
+                return;
+            }
+        }
+        else if (frontSize > 0 && value.equals(frontValues[0]))
+        {
+            // the newest value is at the bottom of the front stack, its count does not change aggregates
+            frontCounts[0]++;
+            return;
+        }
+
+        if (backSize == backValues.length)
+        {
+            backValues = grow(backValues);
+            backCounts = grow(backCounts);
+        }
+        backValues[backSize] = value;
+        backCounts[backSize] = 1;
+        backSize++;
+        backAggregate = backSize == 1 ? value : combine(backAggregate, value);
+    }
+
+    /**
+     * Remove the oldest value, if the value provided is the oldest value.
+     * @param value to remove
+     * @return true if the value was removed or the queue is empty, or false if the value is not the oldest value
+     * and the queue was not changed
+     */
+    public boolean remove(K value)
+    {
+        if (frontSize == 0)
+        {
+            if (backSize == 0)
+            {
+                return true;
+            }
+            flip();
+        }
+
+        int top = frontSize - 1;
+        if (!value.equals(frontValues[top]))
+        {
+            return false;
+        }
+        countPoints--;
+        frontCounts[top]--;
+        if (frontCounts[top] == 0)
+        {
+            frontValues[top] = null;
+            frontAggregates[top] = null;
+            frontSize--;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the minimum or maximum value, or null if the queue is empty.
+     * @return value
+     */
+    public K getValue()
+    {
+        if (frontSize == 0)
+        {
+            return (K) backAggregate;
+        }
+        Object frontAggregate = frontAggregates[frontSize - 1];
+        if (backSize == 0)
+        {
+            return (K) frontAggregate;
+        }
+        return (K) combine(frontAggregate, backAggregate);
+    }
+
+    /**
+     * Returns the number of values.
+     * @return count
+     */
+    public long getCountPoints()
+    {
+        return countPoints;
+    }
+
+    public boolean isEmpty()
+    {
+        return countPoints == 0;
+    }
+
+    /**
+     * Returns the values of the queue as a sorted reference-counting set.
+     * @return set
+     */
+    public SortedRefCountedSet<K> toRefCountedSet()
+    {
+        SortedRefCountedSet<K> refSet = new SortedRefCountedSet<K>();
+        for (int i = 0; i < frontSize; i++)
+        {
+            addRefs(refSet, (K) frontValues[i], frontCounts[i]);
+        }
+        for (int i = 0; i < backSize; i++)
+        {
+            addRefs(refSet, (K) backValues[i], backCounts[i]);
+        }
+        refSet.setCountPoints(countPoints);
+        return refSet;
+    }
+
+    private void flip()
+    {
+        if (frontValues.length < backSize)
+        {
+            frontValues = new Object[backValues.length];
+            frontAggregates = new Object[backValues.length];
+            frontCounts = new int[backValues.length];
+        }
+
+        // the newest value goes to the bottom of the front stack and the oldest value to the top
+        Object aggregate = null;
+        for (int i = 0; i < backSize; i++)
+        {
+            int source = backSize - 1 - i;
+            Object value = backValues[source];
+            aggregate = i == 0 ? value : combine(aggregate, value);
+            frontValues[i] = value;
+            frontCounts[i] = backCounts[source];
+            frontAggregates[i] = aggregate;
+            backValues[source] = null;
+        }
+        frontSize = backSize;
+        backSize = 0;
+        backAggregate = null;
+    }
+
+    private Object combine(Object first, Object second)
+    {
+        int compared = ((Comparable) first).compareTo(second);
+        if (max)
+        {
+            return compared >= 0 ? first : second;
+        }
+        return compared <= 0 ? first : second;
+    }
+
+    private void addRefs(SortedRefCountedSet<K> refSet, K value, int count)
+    {
+        Integer existing = refSet.getRefSet().get(value);
+        refSet.getRefSet().put(value, existing == null ? count : existing + count);
+    }
+
+    private static Object[] grow(Object[] array)
+    {
+        Object[] grown = new Object[array.length * 2];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+
+    private static int[] grow(int[] array)
+    {
+        int[] grown = new int[array.length * 2];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+}
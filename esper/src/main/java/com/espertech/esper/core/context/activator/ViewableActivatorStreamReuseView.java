@@ -22,7 +22,7 @@ import com.espertech.esper.epl.spec.StatementSpecCompiled;
 import com.espertech.esper.util.StopCallback;
 import com.espertech.esper.view.EventStream;
 
-public class ViewableActivatorStreamReuseView implements ViewableActivator, StopCallback {
+public class ViewableActivatorStreamReuseView implements ViewableActivator {
 
     private final EPServicesContext services;
     private final StatementContext statementContext;
@@ -46,7 +46,7 @@ public class ViewableActivatorStreamReuseView implements ViewableActivator, Stop
         this.isCanIterateUnbound = isCanIterateUnbound;
     }
 
-    public ViewableActivationResult activate(AgentInstanceContext agentInstanceContext, boolean isSubselect, boolean isRecoveringResilient) {
+    public ViewableActivationResult activate(final AgentInstanceContext agentInstanceContext, boolean isSubselect, boolean isRecoveringResilient) {
         Pair<EventStream, StatementAgentInstanceLock> pair = services.getStreamService().createStream(statementContext.getStatementId(), filterStreamSpec.getFilterSpec(),
                 statementContext.getFilterService(),
                 agentInstanceContext.getEpStatementAgentInstanceHandle(),
@@ -58,11 +58,17 @@ public class ViewableActivatorStreamReuseView implements ViewableActivator, Stop
                 statementContext.isStatelessSelect(),
                 streamNum,
                 isCanIterateUnbound);
-        return new ViewableActivationResult(pair.getFirst(), this, pair.getSecond(), null, null, false, false, null);
-    }
-
-    public void stop() {
-        services.getStreamService().dropStream(filterStreamSpec.getFilterSpec(), statementContext.getFilterService(), join, statementSpec.getOrderByList().length > 0, filterSubselectSameStream, statementContext.isStatelessSelect());
+        StopCallback stopCallback = new StopCallback() {
+            private boolean stopped;
+            public synchronized void stop() {
+                if (stopped) {
+                    return;
+                }
+                stopped = true;
+                services.getStreamService().dropStream(filterStreamSpec.getFilterSpec(), statementContext.getFilterService(), join, statementSpec.getOrderByList().length > 0, filterSubselectSameStream, statementContext.isStatelessSelect(), agentInstanceContext);
+            }
+        };
+        return new ViewableActivationResult(pair.getFirst(), stopCallback, pair.getSecond(), null, null, false, false, null);
     }
 
     public FilterStreamSpecCompiled getFilterStreamSpec() {
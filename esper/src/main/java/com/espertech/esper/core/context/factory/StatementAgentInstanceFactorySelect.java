@@ -131,6 +131,8 @@ public class StatementAgentInstanceFactorySelect extends StatementAgentInstanceF
         boolean suppressSameEventMatches = false;
         boolean discardPartialsOnMatch = false;
         EvalRootMatchRemover evalRootMatchRemover = null;
+        View[] sharedLeafViewsBefore = null;
+        List<View> sharedViewsCreated = null;
 
         try {
             // create root viewables
@@ -201,7 +203,12 @@ public class StatementAgentInstanceFactorySelect extends StatementAgentInstanceF
                 streamViews[i] = createResult.getFinalViewable();
 
                 boolean isReuseableView = eventStreamParentViewableActivators[i] instanceof ViewableActivatorStreamReuseView;
-                if (isReuseableView) {
+                if (isReuseableView && numStreams == 1) {
+                    // the stream and views may be shared, remember what is attached so the consumer views can be detached when stopping
+                    sharedLeafViewsBefore = streamViews[i].getViews();
+                    sharedViewsCreated = createResult.getNewViews();
+                }
+                else if (isReuseableView) {
                     final List<View> viewsCreated = createResult.getNewViews();
                     StopCallback stopCallback = new StopCallback() {
                         public void stop() {
@@ -242,6 +249,21 @@ public class StatementAgentInstanceFactorySelect extends StatementAgentInstanceF
             {
                 finalView = handleSimpleSelect(streamViews[0], resultSetProcessor, agentInstanceContext, evalRootMatchRemover, suppressSameEventMatches, discardPartialsOnMatch);
                 joinPreloadMethod = null;
+
+                if (sharedLeafViewsBefore != null) {
+                    final Viewable sharedLeaf = streamViews[0];
+                    final List<View> consumerViews = ViewServiceHelper.getAddedViews(sharedLeafViewsBefore, sharedLeaf.getViews());
+                    final List<View> viewsCreated = sharedViewsCreated;
+                    stopCallbacks.add(new StopCallback() {
+                        public void stop() {
+                            // when other statements still consume the leaf, detach only this statement's consumers
+                            if (ViewServiceHelper.removeConsumerViews(sharedLeaf, consumerViews)) {
+                                return;
+                            }
+                            ViewServiceHelper.removeFirstUnsharedView(viewsCreated);
+                        }
+                    });
+                }
             }
             else
             {
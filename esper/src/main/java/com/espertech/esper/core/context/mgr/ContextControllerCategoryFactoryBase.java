@@ -11,6 +11,7 @@
 
 package com.espertech.esper.core.context.mgr;
 
+import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.client.context.ContextPartitionIdentifier;
 import com.espertech.esper.client.context.ContextPartitionIdentifierCategory;
@@ -80,6 +81,10 @@ public abstract class ContextControllerCategoryFactoryBase extends ContextContro
         return null;
     }
 
+    public Map<EventType, EventPropertyGetter[]> getPartitionKeyGetters() {
+        return null;
+    }
+
     public boolean isSingleInstanceContext() {
         return false;
     }
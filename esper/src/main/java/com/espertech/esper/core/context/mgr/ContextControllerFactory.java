@@ -11,6 +11,7 @@
 
 package com.espertech.esper.core.context.mgr;
 
+import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.client.context.ContextPartitionIdentifier;
 import com.espertech.esper.core.context.stmt.StatementAIResourceRegistryFactory;
@@ -42,6 +43,8 @@ public interface ContextControllerFactory {
 
     public FilterSpecLookupable getFilterLookupable(EventType eventType);
 
+    public Map<EventType, EventPropertyGetter[]> getPartitionKeyGetters();
+
     public ContextPartitionIdentifier keyPayloadToIdentifier(Object payload);
 
     public ContextStateCache getStateCache();
@@ -88,6 +88,14 @@ public abstract class ContextControllerHashFactoryBase extends ContextController
         return null;
     }
 
+    public Map<EventType, EventPropertyGetter[]> getPartitionKeyGetters() {
+        Map<EventType, EventPropertyGetter[]> getters = new HashMap<EventType, EventPropertyGetter[]>();
+        for (ContextDetailHashItem hashItem : hashedSpec.getItems()) {
+            getters.put(hashItem.getFilterSpecCompiled().getFilterForEventType(), new EventPropertyGetter[] {hashItem.getLookupable().getGetter()});
+        }
+        return getters;
+    }
+
     public boolean isSingleInstanceContext() {
         return false;
     }
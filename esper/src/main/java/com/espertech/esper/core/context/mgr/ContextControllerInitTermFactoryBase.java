@@ -11,6 +11,7 @@
 
 package com.espertech.esper.core.context.mgr;
 
+import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.client.context.ContextPartitionIdentifier;
 import com.espertech.esper.client.context.ContextPartitionIdentifierInitiatedTerminated;
@@ -67,6 +68,10 @@ public abstract class ContextControllerInitTermFactoryBase extends ContextContro
         return null;
     }
 
+    public Map<EventType, EventPropertyGetter[]> getPartitionKeyGetters() {
+        return null;
+    }
+
     public ContextDetailInitiatedTerminated getContextDetail() {
         return detail;
     }
@@ -11,6 +11,7 @@
 
 package com.espertech.esper.core.context.mgr;
 
+import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.client.context.ContextPartitionIdentifier;
 import com.espertech.esper.client.context.ContextPartitionIdentifierPartitioned;
@@ -75,6 +76,19 @@ public abstract class ContextControllerPartitionedFactoryBase extends ContextCon
         return null;
     }
 
+    public Map<EventType, EventPropertyGetter[]> getPartitionKeyGetters() {
+        Map<EventType, EventPropertyGetter[]> getters = new HashMap<EventType, EventPropertyGetter[]>();
+        for (ContextDetailPartitionItem item : segmentedSpec.getItems()) {
+            EventType eventType = item.getFilterSpecCompiled().getFilterForEventType();
+            EventPropertyGetter[] itemGetters = new EventPropertyGetter[item.getPropertyNames().size()];
+            for (int i = 0; i < itemGetters.length; i++) {
+                itemGetters[i] = eventType.getGetter(item.getPropertyNames().get(i));
+            }
+            getters.put(eventType, itemGetters);
+        }
+        return getters;
+    }
+
     public boolean isSingleInstanceContext() {
         return false;
     }
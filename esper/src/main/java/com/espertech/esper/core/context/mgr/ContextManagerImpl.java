@@ -12,6 +12,7 @@
 package com.espertech.esper.core.context.mgr;
 
 import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.client.SafeIterator;
 import com.espertech.esper.client.context.*;
@@ -60,6 +61,11 @@ public class ContextManagerImpl implements ContextManager, ContextControllerLife
         EventType contextPropsType = servicesContext.getEventAdapterService().createAnonymousMapType(contextName, contextProps, true);
         ContextPropertyRegistryImpl registry = new ContextPropertyRegistryImpl(factory.getContextDetailPartitionItems(), contextPropsType);
         contextDescriptor = new ContextDescriptor(contextName, factory.isSingleInstanceContext(), registry, resourceRegistryFactory, this, factory.getContextDetail());
+
+        Map<EventType, EventPropertyGetter[]> partitionKeyGetters = factory.getPartitionKeyGetters();
+        if (partitionKeyGetters != null) {
+            servicesContext.getThreadingService().addInboundPartitionKeys(contextName, partitionKeyGetters);
+        }
     }
 
     public int getNumNestingLevels() {
@@ -130,6 +136,7 @@ public class ContextManagerImpl implements ContextManager, ContextControllerLife
             contextPartitionIdManager.clear();
             statements.clear();
         }
+        servicesContext.getThreadingService().removeInboundPartitionKeys(contextName);
     }
 
     public synchronized ContextControllerInstanceHandle contextPartitionInstantiate(
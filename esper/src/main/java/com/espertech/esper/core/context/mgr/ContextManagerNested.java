@@ -12,6 +12,7 @@
 package com.espertech.esper.core.context.mgr;
 
 import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.client.SafeIterator;
 import com.espertech.esper.client.context.*;
@@ -84,6 +85,15 @@ public class ContextManagerNested implements ContextManager, ContextControllerLi
         EventType contextPropsType = servicesContext.getEventAdapterService().createAnonymousMapType(contextName, contextProps, true);
         ContextPropertyRegistryImpl registry = new ContextPropertyRegistryImpl(Collections.<ContextDetailPartitionItem>emptyList(), contextPropsType);
         contextDescriptor = new ContextDescriptor(contextName, false, registry, resourceRegistryFactory, this, factoryServiceContext.getDetail());
+
+        // the outermost partitioning context determines inbound lane assignment
+        for (ContextControllerFactory factory : nestedContextFactories) {
+            Map<EventType, EventPropertyGetter[]> partitionKeyGetters = factory.getPartitionKeyGetters();
+            if (partitionKeyGetters != null) {
+                servicesContext.getThreadingService().addInboundPartitionKeys(contextName, partitionKeyGetters);
+                break;
+            }
+        }
     }
 
     public Map<Integer, ContextControllerStatementDesc> getStatements() {
@@ -286,6 +296,7 @@ public class ContextManagerNested implements ContextManager, ContextControllerLi
             subcontexts.clear();
             contextPartitionIdManager.clear();
         }
+        servicesContext.getThreadingService().removeInboundPartitionKeys(contextName);
     }
 
     public FilterSpecLookupable getFilterLookupable(EventType eventType) {
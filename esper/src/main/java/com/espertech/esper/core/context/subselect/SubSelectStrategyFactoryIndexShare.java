@@ -11,6 +11,8 @@ package com.espertech.esper.core.context.subselect;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.core.context.util.AgentInstanceContext;
 import com.espertech.esper.core.service.EPServicesContext;
+import com.espertech.esper.core.service.StatementAgentInstanceLock;
+import com.espertech.esper.core.service.StatementAgentInstanceRWLockVersioned;
 import com.espertech.esper.epl.agg.service.AggregationService;
 import com.espertech.esper.epl.agg.service.AggregationServiceFactoryDesc;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
@@ -142,7 +144,13 @@ public class SubSelectStrategyFactoryIndexShare implements SubSelectStrategyFact
                     tables = SubordinateQueryPlannerUtil.realizeTables(queryPlan.getIndexDescs(), instance.getRootViewInstance().getEventType(), instance.getRootViewInstance().getIndexRepository(), instance.getRootViewInstance().getDataWindowContents(), agentInstanceContext, isRecoveringResilient);
                 }
                 SubordTableLookupStrategy strategy = queryPlan.getLookupStrategyFactory().makeStrategy(tables, instance.getRootViewInstance().getVirtualDataWindow());
-                subqueryLookup = new SubordIndexedTableLookupStrategyLocking(strategy, instance.getTailViewInstance().getAgentInstanceContext().getAgentInstanceLock());
+                StatementAgentInstanceLock namedWindowLock = instance.getTailViewInstance().getAgentInstanceContext().getAgentInstanceLock();
+                if (isConcurrentRead(tables) && namedWindowLock instanceof StatementAgentInstanceRWLockVersioned) {
+                    subqueryLookup = new SubordIndexedTableLookupStrategyConcurrent(strategy, (StatementAgentInstanceRWLockVersioned) namedWindowLock);
+                }
+                else {
+                    subqueryLookup = new SubordIndexedTableLookupStrategyLocking(strategy, namedWindowLock);
+                }
             }
         }
         else {
@@ -164,4 +172,16 @@ public class SubSelectStrategyFactoryIndexShare implements SubSelectStrategyFact
 
         return new SubSelectStrategyRealization(subqueryLookup, subselectAggregationPreprocessor, aggregationService, Collections.<ExprPriorNode, ExprPriorEvalStrategy>emptyMap(), Collections.<ExprPreviousNode, ExprPreviousEvalStrategy>emptyMap(), null, null);
     }
+
+    private static boolean isConcurrentRead(EventTable[] tables) {
+        if (tables == null || tables.length == 0) {
+            return false;
+        }
+        for (EventTable table : tables) {
+            if (table == null || table.getOrganization() == null || !table.getOrganization().isConcurrentRead()) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
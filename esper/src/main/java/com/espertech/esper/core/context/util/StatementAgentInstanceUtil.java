@@ -11,9 +11,11 @@
 
 package com.espertech.esper.core.context.util;
 
+import com.espertech.esper.client.ConfigurationEngineDefaults;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.hook.ExceptionHandlerExceptionType;
 import com.espertech.esper.core.context.factory.StatementAgentInstanceFactoryResult;
+import com.espertech.esper.core.context.factory.StatementAgentInstanceFactorySelect;
 import com.espertech.esper.core.context.factory.StatementAgentInstancePreload;
 import com.espertech.esper.core.context.mgr.AgentInstance;
 import com.espertech.esper.core.context.mgr.AgentInstanceFilterProxy;
@@ -112,6 +114,11 @@ public class StatementAgentInstanceUtil {
 
             stopSafe(stopCallback, agentInstanceContext.getStatementContext());
 
+            // release any context partition lock shared with other statements, once only as an agent instance may get stopped repeatedly
+            if (agentInstanceContext.getStatementContext().getContextName() != null && !agentInstanceContext.getEpStatementAgentInstanceHandle().isDestroyed()) {
+                servicesContext.getStreamService().dereferenceContextPartitionLock(agentInstanceContext.getStatementContext().getContextName(), agentInstanceContext.getAgentInstanceId(), lock);
+            }
+
             // release resource
             agentInstanceContext.getStatementContext().getStatementAgentInstanceRegistry().deassign(agentInstanceContext.getAgentInstanceId());
 
@@ -172,6 +179,14 @@ public class StatementAgentInstanceUtil {
             else {
                 agentInstanceLock = servicesContext.getStatementLockFactory().getStatementLock(statementContext.getStatementName(), statementContext.getAnnotations(), statementContext.isStatelessSelect());
             }
+
+            // statements of the same context partition share the lock so they may share streams and views
+            if (isShareContextPartitionLock(servicesContext, statement, agentInstanceLock)) {
+                agentInstanceLock = servicesContext.getStreamService().referenceContextPartitionLock(statementContext.getContextName(), agentInstanceId, agentInstanceLock);
+                if (isSingleInstanceContext) {
+                    statementContext.setDefaultAgentInstanceLock(agentInstanceLock);
+                }
+            }
         }
 
         // share the filter version between agent instance handle (callbacks) and agent instance context
@@ -287,6 +302,14 @@ public class StatementAgentInstanceUtil {
         }
     }
 
+    private static boolean isShareContextPartitionLock(EPServicesContext servicesContext, ContextControllerStatementBase statement, StatementAgentInstanceLock agentInstanceLock) {
+        ConfigurationEngineDefaults.ViewResources viewResources = servicesContext.getConfigSnapshot().getEngineDefaults().getViewResources();
+        if (!viewResources.isShareViews() || !viewResources.isShareContextPartitionViews()) {
+            return false;
+        }
+        return statement.getFactory() instanceof StatementAgentInstanceFactorySelect && !(agentInstanceLock instanceof StatementNoLockImpl);
+    }
+
     private static void evaluateEventForStatementInternal(EPServicesContext servicesContext, EventBean theEvent, List<AgentInstance> agentInstances) {
         // context was created - reevaluate for the given event
         ArrayDeque<FilterHandle> callbacks = new ArrayDeque<FilterHandle>(2);
@@ -21,6 +21,12 @@ public interface EPRuntimeEventSender
      */
     public void processWrappedEvent(EventBean eventBean);
 
+    /**
+     * Equivalent to the sendEventBatch method of EPRuntime, for use to process a batch of known events.
+     * @param eventBeans are the event objects wrapped by event beans providing the event metadata
+     */
+    public void processWrappedEventBatch(EventBean[] eventBeans);
+
     /**
      * For processing a routed event.
      * @param theEvent routed event
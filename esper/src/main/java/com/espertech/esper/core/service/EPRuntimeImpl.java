@@ -72,6 +72,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
     protected boolean isLatchStatementInsertStream;
     protected boolean isUsingExternalClocking;
     protected boolean isPrioritized;
+    protected long sendBatchDispatchMaxLatencyNanos;
     protected volatile UnmatchedListener unmatchedListener;
     protected AtomicLong routedInternal;
     protected AtomicLong routedExternal;
@@ -95,6 +96,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         isLatchStatementInsertStream = this.services.getEngineSettingsService().getEngineSettings().getThreading().isInsertIntoDispatchPreserveOrder();
         isUsingExternalClocking = !this.services.getEngineSettingsService().getEngineSettings().getThreading().isInternalTimerEnabled();
         isPrioritized = services.getEngineSettingsService().getEngineSettings().getExecution().isPrioritized();
+        sendBatchDispatchMaxLatencyNanos = services.getEngineSettingsService().getEngineSettings().getThreading().getSendBatchDispatchMaxLatency() * 1000000L;
         routedInternal = new AtomicLong();
         routedExternal = new AtomicLong();
         engineFilterAndDispatchTimeContext = new ExprEvaluatorContext()
@@ -208,7 +210,16 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         // Process event
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
         {
-            services.getThreadingService().submitInbound(new InboundUnitSendEvent(theEvent, this));
+            if (services.getThreadingService().isInboundPartitioned() && !(theEvent instanceof TimerEvent))
+            {
+                // wrap in the sending thread such that the event can be assigned to the lane of its partition
+                EventBean eventBean = theEvent instanceof EventBean ? (EventBean) theEvent : wrapEvent(theEvent);
+                services.getThreadingService().submitInbound(new InboundUnitSendWrapped(eventBean, this));
+            }
+            else
+            {
+                services.getThreadingService().submitInbound(new InboundUnitSendEvent(theEvent, this));
+            }
         }
         else
         {
@@ -216,6 +227,53 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
     }
 
+    public void sendEventBatch(Object[] events) throws EPException
+    {
+        if (events == null)
+        {
+            throw new IllegalArgumentException("Invalid null event batch");
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
+        {
+            for (Object theEvent : events)
+            {
+                sendEvent(theEvent);
+            }
+            return;
+        }
+
+        EventBean[] eventBeans = new EventBean[events.length];
+        int count = 0;
+        for (Object theEvent : events)
+        {
+            if (theEvent == null)
+            {
+                log.error(".sendEventBatch Null object supplied");
+                continue;
+            }
+
+            // Time events are processed in batch order, after the events preceding them
+            if (theEvent instanceof TimerEvent)
+            {
+                processWrappedEventBatch(eventBeans, count);
+                count = 0;
+                processTimeEvent((TimerEvent) theEvent);
+                continue;
+            }
+
+            if (theEvent instanceof EventBean)
+            {
+                eventBeans[count++] = (EventBean) theEvent;
+            }
+            else
+            {
+                eventBeans[count++] = wrapEvent(theEvent);
+            }
+        }
+        processWrappedEventBatch(eventBeans, count);
+    }
+
     public void sendEvent(org.w3c.dom.Node document) throws EPException
     {
         if (document == null)
@@ -232,7 +290,14 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         // Process event
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
         {
-            services.getThreadingService().submitInbound(new InboundUnitSendDOM(document, services, this));
+            if (services.getThreadingService().isInboundPartitioned())
+            {
+                services.getThreadingService().submitInbound(new InboundUnitSendWrapped(wrapEvent(document), this));
+            }
+            else
+            {
+                services.getThreadingService().submitInbound(new InboundUnitSendDOM(document, services, this));
+            }
         }
         else
         {
@@ -278,7 +343,14 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
 
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
         {
-            services.getThreadingService().submitInbound(new InboundUnitSendMap(map, mapEventTypeName, services, this));
+            if (services.getThreadingService().isInboundPartitioned())
+            {
+                services.getThreadingService().submitInbound(new InboundUnitSendWrapped(wrapEvent(map, mapEventTypeName), this));
+            }
+            else
+            {
+                services.getThreadingService().submitInbound(new InboundUnitSendMap(map, mapEventTypeName, services, this));
+            }
         }
         else
         {
@@ -302,7 +374,14 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
 
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
         {
-            services.getThreadingService().submitInbound(new InboundUnitSendObjectArray(propertyValues, objectArrayEventTypeName, services, this));
+            if (services.getThreadingService().isInboundPartitioned())
+            {
+                services.getThreadingService().submitInbound(new InboundUnitSendWrapped(wrapEvent(propertyValues, objectArrayEventTypeName), this));
+            }
+            else
+            {
+                services.getThreadingService().submitInbound(new InboundUnitSendObjectArray(propertyValues, objectArrayEventTypeName, services, this));
+            }
         }
         else
         {
@@ -503,6 +582,98 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aStimulantEvent();}
     }
 
+    public void processWrappedEventBatch(EventBean[] eventBeans)
+    {
+        processWrappedEventBatch(eventBeans, eventBeans.length);
+    }
+
+    private void processWrappedEventBatch(EventBean[] eventBeans, int count)
+    {
+        if (count == 0)
+        {
+            return;
+        }
+
+        ArrayBackedCollection<FilterHandle> matches = matchesArrayThreadLocal.get();
+        Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks = matchesPerStmtThreadLocal.get();
+        DualWorkQueue queues = threadWorkQueue.getThreadQueue();
+        long lastDispatchTime = sendBatchDispatchMaxLatencyNanos > 0 ? System.nanoTime() : 0;
+
+        int index = 0;
+        while (index < count)
+        {
+            // Acquire main processing lock once for as many events of the batch as possible
+            // The stimulant of an event ends when the next event starts, or after dispatch for the last event under the lock
+            boolean stimulantOpen = false;
+            services.getEventProcessingRWLock().acquireReadLock();
+            try
+            {
+                while (index < count)
+                {
+                    EventBean eventBean = eventBeans[index++];
+                    if (InstrumentationHelper.ENABLED) {
+                        if (stimulantOpen) {
+                            InstrumentationHelper.get().aStimulantEvent();
+                        }
+                        InstrumentationHelper.get().qStimulantEvent(eventBean, services.getEngineURI());
+                        stimulantOpen = true;
+                    }
+                    if (internalEventRouter.isHasPreprocessing())
+                    {
+                        eventBean = internalEventRouter.preprocess(eventBean, engineFilterAndDispatchTimeContext);
+                        if (eventBean == null)
+                        {
+                            continue;
+                        }
+                    }
+
+                    if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qEvent(eventBean, services.getEngineURI(), true);}
+                    try
+                    {
+                        processMatches(eventBean, matches, stmtCallbacks);
+                    }
+                    finally
+                    {
+                        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aEvent();}
+                    }
+
+                    // Routed, inserted-into and named window events must be worked off before the next event of the batch
+                    if (!queues.getFrontQueue().isEmpty() || !queues.getBackQueue().isEmpty() || services.getNamedWindowDispatchService().isDispatchWaiting())
+                    {
+                        break;
+                    }
+                    if ((sendBatchDispatchMaxLatencyNanos > 0) && (System.nanoTime() - lastDispatchTime >= sendBatchDispatchMaxLatencyNanos))
+                    {
+                        break;
+                    }
+                }
+            }
+            catch (RuntimeException ex)
+            {
+                matches.clear();
+                throw new EPException(ex);
+            }
+            finally
+            {
+                services.getEventProcessingRWLock().releaseReadLock();
+            }
+
+            // Dispatch results to listeners
+            // Done outside of the read-lock to prevent lockups when listeners create statements
+            dispatch();
+
+            // Work off the event queue if any events accumulated in there via a route() or insert-into
+            processThreadWorkQueue();
+
+            if (InstrumentationHelper.ENABLED && stimulantOpen) { InstrumentationHelper.get().aStimulantEvent();}
+
+            if (sendBatchDispatchMaxLatencyNanos > 0)
+            {
+                lastDispatchTime = System.nanoTime();
+            }
+        }
+    }
+
     private void processTimeEvent(TimerEvent theEvent)
     {
         if (theEvent instanceof TimerControlEvent)
@@ -585,6 +756,17 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             log.debug(".processTimeEvent Setting time span and evaluating schedules for time " + targetTime + " optional resolution " + span.getOptionalResolution());
         }
 
+        ScheduleTimeSpan priorSpan = ScheduleTimeSpan.enter(services.getSchedulingService(), targetTime);
+        try {
+            processTimeSpan(currentTime, targetTime, optionalResolution);
+        }
+        finally {
+            ScheduleTimeSpan.exit(priorSpan);
+        }
+    }
+
+    private void processTimeSpan(long currentTime, long targetTime, Long optionalResolution)
+    {
         while(currentTime < targetTime) {
 
             if ((optionalResolution != null) && (optionalResolution > 0)) {
@@ -949,9 +1131,13 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
     }
 
     protected void processMatches(EventBean theEvent)
+    {
+        processMatches(theEvent, matchesArrayThreadLocal.get(), matchesPerStmtThreadLocal.get());
+    }
+
+    private void processMatches(EventBean theEvent, ArrayBackedCollection<FilterHandle> matches, Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks)
     {
         // get matching filters
-        ArrayBackedCollection<FilterHandle> matches = matchesArrayThreadLocal.get();
         long version = services.getFilterService().evaluate(theEvent, matches);
 
         if (ThreadLogUtil.ENABLED_TRACE)
@@ -978,7 +1164,6 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             return;
         }
 
-        Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks = matchesPerStmtThreadLocal.get();
         Object[] matchArray = matches.getArray();
         int entryCount = matches.size();
 
@@ -29,6 +29,7 @@ import com.espertech.esper.filter.FilterHandle;
 import com.espertech.esper.filter.FilterHandleCallback;
 import com.espertech.esper.schedule.ScheduleHandle;
 import com.espertech.esper.schedule.ScheduleHandleCallback;
+import com.espertech.esper.schedule.ScheduleTimeSpan;
 import com.espertech.esper.util.ExecutionPathDebugLog;
 import com.espertech.esper.util.ThreadLogUtil;
 import org.slf4j.Logger;
@@ -221,6 +222,14 @@ public class EPRuntimeIsolatedImpl implements EPRuntimeIsolatedSPI, InternalEven
         processThreadWorkQueue();
     }
 
+    public void processWrappedEventBatch(EventBean[] eventBeans)
+    {
+        for (EventBean eventBean : eventBeans)
+        {
+            processWrappedEvent(eventBean);
+        }
+    }
+
     private void processTimeEvent(TimerEvent theEvent)
     {
         if (theEvent instanceof TimerControlEvent) {
@@ -281,6 +290,17 @@ public class EPRuntimeIsolatedImpl implements EPRuntimeIsolatedSPI, InternalEven
             log.debug(".processTimeEvent Setting time span and evaluating schedules for time " + targetTime + " optional resolution " + span.getOptionalResolution());
         }
 
+        ScheduleTimeSpan priorSpan = ScheduleTimeSpan.enter(services.getSchedulingService(), targetTime);
+        try {
+            processTimeSpan(currentTime, targetTime, optionalResolution);
+        }
+        finally {
+            ScheduleTimeSpan.exit(priorSpan);
+        }
+    }
+
+    private void processTimeSpan(long currentTime, long targetTime, Long optionalResolution)
+    {
         while(currentTime < targetTime) {
 
             if ((optionalResolution != null) && (optionalResolution > 0)) {
@@ -20,7 +20,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  */
 public class StatementAgentInstanceRWLockImpl implements StatementAgentInstanceLock
 {
-    private final ReentrantReadWriteLock lock;
+    protected final ReentrantReadWriteLock lock;
 
     /**
      * Ctor.
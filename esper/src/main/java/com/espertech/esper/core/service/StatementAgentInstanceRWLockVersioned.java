@@ -0,0 +1,74 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-write lock that maintains a version number, for use with named windows that allow concurrent reads.
+ * <p>
+ * The version is incremented when the outermost write lock is acquired and again before it is released,
+ * so the version is odd while an update is in progress. A reader that does not acquire the lock obtains the
+ * version, reads and then validates that the version did not change, and otherwise falls back to
+ * acquiring the read lock.
+ */
+public class StatementAgentInstanceRWLockVersioned extends StatementAgentInstanceRWLockImpl
+{
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Ctor.
+     * @param isFair true if a fair lock, false if not
+     */
+    public StatementAgentInstanceRWLockVersioned(boolean isFair)
+    {
+        super(isFair);
+    }
+
+    public void acquireWriteLock()
+    {
+        super.acquireWriteLock();
+        if (lock.getWriteHoldCount() == 1) {
+            version.incrementAndGet();
+        }
+    }
+
+    public boolean acquireWriteLock(long msecTimeout) {
+        boolean result = super.acquireWriteLock(msecTimeout);
+        if (result && lock.getWriteHoldCount() == 1) {
+            version.incrementAndGet();
+        }
+        return result;
+    }
+
+    public void releaseWriteLock()
+    {
+        if (lock.getWriteHoldCount() == 1) {
+            version.incrementAndGet();
+        }
+        super.releaseWriteLock();
+    }
+
+    /**
+     * Returns the current version, which is odd while an update is in progress.
+     * @return version
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Returns an indicator whether a read that started at the given version observed a committed state.
+     * @param startVersion version obtained before reading
+     * @return true if no update was in progress or completed since
+     */
+    public boolean validate(long startVersion) {
+        return (startVersion & 1) == 0 && version.get() == startVersion;
+    }
+}
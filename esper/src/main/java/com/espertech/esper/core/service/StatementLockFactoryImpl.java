@@ -8,6 +8,7 @@
  **************************************************************************************/
 package com.espertech.esper.core.service;
 
+import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.client.annotation.NoLock;
 import com.espertech.esper.epl.annotation.AnnotationUtil;
 
@@ -32,6 +33,9 @@ public class StatementLockFactoryImpl implements StatementLockFactory
         if (disableLocking || foundNoLock || stateless) {
            return new StatementNoLockImpl(statementName);
         }
+        if (HintEnum.INDEX_CONCURRENT_READ.getHint(annotations) != null) {
+            return new StatementAgentInstanceRWLockVersioned(fairlocks);
+        }
         return new StatementAgentInstanceRWLockImpl(fairlocks);
     }
 }
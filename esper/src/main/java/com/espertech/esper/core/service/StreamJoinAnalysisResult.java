@@ -13,10 +13,14 @@ package com.espertech.esper.core.service;
 
 import com.espertech.esper.epl.table.mgmt.TableMetadata;
 import com.espertech.esper.epl.virtualdw.VirtualDWViewProviderForAgentInstance;
+import com.espertech.esper.view.ViewFactory;
 import com.espertech.esper.view.ViewFactoryChain;
 import com.espertech.esper.view.ViewServiceHelper;
+import com.espertech.esper.view.window.LengthBatchViewFactory;
+import com.espertech.esper.view.window.TimeBatchViewFactory;
 
 import java.lang.annotation.Annotation;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -34,6 +38,7 @@ public class StreamJoinAnalysisResult
     private VirtualDWViewProviderForAgentInstance[] viewExternal;
     private String[][][] uniqueKeys;
     private TableMetadata[] tablesPerStream;
+    private boolean[] isBatchWindow;
 
     /**
      * Ctor.
@@ -51,6 +56,7 @@ public class StreamJoinAnalysisResult
         viewExternal = new VirtualDWViewProviderForAgentInstance[numStreams];
         uniqueKeys = new String[numStreams][][];
         tablesPerStream = new TableMetadata[numStreams];
+        isBatchWindow = new boolean[numStreams];
     }
 
     /**
@@ -206,4 +212,27 @@ public class StreamJoinAnalysisResult
             }
         }
     }
+
+    /**
+     * Returns true if each stream declares a single length-batch or time-batch window.
+     * @return indicator
+     */
+    public boolean isAllBatchWindows() {
+        for (boolean batchWindow : isBatchWindow) {
+            if (!batchWindow) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void addBatchWindowInfo(ViewFactoryChain[] unmaterializedViewChain) {
+        for (int i = 0; i < unmaterializedViewChain.length; i++) {
+            List<ViewFactory> viewFactories = unmaterializedViewChain[i].getViewFactoryChain();
+            if (viewFactories.size() == 1) {
+                ViewFactory viewFactory = viewFactories.get(0);
+                isBatchWindow[i] = viewFactory instanceof LengthBatchViewFactory || viewFactory instanceof TimeBatchViewFactory;
+            }
+        }
+    }
 }
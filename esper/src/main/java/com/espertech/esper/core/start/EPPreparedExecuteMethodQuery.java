@@ -20,6 +20,7 @@ import com.espertech.esper.core.service.EPPreparedQueryResult;
 import com.espertech.esper.core.service.EPServicesContext;
 import com.espertech.esper.core.service.StatementContext;
 import com.espertech.esper.core.service.StreamJoinAnalysisResult;
+import com.espertech.esper.epl.agg.service.AggSvcGroupAllNoAccessImpl;
 import com.espertech.esper.epl.core.*;
 import com.espertech.esper.epl.expression.table.ExprTableAccessNode;
 import com.espertech.esper.epl.expression.core.ExprNode;
@@ -39,6 +40,7 @@ import com.espertech.esper.event.EventTypeSPI;
 import com.espertech.esper.filter.FilterSpecCompiled;
 import com.espertech.esper.filter.FilterSpecCompiler;
 import com.espertech.esper.util.AuditPath;
+import com.espertech.esper.util.CollectionUtil;
 import com.espertech.esper.view.Viewable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -62,6 +64,8 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
     private JoinSetComposerPrototype joinSetComposerPrototype;
     private final FilterSpecCompiled[] filters;
     private boolean hasTableAccess;
+    private final boolean parallel;
+    private final AggSvcGroupAllNoAccessImpl parallelAggregation;
 
     /**
      * Ctor.
@@ -134,9 +138,19 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
         StreamTypeService typeService = new StreamTypeServiceImpl(typesPerStream, namesPerStream, isIStreamOnly, services.getEngineURI(), true);
         EPStatementStartMethodHelperValidate.validateNodes(statementSpec, statementContext, typeService, null);
 
+        this.parallel = EPPreparedExecuteParallelHelper.isParallel(statementSpec, services.getConfigSnapshot());
+        if (queryPlanLogging && parallel) {
+            queryPlanLog.info("Fire-and-forget filter evaluation in parallel");
+        }
+
         ResultSetProcessorFactoryDesc resultSetProcessorPrototype = ResultSetProcessorFactoryFactory.getProcessorPrototype(statementSpec, statementContext, typeService, null, new boolean[0], true, ContextPropertyRegistryImpl.EMPTY_REGISTRY, null, services.getConfigSnapshot(), services.getResultSetProcessorHelperFactory(), true, false);
         resultSetProcessor = EPStatementStartMethodHelperAssignExpr.getAssignResultSetProcessor(agentInstanceContext, resultSetProcessorPrototype, false, null, true);
 
+        this.parallelAggregation = parallel && numStreams == 1 ? EPPreparedExecuteParallelHelper.getParallelAggregation(resultSetProcessor) : null;
+        if (queryPlanLogging && parallelAggregation != null) {
+            queryPlanLog.info("Fire-and-forget aggregation in parallel");
+        }
+
         if (statementSpec.getSelectClauseSpec().isDistinct())
         {
             if (resultSetProcessor.getResultEventType() instanceof EventTypeSPI) {
@@ -231,11 +245,23 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
                 }
             }
 
+            // filter context partitions, in parallel across context partitions if so configured
+            if (parallel && statementSpec.getFilterRootNode() != null) {
+                List<Collection<EventBean>> snapshots = new ArrayList<Collection<EventBean>>(contextPartitionResults.size());
+                for (ContextPartitionResult contextPartitionResult : contextPartitionResults) {
+                    snapshots.add(contextPartitionResult.getEvents());
+                }
+                List<Collection<EventBean>> filtered = EPPreparedExecuteParallelHelper.getFiltered(snapshots, Collections.singletonList(statementSpec.getFilterRootNode()), agentInstanceContext);
+                for (int i = 0; i < contextPartitionResults.size(); i++) {
+                    contextPartitionResults.set(i, new ContextPartitionResult(filtered.get(i), contextPartitionResults.get(i).getContext()));
+                }
+            }
+
             // process context partitions
             ArrayDeque<EventBean[]> events = new ArrayDeque<EventBean[]>();
             for (ContextPartitionResult contextPartitionResult : contextPartitionResults) {
                 Collection<EventBean> snapshot = contextPartitionResult.getEvents();
-                if (statementSpec.getFilterRootNode() != null) {
+                if (!parallel && statementSpec.getFilterRootNode() != null) {
                     snapshot = getFiltered(snapshot, Collections.singletonList(statementSpec.getFilterRootNode()));
                 }
                 EventBean[] rows = snapshot.toArray(new EventBean[snapshot.size()]);
@@ -305,12 +331,21 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
         UniformPair<EventBean[]> results;
         if (numStreams == 1)
         {
-            if (statementSpec.getFilterRootNode() != null)
+            List<ExprNode> filterExpressions = statementSpec.getFilterRootNode() == null ? Collections.<ExprNode>emptyList() : Arrays.asList(statementSpec.getFilterRootNode());
+            if (parallelAggregation != null && EPPreparedExecuteParallelHelper.aggregate(snapshots[0], filterExpressions, parallelAggregation, agentInstanceContext))
+            {
+                // rows are filtered and aggregated already, output the aggregated row
+                results = resultSetProcessor.processViewResult(CollectionUtil.EVENTBEANARRAY_EMPTY, null, true);
+            }
+            else
             {
-                snapshots[0] = getFiltered(snapshots[0], Arrays.asList(statementSpec.getFilterRootNode()));
+                if (statementSpec.getFilterRootNode() != null)
+                {
+                    snapshots[0] = getFiltered(snapshots[0], filterExpressions);
+                }
+                EventBean[] rows = snapshots[0].toArray(new EventBean[snapshots[0].size()]);
+                results = resultSetProcessor.processViewResult(rows, null, true);
             }
-            EventBean[] rows = snapshots[0].toArray(new EventBean[snapshots[0].size()]);
-            results = resultSetProcessor.processViewResult(rows, null, true);
         }
         else
         {
@@ -356,6 +391,9 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
 
     private Collection<EventBean> getFiltered(Collection<EventBean> snapshot, List<ExprNode> filterExpressions)
     {
+        if (parallel) {
+            return EPPreparedExecuteParallelHelper.getFiltered(snapshot, filterExpressions, agentInstanceContext);
+        }
         ArrayDeque<EventBean> deque = new ArrayDeque<EventBean>(Math.min(snapshot.size(), 16));
         ExprNodeUtility.applyFilterExpressionsIterable(snapshot, filterExpressions, agentInstanceContext, deque);
         return deque;
@@ -0,0 +1,344 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.start;
+
+import com.espertech.esper.client.ConfigurationInformation;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.annotation.HintEnum;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethodMergeable;
+import com.espertech.esper.epl.agg.service.AggSvcGroupAllNoAccessImpl;
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.agg.service.AggregatorUtil;
+import com.espertech.esper.epl.core.ResultSetProcessor;
+import com.espertech.esper.epl.core.ResultSetProcessorRowForAll;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprNodeUtility;
+import com.espertech.esper.epl.expression.visitor.ExprNodeThreadSafeVisitor;
+import com.espertech.esper.epl.spec.NamedWindowConsumerStreamSpec;
+import com.espertech.esper.epl.spec.StatementSpecCompiled;
+import com.espertech.esper.epl.spec.StreamSpecCompiled;
+import com.espertech.esper.epl.spec.TableQueryStreamSpec;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parallel evaluation of filter expressions and aggregation for fire-and-forget queries.
+ * <p>
+ * The rows of one or more snapshots, such as the snapshots of multiple context partitions, are split into segments
+ * that are filtered by the common fork-join pool. Filtered rows retain the snapshot order.
+ * <p>
+ * For queries without group-by that only aggregate using aggregation functions that can merge partial states,
+ * each segment in addition aggregates the filtered rows and partial states are merged in segment order.
+ */
+public class EPPreparedExecuteParallelHelper
+{
+    /**
+     * Minimum number of rows per segment.
+     */
+    public final static int MIN_SEGMENT_SIZE = 4096;
+
+    /**
+     * Returns indicator whether a fire-and-forget query filters in parallel. Parallel filtering is enabled engine-wide
+     * or by hint and applies to queries that do not access tables by expression, do not subquery
+     * and do not reference variables, since such expressions use thread-associated state, and
+     * whose filter expressions are thread-safe according to {@link ExprNodeThreadSafeVisitor}.
+     * <p>
+     * Call after validating the query as validation may replace filter expressions.
+     * @param statementSpec query
+     * @param configSnapshot engine configuration
+     * @return parallel indicator
+     */
+    public static boolean isParallel(StatementSpecCompiled statementSpec, ConfigurationInformation configSnapshot) {
+        boolean enabled = configSnapshot.getEngineDefaults().getExecution().isFireAndForgetParallel() ||
+                HintEnum.FIRE_AND_FORGET_PARALLEL.getHint(statementSpec.getAnnotations()) != null;
+        if (!enabled) {
+            return false;
+        }
+        if (statementSpec.getTableNodes() != null && statementSpec.getTableNodes().length > 0) {
+            return false;
+        }
+        if (statementSpec.getSubSelectExpressions() != null && statementSpec.getSubSelectExpressions().length > 0) {
+            return false;
+        }
+        if (statementSpec.getVariableReferences() != null && !statementSpec.getVariableReferences().isEmpty()) {
+            return false;
+        }
+
+        ExprNodeThreadSafeVisitor visitor = new ExprNodeThreadSafeVisitor();
+        if (statementSpec.getFilterRootNode() != null) {
+            statementSpec.getFilterRootNode().accept(visitor);
+        }
+        for (StreamSpecCompiled streamSpec : statementSpec.getStreamSpecs()) {
+            List<ExprNode> streamFilters = Collections.emptyList();
+            if (streamSpec instanceof NamedWindowConsumerStreamSpec) {
+                streamFilters = ((NamedWindowConsumerStreamSpec) streamSpec).getFilterExpressions();
+            }
+            else if (streamSpec instanceof TableQueryStreamSpec) {
+                streamFilters = ((TableQueryStreamSpec) streamSpec).getFilterExpressions();
+            }
+            for (ExprNode streamFilter : streamFilters) {
+                streamFilter.accept(visitor);
+            }
+        }
+        return visitor.isThreadSafe();
+    }
+
+    /**
+     * Returns the aggregation service of a fire-and-forget query that aggregates in parallel, or null if the query
+     * does not aggregate in parallel. Parallel aggregation applies to fully-aggregated queries without group-by
+     * whose aggregation functions can all merge partial states, i.e. sum, count, avg, min and max without distinct,
+     * and whose aggregated expressions are thread-safe according to {@link ExprNodeThreadSafeVisitor}.
+     * @param resultSetProcessor result set processor of the query
+     * @return aggregation service or null if not aggregating in parallel
+     */
+    public static AggSvcGroupAllNoAccessImpl getParallelAggregation(ResultSetProcessor resultSetProcessor) {
+        if (!(resultSetProcessor instanceof ResultSetProcessorRowForAll)) {
+            return null;
+        }
+        if (!(((ResultSetProcessorRowForAll) resultSetProcessor).getAggregationService() instanceof AggSvcGroupAllNoAccessImpl)) {
+            return null;
+        }
+        AggSvcGroupAllNoAccessImpl aggregationService = (AggSvcGroupAllNoAccessImpl) ((ResultSetProcessorRowForAll) resultSetProcessor).getAggregationService();
+        ExprNodeThreadSafeVisitor visitor = new ExprNodeThreadSafeVisitor();
+        for (int i = 0; i < aggregationService.getAggregators().length; i++) {
+            if (!(aggregationService.getAggregators()[i] instanceof AggregationMethodMergeable)) {
+                return null;
+            }
+            for (ExprNode child : aggregationService.getAggregatorFactories()[i].getAggregationExpression().getChildNodes()) {
+                child.accept(visitor);
+            }
+        }
+        return visitor.isThreadSafe() ? aggregationService : null;
+    }
+
+    /**
+     * Filter and aggregate the rows of a snapshot in parallel, merging partial aggregation states into the
+     * aggregation service. Does not aggregate if the snapshot does not hold enough rows.
+     * @param snapshot rows
+     * @param filterExpressions filter expressions that must all return true
+     * @param aggregationService aggregation service as returned by {@link #getParallelAggregation(ResultSetProcessor)}
+     * @param exprEvaluatorContext context for evaluation
+     * @return true if aggregated, false if the snapshot is too small and the caller must filter and aggregate
+     */
+    public static boolean aggregate(Collection<EventBean> snapshot, List<ExprNode> filterExpressions, AggSvcGroupAllNoAccessImpl aggregationService, ExprEvaluatorContext exprEvaluatorContext) {
+        int numSegments = getNumSegments(snapshot.size());
+        if (numSegments < 2) {
+            return false;
+        }
+
+        List<ExprNode> expressions = new ArrayList<ExprNode>(filterExpressions);
+        for (AggregationMethodFactory factory : aggregationService.getAggregatorFactories()) {
+            expressions.addAll(Arrays.asList(factory.getAggregationExpression().getChildNodes()));
+        }
+        initLazy(Collections.singletonList(snapshot), expressions, exprEvaluatorContext);
+
+        ExprEvaluator[] filterEvaluators = ExprNodeUtility.getEvaluators(filterExpressions);
+        EventBean[] rows = snapshot.toArray(new EventBean[snapshot.size()]);
+        int segmentSize = (rows.length + numSegments - 1) / numSegments;
+        List<AggregateTask> tasks = new ArrayList<AggregateTask>(numSegments);
+        for (int start = 0; start < rows.length; start += segmentSize) {
+            AggregateTask task = new AggregateTask(rows, start, Math.min(rows.length, start + segmentSize), filterEvaluators, aggregationService, exprEvaluatorContext);
+            ForkJoinPool.commonPool().execute(task);
+            tasks.add(task);
+        }
+
+        AggregationMethod[] aggregators = aggregationService.getAggregators();
+        for (AggregateTask task : tasks) {
+            AggregationMethod[] partial = task.join();
+            for (int i = 0; i < aggregators.length; i++) {
+                ((AggregationMethodMergeable) aggregators[i]).merge(partial[i]);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Filter the rows of snapshots, in parallel if the snapshots hold enough rows.
+     * @param snapshots rows per snapshot
+     * @param filterExpressions filter expressions that must all return true
+     * @param exprEvaluatorContext context for evaluation
+     * @return filtered rows per snapshot
+     */
+    public static List<Collection<EventBean>> getFiltered(List<Collection<EventBean>> snapshots, List<ExprNode> filterExpressions, ExprEvaluatorContext exprEvaluatorContext) {
+        ExprEvaluator[] evaluators = ExprNodeUtility.getEvaluators(filterExpressions);
+        int total = 0;
+        for (Collection<EventBean> snapshot : snapshots) {
+            total += snapshot.size();
+        }
+
+        int numSegments = getNumSegments(total);
+        List<Collection<EventBean>> result = new ArrayList<Collection<EventBean>>(snapshots.size());
+        if (numSegments < 2) {
+            for (Collection<EventBean> snapshot : snapshots) {
+                ArrayDeque<EventBean> deque = new ArrayDeque<EventBean>(Math.min(snapshot.size(), 16));
+                ExprNodeUtility.applyFilterExpressionsIterable(snapshot, filterExpressions, exprEvaluatorContext, deque);
+                result.add(deque);
+            }
+            return result;
+        }
+
+        initLazy(snapshots, filterExpressions, exprEvaluatorContext);
+
+        // split each snapshot into segments of about the same size, a small snapshot being a segment itself
+        int segmentSize = Math.max(MIN_SEGMENT_SIZE, (total + numSegments - 1) / numSegments);
+        List<List<FilterTask>> tasksPerSnapshot = new ArrayList<List<FilterTask>>(snapshots.size());
+        for (Collection<EventBean> snapshot : snapshots) {
+            EventBean[] rows = snapshot.toArray(new EventBean[snapshot.size()]);
+            List<FilterTask> tasks = new ArrayList<FilterTask>(rows.length / segmentSize + 1);
+            for (int start = 0; start < rows.length; start += segmentSize) {
+                FilterTask task = new FilterTask(rows, start, Math.min(rows.length, start + segmentSize), evaluators, exprEvaluatorContext);
+                ForkJoinPool.commonPool().execute(task);
+                tasks.add(task);
+            }
+            tasksPerSnapshot.add(tasks);
+        }
+
+        for (List<FilterTask> tasks : tasksPerSnapshot) {
+            if (tasks.size() == 1) {
+                result.add(tasks.get(0).join());
+                continue;
+            }
+            ArrayDeque<EventBean> deque = new ArrayDeque<EventBean>();
+            for (FilterTask task : tasks) {
+                deque.addAll(task.join());
+            }
+            result.add(deque);
+        }
+        return result;
+    }
+
+    /**
+     * Filter the rows of a snapshot, in parallel if the snapshot holds enough rows.
+     * @param snapshot rows
+     * @param filterExpressions filter expressions that must all return true
+     * @param exprEvaluatorContext context for evaluation
+     * @return filtered rows
+     */
+    public static Collection<EventBean> getFiltered(Collection<EventBean> snapshot, List<ExprNode> filterExpressions, ExprEvaluatorContext exprEvaluatorContext) {
+        return getFiltered(Collections.singletonList(snapshot), filterExpressions, exprEvaluatorContext).get(0);
+    }
+
+    private static int getNumSegments(int total) {
+        return Math.min(total / MIN_SEGMENT_SIZE, ForkJoinPool.getCommonPoolParallelism() * 4);
+    }
+
+    // evaluate expressions that initialize state on first evaluation on this thread, before the tasks share them
+    private static void initLazy(List<Collection<EventBean>> snapshots, List<ExprNode> expressions, ExprEvaluatorContext exprEvaluatorContext) {
+        ExprNodeThreadSafeVisitor visitor = new ExprNodeThreadSafeVisitor();
+        for (ExprNode expression : expressions) {
+            expression.accept(visitor);
+        }
+        if (!visitor.getLazyInitNodes().isEmpty()) {
+            EventBean[] events = new EventBean[] {getFirst(snapshots)};
+            for (ExprNode lazyInitNode : visitor.getLazyInitNodes()) {
+                lazyInitNode.getExprEvaluator().evaluate(events, true, exprEvaluatorContext);
+            }
+        }
+    }
+
+    private static EventBean getFirst(List<Collection<EventBean>> snapshots) {
+        for (Collection<EventBean> snapshot : snapshots) {
+            if (!snapshot.isEmpty()) {
+                return snapshot.iterator().next();
+            }
+        }
+        return null;
+    }
+
+    private static class FilterTask extends RecursiveTask<ArrayDeque<EventBean>> {
+        private static final long serialVersionUID = -4049218947362165426L;
+
+        private final EventBean[] rows;
+        private final int start;
+        private final int end;
+        private final ExprEvaluator[] evaluators;
+        private final ExprEvaluatorContext exprEvaluatorContext;
+
+        private FilterTask(EventBean[] rows, int start, int end, ExprEvaluator[] evaluators, ExprEvaluatorContext exprEvaluatorContext) {
+            this.rows = rows;
+            this.start = start;
+            this.end = end;
+            this.evaluators = evaluators;
+            this.exprEvaluatorContext = exprEvaluatorContext;
+        }
+
+        protected ArrayDeque<EventBean> compute() {
+            ArrayDeque<EventBean> deque = new ArrayDeque<EventBean>(Math.min(end - start, 16));
+            EventBean[] events = new EventBean[1];
+            for (int i = start; i < end; i++) {
+                events[0] = rows[i];
+                boolean add = true;
+                for (ExprEvaluator filter : evaluators) {
+                    Object result = filter.evaluate(events, true, exprEvaluatorContext);
+                    if ((result == null) || (!((Boolean) result))) {
+                        add = false;
+                        break;
+                    }
+                }
+                if (add) {
+                    deque.add(rows[i]);
+                }
+            }
+            return deque;
+        }
+    }
+
+    private static class AggregateTask extends RecursiveTask<AggregationMethod[]> {
+        private static final long serialVersionUID = 2316406379640592637L;
+
+        private final EventBean[] rows;
+        private final int start;
+        private final int end;
+        private final ExprEvaluator[] filterEvaluators;
+        private final AggSvcGroupAllNoAccessImpl aggregationService;
+        private final ExprEvaluatorContext exprEvaluatorContext;
+
+        private AggregateTask(EventBean[] rows, int start, int end, ExprEvaluator[] filterEvaluators, AggSvcGroupAllNoAccessImpl aggregationService, ExprEvaluatorContext exprEvaluatorContext) {
+            this.rows = rows;
+            this.start = start;
+            this.end = end;
+            this.filterEvaluators = filterEvaluators;
+            this.aggregationService = aggregationService;
+            this.exprEvaluatorContext = exprEvaluatorContext;
+        }
+
+        protected AggregationMethod[] compute() {
+            ExprEvaluator[] evaluators = aggregationService.getEvaluators();
+            AggregationMethodFactory[] factories = aggregationService.getAggregatorFactories();
+            AggregationMethod[] aggregators = new AggregationMethod[factories.length];
+            for (int i = 0; i < factories.length; i++) {
+                aggregators[i] = factories[i].make();
+            }
+
+            EventBean[] events = new EventBean[1];
+            for (int i = start; i < end; i++) {
+                events[0] = rows[i];
+                boolean add = true;
+                for (ExprEvaluator filter : filterEvaluators) {
+                    Object result = filter.evaluate(events, true, exprEvaluatorContext);
+                    if ((result == null) || (!((Boolean) result))) {
+                        add = false;
+                        break;
+                    }
+                }
+                if (add) {
+                    for (int j = 0; j < evaluators.length; j++) {
+                        AggregatorUtil.enter(evaluators[j], aggregators[j], events, exprEvaluatorContext);
+                    }
+                }
+            }
+            return aggregators;
+        }
+    }
+}
@@ -8,6 +8,7 @@
  **************************************************************************************/
 package com.espertech.esper.core.start;
 
+import com.espertech.esper.client.ConfigurationEngineDefaults;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.client.annotation.HookType;
 import com.espertech.esper.client.annotation.IterableUnbound;
@@ -132,7 +133,7 @@ public class EPStatementStartMethodSelectUtil
                     }
                 }
                 else {
-                    if (!hasContext) {
+                    if (!hasContext || isShareContextPartitionViews(services, statementSpec, statementContext, isJoin, filterSubselectSameStream)) {
                         activatorDeactivator = services.getViewableActivatorFactory().createStreamReuseView(services, statementContext, statementSpec, filterStreamSpec, isJoin, evaluatorContextStmt, filterSubselectSameStream, i, isCanIterateUnbound);
                     }
                     else {
@@ -278,6 +279,7 @@ public class EPStatementStartMethodSelectUtil
 
         // Add uniqueness information useful for joins
         joinAnalysisResult.addUniquenessInfo(unmaterializedViewChain, statementSpec.getAnnotations());
+        joinAnalysisResult.addBatchWindowInfo(unmaterializedViewChain);
 
         // Validate sub-select views
         SubSelectStrategyCollection subSelectStrategyCollection = EPStatementStartMethodHelperSubselect.planSubSelect(services, statementContext, queryPlanLogging, subSelectStreamDesc, streamNames, streamEventTypes, eventTypeNames, statementSpec.getDeclaredExpressions(), contextPropertyRegistry);
@@ -352,6 +354,14 @@ public class EPStatementStartMethodSelectUtil
         return new EPStatementStartMethodSelectDesc(factory, subSelectStrategyCollection, viewResourceDelegateUnverified, resultSetProcessorPrototypeDesc, stopMethod, destroyCallbacks);
     }
 
+    private static boolean isShareContextPartitionViews(EPServicesContext services, StatementSpecCompiled statementSpec, StatementContext statementContext, boolean isJoin, boolean filterSubselectSameStream) {
+        ConfigurationEngineDefaults.ViewResources viewResources = services.getConfigSnapshot().getEngineDefaults().getViewResources();
+        if (!viewResources.isShareViews() || !viewResources.isShareContextPartitionViews()) {
+            return false;
+        }
+        return !isJoin && !filterSubselectSameStream && statementSpec.getOrderByList().length == 0 && !statementContext.isStatelessSelect();
+    }
+
     private static void validateNoViews(StreamSpecCompiled streamSpec, String conceptName)
             throws ExprValidationException
     {
@@ -0,0 +1,471 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free multi-producer multi-consumer work queue backed by a preallocated ring buffer.
+ * <p>
+ * Each slot carries a sequence number that tells producers and consumers whether the slot is free for the
+ * current lap, therefore producers and consumers only contend on a compare-and-set of their respective cursor.
+ * Producers wait when the ring is full and consumers wait when the ring is empty, according to the wait strategy.
+ * <p>
+ * Removing an element, as thread pools do for rejected or cancelled tasks, marks its slot as removed, and
+ * consumers skip removed slots. A removed slot is not part of the size, but occupies capacity until a consumer skips it.
+ * <p>
+ * Tracks the number of waits and the time spent waiting by producers and consumers, for use in tuning the
+ * capacity and number of threads.
+ */
+public class RingBufferBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E>
+{
+    private static final long PARK_NANOS_MIN = 1000;
+    private static final long PARK_NANOS_MAX = 1000000;
+
+    // marks the slot of a removed element
+    private static final Object REMOVED = new Object();
+
+    private final AtomicReferenceArray<Object> buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final ConfigurationEngineDefaults.Threading.WaitStrategy waitStrategy;
+
+    private final AtomicLong producerCursor = new AtomicLong();
+    private final AtomicLong consumerCursor = new AtomicLong();
+    private final AtomicLong removedCount = new AtomicLong();
+
+    private final AtomicLong producerWaitCount = new AtomicLong();
+    private final AtomicLong producerWaitNanos = new AtomicLong();
+    private final AtomicLong consumerWaitCount = new AtomicLong();
+    private final AtomicLong consumerWaitNanos = new AtomicLong();
+
+    /**
+     * Ctor.
+     * @param capacity minimum capacity, rounded up to the next power of two of at least two
+     * @param waitStrategy technique to wait when full or empty
+     */
+    public RingBufferBlockingQueue(int capacity, ConfigurationEngineDefaults.Threading.WaitStrategy waitStrategy)
+    {
+        if (capacity < 1 || capacity > (1 << 30))
+        {
+            throw new IllegalArgumentException("Invalid ring buffer capacity " + capacity);
+        }
+        // the slot sequence scheme requires at least two slots
+        int size = Math.max(2, Integer.highestOneBit(capacity));
+        if (size < capacity)
+        {
+            size <<= 1;
+        }
+        this.buffer = new AtomicReferenceArray<Object>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++)
+        {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.waitStrategy = waitStrategy;
+    }
+
+    public boolean offer(E e)
+    {
+        if (e == null)
+        {
+            throw new NullPointerException();
+        }
+        long pos = producerCursor.get();
+        while (true)
+        {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0)
+            {
+                if (producerCursor.compareAndSet(pos, pos + 1))
+                {
+                    buffer.lazySet(index, e);
+                    sequences.lazySet(index, pos + 1);
+                    return true;
+                }
+                pos = producerCursor.get();
+            }
+            else if (diff < 0)
+            {
+                return false;   // full
+            }
+            else
+            {
+                pos = producerCursor.get();
+            }
+        }
+    }
+
+    public E poll()
+    {
+        long pos = consumerCursor.get();
+        while (true)
+        {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - (pos + 1);
+            if (diff == 0)
+            {
+                if (consumerCursor.compareAndSet(pos, pos + 1))
+                {
+                    // take the element atomically so that a concurrent remove either sees it or does not remove it
+                    Object e = buffer.getAndSet(index, null);
+                    sequences.lazySet(index, pos + mask + 1);
+                    if (e != REMOVED)
+                    {
+                        return (E) e;
+                    }
+                    removedCount.decrementAndGet();
+                }
+                pos = consumerCursor.get();
+            }
+            else if (diff < 0)
+            {
+                return null;    // empty
+            }
+            else
+            {
+                pos = consumerCursor.get();
+            }
+        }
+    }
+
+    public void put(E e) throws InterruptedException
+    {
+        if (offer(e))
+        {
+            return;
+        }
+        long start = System.nanoTime();
+        producerWaitCount.incrementAndGet();
+        try
+        {
+            for (int attempt = 0; !offer(e); attempt++)
+            {
+                idle(attempt);
+            }
+        }
+        finally
+        {
+            producerWaitNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException
+    {
+        if (offer(e))
+        {
+            return true;
+        }
+        long start = System.nanoTime();
+        long deadline = start + unit.toNanos(timeout);
+        producerWaitCount.incrementAndGet();
+        try
+        {
+            for (int attempt = 0; !offer(e); attempt++)
+            {
+                if (System.nanoTime() - deadline >= 0)
+                {
+                    return false;
+                }
+                idle(attempt);
+            }
+            return true;
+        }
+        finally
+        {
+            producerWaitNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    public E take() throws InterruptedException
+    {
+        E e = poll();
+        if (e != null)
+        {
+            return e;
+        }
+        long start = System.nanoTime();
+        consumerWaitCount.incrementAndGet();
+        try
+        {
+            for (int attempt = 0; (e = poll()) == null; attempt++)
+            {
+                idle(attempt);
+            }
+            return e;
+        }
+        finally
+        {
+            consumerWaitNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        E e = poll();
+        if (e != null)
+        {
+            return e;
+        }
+        long start = System.nanoTime();
+        long deadline = start + unit.toNanos(timeout);
+        consumerWaitCount.incrementAndGet();
+        try
+        {
+            for (int attempt = 0; (e = poll()) == null; attempt++)
+            {
+                if (System.nanoTime() - deadline >= 0)
+                {
+                    return null;
+                }
+                idle(attempt);
+            }
+            return e;
+        }
+        finally
+        {
+            consumerWaitNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    public E peek()
+    {
+        long pos = consumerCursor.get();
+        long end = producerCursor.get();
+        for (; pos < end; pos++)
+        {
+            int index = (int) (pos & mask);
+            if (sequences.get(index) - (pos + 1) != 0)
+            {
+                return null;
+            }
+            Object e = buffer.get(index);
+            if (e != null && e != REMOVED)
+            {
+                return (E) e;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes an element that is queued and not yet taken by a consumer.
+     * @param o element
+     * @return true if removed
+     */
+    public boolean remove(Object o)
+    {
+        if (o == null)
+        {
+            return false;
+        }
+        long pos = consumerCursor.get();
+        long end = producerCursor.get();
+        for (; pos < end; pos++)
+        {
+            int index = (int) (pos & mask);
+            Object e = buffer.get(index);
+            if (e != null && e != REMOVED && o.equals(e) && buffer.compareAndSet(index, e, REMOVED))
+            {
+                removedCount.incrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size()
+    {
+        long size = getOccupied() - removedCount.get();
+        if (size < 0)
+        {
+            return 0;
+        }
+        return (int) size;
+    }
+
+    public boolean isEmpty()
+    {
+        return size() == 0;
+    }
+
+    public int remainingCapacity()
+    {
+        return buffer.length() - getOccupied();
+    }
+
+    /**
+     * Returns the number of slots of the ring.
+     * @return capacity
+     */
+    public int getCapacity()
+    {
+        return buffer.length();
+    }
+
+    /**
+     * Returns the number of times producers found the ring full and waited.
+     * @return count of producer waits
+     */
+    public long getProducerWaitCount()
+    {
+        return producerWaitCount.get();
+    }
+
+    /**
+     * Returns the total time producers spent waiting for the ring to have room, in nanoseconds.
+     * @return producer wait time
+     */
+    public long getProducerWaitNanos()
+    {
+        return producerWaitNanos.get();
+    }
+
+    /**
+     * Returns the number of times consumers found the ring empty and waited.
+     * @return count of consumer waits
+     */
+    public long getConsumerWaitCount()
+    {
+        return consumerWaitCount.get();
+    }
+
+    /**
+     * Returns the total time consumers spent waiting for work, in nanoseconds.
+     * @return consumer wait time
+     */
+    public long getConsumerWaitNanos()
+    {
+        return consumerWaitNanos.get();
+    }
+
+    public int drainTo(Collection<? super E> c)
+    {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    public int drainTo(Collection<? super E> c, int maxElements)
+    {
+        if (c == this)
+        {
+            throw new IllegalArgumentException();
+        }
+        int count = 0;
+        E e;
+        while (count < maxElements && (e = poll()) != null)
+        {
+            c.add(e);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns a weakly-consistent iterator over a snapshot of the queued elements. Removing by the iterator
+     * removes the element from the queue, if a consumer did not take it yet.
+     * @return iterator
+     */
+    public Iterator<E> iterator()
+    {
+        final List<E> snapshot = new ArrayList<E>();
+        long pos = consumerCursor.get();
+        long end = producerCursor.get();
+        for (; pos < end; pos++)
+        {
+            int index = (int) (pos & mask);
+            if (sequences.get(index) - (pos + 1) != 0)
+            {
+                break;
+            }
+            Object e = buffer.get(index);
+            if (e != null && e != REMOVED)
+            {
+                snapshot.add((E) e);
+            }
+        }
+        return new Iterator<E>()
+        {
+            private final Iterator<E> it = snapshot.iterator();
+            private E last;
+
+            public boolean hasNext()
+            {
+                return it.hasNext();
+            }
+
+            public E next()
+            {
+                last = it.next();
+                return last;
+            }
+
+            public void remove()
+            {
+                if (last == null)
+                {
+                    throw new IllegalStateException();
+                }
+                RingBufferBlockingQueue.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    // returns the number of slots holding an element or a removed element
+    private int getOccupied()
+    {
+        // read the consumer cursor first so that the difference cannot be negative
+        long consumed = consumerCursor.get();
+        long produced = producerCursor.get();
+        long occupied = produced - consumed;
+        if (occupied < 0)
+        {
+            return 0;
+        }
+        return (int) Math.min(occupied, buffer.length());
+    }
+
+    private void idle(int attempt) throws InterruptedException
+    {
+        if (Thread.interrupted())
+        {
+            throw new InterruptedException();
+        }
+        switch (waitStrategy)
+        {
+            case BUSY_SPIN:
+                break;
+            case YIELD:
+                Thread.yield();
+                break;
+            default:
+                if (attempt < 100)
+                {
+                    Thread.yield();
+                }
+                else
+                {
+                    LockSupport.parkNanos(Math.min(PARK_NANOS_MAX, PARK_NANOS_MIN << Math.min(attempt - 100, 10)));
+                }
+        }
+    }
+}
@@ -11,9 +11,12 @@
 
 package com.espertech.esper.core.thread;
 
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.EventType;
 import com.espertech.esper.core.service.EPRuntimeImpl;
 import com.espertech.esper.core.service.EPServicesContext;
 
+import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 
@@ -52,6 +55,26 @@ public interface ThreadingService
      */
     public boolean isInboundThreading();
 
+    /**
+     * Returns true for inbound threading that assigns events to single-threaded lanes by context partition.
+     * @return indicator
+     */
+    public boolean isInboundPartitioned();
+
+    /**
+     * Registers the partition key getters of a keyed-segmented or hash-segmented context, for use in
+     * assigning inbound events to lanes when inbound threading is partitioned.
+     * @param contextName context name
+     * @param keyGetters partition key getters per event type
+     */
+    public void addInboundPartitionKeys(String contextName, Map<EventType, EventPropertyGetter[]> keyGetters);
+
+    /**
+     * Removes the partition key getters of a context.
+     * @param contextName context name
+     */
+    public void removeInboundPartitionKeys(String contextName);
+
     /**
      * Submit inbound work unit.
      * @param unit unit of work
@@ -119,16 +142,23 @@ public interface ThreadingService
     public ThreadPoolExecutor getTimerThreadPool();
 
     /**
-     * Returns the inbound queue.
+     * Returns the inbound queue, or null if inbound threading is partitioned.
      * @return queue
      */
     public BlockingQueue<Runnable> getInboundQueue();
 
     /**
-     * Returns the inbound thread pool
+     * Returns the inbound thread pool, or null if inbound threading is partitioned.
      * @return thread pool
      */
     public ThreadPoolExecutor getInboundThreadPool();
 
+    /**
+     * Returns the ring buffer queues of the thread pools by thread pool name, for observing queue depth and the waits
+     * of producing and consuming threads. Returns an empty map unless the thread pool queue strategy is ring buffer.
+     * @return ring buffer queue per thread pool name
+     */
+    public Map<String, RingBufferBlockingQueue<Runnable>> getRingBufferQueues();
+
     public Thread makeEventSourceThread(String engineURI, String sourceName, Runnable runnable);
 }
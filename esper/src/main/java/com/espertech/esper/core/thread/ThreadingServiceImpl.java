@@ -12,11 +12,19 @@
 package com.espertech.esper.core.thread;
 
 import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.EventType;
 import com.espertech.esper.core.service.EPRuntimeImpl;
 import com.espertech.esper.core.service.EPServicesContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.*;
 
 /**
@@ -25,12 +33,14 @@ import java.util.concurrent.*;
 public class ThreadingServiceImpl implements ThreadingService
 {
     private static final Logger log = LoggerFactory.getLogger(ThreadingServiceImpl.class);
+    private static final int DEFAULT_RING_BUFFER_CAPACITY = 1024;
 
     private final ConfigurationEngineDefaults.Threading config;
     private final boolean isTimerThreading;
     private final boolean isInboundThreading;
     private final boolean isRouteThreading;
     private final boolean isOutboundThreading;
+    private final boolean isInboundPartitioned;
 
     private BlockingQueue<Runnable> timerQueue;
     private BlockingQueue<Runnable> inboundQueue;
@@ -42,6 +52,11 @@ public class ThreadingServiceImpl implements ThreadingService
     private ThreadPoolExecutor routeThreadPool;
     private ThreadPoolExecutor outboundThreadPool;
 
+    private BlockingQueue<Runnable>[] inboundLaneQueues;
+    private ThreadPoolExecutor[] inboundLanes;
+    private final Map<String, Map<EventType, EventPropertyGetter[]>> inboundPartitionKeysPerContext = new HashMap<String, Map<EventType, EventPropertyGetter[]>>();
+    private volatile Map<EventType, EventPropertyGetter[]> inboundPartitionKeys = Collections.emptyMap();
+
     /**
      * Ctor.
      * @param threadingConfig configuration
@@ -55,6 +70,7 @@ public class ThreadingServiceImpl implements ThreadingService
             isInboundThreading = threadingConfig.isThreadPoolInbound();
             isRouteThreading = threadingConfig.isThreadPoolRouteExec();
             isOutboundThreading = threadingConfig.isThreadPoolOutbound();
+            isInboundPartitioned = isInboundThreading && threadingConfig.isThreadPoolInboundPartitioned();
         }
         else
         {
@@ -62,6 +78,7 @@ public class ThreadingServiceImpl implements ThreadingService
             isInboundThreading = false;
             isRouteThreading = false;
             isOutboundThreading = false;
+            isInboundPartitioned = false;
         }
     }
 
@@ -75,6 +92,11 @@ public class ThreadingServiceImpl implements ThreadingService
         return isInboundThreading;
     }
 
+    public boolean isInboundPartitioned()
+    {
+        return isInboundPartitioned;
+    }
+
     public boolean isTimerThreading()
     {
         return isTimerThreading;
@@ -87,7 +109,19 @@ public class ThreadingServiceImpl implements ThreadingService
 
     public void initThreading(EPServicesContext services, EPRuntimeImpl runtime)
     {
-        if (isInboundThreading)
+        if (isInboundPartitioned)
+        {
+            // each lane is a single thread such that events of the same context partition are processed in arrival order
+            int numLanes = config.getThreadPoolInboundNumThreads();
+            inboundLaneQueues = new BlockingQueue[numLanes];
+            inboundLanes = new ThreadPoolExecutor[numLanes];
+            for (int i = 0; i < numLanes; i++)
+            {
+                inboundLaneQueues[i] = makeQueue(config.getThreadPoolInboundCapacity());
+                inboundLanes[i] = getThreadPool(services.getEngineURI(), "Inbound-" + i, inboundLaneQueues[i], 1);
+            }
+        }
+        else if (isInboundThreading)
         {
             inboundQueue = makeQueue(config.getThreadPoolInboundCapacity());
             inboundThreadPool = getThreadPool(services.getEngineURI(), "Inbound", inboundQueue, config.getThreadPoolInboundNumThreads());
@@ -114,6 +148,18 @@ public class ThreadingServiceImpl implements ThreadingService
 
     private BlockingQueue<Runnable> makeQueue(Integer threadPoolTimerExecCapacity)
     {
+        if (config.getThreadPoolQueueStrategy() == ConfigurationEngineDefaults.Threading.QueueStrategy.RING_BUFFER)
+        {
+            int capacity = DEFAULT_RING_BUFFER_CAPACITY;
+            if ((threadPoolTimerExecCapacity != null) &&
+                (threadPoolTimerExecCapacity > 0) &&
+                (threadPoolTimerExecCapacity != Integer.MAX_VALUE))
+            {
+                capacity = threadPoolTimerExecCapacity;
+            }
+            return new RingBufferBlockingQueue<Runnable>(capacity, config.getThreadPoolQueueWaitStrategy());
+        }
+
         if ((threadPoolTimerExecCapacity == null) ||
             (threadPoolTimerExecCapacity <= 0) ||
             (threadPoolTimerExecCapacity == Integer.MAX_VALUE))
@@ -142,7 +188,14 @@ public class ThreadingServiceImpl implements ThreadingService
     {
         try
         {
-            inboundQueue.put(unit);
+            if (isInboundPartitioned)
+            {
+                inboundLaneQueues[getInboundLane(unit)].put(unit);
+            }
+            else
+            {
+                inboundQueue.put(unit);
+            }
         }
         catch (InterruptedException e)
         {
@@ -174,6 +227,24 @@ public class ThreadingServiceImpl implements ThreadingService
         }
     }
 
+    public synchronized void addInboundPartitionKeys(String contextName, Map<EventType, EventPropertyGetter[]> keyGetters)
+    {
+        if (!isInboundPartitioned)
+        {
+            return;
+        }
+        inboundPartitionKeysPerContext.put(contextName, keyGetters);
+        inboundPartitionKeys = mergeInboundPartitionKeys();
+    }
+
+    public synchronized void removeInboundPartitionKeys(String contextName)
+    {
+        if (inboundPartitionKeysPerContext.remove(contextName) != null)
+        {
+            inboundPartitionKeys = mergeInboundPartitionKeys();
+        }
+    }
+
     public BlockingQueue<Runnable> getOutboundQueue()
     {
         return outboundQueue;
@@ -214,6 +285,23 @@ public class ThreadingServiceImpl implements ThreadingService
         return inboundThreadPool;
     }
 
+    public synchronized Map<String, RingBufferBlockingQueue<Runnable>> getRingBufferQueues()
+    {
+        Map<String, RingBufferBlockingQueue<Runnable>> queues = new LinkedHashMap<String, RingBufferBlockingQueue<Runnable>>();
+        addRingBufferQueue(queues, "TimerExec", timerQueue);
+        addRingBufferQueue(queues, "RouteExec", routeQueue);
+        addRingBufferQueue(queues, "Outbound", outboundQueue);
+        addRingBufferQueue(queues, "Inbound", inboundQueue);
+        if (inboundLaneQueues != null)
+        {
+            for (int i = 0; i < inboundLaneQueues.length; i++)
+            {
+                addRingBufferQueue(queues, "Inbound-" + i, inboundLaneQueues[i]);
+            }
+        }
+        return queues;
+    }
+
     public synchronized void destroy()
     {
         if (timerThreadPool != null)
@@ -232,11 +320,79 @@ public class ThreadingServiceImpl implements ThreadingService
         {
             stopPool(inboundThreadPool, inboundQueue, "Inbound");
         }
+        if (inboundLanes != null)
+        {
+            for (int i = 0; i < inboundLanes.length; i++)
+            {
+                stopPool(inboundLanes[i], inboundLaneQueues[i], "Inbound-" + i);
+            }
+        }
 
         timerThreadPool = null;
         routeThreadPool = null;
         outboundThreadPool = null;
         inboundThreadPool = null;
+        inboundLanes = null;
+    }
+
+    private int getInboundLane(InboundUnitRunnable unit)
+    {
+        // time events and events not yet wrapped are all assigned to the first lane
+        if (!(unit instanceof InboundUnitSendWrapped))
+        {
+            return 0;
+        }
+
+        EventBean theEvent = ((InboundUnitSendWrapped) unit).getEventBean();
+        EventType eventType = theEvent.getEventType();
+        Map<EventType, EventPropertyGetter[]> keys = inboundPartitionKeys;
+        EventPropertyGetter[] getters = keys.get(eventType);
+        if (getters == null && !keys.isEmpty() && eventType.getSuperTypes() != null)
+        {
+            Iterator<EventType> superTypes = eventType.getDeepSuperTypes();
+            while (getters == null && superTypes.hasNext())
+            {
+                getters = keys.get(superTypes.next());
+            }
+        }
+
+        int hash;
+        if (getters == null || getters.length == 0)
+        {
+            // no partitioning context, or partitioned differently by multiple contexts: assign by type to retain the type's arrival order
+            hash = eventType.getName() == null ? 0 : eventType.getName().hashCode();
+        }
+        else
+        {
+            hash = 0;
+            for (EventPropertyGetter getter : getters)
+            {
+                Object value = getter.get(theEvent);
+                hash = 31 * hash + (value == null ? 0 : value.hashCode());
+            }
+        }
+        hash ^= (hash >>> 16);
+        return (hash & Integer.MAX_VALUE) % inboundLanes.length;
+    }
+
+    private Map<EventType, EventPropertyGetter[]> mergeInboundPartitionKeys()
+    {
+        Map<EventType, EventPropertyGetter[]> merged = new HashMap<EventType, EventPropertyGetter[]>();
+        for (Map<EventType, EventPropertyGetter[]> contextKeys : inboundPartitionKeysPerContext.values())
+        {
+            for (Map.Entry<EventType, EventPropertyGetter[]> entry : contextKeys.entrySet())
+            {
+                if (merged.containsKey(entry.getKey()))
+                {
+                    merged.put(entry.getKey(), new EventPropertyGetter[0]);
+                }
+                else
+                {
+                    merged.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return merged;
     }
 
     private ThreadPoolExecutor getThreadPool(String engineURI, String name, BlockingQueue<Runnable> queue, int numThreads)
@@ -270,11 +426,26 @@ public class ThreadingServiceImpl implements ThreadingService
         return new Thread(threadGroup, runnable);
     }
 
+    private static void addRingBufferQueue(Map<String, RingBufferBlockingQueue<Runnable>> queues, String name, BlockingQueue<Runnable> queue)
+    {
+        if (queue instanceof RingBufferBlockingQueue)
+        {
+            queues.put(name, (RingBufferBlockingQueue<Runnable>) queue);
+        }
+    }
+
     private void stopPool(ThreadPoolExecutor threadPool, BlockingQueue<Runnable> queue, String name)
     {
         if (log.isInfoEnabled())
         {
             log.info("Shutting down pool " + name);
+            if (queue instanceof RingBufferBlockingQueue)
+            {
+                RingBufferBlockingQueue ring = (RingBufferBlockingQueue) queue;
+                log.info("Pool " + name + " ring buffer capacity " + ring.getCapacity() + " depth " + ring.size() +
+                        ", producer waits " + ring.getProducerWaitCount() + " for " + TimeUnit.NANOSECONDS.toMillis(ring.getProducerWaitNanos()) + " msec" +
+                        ", consumer waits " + ring.getConsumerWaitCount() + " for " + TimeUnit.NANOSECONDS.toMillis(ring.getConsumerWaitNanos()) + " msec");
+            }
         }
 
         queue.clear();
@@ -10,6 +10,7 @@ package com.espertech.esper.epl.agg.access;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.collection.OrderStatisticTreeMap;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 
@@ -21,7 +22,7 @@ import java.util.*;
 public class AggregationStateSortedImpl implements AggregationStateWithSize, AggregationStateSorted
 {
     protected final AggregationStateSortedSpec spec;
-    protected final TreeMap<Object, Object> sorted;
+    protected final OrderStatisticTreeMap<Object, Object> sorted;
     protected int size;
 
     /**
@@ -30,7 +31,7 @@ public class AggregationStateSortedImpl implements AggregationStateWithSize, Agg
      */
     public AggregationStateSortedImpl(AggregationStateSortedSpec spec) {
         this.spec = spec;
-        sorted = new TreeMap<Object, Object>(spec.getComparator());
+        sorted = new OrderStatisticTreeMap<Object, Object>(spec.getComparator());
     }
 
     public void clear() {
@@ -54,11 +55,12 @@ public class AggregationStateSortedImpl implements AggregationStateWithSize, Agg
                 ArrayDeque coll = new ArrayDeque(2);
                 coll.add(existing);
                 coll.add(theEvent);
-                sorted.put(comparable, coll);
+                sorted.put(comparable, coll, coll.size());
             }
             else {
                 ArrayDeque q = (ArrayDeque) existing;
                 q.add(theEvent);
+                sorted.put(comparable, q, q.size());
             }
             size++;
         }
@@ -94,6 +96,9 @@ public class AggregationStateSortedImpl implements AggregationStateWithSize, Agg
                     if (q.isEmpty()) {
                         sorted.remove(comparable);
                     }
+                    else {
+                        sorted.put(comparable, q, q.size());
+                    }
                     size--;
                 }
             }
@@ -11,26 +11,21 @@
 package com.espertech.esper.epl.agg.access;
 
 import com.espertech.esper.collection.MixedEventBeanAndCollectionIteratorBase;
-
-import java.util.SortedMap;
-import java.util.TreeMap;
+import com.espertech.esper.collection.OrderStatisticTreeMap;
 
 public class AggregationStateSortedIterator extends MixedEventBeanAndCollectionIteratorBase
 {
-    private final SortedMap<Object, Object> window;
-
     /**
      * Ctor.
      * @param window - sorted map with events
      */
-    public AggregationStateSortedIterator(TreeMap<Object, Object> window, boolean reverse)
+    public AggregationStateSortedIterator(OrderStatisticTreeMap<Object, Object> window, boolean reverse)
     {
-        super(reverse ? window.descendingKeySet().iterator() : window.keySet().iterator());
-        this.window = window;
+        super(window.valueIterator(reverse));
         init();
     }
 
     protected Object getValue(Object iteratorKeyValue) {
-        return window.get(iteratorKeyValue);
+        return iteratorKeyValue;
     }
 }
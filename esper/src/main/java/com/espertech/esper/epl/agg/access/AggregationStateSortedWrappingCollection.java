@@ -11,16 +11,17 @@
 
 package com.espertech.esper.epl.agg.access;
 
+import com.espertech.esper.collection.OrderStatisticTreeMap;
+
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.TreeMap;
 
 public class AggregationStateSortedWrappingCollection implements Collection {
 
-    private final TreeMap<Object, Object> sorted;
+    private final OrderStatisticTreeMap<Object, Object> sorted;
     private final int size;
 
-    public AggregationStateSortedWrappingCollection(TreeMap<Object, Object> sorted, int size) {
+    public AggregationStateSortedWrappingCollection(OrderStatisticTreeMap<Object, Object> sorted, int size) {
         this.sorted = sorted;
         this.size = size;
     }
@@ -0,0 +1,44 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+/**
+ * Aggregation state of an aggregation function for many groups, kept in primitive arrays that have one element per group
+ * and that are indexed by a dense group id.
+ * <p>
+ * The state of a group is accessed by loading it into an aggregation method provided by the column,
+ * which is the same aggregation method instance for all groups, and storing the state back after entering or leaving values.
+ */
+public interface AggregationMethodColumn
+{
+    /**
+     * Ensures that groups ids up to the capacity can be stored.
+     * @param capacity number of group ids
+     */
+    public void ensureCapacity(int capacity);
+
+    /**
+     * Loads the state of the group.
+     * @param row group id
+     * @return aggregation method holding the state of the group until another group is loaded
+     */
+    public AggregationMethod load(int row);
+
+    /**
+     * Stores the state of the aggregation method returned by the last load into the group.
+     * @param row group id
+     */
+    public void store(int row);
+
+    /**
+     * Resets the state of the group.
+     * @param row group id
+     */
+    public void clear(int row);
+}
@@ -0,0 +1,23 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+/**
+ * Aggregation method that can merge the state of another aggregation method of the same class, for use with
+ * computing partial aggregations in parallel.
+ */
+public interface AggregationMethodMergeable extends AggregationMethod
+{
+    /**
+     * Merge the state of the other aggregation method, such that the value reflects the values entered into both.
+     * Values entered into the other aggregation method may not necessarily leave this aggregation method.
+     * @param other aggregation method of the same class, made by the same factory
+     */
+    public void merge(AggregationMethod other);
+}
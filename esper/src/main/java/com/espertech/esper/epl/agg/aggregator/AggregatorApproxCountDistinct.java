@@ -0,0 +1,52 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+import com.espertech.esper.epl.approx.HyperLogLogState;
+
+/**
+ * Aggregator for the approximate number of distinct values, keeping a HyperLogLog sketch of the values.
+ * Values cannot leave the sketch, leaving values are ignored.
+ */
+public class AggregatorApproxCountDistinct implements AggregationMethod
+{
+    protected final HyperLogLogState state;
+
+    /**
+     * Ctor.
+     */
+    public AggregatorApproxCountDistinct()
+    {
+        this.state = new HyperLogLogState();
+    }
+
+    public void clear()
+    {
+        state.clear();
+    }
+
+    public void enter(Object value)
+    {
+        if (value == null)
+        {
+            return;
+        }
+        state.add(HyperLogLogState.hash(value));
+    }
+
+    public void leave(Object value)
+    {
+        // no action
+    }
+
+    public Object getValue()
+    {
+        return state.getEstimate();
+    }
+}
@@ -18,7 +18,7 @@ import java.math.MathContext;
 /**
  * Average that generates a BigDecimal numbers.
  */
-public class AggregatorAvgBigDecimal implements AggregationMethod
+public class AggregatorAvgBigDecimal implements AggregationMethodMergeable
 {
     private static final Logger log = LoggerFactory.getLogger(AggregatorAvgBigDecimal.class);
     protected BigDecimal sum;
@@ -96,4 +96,10 @@ public class AggregatorAvgBigDecimal implements AggregationMethod
         }
     }
 
+    public void merge(AggregationMethod other)
+    {
+        AggregatorAvgBigDecimal that = (AggregatorAvgBigDecimal) other;
+        numDataPoints += that.numDataPoints;
+        sum = sum.add(that.sum);
+    }
 }
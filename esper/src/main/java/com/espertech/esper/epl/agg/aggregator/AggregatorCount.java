@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Counts all datapoints including null values.
  */
-public class AggregatorCount implements AggregationMethod
+public class AggregatorCount implements AggregationMethodMergeable
 {
     protected long numDataPoints;
 
@@ -37,4 +37,8 @@ public class AggregatorCount implements AggregationMethod
         return numDataPoints;
     }
 
+    public void merge(AggregationMethod other)
+    {
+        numDataPoints += ((AggregatorCount) other).numDataPoints;
+    }
 }
@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Count all non-null values.
  */
-public class AggregatorCountNonNull implements AggregationMethod
+public class AggregatorCountNonNull implements AggregationMethodMergeable
 {
     protected long numDataPoints;
 
@@ -47,4 +47,8 @@ public class AggregatorCountNonNull implements AggregationMethod
         return numDataPoints;
     }
 
+    public void merge(AggregationMethod other)
+    {
+        numDataPoints += ((AggregatorCountNonNull) other).numDataPoints;
+    }
 }
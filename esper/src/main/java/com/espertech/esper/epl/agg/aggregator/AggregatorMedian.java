@@ -8,18 +8,26 @@
  **************************************************************************************/
 package com.espertech.esper.epl.agg.aggregator;
 
-import com.espertech.esper.collection.SortedDoubleVector;
+import com.espertech.esper.collection.OrderStatisticTreeMap;
+
+import java.util.Map;
 
 /**
  * Median aggregation.
+ * <p>
+ * Keeps the count of data points per value in an order-statistic tree, for logarithmic time to enter and leave values
+ * and to find the middle values.
+ * <p>
+ * Null and NaN values are not counted, on enter and on leave, same as the former
+ * {@link com.espertech.esper.collection.SortedDoubleVector}-based implementation.
  */
 public class AggregatorMedian implements AggregationMethod
 {
-    protected SortedDoubleVector vector;
+    protected OrderStatisticTreeMap<Double, Integer> values;
 
     public void clear()
     {
-        vector.clear();
+        values.clear();
     }
 
     /**
@@ -27,7 +35,7 @@ public class AggregatorMedian implements AggregationMethod
      */
     public AggregatorMedian()
     {
-        this.vector = new SortedDoubleVector();
+        this.values = new OrderStatisticTreeMap<Double, Integer>();
     }
 
     public void enter(Object object)
@@ -37,7 +45,13 @@ public class AggregatorMedian implements AggregationMethod
             return;
         }
         double value = ((Number) object).doubleValue();
-        vector.add(value);
+        if (Double.isNaN(value))
+        {
+            return;
+        }
+        Integer count = values.get(value);
+        int newCount = count == null ? 1 : count + 1;
+        values.put(value, newCount, newCount);
     }
 
     public void leave(Object object)
@@ -47,29 +61,51 @@ public class AggregatorMedian implements AggregationMethod
             return;
         }
         double value = ((Number) object).doubleValue();
-        vector.remove(value);
+        if (Double.isNaN(value))
+        {
+            return;
+        }
+        Integer count = values.get(value);
+        if (count == null)
+        {
+            throw new IllegalStateException("Value not found in collection");
+        }
+        if (count == 1)
+        {
+            values.remove(value);
+        }
+        else
+        {
+            values.put(value, count - 1, count - 1);
+        }
     }
 
     public Object getValue()
     {
-        if (vector.size() == 0)
+        int size = values.getTotalWeight();
+        if (size == 0)
         {
             return null;
         }
-        if (vector.size() == 1)
+        if (size == 1)
         {
-            return vector.getValue(0);
+            return values.firstKey();
         }
 
-        int middle = vector.size() >> 1;
-        if (vector.size() % 2 == 0)
+        int middle = size >> 1;
+        if (size % 2 == 0)
         {
-            return (vector.getValue(middle - 1) + vector.getValue(middle)) / 2;
+            return (getValue(middle - 1) + getValue(middle)) / 2;
         }
         else
         {
-            return vector.getValue(middle);
+            return getValue(middle);
         }
     }
 
+    private double getValue(int index)
+    {
+        Map.Entry<Double, Integer> entry = values.select(index);
+        return entry.getKey();
+    }
 }
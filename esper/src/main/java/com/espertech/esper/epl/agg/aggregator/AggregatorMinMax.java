@@ -10,14 +10,20 @@ package com.espertech.esper.epl.agg.aggregator;
 
 import com.espertech.esper.type.MinMaxTypeEnum;
 import com.espertech.esper.collection.SortedRefCountedSet;
+import com.espertech.esper.collection.TwoStackMinMaxQueue;
 
 /**
  * Min/max aggregator for all values.
+ * <p>
+ * Values are kept in a first-in-first-out two-stack queue as long as values leave in the order they entered,
+ * as is the case for time and length windows. When a value leaves out of order the aggregator
+ * changes to a sorted reference-counting set.
  */
-public class AggregatorMinMax implements AggregationMethod
+public class AggregatorMinMax implements AggregationMethodMergeable
 {
     protected final MinMaxTypeEnum minMaxTypeEnum;
 
+    protected TwoStackMinMaxQueue<Object> queue;
     protected SortedRefCountedSet<Object> refSet;
 
     /**
@@ -28,12 +34,13 @@ public class AggregatorMinMax implements AggregationMethod
     public AggregatorMinMax(MinMaxTypeEnum minMaxTypeEnum)
     {
         this.minMaxTypeEnum = minMaxTypeEnum;
-        this.refSet = new SortedRefCountedSet<Object>();
+        this.queue = new TwoStackMinMaxQueue<Object>(minMaxTypeEnum == MinMaxTypeEnum.MAX);
     }
 
     public void clear()
     {
-        refSet.clear();
+        queue = new TwoStackMinMaxQueue<Object>(minMaxTypeEnum == MinMaxTypeEnum.MAX);
+        refSet = null;
     }
 
     public void enter(Object object)
@@ -42,6 +49,11 @@ public class AggregatorMinMax implements AggregationMethod
         {
             return;
         }
+        if (queue != null)
+        {
+            queue.add(object);
+            return;
+        }
         refSet.add(object);
     }
 
@@ -51,11 +63,23 @@ public class AggregatorMinMax implements AggregationMethod
         {
             return;
         }
+        if (queue != null)
+        {
+            if (queue.remove(object))
+            {
+                return;
+            }
+            toRefSet();
+        }
         refSet.remove(object);
     }
 
     public Object getValue()
     {
+        if (queue != null)
+        {
+            return queue.getValue();
+        }
         if (minMaxTypeEnum == MinMaxTypeEnum.MAX)
         {
             return refSet.maxValue();
@@ -67,6 +91,29 @@ public class AggregatorMinMax implements AggregationMethod
     }
 
     public SortedRefCountedSet<Object> getRefSet() {
+        if (queue != null) {
+            toRefSet();
+        }
         return refSet;
     }
+
+    private void toRefSet() {
+        refSet = queue.toRefCountedSet();
+        queue = null;
+    }
+
+    public void merge(AggregationMethod other)
+    {
+        Object value = other.getValue();
+        if (value == null)
+        {
+            return;
+        }
+        if (queue != null)
+        {
+            queue.add(value);
+            return;
+        }
+        refSet.add(value);
+    }
 }
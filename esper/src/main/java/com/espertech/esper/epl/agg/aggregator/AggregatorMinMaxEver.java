@@ -15,7 +15,7 @@ import org.slf4j.LoggerFactory;
 /**
  * Min/max aggregator for all values, not considering events leaving the aggregation (i.e. ever).
  */
-public class AggregatorMinMaxEver implements AggregationMethod
+public class AggregatorMinMaxEver implements AggregationMethodMergeable
 {
     private static final Logger log = LoggerFactory.getLogger(AggregatorMinMaxEver.class);
 
@@ -78,4 +78,18 @@ public class AggregatorMinMaxEver implements AggregationMethod
     public Comparable getCurrentMinMax() {
         return currentMinMax;
     }
+
+    public void merge(AggregationMethod other)
+    {
+        Comparable value = ((AggregatorMinMaxEver) other).currentMinMax;
+        if (value == null)
+        {
+            return;
+        }
+        if (currentMinMax == null ||
+            (minMaxTypeEnum == MinMaxTypeEnum.MAX && currentMinMax.compareTo(value) < 0) ||
+            (minMaxTypeEnum == MinMaxTypeEnum.MIN && currentMinMax.compareTo(value) > 0)) {
+            currentMinMax = value;
+        }
+    }
 }
@@ -0,0 +1,85 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+import com.espertech.esper.epl.approx.QuantileSketchState;
+
+/**
+ * Aggregator for approximate percentiles that keeps a quantile sketch of the values, of bounded size and
+ * allowing values to leave.
+ */
+public class AggregatorPercentileApprox implements AggregationMethodDouble
+{
+    protected final double[] quantiles;
+    protected final boolean isQuantiles;
+    protected final QuantileSketchState sketch;
+
+    /**
+     * Ctor.
+     * @param quantiles quantiles to return, each between zero and one
+     * @param isQuantiles true to return an array of values, false to return the value of the single quantile
+     */
+    public AggregatorPercentileApprox(double[] quantiles, boolean isQuantiles)
+    {
+        this.quantiles = quantiles;
+        this.isQuantiles = isQuantiles;
+        this.sketch = new QuantileSketchState();
+    }
+
+    public void clear()
+    {
+        sketch.clear();
+    }
+
+    public void enter(Object object)
+    {
+        if (object == null)
+        {
+            return;
+        }
+        sketch.add(((Number) object).doubleValue());
+    }
+
+    public void leave(Object object)
+    {
+        if (object == null)
+        {
+            return;
+        }
+        sketch.remove(((Number) object).doubleValue());
+    }
+
+    public void enterDouble(double value)
+    {
+        sketch.add(value);
+    }
+
+    public void leaveDouble(double value)
+    {
+        sketch.remove(value);
+    }
+
+    public Object getValue()
+    {
+        if (sketch.getCount() == 0)
+        {
+            return null;
+        }
+        if (!isQuantiles)
+        {
+            return sketch.getQuantile(quantiles[0]);
+        }
+        Double[] values = new Double[quantiles.length];
+        for (int i = 0; i < quantiles.length; i++)
+        {
+            values[i] = sketch.getQuantile(quantiles[i]);
+        }
+        return values;
+    }
+}
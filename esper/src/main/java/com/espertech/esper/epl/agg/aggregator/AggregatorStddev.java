@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Standard deviation always generates double-typed numbers.
  */
-public class AggregatorStddev implements AggregationMethod
+public class AggregatorStddev implements AggregationMethodDouble
 {
     protected double mean;
     protected double qn;
@@ -31,8 +31,11 @@ public class AggregatorStddev implements AggregationMethod
             return;
         }
 
-        double p = ((Number) object).doubleValue();
+        enterDouble(((Number) object).doubleValue());
+    }
 
+    public void enterDouble(double p)
+    {
         // compute running variance per Knuth's method
         if (numDataPoints == 0) {
             mean = p;
@@ -54,8 +57,11 @@ public class AggregatorStddev implements AggregationMethod
             return;
         }
 
-        double p = ((Number) object).doubleValue();
+        leaveDouble(((Number) object).doubleValue());
+    }
 
+    public void leaveDouble(double p)
+    {
         // compute running variance per Knuth's method
         if (numDataPoints <= 1) {
             clear();
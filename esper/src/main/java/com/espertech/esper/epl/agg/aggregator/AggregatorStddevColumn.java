@@ -0,0 +1,66 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+import java.util.Arrays;
+
+/**
+ * Column of {@link AggregatorStddev} state for many groups, see {@link AggregationMethodColumn}.
+ */
+public class AggregatorStddevColumn implements AggregationMethodColumn
+{
+    private final AggregatorStddev aggregator = new AggregatorStddev();
+    private double[] mean;
+    private double[] qn;
+    private long[] numDataPoints;
+
+    /**
+     * Ctor.
+     */
+    public AggregatorStddevColumn()
+    {
+        mean = new double[0];
+        qn = new double[0];
+        numDataPoints = new long[0];
+    }
+
+    public void ensureCapacity(int capacity)
+    {
+        if (capacity <= numDataPoints.length)
+        {
+            return;
+        }
+        int newLength = Math.max(capacity, numDataPoints.length * 2);
+        mean = Arrays.copyOf(mean, newLength);
+        qn = Arrays.copyOf(qn, newLength);
+        numDataPoints = Arrays.copyOf(numDataPoints, newLength);
+    }
+
+    public AggregationMethod load(int row)
+    {
+        aggregator.mean = mean[row];
+        aggregator.qn = qn[row];
+        aggregator.numDataPoints = numDataPoints[row];
+        return aggregator;
+    }
+
+    public void store(int row)
+    {
+        mean[row] = aggregator.mean;
+        qn[row] = aggregator.qn;
+        numDataPoints[row] = aggregator.numDataPoints;
+    }
+
+    public void clear(int row)
+    {
+        mean[row] = 0;
+        qn[row] = 0;
+        numDataPoints[row] = 0;
+    }
+}
@@ -13,7 +13,7 @@ import java.math.BigDecimal;
 /**
  * Sum for BigInteger values.
  */
-public class AggregatorSumBigDecimal implements AggregationMethod
+public class AggregatorSumBigDecimal implements AggregationMethodMergeable
 {
     protected BigDecimal sum;
     protected long numDataPoints;
@@ -66,4 +66,10 @@ public class AggregatorSumBigDecimal implements AggregationMethod
         return sum;
     }
 
+    public void merge(AggregationMethod other)
+    {
+        AggregatorSumBigDecimal that = (AggregatorSumBigDecimal) other;
+        numDataPoints += that.numDataPoints;
+        sum = sum.add(that.sum);
+    }
 }
@@ -13,7 +13,7 @@ import java.math.BigInteger;
 /**
  * Sum for BigInteger values.
  */
-public class AggregatorSumBigInteger implements AggregationMethod
+public class AggregatorSumBigInteger implements AggregationMethodMergeable
 {
     protected BigInteger sum;
     protected long numDataPoints;
@@ -66,4 +66,10 @@ public class AggregatorSumBigInteger implements AggregationMethod
         return sum;
     }
 
+    public void merge(AggregationMethod other)
+    {
+        AggregatorSumBigInteger that = (AggregatorSumBigInteger) other;
+        numDataPoints += that.numDataPoints;
+        sum = sum.add(that.sum);
+    }
 }
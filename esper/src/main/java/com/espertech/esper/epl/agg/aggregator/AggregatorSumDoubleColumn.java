@@ -0,0 +1,60 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+import java.util.Arrays;
+
+/**
+ * Column of {@link AggregatorSumDouble} state for many groups, see {@link AggregationMethodColumn}.
+ */
+public class AggregatorSumDoubleColumn implements AggregationMethodColumn
+{
+    private final AggregatorSumDouble aggregator = new AggregatorSumDouble();
+    private double[] sum;
+    private long[] numDataPoints;
+
+    /**
+     * Ctor.
+     */
+    public AggregatorSumDoubleColumn()
+    {
+        sum = new double[0];
+        numDataPoints = new long[0];
+    }
+
+    public void ensureCapacity(int capacity)
+    {
+        if (capacity <= numDataPoints.length)
+        {
+            return;
+        }
+        int newLength = Math.max(capacity, numDataPoints.length * 2);
+        sum = Arrays.copyOf(sum, newLength);
+        numDataPoints = Arrays.copyOf(numDataPoints, newLength);
+    }
+
+    public AggregationMethod load(int row)
+    {
+        aggregator.sum = sum[row];
+        aggregator.numDataPoints = numDataPoints[row];
+        return aggregator;
+    }
+
+    public void store(int row)
+    {
+        sum[row] = aggregator.sum;
+        numDataPoints[row] = aggregator.numDataPoints;
+    }
+
+    public void clear(int row)
+    {
+        sum[row] = 0;
+        numDataPoints[row] = 0;
+    }
+}
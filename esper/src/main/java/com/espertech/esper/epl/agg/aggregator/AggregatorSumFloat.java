@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Sum for float values.
  */
-public class AggregatorSumFloat implements AggregationMethod
+public class AggregatorSumFloat implements AggregationMethodDouble, AggregationMethodMergeable
 {
     protected float sum;
     protected long numDataPoints;
@@ -47,6 +47,23 @@ public class AggregatorSumFloat implements AggregationMethod
         }
     }
 
+    public void enterDouble(double value)
+    {
+        numDataPoints++;
+        sum += (float) value;
+    }
+
+    public void leaveDouble(double value)
+    {
+        if (numDataPoints <= 1) {
+            clear();
+        }
+        else {
+            numDataPoints--;
+            sum -= (float) value;
+        }
+    }
+
     public Object getValue()
     {
         if (numDataPoints == 0)
@@ -56,4 +73,10 @@ public class AggregatorSumFloat implements AggregationMethod
         return sum;
     }
 
+    public void merge(AggregationMethod other)
+    {
+        AggregatorSumFloat that = (AggregatorSumFloat) other;
+        numDataPoints += that.numDataPoints;
+        sum += that.sum;
+    }
 }
@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Sum for integer values.
  */
-public class AggregatorSumInteger implements AggregationMethod
+public class AggregatorSumInteger implements AggregationMethodLong, AggregationMethodMergeable
 {
     protected int sum;
     protected long numDataPoints;
@@ -48,6 +48,23 @@ public class AggregatorSumInteger implements AggregationMethod
     }
 
 
+    public void enterLong(long value)
+    {
+        numDataPoints++;
+        sum += (int) value;
+    }
+
+    public void leaveLong(long value)
+    {
+        if (numDataPoints <= 1) {
+            clear();
+        }
+        else {
+            numDataPoints--;
+            sum -= (int) value;
+        }
+    }
+
     public Object getValue()
     {
         if (numDataPoints == 0)
@@ -57,4 +74,10 @@ public class AggregatorSumInteger implements AggregationMethod
         return sum;
     }
 
+    public void merge(AggregationMethod other)
+    {
+        AggregatorSumInteger that = (AggregatorSumInteger) other;
+        numDataPoints += that.numDataPoints;
+        sum += that.sum;
+    }
 }
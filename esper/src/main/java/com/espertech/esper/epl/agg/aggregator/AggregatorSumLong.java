@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Sum for long values.
  */
-public class AggregatorSumLong implements AggregationMethod
+public class AggregatorSumLong implements AggregationMethodLong, AggregationMethodMergeable
 {
     protected long sum;
     protected long numDataPoints;
@@ -47,6 +47,23 @@ public class AggregatorSumLong implements AggregationMethod
         }
     }
 
+    public void enterLong(long value)
+    {
+        numDataPoints++;
+        sum += value;
+    }
+
+    public void leaveLong(long value)
+    {
+        if (numDataPoints <= 1) {
+            clear();
+        }
+        else {
+            numDataPoints--;
+            sum -= value;
+        }
+    }
+
     public Object getValue()
     {
         if (numDataPoints == 0)
@@ -56,6 +73,12 @@ public class AggregatorSumLong implements AggregationMethod
         return sum;
     }
 
+    public void merge(AggregationMethod other)
+    {
+        AggregatorSumLong that = (AggregatorSumLong) other;
+        numDataPoints += that.numDataPoints;
+        sum += that.sum;
+    }
 }
 
 
@@ -11,7 +11,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Sum for any number value.
  */
-public class AggregatorSumNumInteger implements AggregationMethod
+public class AggregatorSumNumInteger implements AggregationMethodLong, AggregationMethodMergeable
 {
     protected int sum;
     protected long numDataPoints;
@@ -49,6 +49,23 @@ public class AggregatorSumNumInteger implements AggregationMethod
         }
     }
 
+    public void enterLong(long value)
+    {
+        numDataPoints++;
+        sum += (int) value;
+    }
+
+    public void leaveLong(long value)
+    {
+        if (numDataPoints <= 1) {
+            clear();
+        }
+        else {
+            numDataPoints--;
+            sum -= (int) value;
+        }
+    }
+
     public Object getValue()
     {
         if (numDataPoints == 0)
@@ -58,4 +75,10 @@ public class AggregatorSumNumInteger implements AggregationMethod
         return sum;
     }
 
+    public void merge(AggregationMethod other)
+    {
+        AggregatorSumNumInteger that = (AggregatorSumNumInteger) other;
+        numDataPoints += that.numDataPoints;
+        sum += that.sum;
+    }
 }
@@ -41,6 +41,10 @@ public class AggregationFactoryFactoryDefault implements AggregationFactoryFacto
         return new AggregationMethodFactorySum(exprSumNode, childType);
     }
 
+    public AggregationMethodFactory makeApproxCountDistinct(StatementExtensionSvcContext statementExtensionSvcContext, ExprApproxCountDistinctNode exprApproxCountDistinctNode, Class childType) {
+        return new AggregationMethodFactoryApproxCountDistinct(exprApproxCountDistinctNode, childType);
+    }
+
     public AggregationMethodFactory makeAvedev(StatementExtensionSvcContext statementExtensionSvcContext, ExprAvedevNode exprAvedevNode, Class childType, ExprNode[] positionalParams) {
         return new AggregationMethodFactoryAvedev(exprAvedevNode, childType, positionalParams);
     }
@@ -77,6 +81,10 @@ public class AggregationFactoryFactoryDefault implements AggregationFactoryFacto
         return new AggregationMethodFactoryNth(exprNthAggNode, type, size);
     }
 
+    public AggregationMethodFactory makePercentileApprox(StatementExtensionSvcContext statementExtensionSvcContext, ExprPercentileApproxNode exprPercentileApproxNode, Class childType, double[] quantiles) {
+        return new AggregationMethodFactoryPercentileApprox(exprPercentileApproxNode, childType, quantiles);
+    }
+
     public AggregationMethodFactory makePlugInMethod(StatementExtensionSvcContext statementExtensionSvcContext, ExprPlugInAggNode expr, AggregationFunctionFactory factory, Class childType) {
         return new AggregationMethodFactoryPlugIn(expr, factory, childType);
     }
@@ -0,0 +1,97 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.factory;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.epl.agg.access.AggregationAccessor;
+import com.espertech.esper.epl.agg.access.AggregationAgent;
+import com.espertech.esper.epl.agg.access.AggregationStateKey;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.agg.aggregator.AggregatorPercentileApprox;
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.agg.service.AggregationStateFactory;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.epl.expression.methodagg.ExprMethodAggUtil;
+import com.espertech.esper.epl.expression.methodagg.ExprPercentileApproxNode;
+
+import java.util.Arrays;
+
+public class AggregationMethodFactoryPercentileApprox implements AggregationMethodFactory
+{
+    protected final ExprPercentileApproxNode parent;
+    protected final Class aggregatedValueType;
+    protected final double[] quantiles;
+
+    public AggregationMethodFactoryPercentileApprox(ExprPercentileApproxNode parent, Class aggregatedValueType, double[] quantiles)
+    {
+        this.parent = parent;
+        this.aggregatedValueType = aggregatedValueType;
+        this.quantiles = quantiles;
+    }
+
+    public boolean isAccessAggregation() {
+        return false;
+    }
+
+    public Class getResultType()
+    {
+        return parent.isQuantiles() ? Double[].class : Double.class;
+    }
+
+    public AggregationStateKey getAggregationStateKey(boolean isMatchRecognize) {
+        throw new IllegalStateException("Not an access aggregation function");
+    }
+
+    public AggregationStateFactory getAggregationStateFactory(boolean isMatchRecognize) {
+        throw new IllegalStateException("Not an access aggregation function");
+    }
+
+    public AggregationAccessor getAccessor() {
+        throw new IllegalStateException("Not an access aggregation function");
+    }
+
+    public AggregationMethod make() {
+        AggregationMethod method = new AggregatorPercentileApprox(quantiles, parent.isQuantiles());
+        if (!parent.isDistinct()) {
+            return method;
+        }
+        return AggregationMethodFactoryUtil.makeDistinctAggregator(method, false);
+    }
+
+    public ExprAggregateNodeBase getAggregationExpression() {
+        return parent;
+    }
+
+    public void validateIntoTableCompatible(AggregationMethodFactory intoTableAgg) throws ExprValidationException {
+        com.espertech.esper.epl.agg.service.AggregationMethodFactoryUtil.validateAggregationType(this, intoTableAgg);
+        AggregationMethodFactoryPercentileApprox that = (AggregationMethodFactoryPercentileApprox) intoTableAgg;
+        if (parent.isQuantiles() != that.parent.isQuantiles()) {
+            throw new ExprValidationException("Not a '" + parent.getAggregationFunctionName() + "' aggregation");
+        }
+        com.espertech.esper.epl.agg.service.AggregationMethodFactoryUtil.validateAggregationInputType(aggregatedValueType, that.aggregatedValueType);
+        if (!Arrays.equals(quantiles, that.quantiles)) {
+            throw new ExprValidationException("The quantiles are " +
+                    Arrays.toString(quantiles) +
+                    " and provided are " +
+                    Arrays.toString(that.quantiles));
+        }
+    }
+
+    public AggregationAgent getAggregationStateAgent() {
+        return null;
+    }
+
+    public ExprEvaluator getMethodAggregationEvaluator(boolean join, EventType[] typesPerStream) throws ExprValidationException {
+        // the quantile parameters are constants and not part of the aggregated value
+        return ExprMethodAggUtil.getDefaultEvaluator(new ExprNode[] {parent.getPositionalParams()[0]}, join, typesPerStream);
+    }
+}
@@ -38,8 +38,7 @@ public class AggSvcGroupAllMixedAccessImpl extends AggregationServiceBaseUngroup
         for (int i = 0; i < evaluators.length; i++)
         {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggNoAccessEnterLeave(true, i, aggregators[i], aggregatorFactories[i].getAggregationExpression());}
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
-            aggregators[i].enter(columnResult);
+            AggregatorUtil.enter(evaluators[i], aggregators[i], eventsPerStream, exprEvaluatorContext);
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggNoAccessEnterLeave(true, i, aggregators[i]);}
         }
 
@@ -59,8 +58,7 @@ public class AggSvcGroupAllMixedAccessImpl extends AggregationServiceBaseUngroup
         for (int i = 0; i < evaluators.length; i++)
         {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggNoAccessEnterLeave(false, i, aggregators[i], aggregatorFactories[i].getAggregationExpression());}
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext);
-            aggregators[i].leave(columnResult);
+            AggregatorUtil.leave(evaluators[i], aggregators[i], eventsPerStream, exprEvaluatorContext);
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggNoAccessEnterLeave(false, i, aggregators[i]);}
         }
 
@@ -37,8 +37,7 @@ public class AggSvcGroupAllNoAccessImpl extends AggregationServiceBaseUngrouped
         for (int j = 0; j < evaluators.length; j++)
         {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggNoAccessEnterLeave(true, j, aggregators[j], aggregatorFactories[j].getAggregationExpression());}
-            Object columnResult = evaluators[j].evaluate(eventsPerStream, true, exprEvaluatorContext);
-            aggregators[j].enter(columnResult);
+            AggregatorUtil.enter(evaluators[j], aggregators[j], eventsPerStream, exprEvaluatorContext);
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggNoAccessEnterLeave(true, j, aggregators[j]);}
         }
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationUngroupedApplyEnterLeave(true);}
@@ -50,8 +49,7 @@ public class AggSvcGroupAllNoAccessImpl extends AggregationServiceBaseUngrouped
         for (int j = 0; j < evaluators.length; j++)
         {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggNoAccessEnterLeave(false, j, aggregators[j], aggregatorFactories[j].getAggregationExpression());}
-            Object columnResult = evaluators[j].evaluate(eventsPerStream, false, exprEvaluatorContext);
-            aggregators[j].leave(columnResult);
+            AggregatorUtil.leave(evaluators[j], aggregators[j], eventsPerStream, exprEvaluatorContext);
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggNoAccessEnterLeave(false, j, aggregators[j]);}
         }
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationUngroupedApplyEnterLeave(false);}
@@ -102,6 +100,18 @@ public class AggSvcGroupAllNoAccessImpl extends AggregationServiceBaseUngrouped
         return false;
     }
 
+    public ExprEvaluator[] getEvaluators() {
+        return evaluators;
+    }
+
+    public AggregationMethod[] getAggregators() {
+        return aggregators;
+    }
+
+    public AggregationMethodFactory[] getAggregatorFactories() {
+        return aggregatorFactories;
+    }
+
     public Object getGroupKey(int agentInstanceId) {
         return null;
     }
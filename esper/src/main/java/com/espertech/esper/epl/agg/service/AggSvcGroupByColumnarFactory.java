@@ -0,0 +1,93 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.epl.agg.aggregator.*;
+import com.espertech.esper.epl.core.EngineImportService;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+
+/**
+ * Implementation for handling aggregation with grouping by group-keys that keeps aggregation state in columns,
+ * see {@link AggSvcGroupByColumnarImpl}.
+ */
+public class AggSvcGroupByColumnarFactory extends AggregationServiceFactoryBase
+{
+    private final boolean reclaim;
+
+    /**
+     * Ctor.
+     * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
+     * @param prototypes - collect the aggregation state that evaluators evaluate to, act as prototypes for new aggregations
+     * @param reclaim - true to remove groups that no longer have data points
+     */
+    public AggSvcGroupByColumnarFactory(ExprEvaluator evaluators[], AggregationMethodFactory prototypes[], boolean reclaim)
+    {
+        super(evaluators, prototypes);
+        this.reclaim = reclaim;
+    }
+
+    public AggregationService makeService(AgentInstanceContext agentInstanceContext, EngineImportService engineImportService, boolean isSubquery, Integer subqueryNumber) {
+        return new AggSvcGroupByColumnarImpl(evaluators, aggregators, reclaim);
+    }
+
+    /**
+     * Returns true if all aggregation functions can keep their state in columns.
+     * @param prototypes aggregation functions
+     * @return indicator
+     */
+    public static boolean isSupported(AggregationMethodFactory[] prototypes) {
+        if (prototypes.length == 0) {
+            return false;
+        }
+        for (AggregationMethodFactory prototype : prototypes) {
+            if (makeColumn(prototype.make()) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a column for the state of the aggregation method, or null if the aggregation method does not have a column.
+     * @param method aggregation method
+     * @return column or null
+     */
+    public static AggregationMethodColumn makeColumn(AggregationMethod method) {
+        Class clazz = method.getClass();
+        if (clazz == AggregatorSumDouble.class) {
+            return new AggregatorSumDoubleColumn();
+        }
+        if (clazz == AggregatorSumFloat.class) {
+            return new AggregatorSumFloatColumn();
+        }
+        if (clazz == AggregatorSumLong.class) {
+            return new AggregatorSumLongColumn();
+        }
+        if (clazz == AggregatorSumInteger.class) {
+            return new AggregatorSumIntegerColumn();
+        }
+        if (clazz == AggregatorSumNumInteger.class) {
+            return new AggregatorSumNumIntegerColumn();
+        }
+        if (clazz == AggregatorAvg.class) {
+            return new AggregatorAvgColumn();
+        }
+        if (clazz == AggregatorStddev.class) {
+            return new AggregatorStddevColumn();
+        }
+        if (clazz == AggregatorCount.class) {
+            return new AggregatorCountColumn();
+        }
+        if (clazz == AggregatorCountNonNull.class) {
+            return new AggregatorCountNonNullColumn();
+        }
+        return null;
+    }
+}
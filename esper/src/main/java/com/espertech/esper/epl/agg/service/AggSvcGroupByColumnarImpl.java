@@ -0,0 +1,214 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.DenseIdKeyMap;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethodColumn;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementation for handling aggregation with grouping by group-keys that keeps the aggregation state of all groups
+ * in columns, i.e. in primitive arrays per aggregation function indexed by a dense group id, instead of
+ * aggregator objects per group.
+ * <p>
+ * When reclaiming groups, a group is removed when it no longer has data points, same as {@link AggSvcGroupByRefcountedNoAccessImpl},
+ * and otherwise groups are retained, same as {@link AggSvcGroupByNoAccessImpl}.
+ */
+public class AggSvcGroupByColumnarImpl extends AggregationServiceBaseGrouped
+{
+    private final boolean reclaim;
+    private final DenseIdKeyMap groupIds;
+    private final AggregationMethodColumn[] columns;
+    private final AggregationMethod[] emptyRow;
+    private int[] refcounts;
+
+    // maintain a current row for random access into the aggregator state table, or -1 for a group without state
+    private int currentRow;
+    private Object currentGroupKey;
+
+    private List<Object> removedKeys;
+
+    /**
+     * Ctor.
+     * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
+     * @param prototypes - collect the aggregation state that evaluators evaluate to, act as prototypes for new aggregations
+     * @param reclaim - true to remove groups that no longer have data points
+     */
+    public AggSvcGroupByColumnarImpl(ExprEvaluator evaluators[], AggregationMethodFactory prototypes[], boolean reclaim)
+    {
+        super(evaluators, prototypes);
+        this.reclaim = reclaim;
+        this.groupIds = new DenseIdKeyMap();
+        this.emptyRow = AggSvcGroupByUtil.newAggregators(prototypes);
+        this.columns = new AggregationMethodColumn[prototypes.length];
+        for (int i = 0; i < prototypes.length; i++) {
+            columns[i] = AggSvcGroupByColumnarFactory.makeColumn(emptyRow[i]);
+        }
+        this.refcounts = new int[0];
+        this.currentRow = -1;
+        this.removedKeys = new ArrayList<Object>();
+    }
+
+    public void clearResults(ExprEvaluatorContext exprEvaluatorContext)
+    {
+        groupIds.clear();
+        removedKeys.clear();
+        currentRow = -1;
+    }
+
+    public void applyEnter(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggregationGroupedApplyEnterLeave(true, aggregators.length, 0, groupByKey);}
+        handleRemovedKeys();
+
+        int row = getAddRow(groupByKey);
+        refcounts[row]++;
+
+        // For this row, evaluate sub-expressions, enter result
+        currentRow = row;
+        for (int i = 0; i < evaluators.length; i++) {
+            AggregationMethod method = columns[i].load(row);
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggNoAccessEnterLeave(true, i, method, aggregators[i].getAggregationExpression());}
+            AggregatorUtil.enter(evaluators[i], method, eventsPerStream, exprEvaluatorContext);
+            columns[i].store(row);
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggNoAccessEnterLeave(true, i, method);}
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationGroupedApplyEnterLeave(true);}
+    }
+
+    public void applyLeave(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggregationGroupedApplyEnterLeave(false, aggregators.length, 0, groupByKey);}
+        int row = getAddRow(groupByKey);
+
+        // For this row, evaluate sub-expressions, enter result
+        currentRow = row;
+        for (int i = 0; i < evaluators.length; i++) {
+            AggregationMethod method = columns[i].load(row);
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggNoAccessEnterLeave(false, i, method, aggregators[i].getAggregationExpression());}
+            AggregatorUtil.leave(evaluators[i], method, eventsPerStream, exprEvaluatorContext);
+            columns[i].store(row);
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggNoAccessEnterLeave(false, i, method);}
+        }
+
+        refcounts[row]--;
+        if (reclaim && refcounts[row] <= 0) {
+            removedKeys.add(groupByKey);
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationGroupedApplyEnterLeave(false);}
+    }
+
+    public void setCurrentAccess(Object groupByKey, int agentInstanceId, AggregationGroupByRollupLevel rollupLevel)
+    {
+        currentRow = groupIds.get(groupByKey);
+        if (currentRow == -1 && !reclaim) {
+            currentRow = getAddRow(groupByKey);
+        }
+        currentGroupKey = groupByKey;
+    }
+
+    public Object getValue(int column, int agentInstanceId, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        if (currentRow == -1) {
+            return emptyRow[column].getValue();
+        }
+        return columns[column].load(currentRow).getValue();
+    }
+
+    public Collection<EventBean> getCollectionOfEvents(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public Collection<Object> getCollectionScalar(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public EventBean getEventBean(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public void setRemovedCallback(AggregationRowRemovedCallback callback) {
+        // not applicable
+    }
+
+    public void accept(AggregationServiceVisitor visitor) {
+        visitor.visitAggregations(groupIds.size(), (Object[]) columns);
+    }
+
+    public void acceptGroupDetail(AggregationServiceVisitorWGroupDetail visitor) {
+        visitor.visitGrouped(groupIds.size());
+        for (int row = 0; row < groupIds.getIdCapacity(); row++) {
+            if (!groupIds.isAssigned(row)) {
+                continue;
+            }
+            Object[] values = new Object[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                values[i] = columns[i].load(row).getValue();
+            }
+            visitor.visitGroup(groupIds.getKey(row), values);
+        }
+    }
+
+    public boolean isGrouped() {
+        return true;
+    }
+
+    public Object getGroupKey(int agentInstanceId) {
+        return currentGroupKey;
+    }
+
+    public Collection<Object> getGroupKeys(ExprEvaluatorContext exprEvaluatorContext) {
+        handleRemovedKeys();
+        return groupIds.getKeys();
+    }
+
+    private int getAddRow(Object groupByKey) {
+        int row = groupIds.get(groupByKey);
+        if (row != -1) {
+            return row;
+        }
+
+        // The state for this group does not exist, assign a row and reset the row which may have been used by a removed group
+        row = groupIds.add(groupByKey);
+        int capacity = groupIds.getIdCapacity();
+        if (capacity > refcounts.length) {
+            refcounts = Arrays.copyOf(refcounts, Math.max(capacity, refcounts.length * 2));
+        }
+        refcounts[row] = 0;
+        for (AggregationMethodColumn column : columns) {
+            column.ensureCapacity(capacity);
+            column.clear(row);
+        }
+        return row;
+    }
+
+    private void handleRemovedKeys() {
+        if (!removedKeys.isEmpty())     // we collect removed keys lazily on the next enter to reduce the chance of empty-group queries creating empty aggregators temporarily
+        {
+            for (Object removedKey : removedKeys)
+            {
+                // a removed key may have received new data points before removal
+                int row = groupIds.get(removedKey);
+                if (row != -1 && refcounts[row] <= 0) {
+                    groupIds.remove(removedKey);
+                }
+            }
+            removedKeys.clear();
+        }
+    }
+}
@@ -83,8 +83,7 @@ public class AggSvcGroupByMixedAccessImpl extends AggregationServiceBaseGrouped
         AggregationMethod[] groupAggMethods = groupAggregators.getMethods();
         for (int i = 0; i < evaluators.length; i++) {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggNoAccessEnterLeave(true, i, groupAggMethods[i], aggregators[i].getAggregationExpression());}
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
-            groupAggMethods[i].enter(columnResult);
+            AggregatorUtil.enter(evaluators[i], groupAggMethods[i], eventsPerStream, exprEvaluatorContext);
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggNoAccessEnterLeave(true, i, groupAggMethods[i]);}
         }
 
@@ -119,8 +118,7 @@ public class AggSvcGroupByMixedAccessImpl extends AggregationServiceBaseGrouped
         for (int i = 0; i < evaluators.length; i++)
         {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggNoAccessEnterLeave(false, i, groupAggMethods[i], aggregators[i].getAggregationExpression());}
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext);
-            groupAggMethods[i].leave(columnResult);
+            AggregatorUtil.leave(evaluators[i], groupAggMethods[i], eventsPerStream, exprEvaluatorContext);
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggNoAccessEnterLeave(false, i, groupAggMethods[i]);}
         }
 
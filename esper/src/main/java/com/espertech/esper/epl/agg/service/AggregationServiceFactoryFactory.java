@@ -331,6 +331,7 @@ public class AggregationServiceFactoryFactory
             boolean hasNoReclaim = HintEnum.DISABLE_RECLAIM_GROUP.getHint(annotations) != null;
             Hint reclaimGroupAged = HintEnum.RECLAIM_GROUP_AGED.getHint(annotations);
             Hint reclaimGroupFrequency = HintEnum.RECLAIM_GROUP_AGED.getHint(annotations);
+            boolean columnar = HintEnum.AGGREGATION_COLUMNAR.getHint(annotations) != null && AggSvcGroupByColumnarFactory.isSupported(methodAggFactories);
             if (localGroupByPlan != null) {
                 serviceFactory = factoryService.getGroupLocalGroupBy(isJoin, localGroupByPlan, isUnidirectional, isFireAndForget, isOnSelect);
             }
@@ -340,7 +341,10 @@ public class AggregationServiceFactoryFactory
                     if (groupByRollupDesc != null) {
                         throw getRollupReclaimEx();
                     }
-                    if ((methodAggEvaluators.length > 0) && (accessorPairs.length == 0)) {
+                    if (columnar && (accessorPairs.length == 0)) {
+                        serviceFactory = factoryService.getGroupColumnarNoAccess(groupByNodes, methodAggEvaluators, methodAggFactories, false, isUnidirectional, isFireAndForget, isOnSelect);
+                    }
+                    else if ((methodAggEvaluators.length > 0) && (accessorPairs.length == 0)) {
                         serviceFactory = factoryService.getGroupedNoReclaimNoAccess(groupByNodes, methodAggEvaluators, methodAggFactories, isUnidirectional, isFireAndForget, isOnSelect);
                     }
                     else if ((methodAggEvaluators.length == 0) && (accessorPairs.length > 0)) {
@@ -362,7 +366,10 @@ public class AggregationServiceFactoryFactory
                 }
                 else
                 {
-                    if ((methodAggEvaluators.length > 0) && (accessorPairs.length == 0)) {
+                    if (columnar && (accessorPairs.length == 0)) {
+                        serviceFactory = factoryService.getGroupColumnarNoAccess(groupByNodes, methodAggEvaluators, methodAggFactories, true, isUnidirectional, isFireAndForget, isOnSelect);
+                    }
+                    else if ((methodAggEvaluators.length > 0) && (accessorPairs.length == 0)) {
                         serviceFactory = factoryService.getGroupReclaimNoAccess(groupByNodes, methodAggEvaluators, methodAggFactories, accessorPairs, accessAggregations, isJoin, isUnidirectional, isFireAndForget, isOnSelect);
                     }
                     else {
@@ -8,8 +8,60 @@
  **************************************************************************************/
 package com.espertech.esper.epl.agg.service;
 
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethodDouble;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethodLong;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorPrimitive;
+
 public class AggregatorUtil
 {
+    /**
+     * Evaluates the aggregated expression and applies the value as entering the aggregation,
+     * without boxing the value if both the evaluator and the aggregator support primitive values.
+     * @param evaluator aggregated expression
+     * @param aggregator aggregation
+     * @param eventsPerStream events
+     * @param exprEvaluatorContext context
+     */
+    public static void enter(ExprEvaluator evaluator, AggregationMethod aggregator, EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext) {
+        if (evaluator instanceof ExprEvaluatorPrimitive) {
+            if (aggregator instanceof AggregationMethodDouble) {
+                ((AggregationMethodDouble) aggregator).enterDouble(((ExprEvaluatorPrimitive) evaluator).evaluateDouble(eventsPerStream, true, exprEvaluatorContext));
+                return;
+            }
+            if (aggregator instanceof AggregationMethodLong) {
+                ((AggregationMethodLong) aggregator).enterLong(((ExprEvaluatorPrimitive) evaluator).evaluateLong(eventsPerStream, true, exprEvaluatorContext));
+                return;
+            }
+        }
+        aggregator.enter(evaluator.evaluate(eventsPerStream, true, exprEvaluatorContext));
+    }
+
+    /**
+     * Evaluates the aggregated expression and applies the value as leaving the aggregation,
+     * without boxing the value if both the evaluator and the aggregator support primitive values.
+     * @param evaluator aggregated expression
+     * @param aggregator aggregation
+     * @param eventsPerStream events
+     * @param exprEvaluatorContext context
+     */
+    public static void leave(ExprEvaluator evaluator, AggregationMethod aggregator, EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext) {
+        if (evaluator instanceof ExprEvaluatorPrimitive) {
+            if (aggregator instanceof AggregationMethodDouble) {
+                ((AggregationMethodDouble) aggregator).leaveDouble(((ExprEvaluatorPrimitive) evaluator).evaluateDouble(eventsPerStream, false, exprEvaluatorContext));
+                return;
+            }
+            if (aggregator instanceof AggregationMethodLong) {
+                ((AggregationMethodLong) aggregator).leaveLong(((ExprEvaluatorPrimitive) evaluator).evaluateLong(eventsPerStream, false, exprEvaluatorContext));
+                return;
+            }
+        }
+        aggregator.leave(evaluator.evaluate(eventsPerStream, false, exprEvaluatorContext));
+    }
+
     public static boolean checkFilter(Object[] object) {
         Boolean pass = (Boolean) object[1];
         return pass != null && pass;
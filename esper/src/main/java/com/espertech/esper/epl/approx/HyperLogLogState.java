@@ -0,0 +1,260 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.approx;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * HyperLogLog is a probabilistic streaming algorithm for estimating the number of distinct values
+ * (source: Wikipedia, see http://en.wikipedia.org/wiki/HyperLogLog)
+ * </p>
+ *
+ * <p>
+ * The state starts out with a sparse representation that keeps a sorted array of register updates at a
+ * higher precision, for small memory use and near-exact estimates at low cardinality, and converts to
+ * a dense array of one byte per register when the sparse representation would be larger. The states
+ * of the same precision can be merged.
+ * </p>
+ *
+ * <p>
+ * Paper:
+ * Stefan Heule, Marc Nunkesser and Alexander Hall. HyperLogLog in Practice: Algorithmic Engineering
+ * of a State of The Art Cardinality Estimation Algorithm. EDBT 2013. 10.1145/2452376.2452456
+ * http://dl.acm.org/citation.cfm?id=2452456
+ * </p>
+ */
+public class HyperLogLogState implements Serializable {
+
+    private static final long serialVersionUID = -2630617617375298476L;
+
+    public final static int DEFAULT_PRECISION = 14;
+    private final static int SPARSE_PRECISION = 25;
+    private final static int RHO_BITS = 6;
+
+    private final int precision;
+    private int[] sparse;           // sorted sparse-precision index and rho, null when dense
+    private int sparseSize;
+    private byte[] registers;       // null when sparse
+
+    public HyperLogLogState() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLogState(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("Precision must be between 4 and 18, received " + precision);
+        }
+        this.precision = precision;
+        this.sparse = new int[4];
+    }
+
+    /**
+     * Add a value by its 64-bit hash.
+     * @param hash of value, see {@link #hash(Object)}
+     */
+    public void add(long hash) {
+        if (registers != null) {
+            int index = (int) (hash >>> (64 - precision));
+            int rho = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+            if (rho > registers[index]) {
+                registers[index] = (byte) rho;
+            }
+            return;
+        }
+        int index = (int) (hash >>> (64 - SPARSE_PRECISION));
+        int rho = Long.numberOfLeadingZeros((hash << SPARSE_PRECISION) | (1L << (SPARSE_PRECISION - 1))) + 1;
+        addSparse(index, rho);
+    }
+
+    /**
+     * Merge another state into this state.
+     * @param other to merge
+     */
+    public void merge(HyperLogLogState other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge states of different precision, " + precision + " and " + other.precision);
+        }
+        if (other.registers == null) {
+            for (int i = 0; i < other.sparseSize; i++) {
+                int entry = other.sparse[i];
+                if (registers == null) {
+                    addSparse(entry >>> RHO_BITS, entry & ((1 << RHO_BITS) - 1));
+                }
+                else {
+                    addDense(entry);
+                }
+            }
+            return;
+        }
+        if (registers == null) {
+            toDense();
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * Returns the estimated number of distinct values.
+     * @return estimate
+     */
+    public long getEstimate() {
+        if (registers == null) {
+            return linearCounting(1 << SPARSE_PRECISION, (1 << SPARSE_PRECISION) - sparseSize);
+        }
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1d / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            return linearCounting(m, zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public boolean isSparse() {
+        return registers == null;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public void clear() {
+        sparse = new int[4];
+        sparseSize = 0;
+        registers = null;
+    }
+
+    /**
+     * Returns a 64-bit hash of the value.
+     * @param value to hash, not null
+     * @return hash
+     */
+    public static long hash(Object value) {
+        long hash;
+        if (value instanceof String) {
+            // FNV-1a over the characters
+            String text = (String) value;
+            hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < text.length(); i++) {
+                hash ^= text.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+        }
+        else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            hash = ((Number) value).longValue();
+        }
+        else if (value instanceof Double || value instanceof Float) {
+            hash = Double.doubleToLongBits(((Number) value).doubleValue());
+        }
+        else {
+            hash = value.hashCode();
+        }
+        // MurmurHash3 64-bit finalizer
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private void addSparse(int index, int rho) {
+        // binary search by index, the rho is in the lower bits
+        int low = 0;
+        int high = sparseSize - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midIndex = sparse[mid] >>> RHO_BITS;
+            if (midIndex < index) {
+                low = mid + 1;
+            }
+            else if (midIndex > index) {
+                high = mid - 1;
+            }
+            else {
+                if (rho > (sparse[mid] & ((1 << RHO_BITS) - 1))) {
+                    sparse[mid] = (index << RHO_BITS) | rho;
+                }
+                return;
+            }
+        }
+
+        // the sparse representation uses four bytes per entry and the dense one byte per register
+        if (sparseSize + 1 > (1 << precision) / 4) {
+            toDense();
+            addDense((index << RHO_BITS) | rho);
+            return;
+        }
+        if (sparseSize == sparse.length) {
+            sparse = Arrays.copyOf(sparse, Math.min(sparse.length * 2, (1 << precision) / 4));
+        }
+        System.arraycopy(sparse, low, sparse, low + 1, sparseSize - low);
+        sparse[low] = (index << RHO_BITS) | rho;
+        sparseSize++;
+    }
+
+    private void toDense() {
+        registers = new byte[1 << precision];
+        for (int i = 0; i < sparseSize; i++) {
+            addDense(sparse[i]);
+        }
+        sparse = null;
+        sparseSize = 0;
+    }
+
+    private void addDense(int sparseEntry) {
+        int sparseIndex = sparseEntry >>> RHO_BITS;
+        int sparseRho = sparseEntry & ((1 << RHO_BITS) - 1);
+        int extraBits = SPARSE_PRECISION - precision;
+        int index = sparseIndex >>> extraBits;
+        int lowBits = sparseIndex & ((1 << extraBits) - 1);
+        int rho;
+        if (lowBits != 0) {
+            rho = Integer.numberOfLeadingZeros(lowBits) - (32 - extraBits) + 1;
+        }
+        else {
+            rho = extraBits + sparseRho;
+        }
+        if (rho > registers[index]) {
+            registers[index] = (byte) rho;
+        }
+    }
+
+    private static long linearCounting(int m, int zeros) {
+        return Math.round(m * Math.log((double) m / zeros));
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.approx;
+
+/**
+ * <p>
+ * Quantile sketch that computes approximate quantiles with a relative-error guarantee, i.e. the quantile value
+ * returned is within the relative accuracy of the value of that rank.
+ * </p>
+ *
+ * <p>
+ * The sketch keeps counts per logarithmically-sized bucket of values. As each value is counted in exactly one bucket,
+ * values can be removed from the sketch as well as added, for use with data windows, and two sketches of the same
+ * relative accuracy can be merged. The number of buckets for positive and for negative values each is bounded by
+ * the maximum number of buckets: when exceeded, the lowest buckets are collapsed into one.
+ * </p>
+ *
+ * <p>
+ * Paper:
+ * Charles Masson, Jee E. Rim and Homin K. Lee. DDSketch: A Fast and Fully-Mergeable Quantile Sketch
+ * with Relative-Error Guarantees. PVLDB 12(12), 2019. 10.14778/3352063.3352135
+ * http://www.vldb.org/pvldb/vol12/p2195-masson.pdf
+ * </p>
+ */
+public class QuantileSketchState {
+
+    public final static double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    public final static int DEFAULT_MAX_NUM_BUCKETS = 2048;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final BucketStore positive;
+    private final BucketStore negative;
+    private long zeroCount;
+
+    public QuantileSketchState() {
+        this(DEFAULT_RELATIVE_ACCURACY, DEFAULT_MAX_NUM_BUCKETS);
+    }
+
+    public QuantileSketchState(double relativeAccuracy, int maxNumBuckets) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("Relative accuracy must be between zero and one, received " + relativeAccuracy);
+        }
+        if (maxNumBuckets < 1) {
+            throw new IllegalArgumentException("Maximum number of buckets must be at least one, received " + maxNumBuckets);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.positive = new BucketStore(maxNumBuckets);
+        this.negative = new BucketStore(maxNumBuckets);
+    }
+
+    /**
+     * Add a value. Not-a-number and infinite values are ignored.
+     * @param value to add
+     */
+    public void add(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+        if (value >= Double.MIN_NORMAL) {
+            positive.add(index(value), 1);
+        }
+        else if (value <= -Double.MIN_NORMAL) {
+            negative.add(index(-value), 1);
+        }
+        else {
+            zeroCount++;
+        }
+    }
+
+    /**
+     * Remove a value that was previously added. Not-a-number and infinite values are ignored.
+     * @param value to remove
+     * @return false if the bucket of the value has no count, true if removed
+     */
+    public boolean remove(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return false;
+        }
+        if (value >= Double.MIN_NORMAL) {
+            return positive.remove(index(value));
+        }
+        else if (value <= -Double.MIN_NORMAL) {
+            return negative.remove(index(-value));
+        }
+        if (zeroCount == 0) {
+            return false;
+        }
+        zeroCount--;
+        return true;
+    }
+
+    /**
+     * Merge the counts of another sketch into this sketch. Values added to the other sketch can only be removed
+     * from this sketch if neither sketch collapsed buckets.
+     * @param other to merge
+     */
+    public void merge(QuantileSketchState other) {
+        if (other.gamma != gamma) {
+            throw new IllegalArgumentException("Cannot merge sketches of different relative accuracy, " + relativeAccuracy + " and " + other.relativeAccuracy);
+        }
+        positive.merge(other.positive);
+        negative.merge(other.negative);
+        zeroCount += other.zeroCount;
+    }
+
+    /**
+     * Returns the approximate value at the quantile.
+     * @param quantile between zero and one, for example 0.99 for the 99th percentile
+     * @return value or NaN if the sketch is empty
+     */
+    public double getQuantile(double quantile) {
+        long count = getCount();
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) (quantile * (count - 1));
+        if (rank < negative.total) {
+            return -value(negative.getIndexDescending(rank));
+        }
+        rank -= negative.total;
+        if (rank < zeroCount) {
+            return 0;
+        }
+        rank -= zeroCount;
+        return value(positive.getIndexAscending(rank));
+    }
+
+    public long getCount() {
+        return positive.total + negative.total + zeroCount;
+    }
+
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    public void clear() {
+        positive.clear();
+        negative.clear();
+        zeroCount = 0;
+    }
+
+    private int index(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    private double value(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    /**
+     * Counts per bucket index, held in an array that covers a contiguous range of bucket indexes.
+     */
+    private static class BucketStore {
+        private final static int INITIAL_SIZE = 32;
+
+        private final int maxNumBuckets;
+        private long[] counts;      // null when empty
+        private int offset;         // bucket index of the first array element
+        private int floor = Integer.MIN_VALUE;  // lower indexes have been collapsed into this index
+        private long total;
+
+        private BucketStore(int maxNumBuckets) {
+            this.maxNumBuckets = maxNumBuckets;
+        }
+
+        private void add(int index, long count) {
+            if (index < floor) {
+                index = floor;
+            }
+            if (counts == null) {
+                counts = new long[Math.min(INITIAL_SIZE, maxNumBuckets)];
+                offset = index - counts.length / 2;
+            }
+            else if (index < offset || index >= offset + counts.length) {
+                index = extend(index);
+            }
+            counts[index - offset] += count;
+            total += count;
+        }
+
+        private boolean remove(int index) {
+            if (counts == null) {
+                return false;
+            }
+            if (index < floor) {
+                index = floor;
+            }
+            int position = index - offset;
+            if (position < 0 || position >= counts.length || counts[position] == 0) {
+                return false;
+            }
+            counts[position]--;
+            total--;
+            if (total == 0) {
+                clear();
+            }
+            return true;
+        }
+
+        private void merge(BucketStore other) {
+            if (other.counts == null) {
+                return;
+            }
+            for (int i = 0; i < other.counts.length; i++) {
+                if (other.counts[i] != 0) {
+                    add(other.offset + i, other.counts[i]);
+                }
+            }
+        }
+
+        private int getIndexAscending(long rank) {
+            long cumulative = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                if (cumulative > rank) {
+                    return offset + i;
+                }
+            }
+            throw new IllegalStateException("Rank " + rank + " not found among " + total + " values");
+        }
+
+        private int getIndexDescending(long rank) {
+            long cumulative = 0;
+            for (int i = counts.length - 1; i >= 0; i--) {
+                cumulative += counts[i];
+                if (cumulative > rank) {
+                    return offset + i;
+                }
+            }
+            throw new IllegalStateException("Rank " + rank + " not found among " + total + " values");
+        }
+
+        private void clear() {
+            counts = null;
+            offset = 0;
+            floor = Integer.MIN_VALUE;
+            total = 0;
+        }
+
+        /**
+         * Reallocates the array to cover the non-empty buckets and the index, collapsing the lowest buckets when
+         * the range exceeds the maximum number of buckets.
+         * @param index to cover
+         * @return index to count, which is the collapsed index if the index itself was collapsed
+         */
+        private int extend(int index) {
+            int low = index;
+            int high = index;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    low = Math.min(low, offset + i);
+                    high = Math.max(high, offset + i);
+                }
+            }
+
+            long collapsed = 0;
+            if ((long) high - low + 1 > maxNumBuckets) {
+                int newLow = high - maxNumBuckets + 1;
+                for (int i = 0; i < counts.length && offset + i < newLow; i++) {
+                    collapsed += counts[i];
+                }
+                low = newLow;
+                floor = Math.max(floor, newLow);
+                if (index < floor) {
+                    index = floor;
+                }
+            }
+
+            // leave room to grow in the direction of the new index
+            int span = high - low + 1;
+            int size = (int) Math.min(maxNumBuckets, Math.max((long) span * 2, INITIAL_SIZE));
+            int newOffset = index == high ? low : high - size + 1;
+            long[] newCounts = new long[size];
+            for (int i = 0; i < counts.length; i++) {
+                int bucket = offset + i;
+                if (counts[i] != 0 && bucket >= low) {
+                    newCounts[bucket - newOffset] = counts[i];
+                }
+            }
+            newCounts[low - newOffset] += collapsed;
+            counts = newCounts;
+            offset = newOffset;
+            return index;
+        }
+    }
+}
@@ -488,6 +488,15 @@ public class EngineImportServiceImpl implements EngineImportService
         if (nameLowerCase.equals("leaving")) {
             return new ExprLeavingAggNode(isDistinct);
         }
+        if (nameLowerCase.equals("approx_count_distinct")) {
+            return new ExprApproxCountDistinctNode(isDistinct);
+        }
+        if (nameLowerCase.equals("percentile_approx")) {
+            return new ExprPercentileApproxNode(isDistinct, false);
+        }
+        if (nameLowerCase.equals("quantiles")) {
+            return new ExprPercentileApproxNode(isDistinct, true);
+        }
         if (nameLowerCase.equals("maxby")) {
             return new ExprAggMultiFunctionSortedMinMaxByNode(true, false, false);
         }
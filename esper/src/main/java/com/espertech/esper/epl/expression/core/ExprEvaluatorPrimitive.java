@@ -0,0 +1,39 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.core;
+
+import com.espertech.esper.client.EventBean;
+
+/**
+ * Interface for evaluators of numeric expressions that can return the result as a primitive value without boxing.
+ * <p>
+ * The primitive evaluation methods are only for use when all streams the expression refers to provide an event,
+ * and return the same value as {@link ExprEvaluator#evaluate} converted to the primitive type.
+ * Evaluators implement this interface only for expressions that cannot evaluate to null given the events.
+ */
+public interface ExprEvaluatorPrimitive extends ExprEvaluator
+{
+    /**
+     * Evaluate event tuple and return the result as a double.
+     * @param eventsPerStream - event tuple, with an event for each stream the expression refers to
+     * @param isNewData - indicates whether we are dealing with new data (istream) or old data (rstream)
+     * @param context context for expression evaluation
+     * @return evaluation result
+     */
+    public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context);
+
+    /**
+     * Evaluate event tuple and return the result as a long, for use with integral result types.
+     * @param eventsPerStream - event tuple, with an event for each stream the expression refers to
+     * @param isNewData - indicates whether we are dealing with new data (istream) or old data (rstream)
+     * @param context context for expression evaluation
+     * @return evaluation result
+     */
+    public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context);
+}
@@ -0,0 +1,45 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.core;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.event.bean.LambdaPrimitivePropertyGetter;
+
+/**
+ * Evaluator for a simple property of a primitive numeric type of a Java object event,
+ * that provides primitive evaluation, see {@link ExprEvaluatorPrimitive}.
+ */
+public class ExprIdentNodeEvaluatorPrimitive extends ExprIdentNodeEvaluatorImpl implements ExprEvaluatorPrimitive
+{
+    private final int streamNum;
+    private final EventPropertyGetter propertyGetter;
+    private final LambdaPrimitivePropertyGetter primitiveGetter;
+
+    public ExprIdentNodeEvaluatorPrimitive(int streamNum, EventPropertyGetter propertyGetter, Class propertyType, ExprIdentNode identNode) {
+        super(streamNum, propertyGetter, propertyType, identNode);
+        this.streamNum = streamNum;
+        this.propertyGetter = propertyGetter;
+        this.primitiveGetter = propertyGetter instanceof LambdaPrimitivePropertyGetter ? (LambdaPrimitivePropertyGetter) propertyGetter : null;
+    }
+
+    public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        if (primitiveGetter != null) {
+            return primitiveGetter.getDouble(eventsPerStream[streamNum]);
+        }
+        return ((Number) propertyGetter.get(eventsPerStream[streamNum])).doubleValue();
+    }
+
+    public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        if (primitiveGetter != null) {
+            return primitiveGetter.getLong(eventsPerStream[streamNum]);
+        }
+        return ((Number) propertyGetter.get(eventsPerStream[streamNum])).longValue();
+    }
+}
@@ -17,8 +17,10 @@ import com.espertech.esper.collection.Pair;
 import com.espertech.esper.epl.core.PropertyResolutionDescriptor;
 import com.espertech.esper.epl.expression.table.ExprTableIdentNode;
 import com.espertech.esper.epl.parse.ASTUtil;
+import com.espertech.esper.event.bean.BeanEventType;
 import com.espertech.esper.event.property.PropertyParser;
 import com.espertech.esper.filter.FilterSpecLookupable;
+import com.espertech.esper.util.JavaClassHelper;
 
 import java.io.StringWriter;
 
@@ -174,6 +176,9 @@ public class ExprIdentNodeImpl extends ExprNodeBase implements ExprIdentNode
         if (audit != null) {
             evaluator = new ExprIdentNodeEvaluatorLogging(streamNum, propertyGetter, propertyType, this, resolvedPropertyName, validationContext.getStatementName(), validationContext.getStreamTypeService().getEngineURIQualifier());
         }
+        else if (isPrimitiveEvaluation(propertyInfoPair.getFirst().getStreamEventType(), resolvedPropertyName, propertyType)) {
+            evaluator = new ExprIdentNodeEvaluatorPrimitive(streamNum, propertyGetter, propertyType, this);
+        }
         else {
             evaluator = new ExprIdentNodeEvaluatorImpl(streamNum, propertyGetter, propertyType, this);
         }
@@ -310,4 +315,13 @@ public class ExprIdentNodeImpl extends ExprNodeBase implements ExprIdentNode
     public ExprIdentNodeEvaluator getExprEvaluatorIdent() {
         return evaluator;
     }
+
+    // a simple property of primitive numeric type of a Java object event cannot return null
+    private static boolean isPrimitiveEvaluation(EventType streamEventType, String propertyName, Class propertyType) {
+        return propertyType != null &&
+               propertyType.isPrimitive() &&
+               JavaClassHelper.isNumeric(propertyType) &&
+               streamEventType instanceof BeanEventType &&
+               ((BeanEventType) streamEventType).getSimpleProperty(propertyName) != null;
+    }
 }
@@ -0,0 +1,61 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.methodagg;
+
+import com.espertech.esper.core.service.StatementType;
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNode;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprNodeUtility;
+import com.espertech.esper.epl.expression.core.ExprValidationContext;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+
+/**
+ * Represents the approx_count_distinct(...) aggregate function is an expression tree.
+ */
+public class ExprApproxCountDistinctNode extends ExprAggregateNodeBase
+{
+    private static final long serialVersionUID = -7026396377372531497L;
+
+    /**
+     * Ctor.
+     * @param distinct - flag indicating unique or non-unique value aggregation
+     */
+    public ExprApproxCountDistinctNode(boolean distinct)
+    {
+        super(distinct);
+    }
+
+    public AggregationMethodFactory validateAggregationChild(ExprValidationContext validationContext) throws ExprValidationException
+    {
+        if (this.positionalParams.length != 1) {
+            throw new ExprValidationException("The approx_count_distinct aggregation function requires a single parameter, an expression returning the values to count");
+        }
+        ExprNode child = positionalParams[0];
+
+        // the sketch cannot forget values, therefore the function does not apply to data windows
+        if (validationContext.getExprEvaluatorContext().getStatementType() != StatementType.CREATE_TABLE &&
+            ExprNodeUtility.hasRemoveStreamForAggregations(child, validationContext.getStreamTypeService(), validationContext.isResettingAggregations())) {
+            throw new ExprValidationException("The approx_count_distinct aggregation function does not allow values to leave and cannot be used with data windows, use count(distinct ...) instead");
+        }
+
+        return validationContext.getEngineImportService().getAggregationFactoryFactory().makeApproxCountDistinct(validationContext.getStatementExtensionSvcContext(), this, child.getExprEvaluator().getType());
+    }
+
+    public String getAggregationFunctionName()
+    {
+        return "approx_count_distinct";
+    }
+
+    public final boolean equalsNodeAggregateMethodOnly(ExprAggregateNode node)
+    {
+        return node instanceof ExprApproxCountDistinctNode;
+    }
+}
@@ -30,6 +30,11 @@ public class ExprMethodAggUtil {
             else {
                 // Use the evaluation node under the aggregation node to obtain the aggregation value
                 evaluator = childNodes[0].getExprEvaluator();
+
+                // In a join streams may not provide an event, in which case primitive evaluation does not apply
+                if (join && evaluator instanceof ExprEvaluatorPrimitive) {
+                    evaluator = getBoxedEvaluator(evaluator);
+                }
             }
         }
         // For aggregation that doesn't evaluate any particular sub-expression, return null on evaluation
@@ -80,6 +85,17 @@ public class ExprMethodAggUtil {
         };
     }
 
+    private static ExprEvaluator getBoxedEvaluator(final ExprEvaluator evaluator) {
+        return new ExprEvaluator() {
+            public Object evaluate(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext) {
+                return evaluator.evaluate(eventsPerStream, isNewData, exprEvaluatorContext);
+            }
+            public Class getType() {
+                return evaluator.getType();
+            }
+        };
+    }
+
     private static ExprEvaluator getWildcardEvaluator(EventType[] typesPerStream, boolean isJoin) throws ExprValidationException {
         final Class returnType = typesPerStream != null && typesPerStream.length > 0 ? typesPerStream[0].getUnderlyingType() : null;
         if (isJoin || returnType == null) {
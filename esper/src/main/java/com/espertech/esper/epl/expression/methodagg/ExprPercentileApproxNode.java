@@ -0,0 +1,88 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.methodagg;
+
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNode;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprValidationContext;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Represents the percentile_approx(...) and quantiles(...) aggregate functions is an expression tree.
+ */
+public class ExprPercentileApproxNode extends ExprAggregateNodeBase
+{
+    private static final long serialVersionUID = 4417373512496734519L;
+
+    private final boolean isQuantiles;
+
+    /**
+     * Ctor.
+     * @param distinct - flag indicating unique or non-unique value aggregation
+     * @param isQuantiles - true for quantiles returning an array of values, false for percentile_approx returning a single value
+     */
+    public ExprPercentileApproxNode(boolean distinct, boolean isQuantiles)
+    {
+        super(distinct);
+        this.isQuantiles = isQuantiles;
+    }
+
+    public AggregationMethodFactory validateAggregationChild(ExprValidationContext validationContext) throws ExprValidationException
+    {
+        String message = isQuantiles ?
+                "The quantiles aggregation function requires two or more parameters, an expression returning numeric values and one or more numeric quantile constants between zero and one" :
+                "The percentile_approx aggregation function requires two parameters, an expression returning numeric values and a numeric quantile constant between zero and one";
+        if (this.positionalParams.length < 2 || (!isQuantiles && this.positionalParams.length != 2)) {
+            throw new ExprValidationException(message);
+        }
+
+        Class childType = positionalParams[0].getExprEvaluator().getType();
+        if (!JavaClassHelper.isNumeric(childType)) {
+            throw new ExprValidationException("Implicit conversion from datatype '" +
+                    (childType == null ? "null" : childType.getSimpleName()) +
+                    "' to numeric is not allowed for aggregation function '" + getAggregationFunctionName() + "'");
+        }
+
+        double[] quantiles = new double[positionalParams.length - 1];
+        for (int i = 1; i < positionalParams.length; i++) {
+            ExprNode param = positionalParams[i];
+            if (!param.isConstantResult() || !JavaClassHelper.isNumeric(param.getExprEvaluator().getType())) {
+                throw new ExprValidationException(message);
+            }
+            Number num = (Number) param.getExprEvaluator().evaluate(null, true, validationContext.getExprEvaluatorContext());
+            if (num == null || !(num.doubleValue() >= 0 && num.doubleValue() <= 1)) {
+                throw new ExprValidationException(message);
+            }
+            quantiles[i - 1] = num.doubleValue();
+        }
+
+        return validationContext.getEngineImportService().getAggregationFactoryFactory().makePercentileApprox(validationContext.getStatementExtensionSvcContext(), this, childType, quantiles);
+    }
+
+    public String getAggregationFunctionName()
+    {
+        return isQuantiles ? "quantiles" : "percentile_approx";
+    }
+
+    public boolean isQuantiles() {
+        return isQuantiles;
+    }
+
+    public final boolean equalsNodeAggregateMethodOnly(ExprAggregateNode node)
+    {
+        if (!(node instanceof ExprPercentileApproxNode)) {
+            return false;
+        }
+        ExprPercentileApproxNode other = (ExprPercentileApproxNode) node;
+        return other.isQuantiles == isQuantiles;
+    }
+}
@@ -30,6 +30,7 @@ public class ExprMathNode extends ExprNodeBase implements ExprEvaluator
     private Class resultType;
     private transient ExprEvaluator evaluatorLeft;
     private transient ExprEvaluator evaluatorRight;
+    private transient ExprEvaluator primitiveEvaluator;
     private static final long serialVersionUID = 6479683588602862158L;
 
     /**
@@ -47,6 +48,10 @@ public class ExprMathNode extends ExprNodeBase implements ExprEvaluator
 
     public ExprEvaluator getExprEvaluator()
     {
+        if (primitiveEvaluator != null)
+        {
+            return primitiveEvaluator;
+        }
         return this;
     }
 
@@ -101,6 +106,7 @@ public class ExprMathNode extends ExprNodeBase implements ExprEvaluator
         }
 
         arithTypeEnumComputer = mathArithTypeEnum.getComputer(resultType, childTypeOne, childTypeTwo, isIntegerDivision, isDivisionByZeroReturnsNull, validationContext.getEngineImportService().getDefaultMathContext());
+        primitiveEvaluator = ExprMathNodeEvalPrimitive.make(this, mathArithTypeEnum, resultType, this.getChildNodes()[0], this.getChildNodes()[1]);
         return null;
     }
 
@@ -0,0 +1,145 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.ops;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.*;
+import com.espertech.esper.type.MathArithTypeEnum;
+
+/**
+ * Evaluator for addition, subtraction and multiplication of double, long or int values that provides primitive evaluation,
+ * see {@link ExprEvaluatorPrimitive}, when both operands provide primitive evaluation or are numeric constants.
+ * <p>
+ * The primitive evaluation computes the same result as the computer for the result type,
+ * for example int-typed results overflow the same as the boxed computation.
+ */
+public class ExprMathNodeEvalPrimitive implements ExprEvaluatorPrimitive
+{
+    private final ExprMathNode parent;
+    private final MathArithTypeEnum mathArithTypeEnum;
+    private final Class resultType;
+    private final ExprEvaluatorPrimitive left;
+    private final ExprEvaluatorPrimitive right;
+
+    private ExprMathNodeEvalPrimitive(ExprMathNode parent, MathArithTypeEnum mathArithTypeEnum, Class resultType, ExprEvaluatorPrimitive left, ExprEvaluatorPrimitive right) {
+        this.parent = parent;
+        this.mathArithTypeEnum = mathArithTypeEnum;
+        this.resultType = resultType;
+        this.left = left;
+        this.right = right;
+    }
+
+    /**
+     * Returns the primitive evaluator for the math node, or null if primitive evaluation does not apply.
+     * @param parent math node, which provides the boxed evaluation
+     * @param mathArithTypeEnum operator
+     * @param resultType result type of the math node
+     * @param childLeft left operand
+     * @param childRight right operand
+     * @return evaluator or null
+     */
+    public static ExprEvaluator make(ExprMathNode parent, MathArithTypeEnum mathArithTypeEnum, Class resultType, ExprNode childLeft, ExprNode childRight) {
+        if (mathArithTypeEnum != MathArithTypeEnum.ADD &&
+            mathArithTypeEnum != MathArithTypeEnum.SUBTRACT &&
+            mathArithTypeEnum != MathArithTypeEnum.MULTIPLY) {
+            return null;
+        }
+        if (resultType != Double.class && resultType != Long.class && resultType != Integer.class) {
+            return null;
+        }
+        ExprEvaluatorPrimitive left = getPrimitive(childLeft);
+        ExprEvaluatorPrimitive right = getPrimitive(childRight);
+        if (left == null || right == null) {
+            return null;
+        }
+        return new ExprMathNodeEvalPrimitive(parent, mathArithTypeEnum, resultType, left, right);
+    }
+
+    public Object evaluate(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return parent.evaluate(eventsPerStream, isNewData, context);
+    }
+
+    public Class getType() {
+        return resultType;
+    }
+
+    public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        if (resultType != Double.class) {
+            return evaluateLong(eventsPerStream, isNewData, context);
+        }
+        double valueLeft = left.evaluateDouble(eventsPerStream, isNewData, context);
+        double valueRight = right.evaluateDouble(eventsPerStream, isNewData, context);
+        if (mathArithTypeEnum == MathArithTypeEnum.ADD) {
+            return valueLeft + valueRight;
+        }
+        if (mathArithTypeEnum == MathArithTypeEnum.SUBTRACT) {
+            return valueLeft - valueRight;
+        }
+        return valueLeft * valueRight;
+    }
+
+    public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        if (resultType == Double.class) {
+            return (long) evaluateDouble(eventsPerStream, isNewData, context);
+        }
+        long valueLeft = left.evaluateLong(eventsPerStream, isNewData, context);
+        long valueRight = right.evaluateLong(eventsPerStream, isNewData, context);
+        if (resultType == Integer.class) {
+            int intLeft = (int) valueLeft;
+            int intRight = (int) valueRight;
+            if (mathArithTypeEnum == MathArithTypeEnum.ADD) {
+                return intLeft + intRight;
+            }
+            if (mathArithTypeEnum == MathArithTypeEnum.SUBTRACT) {
+                return intLeft - intRight;
+            }
+            return intLeft * intRight;
+        }
+        if (mathArithTypeEnum == MathArithTypeEnum.ADD) {
+            return valueLeft + valueRight;
+        }
+        if (mathArithTypeEnum == MathArithTypeEnum.SUBTRACT) {
+            return valueLeft - valueRight;
+        }
+        return valueLeft * valueRight;
+    }
+
+    private static ExprEvaluatorPrimitive getPrimitive(ExprNode node) {
+        ExprEvaluator evaluator = node.getExprEvaluator();
+        if (evaluator instanceof ExprEvaluatorPrimitive) {
+            return (ExprEvaluatorPrimitive) evaluator;
+        }
+        if (!(node instanceof ExprConstantNodeImpl)) {
+            return null;
+        }
+        final ExprConstantNodeImpl constantNode = (ExprConstantNodeImpl) node;
+        Object value = constantNode.getConstantValue(null);
+        if (!(value instanceof Double || value instanceof Float || value instanceof Long ||
+              value instanceof Integer || value instanceof Short || value instanceof Byte)) {
+            return null;
+        }
+        return new ExprEvaluatorPrimitive() {
+            public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+                return ((Number) constantNode.getConstantValue(context)).doubleValue();
+            }
+
+            public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+                return ((Number) constantNode.getConstantValue(context)).longValue();
+            }
+
+            public Object evaluate(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+                return constantNode.getConstantValue(context);
+            }
+
+            public Class getType() {
+                return constantNode.getConstantType();
+            }
+        };
+    }
+}
@@ -0,0 +1,66 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.visitor;
+
+import com.espertech.esper.epl.declexpr.ExprDeclaredNode;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.dot.ExprDotNode;
+import com.espertech.esper.epl.expression.funcs.ExprPlugInSingleRowNode;
+import com.espertech.esper.epl.expression.ops.ExprLikeNode;
+import com.espertech.esper.epl.expression.ops.ExprRegexpNode;
+import com.espertech.esper.epl.script.ExprNodeScript;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Visitor that determines whether the evaluators of an expression can be used by multiple threads at the same time.
+ * <p>
+ * Expressions are not thread-safe when their evaluator keeps per-evaluation state, such as the
+ * like and regexp operators with a non-constant pattern, or when evaluation uses the expression result cache of
+ * the evaluation context, such as declared expressions and enumeration methods, or when evaluation calls
+ * user code such as scripts and single-row functions.
+ * <p>
+ * The like and regexp operators with a constant pattern are thread-safe once they evaluated for the first time,
+ * and the visitor collects such expressions so that the caller can evaluate them once before sharing them.
+ */
+public class ExprNodeThreadSafeVisitor implements ExprNodeVisitor
+{
+    private final List<ExprNode> lazyInitNodes = new ArrayList<ExprNode>();
+    private boolean threadSafe = true;
+
+    public boolean isVisit(ExprNode exprNode) {
+        return threadSafe;
+    }
+
+    public void visit(ExprNode exprNode) {
+        if (exprNode instanceof ExprLikeNode || exprNode instanceof ExprRegexpNode) {
+            if (!exprNode.getChildNodes()[1].isConstantResult()) {
+                threadSafe = false;
+            }
+            else {
+                lazyInitNodes.add(exprNode);
+            }
+        }
+        else if (exprNode instanceof ExprDeclaredNode ||
+                exprNode instanceof ExprDotNode ||
+                exprNode instanceof ExprPlugInSingleRowNode ||
+                exprNode instanceof ExprNodeScript) {
+            threadSafe = false;
+        }
+    }
+
+    public boolean isThreadSafe() {
+        return threadSafe;
+    }
+
+    public List<ExprNode> getLazyInitNodes() {
+        return lazyInitNodes;
+    }
+}
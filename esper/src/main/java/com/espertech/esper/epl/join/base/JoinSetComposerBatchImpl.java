@@ -0,0 +1,223 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.join.base;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.MultiKey;
+import com.espertech.esper.collection.UniformPair;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.join.plan.TableLookupIndexReqKey;
+import com.espertech.esper.epl.join.table.EventTable;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.*;
+
+/**
+ * Implements the function to determine a join result set for joins in which all streams are batch windows.
+ * <p>
+ * A batch window releases all events of a batch at once and removes the prior batch at the same time,
+ * so that the tables for the stream only ever hold the last batch. Instead of removing the prior batch from
+ * each table event-by-event, this composer keeps the events of each stream and rebuilds the tables of a stream
+ * from its events when the tables are next needed for a lookup.
+ */
+public class JoinSetComposerBatchImpl extends JoinSetComposerImpl
+{
+    private static final EventBean[] EMPTY = new EventBean[0];
+
+    private final boolean joinRemoveStream;
+    private final EventBean[][] eventsPerStream;
+    private final boolean[] stale;
+
+    /**
+     * Ctor.
+     * @param allowInitIndex indicator whether initialization events can be provided
+     * @param repositories - for each stream an array of (indexed/unindexed) tables for lookup.
+     * @param queryStrategies - for each stream a strategy to execute the join
+     * @param exprEvaluatorContext expression evaluation context
+     * @param joinRemoveStream indicator whether to join the remove stream
+     */
+    public JoinSetComposerBatchImpl(boolean allowInitIndex, Map<TableLookupIndexReqKey, EventTable>[] repositories, QueryStrategy[] queryStrategies,
+                                    ExprEvaluatorContext exprEvaluatorContext, boolean joinRemoveStream)
+    {
+        super(allowInitIndex, repositories, queryStrategies, false, exprEvaluatorContext, joinRemoveStream);
+        this.joinRemoveStream = joinRemoveStream;
+        this.eventsPerStream = new EventBean[this.repositories.length][];
+        this.stale = new boolean[this.repositories.length];
+        for (int stream = 0; stream < eventsPerStream.length; stream++) {
+            eventsPerStream[stream] = getEvents(this.repositories[stream]);
+        }
+    }
+
+    @Override
+    public void init(EventBean[][] eventsPerStream)
+    {
+        if (!allowsInit()) {
+            throw new IllegalStateException("Initialization by events not supported");
+        }
+        for (int stream = 0; stream < eventsPerStream.length; stream++) {
+            if (eventsPerStream[stream] != null && eventsPerStream[stream].length > 0) {
+                update(stream, eventsPerStream[stream], null);
+            }
+        }
+    }
+
+    @Override
+    public UniformPair<Set<MultiKey<EventBean>>> join(EventBean[][] newDataPerStream, EventBean[][] oldDataPerStream, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qJoinCompositionWinToWin();}
+
+        oldResults.clear();
+        newResults.clear();
+
+        // join old data against the tables as they were before this batch
+        if (joinRemoveStream) {
+            for (int i = 0; i < oldDataPerStream.length; i++)
+            {
+                if (oldDataPerStream[i] != null)
+                {
+                    refreshStale();
+                    if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qJoinCompositionQueryStrategy(false, i, oldDataPerStream[i]);}
+                    queryStrategies[i].lookup(oldDataPerStream[i], oldResults, exprEvaluatorContext);
+                    if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aJoinCompositionQueryStrategy();}
+                }
+            }
+        }
+
+        // replace the events of each stream, the tables are rebuilt when next used for a lookup
+        for (int stream = 0; stream < newDataPerStream.length; stream++) {
+            if (newDataPerStream[stream] != null || oldDataPerStream[stream] != null) {
+                update(stream, newDataPerStream[stream], oldDataPerStream[stream]);
+            }
+        }
+
+        // join new data
+        for (int i = 0; i < newDataPerStream.length; i++)
+        {
+            if (newDataPerStream[i] != null)
+            {
+                refreshStale();
+                if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qJoinCompositionQueryStrategy(true, i, newDataPerStream[i]);}
+                queryStrategies[i].lookup(newDataPerStream[i], newResults, exprEvaluatorContext);
+                if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aJoinCompositionQueryStrategy();}
+            }
+        }
+
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aJoinCompositionWinToWin(newResults, oldResults);}
+        return new UniformPair<Set<MultiKey<EventBean>>>(newResults, oldResults);
+    }
+
+    @Override
+    public Set<MultiKey<EventBean>> staticJoin()
+    {
+        refreshStale();
+        return super.staticJoin();
+    }
+
+    private void update(int stream, EventBean[] newData, EventBean[] oldData)
+    {
+        if (repositories[stream].length == 0) {
+            return;
+        }
+        eventsPerStream[stream] = replace(eventsPerStream[stream], newData, oldData);
+        stale[stream] = true;
+    }
+
+    private void refreshStale()
+    {
+        for (int stream = 0; stream < stale.length; stream++) {
+            if (!stale[stream]) {
+                continue;
+            }
+            stale[stream] = false;
+            EventBean[] events = eventsPerStream[stream];
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qJoinCompositionStepUpdIndex(stream, events, null);}
+            for (EventTable table : repositories[stream]) {
+                table.clear();
+                if (events.length > 0) {
+                    table.add(events);
+                }
+            }
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aJoinCompositionStepUpdIndex();}
+        }
+    }
+
+    /**
+     * Returns the events of a stream after adding new data and removing old data.
+     * <p>
+     * Batch windows remove exactly the batch they previously released, in which case the result is the new data.
+     * Otherwise events are added first and then removed, same as for tables.
+     * @param events current events
+     * @param newData to add
+     * @param oldData to remove
+     * @return events
+     */
+    protected static EventBean[] replace(EventBean[] events, EventBean[] newData, EventBean[] oldData)
+    {
+        if (oldData == null || oldData.length == 0) {
+            if (newData == null || newData.length == 0) {
+                return events;
+            }
+            if (events.length == 0) {
+                return newData;
+            }
+            EventBean[] result = new EventBean[events.length + newData.length];
+            System.arraycopy(events, 0, result, 0, events.length);
+            System.arraycopy(newData, 0, result, events.length, newData.length);
+            return result;
+        }
+
+        if (isSameEvents(events, oldData)) {
+            return newData == null ? EMPTY : newData;
+        }
+
+        Set<EventBean> removed = new HashSet<EventBean>(Arrays.asList(oldData));
+        List<EventBean> result = new ArrayList<EventBean>(events.length + (newData == null ? 0 : newData.length));
+        for (EventBean theEvent : events) {
+            if (!removed.contains(theEvent)) {
+                result.add(theEvent);
+            }
+        }
+        if (newData != null) {
+            for (EventBean theEvent : newData) {
+                if (!removed.contains(theEvent)) {
+                    result.add(theEvent);
+                }
+            }
+        }
+        return result.toArray(new EventBean[result.size()]);
+    }
+
+    private static boolean isSameEvents(EventBean[] events, EventBean[] oldData)
+    {
+        if (events == oldData) {
+            return true;
+        }
+        if (events.length != oldData.length) {
+            return false;
+        }
+        for (int i = 0; i < events.length; i++) {
+            if (events[i] != oldData[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static EventBean[] getEvents(EventTable[] tables)
+    {
+        if (tables.length == 0 || tables[0].isEmpty()) {
+            return EMPTY;
+        }
+        List<EventBean> events = new ArrayList<EventBean>();
+        for (Iterator<EventBean> it = tables[0].iterator(); it.hasNext();) {
+            events.add(it.next());
+        }
+        return events.toArray(new EventBean[events.size()]);
+    }
+}
@@ -198,6 +198,9 @@ public class JoinSetComposerPrototypeImpl implements JoinSetComposerPrototype {
                 if (isFireAndForget) {
                     composer = new JoinSetComposerFAFImpl(indexesPerStream, queryStrategies, streamJoinAnalysisResult.isPureSelfJoin(), exprEvaluatorContext, joinRemoveStream, isOuterJoins);
                 }
+                else if (streamJoinAnalysisResult.isAllBatchWindows() && !streamJoinAnalysisResult.isPureSelfJoin()) {
+                    composer = new JoinSetComposerBatchImpl(eventTableIndexService.allowInitIndex(isRecoveringResilient), indexesPerStream, queryStrategies, exprEvaluatorContext, joinRemoveStream);
+                }
                 else {
                     composer = new JoinSetComposerImpl(eventTableIndexService.allowInitIndex(isRecoveringResilient), indexesPerStream, queryStrategies, streamJoinAnalysisResult.isPureSelfJoin(), exprEvaluatorContext, joinRemoveStream);
                 }
@@ -0,0 +1,203 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.join.exec.base;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.join.table.EventTable;
+import com.espertech.esper.epl.join.table.EventTableOrganization;
+import com.espertech.esper.epl.join.table.EventTableOrganizationType;
+import com.espertech.esper.util.AuditPath;
+import com.espertech.esper.util.IndentWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Execution node that selects, among alternative nested iterations over the same streams, the one
+ * with the lowest estimated cost according to runtime statistics of the indexes.
+ * <p>
+ * Statistics are the number of events per stream and the number of distinct keys per index, as reported by
+ * {@link EventTable}. The node re-evaluates the choice every {@link #CHECK_INTERVAL} lookups,
+ * and re-plans when the number of events of any stream changed by a factor of {@link #DRIFT_FACTOR} or more since the last plan.
+ */
+public class AdaptiveIterationExecNode extends ExecNode
+{
+    private static final Logger queryPlanLog = LoggerFactory.getLogger(AuditPath.QUERYPLAN_LOG);
+
+    /**
+     * Number of lookups between checking statistics.
+     */
+    public final static int CHECK_INTERVAL = 1024;
+
+    /**
+     * Factor of change in the number of events of a stream that triggers re-planning.
+     */
+    public final static double DRIFT_FACTOR = 4;
+
+    /**
+     * Assumed fraction of events returned by a range lookup.
+     */
+    public final static double RANGE_SELECTIVITY = 1 / 3d;
+
+    private final String statementName;
+    private final int streamNum;
+    private final int[][] nestingOrders;
+    private final ExecNode[] candidates;
+    private final EventTable[][] lookupTablesPerCandidate;
+    private final EventTable[][] tablesPerStream;
+    private final boolean queryPlanLogging;
+    private final long[] plannedSizes;
+    private int current;
+    private int countdown;
+
+    /**
+     * Ctor.
+     * @param statementName statement name
+     * @param streamNum stream the lookups originate from
+     * @param nestingOrders nesting order of streams for each candidate, the first candidate being the initial plan
+     * @param candidates execution node for each candidate
+     * @param lookupTablesPerCandidate for each candidate the index looked up at each nesting level
+     * @param tablesPerStream indexes of each stream, for obtaining the number of events of the stream
+     * @param queryPlanLogging indicator whether to log plan changes
+     */
+    public AdaptiveIterationExecNode(String statementName, int streamNum, int[][] nestingOrders, ExecNode[] candidates, EventTable[][] lookupTablesPerCandidate, EventTable[][] tablesPerStream, boolean queryPlanLogging)
+    {
+        this.statementName = statementName;
+        this.streamNum = streamNum;
+        this.nestingOrders = nestingOrders;
+        this.candidates = candidates;
+        this.lookupTablesPerCandidate = lookupTablesPerCandidate;
+        this.tablesPerStream = tablesPerStream;
+        this.queryPlanLogging = queryPlanLogging;
+        this.plannedSizes = new long[tablesPerStream.length];
+        Arrays.fill(plannedSizes, -1);
+    }
+
+    public void process(EventBean lookupEvent, EventBean[] prefillPath, Collection<EventBean[]> result, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        if (--countdown <= 0) {
+            countdown = CHECK_INTERVAL;
+            checkReplan();
+        }
+        candidates[current].process(lookupEvent, prefillPath, result, exprEvaluatorContext);
+    }
+
+    /**
+     * Returns the nesting order currently in use.
+     * @return nesting order
+     */
+    public int[] getCurrentNestingOrder() {
+        return nestingOrders[current];
+    }
+
+    /**
+     * Compare current statistics to the statistics of the last plan and re-plan if statistics drifted.
+     */
+    public void checkReplan()
+    {
+        long[] sizes = new long[tablesPerStream.length];
+        boolean drifted = false;
+        for (int stream = 0; stream < tablesPerStream.length; stream++) {
+            if (stream == streamNum) {
+                continue;
+            }
+            Integer size = getNumberOfEvents(tablesPerStream[stream]);
+            if (size == null) {
+                return; // statistics not available
+            }
+            sizes[stream] = size;
+            if (isDrifted(plannedSizes[stream], size)) {
+                drifted = true;
+            }
+        }
+        if (!drifted) {
+            return;
+        }
+        System.arraycopy(sizes, 0, plannedSizes, 0, sizes.length);
+
+        int best = current;
+        double bestCost = getCost(current, sizes);
+        for (int i = 0; i < candidates.length; i++) {
+            double cost = getCost(i, sizes);
+            if (cost < bestCost) {
+                best = i;
+                bestCost = cost;
+            }
+        }
+        if (best == current) {
+            return;
+        }
+
+        if (queryPlanLogging && queryPlanLog.isInfoEnabled()) {
+            queryPlanLog.info("Join re-planned for statement '" + statementName + "' lookups from stream " + streamNum +
+                    " using nesting order " + Arrays.toString(nestingOrders[best]) +
+                    " replacing " + Arrays.toString(nestingOrders[current]) +
+                    " for number of events per stream " + Arrays.toString(sizes) + "\n" + ExecNode.print(candidates[best]));
+        }
+        current = best;
+    }
+
+    private double getCost(int candidate, long[] sizes) {
+        int[] nestingOrder = nestingOrders[candidate];
+        EventTable[] lookupTables = lookupTablesPerCandidate[candidate];
+        double rows = 1;
+        double cost = 0;
+        for (int i = 0; i < nestingOrder.length; i++) {
+            cost += rows;
+            rows *= getFanout(lookupTables[i], sizes[nestingOrder[i]]);
+            cost += rows;
+        }
+        return cost;
+    }
+
+    private static double getFanout(EventTable table, long size) {
+        EventTableOrganization organization = table == null ? null : table.getOrganization();
+        if (organization == null || organization.getType() == EventTableOrganizationType.UNORGANIZED) {
+            return size;
+        }
+        if (organization.getType() == EventTableOrganizationType.HASH) {
+            double perKey = size / (double) Math.max(1, table.getNumKeys());
+            return organization.isUnique() ? Math.min(1, perKey) : perKey;
+        }
+        return size * RANGE_SELECTIVITY;
+    }
+
+    private static Integer getNumberOfEvents(EventTable[] tables) {
+        if (tables == null) {
+            return null;
+        }
+        for (EventTable table : tables) {
+            Integer size = table.getNumberOfEvents();
+            if (size != null) {
+                return size;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isDrifted(long plannedSize, long size) {
+        if (plannedSize < 0) {
+            return true;
+        }
+        double planned = Math.max(1, plannedSize);
+        double actual = Math.max(1, size);
+        return planned / actual >= DRIFT_FACTOR || actual / planned >= DRIFT_FACTOR;
+    }
+
+    public void print(IndentWriter writer)
+    {
+        writer.println("AdaptiveIterationExecNode with nesting order " + Arrays.toString(nestingOrders[current]) + " of " + candidates.length + " candidates");
+        writer.incrIndent();
+        candidates[current].print(writer);
+        writer.decrIndent();
+    }
+}
@@ -0,0 +1,101 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.join.plan;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.epl.join.exec.base.AdaptiveIterationExecNode;
+import com.espertech.esper.epl.join.exec.base.ExecNode;
+import com.espertech.esper.epl.join.table.EventTable;
+import com.espertech.esper.epl.join.table.HistoricalStreamIndexList;
+import com.espertech.esper.epl.virtualdw.VirtualDWView;
+import com.espertech.esper.util.IndentWriter;
+import com.espertech.esper.view.Viewable;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Plan for a nested iteration with alternative nesting orders, of which the execution node selects
+ * one according to runtime statistics.
+ */
+public class AdaptiveIterationNode extends QueryPlanNode
+{
+    private final int streamNum;
+    private final NestedIterationNode[] candidates;
+    private final boolean queryPlanLogging;
+
+    /**
+     * Ctor.
+     * @param streamNum stream the lookups originate from
+     * @param candidates nested iterations, the first one being the initial plan
+     * @param queryPlanLogging indicator whether to log plan changes
+     */
+    public AdaptiveIterationNode(int streamNum, NestedIterationNode[] candidates, boolean queryPlanLogging)
+    {
+        this.streamNum = streamNum;
+        this.candidates = candidates;
+        this.queryPlanLogging = queryPlanLogging;
+    }
+
+    /**
+     * Returns the alternative nested iterations.
+     * @return candidates
+     */
+    public NestedIterationNode[] getCandidates()
+    {
+        return candidates;
+    }
+
+    public ExecNode makeExec(String statementName, int statementId, Annotation[] annotations, Map<TableLookupIndexReqKey, EventTable>[] indexesPerStream, EventType[] streamTypes, Viewable[] streamViews, HistoricalStreamIndexList[] historicalStreamIndexLists, VirtualDWView[] viewExternal, Lock[] tableSecondaryIndexLocks)
+    {
+        int[][] nestingOrders = new int[candidates.length][];
+        ExecNode[] execNodes = new ExecNode[candidates.length];
+        EventTable[][] lookupTables = new EventTable[candidates.length][];
+        for (int i = 0; i < candidates.length; i++) {
+            nestingOrders[i] = candidates[i].getNestingOrder();
+            execNodes[i] = candidates[i].makeExec(statementName, statementId, annotations, indexesPerStream, streamTypes, streamViews, historicalStreamIndexLists, viewExternal, tableSecondaryIndexLocks);
+
+            List<QueryPlanNode> childNodes = candidates[i].getChildNodes();
+            lookupTables[i] = new EventTable[childNodes.size()];
+            for (int j = 0; j < childNodes.size(); j++) {
+                TableLookupPlan lookupPlan = ((TableLookupNode) childNodes.get(j)).getTableLookupPlan();
+                lookupTables[i][j] = indexesPerStream[lookupPlan.getIndexedStream()].get(lookupPlan.getIndexNum()[0]);
+            }
+        }
+
+        EventTable[][] tablesPerStream = new EventTable[indexesPerStream.length][];
+        for (int i = 0; i < indexesPerStream.length; i++) {
+            if (indexesPerStream[i] != null) {
+                tablesPerStream[i] = indexesPerStream[i].values().toArray(new EventTable[indexesPerStream[i].size()]);
+            }
+        }
+        return new AdaptiveIterationExecNode(statementName, streamNum, nestingOrders, execNodes, lookupTables, tablesPerStream, queryPlanLogging);
+    }
+
+    public void addIndexes(HashSet<TableLookupIndexReqKey> usedIndexes)
+    {
+        for (NestedIterationNode candidate : candidates) {
+            candidate.addIndexes(usedIndexes);
+        }
+    }
+
+    protected void print(IndentWriter writer)
+    {
+        writer.println("AdaptiveIterationNode with " + candidates.length + " candidate nesting orders, initially " + Arrays.toString(candidates[0].getNestingOrder()));
+        writer.incrIndent();
+        for (NestedIterationNode candidate : candidates) {
+            candidate.print(writer);
+        }
+        writer.decrIndent();
+    }
+}
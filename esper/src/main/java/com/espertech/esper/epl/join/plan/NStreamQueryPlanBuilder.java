@@ -105,12 +105,19 @@ import java.util.*;
  */
 public class NStreamQueryPlanBuilder
 {
+    /**
+     * Maximum number of alternative nesting orders per stream for adaptive plans.
+     */
+    public final static int MAX_ADAPTIVE_CHAINS = 24;
+
     /**
      * Build a query plan based on the stream property relationships indicated in queryGraph.
      * @param queryGraph - navigation info between streams
      * @param typesPerStream - event types for each stream
      * @param dependencyGraph - dependencies between historical streams
      * @param historicalStreamIndexLists - index management, populated for the query plan
+     * @param isAdaptive - indicator whether to plan alternative nesting orders for selection by runtime statistics
+     * @param isQueryPlanLogging - indicator whether query plan logging is enabled
      * @return query plan
      */
     protected static QueryPlan build(QueryGraph queryGraph,
@@ -120,7 +127,9 @@ public class NStreamQueryPlanBuilder
                                      HistoricalStreamIndexList[] historicalStreamIndexLists,
                                      boolean hasForceNestedIter,
                                      String[][][] indexedStreamsUniqueProps,
-                                     TableMetadata[] tablesPerStream)
+                                     TableMetadata[] tablesPerStream,
+                                     boolean isAdaptive,
+                                     boolean isQueryPlanLogging)
     {
         if (log.isDebugEnabled())
         {
@@ -169,6 +178,18 @@ public class NStreamQueryPlanBuilder
             }
 
             planNodeSpecs[streamNo] = createStreamPlan(streamNo, bestChain, queryGraph, indexSpecs, typesPerStream, historicalViewableDesc.getHistorical(), historicalStreamIndexLists, tablesPerStream);
+
+            // plan alternative fully-navigable nesting orders for selection at runtime
+            if (isAdaptive && bestChainResult.getDepth() == numStreams - 1) {
+                List<int[]> chains = computeNavigableChains(streamNo, queryGraph, bestChain);
+                if (chains.size() > 1) {
+                    NestedIterationNode[] candidates = new NestedIterationNode[chains.size()];
+                    for (int i = 0; i < candidates.length; i++) {
+                        candidates[i] = (NestedIterationNode) createStreamPlan(streamNo, chains.get(i), queryGraph, indexSpecs, typesPerStream, historicalViewableDesc.getHistorical(), historicalStreamIndexLists, tablesPerStream);
+                    }
+                    planNodeSpecs[streamNo] = new AdaptiveIterationNode(streamNo, candidates, isQueryPlanLogging);
+                }
+            }
             if (log.isDebugEnabled())
             {
                 log.debug(".build spec=" + planNodeSpecs[streamNo]);
@@ -463,6 +484,40 @@ public class NStreamQueryPlanBuilder
         return new BestChainResult(bestDepth, bestPermutation);
     }
 
+    /**
+     * Returns the chains for the lookup stream in which all streams can be accessed via an index, starting with
+     * the best chain and up to {@link #MAX_ADAPTIVE_CHAINS} chains.
+     * @param lookupStream - stream to start look up
+     * @param queryGraph - navigability between streams
+     * @param bestChain - best chain as computed by {@link #computeBestPath}
+     * @return chains
+     */
+    protected static List<int[]> computeNavigableChains(int lookupStream, QueryGraph queryGraph, int[] bestChain)
+    {
+        List<int[]> chains = new ArrayList<int[]>();
+        chains.add(bestChain);
+
+        int[] defNestingorder = buildDefaultNestingOrder(queryGraph.getNumStreams(), lookupStream);
+        Enumeration<int[]> streamEnum;
+        if (defNestingorder.length < 6) {
+            streamEnum = new NumberSetPermutationEnumeration(defNestingorder);
+        }
+        else {
+            streamEnum = new NumberSetShiftGroupEnumeration(defNestingorder);
+        }
+        while (streamEnum.hasMoreElements() && chains.size() < MAX_ADAPTIVE_CHAINS)
+        {
+            int[] permutation = streamEnum.nextElement();
+            if (Arrays.equals(permutation, bestChain)) {
+                continue;
+            }
+            if (computeNavigableDepth(lookupStream, permutation, queryGraph) == queryGraph.getNumStreams() - 1) {
+                chains.add(permutation);
+            }
+        }
+        return chains;
+    }
+
     /**
      * Determine if the proposed permutation of lookups passes dependencies
      * @param lookupStream stream to initiate
@@ -88,6 +88,7 @@ public class QueryPlanBuilder
 
         boolean hasPreferMergeJoin = HintEnum.PREFER_MERGE_JOIN.getHint(annotations) != null;
         boolean hasForceNestedIter = HintEnum.FORCE_NESTED_ITER.getHint(annotations) != null;
+        boolean isAdaptive = HintEnum.ADAPTIVE_JOIN.getHint(annotations) != null && isAdaptiveCapable(historicalViewableDesc, streamJoinAnalysisResult);
         boolean isAllInnerJoins = outerJoinDescList.length == 0 || OuterJoinDesc.consistsOfAllInnerJoins(outerJoinDescList);
         
         if (isAllInnerJoins && !hasPreferMergeJoin)
@@ -95,7 +96,7 @@ public class QueryPlanBuilder
             QueryPlan queryPlan = NStreamQueryPlanBuilder.build(queryGraph, typesPerStream,
                                     historicalViewableDesc, dependencyGraph, historicalStreamIndexLists,
                                     hasForceNestedIter, streamJoinAnalysisResult.getUniqueKeys(),
-                                    streamJoinAnalysisResult.getTablesPerStream());
+                                    streamJoinAnalysisResult.getTablesPerStream(), isAdaptive, isQueryPlanLogging);
 
             if (queryPlan != null) {
                 removeUnidirectionalAndTable(queryPlan, streamJoinAnalysisResult);
@@ -119,6 +120,19 @@ public class QueryPlanBuilder
         return queryPlan;
     }
 
+    // Adaptive plans require statement-managed indexes for all streams
+    private static boolean isAdaptiveCapable(HistoricalViewableDesc historicalViewableDesc, StreamJoinAnalysisResult streamJoinAnalysisResult) {
+        if (historicalViewableDesc.isHasHistorical()) {
+            return false;
+        }
+        for (int streamNum = 0; streamNum < streamJoinAnalysisResult.getNumStreams(); streamNum++) {
+            if (streamJoinAnalysisResult.getTablesPerStream()[streamNum] != null || streamJoinAnalysisResult.getViewExternal()[streamNum] != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     // Remove plans for non-unidirectional streams
     private static void removeUnidirectionalAndTable(QueryPlan queryPlan, StreamJoinAnalysisResult streamJoinAnalysisResult) {
         for (int streamNum = 0; streamNum < queryPlan.getExecNodeSpecs().length; streamNum++) {
@@ -18,14 +18,20 @@ public class EventTableOrganization {
     private final int streamNum;
     private final String[] expressions;
     private final EventTableOrganizationType type;
+    private final boolean concurrentRead;
 
     public EventTableOrganization(String indexName, boolean unique, boolean coercing, int streamNum, String[] expressions, EventTableOrganizationType type) {
+        this(indexName, unique, coercing, streamNum, expressions, type, false);
+    }
+
+    public EventTableOrganization(String indexName, boolean unique, boolean coercing, int streamNum, String[] expressions, EventTableOrganizationType type, boolean concurrentRead) {
         this.indexName = indexName;
         this.unique = unique;
         this.coercing = coercing;
         this.streamNum = streamNum;
         this.expressions = expressions;
         this.type = type;
+        this.concurrentRead = concurrentRead;
     }
 
     public String getIndexName() {
@@ -52,4 +58,12 @@ public class EventTableOrganization {
         return coercing;
     }
 
+    /**
+     * Returns indicator whether the index can be read without holding the lock of the writer.
+     * @return concurrent-read indicator
+     */
+    public boolean isConcurrentRead() {
+        return concurrentRead;
+    }
+
 }
@@ -25,6 +25,20 @@ public class EventTableUtil
      * @return table build
      */
     public static EventTable buildIndex(AgentInstanceContext agentInstanceContext, int indexedStreamNum, QueryPlanIndexItem item, EventType eventType, boolean coerceOnAddOnly, boolean unique, String optionalIndexName, Object optionalSerde, boolean isFireAndForget)
+    {
+        return buildIndex(agentInstanceContext, indexedStreamNum, item, eventType, coerceOnAddOnly, unique, optionalIndexName, optionalSerde, isFireAndForget, false);
+    }
+
+    /**
+     * Build an index/table instance using the event properties for the event type.
+     * When requesting concurrent reads, hash indexes that do not coerce or coerce on add allow lookups without the lock of the writer.
+     *
+     * @param indexedStreamNum - number of stream indexed
+     * @param eventType - type of event to expect
+     * @param concurrentRead - whether hash indexes allow lock-free reads
+     * @return table build
+     */
+    public static EventTable buildIndex(AgentInstanceContext agentInstanceContext, int indexedStreamNum, QueryPlanIndexItem item, EventType eventType, boolean coerceOnAddOnly, boolean unique, String optionalIndexName, Object optionalSerde, boolean isFireAndForget, boolean concurrentRead)
     {
         String[] indexProps = item.getIndexProps();
         Class[] indexCoercionTypes = normalize(item.getOptIndexCoercionTypes());
@@ -46,13 +60,13 @@ public class EventTableUtil
                 if (indexProps.length == 1) {
                     if (indexCoercionTypes == null || indexCoercionTypes.length == 0)
                     {
-                        EventTableFactory factory = eventTableIndexService.createSingle(indexedStreamNum, eventType, indexProps[0], unique, optionalIndexName, optionalSerde, isFireAndForget);
+                        EventTableFactory factory = eventTableIndexService.createSingle(indexedStreamNum, eventType, indexProps[0], unique, optionalIndexName, optionalSerde, isFireAndForget, concurrentRead);
                         table = factory.makeEventTables(ident)[0];
                     }
                     else
                     {
                         if (coerceOnAddOnly) {
-                            EventTableFactory factory = eventTableIndexService.createSingleCoerceAdd(indexedStreamNum, eventType, indexProps[0], indexCoercionTypes[0], optionalSerde, isFireAndForget);
+                            EventTableFactory factory = eventTableIndexService.createSingleCoerceAdd(indexedStreamNum, eventType, indexProps[0], indexCoercionTypes[0], optionalSerde, isFireAndForget, concurrentRead);
                             table = factory.makeEventTables(ident)[0];
                         }
                         else {
@@ -65,13 +79,13 @@ public class EventTableUtil
                 else {
                     if (indexCoercionTypes == null || indexCoercionTypes.length == 0)
                     {
-                        EventTableFactory factory = eventTableIndexService.createMultiKey(indexedStreamNum, eventType, indexProps, unique, optionalIndexName, optionalSerde, isFireAndForget);
+                        EventTableFactory factory = eventTableIndexService.createMultiKey(indexedStreamNum, eventType, indexProps, unique, optionalIndexName, optionalSerde, isFireAndForget, concurrentRead);
                         table = factory.makeEventTables(ident)[0];
                     }
                     else
                     {
                         if (coerceOnAddOnly) {
-                            EventTableFactory factory = eventTableIndexService.createMultiKeyCoerceAdd(indexedStreamNum, eventType, indexProps, indexCoercionTypes, isFireAndForget);
+                            EventTableFactory factory = eventTableIndexService.createMultiKeyCoerceAdd(indexedStreamNum, eventType, indexProps, indexCoercionTypes, isFireAndForget, concurrentRead);
                             table = factory.makeEventTables(ident)[0];
                         }
                         else {
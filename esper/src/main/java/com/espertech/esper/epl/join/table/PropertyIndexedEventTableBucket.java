@@ -0,0 +1,245 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.join.table;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.ArrayEventIterator;
+import com.espertech.esper.collection.SingleEventIterator;
+
+import java.util.*;
+
+/**
+ * Compact organization of the events of a hash index bucket, for use by the non-unique hash index event tables.
+ * <p>
+ * A bucket that holds a single event is the event itself, a bucket holding up to {@link #MAX_ARRAY_SIZE} events
+ * is an event array in insertion order and a larger bucket is promoted to a linked hash set. Event arrays are not
+ * changed once stored, adding or removing events replaces the array. A promoted bucket that shrinks to
+ * {@link #DEMOTE_SIZE} events is demoted to an event array.
+ * <p>
+ * Indexes that allow concurrent reads add events copy-on-write, never promoting a bucket, so that a bucket
+ * obtained by a reader does not change.
+ */
+public final class PropertyIndexedEventTableBucket
+{
+    /**
+     * Maximum number of events in a bucket kept as an event array.
+     */
+    public final static int MAX_ARRAY_SIZE = 8;
+
+    /**
+     * Number of events at which a promoted bucket is demoted to an event array.
+     */
+    public final static int DEMOTE_SIZE = 4;
+
+    private PropertyIndexedEventTableBucket() {
+    }
+
+    /**
+     * Adds an event to a bucket, returning the bucket to store. Same event is not added twice.
+     * @param bucket the current bucket or null if there is no bucket
+     * @param theEvent to add
+     * @return bucket to store, same as the current bucket if the bucket was changed in place or the event already exists
+     */
+    public static Object add(Object bucket, EventBean theEvent)
+    {
+        return add(bucket, theEvent, false);
+    }
+
+    /**
+     * Adds an event to a bucket, returning the bucket to store. Same event is not added twice.
+     * @param bucket the current bucket or null if there is no bucket
+     * @param theEvent to add
+     * @param copyOnWrite true to keep the bucket an event array regardless of size
+     * @return bucket to store, same as the current bucket if the bucket was changed in place or the event already exists
+     */
+    public static Object add(Object bucket, EventBean theEvent, boolean copyOnWrite)
+    {
+        if (bucket == null)
+        {
+            return theEvent;
+        }
+        if (bucket instanceof EventBean)
+        {
+            if (bucket.equals(theEvent))
+            {
+                return bucket;
+            }
+            return new EventBean[] {(EventBean) bucket, theEvent};
+        }
+        if (bucket instanceof EventBean[])
+        {
+            EventBean[] events = (EventBean[]) bucket;
+            for (EventBean existing : events)
+            {
+                if (existing.equals(theEvent))
+                {
+                    return bucket;
+                }
+            }
+            if (copyOnWrite || events.length < MAX_ARRAY_SIZE)
+            {
+                EventBean[] added = new EventBean[events.length + 1];
+                System.arraycopy(events, 0, added, 0, events.length);
+                added[events.length] = theEvent;
+                return added;
+            }
+            Set<EventBean> set = new LinkedHashSet<EventBean>(events.length * 2 + 2);
+            Collections.addAll(set, events);
+            set.add(theEvent);
+            return set;
+        }
+        ((Set<EventBean>) bucket).add(theEvent);
+        return bucket;
+    }
+
+    /**
+     * Removes an event from a bucket, returning the bucket to store.
+     * @param bucket the current bucket, not null
+     * @param theEvent to remove
+     * @return bucket to store, same as the current bucket if the bucket was changed in place or the event was not found,
+     * or null if the bucket is now empty
+     */
+    public static Object remove(Object bucket, EventBean theEvent)
+    {
+        if (bucket instanceof EventBean)
+        {
+            return bucket.equals(theEvent) ? null : bucket;
+        }
+        if (bucket instanceof EventBean[])
+        {
+            EventBean[] events = (EventBean[]) bucket;
+            int index = -1;
+            for (int i = 0; i < events.length; i++)
+            {
+                if (events[i].equals(theEvent))
+                {
+                    index = i;
+                    break;
+                }
+            }
+            if (index == -1)
+            {
+                return bucket;
+            }
+            if (events.length == 2)
+            {
+                return events[1 - index];
+            }
+            EventBean[] removed = new EventBean[events.length - 1];
+            System.arraycopy(events, 0, removed, 0, index);
+            System.arraycopy(events, index + 1, removed, index, events.length - index - 1);
+            return removed;
+        }
+        Set<EventBean> set = (Set<EventBean>) bucket;
+        if (!set.remove(theEvent))
+        {
+            return bucket;
+        }
+        if (set.size() > DEMOTE_SIZE)
+        {
+            return bucket;
+        }
+        return set.toArray(new EventBean[set.size()]);
+    }
+
+    /**
+     * Returns the events of a bucket as a set. Sets returned for events arrays and single events are not modifiable.
+     * @param bucket the bucket or null if there is no bucket
+     * @return set of events, or null if there is no bucket
+     */
+    public static Set<EventBean> asSet(Object bucket)
+    {
+        if (bucket == null)
+        {
+            return null;
+        }
+        if (bucket instanceof EventBean)
+        {
+            return Collections.singleton((EventBean) bucket);
+        }
+        if (bucket instanceof EventBean[])
+        {
+            return new ArraySet((EventBean[]) bucket);
+        }
+        return (Set<EventBean>) bucket;
+    }
+
+    /**
+     * Returns an iterator over the events of a bucket.
+     * @param bucket the bucket, not null
+     * @return iterator
+     */
+    public static Iterator<EventBean> iterator(Object bucket)
+    {
+        if (bucket instanceof EventBean)
+        {
+            return new SingleEventIterator((EventBean) bucket);
+        }
+        if (bucket instanceof EventBean[])
+        {
+            return new ArrayEventIterator((EventBean[]) bucket);
+        }
+        return ((Set<EventBean>) bucket).iterator();
+    }
+
+    /**
+     * Returns the number of events in a bucket.
+     * @param bucket the bucket, not null
+     * @return number of events
+     */
+    public static int size(Object bucket)
+    {
+        if (bucket instanceof EventBean)
+        {
+            return 1;
+        }
+        if (bucket instanceof EventBean[])
+        {
+            return ((EventBean[]) bucket).length;
+        }
+        return ((Set<EventBean>) bucket).size();
+    }
+
+    private static class ArraySet extends AbstractSet<EventBean>
+    {
+        private final EventBean[] events;
+
+        private ArraySet(EventBean[] events)
+        {
+            this.events = events;
+        }
+
+        public Iterator<EventBean> iterator()
+        {
+            return new ArrayEventIterator(events);
+        }
+
+        public int size()
+        {
+            return events.length;
+        }
+
+        public boolean contains(Object o)
+        {
+            for (EventBean theEvent : events)
+            {
+                if (theEvent.equals(o))
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public Object[] toArray()
+        {
+            return Arrays.copyOf(events, events.length, Object[].class);
+        }
+    }
+}
@@ -36,7 +36,20 @@ public class PropertyIndexedEventTableCoerceAddFactory extends PropertyIndexedEv
      */
     public PropertyIndexedEventTableCoerceAddFactory(int streamNum, EventType eventType, String[] propertyNames, Class[] coercionType)
     {
-        super(streamNum, eventType, propertyNames, false, null);
+        this(streamNum, eventType, propertyNames, coercionType, false);
+    }
+
+    /**
+     * Ctor.
+     * @param streamNum is the stream number of the indexed stream
+     * @param eventType is the event type of the indexed stream
+     * @param propertyNames are the property names to get property values
+     * @param coercionType are the classes to coerce indexed values to
+     * @param concurrentRead true for indexes that allow reads without holding the lock of the writer
+     */
+    public PropertyIndexedEventTableCoerceAddFactory(int streamNum, EventType eventType, String[] propertyNames, Class[] coercionType, boolean concurrentRead)
+    {
+        super(streamNum, eventType, propertyNames, false, null, concurrentRead);
         this.coercionType = coercionType;
         coercers = new SimpleNumberCoercer[coercionType.length];
         for (int i = 0; i < coercionType.length; i++)
@@ -53,6 +66,6 @@ public class PropertyIndexedEventTableCoerceAddFactory extends PropertyIndexedEv
     }
 
     protected EventTableOrganization getOrganization() {
-        return new EventTableOrganization(optionalIndexName, unique, true, streamNum, propertyNames, EventTableOrganizationType.HASH);
+        return new EventTableOrganization(optionalIndexName, unique, true, streamNum, propertyNames, EventTableOrganizationType.HASH, concurrentRead);
     }
 }
@@ -52,7 +52,7 @@ public class PropertyIndexedEventTableCoerceAll extends PropertyIndexedEventTabl
             }
         }
         MultiKeyUntyped key = new MultiKeyUntyped(keys);
-        return propertyIndex.get(key);
+        return PropertyIndexedEventTableBucket.asSet(propertyIndex.get(key));
     }
 
 }
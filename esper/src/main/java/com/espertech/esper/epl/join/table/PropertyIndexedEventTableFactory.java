@@ -28,6 +28,7 @@ public class PropertyIndexedEventTableFactory implements EventTableFactory
     protected final String[] propertyNames;
     protected final boolean unique;
     protected final String optionalIndexName;
+    protected final boolean concurrentRead;
 
     /**
      * Getters for properties.
@@ -43,11 +44,26 @@ public class PropertyIndexedEventTableFactory implements EventTableFactory
      * @param optionalIndexName
      */
     public PropertyIndexedEventTableFactory(int streamNum, EventType eventType, String[] propertyNames, boolean unique, String optionalIndexName)
+    {
+        this(streamNum, eventType, propertyNames, unique, optionalIndexName, false);
+    }
+
+    /**
+     * Ctor.
+     * @param streamNum - the stream number that is indexed
+     * @param eventType - types of events indexed
+     * @param propertyNames - property names to use for indexing
+     * @param unique
+     * @param optionalIndexName
+     * @param concurrentRead - true for indexes that allow reads without holding the lock of the writer
+     */
+    public PropertyIndexedEventTableFactory(int streamNum, EventType eventType, String[] propertyNames, boolean unique, String optionalIndexName, boolean concurrentRead)
     {
         this.streamNum = streamNum;
         this.propertyNames = propertyNames;
         this.unique = unique;
         this.optionalIndexName = optionalIndexName;
+        this.concurrentRead = concurrentRead;
 
         // Init getters
         propertyGetters = new EventPropertyGetter[propertyNames.length];
@@ -106,7 +122,7 @@ public class PropertyIndexedEventTableFactory implements EventTableFactory
 
     protected EventTableOrganization getOrganization() {
         return new EventTableOrganization(optionalIndexName, unique, false,
-                streamNum, propertyNames, EventTableOrganizationType.HASH);
+                streamNum, propertyNames, EventTableOrganizationType.HASH, concurrentRead);
     }
 
     private static Logger log = LoggerFactory.getLogger(PropertyIndexedEventTableFactory.class);
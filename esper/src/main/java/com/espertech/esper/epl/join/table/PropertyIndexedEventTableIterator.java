@@ -9,34 +9,30 @@
 package com.espertech.esper.epl.join.table;
 
 import com.espertech.esper.client.EventBean;
-import com.espertech.esper.collection.MultiKeyUntyped;
 
 import java.util.Iterator;
-import java.util.Map;
 import java.util.NoSuchElementException;
-import java.util.Set;
 
 /**
- * Iterator for use by {@link com.espertech.esper.epl.join.table.PropertyIndexedEventTableUnadorned}.
+ * Iterator for use by {@link com.espertech.esper.epl.join.table.PropertyIndexedEventTableUnadorned}
+ * and the single-property non-unique index event tables, iterating the events of buckets as organized by
+ * {@link PropertyIndexedEventTableBucket}.
  */
-public final class PropertyIndexedEventTableIterator<T> implements Iterator<EventBean>
+public final class PropertyIndexedEventTableIterator implements Iterator<EventBean>
 {
-    private final Map<T, Set<EventBean>> window;
-    private final Iterator<T> keyIterator;
+    private final Iterator<Object> bucketIterator;
     private Iterator<EventBean> currentListIterator;
 
     /**
      * Ctor.
-     * @param window - sorted map with events
+     * @param buckets - the buckets of the index, none empty
      */
-    public PropertyIndexedEventTableIterator(Map<T, Set<EventBean>> window)
+    public PropertyIndexedEventTableIterator(Iterator<Object> buckets)
     {
-        this.window = window;
-        keyIterator = window.keySet().iterator();
-        if (keyIterator.hasNext())
+        this.bucketIterator = buckets;
+        if (bucketIterator.hasNext())
         {
-            T initialKey = keyIterator.next();
-            currentListIterator = window.get(initialKey).iterator();
+            currentListIterator = PropertyIndexedEventTableBucket.iterator(bucketIterator.next());
         }
     }
 
@@ -52,10 +48,9 @@ public final class PropertyIndexedEventTableIterator<T> implements Iterator<Even
         if (!currentListIterator.hasNext())
         {
             currentListIterator = null;
-            if (keyIterator.hasNext())
+            if (bucketIterator.hasNext())
             {
-                T nextKey = keyIterator.next();
-                currentListIterator = window.get(nextKey).iterator();
+                currentListIterator = PropertyIndexedEventTableBucket.iterator(bucketIterator.next());
             }
         }
 
@@ -76,7 +71,7 @@ public final class PropertyIndexedEventTableIterator<T> implements Iterator<Even
 
         currentListIterator = null;
 
-        if (!keyIterator.hasNext())
+        if (!bucketIterator.hasNext())
         {
             return false;
         }
@@ -23,6 +23,11 @@ public abstract class PropertyIndexedEventTableSingle implements EventTable
     protected final EventPropertyGetter propertyGetter;
     protected final EventTableOrganization organization;
 
+    /**
+     * Stands in for the null key in indexes that allow concurrent reads, since concurrent maps do not allow null keys.
+     */
+    protected final static Object NULL_KEY = new Object();
+
     public abstract Set<EventBean> lookup(Object key);
 
     public PropertyIndexedEventTableSingle(EventPropertyGetter propertyGetter, EventTableOrganization organization)
@@ -41,6 +46,19 @@ public abstract class PropertyIndexedEventTableSingle implements EventTable
         return propertyGetter.get(theEvent);
     }
 
+    /**
+     * Returns the key to use for the index map, which is the key itself unless the index allows concurrent reads and the key is null.
+     * @param key property value
+     * @return map key
+     */
+    protected Object toMapKey(Object key)
+    {
+        if (key == null && organization.isConcurrentRead()) {
+            return NULL_KEY;
+        }
+        return key;
+    }
+
     public void addRemove(EventBean[] newData, EventBean[] oldData) {
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qIndexAddRemove(this, newData, oldData);}
         if (newData != null) {
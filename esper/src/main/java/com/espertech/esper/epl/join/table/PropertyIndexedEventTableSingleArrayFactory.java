@@ -28,6 +28,7 @@ public class PropertyIndexedEventTableSingleArrayFactory implements EventTableFa
     protected final String optionalIndexName;
 
     protected final EventPropertyGetter[] propertyGetters;
+    protected final Class[] integralBoxedTypes;
 
     /**
      * Ctor.
@@ -43,8 +44,10 @@ public class PropertyIndexedEventTableSingleArrayFactory implements EventTableFa
 
         // Init getters
         propertyGetters = new EventPropertyGetter[propertyNames.length];
+        integralBoxedTypes = new Class[propertyNames.length];
         for (int i = 0; i < propertyNames.length; i++) {
             propertyGetters[i] = EventBeanUtility.getAssertPropertyGetter(eventType, propertyNames[i]);
+            integralBoxedTypes[i] = PropertyIndexedEventTableSingleFactory.getIntegralBoxedType(eventType, propertyNames[i]);
         }
     }
 
@@ -59,7 +62,7 @@ public class PropertyIndexedEventTableSingleArrayFactory implements EventTableFa
         else {
             for (int i = 0; i < tables.length; i++) {
                 EventTableOrganization organization = new EventTableOrganization(optionalIndexName, unique, false, streamNum, new String[] {propertyNames[i]}, EventTableOrganizationType.HASH);
-                tables[i] = new PropertyIndexedEventTableSingleUnadorned(propertyGetters[i], organization);
+                tables[i] = PropertyIndexedEventTableSingleFactory.makeNonUnique(propertyGetters[i], organization, integralBoxedTypes[i]);
             }
         }
         return tables;
@@ -27,7 +27,20 @@ public class PropertyIndexedEventTableSingleCoerceAddFactory extends PropertyInd
      */
     public PropertyIndexedEventTableSingleCoerceAddFactory(int streamNum, EventType eventType, String propertyName, Class coercionType)
     {
-        super(streamNum, eventType, propertyName, false, null);
+        this(streamNum, eventType, propertyName, coercionType, false);
+    }
+
+    /**
+     * Ctor.
+     * @param streamNum is the stream number of the indexed stream
+     * @param eventType is the event type of the indexed stream
+     * @param propertyName are the property names to get property values
+     * @param coercionType are the classes to coerce indexed values to
+     * @param concurrentRead true for indexes that allow reads without holding the lock of the writer
+     */
+    public PropertyIndexedEventTableSingleCoerceAddFactory(int streamNum, EventType eventType, String propertyName, Class coercionType, boolean concurrentRead)
+    {
+        super(streamNum, eventType, propertyName, false, null, concurrentRead);
         this.coercionType = coercionType;
         if (JavaClassHelper.isNumeric(coercionType)) {
             coercer = SimpleNumberCoercerFactory.getCoercer(null, coercionType);
@@ -44,6 +57,6 @@ public class PropertyIndexedEventTableSingleCoerceAddFactory extends PropertyInd
     }
 
     protected EventTableOrganization getOrganization() {
-        return new EventTableOrganization(optionalIndexName, unique, true, streamNum, new String[] {propertyName}, EventTableOrganizationType.HASH);
+        return new EventTableOrganization(optionalIndexName, unique, true, streamNum, new String[] {propertyName}, EventTableOrganizationType.HASH, concurrentRead);
     }
 }
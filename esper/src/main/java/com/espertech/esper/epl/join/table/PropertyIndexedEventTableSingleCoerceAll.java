@@ -31,6 +31,6 @@ public class PropertyIndexedEventTableSingleCoerceAll extends PropertyIndexedEve
     public Set<EventBean> lookup(Object key)
     {
         key = EventBeanUtility.coerce(key, coercionType);
-        return propertyIndex.get(key);
+        return PropertyIndexedEventTableBucket.asSet(propertyIndex.get(key));
     }
 }
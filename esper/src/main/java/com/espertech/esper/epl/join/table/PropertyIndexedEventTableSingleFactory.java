@@ -11,6 +11,7 @@ package com.espertech.esper.epl.join.table;
 import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.event.EventBeanUtility;
+import com.espertech.esper.util.JavaClassHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,8 +25,10 @@ public class PropertyIndexedEventTableSingleFactory implements EventTableFactory
     protected final String propertyName;
     protected final boolean unique;
     protected final String optionalIndexName;
+    protected final boolean concurrentRead;
 
     protected final EventPropertyGetter propertyGetter;
+    protected final Class integralBoxedType;
 
     /**
      * Ctor.
@@ -33,24 +36,40 @@ public class PropertyIndexedEventTableSingleFactory implements EventTableFactory
      * @param eventType - types of events indexed
      */
     public PropertyIndexedEventTableSingleFactory(int streamNum, EventType eventType, String propertyName, boolean unique, String optionalIndexName)
+    {
+        this(streamNum, eventType, propertyName, unique, optionalIndexName, false);
+    }
+
+    /**
+     * Ctor.
+     * @param streamNum - the stream number that is indexed
+     * @param eventType - types of events indexed
+     * @param concurrentRead - true for indexes that allow reads without holding the lock of the writer
+     */
+    public PropertyIndexedEventTableSingleFactory(int streamNum, EventType eventType, String propertyName, boolean unique, String optionalIndexName, boolean concurrentRead)
     {
         this.streamNum = streamNum;
         this.propertyName = propertyName;
         this.unique = unique;
         this.optionalIndexName = optionalIndexName;
+        this.concurrentRead = concurrentRead;
 
         // Init getters
         propertyGetter = EventBeanUtility.getAssertPropertyGetter(eventType, propertyName);
+        integralBoxedType = getIntegralBoxedType(eventType, propertyName);
     }
 
     public EventTable[] makeEventTables(EventTableFactoryTableIdent tableIdent) {
-        EventTableOrganization organization = new EventTableOrganization(optionalIndexName, unique, false, streamNum, new String[] {propertyName}, EventTableOrganizationType.HASH);
+        EventTableOrganization organization = new EventTableOrganization(optionalIndexName, unique, false, streamNum, new String[] {propertyName}, EventTableOrganizationType.HASH, concurrentRead);
         if (unique) {
             return new EventTable[] {new PropertyIndexedEventTableSingleUnique(propertyGetter, organization)};
         }
-        else {
+        else if (concurrentRead) {
             return new EventTable[] {new PropertyIndexedEventTableSingleUnadorned(propertyGetter, organization)};
         }
+        else {
+            return new EventTable[] {makeNonUnique(propertyGetter, organization, integralBoxedType)};
+        }
     }
 
     public Class getEventTableClass() {
@@ -69,5 +88,34 @@ public class PropertyIndexedEventTableSingleFactory implements EventTableFactory
                 " propertyName=" + propertyName;
     }
 
+    /**
+     * Returns the boxed property type if the property is of an integral number type (long, int, short or byte),
+     * for keying a non-unique index by the primitive value, or null for any other property type.
+     * @param eventType type of events indexed
+     * @param propertyName indexed property
+     * @return boxed integral type or null
+     */
+    protected static Class getIntegralBoxedType(EventType eventType, String propertyName) {
+        Class type = JavaClassHelper.getBoxedType(eventType.getPropertyType(propertyName));
+        if (type == Long.class || type == Integer.class || type == Short.class || type == Byte.class) {
+            return type;
+        }
+        return null;
+    }
+
+    /**
+     * Makes a non-unique index for a single property.
+     * @param propertyGetter getter for the property
+     * @param organization index organization
+     * @param integralBoxedType boxed integral type of the property or null for any other property type
+     * @return index
+     */
+    protected static PropertyIndexedEventTableSingle makeNonUnique(EventPropertyGetter propertyGetter, EventTableOrganization organization, Class integralBoxedType) {
+        if (integralBoxedType != null) {
+            return new PropertyIndexedEventTableSingleLong(propertyGetter, organization, integralBoxedType);
+        }
+        return new PropertyIndexedEventTableSingleUnadorned(propertyGetter, organization);
+    }
+
     private static Logger log = LoggerFactory.getLogger(PropertyIndexedEventTableSingleFactory.class);
 }
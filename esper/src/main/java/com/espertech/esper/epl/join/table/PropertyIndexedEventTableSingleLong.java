@@ -0,0 +1,183 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.join.table;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.collection.LongHashMap;
+import com.espertech.esper.collection.SuperIterator;
+import com.espertech.esper.event.bean.LambdaPrimitivePropertyGetter;
+
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Non-unique index for a single property of an integral number type (long, int, short or byte) that is keyed by
+ * the primitive long value using open addressing, see {@link LongHashMap}, with buckets organized
+ * as described by {@link PropertyIndexedEventTableBucket}.
+ * <p>
+ * Lookup only matches keys of the same boxed type as the property, same as a hash map of boxed keys.
+ * Primitive property getters supply the key without boxing. A null key, possible only for a boxed property type,
+ * is kept separately.
+ */
+public class PropertyIndexedEventTableSingleLong extends PropertyIndexedEventTableSingle
+{
+    private final Class boxedType;
+    private final LambdaPrimitivePropertyGetter primitiveGetter;
+    private final LongHashMap<Object> propertyIndex;
+    private Object nullKeyBucket;
+    private int numEvents;
+
+    /**
+     * Ctor.
+     * @param propertyGetter getter for the property
+     * @param organization index organization
+     * @param boxedType boxed integral type of the property
+     */
+    public PropertyIndexedEventTableSingleLong(EventPropertyGetter propertyGetter, EventTableOrganization organization, Class boxedType)
+    {
+        super(propertyGetter, organization);
+        this.boxedType = boxedType;
+        this.primitiveGetter = propertyGetter instanceof LambdaPrimitivePropertyGetter ? (LambdaPrimitivePropertyGetter) propertyGetter : null;
+        this.propertyIndex = new LongHashMap<Object>();
+    }
+
+    /**
+     * Returns the set of events that have the same property value as the given event.
+     * @param key to compare against
+     * @return set of events with property value, or null if none found (never returns zero-sized set)
+     */
+    public Set<EventBean> lookup(Object key)
+    {
+        if (key == null)
+        {
+            return PropertyIndexedEventTableBucket.asSet(nullKeyBucket);
+        }
+        if (key.getClass() != boxedType)
+        {
+            return null;
+        }
+        return PropertyIndexedEventTableBucket.asSet(propertyIndex.get(((Number) key).longValue()));
+    }
+
+    public void add(EventBean theEvent)
+    {
+        if (primitiveGetter != null)
+        {
+            addKey(primitiveGetter.getLong(theEvent), theEvent);
+            return;
+        }
+        Object key = getKey(theEvent);
+        if (key == null)
+        {
+            int sizeBefore = nullKeyBucket == null ? 0 : PropertyIndexedEventTableBucket.size(nullKeyBucket);
+            nullKeyBucket = PropertyIndexedEventTableBucket.add(nullKeyBucket, theEvent);
+            numEvents += PropertyIndexedEventTableBucket.size(nullKeyBucket) - sizeBefore;
+            return;
+        }
+        addKey(((Number) key).longValue(), theEvent);
+    }
+
+    public void remove(EventBean theEvent)
+    {
+        if (primitiveGetter != null)
+        {
+            removeKey(primitiveGetter.getLong(theEvent), theEvent);
+            return;
+        }
+        Object key = getKey(theEvent);
+        if (key == null)
+        {
+            if (nullKeyBucket != null)
+            {
+                int sizeBefore = PropertyIndexedEventTableBucket.size(nullKeyBucket);
+                nullKeyBucket = PropertyIndexedEventTableBucket.remove(nullKeyBucket, theEvent);
+                numEvents -= sizeBefore - (nullKeyBucket == null ? 0 : PropertyIndexedEventTableBucket.size(nullKeyBucket));
+            }
+            return;
+        }
+        removeKey(((Number) key).longValue(), theEvent);
+    }
+
+    public boolean isEmpty()
+    {
+        return propertyIndex.isEmpty() && nullKeyBucket == null;
+    }
+
+    public Iterator<EventBean> iterator()
+    {
+        Iterator<EventBean> iterator = new PropertyIndexedEventTableIterator(propertyIndex.values().iterator());
+        if (nullKeyBucket == null)
+        {
+            return iterator;
+        }
+        return new SuperIterator<EventBean>(iterator, PropertyIndexedEventTableBucket.iterator(nullKeyBucket));
+    }
+
+    public void clear()
+    {
+        propertyIndex.clear();
+        nullKeyBucket = null;
+        numEvents = 0;
+    }
+
+    public void destroy() {
+        clear();
+    }
+
+    public Integer getNumberOfEvents() {
+        return numEvents;
+    }
+
+    public int getNumKeys() {
+        return propertyIndex.size() + (nullKeyBucket == null ? 0 : 1);
+    }
+
+    public Object getIndex() {
+        return propertyIndex;
+    }
+
+    public Class getProviderClass() {
+        return PropertyIndexedEventTableSingle.class;
+    }
+
+    private void addKey(long key, EventBean theEvent)
+    {
+        Object bucket = propertyIndex.get(key);
+        int sizeBefore = bucket == null ? 0 : PropertyIndexedEventTableBucket.size(bucket);
+        Object updated = PropertyIndexedEventTableBucket.add(bucket, theEvent);
+        numEvents += PropertyIndexedEventTableBucket.size(updated) - sizeBefore;
+        if (updated != bucket)
+        {
+            propertyIndex.put(key, updated);
+        }
+    }
+
+    private void removeKey(long key, EventBean theEvent)
+    {
+        Object bucket = propertyIndex.get(key);
+        if (bucket == null)
+        {
+            return;
+        }
+
+        // Not finding the event is not an error, the old-data event may be artificial (such as for statistics)
+        int sizeBefore = PropertyIndexedEventTableBucket.size(bucket);
+        Object updated = PropertyIndexedEventTableBucket.remove(bucket, theEvent);
+        numEvents -= sizeBefore - (updated == null ? 0 : PropertyIndexedEventTableBucket.size(updated));
+        if (updated == null)
+        {
+            propertyIndex.remove(key);
+        }
+        else if (updated != bucket)
+        {
+            propertyIndex.put(key, updated);
+        }
+    }
+}
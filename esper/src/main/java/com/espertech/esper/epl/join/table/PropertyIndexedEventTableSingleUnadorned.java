@@ -12,19 +12,30 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Index that organizes events by the event property values into hash buckets. Based on a HashMap
  * with {@link com.espertech.esper.collection.MultiKeyUntyped} keys that store the property values.
+ * <p>
+ * Buckets are organized compactly as described by {@link PropertyIndexedEventTableBucket}. When the organization
+ * allows concurrent reads the index is a concurrent map and buckets are copy-on-write, so that lookups do not
+ * require the lock held by the writer.
  */
 public class PropertyIndexedEventTableSingleUnadorned extends PropertyIndexedEventTableSingle
 {
-    protected final Map<Object, Set<EventBean>> propertyIndex;
+    protected final Map<Object, Object> propertyIndex;
+    private int numEvents;
 
     public PropertyIndexedEventTableSingleUnadorned(EventPropertyGetter propertyGetter, EventTableOrganization organization)
     {
         super(propertyGetter, organization);
-        propertyIndex = new HashMap<Object, Set<EventBean>>();
+        if (organization.isConcurrentRead()) {
+            propertyIndex = new ConcurrentHashMap<Object, Object>();
+        }
+        else {
+            propertyIndex = new HashMap<Object, Object>();
+        }
     }
 
     /**
@@ -34,43 +45,45 @@ public class PropertyIndexedEventTableSingleUnadorned extends PropertyIndexedEve
      */
     public Set<EventBean> lookup(Object key)
     {
-        return propertyIndex.get(key);
+        return PropertyIndexedEventTableBucket.asSet(propertyIndex.get(toMapKey(key)));
     }
 
     public void add(EventBean theEvent)
     {
-        Object key = getKey(theEvent);
+        Object key = toMapKey(getKey(theEvent));
 
-        Set<EventBean> events = propertyIndex.get(key);
-        if (events == null)
+        Object bucket = propertyIndex.get(key);
+        int sizeBefore = bucket == null ? 0 : PropertyIndexedEventTableBucket.size(bucket);
+        Object updated = PropertyIndexedEventTableBucket.add(bucket, theEvent, organization.isConcurrentRead());
+        numEvents += PropertyIndexedEventTableBucket.size(updated) - sizeBefore;
+        if (updated != bucket)
         {
-            events = new LinkedHashSet<EventBean>();
-            propertyIndex.put(key, events);
+            propertyIndex.put(key, updated);
         }
-
-        events.add(theEvent);
     }
 
     public void remove(EventBean theEvent)
     {
-        Object key = getKey(theEvent);
+        Object key = toMapKey(getKey(theEvent));
 
-        Set<EventBean> events = propertyIndex.get(key);
-        if (events == null)
+        Object bucket = propertyIndex.get(key);
+        if (bucket == null)
         {
             return;
         }
 
-        if (!events.remove(theEvent))
+        // Not finding the event is not an error, its possible that an old-data event is artificial (such as for statistics) and
+        // thus did not correspond to a new-data event raised earlier.
+        int sizeBefore = PropertyIndexedEventTableBucket.size(bucket);
+        Object updated = PropertyIndexedEventTableBucket.remove(bucket, theEvent);
+        numEvents -= sizeBefore - (updated == null ? 0 : PropertyIndexedEventTableBucket.size(updated));
+        if (updated == null)
         {
-            // Not an error, its possible that an old-data event is artificial (such as for statistics) and
-            // thus did not correspond to a new-data event raised earlier.
-            return;
+            propertyIndex.remove(key);
         }
-
-        if (events.isEmpty())
+        else if (updated != bucket)
         {
-            propertyIndex.remove(key);
+            propertyIndex.put(key, updated);
         }
     }
 
@@ -81,12 +94,13 @@ public class PropertyIndexedEventTableSingleUnadorned extends PropertyIndexedEve
 
     public Iterator<EventBean> iterator()
     {
-        return new PropertyIndexedEventTableIterator<Object>(propertyIndex);
+        return new PropertyIndexedEventTableIterator(propertyIndex.values().iterator());
     }
 
     public void clear()
     {
         propertyIndex.clear();
+        numEvents = 0;
     }
 
     public void destroy() {
@@ -94,7 +108,7 @@ public class PropertyIndexedEventTableSingleUnadorned extends PropertyIndexedEve
     }
 
     public Integer getNumberOfEvents() {
-        return null;
+        return numEvents;
     }
 
     public int getNumKeys() {
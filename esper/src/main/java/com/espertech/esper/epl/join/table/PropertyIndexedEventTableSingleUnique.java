@@ -13,6 +13,7 @@ import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Unique index.
@@ -25,7 +26,12 @@ public class PropertyIndexedEventTableSingleUnique extends PropertyIndexedEventT
     public PropertyIndexedEventTableSingleUnique(EventPropertyGetter propertyGetter, EventTableOrganization organization)
     {
         super(propertyGetter, organization);
-        propertyIndex = new HashMap<Object, EventBean>();
+        if (organization.isConcurrentRead()) {
+            propertyIndex = new ConcurrentHashMap<Object, EventBean>();
+        }
+        else {
+            propertyIndex = new HashMap<Object, EventBean>();
+        }
         canClear = true;
     }
 
@@ -37,7 +43,7 @@ public class PropertyIndexedEventTableSingleUnique extends PropertyIndexedEventT
 
     public Set<EventBean> lookup(Object key)
     {
-        EventBean event = propertyIndex.get(key);
+        EventBean event = propertyIndex.get(toMapKey(key));
         if (event != null) {
             return Collections.singleton(event);
         }
@@ -77,7 +83,7 @@ public class PropertyIndexedEventTableSingleUnique extends PropertyIndexedEventT
     {
         Object key = getKey(theEvent);
 
-        EventBean existing = propertyIndex.put(key, theEvent);
+        EventBean existing = propertyIndex.put(toMapKey(key), theEvent);
         if (existing != null && !existing.equals(theEvent)) {
             throw PropertyIndexedEventTableUnique.handleUniqueIndexViolation(organization.getIndexName(), key);
         }
@@ -85,7 +91,7 @@ public class PropertyIndexedEventTableSingleUnique extends PropertyIndexedEventT
 
     public void remove(EventBean theEvent)
     {
-        Object key = getKey(theEvent);
+        Object key = toMapKey(getKey(theEvent));
         propertyIndex.remove(key);
     }
 
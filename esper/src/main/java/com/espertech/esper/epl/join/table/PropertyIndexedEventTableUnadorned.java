@@ -13,14 +13,26 @@ import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.collection.MultiKeyUntyped;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Index that organizes events by multiple event property values into hash buckets, with buckets organized compactly
+ * as described by {@link PropertyIndexedEventTableBucket}. When the organization allows concurrent reads the index is
+ * a concurrent map and buckets are copy-on-write.
+ */
 public class PropertyIndexedEventTableUnadorned extends PropertyIndexedEventTable
 {
-    protected final Map<MultiKeyUntyped, Set<EventBean>> propertyIndex;
+    protected final Map<MultiKeyUntyped, Object> propertyIndex;
+    private int numEvents;
 
     public PropertyIndexedEventTableUnadorned(EventPropertyGetter[] propertyGetters, EventTableOrganization organization) {
         super(propertyGetters, organization);
-        propertyIndex = new HashMap<MultiKeyUntyped, Set<EventBean>>();
+        if (organization.isConcurrentRead()) {
+            propertyIndex = new ConcurrentHashMap<MultiKeyUntyped, Object>();
+        }
+        else {
+            propertyIndex = new HashMap<MultiKeyUntyped, Object>();
+        }
     }
 
     /**
@@ -31,43 +43,45 @@ public class PropertyIndexedEventTableUnadorned extends PropertyIndexedEventTabl
     public Set<EventBean> lookup(Object[] keys)
     {
         MultiKeyUntyped key = new MultiKeyUntyped(keys);
-        return propertyIndex.get(key);
+        return PropertyIndexedEventTableBucket.asSet(propertyIndex.get(key));
     }
 
     public void add(EventBean theEvent)
     {
         MultiKeyUntyped key = getMultiKey(theEvent);
 
-        Set<EventBean> events = propertyIndex.get(key);
-        if (events == null)
+        Object bucket = propertyIndex.get(key);
+        int sizeBefore = bucket == null ? 0 : PropertyIndexedEventTableBucket.size(bucket);
+        Object updated = PropertyIndexedEventTableBucket.add(bucket, theEvent, organization.isConcurrentRead());
+        numEvents += PropertyIndexedEventTableBucket.size(updated) - sizeBefore;
+        if (updated != bucket)
         {
-            events = new LinkedHashSet<EventBean>();
-            propertyIndex.put(key, events);
+            propertyIndex.put(key, updated);
         }
-
-        events.add(theEvent);
     }
 
     public void remove(EventBean theEvent)
     {
         MultiKeyUntyped key = getMultiKey(theEvent);
 
-        Set<EventBean> events = propertyIndex.get(key);
-        if (events == null)
+        Object bucket = propertyIndex.get(key);
+        if (bucket == null)
         {
             return;
         }
 
-        if (!events.remove(theEvent))
+        // Not finding the event is not an error, its possible that an old-data event is artificial (such as for statistics) and
+        // thus did not correspond to a new-data event raised earlier.
+        int sizeBefore = PropertyIndexedEventTableBucket.size(bucket);
+        Object updated = PropertyIndexedEventTableBucket.remove(bucket, theEvent);
+        numEvents -= sizeBefore - (updated == null ? 0 : PropertyIndexedEventTableBucket.size(updated));
+        if (updated == null)
         {
-            // Not an error, its possible that an old-data event is artificial (such as for statistics) and
-            // thus did not correspond to a new-data event raised earlier.
-            return;
+            propertyIndex.remove(key);
         }
-
-        if (events.isEmpty())
+        else if (updated != bucket)
         {
-            propertyIndex.remove(key);
+            propertyIndex.put(key, updated);
         }
     }
 
@@ -78,12 +92,13 @@ public class PropertyIndexedEventTableUnadorned extends PropertyIndexedEventTabl
 
     public Iterator<EventBean> iterator()
     {
-        return new PropertyIndexedEventTableIterator<MultiKeyUntyped>(propertyIndex);
+        return new PropertyIndexedEventTableIterator(propertyIndex.values().iterator());
     }
 
     public void clear()
     {
         propertyIndex.clear();
+        numEvents = 0;
     }
 
     public void destroy() {
@@ -91,7 +106,7 @@ public class PropertyIndexedEventTableUnadorned extends PropertyIndexedEventTabl
     }
 
     public Integer getNumberOfEvents() {
-        return null;
+        return numEvents;
     }
 
     public int getNumKeys() {
@@ -15,6 +15,7 @@ import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PropertyIndexedEventTableUnique extends PropertyIndexedEventTable implements EventTableAsSet
 {
@@ -23,7 +24,12 @@ public class PropertyIndexedEventTableUnique extends PropertyIndexedEventTable i
 
     public PropertyIndexedEventTableUnique(EventPropertyGetter[] propertyGetters, EventTableOrganization organization) {
         super(propertyGetters, organization);
-        propertyIndex = new HashMap<MultiKeyUntyped, EventBean>();
+        if (organization.isConcurrentRead()) {
+            propertyIndex = new ConcurrentHashMap<MultiKeyUntyped, EventBean>();
+        }
+        else {
+            propertyIndex = new HashMap<MultiKeyUntyped, EventBean>();
+        }
         this.canClear = true;
     }
 
@@ -34,12 +34,23 @@ public class EventTableIndexRepository
     private final List<EventTable> tables;
     private final Map<IndexMultiKey, EventTableIndexRepositoryEntry> tableIndexesRefCount;
     private final HashMap<String, EventTable> explicitIndexes;
+    private final boolean concurrentRead;
 
     /**
      * Ctor.
      */
     public EventTableIndexRepository()
     {
+        this(false);
+    }
+
+    /**
+     * Ctor.
+     * @param concurrentRead true to build hash indexes that allow reads without holding the lock of the writer
+     */
+    public EventTableIndexRepository(boolean concurrentRead)
+    {
+        this.concurrentRead = concurrentRead;
         tables = new ArrayList<EventTable>();
         tableIndexesRefCount = new HashMap<IndexMultiKey, EventTableIndexRepositoryEntry>();
         explicitIndexes = new HashMap<String, EventTable>();
@@ -78,6 +89,14 @@ public class EventTableIndexRepository
      * Returns a list of current index tables in the repository.
      * @return index tables
      */
+    /**
+     * Returns indicator whether hash indexes are built to allow reads without holding the lock of the writer.
+     * @return concurrent-read indicator
+     */
+    public boolean isConcurrentRead() {
+        return concurrentRead;
+    }
+
     public List<EventTable> getTables()
     {
         return tables;
@@ -157,7 +176,7 @@ public class EventTableIndexRepository
         Class[] rangeCoercionTypes = IndexedPropDesc.getCoercionTypes(rangePropDescs);
 
         QueryPlanIndexItem indexItem = new QueryPlanIndexItem(indexProps, indexCoercionTypes, rangeProps, rangeCoercionTypes, false);
-        EventTable table = EventTableUtil.buildIndex(agentInstanceContext, 0, indexItem, indexedType, true, unique, indexName, optionalSerde, false);
+        EventTable table = EventTableUtil.buildIndex(agentInstanceContext, 0, indexItem, indexedType, true, unique, indexName, optionalSerde, false, concurrentRead);
 
         // fill table since its new
         EventBean[] events = new EventBean[1];
@@ -0,0 +1,71 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.lookup;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.core.service.StatementAgentInstanceRWLockVersioned;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Index lookup strategy for subqueries against named window indexes that allow concurrent reads.
+ * <p>
+ * Looks up without acquiring the named window lock and validates against the lock version that no named window
+ * update was in progress or completed during the lookup. Otherwise looks up again holding the read lock,
+ * so the result always reflects the state after the last completed update.
+ */
+public class SubordIndexedTableLookupStrategyConcurrent implements SubordTableLookupStrategy
+{
+    private final SubordTableLookupStrategy inner;
+    private final StatementAgentInstanceRWLockVersioned statementLock;
+
+    public SubordIndexedTableLookupStrategyConcurrent(SubordTableLookupStrategy inner, StatementAgentInstanceRWLockVersioned statementLock) {
+        this.inner = inner;
+        this.statementLock = statementLock;
+    }
+
+    @Override
+    public Collection<EventBean> lookup(EventBean[] events, ExprEvaluatorContext context) {
+        long version = statementLock.getVersion();
+        if ((version & 1) == 0) {
+            Collection<EventBean> result = inner.lookup(events, context);
+            if (statementLock.validate(version)) {
+                if (result != null) {
+                    return result;
+                }
+                return Collections.emptyList();
+            }
+        }
+
+        statementLock.acquireReadLock();
+        try {
+            Collection<EventBean> result = inner.lookup(events, context);
+            if (result != null) {
+                return new ArrayDeque<EventBean>(result);
+            }
+            else {
+                return Collections.emptyList();
+            }
+        }
+        finally {
+            statementLock.releaseReadLock();
+        }
+    }
+
+    public LookupStrategyDesc getStrategyDesc() {
+        return inner.getStrategyDesc();
+    }
+
+    public String toQueryPlan() {
+        return this.getClass().getSimpleName() + " inner " + inner.toQueryPlan();
+    }
+}
@@ -36,6 +36,12 @@ public interface NamedWindowDispatchService
      */
     boolean dispatch();
 
+    /**
+     * Returns indicator whether the current thread has named window results that await dispatch to consumers.
+     * @return true if dispatches are waiting
+     */
+    boolean isDispatchWaiting();
+
     /**
      * For use to add a result of a named window that must be dispatched to consuming views.
      * @param delta is the result to dispatch
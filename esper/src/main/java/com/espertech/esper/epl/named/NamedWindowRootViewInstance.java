@@ -10,6 +10,7 @@ package com.espertech.esper.epl.named;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.core.context.factory.StatementAgentInstancePostLoadIndexVisitor;
 import com.espertech.esper.core.context.util.AgentInstanceContext;
 import com.espertech.esper.epl.expression.core.ExprValidationException;
@@ -46,10 +47,11 @@ public class NamedWindowRootViewInstance extends ViewSupport
         this.rootView = rootView;
         this.agentInstanceContext = agentInstanceContext;
 
-        this.indexRepository = new EventTableIndexRepository();
+        boolean concurrentRead = HintEnum.INDEX_CONCURRENT_READ.getHint(agentInstanceContext.getStatementContext().getAnnotations()) != null;
+        this.indexRepository = new EventTableIndexRepository(concurrentRead);
         for (Map.Entry<IndexMultiKey, EventTableIndexMetadataEntry> entry : eventTableIndexMetadata.getIndexes().entrySet()) {
             if (entry.getValue().getQueryPlanIndexItem() != null) {
-                EventTable index = EventTableUtil.buildIndex(agentInstanceContext, 0, entry.getValue().getQueryPlanIndexItem(), rootView.getEventType(), true, entry.getKey().isUnique(), entry.getValue().getOptionalIndexName(), null, false);
+                EventTable index = EventTableUtil.buildIndex(agentInstanceContext, 0, entry.getValue().getQueryPlanIndexItem(), rootView.getEventType(), true, entry.getKey().isUnique(), entry.getValue().getOptionalIndexName(), null, false, concurrentRead);
                 indexRepository.addIndex(entry.getKey(), new EventTableIndexRepositoryEntry(entry.getValue().getOptionalIndexName(), index));
             }
         }
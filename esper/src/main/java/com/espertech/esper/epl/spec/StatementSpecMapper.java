@@ -2622,6 +2622,16 @@ public class StatementSpecMapper
         {
             return new PlugInProjectionExpression("leaving", false);
         }
+        else if (expr instanceof ExprApproxCountDistinctNode)
+        {
+            ExprApproxCountDistinctNode node = (ExprApproxCountDistinctNode) expr;
+            return new PlugInProjectionExpression(node.getAggregationFunctionName(), node.isDistinct());
+        }
+        else if (expr instanceof ExprPercentileApproxNode)
+        {
+            ExprPercentileApproxNode node = (ExprPercentileApproxNode) expr;
+            return new PlugInProjectionExpression(node.getAggregationFunctionName(), node.isDistinct());
+        }
         else if (expr instanceof ExprAggCountMinSketchNode)
         {
             ExprAggCountMinSketchNode cmsNode = (ExprAggCountMinSketchNode) expr;
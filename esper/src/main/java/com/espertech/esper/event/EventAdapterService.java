@@ -348,6 +348,12 @@ public interface EventAdapterService
 
     public void setDefaultAccessorStyle(ConfigurationEventTypeLegacy.AccessorStyle defaultAccessorStyle);
 
+    /**
+     * Sets the code generation for property getters of Java object event types.
+     * @param propertyGetterCodegen code generation
+     */
+    public void setPropertyGetterCodegen(ConfigurationEngineDefaults.PropertyGetterCodegen propertyGetterCodegen);
+
     public EventType replaceXMLEventType(String xmlEventTypeName, ConfigurationEventTypeXMLDOM config, SchemaModel schemaModel);
 
     public Map<String, EventType> getDeclaredEventTypes();
@@ -328,6 +328,11 @@ public class EventAdapterServiceImpl implements EventAdapterService
         beanEventAdapter.setDefaultAccessorStyle(defaultAccessorStyle);
     }
 
+    public void setPropertyGetterCodegen(ConfigurationEngineDefaults.PropertyGetterCodegen propertyGetterCodegen)
+    {
+        beanEventAdapter.setPropertyGetterCodegen(propertyGetterCodegen);
+    }
+
     public EventType getExistsTypeByName(String eventTypeName)
     {
         if (eventTypeName == null)
@@ -85,6 +85,31 @@ public class EventSenderBean implements EventSender
         }
     }
 
+    public void sendEventBatch(Object[] events)
+    {
+        EventBean[] eventBeans = new EventBean[events.length];
+        for (int i = 0; i < events.length; i++)
+        {
+            if (events[i] == null)
+            {
+                throw new NullPointerException("No event object provided to sendEventBatch method");
+            }
+            eventBeans[i] = getEventBean(events[i]);
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading()))
+        {
+            for (EventBean eventBean : eventBeans)
+            {
+                threadingService.submitInbound(new InboundUnitSendWrapped(eventBean, runtime));
+            }
+        }
+        else
+        {
+            runtime.processWrappedEventBatch(eventBeans);
+        }
+    }
+
     public void route(Object theEvent) throws EPException
     {
         EventBean eventBean = getEventBean(theEvent);
@@ -48,13 +48,7 @@ public class EventSenderMap implements EventSender
 
     public void sendEvent(Object theEvent)
     {
-        if (!(theEvent instanceof Map))
-        {
-            throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected " + Map.class.getName());
-        }
-        
-        Map<String, Object> map = (Map<String, Object>) theEvent;
-        EventBean mapEvent = eventAdapterService.adapterForTypedMap(map, mapEventType);
+        EventBean mapEvent = getEventBean(theEvent);
 
         if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading()))
         {
@@ -66,14 +60,40 @@ public class EventSenderMap implements EventSender
         }
     }
 
+    public void sendEventBatch(Object[] events)
+    {
+        EventBean[] eventBeans = new EventBean[events.length];
+        for (int i = 0; i < events.length; i++)
+        {
+            eventBeans[i] = getEventBean(events[i]);
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading()))
+        {
+            for (EventBean eventBean : eventBeans)
+            {
+                threadingService.submitInbound(new InboundUnitSendWrapped(eventBean, runtimeEventSender));
+            }
+        }
+        else
+        {
+            runtimeEventSender.processWrappedEventBatch(eventBeans);
+        }
+    }
+
     public void route(Object theEvent)
+    {
+        EventBean mapEvent = getEventBean(theEvent);
+        runtimeEventSender.routeEventBean(mapEvent);
+    }
+
+    private EventBean getEventBean(Object theEvent)
     {
         if (!(theEvent instanceof Map))
         {
             throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected " + Map.class.getName());
         }
         Map<String, Object> map = (Map<String, Object>) theEvent;
-        EventBean mapEvent = eventAdapterService.adapterForTypedMap(map, mapEventType);
-        runtimeEventSender.routeEventBean(mapEvent);
+        return eventAdapterService.adapterForTypedMap(map, mapEventType);
     }
 }
@@ -0,0 +1,103 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.event.bean;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.event.EventPropertyGetterAndIndexed;
+import com.espertech.esper.event.vaevent.PropertyUtility;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.Function;
+
+/**
+ * Getter for an array property identified by a given index, using an accessor generated for the read method.
+ */
+public class ArrayLambdaPropertyGetter extends BaseNativePropertyGetter implements BeanEventPropertyGetter, EventPropertyGetterAndIndexed
+{
+    private final Method method;
+    private final Function<Object, Object> accessor;
+    private final int index;
+
+    /**
+     * Constructor.
+     * @param method the underlying method
+     * @param accessor is the generated accessor to use to retrieve the array from the object
+     * @param index is tge index within the array to get the property from
+     * @param eventAdapterService factory for event beans and event types
+     */
+    public ArrayLambdaPropertyGetter(Method method, Function<Object, Object> accessor, int index, EventAdapterService eventAdapterService)
+    {
+        super(eventAdapterService, method.getReturnType().getComponentType(), null);
+        this.index = index;
+        this.method = method;
+        this.accessor = accessor;
+
+        if (index < 0)
+        {
+            throw new IllegalArgumentException("Invalid negative index value");
+        }
+    }
+
+    public Object getBeanProp(Object object) throws PropertyAccessException
+    {
+        return getBeanPropInternal(object, index);
+    }
+
+    private Object getBeanPropInternal(Object object, int index) throws PropertyAccessException
+    {
+        Object value;
+        try
+        {
+            value = accessor.apply(object);
+        }
+        catch (ClassCastException e)
+        {
+            throw PropertyUtility.getMismatchException(method, object, e);
+        }
+        catch (Exception e)
+        {
+            throw PropertyUtility.getInvocationTargetException(method, new InvocationTargetException(e));
+        }
+        if (Array.getLength(value) <= index)
+        {
+            return null;
+        }
+        return Array.get(value, index);
+    }
+
+    public boolean isBeanExistsProperty(Object object)
+    {
+        return true; // Property exists as the property is not dynamic (unchecked)
+    }
+
+    public final Object get(EventBean obj) throws PropertyAccessException
+    {
+        return getBeanProp(obj.getUnderlying());
+    }
+
+    public Object get(EventBean eventBean, int index) throws PropertyAccessException {
+        return getBeanPropInternal(eventBean.getUnderlying(), index);
+    }
+
+    public String toString()
+    {
+        return "ArrayLambdaPropertyGetter " +
+                " method=" + method.toGenericString() +
+                " index=" + index;
+    }
+
+    public boolean isExistsProperty(EventBean eventBean)
+    {
+        return true; // Property exists as the property is not dynamic (unchecked)
+    }
+}
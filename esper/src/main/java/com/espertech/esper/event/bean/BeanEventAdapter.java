@@ -9,6 +9,7 @@
 package com.espertech.esper.event.bean;
 
 import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.ConfigurationEngineDefaults;
 import com.espertech.esper.client.ConfigurationEventTypeLegacy;
 import com.espertech.esper.event.EventAdapterService;
 import com.espertech.esper.event.EventTypeIdGenerator;
@@ -35,6 +36,7 @@ public class BeanEventAdapter implements BeanEventTypeFactory
     private Map<String, ConfigurationEventTypeLegacy> classToLegacyConfigs;
     private Configuration.PropertyResolutionStyle defaultPropertyResolutionStyle;
     private ConfigurationEventTypeLegacy.AccessorStyle defaultAccessorStyle = ConfigurationEventTypeLegacy.AccessorStyle.JAVABEAN;
+    private ConfigurationEngineDefaults.PropertyGetterCodegen propertyGetterCodegen = ConfigurationEngineDefaults.PropertyGetterCodegen.FASTCLASS;
 
     /**
      * Ctor.
@@ -66,6 +68,20 @@ public class BeanEventAdapter implements BeanEventTypeFactory
         this.defaultAccessorStyle = defaultAccessorStyle;
     }
 
+    /**
+     * Sets the code generation for property getters.
+     * @param propertyGetterCodegen code generation to set
+     */
+    public void setPropertyGetterCodegen(ConfigurationEngineDefaults.PropertyGetterCodegen propertyGetterCodegen)
+    {
+        this.propertyGetterCodegen = propertyGetterCodegen;
+    }
+
+    public ConfigurationEngineDefaults.PropertyGetterCodegen getPropertyGetterCodegen()
+    {
+        return propertyGetterCodegen;
+    }
+
     /**
      * Set the additional mappings for legacy classes.
      * @param classToLegacyConfigs legacy class information
@@ -40,6 +40,7 @@ public class BeanEventType implements EventTypeSPI, NativeEventType
     private Map<String, InternalEventPropDescriptor> indexedPropertyDescriptors;
     private EventType[] superTypes;
     private FastClass fastClass;
+    private boolean lambdaGetters;
     private Set<EventType> deepSuperTypes;
     private Configuration.PropertyResolutionStyle propertyResolutionStyle;
 
@@ -323,6 +324,16 @@ public class BeanEventType implements EventTypeSPI, NativeEventType
         return fastClass;
     }
 
+    /**
+     * Returns true if property getters for this type use accessors generated per read method,
+     * see {@link PropertyHelper#getLambdaAccessor(Method)}, and false if getters use the fast class or reflection.
+     * @return indicator
+     */
+    public boolean isLambdaGetters()
+    {
+        return lambdaGetters;
+    }
+
     public String toString()
     {
         return "BeanEventType" +
@@ -349,9 +360,12 @@ public class BeanEventType implements EventTypeSPI, NativeEventType
             indexedSmartPropertyTable = new HashMap<String, List<SimplePropertyInfo>>();
         }
 
+        lambdaGetters = false;
         if ((optionalLegacyDef == null) ||
             (optionalLegacyDef.getCodeGeneration() != ConfigurationEventTypeLegacy.CodeGeneration.DISABLED))
         {
+            lambdaGetters = eventAdapterService.getBeanEventTypeFactory().getPropertyGetterCodegen() == ConfigurationEngineDefaults.PropertyGetterCodegen.LAMBDA;
+
             // get CGLib fast class using current thread class loader
             fastClass = null;
             try {
@@ -389,7 +403,7 @@ public class BeanEventType implements EventTypeSPI, NativeEventType
                 Class type;
                 if (desc.getReadMethod() != null)
                 {
-                    getter = PropertyHelper.getGetter(desc.getReadMethod(), fastClass, eventAdapterService);
+                    getter = PropertyHelper.getGetter(desc.getReadMethod(), fastClass, lambdaGetters, eventAdapterService);
                     type = desc.getReadMethod().getReturnType();
                 }
                 else
@@ -9,6 +9,7 @@
 package com.espertech.esper.event.bean;
 
 import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.ConfigurationEngineDefaults;
 
 /**
  * Interface for a factory for obtaining {@link BeanEventType} instances.
@@ -39,5 +40,11 @@ public interface BeanEventTypeFactory
      */
     public Configuration.PropertyResolutionStyle getDefaultPropertyResolutionStyle();
 
+    /**
+     * Returns the code generation for property getters.
+     * @return code generation
+     */
+    public ConfigurationEngineDefaults.PropertyGetterCodegen getPropertyGetterCodegen();
+
     public BeanEventType[] getCachedTypes();
 }
@@ -0,0 +1,95 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.event.bean;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.event.EventPropertyGetterAndIndexed;
+import com.espertech.esper.event.EventPropertyGetterAndMapped;
+import com.espertech.esper.event.vaevent.PropertyUtility;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.BiFunction;
+
+/**
+ * Getter for a key property identified by a given key value, using an accessor generated for the read method,
+ * see {@link PropertyHelper#getLambdaKeyedAccessor(Method)}.
+ */
+public class KeyedLambdaPropertyGetter extends BaseNativePropertyGetter implements BeanEventPropertyGetter, EventPropertyGetterAndMapped, EventPropertyGetterAndIndexed
+{
+    private final Method method;
+    private final BiFunction<Object, Object, Object> accessor;
+    private final Object key;
+
+    /**
+     * Constructor.
+     * @param method the underlying method
+     * @param accessor is the generated accessor to use to retrieve a value from the object
+     * @param key is the key to supply as parameter to the mapped property getter
+     * @param eventAdapterService factory for event beans and event types
+     */
+    public KeyedLambdaPropertyGetter(Method method, BiFunction<Object, Object, Object> accessor, Object key, EventAdapterService eventAdapterService)
+    {
+        super(eventAdapterService, method.getReturnType(), null);
+        this.method = method;
+        this.accessor = accessor;
+        this.key = key;
+    }
+
+    public boolean isBeanExistsProperty(Object object)
+    {
+        return true; // Property exists as the property is not dynamic (unchecked)
+    }
+
+    public final Object get(EventBean obj) throws PropertyAccessException {
+        return getBeanProp(obj.getUnderlying());
+    }
+
+    public Object getBeanProp(Object object) throws PropertyAccessException {
+        return getBeanPropInternal(object, key);
+    }
+
+    public Object get(EventBean eventBean, String mapKey) throws PropertyAccessException {
+        return getBeanPropInternal(eventBean.getUnderlying(), mapKey);
+    }
+
+    public Object get(EventBean eventBean, int index) throws PropertyAccessException {
+        return getBeanPropInternal(eventBean.getUnderlying(), index);
+    }
+
+    public Object getBeanPropInternal(Object object, Object key) throws PropertyAccessException
+    {
+        try
+        {
+            return accessor.apply(object, key);
+        }
+        catch (ClassCastException e)
+        {
+            throw PropertyUtility.getMismatchException(method, object, e);
+        }
+        catch (Exception e)
+        {
+            throw PropertyUtility.getInvocationTargetException(method, new InvocationTargetException(e));
+        }
+    }
+
+    public String toString()
+    {
+        return "KeyedLambdaPropertyGetter " +
+                " method=" + method.toGenericString() +
+                " key=" + key;
+    }
+
+    public boolean isExistsProperty(EventBean eventBean)
+    {
+        return true; // Property exists as the property is not dynamic (unchecked)
+    }
+}
@@ -0,0 +1,103 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.event.bean;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.event.vaevent.PropertyUtility;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Property getter for a read method returning a primitive numeric value, using generated accessors
+ * that in addition to the boxed value can return the value as a primitive without boxing.
+ */
+public class LambdaPrimitivePropertyGetter extends LambdaPropertyGetter
+{
+    private final Method method;
+    private final ToDoubleFunction<Object> doubleAccessor;
+    private final ToLongFunction<Object> longAccessor;
+
+    /**
+     * Constructor.
+     * @param method the underlying method
+     * @param accessor is the generated accessor returning the boxed value
+     * @param doubleAccessor is the generated accessor returning the value as a double
+     * @param longAccessor is the generated accessor returning the value as a long, or null for floating-point values
+     * @param eventAdapterService factory for event beans and event types
+     */
+    public LambdaPrimitivePropertyGetter(Method method, Function<Object, Object> accessor, ToDoubleFunction<Object> doubleAccessor, ToLongFunction<Object> longAccessor, EventAdapterService eventAdapterService)
+    {
+        super(method, accessor, eventAdapterService);
+        this.method = method;
+        this.doubleAccessor = doubleAccessor;
+        this.longAccessor = longAccessor;
+    }
+
+    /**
+     * Returns the property value as a double.
+     * @param obj event
+     * @return value
+     * @throws PropertyAccessException if the value cannot be obtained
+     */
+    public double getDouble(EventBean obj) throws PropertyAccessException
+    {
+        Object underlying = obj.getUnderlying();
+        try
+        {
+            return doubleAccessor.applyAsDouble(underlying);
+        }
+        catch (ClassCastException e)
+        {
+            throw PropertyUtility.getMismatchException(method, underlying, e);
+        }
+        catch (Exception e)
+        {
+            throw PropertyUtility.getInvocationTargetException(method, new InvocationTargetException(e));
+        }
+    }
+
+    /**
+     * Returns the property value as a long, truncating floating-point values.
+     * @param obj event
+     * @return value
+     * @throws PropertyAccessException if the value cannot be obtained
+     */
+    public long getLong(EventBean obj) throws PropertyAccessException
+    {
+        if (longAccessor == null)
+        {
+            return (long) getDouble(obj);
+        }
+        Object underlying = obj.getUnderlying();
+        try
+        {
+            return longAccessor.applyAsLong(underlying);
+        }
+        catch (ClassCastException e)
+        {
+            throw PropertyUtility.getMismatchException(method, underlying, e);
+        }
+        catch (Exception e)
+        {
+            throw PropertyUtility.getInvocationTargetException(method, new InvocationTargetException(e));
+        }
+    }
+
+    public String toString()
+    {
+        return "LambdaPrimitivePropertyGetter " +
+                "method=" + method.toGenericString();
+    }
+}
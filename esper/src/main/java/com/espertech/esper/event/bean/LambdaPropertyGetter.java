@@ -0,0 +1,79 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.event.bean;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.event.vaevent.PropertyUtility;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.Function;
+
+/**
+ * Property getter using an accessor generated for the read method, see {@link PropertyHelper#getLambdaAccessor(Method)}.
+ */
+public class LambdaPropertyGetter extends BaseNativePropertyGetter implements BeanEventPropertyGetter
+{
+    private final Method method;
+    private final Function<Object, Object> accessor;
+
+    /**
+     * Constructor.
+     * @param method the underlying method
+     * @param accessor is the generated accessor to use to retrieve a value from the object
+     * @param eventAdapterService factory for event beans and event types
+     */
+    public LambdaPropertyGetter(Method method, Function<Object, Object> accessor, EventAdapterService eventAdapterService)
+    {
+        super(eventAdapterService, method.getReturnType(), JavaClassHelper.getGenericReturnType(method, true));
+        this.method = method;
+        this.accessor = accessor;
+    }
+
+    public Object getBeanProp(Object object) throws PropertyAccessException
+    {
+        try
+        {
+            return accessor.apply(object);
+        }
+        catch (ClassCastException e)
+        {
+            throw PropertyUtility.getMismatchException(method, object, e);
+        }
+        catch (Exception e)
+        {
+            throw PropertyUtility.getInvocationTargetException(method, new InvocationTargetException(e));
+        }
+    }
+
+    public boolean isBeanExistsProperty(Object object)
+    {
+        return true; // Property exists as the property is not dynamic (unchecked)
+    }
+
+    public final Object get(EventBean obj) throws PropertyAccessException
+    {
+        Object underlying = obj.getUnderlying();
+        return getBeanProp(underlying);
+    }
+
+    public String toString()
+    {
+        return "LambdaPropertyGetter " +
+                "method=" + method.toGenericString();
+    }
+
+    public boolean isExistsProperty(EventBean eventBean)
+    {
+        return true; // Property exists as the property is not dynamic (unchecked)
+    }
+}
@@ -12,6 +12,7 @@ import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.event.EventAdapterService;
 import com.espertech.esper.event.EventPropertyType;
 import com.espertech.esper.event.WriteablePropertyDescriptor;
+import com.espertech.esper.util.JavaClassHelper;
 import net.sf.cglib.reflect.FastClass;
 import net.sf.cglib.reflect.FastMethod;
 import org.slf4j.Logger;
@@ -19,8 +20,18 @@ import org.slf4j.LoggerFactory;
 
 import java.beans.*;
 import java.io.StringWriter;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 
 /**
  * This class offers utililty methods around introspection and CGLIB interaction.
@@ -36,6 +47,34 @@ public class PropertyHelper
      */
     public static EventPropertyGetter getGetter(Method method, FastClass fastClass, EventAdapterService eventAdapterService)
     {
+        return getGetter(method, fastClass, false, eventAdapterService);
+    }
+
+    /**
+     * Return getter for the given method, using a generated lambda accessor if requested and possible,
+     * else the CGLIB FastClass if provided, else reflection.
+     * @param method to return getter for
+     * @param fastClass is the CGLIB fast classs to make FastMethod for
+     * @param lambda true to generate a lambda accessor for the method
+     * @param eventAdapterService factory for event beans and event types
+     * @return property getter
+     */
+    public static EventPropertyGetter getGetter(Method method, FastClass fastClass, boolean lambda, EventAdapterService eventAdapterService)
+    {
+        if (lambda)
+        {
+            Function<Object, Object> accessor = getLambdaAccessor(method);
+            if (accessor != null)
+            {
+                ToDoubleFunction<Object> doubleAccessor = getLambdaDoubleAccessor(method);
+                if (doubleAccessor != null)
+                {
+                    return new LambdaPrimitivePropertyGetter(method, accessor, doubleAccessor, getLambdaLongAccessor(method), eventAdapterService);
+                }
+                return new LambdaPropertyGetter(method, accessor, eventAdapterService);
+            }
+        }
+
         // Get CGLib fast method handle
         FastMethod fastMethod = null;
         try
@@ -64,6 +103,122 @@ public class PropertyHelper
         return getter;
     }
 
+    /**
+     * Returns a generated accessor for a method taking no parameters, for use by property getters.
+     * <p>
+     * The accessor is a class spun by {@link LambdaMetafactory} that invokes the method directly,
+     * so that each property has its own monomorphic accessor that the JIT compiler can inline.
+     * @param method read method taking no parameters
+     * @return accessor, or null if the method cannot be reached from the engine class loader
+     */
+    public static Function<Object, Object> getLambdaAccessor(Method method)
+    {
+        if (method.getParameterTypes().length != 0)
+        {
+            return null;
+        }
+        return (Function<Object, Object>) getLambdaAccessorInternal(method, Function.class, "apply",
+                MethodType.methodType(Object.class, Object.class),
+                MethodType.methodType(Object.class, method.getDeclaringClass()));
+    }
+
+    /**
+     * Returns a generated accessor for a method taking no parameters and returning a primitive numeric value,
+     * that returns the value as a double without boxing.
+     * @param method read method taking no parameters
+     * @return accessor, or null if the method does not return a primitive numeric value or cannot be reached from the engine class loader
+     */
+    public static ToDoubleFunction<Object> getLambdaDoubleAccessor(Method method)
+    {
+        Class returnType = method.getReturnType();
+        if (method.getParameterTypes().length != 0 || !returnType.isPrimitive() || !JavaClassHelper.isNumeric(returnType))
+        {
+            return null;
+        }
+        return (ToDoubleFunction<Object>) getLambdaAccessorInternal(method, ToDoubleFunction.class, "applyAsDouble",
+                MethodType.methodType(double.class, Object.class),
+                MethodType.methodType(double.class, method.getDeclaringClass()));
+    }
+
+    /**
+     * Returns a generated accessor for a method taking no parameters and returning a primitive integral value,
+     * that returns the value as a long without boxing.
+     * @param method read method taking no parameters
+     * @return accessor, or null if the method does not return a primitive integral value or cannot be reached from the engine class loader
+     */
+    public static ToLongFunction<Object> getLambdaLongAccessor(Method method)
+    {
+        Class returnType = method.getReturnType();
+        if (method.getParameterTypes().length != 0 ||
+            (returnType != long.class && returnType != int.class && returnType != short.class && returnType != byte.class))
+        {
+            return null;
+        }
+        return (ToLongFunction<Object>) getLambdaAccessorInternal(method, ToLongFunction.class, "applyAsLong",
+                MethodType.methodType(long.class, Object.class),
+                MethodType.methodType(long.class, method.getDeclaringClass()));
+    }
+
+    /**
+     * Returns a generated accessor for a method taking a single key parameter, such as an indexed property method
+     * taking an int index or a mapped property method taking a String key.
+     * @param method read method taking a single parameter
+     * @return accessor taking the target object and the key, or null if the method cannot be reached from the engine class loader
+     */
+    public static BiFunction<Object, Object, Object> getLambdaKeyedAccessor(Method method)
+    {
+        if (method.getParameterTypes().length != 1)
+        {
+            return null;
+        }
+        Class keyType = method.getParameterTypes()[0];
+        if (keyType != int.class && keyType != String.class)
+        {
+            return null;
+        }
+        return (BiFunction<Object, Object, Object>) getLambdaAccessorInternal(method, BiFunction.class, "apply",
+                MethodType.methodType(Object.class, Object.class, Object.class),
+                MethodType.methodType(Object.class, method.getDeclaringClass(), JavaClassHelper.getBoxedType(keyType)));
+    }
+
+    private static Object getLambdaAccessorInternal(Method method, Class functionalInterface, String functionalMethodName, MethodType erasedType, MethodType instantiatedType)
+    {
+        // the generated class links to the declaring class by name through the engine class loader
+        Class declaringClass = method.getDeclaringClass();
+        if (!Modifier.isPublic(method.getModifiers()) ||
+            !Modifier.isPublic(declaringClass.getModifiers()) ||
+            !isVisibleToEngine(declaringClass))
+        {
+            return null;
+        }
+
+        try
+        {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle target = lookup.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(lookup, functionalMethodName,
+                    MethodType.methodType(functionalInterface), erasedType, target, instantiatedType);
+            return site.getTarget().invoke();
+        }
+        catch (Throwable ex)
+        {
+            log.debug(".getLambdaAccessor Unable to generate accessor for method " + method + ", msg=" + ex.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean isVisibleToEngine(Class clazz)
+    {
+        try
+        {
+            return Class.forName(clazz.getName(), false, PropertyHelper.class.getClassLoader()) == clazz;
+        }
+        catch (Throwable t)
+        {
+            return false;
+        }
+    }
+
     /**
      * Introspects the given class and returns event property descriptors for each property found
      * in the class itself, it's superclasses and all interfaces this class and the superclasses implements.
@@ -0,0 +1,70 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.event.map;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.collection.OffHeapColumnarBuffer;
+
+import java.util.Map;
+
+/**
+ * Map event kept in a row of an off-heap window buffer. Instances are equal if they represent
+ * the same row of the same buffer, so that an event materialized from the buffer is equal to the event
+ * posted when the row was added.
+ */
+public class MapOffHeapEventBean extends MapEventBean
+{
+    private final OffHeapColumnarBuffer buffer;
+    private final long rowId;
+
+    /**
+     * Ctor.
+     * @param properties event property values
+     * @param eventType event type
+     * @param buffer buffer holding the row
+     * @param rowId row id
+     */
+    public MapOffHeapEventBean(Map<String, Object> properties, EventType eventType, OffHeapColumnarBuffer buffer, long rowId)
+    {
+        super(properties, eventType);
+        this.buffer = buffer;
+        this.rowId = rowId;
+    }
+
+    /**
+     * Returns the row id.
+     * @return row id
+     */
+    public long getRowId()
+    {
+        return rowId;
+    }
+
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (!(o instanceof MapOffHeapEventBean))
+        {
+            return false;
+        }
+        MapOffHeapEventBean other = (MapOffHeapEventBean) o;
+        return other.buffer == buffer && other.rowId == rowId;
+    }
+
+    public int hashCode()
+    {
+        return 31 * System.identityHashCode(buffer) + (int) (rowId ^ (rowId >>> 32));
+    }
+}
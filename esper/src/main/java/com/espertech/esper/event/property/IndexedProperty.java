@@ -31,6 +31,8 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * Represents an indexed property or array property, ie. an 'value' property with read method getValue(int index)
@@ -80,6 +82,15 @@ public class IndexedProperty extends PropertyBase
         InternalEventPropDescriptor propertyDesc = eventType.getIndexedProperty(propertyNameAtomic);
         if (propertyDesc != null)
         {
+            if (eventType.isLambdaGetters())
+            {
+                Method method = propertyDesc.getReadMethod();
+                BiFunction<Object, Object, Object> accessor = PropertyHelper.getLambdaKeyedAccessor(method);
+                if (accessor != null)
+                {
+                    return new KeyedLambdaPropertyGetter(method, accessor, index, eventAdapterService);
+                }
+            }
             if (fastClass != null)
             {
                 Method method = propertyDesc.getReadMethod();
@@ -105,6 +116,14 @@ public class IndexedProperty extends PropertyBase
             if (propertyDesc.getReadMethod() != null)
             {
                 Method method = propertyDesc.getReadMethod();
+                if (eventType.isLambdaGetters())
+                {
+                    Function<Object, Object> accessor = PropertyHelper.getLambdaAccessor(method);
+                    if (accessor != null)
+                    {
+                        return new ArrayLambdaPropertyGetter(method, accessor, index, eventAdapterService);
+                    }
+                }
                 if (fastClass != null)
                 {
                     FastMethod fastMethod = fastClass.getMethod(method);
@@ -25,6 +25,7 @@ import java.io.StringWriter;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Map;
+import java.util.function.BiFunction;
 
 /**
  * Represents a mapped property or array property, ie. an 'value' property with read method getValue(int index)
@@ -74,6 +75,14 @@ public class MappedProperty extends PropertyBase
         if (propertyDesc != null)
         {
             Method method = propertyDesc.getReadMethod();
+            if (eventType.isLambdaGetters())
+            {
+                BiFunction<Object, Object, Object> accessor = PropertyHelper.getLambdaKeyedAccessor(method);
+                if (accessor != null)
+                {
+                    return new KeyedLambdaPropertyGetter(method, accessor, key, eventAdapterService);
+                }
+            }
             FastClass fastClass = eventType.getFastClass();
             if (fastClass != null)
             {
@@ -27,11 +27,13 @@ import java.util.concurrent.locks.ReadWriteLock;
  * and (2) asking the subtree for this event type to evaluate the event.
  * <p>
  * The class performs all the locking required for multithreaded access.
+ * For copy-on-write the class replaces the map of event types upon change and does not lock for matching.
  */
 public class EventTypeIndex implements EventEvaluator
 {
-    private Map<EventType, FilterHandleSetNode> eventTypes;
+    private volatile Map<EventType, FilterHandleSetNode> eventTypes;
     private ReadWriteLock eventTypesRWLock;
+    private final boolean copyOnWrite;
 
     /**
      * Constructor.
@@ -40,6 +42,7 @@ public class EventTypeIndex implements EventEvaluator
     {
         eventTypes = new HashMap<EventType, FilterHandleSetNode>();
         eventTypesRWLock = lockFactory.obtainNew();
+        copyOnWrite = lockFactory.isCopyOnWrite();
     }
 
     /**
@@ -65,7 +68,9 @@ public class EventTypeIndex implements EventEvaluator
             {
                 throw new IllegalStateException("Event type already in index, add not performed, type=" + eventType);
             }
-            eventTypes.put(eventType, rootNode);
+            Map<EventType, FilterHandleSetNode> map = copyOnWrite ? new HashMap<EventType, FilterHandleSetNode>(eventTypes) : eventTypes;
+            map.put(eventType, rootNode);
+            eventTypes = map;
         }
         finally
         {
@@ -78,7 +83,9 @@ public class EventTypeIndex implements EventEvaluator
         eventTypesRWLock.writeLock().lock();
         try
         {
-            eventTypes.remove(type);
+            Map<EventType, FilterHandleSetNode> map = copyOnWrite ? new HashMap<EventType, FilterHandleSetNode>(eventTypes) : eventTypes;
+            map.remove(type);
+            eventTypes = map;
         }
         finally
         {
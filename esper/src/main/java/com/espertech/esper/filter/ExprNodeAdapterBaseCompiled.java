@@ -0,0 +1,47 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprNodeUtility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Adapter for a filter boolean expression that is compiled, see {@link FilterBooleanExprCompiler}.
+ * The boolean expression filter index evaluates compiled expressions by generated code sharing property reads,
+ * see {@link FilterBooleanExprGroupGenerator}. Evaluating the adapter by itself interprets the expression.
+ */
+public class ExprNodeAdapterBaseCompiled extends ExprNodeAdapterBase
+{
+    private static final Logger log = LoggerFactory.getLogger(ExprNodeAdapterBaseCompiled.class);
+
+    private final FilterBooleanExprCompiled compiled;
+
+    public ExprNodeAdapterBaseCompiled(int filterSpecId, int filterSpecParamPathNum, ExprNode exprNode, ExprEvaluatorContext evaluatorContext, FilterBooleanExprCompiled compiled) {
+        super(filterSpecId, filterSpecParamPathNum, exprNode, evaluatorContext);
+        this.compiled = compiled;
+    }
+
+    /**
+     * Handles an exception evaluating the compiled expression, for use by generated code.
+     * @param ex exception
+     * @return false as the result of the expression
+     */
+    public boolean handleEvaluationException(RuntimeException ex)
+    {
+        log.error("Error evaluating expression '" + ExprNodeUtility.toExpressionStringMinPrecedenceSafe(exprNode) + "' statement '" + getStatementName() + "': " + ex.getMessage(), ex);
+        return false;
+    }
+
+    public FilterBooleanExprCompiled getCompiled() {
+        return compiled;
+    }
+}
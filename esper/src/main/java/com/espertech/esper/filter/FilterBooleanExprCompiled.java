@@ -0,0 +1,51 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventPropertyGetter;
+
+/**
+ * A filter boolean expression compiled by {@link FilterBooleanExprCompiler}, and the event properties it reads.
+ * The boolean expression filter index generates the code that evaluates its compiled expressions,
+ * see {@link FilterBooleanExprGroupGenerator}.
+ */
+public final class FilterBooleanExprCompiled
+{
+    private final FilterBooleanExprCompiler.Node root;
+    private final String[] propertyNames;
+    private final EventPropertyGetter[] getters;
+
+    /**
+     * Ctor.
+     * @param root compiled expression
+     * @param propertyNames names of the properties, by property number
+     * @param getters getters of the properties, by property number
+     */
+    public FilterBooleanExprCompiled(FilterBooleanExprCompiler.Node root, String[] propertyNames, EventPropertyGetter[] getters)
+    {
+        this.root = root;
+        this.propertyNames = propertyNames;
+        this.getters = getters;
+    }
+
+    public FilterBooleanExprCompiler.Node getRoot()
+    {
+        return root;
+    }
+
+    public String[] getPropertyNames()
+    {
+        return propertyNames;
+    }
+
+    public EventPropertyGetter[] getGetters()
+    {
+        return getters;
+    }
+}
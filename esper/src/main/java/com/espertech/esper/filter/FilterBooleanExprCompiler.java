@@ -0,0 +1,282 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.epl.expression.core.*;
+import com.espertech.esper.epl.expression.ops.*;
+import com.espertech.esper.type.RelationalOpEnum;
+import com.espertech.esper.util.JavaClassHelper;
+import com.espertech.esper.util.SimpleNumberCoercer;
+import com.espertech.esper.util.SimpleNumberCoercerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiles filter boolean expressions into a tree of nodes specialized for the expression, from which
+ * {@link FilterBooleanExprGroupGenerator} generates the bytecode that evaluates the expressions of a boolean expression
+ * filter index.
+ * <p>
+ * Compiles event properties, constants, and, or, not, relational operators and equals. Any other expression node
+ * is evaluated by its expression evaluator, i.e. interpreted, including the expression nodes below it.
+ * The generated code has the same semantics, including for null values and number coercion, as the expression
+ * evaluators of the expression nodes it compiles.
+ */
+public final class FilterBooleanExprCompiler
+{
+    private final ExprEvaluatorContext evaluatorContext;
+    private final List<String> propertyNames = new ArrayList<String>();
+    private final List<EventPropertyGetter> getters = new ArrayList<EventPropertyGetter>();
+
+    private FilterBooleanExprCompiler(ExprEvaluatorContext evaluatorContext)
+    {
+        this.evaluatorContext = evaluatorContext;
+    }
+
+    /**
+     * Compiles a validated filter boolean expression.
+     * @param exprNode expression
+     * @param evaluatorContext context for evaluating expression nodes that are not compiled
+     * @return compiled expression, or null if the expression has no node that compiles
+     */
+    public static FilterBooleanExprCompiled compile(ExprNode exprNode, ExprEvaluatorContext evaluatorContext)
+    {
+        FilterBooleanExprCompiler compiler = new FilterBooleanExprCompiler(evaluatorContext);
+        Node root = compiler.compileNode(exprNode);
+        if (root instanceof InterpretedNode)
+        {
+            return null;
+        }
+        return new FilterBooleanExprCompiled(root,
+                compiler.propertyNames.toArray(new String[compiler.propertyNames.size()]),
+                compiler.getters.toArray(new EventPropertyGetter[compiler.getters.size()]));
+    }
+
+    private Node compileNode(ExprNode node)
+    {
+        try
+        {
+            if (node instanceof ExprIdentNode)
+            {
+                ExprIdentNode identNode = (ExprIdentNode) node;
+                if ((identNode.getExprEvaluator() instanceof ExprIdentNodeEvaluatorImpl) && (identNode.getExprEvaluatorIdent().getStreamNum() == 0))
+                {
+                    return new PropertyNode(getProperty(identNode.getResolvedPropertyName(), identNode.getExprEvaluatorIdent().getGetter()));
+                }
+            }
+            else if ((node instanceof ExprConstantNode) && ((ExprConstantNode) node).isConstantValue())
+            {
+                return new ConstantNode(((ExprConstantNode) node).getConstantValue(evaluatorContext));
+            }
+            else if (node instanceof ExprAndNode)
+            {
+                return new AndNode(compileNodes(node.getChildNodes()));
+            }
+            else if (node instanceof ExprOrNode)
+            {
+                return new OrNode(compileNodes(node.getChildNodes()));
+            }
+            else if (node instanceof ExprNotNode)
+            {
+                return new NotNode(compileNode(node.getChildNodes()[0]));
+            }
+            else if (node instanceof ExprRelationalOpNodeImpl)
+            {
+                return compileRelationalOp((ExprRelationalOpNodeImpl) node);
+            }
+            else if (node instanceof ExprEqualsNodeImpl)
+            {
+                return compileEquals((ExprEqualsNodeImpl) node);
+            }
+        }
+        catch (RuntimeException ex)
+        {
+            // not compiled, such as for a type that does not coerce
+        }
+        return new InterpretedNode(node.getExprEvaluator(), evaluatorContext);
+    }
+
+    private Node[] compileNodes(ExprNode[] nodes)
+    {
+        Node[] compiled = new Node[nodes.length];
+        for (int i = 0; i < nodes.length; i++)
+        {
+            compiled[i] = compileNode(nodes[i]);
+        }
+        return compiled;
+    }
+
+    private Node compileRelationalOp(ExprRelationalOpNodeImpl node)
+    {
+        // same as the coercion of the relational op node
+        Class typeOne = JavaClassHelper.getBoxedType(node.getChildNodes()[0].getExprEvaluator().getType());
+        Class typeTwo = JavaClassHelper.getBoxedType(node.getChildNodes()[1].getExprEvaluator().getType());
+        Class compareType = JavaClassHelper.getCompareToCoercionType(typeOne, typeTwo);
+        RelationalOpEnum.Computer computer = node.getRelationalOpEnum().getComputer(compareType, typeOne, typeTwo);
+        return new RelationalOpNode(compileNode(node.getChildNodes()[0]), compileNode(node.getChildNodes()[1]), node.getRelationalOpEnum(), compareType, computer);
+    }
+
+    private Node compileEquals(ExprEqualsNodeImpl node)
+    {
+        // same as the coercion of the equals node
+        Class typeOne = JavaClassHelper.getBoxedType(node.getChildNodes()[0].getExprEvaluator().getType());
+        Class typeTwo = JavaClassHelper.getBoxedType(node.getChildNodes()[1].getExprEvaluator().getType());
+        if ((typeOne == null) || (typeTwo == null) || typeOne.equals(typeTwo) || typeOne.isAssignableFrom(typeTwo))
+        {
+            return new EqualsNode(compileNode(node.getChildNodes()[0]), compileNode(node.getChildNodes()[1]), node.isIs(), node.isNotEquals());
+        }
+        Class coercionType = JavaClassHelper.getCompareToCoercionType(typeOne, typeTwo);
+        if ((coercionType == typeOne) && (coercionType == typeTwo))
+        {
+            return new EqualsNode(compileNode(node.getChildNodes()[0]), compileNode(node.getChildNodes()[1]), node.isIs(), node.isNotEquals());
+        }
+        if (!JavaClassHelper.isNumeric(coercionType))
+        {
+            throw new IllegalStateException("Cannot convert datatype '" + coercionType.getName() + "' to a numeric value");
+        }
+        return new EqualsCoercingNode(compileNode(node.getChildNodes()[0]), compileNode(node.getChildNodes()[1]), node.isIs(), node.isNotEquals(),
+                SimpleNumberCoercerFactory.getCoercer(typeOne, coercionType), SimpleNumberCoercerFactory.getCoercer(typeTwo, coercionType));
+    }
+
+    private int getProperty(String propertyName, EventPropertyGetter getter)
+    {
+        int index = propertyNames.indexOf(propertyName);
+        if (index == -1)
+        {
+            propertyNames.add(propertyName);
+            getters.add(getter);
+            index = propertyNames.size() - 1;
+        }
+        return index;
+    }
+
+    /**
+     * Compiled expression node.
+     */
+    public interface Node
+    {
+    }
+
+    static final class PropertyNode implements Node
+    {
+        final int property;
+
+        private PropertyNode(int property)
+        {
+            this.property = property;
+        }
+    }
+
+    static final class ConstantNode implements Node
+    {
+        final Object value;
+
+        private ConstantNode(Object value)
+        {
+            this.value = value;
+        }
+    }
+
+    static final class InterpretedNode implements Node
+    {
+        final ExprEvaluator evaluator;
+        final ExprEvaluatorContext evaluatorContext;
+
+        private InterpretedNode(ExprEvaluator evaluator, ExprEvaluatorContext evaluatorContext)
+        {
+            this.evaluator = evaluator;
+            this.evaluatorContext = evaluatorContext;
+        }
+    }
+
+    static final class AndNode implements Node
+    {
+        final Node[] children;
+
+        private AndNode(Node[] children)
+        {
+            this.children = children;
+        }
+    }
+
+    static final class OrNode implements Node
+    {
+        final Node[] children;
+
+        private OrNode(Node[] children)
+        {
+            this.children = children;
+        }
+    }
+
+    static final class NotNode implements Node
+    {
+        final Node child;
+
+        private NotNode(Node child)
+        {
+            this.child = child;
+        }
+    }
+
+    static final class RelationalOpNode implements Node
+    {
+        final Node lhs;
+        final Node rhs;
+        final RelationalOpEnum relationalOp;
+        final Class compareType;
+        final RelationalOpEnum.Computer computer;
+
+        private RelationalOpNode(Node lhs, Node rhs, RelationalOpEnum relationalOp, Class compareType, RelationalOpEnum.Computer computer)
+        {
+            this.lhs = lhs;
+            this.rhs = rhs;
+            this.relationalOp = relationalOp;
+            this.compareType = compareType;
+            this.computer = computer;
+        }
+    }
+
+    static final class EqualsNode implements Node
+    {
+        final Node lhs;
+        final Node rhs;
+        final boolean isIs;
+        final boolean isNotEquals;
+
+        private EqualsNode(Node lhs, Node rhs, boolean isIs, boolean isNotEquals)
+        {
+            this.lhs = lhs;
+            this.rhs = rhs;
+            this.isIs = isIs;
+            this.isNotEquals = isNotEquals;
+        }
+    }
+
+    static final class EqualsCoercingNode implements Node
+    {
+        final Node lhs;
+        final Node rhs;
+        final boolean isIs;
+        final boolean isNotEquals;
+        final SimpleNumberCoercer numberCoercerLHS;
+        final SimpleNumberCoercer numberCoercerRHS;
+
+        private EqualsCoercingNode(Node lhs, Node rhs, boolean isIs, boolean isNotEquals, SimpleNumberCoercer numberCoercerLHS, SimpleNumberCoercer numberCoercerRHS)
+        {
+            this.lhs = lhs;
+            this.rhs = rhs;
+            this.isIs = isIs;
+            this.isNotEquals = isNotEquals;
+            this.numberCoercerLHS = numberCoercerLHS;
+            this.numberCoercerRHS = numberCoercerRHS;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+
+import java.util.Collection;
+
+/**
+ * Evaluation of a group of filter boolean expressions of a boolean expression filter index, in index order,
+ * matching the evaluator of each expression that returns true.
+ * <p>
+ * Subclasses are generated by {@link FilterBooleanExprGroupGenerator} and keep the values of event properties
+ * that compiled expressions share in local variables. Thread-safe as evaluation does not keep state.
+ */
+public abstract class FilterBooleanExprGroupEval
+{
+    /**
+     * Marker for a property value that is not read yet, for use by generated code.
+     */
+    public static final Object NOT_READ = new Object();
+
+    protected final ExprNodeAdapterBase[] adapters;
+    protected final EventEvaluator[] evaluators;
+    protected final EventPropertyGetter[] getters;
+    protected final Object[] constants;
+
+    /**
+     * Ctor.
+     * @param adapters expressions
+     * @param evaluators evaluator to match per expression
+     * @param getters getters of the properties shared by the compiled expressions
+     * @param constants constants, interpreted evaluators, computers and coercers of the compiled expressions
+     */
+    protected FilterBooleanExprGroupEval(ExprNodeAdapterBase[] adapters, EventEvaluator[] evaluators, EventPropertyGetter[] getters, Object[] constants)
+    {
+        this.adapters = adapters;
+        this.evaluators = evaluators;
+        this.getters = getters;
+        this.constants = constants;
+    }
+
+    /**
+     * Evaluates the expressions against the event, and matches the evaluator of each expression that returns true.
+     * @param theEvent event
+     * @param matches matches
+     */
+    public abstract void matchEvent(EventBean theEvent, Collection<FilterHandle> matches);
+}
@@ -0,0 +1,738 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.type.RelationalOpEnum;
+import com.espertech.esper.util.SimpleNumberCoercer;
+import net.sf.cglib.asm.$ClassWriter;
+import net.sf.cglib.asm.$Label;
+import net.sf.cglib.asm.$MethodVisitor;
+import net.sf.cglib.asm.$Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Constructor;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.sf.cglib.asm.$Opcodes.*;
+
+/**
+ * Generates, for a group of filter boolean expressions of a boolean expression filter index, a subclass of
+ * {@link FilterBooleanExprGroupEval} whose bytecode evaluates the compiled expressions of the group,
+ * see {@link FilterBooleanExprCompiler}, using the ASM library that is part of CGLib.
+ * <p>
+ * The generated method reads each event property that compiled expressions of the group share at most once per event,
+ * keeping the value in a local variable, and compares numbers of the relational operators without boxing.
+ * Expressions that do not compile are evaluated by their adapter, in index order.
+ */
+public final class FilterBooleanExprGroupGenerator
+{
+    private static final Logger log = LoggerFactory.getLogger(FilterBooleanExprGroupGenerator.class);
+
+    /**
+     * Maximum number of expressions per group, keeping the size of the generated method within limits.
+     */
+    public final static int MAX_GROUP_SIZE = 100;
+
+    private static final AtomicInteger classNumber = new AtomicInteger();
+
+    private static final String GROUP_EVAL = $Type.getInternalName(FilterBooleanExprGroupEval.class);
+    private static final String OBJECT = $Type.getInternalName(Object.class);
+    private static final String BOOLEAN = $Type.getInternalName(Boolean.class);
+    private static final String NUMBER = $Type.getInternalName(Number.class);
+    private static final String EVENT_BEAN = $Type.getInternalName(EventBean.class);
+    private static final String EVENT_EVALUATOR = $Type.getInternalName(EventEvaluator.class);
+    private static final String EVENT_PROPERTY_GETTER = $Type.getInternalName(EventPropertyGetter.class);
+    private static final String ADAPTER = $Type.getInternalName(ExprNodeAdapterBase.class);
+    private static final String ADAPTER_COMPILED = $Type.getInternalName(ExprNodeAdapterBaseCompiled.class);
+    private static final String EXPR_EVALUATOR = $Type.getInternalName(ExprEvaluator.class);
+    private static final String EXPR_EVALUATOR_CONTEXT = $Type.getInternalName(ExprEvaluatorContext.class);
+    private static final String COMPUTER = $Type.getInternalName(RelationalOpEnum.Computer.class);
+    private static final String COERCER = $Type.getInternalName(SimpleNumberCoercer.class);
+    private static final String RUNTIME_EXCEPTION = $Type.getInternalName(RuntimeException.class);
+
+    private static final String CTOR_DESC = "([" + $Type.getDescriptor(ExprNodeAdapterBase.class) + "[" + $Type.getDescriptor(EventEvaluator.class) +
+            "[" + $Type.getDescriptor(EventPropertyGetter.class) + "[" + $Type.getDescriptor(Object.class) + ")V";
+
+    // locals of the generated match method
+    private static final int LOCAL_EVENT = 1;
+    private static final int LOCAL_MATCHES = 2;
+    private static final int LOCAL_EVENTS_PER_STREAM = 3;
+    private static final int LOCAL_RESULT = 4;
+    private static final int LOCAL_EXCEPTION = 5;
+    private static final int LOCAL_FIRST_PROPERTY = 6;
+
+    /**
+     * Maximum number of generated classes of a generator until it starts over with a new class loader,
+     * allowing unused generated classes to unload.
+     */
+    public final static int MAX_CLASSES = 64;
+
+    private GeneratedClassLoader classLoader;
+    private final Map<String, Constructor> constructors = new HashMap<String, Constructor>();    // of generated classes by their code
+
+    // state of the group being generated
+    private String className;
+    private ExprNodeAdapterBase[] adapters;
+    private int[][] slots;    // for compiled expressions the shared property per expression property, else null
+    private List<EventPropertyGetter> getters;
+    private List<Object> constants;
+    private $MethodVisitor mv;
+    private int[] currentSlots;
+    private int nextLocal;
+
+    /**
+     * Generates the evaluation of a group of expressions.
+     * <p>
+     * Groups whose code is the same, such as groups that differ by constants or evaluators only, share their generated class.
+     * The generator keeps up to {@link #MAX_CLASSES} generated classes in one class loader, therefore allocate one generator per index.
+     * @param adapters expressions, at most {@link #MAX_GROUP_SIZE}
+     * @param evaluators evaluator to match per expression
+     * @return evaluation, or null if the code could not be generated
+     */
+    public synchronized FilterBooleanExprGroupEval generate(ExprNodeAdapterBase[] adapters, EventEvaluator[] evaluators)
+    {
+        try {
+            // determine the code without generating a class, and generate a class only for new code
+            initGroup(adapters);
+            CodeKeyMethodVisitor codeKey = new CodeKeyMethodVisitor();
+            mv = codeKey;
+            generateMatchEventBody();
+            Object[] constantValues = constants.toArray();
+
+            Constructor ctor = constructors.get(codeKey.getKey());
+            if (ctor == null) {
+                if (classLoader == null || constructors.size() >= MAX_CLASSES) {
+                    classLoader = new GeneratedClassLoader(FilterBooleanExprGroupEval.class.getClassLoader());
+                    constructors.clear();
+                }
+                initGroup(adapters);
+                className = "com/espertech/esper/filter/generated/FilterBooleanExprGroupEval" + classNumber.incrementAndGet();
+                Class clazz = classLoader.define(className.replace('/', '.'), generateClass());
+                ctor = clazz.getConstructor(ExprNodeAdapterBase[].class, EventEvaluator[].class, EventPropertyGetter[].class, Object[].class);
+                constructors.put(codeKey.getKey(), ctor);
+            }
+            EventPropertyGetter[] getterValues = getters.toArray(new EventPropertyGetter[getters.size()]);
+            return (FilterBooleanExprGroupEval) ctor.newInstance(adapters, evaluators, getterValues, constantValues);
+        }
+        catch (Throwable t) {
+            log.warn("Failed to generate code for filter boolean expressions, interpreting expressions instead: " + t.getMessage(), t);
+            return null;
+        }
+        finally {
+            className = null;
+            this.adapters = null;
+            slots = null;
+            getters = null;
+            constants = null;
+            mv = null;
+            currentSlots = null;
+        }
+    }
+
+    private void initGroup(ExprNodeAdapterBase[] adapters)
+    {
+        this.adapters = adapters;
+        this.slots = new int[adapters.length][];
+        this.getters = new ArrayList<EventPropertyGetter>();
+        this.constants = new ArrayList<Object>();
+
+        Map<String, Integer> propertySlots = new HashMap<String, Integer>();
+        for (int i = 0; i < adapters.length; i++) {
+            if (!(adapters[i] instanceof ExprNodeAdapterBaseCompiled)) {
+                continue;
+            }
+            FilterBooleanExprCompiled compiled = ((ExprNodeAdapterBaseCompiled) adapters[i]).getCompiled();
+            int[] exprSlots = new int[compiled.getPropertyNames().length];
+            for (int j = 0; j < exprSlots.length; j++) {
+                Integer slot = propertySlots.get(compiled.getPropertyNames()[j]);
+                if (slot == null) {
+                    slot = getters.size();
+                    propertySlots.put(compiled.getPropertyNames()[j], slot);
+                    getters.add(compiled.getGetters()[j]);
+                }
+                exprSlots[j] = slot;
+            }
+            slots[i] = exprSlots;
+        }
+    }
+
+    private byte[] generateClass()
+    {
+        $ClassWriter cw = new $ClassWriter($ClassWriter.COMPUTE_FRAMES | $ClassWriter.COMPUTE_MAXS) {
+            protected String getCommonSuperClass(String typeOne, String typeTwo) {
+                // generated code treats any value that merges from branches as an object
+                return OBJECT;
+            }
+        };
+        cw.visit(V1_6, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, className, null, GROUP_EVAL, null);
+
+        mv = cw.visitMethod(ACC_PUBLIC, "<init>", CTOR_DESC, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitVarInsn(ALOAD, 3);
+        mv.visitVarInsn(ALOAD, 4);
+        mv.visitMethodInsn(INVOKESPECIAL, GROUP_EVAL, "<init>", CTOR_DESC, false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC, "matchEvent", "(L" + EVENT_BEAN + ";Ljava/util/Collection;)V", null, null);
+        mv.visitCode();
+        generateMatchEventBody();
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private void generateMatchEventBody()
+    {
+        mv.visitInsn(ACONST_NULL);
+        mv.visitVarInsn(ASTORE, LOCAL_EVENTS_PER_STREAM);
+        for (int i = 0; i < getters.size(); i++) {
+            mv.visitFieldInsn(GETSTATIC, GROUP_EVAL, "NOT_READ", "L" + OBJECT + ";");
+            mv.visitVarInsn(ASTORE, LOCAL_FIRST_PROPERTY + i);
+        }
+
+        for (int i = 0; i < adapters.length; i++) {
+            // temporary locals of an expression are not used by the next expression
+            nextLocal = LOCAL_FIRST_PROPERTY + getters.size();
+            if (slots[i] != null) {
+                generateCompiled(i);
+            }
+            else {
+                generateInterpreted(i);
+            }
+        }
+        mv.visitInsn(RETURN);
+    }
+
+    private void generateInterpreted(int index)
+    {
+        $Label skip = new $Label();
+        loadArrayElement("adapters", "[L" + ADAPTER + ";", index);
+        mv.visitVarInsn(ALOAD, LOCAL_EVENT);
+        mv.visitMethodInsn(INVOKEVIRTUAL, ADAPTER, "evaluate", "(L" + EVENT_BEAN + ";)Z", false);
+        mv.visitJumpInsn(IFEQ, skip);
+        generateMatch(index);
+        mv.visitLabel(skip);
+    }
+
+    private void generateCompiled(int index)
+    {
+        // same as the adapter: null is false, an exception is logged and is false
+        $Label start = new $Label();
+        $Label end = new $Label();
+        $Label handler = new $Label();
+        $Label notNull = new $Label();
+        $Label store = new $Label();
+        $Label evaluated = new $Label();
+        $Label skip = new $Label();
+        mv.visitTryCatchBlock(start, end, handler, RUNTIME_EXCEPTION);
+
+        mv.visitLabel(start);
+        currentSlots = slots[index];
+        generateNode(((ExprNodeAdapterBaseCompiled) adapters[index]).getCompiled().getRoot());
+        mv.visitInsn(DUP);
+        mv.visitJumpInsn(IFNONNULL, notNull);
+        mv.visitInsn(POP);
+        mv.visitInsn(ICONST_0);
+        mv.visitJumpInsn(GOTO, store);
+        mv.visitLabel(notNull);
+        unboxBoolean();
+        mv.visitLabel(store);
+        mv.visitVarInsn(ISTORE, LOCAL_RESULT);
+        mv.visitLabel(end);
+        mv.visitJumpInsn(GOTO, evaluated);
+
+        mv.visitLabel(handler);
+        mv.visitVarInsn(ASTORE, LOCAL_EXCEPTION);
+        loadArrayElement("adapters", "[L" + ADAPTER + ";", index);
+        mv.visitTypeInsn(CHECKCAST, ADAPTER_COMPILED);
+        mv.visitVarInsn(ALOAD, LOCAL_EXCEPTION);
+        mv.visitMethodInsn(INVOKEVIRTUAL, ADAPTER_COMPILED, "handleEvaluationException", "(L" + RUNTIME_EXCEPTION + ";)Z", false);
+        mv.visitVarInsn(ISTORE, LOCAL_RESULT);
+
+        mv.visitLabel(evaluated);
+        mv.visitVarInsn(ILOAD, LOCAL_RESULT);
+        mv.visitJumpInsn(IFEQ, skip);
+        generateMatch(index);
+        mv.visitLabel(skip);
+    }
+
+    private void generateMatch(int index)
+    {
+        loadArrayElement("evaluators", "[L" + EVENT_EVALUATOR + ";", index);
+        mv.visitVarInsn(ALOAD, LOCAL_EVENT);
+        mv.visitVarInsn(ALOAD, LOCAL_MATCHES);
+        mv.visitMethodInsn(INVOKEINTERFACE, EVENT_EVALUATOR, "matchEvent", "(L" + EVENT_BEAN + ";Ljava/util/Collection;)V", true);
+    }
+
+    // generates the code that leaves the value of the node, an object, on the stack
+    private void generateNode(FilterBooleanExprCompiler.Node node)
+    {
+        if (node instanceof FilterBooleanExprCompiler.PropertyNode) {
+            generateProperty((FilterBooleanExprCompiler.PropertyNode) node);
+        }
+        else if (node instanceof FilterBooleanExprCompiler.ConstantNode) {
+            generateConstant(((FilterBooleanExprCompiler.ConstantNode) node).value);
+        }
+        else if (node instanceof FilterBooleanExprCompiler.InterpretedNode) {
+            generateInterpretedNode((FilterBooleanExprCompiler.InterpretedNode) node);
+        }
+        else if (node instanceof FilterBooleanExprCompiler.AndNode) {
+            generateJunction(((FilterBooleanExprCompiler.AndNode) node).children, true);
+        }
+        else if (node instanceof FilterBooleanExprCompiler.OrNode) {
+            generateJunction(((FilterBooleanExprCompiler.OrNode) node).children, false);
+        }
+        else if (node instanceof FilterBooleanExprCompiler.NotNode) {
+            generateNot((FilterBooleanExprCompiler.NotNode) node);
+        }
+        else if (node instanceof FilterBooleanExprCompiler.RelationalOpNode) {
+            generateRelationalOp((FilterBooleanExprCompiler.RelationalOpNode) node);
+        }
+        else if (node instanceof FilterBooleanExprCompiler.EqualsNode) {
+            generateEquals((FilterBooleanExprCompiler.EqualsNode) node);
+        }
+        else if (node instanceof FilterBooleanExprCompiler.EqualsCoercingNode) {
+            generateEqualsCoercing((FilterBooleanExprCompiler.EqualsCoercingNode) node);
+        }
+        else {
+            throw new IllegalStateException("Unrecognized compiled node " + node);
+        }
+    }
+
+    private void generateProperty(FilterBooleanExprCompiler.PropertyNode node)
+    {
+        int slot = currentSlots[node.property];
+        int local = LOCAL_FIRST_PROPERTY + slot;
+        $Label read = new $Label();
+        mv.visitVarInsn(ALOAD, local);
+        mv.visitFieldInsn(GETSTATIC, GROUP_EVAL, "NOT_READ", "L" + OBJECT + ";");
+        mv.visitJumpInsn(IF_ACMPNE, read);
+        loadArrayElement("getters", "[L" + EVENT_PROPERTY_GETTER + ";", slot);
+        mv.visitVarInsn(ALOAD, LOCAL_EVENT);
+        mv.visitMethodInsn(INVOKEINTERFACE, EVENT_PROPERTY_GETTER, "get", "(L" + EVENT_BEAN + ";)L" + OBJECT + ";", true);
+        mv.visitVarInsn(ASTORE, local);
+        mv.visitLabel(read);
+        mv.visitVarInsn(ALOAD, local);
+    }
+
+    private void generateConstant(Object value)
+    {
+        if (value == null) {
+            mv.visitInsn(ACONST_NULL);
+        }
+        else if (value instanceof Boolean) {
+            pushBoolean((Boolean) value);
+        }
+        else {
+            loadConstant(value);
+        }
+    }
+
+    private void generateInterpretedNode(FilterBooleanExprCompiler.InterpretedNode node)
+    {
+        // the events-per-stream array is allocated only for events that evaluate an interpreted node
+        $Label allocated = new $Label();
+        mv.visitVarInsn(ALOAD, LOCAL_EVENTS_PER_STREAM);
+        mv.visitJumpInsn(IFNONNULL, allocated);
+        mv.visitInsn(ICONST_1);
+        mv.visitTypeInsn(ANEWARRAY, EVENT_BEAN);
+        mv.visitInsn(DUP);
+        mv.visitInsn(ICONST_0);
+        mv.visitVarInsn(ALOAD, LOCAL_EVENT);
+        mv.visitInsn(AASTORE);
+        mv.visitVarInsn(ASTORE, LOCAL_EVENTS_PER_STREAM);
+        mv.visitLabel(allocated);
+
+        loadConstant(node.evaluator);
+        mv.visitTypeInsn(CHECKCAST, EXPR_EVALUATOR);
+        mv.visitVarInsn(ALOAD, LOCAL_EVENTS_PER_STREAM);
+        mv.visitInsn(ICONST_1);
+        loadConstant(node.evaluatorContext);
+        mv.visitTypeInsn(CHECKCAST, EXPR_EVALUATOR_CONTEXT);
+        mv.visitMethodInsn(INVOKEINTERFACE, EXPR_EVALUATOR, "evaluate", "([L" + EVENT_BEAN + ";ZL" + EXPR_EVALUATOR_CONTEXT + ";)L" + OBJECT + ";", true);
+    }
+
+    private void generateJunction(FilterBooleanExprCompiler.Node[] children, boolean isAnd)
+    {
+        // same as the and-node and or-node: the deciding value returns, else null if any child returns null
+        int result = nextLocal++;
+        $Label end = new $Label();
+        pushBoolean(isAnd);
+        mv.visitVarInsn(ASTORE, result);
+        for (FilterBooleanExprCompiler.Node child : children) {
+            $Label next = new $Label();
+            $Label notNull = new $Label();
+            generateNode(child);
+            mv.visitInsn(DUP);
+            mv.visitJumpInsn(IFNONNULL, notNull);
+            mv.visitInsn(POP);
+            mv.visitInsn(ACONST_NULL);
+            mv.visitVarInsn(ASTORE, result);
+            mv.visitJumpInsn(GOTO, next);
+            mv.visitLabel(notNull);
+            unboxBoolean();
+            mv.visitJumpInsn(isAnd ? IFNE : IFEQ, next);
+            pushBoolean(!isAnd);
+            mv.visitJumpInsn(GOTO, end);
+            mv.visitLabel(next);
+        }
+        mv.visitVarInsn(ALOAD, result);
+        mv.visitLabel(end);
+    }
+
+    private void generateNot(FilterBooleanExprCompiler.NotNode node)
+    {
+        $Label end = new $Label();
+        $Label isTrue = new $Label();
+        generateNode(node.child);
+        mv.visitInsn(DUP);
+        mv.visitJumpInsn(IFNULL, end);
+        unboxBoolean();
+        mv.visitJumpInsn(IFNE, isTrue);
+        pushBoolean(true);
+        mv.visitJumpInsn(GOTO, end);
+        mv.visitLabel(isTrue);
+        pushBoolean(false);
+        mv.visitLabel(end);
+    }
+
+    private void generateRelationalOp(FilterBooleanExprCompiler.RelationalOpNode node)
+    {
+        int lhs = nextLocal++;
+        int rhs = nextLocal++;
+        $Label end = new $Label();
+        $Label lhsNotNull = new $Label();
+        $Label rhsNotNull = new $Label();
+        $Label isFalse = new $Label();
+
+        generateNode(node.lhs);
+        mv.visitVarInsn(ASTORE, lhs);
+        mv.visitVarInsn(ALOAD, lhs);
+        mv.visitJumpInsn(IFNONNULL, lhsNotNull);
+        mv.visitInsn(ACONST_NULL);
+        mv.visitJumpInsn(GOTO, end);
+        mv.visitLabel(lhsNotNull);
+        generateNode(node.rhs);
+        mv.visitVarInsn(ASTORE, rhs);
+        mv.visitVarInsn(ALOAD, rhs);
+        mv.visitJumpInsn(IFNONNULL, rhsNotNull);
+        mv.visitInsn(ACONST_NULL);
+        mv.visitJumpInsn(GOTO, end);
+        mv.visitLabel(rhsNotNull);
+
+        Class type = node.compareType;
+        if (type == Integer.class || type == Long.class || type == Double.class || type == Float.class) {
+            // same as the computers of the relational operator for these types, compares the primitive values
+            String method = type == Integer.class ? "intValue" : type == Long.class ? "longValue" : type == Double.class ? "doubleValue" : "floatValue";
+            String desc = type == Integer.class ? "()I" : type == Long.class ? "()J" : type == Double.class ? "()D" : "()F";
+            mv.visitVarInsn(ALOAD, lhs);
+            mv.visitTypeInsn(CHECKCAST, NUMBER);
+            mv.visitMethodInsn(INVOKEVIRTUAL, NUMBER, method, desc, false);
+            mv.visitVarInsn(ALOAD, rhs);
+            mv.visitTypeInsn(CHECKCAST, NUMBER);
+            mv.visitMethodInsn(INVOKEVIRTUAL, NUMBER, method, desc, false);
+            boolean isGreater = node.relationalOp == RelationalOpEnum.GT || node.relationalOp == RelationalOpEnum.GE;
+            if (type == Integer.class) {
+                mv.visitJumpInsn(getJumpIfFalse(node.relationalOp, IF_ICMPLE, IF_ICMPLT, IF_ICMPGE, IF_ICMPGT), isFalse);
+            }
+            else {
+                if (type == Long.class) {
+                    mv.visitInsn(LCMP);
+                }
+                else if (type == Double.class) {
+                    mv.visitInsn(isGreater ? DCMPL : DCMPG);    // NaN compares false
+                }
+                else {
+                    mv.visitInsn(isGreater ? FCMPL : FCMPG);
+                }
+                mv.visitJumpInsn(getJumpIfFalse(node.relationalOp, IFLE, IFLT, IFGE, IFGT), isFalse);
+            }
+        }
+        else {
+            loadConstant(node.computer);
+            mv.visitTypeInsn(CHECKCAST, COMPUTER);
+            mv.visitVarInsn(ALOAD, lhs);
+            mv.visitVarInsn(ALOAD, rhs);
+            mv.visitMethodInsn(INVOKEINTERFACE, COMPUTER, "compare", "(L" + OBJECT + ";L" + OBJECT + ";)Z", true);
+            mv.visitJumpInsn(IFEQ, isFalse);
+        }
+        pushBooleanResult(isFalse, end);
+        mv.visitLabel(end);
+    }
+
+    private void generateEquals(FilterBooleanExprCompiler.EqualsNode node)
+    {
+        // same as the equals-node evaluators that do not coerce
+        int lhs = nextLocal++;
+        int rhs = nextLocal++;
+        $Label end = new $Label();
+        $Label isTrue = new $Label();
+        $Label isFalse = new $Label();
+        $Label isNull = new $Label();
+        generateNode(node.lhs);
+        mv.visitVarInsn(ASTORE, lhs);
+        generateNode(node.rhs);
+        mv.visitVarInsn(ASTORE, rhs);
+
+        if (node.isIs) {
+            $Label lhsNotNull = new $Label();
+            mv.visitVarInsn(ALOAD, lhs);
+            mv.visitJumpInsn(IFNONNULL, lhsNotNull);
+            mv.visitVarInsn(ALOAD, rhs);
+            mv.visitJumpInsn(IFNONNULL, node.isNotEquals ? isTrue : isFalse);
+            mv.visitJumpInsn(GOTO, node.isNotEquals ? isFalse : isTrue);
+            mv.visitLabel(lhsNotNull);
+            mv.visitVarInsn(ALOAD, rhs);
+            mv.visitJumpInsn(IFNULL, node.isNotEquals ? isTrue : isFalse);
+        }
+        else {
+            mv.visitVarInsn(ALOAD, lhs);
+            mv.visitJumpInsn(IFNULL, isNull);
+            mv.visitVarInsn(ALOAD, rhs);
+            mv.visitJumpInsn(IFNULL, isNull);
+        }
+        mv.visitVarInsn(ALOAD, lhs);
+        mv.visitVarInsn(ALOAD, rhs);
+        mv.visitMethodInsn(INVOKEVIRTUAL, OBJECT, "equals", "(L" + OBJECT + ";)Z", false);
+        mv.visitJumpInsn(node.isNotEquals ? IFNE : IFEQ, isFalse);
+        mv.visitLabel(isTrue);
+        pushBooleanResult(isFalse, end);
+        if (!node.isIs) {
+            mv.visitLabel(isNull);
+            mv.visitInsn(ACONST_NULL);
+            mv.visitJumpInsn(GOTO, end);
+        }
+        mv.visitLabel(end);
+    }
+
+    private void generateEqualsCoercing(FilterBooleanExprCompiler.EqualsCoercingNode node)
+    {
+        // same as the coercing equals-node evaluators, for which null values do not consider not-equals
+        int lhs = nextLocal++;
+        int rhs = nextLocal++;
+        $Label end = new $Label();
+        $Label isTrue = new $Label();
+        $Label isFalse = new $Label();
+        $Label bothNotNull = new $Label();
+        generateNode(node.lhs);
+        mv.visitVarInsn(ASTORE, lhs);
+        generateNode(node.rhs);
+        mv.visitVarInsn(ASTORE, rhs);
+
+        if (node.isIs) {
+            $Label lhsNotNull = new $Label();
+            mv.visitVarInsn(ALOAD, lhs);
+            mv.visitJumpInsn(IFNONNULL, lhsNotNull);
+            mv.visitVarInsn(ALOAD, rhs);
+            mv.visitJumpInsn(IFNONNULL, isFalse);
+            mv.visitJumpInsn(GOTO, isTrue);
+            mv.visitLabel(lhsNotNull);
+            mv.visitVarInsn(ALOAD, rhs);
+            mv.visitJumpInsn(IFNULL, isFalse);
+            mv.visitJumpInsn(GOTO, bothNotNull);
+        }
+        else {
+            $Label isNull = new $Label();
+            mv.visitVarInsn(ALOAD, lhs);
+            mv.visitJumpInsn(IFNULL, isNull);
+            mv.visitVarInsn(ALOAD, rhs);
+            mv.visitJumpInsn(IFNONNULL, bothNotNull);
+            mv.visitLabel(isNull);
+            mv.visitInsn(ACONST_NULL);
+            mv.visitJumpInsn(GOTO, end);
+        }
+
+        mv.visitLabel(bothNotNull);
+        $Label coercedFalse = new $Label();
+        loadCoerced(node.numberCoercerLHS, lhs);
+        loadCoerced(node.numberCoercerRHS, rhs);
+        mv.visitMethodInsn(INVOKEVIRTUAL, OBJECT, "equals", "(L" + OBJECT + ";)Z", false);
+        mv.visitJumpInsn(node.isNotEquals ? IFNE : IFEQ, coercedFalse);
+        pushBooleanResult(coercedFalse, end);
+
+        mv.visitLabel(isTrue);
+        pushBoolean(true);
+        mv.visitJumpInsn(GOTO, end);
+        mv.visitLabel(isFalse);
+        pushBoolean(false);
+        mv.visitLabel(end);
+    }
+
+    private void loadCoerced(SimpleNumberCoercer coercer, int local)
+    {
+        loadConstant(coercer);
+        mv.visitTypeInsn(CHECKCAST, COERCER);
+        mv.visitVarInsn(ALOAD, local);
+        mv.visitTypeInsn(CHECKCAST, NUMBER);
+        mv.visitMethodInsn(INVOKEINTERFACE, COERCER, "coerceBoxed", "(L" + NUMBER + ";)L" + NUMBER + ";", true);
+    }
+
+    // pushes true when falling through, and false when jumping to the false-label, then continues at the end-label
+    private void pushBooleanResult($Label isFalse, $Label end)
+    {
+        pushBoolean(true);
+        mv.visitJumpInsn(GOTO, end);
+        mv.visitLabel(isFalse);
+        pushBoolean(false);
+        mv.visitJumpInsn(GOTO, end);
+    }
+
+    private static int getJumpIfFalse(RelationalOpEnum op, int opGT, int opGE, int opLT, int opLE)
+    {
+        switch (op) {
+            case GT: return opGT;
+            case GE: return opGE;
+            case LT: return opLT;
+            case LE: return opLE;
+            default: throw new IllegalStateException("Unrecognized relational operator " + op);
+        }
+    }
+
+    private void pushBoolean(boolean value)
+    {
+        mv.visitFieldInsn(GETSTATIC, BOOLEAN, value ? "TRUE" : "FALSE", "L" + BOOLEAN + ";");
+    }
+
+    private void unboxBoolean()
+    {
+        mv.visitTypeInsn(CHECKCAST, BOOLEAN);
+        mv.visitMethodInsn(INVOKEVIRTUAL, BOOLEAN, "booleanValue", "()Z", false);
+    }
+
+    private void loadConstant(Object value)
+    {
+        int index = constants.size();
+        constants.add(value);
+        loadArrayElement("constants", "[L" + OBJECT + ";", index);
+    }
+
+    private void loadArrayElement(String field, String desc, int index)
+    {
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, GROUP_EVAL, field, desc);
+        if (index <= 5) {
+            mv.visitInsn(ICONST_0 + index);
+        }
+        else if (index <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(BIPUSH, index);
+        }
+        else if (index <= Short.MAX_VALUE) {
+            mv.visitIntInsn(SIPUSH, index);
+        }
+        else {
+            mv.visitLdcInsn(index);
+        }
+        mv.visitInsn(AALOAD);
+    }
+
+    /**
+     * Records the instructions of generated code as a key.
+     */
+    private static class CodeKeyMethodVisitor extends $MethodVisitor
+    {
+        private final StringBuilder key = new StringBuilder();
+        private final Map<$Label, Integer> labels = new IdentityHashMap<$Label, Integer>();
+
+        private CodeKeyMethodVisitor()
+        {
+            super(ASM5);
+        }
+
+        private String getKey()
+        {
+            return key.toString();
+        }
+
+        public void visitInsn(int opcode)
+        {
+            key.append(opcode).append(';');
+        }
+
+        public void visitIntInsn(int opcode, int operand)
+        {
+            key.append(opcode).append(',').append(operand).append(';');
+        }
+
+        public void visitVarInsn(int opcode, int var)
+        {
+            key.append(opcode).append(',').append(var).append(';');
+        }
+
+        public void visitTypeInsn(int opcode, String type)
+        {
+            key.append(opcode).append(',').append(type).append(';');
+        }
+
+        public void visitFieldInsn(int opcode, String owner, String name, String desc)
+        {
+            key.append(opcode).append(',').append(owner).append(',').append(name).append(';');
+        }
+
+        public void visitMethodInsn(int opcode, String owner, String name, String desc, boolean itf)
+        {
+            key.append(opcode).append(',').append(owner).append(',').append(name).append(desc).append(';');
+        }
+
+        public void visitJumpInsn(int opcode, $Label label)
+        {
+            key.append(opcode).append(",L").append(getLabel(label)).append(';');
+        }
+
+        public void visitLabel($Label label)
+        {
+            key.append('L').append(getLabel(label)).append(':');
+        }
+
+        public void visitLdcInsn(Object cst)
+        {
+            key.append(LDC).append(',').append(cst).append(';');
+        }
+
+        public void visitTryCatchBlock($Label start, $Label end, $Label handler, String type)
+        {
+            key.append("T,L").append(getLabel(start)).append(",L").append(getLabel(end)).append(",L").append(getLabel(handler)).append(',').append(type).append(';');
+        }
+
+        private int getLabel($Label label)
+        {
+            Integer number = labels.get(label);
+            if (number == null) {
+                number = labels.size();
+                labels.put(label, number);
+            }
+            return number;
+        }
+    }
+
+    private static class GeneratedClassLoader extends ClassLoader
+    {
+        private GeneratedClassLoader(ClassLoader parent)
+        {
+            super(parent);
+        }
+
+        private Class define(String name, byte[] bytes)
+        {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
@@ -42,7 +42,13 @@ public class FilterBooleanExpressionFactoryImpl implements FilterBooleanExpressi
             }
             // no-variable no-prior event evaluation
             else if (!node.isHasVariable()) {
-                adapter = new ExprNodeAdapterBase(filterSpecId, filterSpecParamPathNum, exprNode, exprEvaluatorContext);
+                FilterBooleanExprCompiled compiled = node.isCompile() ? FilterBooleanExprCompiler.compile(exprNode, exprEvaluatorContext) : null;
+                if (compiled != null) {
+                    adapter = new ExprNodeAdapterBaseCompiled(filterSpecId, filterSpecParamPathNum, exprNode, exprEvaluatorContext, compiled);
+                }
+                else {
+                    adapter = new ExprNodeAdapterBase(filterSpecId, filterSpecParamPathNum, exprNode, exprEvaluatorContext);
+                }
             }
             else {
                 // with-variable no-prior event evaluation
@@ -21,18 +21,32 @@ import java.util.concurrent.locks.ReadWriteLock;
  * but can also be non-leaf (some indizes exist) in a filter evaluation tree.
  * Events are evaluated by asking each of the indizes to evaluate the event and by
  * adding any filter callbacks in this node to the "matches" list of callbacks.
+ * <p>
+ * For copy-on-write the node replaces the collection of callbacks or indizes upon change, and matching
+ * reads each collection field once without locking.
  */
 public final class FilterHandleSetNode implements EventEvaluator
 {
     private final ReadWriteLock nodeRWLock;
-    private final Set<FilterHandle> callbackSet;
-    private final List<FilterParamIndexBase> indizes;
+    private final boolean copyOnWrite;
+    private volatile Set<FilterHandle> callbackSet;
+    private volatile List<FilterParamIndexBase> indizes;
 
     /**
      * Constructor.
      */
     public FilterHandleSetNode(ReadWriteLock nodeRWLock) {
+        this(nodeRWLock, false);
+    }
+
+    /**
+     * Constructor.
+     * @param nodeRWLock lock
+     * @param copyOnWrite true to replace collections upon change, for matching without locking
+     */
+    public FilterHandleSetNode(ReadWriteLock nodeRWLock, boolean copyOnWrite) {
         this.nodeRWLock = nodeRWLock;
+        this.copyOnWrite = copyOnWrite;
         callbackSet = new LinkedHashSet<FilterHandle>();
         indizes = new LinkedList<FilterParamIndexBase>();
     }
@@ -69,7 +83,8 @@ public final class FilterHandleSetNode implements EventEvaluator
     }
 
     /**
-     * Returns list of indexes - not returning an iterator. Client classes should not change this collection.
+     * Returns list of indexes - not returning an iterator. Client classes should not change this collection,
+     * use the add and remove methods instead.
      * @return list of indizes
      */
     public List<FilterParamIndexBase> getIndizes()
@@ -88,6 +103,9 @@ public final class FilterHandleSetNode implements EventEvaluator
     {
         nodeRWLock.readLock().lock();
         try {
+            List<FilterParamIndexBase> indizes = this.indizes;
+            Set<FilterHandle> callbackSet = this.callbackSet;
+
             if (InstrumentationHelper.ENABLED) {
                 if (!indizes.isEmpty()) {
                     InstrumentationHelper.get().qFilterHandleSetIndexes(indizes);
@@ -142,6 +160,12 @@ public final class FilterHandleSetNode implements EventEvaluator
      */
     public final void add(FilterParamIndexBase index)
     {
+        if (copyOnWrite) {
+            List<FilterParamIndexBase> copy = new ArrayList<FilterParamIndexBase>(indizes);
+            copy.add(index);
+            indizes = copy;
+            return;
+        }
         indizes.add(index);
     }
 
@@ -154,6 +178,12 @@ public final class FilterHandleSetNode implements EventEvaluator
      */
     public final boolean remove(FilterParamIndexBase index)
     {
+        if (copyOnWrite) {
+            List<FilterParamIndexBase> copy = new ArrayList<FilterParamIndexBase>(indizes);
+            boolean removed = copy.remove(index);
+            indizes = copy;
+            return removed;
+        }
         return indizes.remove(index);
     }
 
@@ -166,6 +196,12 @@ public final class FilterHandleSetNode implements EventEvaluator
      */
     public final void add(FilterHandle filterCallback)
     {
+        if (copyOnWrite) {
+            Set<FilterHandle> copy = new LinkedHashSet<FilterHandle>(callbackSet);
+            copy.add(filterCallback);
+            callbackSet = copy;
+            return;
+        }
         callbackSet.add(filterCallback);
     }
 
@@ -178,6 +214,15 @@ public final class FilterHandleSetNode implements EventEvaluator
      */
     public final boolean remove(FilterHandle filterCallback)
     {
+        if (copyOnWrite) {
+            if (!callbackSet.contains(filterCallback)) {
+                return false;
+            }
+            Set<FilterHandle> copy = new LinkedHashSet<FilterHandle>(callbackSet);
+            copy.remove(filterCallback);
+            callbackSet = copy;
+            return true;
+        }
         return callbackSet.remove(filterCallback);
     }
 
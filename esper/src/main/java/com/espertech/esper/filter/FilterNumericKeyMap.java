@@ -0,0 +1,141 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.collection.LongHashMap;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Map of filter constants for an event property of numeric type, for use by filter indexes.
+ * <p>
+ * Constants of the boxed property type are kept in a primitive long-keyed map: integral values by their long value
+ * and floating-point values by their bits, so that looking up an event property value does not hash or compare boxed values.
+ * Constants of any other type, and null, are kept in a regular map, which retains the equals-semantics
+ * of a map of boxed values.
+ */
+public final class FilterNumericKeyMap<V>
+{
+    private final Class boxedType;
+    private final boolean floatingPoint;
+    private final LongHashMap<V> numericMap;
+    private final Map<Object, V> otherMap;
+
+    /**
+     * Ctor.
+     * @param type numeric property type, see {@link #isNumericKeyType(Class)}
+     */
+    public FilterNumericKeyMap(Class type)
+    {
+        this.boxedType = JavaClassHelper.getBoxedType(type);
+        this.floatingPoint = boxedType == Double.class || boxedType == Float.class;
+        this.numericMap = new LongHashMap<V>();
+        this.otherMap = new HashMap<Object, V>();
+    }
+
+    /**
+     * Ctor for a copy of the map, for use by copy-on-write indexes.
+     * @param other map to copy
+     */
+    public FilterNumericKeyMap(FilterNumericKeyMap<V> other)
+    {
+        this.boxedType = other.boxedType;
+        this.floatingPoint = other.floatingPoint;
+        this.numericMap = new LongHashMap<V>(other.numericMap);
+        this.otherMap = new HashMap<Object, V>(other.otherMap);
+    }
+
+    /**
+     * Returns true for property types that the map keeps in primitive form.
+     * @param type property type
+     * @return indicator
+     */
+    public static boolean isNumericKeyType(Class type)
+    {
+        Class boxed = JavaClassHelper.getBoxedType(type);
+        return boxed == Integer.class || boxed == Long.class || boxed == Short.class || boxed == Byte.class ||
+               boxed == Double.class || boxed == Float.class;
+    }
+
+    /**
+     * Returns true if the value is of the property type and is therefore kept in primitive form.
+     * @param value value
+     * @return indicator
+     */
+    public boolean isNumericKey(Object value)
+    {
+        return value != null && value.getClass() == boxedType;
+    }
+
+    /**
+     * Returns the primitive key for a value of the property type.
+     * @param value value of the property type
+     * @return key
+     */
+    public long toKey(Object value)
+    {
+        if (floatingPoint)
+        {
+            return Double.doubleToLongBits(((Number) value).doubleValue());
+        }
+        return ((Number) value).longValue();
+    }
+
+    public V get(Object value)
+    {
+        if (isNumericKey(value))
+        {
+            return numericMap.get(toKey(value));
+        }
+        return otherMap.get(value);
+    }
+
+    public V put(Object value, V entry)
+    {
+        if (isNumericKey(value))
+        {
+            return numericMap.put(toKey(value), entry);
+        }
+        return otherMap.put(value, entry);
+    }
+
+    public V remove(Object value)
+    {
+        if (isNumericKey(value))
+        {
+            return numericMap.remove(toKey(value));
+        }
+        return otherMap.remove(value);
+    }
+
+    public int size()
+    {
+        return numericMap.size() + otherMap.size();
+    }
+
+    /**
+     * Returns the primitive-keyed map of the values of the property type.
+     * @return map
+     */
+    public LongHashMap<V> getNumericMap()
+    {
+        return numericMap;
+    }
+
+    /**
+     * Returns the map of values not of the property type.
+     * @return map
+     */
+    public Map<Object, V> getOtherMap()
+    {
+        return otherMap;
+    }
+}
@@ -160,6 +160,30 @@ public enum FilterOperator
         return false;
     }
 
+    /**
+     * Returns true for range and inverted range operators whose range includes the low endpoint.
+     * @return true for ranges including the low endpoint, false for anyting else
+     */
+    public boolean isRangeIncludeLow()
+    {
+        return (this == FilterOperator.RANGE_CLOSED) ||
+               (this == FilterOperator.RANGE_HALF_OPEN) ||
+               (this == FilterOperator.NOT_RANGE_CLOSED) ||
+               (this == FilterOperator.NOT_RANGE_HALF_OPEN);
+    }
+
+    /**
+     * Returns true for range and inverted range operators whose range includes the high endpoint.
+     * @return true for ranges including the high endpoint, false for anyting else
+     */
+    public boolean isRangeIncludeHigh()
+    {
+        return (this == FilterOperator.RANGE_CLOSED) ||
+               (this == FilterOperator.RANGE_HALF_CLOSED) ||
+               (this == FilterOperator.NOT_RANGE_CLOSED) ||
+               (this == FilterOperator.NOT_RANGE_HALF_CLOSED);
+    }
+
     /**
      * Returns true for relational comparison operators which excludes the = equals operator, else returns false.
      * @return true for lesser or greater -type operators, false for anyting else
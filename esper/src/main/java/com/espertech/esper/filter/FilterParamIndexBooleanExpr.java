@@ -9,20 +9,31 @@
 package com.espertech.esper.filter;
 
 import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
-import java.util.Collection;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.locks.ReadWriteLock;
 
 /**
  * Index that simply maintains a list of boolean expressions.
+ * <p>
+ * The index keeps its expressions in groups of at most {@link FilterBooleanExprGroupGenerator#MAX_GROUP_SIZE} expressions,
+ * in insertion order. Compiled boolean expressions, see {@link ExprNodeAdapterBaseCompiled}, are evaluated by code generated
+ * per group, see {@link FilterBooleanExprGroupGenerator}, that reads each event property at most once per event
+ * for the compiled expressions of a group.
+ * <p>
+ * Changes build the evaluation of the changed group only, and publish the evaluation of all groups by a single
+ * volatile write. Matching an event never generates code and can therefore run without locking,
+ * as is the case for the copy-on-write filter service.
  */
 public final class FilterParamIndexBooleanExpr extends FilterParamIndexBase
 {
-    private final Map<ExprNodeAdapterBase, EventEvaluator> evaluatorsMap;
     private final ReadWriteLock constantsMapRWLock;
+    private volatile Evaluation evaluation = new Evaluation(new Group[0], 0);
+
+    // generates code for groups with compiled expressions, used by changes only and allocated upon first use
+    private FilterBooleanExprGroupGenerator generator;
 
     /**
      * Constructs the index for multiple-exact matches.
@@ -30,32 +41,85 @@ public final class FilterParamIndexBooleanExpr extends FilterParamIndexBase
     public FilterParamIndexBooleanExpr(ReadWriteLock readWriteLock)
     {
         super(FilterOperator.BOOLEAN_EXPRESSION);
-
-        evaluatorsMap = new LinkedHashMap<ExprNodeAdapterBase, EventEvaluator>();
         constantsMapRWLock = readWriteLock;
     }
 
     public final EventEvaluator get(Object filterConstant)
     {
         ExprNodeAdapterBase keyValues = (ExprNodeAdapterBase) filterConstant;
-        return evaluatorsMap.get(keyValues);
+        for (Group group : evaluation.groups) {
+            EventEvaluator evaluator = group.evaluators.get(keyValues);
+            if (evaluator != null) {
+                return evaluator;
+            }
+        }
+        return null;
     }
 
     public final void put(Object filterConstant, EventEvaluator evaluator)
     {
         ExprNodeAdapterBase keys = (ExprNodeAdapterBase) filterConstant;
-        evaluatorsMap.put(keys, evaluator);
+        Evaluation current = evaluation;
+        Group[] groups = current.groups;
+
+        // replace the evaluator of an existing expression, keeping its position
+        for (int i = 0; i < groups.length; i++) {
+            if (groups[i].evaluators.containsKey(keys)) {
+                LinkedHashMap<ExprNodeAdapterBase, EventEvaluator> map = new LinkedHashMap<ExprNodeAdapterBase, EventEvaluator>(groups[i].evaluators);
+                map.put(keys, evaluator);
+                Group[] changed = groups.clone();
+                changed[i] = makeGroup(map);
+                evaluation = new Evaluation(changed, current.size);
+                return;
+            }
+        }
+
+        // add to the last group, or to a new group when the last group is full
+        Group[] changed;
+        LinkedHashMap<ExprNodeAdapterBase, EventEvaluator> map;
+        if (groups.length > 0 && groups[groups.length - 1].evaluators.size() < FilterBooleanExprGroupGenerator.MAX_GROUP_SIZE) {
+            changed = groups.clone();
+            map = new LinkedHashMap<ExprNodeAdapterBase, EventEvaluator>(groups[groups.length - 1].evaluators);
+        }
+        else {
+            changed = Arrays.copyOf(groups, groups.length + 1);
+            map = new LinkedHashMap<ExprNodeAdapterBase, EventEvaluator>();
+        }
+        map.put(keys, evaluator);
+        changed[changed.length - 1] = makeGroup(map);
+        evaluation = new Evaluation(changed, current.size + 1);
     }
 
     public final boolean remove(Object filterConstant)
     {
         ExprNodeAdapterBase keys = (ExprNodeAdapterBase) filterConstant;
-        return evaluatorsMap.remove(keys) != null;
+        Evaluation current = evaluation;
+        Group[] groups = current.groups;
+        for (int i = 0; i < groups.length; i++) {
+            if (!groups[i].evaluators.containsKey(keys)) {
+                continue;
+            }
+            Group[] changed;
+            if (groups[i].evaluators.size() == 1) {
+                changed = new Group[groups.length - 1];
+                System.arraycopy(groups, 0, changed, 0, i);
+                System.arraycopy(groups, i + 1, changed, i, groups.length - i - 1);
+            }
+            else {
+                LinkedHashMap<ExprNodeAdapterBase, EventEvaluator> map = new LinkedHashMap<ExprNodeAdapterBase, EventEvaluator>(groups[i].evaluators);
+                map.remove(keys);
+                changed = groups.clone();
+                changed[i] = makeGroup(map);
+            }
+            evaluation = new Evaluation(changed, current.size - 1);
+            return true;
+        }
+        return false;
     }
 
     public final int size()
     {
-        return evaluatorsMap.size();
+        return evaluation.size;
     }
 
     public final ReadWriteLock getReadWriteLock()
@@ -71,21 +135,21 @@ public final class FilterParamIndexBooleanExpr extends FilterParamIndexBase
 
             if (InstrumentationHelper.ENABLED) {
                 int i = -1;
-                for (Map.Entry<ExprNodeAdapterBase, EventEvaluator> evals : evaluatorsMap.entrySet()) {
-                    i++;
-                    InstrumentationHelper.get().qFilterBooleanExpr(i, evals);
-                    boolean result = evals.getKey().evaluate(theEvent);
-                    InstrumentationHelper.get().aFilterBooleanExpr(result);
-                    if (result) {
-                        evals.getValue().matchEvent(theEvent, matches);
+                for (Group group : evaluation.groups) {
+                    for (Map.Entry<ExprNodeAdapterBase, EventEvaluator> evals : group.evaluators.entrySet()) {
+                        i++;
+                        InstrumentationHelper.get().qFilterBooleanExpr(i, evals);
+                        boolean result = evals.getKey().evaluate(theEvent);
+                        InstrumentationHelper.get().aFilterBooleanExpr(result);
+                        if (result) {
+                            evals.getValue().matchEvent(theEvent, matches);
+                        }
                     }
                 }
             }
             else {
-                for (Map.Entry<ExprNodeAdapterBase, EventEvaluator> evals : evaluatorsMap.entrySet()) {
-                    if (evals.getKey().evaluate(theEvent)) {
-                        evals.getValue().matchEvent(theEvent, matches);
-                    }
+                for (Group group : evaluation.groups) {
+                    group.eval.matchEvent(theEvent, matches);
                 }
             }
         }
@@ -94,4 +158,67 @@ public final class FilterParamIndexBooleanExpr extends FilterParamIndexBase
         }
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterBoolean();}
     }
+
+    private Group makeGroup(LinkedHashMap<ExprNodeAdapterBase, EventEvaluator> map)
+    {
+        ExprNodeAdapterBase[] adapters = map.keySet().toArray(new ExprNodeAdapterBase[map.size()]);
+        EventEvaluator[] evaluators = map.values().toArray(new EventEvaluator[map.size()]);
+
+        boolean hasCompiled = false;
+        for (ExprNodeAdapterBase adapter : adapters) {
+            hasCompiled |= adapter instanceof ExprNodeAdapterBaseCompiled;
+        }
+        FilterBooleanExprGroupEval eval = null;
+        if (hasCompiled) {
+            if (generator == null) {
+                generator = new FilterBooleanExprGroupGenerator();
+            }
+            eval = generator.generate(adapters, evaluators);
+        }
+        if (eval == null) {
+            eval = new InterpretedGroupEval(adapters, evaluators);
+        }
+        return new Group(map, eval);
+    }
+
+    private static class Evaluation
+    {
+        private final Group[] groups;
+        private final int size;
+
+        private Evaluation(Group[] groups, int size)
+        {
+            this.groups = groups;
+            this.size = size;
+        }
+    }
+
+    private static class Group
+    {
+        private final Map<ExprNodeAdapterBase, EventEvaluator> evaluators;
+        private final FilterBooleanExprGroupEval eval;
+
+        private Group(Map<ExprNodeAdapterBase, EventEvaluator> evaluators, FilterBooleanExprGroupEval eval)
+        {
+            this.evaluators = evaluators;
+            this.eval = eval;
+        }
+    }
+
+    private static class InterpretedGroupEval extends FilterBooleanExprGroupEval
+    {
+        private InterpretedGroupEval(ExprNodeAdapterBase[] adapters, EventEvaluator[] evaluators)
+        {
+            super(adapters, evaluators, new EventPropertyGetter[0], new Object[0]);
+        }
+
+        public void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
+        {
+            for (int i = 0; i < adapters.length; i++) {
+                if (adapters[i].evaluate(theEvent)) {
+                    evaluators[i].matchEvent(theEvent, matches);
+                }
+            }
+        }
+    }
 }
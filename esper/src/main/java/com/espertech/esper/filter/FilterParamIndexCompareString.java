@@ -23,17 +23,25 @@ import java.util.concurrent.locks.ReadWriteLock;
  * The implementation is based on the SortedMap implementation of TreeMap.
  * The index only accepts String constants. It keeps a lower and upper bounds of all constants in the index
  * for fast range checking, since the assumption is that frequently values fall within a range.
+ * <p>
+ * For copy-on-write the index replaces the map upon change and matching reads the map field once without locking.
  */
 public final class FilterParamIndexCompareString extends FilterParamIndexLookupableBase
 {
-    private final TreeMap<Object, EventEvaluator> constantsMap;
+    private volatile TreeMap<Object, EventEvaluator> constantsMap;
     private final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
 
     public FilterParamIndexCompareString(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
+        this(lookupable, readWriteLock, filterOperator, false);
+    }
+
+    public FilterParamIndexCompareString(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean copyOnWrite) {
         super(filterOperator, lookupable);
 
         constantsMap = new TreeMap<Object, EventEvaluator>();
         constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
 
         if ((filterOperator != FilterOperator.GREATER) &&
             (filterOperator != FilterOperator.GREATER_OR_EQUAL) &&
@@ -51,15 +59,20 @@ public final class FilterParamIndexCompareString extends FilterParamIndexLookupa
 
     public final void put(Object filterConstant, EventEvaluator matcher)
     {
-        constantsMap.put(filterConstant, matcher);
+        TreeMap<Object, EventEvaluator> map = copyOnWrite ? new TreeMap<Object, EventEvaluator>(constantsMap) : constantsMap;
+        map.put(filterConstant, matcher);
+        constantsMap = map;
     }
 
     public final boolean remove(Object filterConstant)
     {
-        if (constantsMap.remove(filterConstant) == null)
+        if (!constantsMap.containsKey(filterConstant))
         {
             return false;
         }
+        TreeMap<Object, EventEvaluator> map = copyOnWrite ? new TreeMap<Object, EventEvaluator>(constantsMap) : constantsMap;
+        map.remove(filterConstant);
+        constantsMap = map;
 
         return true;
     }
@@ -90,6 +103,7 @@ public final class FilterParamIndexCompareString extends FilterParamIndexLookupa
         // Look up in table
         constantsMapRWLock.readLock().lock();
         try {
+            TreeMap<Object, EventEvaluator> constantsMap = this.constantsMap;
 
             // Get the head or tail end of the map depending on comparison type
             Map<Object, EventEvaluator> subMap;
@@ -26,7 +26,15 @@ import java.util.concurrent.locks.ReadWriteLock;
 public final class FilterParamIndexDoubleRange extends FilterParamIndexDoubleRangeBase
 {
     public FilterParamIndexDoubleRange(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
-        super(lookupable, readWriteLock, filterOperator);
+        this(lookupable, readWriteLock, filterOperator, false);
+    }
+
+    public FilterParamIndexDoubleRange(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean copyOnWrite) {
+        this(lookupable, readWriteLock, filterOperator, copyOnWrite, FilterRangeIntervalTree.DEFAULT_THRESHOLD);
+    }
+
+    public FilterParamIndexDoubleRange(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean copyOnWrite, int intervalTreeThreshold) {
+        super(lookupable, readWriteLock, filterOperator, copyOnWrite, intervalTreeThreshold);
         if (!(filterOperator.isRangeOperator()))
         {
             throw new IllegalArgumentException("Invalid filter operator " + filterOperator);
@@ -46,6 +54,18 @@ public final class FilterParamIndexDoubleRange extends FilterParamIndexDoubleRan
 
         double attributeValue = ((Number) objAttributeValue).doubleValue();
 
+        FilterRangeIntervalTree<DoubleRange, Double> tree = intervalTree;
+        if (tree != null)
+        {
+            // NaN is not within and not outside of any range, add 0 to compare -0.0 as 0.0
+            if (!Double.isNaN(attributeValue))
+            {
+                tree.matchContaining(attributeValue + 0.0, includeLow, includeHigh, theEvent, matches);
+            }
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(null);}
+            return;
+        }
+
         DoubleRange rangeStart = new DoubleRange(attributeValue - largestRangeValueDouble, attributeValue);
         DoubleRange rangeEnd = new DoubleRange(attributeValue, Double.MAX_VALUE);
 
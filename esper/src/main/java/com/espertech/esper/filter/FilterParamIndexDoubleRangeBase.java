@@ -12,6 +12,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.TreeMap;
 import java.util.concurrent.locks.ReadWriteLock;
 
@@ -19,21 +20,35 @@ import java.util.concurrent.locks.ReadWriteLock;
  * Index for filter parameter constants for the range operators (range open/closed/half).
  * The implementation is based on the SortedMap implementation of TreeMap and stores only expression
  * parameter values of type DoubleRange.
+ * <p>
+ * When the number of ranges exceeds a threshold the index also keeps the ranges in an interval tree,
+ * for matching the ranges that contain, or do not contain, a value without visiting all ranges.
  */
 public abstract class FilterParamIndexDoubleRangeBase extends FilterParamIndexLookupableBase
 {
-    protected final TreeMap<DoubleRange, EventEvaluator> ranges;
+    protected volatile TreeMap<DoubleRange, EventEvaluator> ranges;
     private final IdentityHashMap<DoubleRange, EventEvaluator> rangesNullEndpoints;
     private final ReadWriteLock rangesRWLock;
+    private final boolean copyOnWrite;
+    private final int intervalTreeThreshold;
 
-    protected double largestRangeValueDouble = Double.MIN_VALUE;
+    protected volatile double largestRangeValueDouble = Double.MIN_VALUE;
 
-    protected FilterParamIndexDoubleRangeBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
+    // interval tree of the ranges when the number of ranges exceeds the threshold, or null
+    protected volatile FilterRangeIntervalTree<DoubleRange, Double> intervalTree;
+    protected final boolean includeLow;
+    protected final boolean includeHigh;
+
+    protected FilterParamIndexDoubleRangeBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean copyOnWrite, int intervalTreeThreshold) {
         super(filterOperator, lookupable);
+        this.intervalTreeThreshold = intervalTreeThreshold;
+        this.includeLow = filterOperator.isRangeIncludeLow();
+        this.includeHigh = filterOperator.isRangeIncludeHigh();
 
         ranges = new TreeMap<DoubleRange, EventEvaluator>(new DoubleRangeComparator());
         rangesNullEndpoints = new IdentityHashMap<DoubleRange, EventEvaluator>();
         rangesRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
     }
 
     public final EventEvaluator get(Object expressionValue)
@@ -71,7 +86,24 @@ public abstract class FilterParamIndexDoubleRangeBase extends FilterParamIndexLo
             largestRangeValueDouble = Math.abs(range.getMax() - range.getMin());
         }
 
-        ranges.put(range, matcher);
+        TreeMap<DoubleRange, EventEvaluator> map = copyOnWrite ? new TreeMap<DoubleRange, EventEvaluator>(ranges) : ranges;
+        map.put(range, matcher);
+        ranges = map;
+
+        FilterRangeIntervalTree<DoubleRange, Double> tree = intervalTree;
+        if (tree != null)
+        {
+            addTree(tree, range, matcher);
+        }
+        else if (map.size() > intervalTreeThreshold)
+        {
+            tree = new FilterRangeIntervalTree<DoubleRange, Double>(new DoubleRangeComparator());
+            for (Map.Entry<DoubleRange, EventEvaluator> entry : map.entrySet())
+            {
+                addTree(tree, entry.getKey(), entry.getValue());
+            }
+            intervalTree = tree;
+        }
     }
 
     public final boolean remove(Object filterConstant)
@@ -83,7 +115,27 @@ public abstract class FilterParamIndexDoubleRangeBase extends FilterParamIndexLo
             return rangesNullEndpoints.remove(range) != null;
         }
 
-        return ranges.remove(range) != null;
+        if (!ranges.containsKey(range))
+        {
+            return false;
+        }
+        TreeMap<DoubleRange, EventEvaluator> map = copyOnWrite ? new TreeMap<DoubleRange, EventEvaluator>(ranges) : ranges;
+        map.remove(range);
+        ranges = map;
+
+        FilterRangeIntervalTree<DoubleRange, Double> tree = intervalTree;
+        if (tree != null)
+        {
+            if (map.size() <= intervalTreeThreshold / 2)
+            {
+                intervalTree = null;
+            }
+            else if (!Double.isNaN(range.getMin()) && !Double.isNaN(range.getMax()))
+            {
+                tree.remove(range);
+            }
+        }
+        return true;
     }
 
     public final int size()
@@ -96,5 +148,26 @@ public abstract class FilterParamIndexDoubleRangeBase extends FilterParamIndexLo
         return rangesRWLock;
     }
 
+    /**
+     * Returns true if the index currently matches using an interval tree.
+     * @return indicator
+     */
+    public final boolean isIntervalTree()
+    {
+        return intervalTree != null;
+    }
+
+    private static void addTree(FilterRangeIntervalTree<DoubleRange, Double> tree, DoubleRange range, EventEvaluator matcher)
+    {
+        double min = range.getMin();
+        double max = range.getMax();
+        if (Double.isNaN(min) || Double.isNaN(max))
+        {
+            return;     // ranges with a NaN endpoint never match
+        }
+        // add 0 to compare -0.0 as 0.0, the same as comparing primitives
+        tree.put(range, min + 0.0, max + 0.0, matcher);
+    }
+
     private static final Logger log = LoggerFactory.getLogger(FilterParamIndexDoubleRangeBase.class);
 }
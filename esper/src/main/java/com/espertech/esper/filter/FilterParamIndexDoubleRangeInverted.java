@@ -25,7 +25,15 @@ import java.util.concurrent.locks.ReadWriteLock;
 public final class FilterParamIndexDoubleRangeInverted extends FilterParamIndexDoubleRangeBase
 {
     public FilterParamIndexDoubleRangeInverted(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
-        super(lookupable, readWriteLock, filterOperator);
+        this(lookupable, readWriteLock, filterOperator, false);
+    }
+
+    public FilterParamIndexDoubleRangeInverted(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean copyOnWrite) {
+        this(lookupable, readWriteLock, filterOperator, copyOnWrite, FilterRangeIntervalTree.DEFAULT_THRESHOLD);
+    }
+
+    public FilterParamIndexDoubleRangeInverted(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean copyOnWrite, int intervalTreeThreshold) {
+        super(lookupable, readWriteLock, filterOperator, copyOnWrite, intervalTreeThreshold);
         if (!(filterOperator.isInvertedRangeOperator()))
         {
             throw new IllegalArgumentException("Invalid filter operator " + filterOperator);
@@ -45,6 +53,18 @@ public final class FilterParamIndexDoubleRangeInverted extends FilterParamIndexD
 
         double attributeValue = ((Number) objAttributeValue).doubleValue();
 
+        FilterRangeIntervalTree<DoubleRange, Double> tree = intervalTree;
+        if (tree != null)
+        {
+            // NaN is not within and not outside of any range, add 0 to compare -0.0 as 0.0
+            if (!Double.isNaN(attributeValue))
+            {
+                tree.matchNotContaining(attributeValue + 0.0, includeLow, includeHigh, theEvent, matches);
+            }
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(null);}
+            return;
+        }
+
         if (this.getFilterOperator() == FilterOperator.NOT_RANGE_CLOSED) {   // include all endpoints
             for (Map.Entry<DoubleRange, EventEvaluator> entry : ranges.entrySet()) {
                 if ((attributeValue < entry.getKey().getMin()) ||
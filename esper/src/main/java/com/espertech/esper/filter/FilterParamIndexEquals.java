@@ -21,7 +21,11 @@ import java.util.concurrent.locks.ReadWriteLock;
 public final class FilterParamIndexEquals extends FilterParamIndexEqualsBase
 {
     public FilterParamIndexEquals(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
-        super(lookupable, readWriteLock, FilterOperator.EQUAL);
+        this(lookupable, readWriteLock, false);
+    }
+
+    public FilterParamIndexEquals(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
+        super(lookupable, readWriteLock, FilterOperator.EQUAL, copyOnWrite);
     }
 
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
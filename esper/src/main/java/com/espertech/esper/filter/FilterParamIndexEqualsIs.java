@@ -21,7 +21,11 @@ import java.util.concurrent.locks.ReadWriteLock;
 public final class FilterParamIndexEqualsIs extends FilterParamIndexEqualsBase
 {
     public FilterParamIndexEqualsIs(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
-        super(lookupable, readWriteLock, FilterOperator.IS);
+        this(lookupable, readWriteLock, false);
+    }
+
+    public FilterParamIndexEqualsIs(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
+        super(lookupable, readWriteLock, FilterOperator.IS, copyOnWrite);
     }
 
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
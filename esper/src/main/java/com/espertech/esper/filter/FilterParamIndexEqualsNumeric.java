@@ -0,0 +1,109 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Index for filter parameter constants to match using the equals (=) operator, for event properties of numeric type.
+ * The implementation is based on a map of primitive keys, see {@link FilterNumericKeyMap}.
+ */
+public final class FilterParamIndexEqualsNumeric extends FilterParamIndexLookupableBase
+{
+    private volatile FilterNumericKeyMap<EventEvaluator> constantsMap;
+    private final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
+
+    public FilterParamIndexEqualsNumeric(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
+        this(lookupable, readWriteLock, false);
+    }
+
+    public FilterParamIndexEqualsNumeric(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
+        super(FilterOperator.EQUAL, lookupable);
+
+        constantsMap = new FilterNumericKeyMap<EventEvaluator>(lookupable.getReturnType());
+        constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
+    }
+
+    public final EventEvaluator get(Object filterConstant)
+    {
+        return constantsMap.get(filterConstant);
+    }
+
+    public final void put(Object filterConstant, EventEvaluator evaluator)
+    {
+        FilterNumericKeyMap<EventEvaluator> map = copyOnWrite ? new FilterNumericKeyMap<EventEvaluator>(constantsMap) : constantsMap;
+        map.put(filterConstant, evaluator);
+        constantsMap = map;
+    }
+
+    public final boolean remove(Object filterConstant)
+    {
+        if (constantsMap.get(filterConstant) == null)
+        {
+            return false;
+        }
+        FilterNumericKeyMap<EventEvaluator> map = copyOnWrite ? new FilterNumericKeyMap<EventEvaluator>(constantsMap) : constantsMap;
+        map.remove(filterConstant);
+        constantsMap = map;
+        return true;
+    }
+
+    public final int size()
+    {
+        return constantsMap.size();
+    }
+
+    public final ReadWriteLock getReadWriteLock()
+    {
+        return constantsMapRWLock;
+    }
+
+    public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
+    {
+        Object attributeValue = lookupable.getGetter().get(theEvent);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qFilterReverseIndex(this, attributeValue);}
+
+        if (attributeValue == null) {   //  null cannot match, not even null: requires use of "is"
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(false);}
+            return;
+        }
+
+        // Look up in hashtable
+        EventEvaluator evaluator = null;
+        constantsMapRWLock.readLock().lock();
+        try {
+            FilterNumericKeyMap<EventEvaluator> map = constantsMap;
+            if (map.isNumericKey(attributeValue)) {
+                evaluator = map.getNumericMap().get(map.toKey(attributeValue));
+            }
+            else {
+                evaluator = map.getOtherMap().get(attributeValue);
+            }
+        }
+        finally {
+            constantsMapRWLock.readLock().unlock();
+        }
+
+        // No listener found for the value, return
+        if (evaluator == null)
+        {
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(false);}
+            return;
+        }
+
+        evaluator.matchEvent(theEvent, matches);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(true);}
+    }
+}
@@ -24,16 +24,22 @@ import java.util.concurrent.locks.ReadWriteLock;
  */
 public final class FilterParamIndexIn extends FilterParamIndexLookupableBase
 {
-    private final Map<Object, List<EventEvaluator>> constantsMap;
+    private volatile Map<Object, List<EventEvaluator>> constantsMap;
     private final Map<MultiKeyUntyped, EventEvaluator> evaluatorsMap;
     private final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
 
     public FilterParamIndexIn(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
+        this(lookupable, readWriteLock, false);
+    }
+
+    public FilterParamIndexIn(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
         super(FilterOperator.IN_LIST_OF_VALUES, lookupable);
 
         constantsMap = new HashMap<Object, List<EventEvaluator>>();
         evaluatorsMap = new HashMap<MultiKeyUntyped, EventEvaluator>();
         constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
     }
 
     public final EventEvaluator get(Object filterConstant)
@@ -51,17 +57,24 @@ public final class FilterParamIndexIn extends FilterParamIndexLookupableBase
         EventEvaluator oldEvaluator = evaluatorsMap.put(keys, evaluator);
 
         // Store each value to match against in Map with it's evaluator as a list
+        // For copy-on-write the map and any list changed are copies that are not visible to matching until published
+        Map<Object, List<EventEvaluator>> map = copyOnWrite ? new HashMap<Object, List<EventEvaluator>>(constantsMap) : constantsMap;
         Object[] keyValues = keys.getKeys();
         for (int i = 0; i < keyValues.length; i++)
         {
-            List<EventEvaluator> evaluators = constantsMap.get(keyValues[i]);
+            List<EventEvaluator> evaluators = map.get(keyValues[i]);
             if (evaluators == null)
             {
                 evaluators = new LinkedList<EventEvaluator>();
-                constantsMap.put(keyValues[i], evaluators);
+                map.put(keyValues[i], evaluators);
             }
             else
             {
+                if (copyOnWrite)
+                {
+                    evaluators = new LinkedList<EventEvaluator>(evaluators);
+                    map.put(keyValues[i], evaluators);
+                }
                 if (oldEvaluator != null)
                 {
                     evaluators.remove(oldEvaluator);
@@ -69,6 +82,7 @@ public final class FilterParamIndexIn extends FilterParamIndexLookupableBase
             }
             evaluators.add(evaluator);
         }
+        constantsMap = map;
     }
 
     public final boolean remove(Object filterConstant)
@@ -83,19 +97,26 @@ public final class FilterParamIndexIn extends FilterParamIndexLookupableBase
             isRemoved = true;
         }
 
+        Map<Object, List<EventEvaluator>> map = copyOnWrite ? new HashMap<Object, List<EventEvaluator>>(constantsMap) : constantsMap;
         Object[] keyValues = keys.getKeys();
         for (int i = 0; i < keyValues.length; i++)
         {
-            List<EventEvaluator> evaluators = constantsMap.get(keyValues[i]);
+            List<EventEvaluator> evaluators = map.get(keyValues[i]);
             if (evaluators != null) // could be removed already as same-value constants existed
             {
+                if (copyOnWrite)
+                {
+                    evaluators = new LinkedList<EventEvaluator>(evaluators);
+                    map.put(keyValues[i], evaluators);
+                }
                 evaluators.remove(eval);
                 if (evaluators.isEmpty())
                 {
-                    constantsMap.remove(keyValues[i]);
+                    map.remove(keyValues[i]);
                 }
             }
         }
+        constantsMap = map;
         return isRemoved;
     }
 
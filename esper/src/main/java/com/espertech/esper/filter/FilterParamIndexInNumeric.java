@@ -0,0 +1,176 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Index for filter parameter constants to match using the 'in' operator to match against a supplied set of values
+ * (i.e. multiple possible exact matches), for event properties of numeric type.
+ * The implementation is based on a map of primitive keys, see {@link FilterNumericKeyMap}.
+ */
+public final class FilterParamIndexInNumeric extends FilterParamIndexLookupableBase
+{
+    private volatile FilterNumericKeyMap<List<EventEvaluator>> constantsMap;
+    private final Map<MultiKeyUntyped, EventEvaluator> evaluatorsMap;
+    private final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
+
+    public FilterParamIndexInNumeric(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
+        this(lookupable, readWriteLock, false);
+    }
+
+    public FilterParamIndexInNumeric(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
+        super(FilterOperator.IN_LIST_OF_VALUES, lookupable);
+
+        constantsMap = new FilterNumericKeyMap<List<EventEvaluator>>(lookupable.getReturnType());
+        evaluatorsMap = new HashMap<MultiKeyUntyped, EventEvaluator>();
+        constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
+    }
+
+    public final EventEvaluator get(Object filterConstant)
+    {
+        MultiKeyUntyped keyValues = (MultiKeyUntyped) filterConstant;
+        return evaluatorsMap.get(keyValues);
+    }
+
+    public final void put(Object filterConstant, EventEvaluator evaluator)
+    {
+        // Store evaluator keyed to set of values
+        MultiKeyUntyped keys = (MultiKeyUntyped) filterConstant;
+
+        // make sure to remove the old evaluator for this constant
+        EventEvaluator oldEvaluator = evaluatorsMap.put(keys, evaluator);
+
+        // Store each value to match against in Map with it's evaluator as a list
+        // For copy-on-write the map and any list changed are copies that are not visible to matching until published
+        FilterNumericKeyMap<List<EventEvaluator>> map = copyOnWrite ? new FilterNumericKeyMap<List<EventEvaluator>>(constantsMap) : constantsMap;
+        Object[] keyValues = keys.getKeys();
+        for (int i = 0; i < keyValues.length; i++)
+        {
+            List<EventEvaluator> evaluators = map.get(keyValues[i]);
+            if (evaluators == null)
+            {
+                evaluators = new LinkedList<EventEvaluator>();
+                map.put(keyValues[i], evaluators);
+            }
+            else
+            {
+                if (copyOnWrite)
+                {
+                    evaluators = new LinkedList<EventEvaluator>(evaluators);
+                    map.put(keyValues[i], evaluators);
+                }
+                if (oldEvaluator != null)
+                {
+                    evaluators.remove(oldEvaluator);
+                }
+            }
+            evaluators.add(evaluator);
+        }
+        constantsMap = map;
+    }
+
+    public final boolean remove(Object filterConstant)
+    {
+        MultiKeyUntyped keys = (MultiKeyUntyped) filterConstant;
+
+        // remove the mapping of value set to evaluator
+        EventEvaluator eval = evaluatorsMap.remove(keys);
+        boolean isRemoved = false;
+        if (eval != null)
+        {
+            isRemoved = true;
+        }
+
+        FilterNumericKeyMap<List<EventEvaluator>> map = copyOnWrite ? new FilterNumericKeyMap<List<EventEvaluator>>(constantsMap) : constantsMap;
+        Object[] keyValues = keys.getKeys();
+        for (int i = 0; i < keyValues.length; i++)
+        {
+            List<EventEvaluator> evaluators = map.get(keyValues[i]);
+            if (evaluators != null) // could be removed already as same-value constants existed
+            {
+                if (copyOnWrite)
+                {
+                    evaluators = new LinkedList<EventEvaluator>(evaluators);
+                    map.put(keyValues[i], evaluators);
+                }
+                evaluators.remove(eval);
+                if (evaluators.isEmpty())
+                {
+                    map.remove(keyValues[i]);
+                }
+            }
+        }
+        constantsMap = map;
+        return isRemoved;
+    }
+
+    public final int size()
+    {
+        return constantsMap.size();
+    }
+
+    public final ReadWriteLock getReadWriteLock()
+    {
+        return constantsMapRWLock;
+    }
+
+    public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
+    {
+        Object attributeValue = lookupable.getGetter().get(theEvent);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qFilterReverseIndex(this, attributeValue);}
+
+        if (attributeValue == null)
+        {
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(false);}
+            return;
+        }
+
+        // Look up in hashtable
+        constantsMapRWLock.readLock().lock();
+        FilterNumericKeyMap<List<EventEvaluator>> map = constantsMap;
+        List<EventEvaluator> evaluators;
+        if (map.isNumericKey(attributeValue)) {
+            evaluators = map.getNumericMap().get(map.toKey(attributeValue));
+        }
+        else {
+            evaluators = map.getOtherMap().get(attributeValue);
+        }
+
+        // No listener found for the value, return
+        if (evaluators == null)
+        {
+            constantsMapRWLock.readLock().unlock();
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(false);}
+            return;
+        }
+
+        try {
+            for (EventEvaluator evaluator : evaluators)
+            {
+                evaluator.matchEvent(theEvent, matches);
+            }
+        }
+        finally {
+            constantsMapRWLock.readLock().unlock();
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(null);}
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(FilterParamIndexInNumeric.class);
+}
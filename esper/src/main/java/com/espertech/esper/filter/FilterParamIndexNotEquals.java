@@ -24,7 +24,11 @@ import java.util.concurrent.locks.ReadWriteLock;
 public final class FilterParamIndexNotEquals extends FilterParamIndexNotEqualsBase
 {
     public FilterParamIndexNotEquals(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
-        super(lookupable, readWriteLock, FilterOperator.NOT_EQUAL);
+        this(lookupable, readWriteLock, false);
+    }
+
+    public FilterParamIndexNotEquals(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
+        super(lookupable, readWriteLock, FilterOperator.NOT_EQUAL, copyOnWrite);
     }
 
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
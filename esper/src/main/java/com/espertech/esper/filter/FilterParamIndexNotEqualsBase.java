@@ -15,17 +15,25 @@ import java.util.concurrent.locks.ReadWriteLock;
 /**
  * Index for filter parameter constants to match using the equals (=) operator.
  * The implementation is based on a regular HashMap.
+ * <p>
+ * For copy-on-write the index replaces the map upon change and matching reads the map field once without locking.
  */
 public abstract class FilterParamIndexNotEqualsBase extends FilterParamIndexLookupableBase
 {
-    protected final Map<Object, EventEvaluator> constantsMap;
+    protected volatile Map<Object, EventEvaluator> constantsMap;
     protected final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
 
     protected FilterParamIndexNotEqualsBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
+        this(lookupable, readWriteLock, filterOperator, false);
+    }
+
+    protected FilterParamIndexNotEqualsBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean copyOnWrite) {
         super(filterOperator, lookupable);
 
         constantsMap = new HashMap<Object, EventEvaluator>();
         constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
     }
 
     public final EventEvaluator get(Object filterConstant)
@@ -35,15 +43,20 @@ public abstract class FilterParamIndexNotEqualsBase extends FilterParamIndexLook
 
     public final void put(Object filterConstant, EventEvaluator evaluator)
     {
-        constantsMap.put(filterConstant, evaluator);
+        Map<Object, EventEvaluator> map = copyOnWrite ? new HashMap<Object, EventEvaluator>(constantsMap) : constantsMap;
+        map.put(filterConstant, evaluator);
+        constantsMap = map;
     }
 
     public final boolean remove(Object filterConstant)
     {
-        if (constantsMap.remove(filterConstant) == null)
+        if (!constantsMap.containsKey(filterConstant))
         {
             return false;
         }
+        Map<Object, EventEvaluator> map = copyOnWrite ? new HashMap<Object, EventEvaluator>(constantsMap) : constantsMap;
+        map.remove(filterConstant);
+        constantsMap = map;
         return true;
     }
 
@@ -24,7 +24,11 @@ import java.util.concurrent.locks.ReadWriteLock;
 public final class FilterParamIndexNotEqualsIs extends FilterParamIndexNotEqualsBase
 {
     public FilterParamIndexNotEqualsIs(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
-        super(lookupable, readWriteLock, FilterOperator.IS_NOT);
+        this(lookupable, readWriteLock, false);
+    }
+
+    public FilterParamIndexNotEqualsIs(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
+        super(lookupable, readWriteLock, FilterOperator.IS_NOT, copyOnWrite);
     }
 
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
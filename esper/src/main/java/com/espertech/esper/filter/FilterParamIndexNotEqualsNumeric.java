@@ -0,0 +1,120 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.LongHashMap;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Index for filter parameter constants to match using the not-equals (!=) operator, for event properties of numeric type.
+ * The implementation is based on a map of primitive keys, see {@link FilterNumericKeyMap}.
+ */
+public final class FilterParamIndexNotEqualsNumeric extends FilterParamIndexLookupableBase
+{
+    private volatile FilterNumericKeyMap<EventEvaluator> constantsMap;
+    private final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
+
+    public FilterParamIndexNotEqualsNumeric(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
+        this(lookupable, readWriteLock, false);
+    }
+
+    public FilterParamIndexNotEqualsNumeric(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
+        super(FilterOperator.NOT_EQUAL, lookupable);
+
+        constantsMap = new FilterNumericKeyMap<EventEvaluator>(lookupable.getReturnType());
+        constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
+    }
+
+    public final EventEvaluator get(Object filterConstant)
+    {
+        return constantsMap.get(filterConstant);
+    }
+
+    public final void put(Object filterConstant, EventEvaluator evaluator)
+    {
+        FilterNumericKeyMap<EventEvaluator> map = copyOnWrite ? new FilterNumericKeyMap<EventEvaluator>(constantsMap) : constantsMap;
+        map.put(filterConstant, evaluator);
+        constantsMap = map;
+    }
+
+    public final boolean remove(Object filterConstant)
+    {
+        if (constantsMap.get(filterConstant) == null)
+        {
+            return false;
+        }
+        FilterNumericKeyMap<EventEvaluator> map = copyOnWrite ? new FilterNumericKeyMap<EventEvaluator>(constantsMap) : constantsMap;
+        map.remove(filterConstant);
+        constantsMap = map;
+        return true;
+    }
+
+    public final int size()
+    {
+        return constantsMap.size();
+    }
+
+    public final ReadWriteLock getReadWriteLock()
+    {
+        return constantsMapRWLock;
+    }
+
+    public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
+    {
+        Object attributeValue = lookupable.getGetter().get(theEvent);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qFilterReverseIndex(this, attributeValue);}
+
+        if (attributeValue == null) {   // null cannot match any other value, not even null (use "is" or "is not", i.e. null != null returns null)
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(false);}
+            return;
+        }
+
+        constantsMapRWLock.readLock().lock();
+        try {
+            // constants of the property type compare by primitive key, they are never equal to a value of another type
+            FilterNumericKeyMap<EventEvaluator> map = constantsMap;
+            LongHashMap<EventEvaluator> numericMap = map.getNumericMap();
+            boolean isNumeric = map.isNumericKey(attributeValue);
+            long key = isNumeric ? map.toKey(attributeValue) : 0;
+            for (int i = 0; i < numericMap.getTableLength(); i++)
+            {
+                EventEvaluator evaluator = numericMap.getValueAt(i);
+                if (evaluator != null && (!isNumeric || numericMap.getKeyAt(i) != key))
+                {
+                    evaluator.matchEvent(theEvent, matches);
+                }
+            }
+
+            for (Map.Entry<Object, EventEvaluator> entry : map.getOtherMap().entrySet())
+            {
+                if (entry.getKey() == null)
+                {
+                    continue;   // null-value cannot match, not even null (use "is" or "is not", i.e. null != null returns null)
+                }
+
+                if (!entry.getKey().equals(attributeValue))
+                {
+                    entry.getValue().matchEvent(theEvent, matches);
+                }
+            }
+        }
+        finally {
+            constantsMapRWLock.readLock().unlock();
+        }
+
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(null);}
+    }
+}
@@ -20,22 +20,30 @@ import java.util.concurrent.locks.ReadWriteLock;
 /**
  * Index for filter parameter constants to match using the 'not in' operator to match against a
  * all other values then the supplied set of values.
+ * <p>
+ * The map of values to evaluators and the set of all evaluators are kept together since matching compares them.
+ * For copy-on-write the index publishes copies of both together.
  */
 public final class FilterParamIndexNotIn extends FilterParamIndexLookupableBase
 {
-    private final Map<Object, Set<EventEvaluator>> constantsMap;
+    private volatile NotInValues values;
     private final Map<MultiKeyUntyped, EventEvaluator> filterValueEvaluators;
-    private final Set<EventEvaluator> evaluatorsSet;
     private final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
 
     public FilterParamIndexNotIn(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock)
+    {
+        this(lookupable, readWriteLock, false);
+    }
+
+    public FilterParamIndexNotIn(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite)
     {
         super(FilterOperator.NOT_IN_LIST_OF_VALUES, lookupable);
 
-        constantsMap = new HashMap<Object, Set<EventEvaluator>>();
+        values = new NotInValues(new HashMap<Object, Set<EventEvaluator>>(), new HashSet<EventEvaluator>());
         filterValueEvaluators = new HashMap<MultiKeyUntyped, EventEvaluator>();
-        evaluatorsSet = new HashSet<EventEvaluator>();
         constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
     }
 
     public final EventEvaluator get(Object filterConstant)
@@ -48,21 +56,42 @@ public final class FilterParamIndexNotIn extends FilterParamIndexLookupableBase
     {
         // Store evaluator keyed to set of values
         MultiKeyUntyped keys = (MultiKeyUntyped) filterConstant;
-        filterValueEvaluators.put(keys, evaluator);
-        evaluatorsSet.add(evaluator);
+        EventEvaluator replaced = filterValueEvaluators.put(keys, evaluator);
+        // for copy-on-write the put replaces the old evaluator for this constant, since the index tree builder
+        // does not remove the old evaluator first so that matching always finds an evaluator
+        EventEvaluator oldEvaluator = copyOnWrite ? replaced : null;
+        NotInValues changed = copyOnWrite ? values.copy() : values;
+        if (oldEvaluator != null)
+        {
+            changed.evaluatorsSet.remove(oldEvaluator);
+        }
+        changed.evaluatorsSet.add(evaluator);
 
         // Store each value to match against in Map with it's evaluator as a list
         Object[] keyValues = keys.getKeys();
         for (Object keyValue : keyValues)
         {
-            Set<EventEvaluator> evaluators = constantsMap.get(keyValue);
+            Set<EventEvaluator> evaluators = changed.constantsMap.get(keyValue);
             if (evaluators == null)
             {
                 evaluators = new HashSet<EventEvaluator>();
-                constantsMap.put(keyValue, evaluators);
+                changed.constantsMap.put(keyValue, evaluators);
+            }
+            else
+            {
+                if (copyOnWrite)
+                {
+                    evaluators = new HashSet<EventEvaluator>(evaluators);
+                    changed.constantsMap.put(keyValue, evaluators);
+                }
+                if (oldEvaluator != null)
+                {
+                    evaluators.remove(oldEvaluator);
+                }
             }
             evaluators.add(evaluator);
         }
+        values = changed;
     }
 
     public final boolean remove(Object filterConstant)
@@ -71,7 +100,8 @@ public final class FilterParamIndexNotIn extends FilterParamIndexLookupableBase
 
         // remove the mapping of value set to evaluator
         EventEvaluator eval = filterValueEvaluators.remove(keys);
-        evaluatorsSet.remove(eval);
+        NotInValues changed = copyOnWrite ? values.copy() : values;
+        changed.evaluatorsSet.remove(eval);
         boolean isRemoved = false;
         if (eval != null)
         {
@@ -81,22 +111,28 @@ public final class FilterParamIndexNotIn extends FilterParamIndexLookupableBase
         Object[] keyValues = keys.getKeys();
         for (Object keyValue : keyValues)
         {
-            Set<EventEvaluator> evaluators = constantsMap.get(keyValue);
+            Set<EventEvaluator> evaluators = changed.constantsMap.get(keyValue);
             if (evaluators != null) // could already be removed as constants may be the same
             {
+                if (copyOnWrite)
+                {
+                    evaluators = new HashSet<EventEvaluator>(evaluators);
+                    changed.constantsMap.put(keyValue, evaluators);
+                }
                 evaluators.remove(eval);
                 if (evaluators.isEmpty())
                 {
-                    constantsMap.remove(keyValue);
+                    changed.constantsMap.remove(keyValue);
                 }
             }
         }
+        values = changed;
         return isRemoved;
     }
 
     public final int size()
     {
-        return constantsMap.size();
+        return values.constantsMap.size();
     }
 
     public final ReadWriteLock getReadWriteLock()
@@ -117,7 +153,9 @@ public final class FilterParamIndexNotIn extends FilterParamIndexLookupableBase
 
         // Look up in hashtable the set of not-in evaluators
         constantsMapRWLock.readLock().lock();
-        Set<EventEvaluator> evalNotMatching = constantsMap.get(attributeValue);
+        NotInValues current = values;
+        Set<EventEvaluator> evaluatorsSet = current.evaluatorsSet;
+        Set<EventEvaluator> evalNotMatching = current.constantsMap.get(attributeValue);
 
         // if all known evaluators are matching, invoke all
         if (evalNotMatching == null)
@@ -159,5 +197,20 @@ public final class FilterParamIndexNotIn extends FilterParamIndexLookupableBase
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(null);}
     }
 
+    private static class NotInValues
+    {
+        private final Map<Object, Set<EventEvaluator>> constantsMap;
+        private final Set<EventEvaluator> evaluatorsSet;
+
+        private NotInValues(Map<Object, Set<EventEvaluator>> constantsMap, Set<EventEvaluator> evaluatorsSet) {
+            this.constantsMap = constantsMap;
+            this.evaluatorsSet = evaluatorsSet;
+        }
+
+        private NotInValues copy() {
+            return new NotInValues(new HashMap<Object, Set<EventEvaluator>>(constantsMap), new HashSet<EventEvaluator>(evaluatorsSet));
+        }
+    }
+
     private static final Logger log = LoggerFactory.getLogger(FilterParamIndexNotIn.class);
 }
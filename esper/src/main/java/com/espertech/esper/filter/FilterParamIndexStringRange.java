@@ -30,7 +30,15 @@ import java.util.concurrent.locks.ReadWriteLock;
 public final class FilterParamIndexStringRange extends FilterParamIndexStringRangeBase
 {
     public FilterParamIndexStringRange(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
-        super(lookupable, readWriteLock, filterOperator);
+        this(lookupable, readWriteLock, filterOperator, false);
+    }
+
+    public FilterParamIndexStringRange(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean copyOnWrite) {
+        this(lookupable, readWriteLock, filterOperator, copyOnWrite, FilterRangeIntervalTree.DEFAULT_THRESHOLD);
+    }
+
+    public FilterParamIndexStringRange(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean copyOnWrite, int intervalTreeThreshold) {
+        super(lookupable, readWriteLock, filterOperator, copyOnWrite, intervalTreeThreshold);
 
         if (!(filterOperator.isRangeOperator()))
         {
@@ -51,6 +59,14 @@ public final class FilterParamIndexStringRange extends FilterParamIndexStringRan
         
         String attributeValue = (String) objAttributeValue;
 
+        FilterRangeIntervalTree<StringRange, String> tree = intervalTree;
+        if (tree != null)
+        {
+            tree.matchContaining(attributeValue, includeLow, includeHigh, theEvent, matches);
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(null);}
+            return;
+        }
+
         StringRange rangeStart = new StringRange(null, attributeValue);
         StringRange rangeEnd = new StringRange(attributeValue, null);
         SortedMap<StringRange, EventEvaluator> subMap = ranges.subMap(rangeStart, true, rangeEnd, true);
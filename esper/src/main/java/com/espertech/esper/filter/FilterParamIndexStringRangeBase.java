@@ -16,21 +16,40 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.TreeMap;
 import java.util.concurrent.locks.ReadWriteLock;
 
+/**
+ * Index for filter parameter constants for the string range operators, stores only expression
+ * parameter values of type StringRange.
+ * <p>
+ * When the number of ranges exceeds a threshold the index also keeps the ranges in an interval tree,
+ * for matching the ranges that contain, or do not contain, a value without visiting all ranges.
+ */
 public abstract class FilterParamIndexStringRangeBase extends FilterParamIndexLookupableBase
 {
-    protected final TreeMap<StringRange, EventEvaluator> ranges;
+    protected volatile TreeMap<StringRange, EventEvaluator> ranges;
     private final IdentityHashMap<StringRange, EventEvaluator> rangesNullEndpoints;
     private final ReadWriteLock rangesRWLock;
+    private final boolean copyOnWrite;
+    private final int intervalTreeThreshold;
+
+    // interval tree of the ranges when the number of ranges exceeds the threshold, or null
+    protected volatile FilterRangeIntervalTree<StringRange, String> intervalTree;
+    protected final boolean includeLow;
+    protected final boolean includeHigh;
 
-    protected FilterParamIndexStringRangeBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
+    protected FilterParamIndexStringRangeBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean copyOnWrite, int intervalTreeThreshold) {
         super(filterOperator, lookupable);
+        this.intervalTreeThreshold = intervalTreeThreshold;
+        this.includeLow = filterOperator.isRangeIncludeLow();
+        this.includeHigh = filterOperator.isRangeIncludeHigh();
 
         ranges = new TreeMap<StringRange, EventEvaluator>(new StringRangeComparator());
         rangesNullEndpoints = new IdentityHashMap<StringRange, EventEvaluator>();
         rangesRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
     }
 
     public final EventEvaluator get(Object expressionValue)
@@ -64,7 +83,24 @@ public abstract class FilterParamIndexStringRangeBase extends FilterParamIndexLo
             return;
         }
 
-        ranges.put(range, matcher);
+        TreeMap<StringRange, EventEvaluator> map = copyOnWrite ? new TreeMap<StringRange, EventEvaluator>(ranges) : ranges;
+        map.put(range, matcher);
+        ranges = map;
+
+        FilterRangeIntervalTree<StringRange, String> tree = intervalTree;
+        if (tree != null)
+        {
+            tree.put(range, range.getMin(), range.getMax(), matcher);
+        }
+        else if (map.size() > intervalTreeThreshold)
+        {
+            tree = new FilterRangeIntervalTree<StringRange, String>(new StringRangeComparator());
+            for (Map.Entry<StringRange, EventEvaluator> entry : map.entrySet())
+            {
+                tree.put(entry.getKey(), entry.getKey().getMin(), entry.getKey().getMax(), entry.getValue());
+            }
+            intervalTree = tree;
+        }
     }
 
     public final boolean remove(Object filterConstant)
@@ -76,7 +112,27 @@ public abstract class FilterParamIndexStringRangeBase extends FilterParamIndexLo
             return rangesNullEndpoints.remove(range) != null;
         }
 
-        return ranges.remove(range) != null;
+        if (!ranges.containsKey(range))
+        {
+            return false;
+        }
+        TreeMap<StringRange, EventEvaluator> map = copyOnWrite ? new TreeMap<StringRange, EventEvaluator>(ranges) : ranges;
+        map.remove(range);
+        ranges = map;
+
+        FilterRangeIntervalTree<StringRange, String> tree = intervalTree;
+        if (tree != null)
+        {
+            if (map.size() <= intervalTreeThreshold / 2)
+            {
+                intervalTree = null;
+            }
+            else
+            {
+                tree.remove(range);
+            }
+        }
+        return true;
     }
 
     public final int size()
@@ -89,5 +145,14 @@ public abstract class FilterParamIndexStringRangeBase extends FilterParamIndexLo
         return rangesRWLock;
     }
 
+    /**
+     * Returns true if the index currently matches using an interval tree.
+     * @return indicator
+     */
+    public final boolean isIntervalTree()
+    {
+        return intervalTree != null;
+    }
+
     private static final Logger log = LoggerFactory.getLogger(FilterParamIndexStringRangeBase.class);
 }
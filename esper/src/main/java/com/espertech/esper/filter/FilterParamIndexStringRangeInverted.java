@@ -25,7 +25,15 @@ import java.util.concurrent.locks.ReadWriteLock;
 public final class FilterParamIndexStringRangeInverted extends FilterParamIndexStringRangeBase
 {
     public FilterParamIndexStringRangeInverted(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
-        super(lookupable, readWriteLock, filterOperator);
+        this(lookupable, readWriteLock, filterOperator, false);
+    }
+
+    public FilterParamIndexStringRangeInverted(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean copyOnWrite) {
+        this(lookupable, readWriteLock, filterOperator, copyOnWrite, FilterRangeIntervalTree.DEFAULT_THRESHOLD);
+    }
+
+    public FilterParamIndexStringRangeInverted(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean copyOnWrite, int intervalTreeThreshold) {
+        super(lookupable, readWriteLock, filterOperator, copyOnWrite, intervalTreeThreshold);
         if (!(filterOperator.isInvertedRangeOperator()))
         {
             throw new IllegalArgumentException("Invalid filter operator " + filterOperator);
@@ -45,6 +53,14 @@ public final class FilterParamIndexStringRangeInverted extends FilterParamIndexS
 
         String attributeValue = (String) objAttributeValue;
 
+        FilterRangeIntervalTree<StringRange, String> tree = intervalTree;
+        if (tree != null)
+        {
+            tree.matchNotContaining(attributeValue, includeLow, includeHigh, theEvent, matches);
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(null);}
+            return;
+        }
+
         if (this.getFilterOperator() == FilterOperator.NOT_RANGE_CLOSED)   // include all endpoints
         {
             for (Map.Entry<StringRange, EventEvaluator> entry : ranges.entrySet()) {
@@ -0,0 +1,320 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * Augmented interval tree of ranges and their event evaluators, for use by range filter indexes with many ranges.
+ * <p>
+ * The tree is a balanced (AVL) binary search tree ordered by range, in which each node also keeps the lowest and
+ * highest low and high endpoint of its subtree. Matching ranges that contain a value (stabbing query) or that do not
+ * contain a value (inverted ranges) only descends into subtrees that can have a match, and therefore takes
+ * O(log n + k) for k matching ranges, instead of visiting all ranges.
+ * <p>
+ * Nodes are immutable and changes copy the path from the root to the changed node. Matching reads the root once,
+ * therefore the tree can be changed while matching takes place, such as for copy-on-write filter indexes,
+ * and matching always sees a consistent tree. Changes must be performed by one thread at a time.
+ * Matching invokes evaluators in range order.
+ * @param <K> range type
+ * @param <E> endpoint type
+ */
+public final class FilterRangeIntervalTree<K, E extends Comparable<E>>
+{
+    /**
+     * Default number of ranges above which range filter indexes use an interval tree.
+     */
+    public static final int DEFAULT_THRESHOLD = 16;
+
+    private final Comparator<K> comparator;
+    private volatile Node<K, E> root;
+    private int size;
+
+    /**
+     * Ctor.
+     * @param comparator range comparator
+     */
+    public FilterRangeIntervalTree(Comparator<K> comparator)
+    {
+        this.comparator = comparator;
+    }
+
+    /**
+     * Adds or replaces the evaluator for a range.
+     * @param range range
+     * @param low low endpoint, not null
+     * @param high high endpoint, not null and not less then the low endpoint
+     * @param evaluator evaluator
+     */
+    public void put(K range, E low, E high, EventEvaluator evaluator)
+    {
+        root = put(root, range, low, high, evaluator);
+    }
+
+    /**
+     * Removes a range.
+     * @param range to remove
+     * @return indicator whether the range was found
+     */
+    public boolean remove(K range)
+    {
+        int sizeBefore = size;
+        root = remove(root, range);
+        return sizeBefore != size;
+    }
+
+    /**
+     * Returns the number of ranges.
+     * @return size
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Matches the evaluators of all ranges that contain the value.
+     * @param value value
+     * @param includeLow true if a range contains its low endpoint
+     * @param includeHigh true if a range contains its high endpoint
+     * @param theEvent event to match
+     * @param matches to add matching filter handles to
+     */
+    public void matchContaining(E value, boolean includeLow, boolean includeHigh, EventBean theEvent, Collection<FilterHandle> matches)
+    {
+        matchContaining(root, value, includeLow, includeHigh, theEvent, matches);
+    }
+
+    /**
+     * Matches the evaluators of all ranges that do not contain the value.
+     * @param value value
+     * @param includeLow true if a range contains its low endpoint
+     * @param includeHigh true if a range contains its high endpoint
+     * @param theEvent event to match
+     * @param matches to add matching filter handles to
+     */
+    public void matchNotContaining(E value, boolean includeLow, boolean includeHigh, EventBean theEvent, Collection<FilterHandle> matches)
+    {
+        matchNotContaining(root, value, includeLow, includeHigh, theEvent, matches);
+    }
+
+    private static <K, E extends Comparable<E>> void matchContaining(Node<K, E> node, E value, boolean includeLow, boolean includeHigh, EventBean theEvent, Collection<FilterHandle> matches)
+    {
+        while (node != null)
+        {
+            // all ranges in the subtree begin after or end before the value
+            if (node.minLow.compareTo(value) > 0 || node.maxHigh.compareTo(value) < 0)
+            {
+                return;
+            }
+            matchContaining(node.left, value, includeLow, includeHigh, theEvent, matches);
+
+            int compLow = node.low.compareTo(value);
+            int compHigh = node.high.compareTo(value);
+            if ((compLow < 0 || (includeLow && compLow == 0)) && (compHigh > 0 || (includeHigh && compHigh == 0)))
+            {
+                node.evaluator.matchEvent(theEvent, matches);
+            }
+            node = node.right;
+        }
+    }
+
+    private static <K, E extends Comparable<E>> void matchNotContaining(Node<K, E> node, E value, boolean includeLow, boolean includeHigh, EventBean theEvent, Collection<FilterHandle> matches)
+    {
+        while (node != null)
+        {
+            // all ranges in the subtree begin before and end after the value
+            if (node.maxLow.compareTo(value) < 0 && node.minHigh.compareTo(value) > 0)
+            {
+                return;
+            }
+            matchNotContaining(node.left, value, includeLow, includeHigh, theEvent, matches);
+
+            int compLow = node.low.compareTo(value);
+            int compHigh = node.high.compareTo(value);
+            if ((compLow > 0 || (!includeLow && compLow == 0)) || (compHigh < 0 || (!includeHigh && compHigh == 0)))
+            {
+                node.evaluator.matchEvent(theEvent, matches);
+            }
+            node = node.right;
+        }
+    }
+
+    private Node<K, E> put(Node<K, E> node, K range, E low, E high, EventEvaluator evaluator)
+    {
+        if (node == null)
+        {
+            size++;
+            return new Node<K, E>(range, low, high, evaluator, null, null);
+        }
+        int comp = comparator.compare(range, node.range);
+        if (comp < 0)
+        {
+            return balance(node.with(put(node.left, range, low, high, evaluator), node.right));
+        }
+        if (comp > 0)
+        {
+            return balance(node.with(node.left, put(node.right, range, low, high, evaluator)));
+        }
+        return new Node<K, E>(range, low, high, evaluator, node.left, node.right);
+    }
+
+    private Node<K, E> remove(Node<K, E> node, K range)
+    {
+        if (node == null)
+        {
+            return null;
+        }
+        int comp = comparator.compare(range, node.range);
+        if (comp < 0)
+        {
+            Node<K, E> left = remove(node.left, range);
+            return left == node.left ? node : balance(node.with(left, node.right));
+        }
+        if (comp > 0)
+        {
+            Node<K, E> right = remove(node.right, range);
+            return right == node.right ? node : balance(node.with(node.left, right));
+        }
+
+        size--;
+        if (node.left == null)
+        {
+            return node.right;
+        }
+        if (node.right == null)
+        {
+            return node.left;
+        }
+        // replace by the first node of the right subtree
+        Node<K, E> first = node.right;
+        while (first.left != null)
+        {
+            first = first.left;
+        }
+        Node<K, E> right = removeFirst(node.right);
+        return balance(new Node<K, E>(first.range, first.low, first.high, first.evaluator, node.left, right));
+    }
+
+    private static <K, E extends Comparable<E>> Node<K, E> removeFirst(Node<K, E> node)
+    {
+        if (node.left == null)
+        {
+            return node.right;
+        }
+        return balance(node.with(removeFirst(node.left), node.right));
+    }
+
+    private static <K, E extends Comparable<E>> Node<K, E> balance(Node<K, E> node)
+    {
+        int diff = height(node.left) - height(node.right);
+        if (diff > 1)
+        {
+            Node<K, E> left = node.left;
+            if (height(left.left) < height(left.right))
+            {
+                left = rotateLeft(left);
+            }
+            return rotateRight(node.with(left, node.right));
+        }
+        if (diff < -1)
+        {
+            Node<K, E> right = node.right;
+            if (height(right.right) < height(right.left))
+            {
+                right = rotateRight(right);
+            }
+            return rotateLeft(node.with(node.left, right));
+        }
+        return node;
+    }
+
+    private static <K, E extends Comparable<E>> Node<K, E> rotateLeft(Node<K, E> node)
+    {
+        Node<K, E> right = node.right;
+        return right.with(node.with(node.left, right.left), right.right);
+    }
+
+    private static <K, E extends Comparable<E>> Node<K, E> rotateRight(Node<K, E> node)
+    {
+        Node<K, E> left = node.left;
+        return left.with(left.left, node.with(left.right, node.right));
+    }
+
+    private static int height(Node node)
+    {
+        return node == null ? 0 : node.height;
+    }
+
+    private static <E extends Comparable<E>> E min(E one, E two)
+    {
+        return one.compareTo(two) <= 0 ? one : two;
+    }
+
+    private static <E extends Comparable<E>> E max(E one, E two)
+    {
+        return one.compareTo(two) >= 0 ? one : two;
+    }
+
+    private static final class Node<K, E extends Comparable<E>>
+    {
+        private final K range;
+        private final E low;
+        private final E high;
+        private final EventEvaluator evaluator;
+        private final Node<K, E> left;
+        private final Node<K, E> right;
+        private final int height;
+
+        // lowest and highest endpoints of the subtree
+        private final E minLow;
+        private final E maxLow;
+        private final E minHigh;
+        private final E maxHigh;
+
+        private Node(K range, E low, E high, EventEvaluator evaluator, Node<K, E> left, Node<K, E> right)
+        {
+            this.range = range;
+            this.low = low;
+            this.high = high;
+            this.evaluator = evaluator;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+
+            E minLow = low, maxLow = low, minHigh = high, maxHigh = high;
+            if (left != null)
+            {
+                minLow = min(minLow, left.minLow);
+                maxLow = max(maxLow, left.maxLow);
+                minHigh = min(minHigh, left.minHigh);
+                maxHigh = max(maxHigh, left.maxHigh);
+            }
+            if (right != null)
+            {
+                minLow = min(minLow, right.minLow);
+                maxLow = max(maxLow, right.maxLow);
+                minHigh = min(minHigh, right.minHigh);
+                maxHigh = max(maxHigh, right.maxHigh);
+            }
+            this.minLow = minLow;
+            this.maxLow = maxLow;
+            this.minHigh = minHigh;
+            this.maxHigh = maxHigh;
+        }
+
+        private Node<K, E> with(Node<K, E> left, Node<K, E> right)
+        {
+            return new Node<K, E>(range, low, high, evaluator, left, right);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Filter service that evaluates events without locking, for use when filters change rarely compared to the event rate.
+ * <p>
+ * Changes to filters are serialized and the event type index, nodes and indexes publish a copy of their collections
+ * upon change, see {@link FilterServiceGranularLockFactoryCopyOnWrite}. Adding and removing filters therefore
+ * pays the cost of copying.
+ * <p>
+ * Events are evaluated optimistically while the write lock is not held: when the write lock is acquired during
+ * evaluation the evaluation is discarded and repeated under the read lock.
+ */
+public final class FilterServiceCopyOnWrite extends FilterServiceBase
+{
+    private final ReentrantLock changeLock = new ReentrantLock();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile long writeLockSequence;    // odd while the write lock is held
+
+    public FilterServiceCopyOnWrite(boolean allowIsolation) {
+        super(FilterServiceGranularLockFactoryCopyOnWrite.INSTANCE, allowIsolation);
+    }
+
+    public FilterServiceCopyOnWrite(boolean allowIsolation, int rangeIntervalTreeThreshold) {
+        super(new FilterServiceGranularLockFactoryCopyOnWrite(rangeIntervalTreeThreshold), allowIsolation);
+    }
+
+    public void acquireWriteLock() {
+        lock.writeLock().lock();
+        if (lock.getWriteHoldCount() == 1) {
+            writeLockSequence++;
+        }
+    }
+
+    public void releaseWriteLock() {
+        if (lock.getWriteHoldCount() == 1) {
+            writeLockSequence++;
+        }
+        lock.writeLock().unlock();
+    }
+
+    public FilterSet take(Set<Integer> statementId) {
+        lock.readLock().lock();
+        changeLock.lock();
+        try {
+            return super.takeInternal(statementId);
+        }
+        finally {
+            changeLock.unlock();
+            lock.readLock().unlock();
+        }
+    }
+
+    public void apply(FilterSet filterSet) {
+        lock.readLock().lock();
+        changeLock.lock();
+        try {
+            super.applyInternal(filterSet);
+        }
+        finally {
+            changeLock.unlock();
+            lock.readLock().unlock();
+        }
+    }
+
+    public long evaluate(EventBean theEvent, Collection<FilterHandle> matches) {
+        long sequence = writeLockSequence;
+        if ((sequence & 1) == 0) {
+            long version = super.evaluateInternal(theEvent, matches);
+            if (writeLockSequence == sequence) {
+                return version;
+            }
+            matches.clear();
+        }
+
+        lock.readLock().lock();
+        try {
+            return super.evaluateInternal(theEvent, matches);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long evaluate(EventBean theEvent, Collection<FilterHandle> matches, int statementId) {
+        long sequence = writeLockSequence;
+        if ((sequence & 1) == 0) {
+            long version = super.evaluateInternal(theEvent, matches, statementId);
+            if (writeLockSequence == sequence) {
+                return version;
+            }
+            matches.clear();
+        }
+
+        lock.readLock().lock();
+        try {
+            return super.evaluateInternal(theEvent, matches, statementId);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public FilterServiceEntry add(FilterValueSet filterValueSet, FilterHandle callback) {
+        changeLock.lock();
+        try {
+            return super.addInternal(filterValueSet, callback);
+        }
+        finally {
+            changeLock.unlock();
+        }
+    }
+
+    public void remove(FilterHandle callback, FilterServiceEntry filterServiceEntry) {
+        changeLock.lock();
+        try {
+            super.removeInternal(callback, filterServiceEntry);
+        }
+        finally {
+            changeLock.unlock();
+        }
+    }
+
+    public void removeType(EventType type) {
+        changeLock.lock();
+        try {
+            super.removeTypeInternal(type);
+        }
+        finally {
+            changeLock.unlock();
+        }
+    }
+}
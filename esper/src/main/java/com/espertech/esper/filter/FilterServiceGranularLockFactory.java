@@ -13,4 +13,18 @@ import java.util.concurrent.locks.ReadWriteLock;
 public interface FilterServiceGranularLockFactory
 {
     public ReadWriteLock obtainNew();
+
+    /**
+     * Returns true if filter indexes and nodes must publish a copy of their collections upon change,
+     * so that events can be evaluated without locking.
+     * @return copy-on-write indicator
+     */
+    public boolean isCopyOnWrite();
+
+    /**
+     * Returns the number of ranges above which range filter indexes also keep their ranges in an interval tree,
+     * see {@link FilterRangeIntervalTree}.
+     * @return interval tree threshold
+     */
+    public int getRangeIntervalTreeThreshold();
 }
@@ -0,0 +1,38 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Lock factory for filter services that serialize all changes to filters and that evaluate events without locking:
+ * indexes and nodes do not lock and publish a copy of their collections upon change.
+ */
+public class FilterServiceGranularLockFactoryCopyOnWrite implements FilterServiceGranularLockFactory
+{
+    public static final FilterServiceGranularLockFactoryCopyOnWrite INSTANCE = new FilterServiceGranularLockFactoryCopyOnWrite(FilterRangeIntervalTree.DEFAULT_THRESHOLD);
+
+    private final int rangeIntervalTreeThreshold;
+
+    public FilterServiceGranularLockFactoryCopyOnWrite(int rangeIntervalTreeThreshold) {
+        this.rangeIntervalTreeThreshold = rangeIntervalTreeThreshold;
+    }
+
+    public ReadWriteLock obtainNew() {
+        return FilterServiceGranularLockFactoryNone.INSTANCE.obtainNew();
+    }
+
+    public boolean isCopyOnWrite() {
+        return true;
+    }
+
+    public int getRangeIntervalTreeThreshold() {
+        return rangeIntervalTreeThreshold;
+    }
+}
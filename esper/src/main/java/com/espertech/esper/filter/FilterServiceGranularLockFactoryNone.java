@@ -15,9 +15,12 @@ import java.util.concurrent.locks.ReadWriteLock;
 
 public class FilterServiceGranularLockFactoryNone implements FilterServiceGranularLockFactory
 {
-    public static final FilterServiceGranularLockFactoryNone INSTANCE = new FilterServiceGranularLockFactoryNone();
+    public static final FilterServiceGranularLockFactoryNone INSTANCE = new FilterServiceGranularLockFactoryNone(FilterRangeIntervalTree.DEFAULT_THRESHOLD);
 
-    private FilterServiceGranularLockFactoryNone() {
+    private final int rangeIntervalTreeThreshold;
+
+    public FilterServiceGranularLockFactoryNone(int rangeIntervalTreeThreshold) {
+        this.rangeIntervalTreeThreshold = rangeIntervalTreeThreshold;
     }
 
     private static Lock LOCKNONE = new Lock() {
@@ -56,4 +59,12 @@ public class FilterServiceGranularLockFactoryNone implements FilterServiceGranul
     public ReadWriteLock obtainNew() {
         return RWLOCKNONE;
     }
+
+    public boolean isCopyOnWrite() {
+        return false;
+    }
+
+    public int getRangeIntervalTreeThreshold() {
+        return rangeIntervalTreeThreshold;
+    }
 }
@@ -13,7 +13,25 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class FilterServiceGranularLockFactoryReentrant implements FilterServiceGranularLockFactory
 {
+    private final int rangeIntervalTreeThreshold;
+
+    public FilterServiceGranularLockFactoryReentrant() {
+        this(FilterRangeIntervalTree.DEFAULT_THRESHOLD);
+    }
+
+    public FilterServiceGranularLockFactoryReentrant(int rangeIntervalTreeThreshold) {
+        this.rangeIntervalTreeThreshold = rangeIntervalTreeThreshold;
+    }
+
     public ReadWriteLock obtainNew() {
         return new ReentrantReadWriteLock();
     }
+
+    public boolean isCopyOnWrite() {
+        return false;
+    }
+
+    public int getRangeIntervalTreeThreshold() {
+        return rangeIntervalTreeThreshold;
+    }
 }
@@ -23,6 +23,10 @@ public final class FilterServiceLockCoarse extends FilterServiceBase
         super(FilterServiceGranularLockFactoryNone.INSTANCE, allowIsolation);
     }
 
+    public FilterServiceLockCoarse(boolean allowIsolation, int rangeIntervalTreeThreshold) {
+        super(new FilterServiceGranularLockFactoryNone(rangeIntervalTreeThreshold), allowIsolation);
+    }
+
     public void acquireWriteLock() {
         lock.writeLock().lock();
     }
@@ -23,6 +23,10 @@ public final class FilterServiceLockFine extends FilterServiceBase
         super(new FilterServiceGranularLockFactoryReentrant(), allowIsolation);
     }
 
+    public FilterServiceLockFine(boolean allowIsolation, int rangeIntervalTreeThreshold) {
+        super(new FilterServiceGranularLockFactoryReentrant(rangeIntervalTreeThreshold), allowIsolation);
+    }
+
     public void acquireWriteLock() {
         lock.writeLock().lock();
     }
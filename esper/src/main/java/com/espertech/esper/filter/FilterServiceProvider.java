@@ -20,12 +20,27 @@ public final class FilterServiceProvider
      * @return implementation
      */
     public static FilterServiceSPI newService(ConfigurationEngineDefaults.FilterServiceProfile filterServiceProfile, boolean allowIsolation)
+    {
+        return newService(filterServiceProfile, allowIsolation, FilterRangeIntervalTree.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Creates an implementation of the FilterEvaluationService interface.
+     * @param filterServiceProfile profile
+     * @param allowIsolation indicator whether isolated service providers are allowed
+     * @param rangeIntervalTreeThreshold number of ranges above which range filter indexes use an interval tree
+     * @return implementation
+     */
+    public static FilterServiceSPI newService(ConfigurationEngineDefaults.FilterServiceProfile filterServiceProfile, boolean allowIsolation, int rangeIntervalTreeThreshold)
     {
         if (filterServiceProfile == ConfigurationEngineDefaults.FilterServiceProfile.READMOSTLY) {
-            return new FilterServiceLockCoarse(allowIsolation);
+            return new FilterServiceLockCoarse(allowIsolation, rangeIntervalTreeThreshold);
+        }
+        else if (filterServiceProfile == ConfigurationEngineDefaults.FilterServiceProfile.COPYONWRITE) {
+            return new FilterServiceCopyOnWrite(allowIsolation, rangeIntervalTreeThreshold);
         }
         else {
-            return new FilterServiceLockFine(allowIsolation);
+            return new FilterServiceLockFine(allowIsolation, rangeIntervalTreeThreshold);
         }
     }
 }
@@ -38,6 +38,7 @@ public final class FilterSpecParamExprNode extends FilterSpecParam
     private final transient TableService tableService;
     private final boolean hasVariable;
     private final boolean useLargeThreadingProfile;
+    private final boolean compile;
     private final boolean hasFilterStreamSubquery;
     private final boolean hasTableAccess;
 
@@ -84,6 +85,7 @@ public final class FilterSpecParamExprNode extends FilterSpecParam
         this.eventAdapterService = eventAdapterService;
         this.filterBooleanExpressionFactory = filterBooleanExpressionFactory;
         this.useLargeThreadingProfile = configurationInformation.getEngineDefaults().getExecution().getThreadingProfile() == ConfigurationEngineDefaults.ThreadingProfile.LARGE;
+        this.compile = configurationInformation.getEngineDefaults().getExecution().isFilterExprCompile();
         this.hasFilterStreamSubquery = hasSubquery;
         this.hasTableAccess = hasTableAccess;
 
@@ -227,6 +229,10 @@ public final class FilterSpecParamExprNode extends FilterSpecParam
         return useLargeThreadingProfile;
     }
 
+    public boolean isCompile() {
+        return compile;
+    }
+
     public boolean isHasFilterStreamSubquery() {
         return hasFilterStreamSubquery;
     }
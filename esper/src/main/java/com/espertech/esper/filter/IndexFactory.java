@@ -25,30 +25,38 @@ public class IndexFactory
     {
         FilterParamIndexBase index;
         Class returnValueType = lookupable.getReturnType();
+        boolean isNumericKey = returnValueType != null && FilterNumericKeyMap.isNumericKeyType(returnValueType);
+        boolean copyOnWrite = lockFactory.isCopyOnWrite();
 
         // Handle all EQUAL comparisons
         if (filterOperator == FilterOperator.EQUAL)
         {
-            index = new FilterParamIndexEquals(lookupable, lockFactory.obtainNew());
+            if (isNumericKey) {
+                return new FilterParamIndexEqualsNumeric(lookupable, lockFactory.obtainNew(), copyOnWrite);
+            }
+            index = new FilterParamIndexEquals(lookupable, lockFactory.obtainNew(), copyOnWrite);
             return index;
         }
 
         // Handle all NOT-EQUAL comparisons
         if (filterOperator == FilterOperator.NOT_EQUAL)
         {
-            index = new FilterParamIndexNotEquals(lookupable, lockFactory.obtainNew());
+            if (isNumericKey) {
+                return new FilterParamIndexNotEqualsNumeric(lookupable, lockFactory.obtainNew(), copyOnWrite);
+            }
+            index = new FilterParamIndexNotEquals(lookupable, lockFactory.obtainNew(), copyOnWrite);
             return index;
         }
 
         if (filterOperator == FilterOperator.IS)
         {
-            index = new FilterParamIndexEqualsIs(lookupable, lockFactory.obtainNew());
+            index = new FilterParamIndexEqualsIs(lookupable, lockFactory.obtainNew(), copyOnWrite);
             return index;
         }
 
         if (filterOperator == FilterOperator.IS_NOT)
         {
-            index = new FilterParamIndexNotEqualsIs(lookupable, lockFactory.obtainNew());
+            index = new FilterParamIndexNotEqualsIs(lookupable, lockFactory.obtainNew(), copyOnWrite);
             return index;
         }
 
@@ -59,43 +67,47 @@ public class IndexFactory
             (filterOperator == FilterOperator.LESS_OR_EQUAL))
         {
             if (returnValueType != String.class) {
-                index = new FilterParamIndexCompare(lookupable, lockFactory.obtainNew(), filterOperator);
+                index = new FilterParamIndexCompare(lookupable, lockFactory.obtainNew(), filterOperator, copyOnWrite);
             }
             else {
-                index = new FilterParamIndexCompareString(lookupable, lockFactory.obtainNew(), filterOperator);
+                index = new FilterParamIndexCompareString(lookupable, lockFactory.obtainNew(), filterOperator, copyOnWrite);
             }
             return index;
         }
 
-        // Handle all normal and inverted RANGE comparisons
+        // Handle all normal and inverted RANGE comparisons, the indexes switch to an interval tree when the number of ranges exceeds the threshold
+        int threshold = lockFactory.getRangeIntervalTreeThreshold();
         if (filterOperator.isRangeOperator())
         {
             if (returnValueType != String.class) {
-                index = new FilterParamIndexDoubleRange(lookupable, lockFactory.obtainNew(), filterOperator);
+                index = new FilterParamIndexDoubleRange(lookupable, lockFactory.obtainNew(), filterOperator, copyOnWrite, threshold);
             }
             else {
-                index = new FilterParamIndexStringRange(lookupable, lockFactory.obtainNew(), filterOperator);
+                index = new FilterParamIndexStringRange(lookupable, lockFactory.obtainNew(), filterOperator, copyOnWrite, threshold);
             }
             return index;
         }
         if (filterOperator.isInvertedRangeOperator())
         {
             if (returnValueType != String.class) {
-                return new FilterParamIndexDoubleRangeInverted(lookupable, lockFactory.obtainNew(), filterOperator);
+                return new FilterParamIndexDoubleRangeInverted(lookupable, lockFactory.obtainNew(), filterOperator, copyOnWrite, threshold);
             }
             else {
-                return new FilterParamIndexStringRangeInverted(lookupable, lockFactory.obtainNew(), filterOperator);
+                return new FilterParamIndexStringRangeInverted(lookupable, lockFactory.obtainNew(), filterOperator, copyOnWrite, threshold);
             }
         }
 
         // Handle all IN and NOT IN comparisons
         if (filterOperator == FilterOperator.IN_LIST_OF_VALUES)
         {
-            return new FilterParamIndexIn(lookupable, lockFactory.obtainNew());
+            if (isNumericKey) {
+                return new FilterParamIndexInNumeric(lookupable, lockFactory.obtainNew(), copyOnWrite);
+            }
+            return new FilterParamIndexIn(lookupable, lockFactory.obtainNew(), copyOnWrite);
         }
         if (filterOperator == FilterOperator.NOT_IN_LIST_OF_VALUES)
         {
-            return new FilterParamIndexNotIn(lookupable, lockFactory.obtainNew());
+            return new FilterParamIndexNotIn(lookupable, lockFactory.obtainNew(), copyOnWrite);
         }
 
         // Handle all boolean expression
@@ -0,0 +1,188 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.schedule;
+
+import java.util.*;
+
+/**
+ * Keeps a sorted map of long millisecond values and a set of handles for each, and a map of handle and handle set
+ * for faster removal, for use by {@link SchedulingServiceImpl} and the stripes of {@link SchedulingServiceStriped}.
+ * <p>
+ * Not thread-safe, callers synchronize.
+ */
+final class ScheduleTimeHandleMap
+{
+    // Map of time and handle
+    private final SortedMap<Long, SortedMap<Long, ScheduleHandle>> timeHandleMap = new TreeMap<Long, SortedMap<Long, ScheduleHandle>>();
+
+    // Map of handle and handle list for faster removal
+    private final Map<ScheduleHandle, SortedMap<Long, ScheduleHandle>> handleSetMap = new HashMap<ScheduleHandle, SortedMap<Long, ScheduleHandle>>();
+
+    void clear()
+    {
+        handleSetMap.clear();
+        timeHandleMap.clear();
+    }
+
+    /**
+     * Adds a handle to trigger at the given time, removing the handle first if already scheduled.
+     * @param handle to add
+     * @param slot for ordering handles triggering at the same time
+     * @param triggerTime time to trigger
+     */
+    void add(ScheduleHandle handle, long slot, long triggerTime)
+    {
+        if (handleSetMap.containsKey(handle)) {
+            remove(handle, slot);
+        }
+
+        SortedMap<Long, ScheduleHandle> handleSet = timeHandleMap.get(triggerTime);
+        if (handleSet == null)
+        {
+            handleSet = new TreeMap<Long, ScheduleHandle>();
+            timeHandleMap.put(triggerTime, handleSet);
+        }
+        handleSet.put(slot, handle);
+        handleSetMap.put(handle, handleSet);
+    }
+
+    void remove(ScheduleHandle handle, long slot)
+    {
+        SortedMap<Long, ScheduleHandle> handleSet = handleSetMap.get(handle);
+        if (handleSet == null)
+        {
+            // If it already has been removed then that's fine;
+            // Such could be the case when 2 timers fireStatementStopped at the same time, and one stops the other
+            return;
+        }
+        handleSet.remove(slot);
+        handleSetMap.remove(handle);
+    }
+
+    /**
+     * Returns an indicator whether there are handles that trigger on or before the current time.
+     * @param currentTime current time
+     * @return true if due
+     */
+    boolean isDue(long currentTime)
+    {
+        return !timeHandleMap.isEmpty() && timeHandleMap.firstKey() <= currentTime;
+    }
+
+    /**
+     * Removes the handles that trigger on or before the current time, in the order of time and slot.
+     * @param currentTime current time
+     * @param handles to add triggered handles to, when not collecting entries
+     * @param entries to add triggered entries to with absolute time, or null to add handles instead
+     * @return true if any handle triggered
+     */
+    boolean removeDue(long currentTime, Collection<ScheduleHandle> handles, List<ScheduleSetEntry> entries)
+    {
+        // Get the values on or before the current time - to get those that are exactly on the
+        // current time we just add one to the current time for getting the head map
+        SortedMap<Long, SortedMap<Long, ScheduleHandle>> headMap = timeHandleMap.headMap(currentTime + 1);
+        if (headMap.isEmpty()) {
+            return false;
+        }
+
+        for (Map.Entry<Long, SortedMap<Long, ScheduleHandle>> entry : headMap.entrySet())
+        {
+            for (Map.Entry<Long, ScheduleHandle> inner : entry.getValue().entrySet())
+            {
+                if (entries != null) {
+                    entries.add(new ScheduleSetEntry(entry.getKey(), inner.getKey(), inner.getValue()));
+                }
+                else {
+                    handles.add(inner.getValue());
+                }
+                handleSetMap.remove(inner.getValue());
+            }
+        }
+
+        // Remove all triggered msec values
+        headMap.clear();
+        return true;
+    }
+
+    /**
+     * Removes the handles of the given statements, adding them to the list with time relative to the current time.
+     * @param statementIds statements
+     * @param currentTime current time
+     * @param list to add removed entries to
+     */
+    void take(Set<Integer> statementIds, long currentTime, List<ScheduleSetEntry> list)
+    {
+        int first = list.size();
+        for (Map.Entry<Long, SortedMap<Long, ScheduleHandle>> schedule : timeHandleMap.entrySet())
+        {
+            for (Map.Entry<Long, ScheduleHandle> entry : schedule.getValue().entrySet())
+            {
+                if (statementIds.contains(entry.getValue().getStatementId()))
+                {
+                    long relative = schedule.getKey() - currentTime;
+                    list.add(new ScheduleSetEntry(relative, entry.getKey(), entry.getValue()));
+                }
+            }
+        }
+
+        for (int i = first; i < list.size(); i++)
+        {
+            ScheduleSetEntry entry = list.get(i);
+            remove(entry.getHandle(), entry.getScheduleSlot());
+        }
+    }
+
+    boolean isScheduled(ScheduleHandle handle)
+    {
+        return handleSetMap.containsKey(handle);
+    }
+
+    int getScheduleHandleCount()
+    {
+        return handleSetMap.size();
+    }
+
+    Set<Long> getTimes()
+    {
+        return timeHandleMap.keySet();
+    }
+
+    Long getFurthestTimeHandle()
+    {
+        if (!timeHandleMap.isEmpty())
+        {
+            return timeHandleMap.lastKey();
+        }
+        return null;
+    }
+
+    Long getNearestTimeHandle()
+    {
+        for (Map.Entry<Long, SortedMap<Long, ScheduleHandle>> entry : timeHandleMap.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                continue;
+            }
+            return entry.getKey();
+        }
+        return null;
+    }
+
+    void visitSchedules(ScheduleVisitor visitor, ScheduleVisit visit)
+    {
+        for (Map.Entry<Long, SortedMap<Long, ScheduleHandle>> entry : timeHandleMap.entrySet()) {
+            visit.setTimestamp(entry.getKey());
+
+            for (Map.Entry<Long, ScheduleHandle> inner : entry.getValue().entrySet()) {
+                visit.setStatementId(inner.getValue().getStatementId());
+                visit.setAgentInstanceId(inner.getValue().getAgentInstanceId());
+                visitor.visit(visit);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.schedule;
+
+/**
+ * Holds, for the current thread, the target time of a time span that the engine is advancing
+ * the time of a scheduling service towards.
+ * <p>
+ * Schedule callbacks that fire at an intermediate time of the span, such as time window expiry
+ * when bulk expiry is enabled, can use the target time to coalesce their work into the last step of the span.
+ */
+public class ScheduleTimeSpan
+{
+    private static final ThreadLocal<ScheduleTimeSpan> current = new ThreadLocal<ScheduleTimeSpan>();
+
+    private final TimeProvider timeProvider;
+    private final long targetTime;
+
+    private ScheduleTimeSpan(TimeProvider timeProvider, long targetTime) {
+        this.timeProvider = timeProvider;
+        this.targetTime = targetTime;
+    }
+
+    /**
+     * Marks the start of a time span for the current thread.
+     * @param timeProvider the scheduling service that advances time
+     * @param targetTime the time the span ends at
+     * @return the prior time span of the thread, if any, to be passed to {@link #exit(ScheduleTimeSpan)}
+     */
+    public static ScheduleTimeSpan enter(TimeProvider timeProvider, long targetTime) {
+        ScheduleTimeSpan prior = current.get();
+        current.set(new ScheduleTimeSpan(timeProvider, targetTime));
+        return prior;
+    }
+
+    /**
+     * Marks the end of a time span for the current thread.
+     * @param prior the prior time span as returned by enter
+     */
+    public static void exit(ScheduleTimeSpan prior) {
+        if (prior == null) {
+            current.remove();
+        }
+        else {
+            current.set(prior);
+        }
+    }
+
+    /**
+     * Returns the target time of the time span that the current thread advances the given scheduling service towards.
+     * @param timeProvider the scheduling service
+     * @return target time or null if the thread is not processing a time span for the scheduling service
+     */
+    public static Long getTargetTime(TimeProvider timeProvider) {
+        ScheduleTimeSpan span = current.get();
+        if (span == null || span.timeProvider != timeProvider) {
+            return null;
+        }
+        return span.targetTime;
+    }
+}
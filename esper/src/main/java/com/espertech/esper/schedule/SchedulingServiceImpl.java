@@ -26,11 +26,7 @@ import java.util.*;
  */
 public final class SchedulingServiceImpl implements SchedulingServiceSPI
 {
-    // Map of time and handle
-    private final SortedMap<Long, SortedMap<Long, ScheduleHandle>> timeHandleMap;
-
-    // Map of handle and handle list for faster removal
-    private final Map<ScheduleHandle, SortedMap<Long, ScheduleHandle>> handleSetMap;
+    private final ScheduleTimeHandleMap timeHandles;
 
     // Current time - used for evaluation as well as for adding new handles
     private volatile long currentTime;
@@ -41,8 +37,7 @@ public final class SchedulingServiceImpl implements SchedulingServiceSPI
      */
     public SchedulingServiceImpl(TimeSourceService timeSourceService)
     {
-        this.timeHandleMap = new TreeMap<Long, SortedMap<Long, ScheduleHandle>>();
-        this.handleSetMap = new HashMap<ScheduleHandle, SortedMap<Long, ScheduleHandle>>();
+        this.timeHandles = new ScheduleTimeHandleMap();
         // initialize time to just before now as there is a check for duplicate external time events
         this.currentTime = timeSourceService.getTimeMillis() - 1;
     }
@@ -50,8 +45,7 @@ public final class SchedulingServiceImpl implements SchedulingServiceSPI
     public void destroy()
     {
         log.debug("Destroying scheduling service");
-        handleSetMap.clear();
-        timeHandleMap.clear();
+        timeHandles.clear();
     }
 
     public long getTime()
@@ -69,94 +63,36 @@ public final class SchedulingServiceImpl implements SchedulingServiceSPI
             throws ScheduleServiceException
     {
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qScheduleAdd(currentTime, afterMSec, handle, slot);}
-        if (handleSetMap.containsKey(handle)) {
+        if (timeHandles.isScheduled(handle)) {
             remove(handle, slot);
         }
 
         long triggerOnTime = currentTime + afterMSec;
-        addTrigger(slot, handle, triggerOnTime);
+        timeHandles.add(handle, slot, triggerOnTime);
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleAdd();}
     }
 
     public synchronized final void remove(ScheduleHandle handle, long slot)
     {
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qScheduleRemove(handle, slot);}
-        SortedMap<Long, ScheduleHandle> handleSet = handleSetMap.get(handle);
-        if (handleSet == null)
-        {
-            // If it already has been removed then that's fine;
-            // Such could be the case when 2 timers fireStatementStopped at the same time, and one stops the other
-            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleRemove();}
-            return;
-        }
-        handleSet.remove(slot);
-        handleSetMap.remove(handle);
+        timeHandles.remove(handle, slot);
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleRemove();}
     }
 
     public synchronized final void evaluate(Collection<ScheduleHandle> handles)
     {
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qScheduleEval(currentTime);}
-        // Get the values on or before the current time - to get those that are exactly on the
-        // current time we just add one to the current time for getting the head map
-        SortedMap<Long, SortedMap<Long, ScheduleHandle>> headMap = timeHandleMap.headMap(currentTime + 1);
-
-        if (headMap.isEmpty()) {
+        if (!timeHandles.removeDue(currentTime, handles, null)) {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleEval(Collections.<ScheduleHandle>emptyList());}
             return;
         }
-
-        // First determine all triggers to shoot
-        List<Long> removeKeys = new ArrayList<Long>();
-        for (Map.Entry<Long, SortedMap<Long, ScheduleHandle>> entry : headMap.entrySet())
-        {
-            Long key = entry.getKey();
-            SortedMap<Long, ScheduleHandle> value = entry.getValue();
-            removeKeys.add(key);
-            for (ScheduleHandle handle : value.values())
-            {
-                handles.add(handle);
-            }
-        }
-
-        // Next remove all handles
-        for (Map.Entry<Long, SortedMap<Long, ScheduleHandle>> entry : headMap.entrySet())
-        {
-            for (ScheduleHandle handle : entry.getValue().values())
-            {
-                handleSetMap.remove(handle);
-            }
-        }
-
-        // Remove all triggered msec values
-        for (Long key : removeKeys)
-        {
-            timeHandleMap.remove(key);
-        }
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleEval(handles);}
     }
 
-    public ScheduleSet take(Set<Integer> statementIds)
+    public synchronized ScheduleSet take(Set<Integer> statementIds)
     {
         List<ScheduleSetEntry> list = new ArrayList<ScheduleSetEntry>();
-        long currentTime = getTime();
-        for (Map.Entry<Long, SortedMap<Long, ScheduleHandle>> schedule : timeHandleMap.entrySet())
-        {
-            for (Map.Entry<Long, ScheduleHandle> entry : schedule.getValue().entrySet())
-            {
-                if (statementIds.contains(entry.getValue().getStatementId()))
-                {
-                    long relative = schedule.getKey() - currentTime;
-                    list.add(new ScheduleSetEntry(relative, entry.getKey(), entry.getValue()));
-                }
-            }
-        }
-
-        for (ScheduleSetEntry entry : list)
-        {
-            remove(entry.getHandle(), entry.getScheduleSlot());
-        }
-
+        timeHandles.take(statementIds, getTime(), list);
         return new ScheduleSet(list);
     }
 
@@ -172,22 +108,10 @@ public final class SchedulingServiceImpl implements SchedulingServiceSPI
         // no action required
     }
 
-    private void addTrigger(long slot, ScheduleHandle handle, long triggerTime)
-    {
-        SortedMap<Long, ScheduleHandle> handleSet = timeHandleMap.get(triggerTime);
-        if (handleSet == null)
-        {
-            handleSet = new TreeMap<Long, ScheduleHandle>();
-            timeHandleMap.put(triggerTime, handleSet);
-        }
-        handleSet.put(slot, handle);
-        handleSetMap.put(handle, handleSet);
-    }
-
     @JmxGetter(name = "TimeHandleCount", description = "Number of outstanding time evaluations")
     public int getTimeHandleCount()
     {
-        return timeHandleMap.size();
+        return timeHandles.getTimes().size();
     }
 
     @JmxGetter(name = "FurthestTimeHandle", description = "Furthest outstanding time evaluation")
@@ -212,48 +136,26 @@ public final class SchedulingServiceImpl implements SchedulingServiceSPI
 
     public Long getFurthestTimeHandle()
     {
-        if (!timeHandleMap.isEmpty())
-        {
-            return timeHandleMap.lastKey();
-        }
-        return null;
+        return timeHandles.getFurthestTimeHandle();
     }
 
     public int getScheduleHandleCount()
     {
-        return handleSetMap.size();
+        return timeHandles.getScheduleHandleCount();
     }
 
     public boolean isScheduled(ScheduleHandle handle)
     {
-        return handleSetMap.containsKey(handle);
+        return timeHandles.isScheduled(handle);
     }
 
     @Override
     public synchronized Long getNearestTimeHandle() {
-        if (timeHandleMap.isEmpty()) {
-            return null;
-        }
-        for (Map.Entry<Long, SortedMap<Long, ScheduleHandle>> entry : timeHandleMap.entrySet()) {
-            if (entry.getValue().isEmpty()) {
-                continue;
-            }
-            return entry.getKey();
-        }
-        return null;
+        return timeHandles.getNearestTimeHandle();
     }
 
     public void visitSchedules(ScheduleVisitor visitor) {
-        ScheduleVisit visit = new ScheduleVisit();
-        for (Map.Entry<Long, SortedMap<Long, ScheduleHandle>> entry : timeHandleMap.entrySet()) {
-            visit.setTimestamp(entry.getKey());
-
-            for (Map.Entry<Long, ScheduleHandle> inner : entry.getValue().entrySet()) {
-                visit.setStatementId(inner.getValue().getStatementId());
-                visit.setAgentInstanceId(inner.getValue().getAgentInstanceId());
-                visitor.visit(visit);
-            }
-        }
+        timeHandles.visitSchedules(visitor, new ScheduleVisit());
     }
 
     private static final Logger log = LoggerFactory.getLogger(SchedulingServiceImpl.class);
@@ -8,6 +8,7 @@
  **************************************************************************************/
 package com.espertech.esper.schedule;
 
+import com.espertech.esper.client.ConfigurationEngineDefaults;
 import com.espertech.esper.timer.TimeSourceService;
 
 /**
@@ -15,13 +16,22 @@ import com.espertech.esper.timer.TimeSourceService;
  */
 public final class SchedulingServiceProvider
 {
+    private static final int DEFAULT_NUM_STRIPES = 16;
+
     /**
      * Creates an implementation of the SchedulingService interface.
+     * @param schedulingServiceProfile scheduling service profile
      * @param timeSourceService time source provider
      * @return implementation
      */
-    public static SchedulingServiceSPI newService(TimeSourceService timeSourceService)
+    public static SchedulingServiceSPI newService(ConfigurationEngineDefaults.SchedulingServiceProfile schedulingServiceProfile, TimeSourceService timeSourceService)
     {
+        if (schedulingServiceProfile == ConfigurationEngineDefaults.SchedulingServiceProfile.TIMINGWHEEL) {
+            return new SchedulingServiceTimingWheel(timeSourceService);
+        }
+        if (schedulingServiceProfile == ConfigurationEngineDefaults.SchedulingServiceProfile.STRIPED) {
+            return new SchedulingServiceStriped(timeSourceService, DEFAULT_NUM_STRIPES);
+        }
         return new SchedulingServiceImpl(timeSourceService);
     }
 }
@@ -0,0 +1,280 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.schedule;
+
+import com.espertech.esper.client.util.DateTime;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.metrics.jmx.JmxGetter;
+import com.espertech.esper.timer.TimeSourceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Implements the schedule service by partitioning handles into stripes, each stripe keeping a sorted set of
+ * long millisecond values and a set of handles for each.
+ * <p>
+ * Handles are assigned to a stripe by statement id and agent instance id, so all schedules of a statement
+ * agent instance (context partition) are kept in the same stripe. Each stripe has its own lock, therefore
+ * threads adding and removing schedules for different agent instances, and the timer thread evaluating schedules,
+ * do not block each other. Setting the time does not lock.
+ * <p>
+ * Handles that fire in the same evaluation are returned in the order of time and slot across all stripes, same as
+ * {@link SchedulingServiceImpl}.
+ */
+public final class SchedulingServiceStriped implements SchedulingServiceSPI
+{
+    private static final Comparator<ScheduleSetEntry> DUE_COMPARATOR = new Comparator<ScheduleSetEntry>() {
+        public int compare(ScheduleSetEntry o1, ScheduleSetEntry o2) {
+            int compared = o1.getTime().compareTo(o2.getTime());
+            if (compared != 0) {
+                return compared;
+            }
+            return o1.getScheduleSlot() < o2.getScheduleSlot() ? -1 : (o1.getScheduleSlot() == o2.getScheduleSlot() ? 0 : 1);
+        }
+    };
+
+    private final ScheduleTimeHandleMap[] stripes;
+    private final int mask;
+
+    // Current time - used for evaluation as well as for adding new handles
+    private volatile long currentTime;
+
+    /**
+     * Constructor.
+     * @param timeSourceService time source provider
+     * @param numStripes minimum number of stripes, rounded up to the next power of two
+     */
+    public SchedulingServiceStriped(TimeSourceService timeSourceService, int numStripes)
+    {
+        int size = Integer.highestOneBit(Math.max(1, numStripes));
+        if (size < numStripes) {
+            size <<= 1;
+        }
+        this.stripes = new ScheduleTimeHandleMap[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ScheduleTimeHandleMap();
+        }
+        this.mask = size - 1;
+        // initialize time to just before now as there is a check for duplicate external time events
+        this.currentTime = timeSourceService.getTimeMillis() - 1;
+    }
+
+    public void destroy()
+    {
+        log.debug("Destroying scheduling service");
+        for (ScheduleTimeHandleMap stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    public long getTime()
+    {
+        // note that this.currentTime is volatile
+        return this.currentTime;
+    }
+
+    public final void setTime(long currentTime)
+    {
+        this.currentTime = currentTime;
+    }
+
+    public final void add(long afterMSec, ScheduleHandle handle, long slot)
+            throws ScheduleServiceException
+    {
+        ScheduleTimeHandleMap stripe = getStripe(handle);
+        synchronized (stripe) {
+            long currentTime = this.currentTime;
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qScheduleAdd(currentTime, afterMSec, handle, slot);}
+            stripe.add(handle, slot, currentTime + afterMSec);
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleAdd();}
+        }
+    }
+
+    public final void remove(ScheduleHandle handle, long slot)
+    {
+        ScheduleTimeHandleMap stripe = getStripe(handle);
+        synchronized (stripe) {
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qScheduleRemove(handle, slot);}
+            stripe.remove(handle, slot);
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleRemove();}
+        }
+    }
+
+    public final void evaluate(Collection<ScheduleHandle> handles)
+    {
+        long currentTime = this.currentTime;
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qScheduleEval(currentTime);}
+
+        // Determine and remove the triggers to shoot, one stripe at a time
+        List<ScheduleSetEntry> due = null;
+        int numStripesDue = 0;
+        for (ScheduleTimeHandleMap stripe : stripes) {
+            synchronized (stripe) {
+                if (!stripe.isDue(currentTime)) {
+                    continue;
+                }
+                if (due == null) {
+                    due = new ArrayList<ScheduleSetEntry>();
+                }
+                numStripesDue++;
+                stripe.removeDue(currentTime, handles, due);
+            }
+        }
+
+        if (due == null) {
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleEval(Collections.<ScheduleHandle>emptyList());}
+            return;
+        }
+
+        // Stripes return their triggers ordered, merge when more then one stripe has triggers
+        if (numStripesDue > 1) {
+            Collections.sort(due, DUE_COMPARATOR);
+        }
+        for (ScheduleSetEntry entry : due) {
+            handles.add(entry.getHandle());
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleEval(handles);}
+    }
+
+    public ScheduleSet take(Set<Integer> statementIds)
+    {
+        List<ScheduleSetEntry> list = new ArrayList<ScheduleSetEntry>();
+        long currentTime = getTime();
+        for (ScheduleTimeHandleMap stripe : stripes) {
+            synchronized (stripe) {
+                stripe.take(statementIds, currentTime, list);
+            }
+        }
+
+        return new ScheduleSet(list);
+    }
+
+    public void apply(ScheduleSet scheduleSet)
+    {
+        for (ScheduleSetEntry entry : scheduleSet.getList())
+        {
+            add(entry.getTime(), entry.getHandle(), entry.getScheduleSlot());
+        }
+    }
+
+    public void init() {
+        // no action required
+    }
+
+    /**
+     * Returns the number of stripes.
+     * @return stripe count
+     */
+    public int getNumStripes()
+    {
+        return stripes.length;
+    }
+
+    @JmxGetter(name = "TimeHandleCount", description = "Number of outstanding time evaluations")
+    public int getTimeHandleCount()
+    {
+        Set<Long> times = new HashSet<Long>();
+        for (ScheduleTimeHandleMap stripe : stripes) {
+            synchronized (stripe) {
+                times.addAll(stripe.getTimes());
+            }
+        }
+        return times.size();
+    }
+
+    @JmxGetter(name = "FurthestTimeHandle", description = "Furthest outstanding time evaluation")
+    public String getFurthestTimeHandleDate()
+    {
+        Long handle = getFurthestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    @JmxGetter(name = "NearestTimeHandle", description = "Nearest outstanding time evaluation")
+    public String getNearestTimeHandleDate()
+    {
+        Long handle = getNearestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    public Long getFurthestTimeHandle()
+    {
+        Long furthest = null;
+        for (ScheduleTimeHandleMap stripe : stripes) {
+            synchronized (stripe) {
+                Long last = stripe.getFurthestTimeHandle();
+                if (last != null && (furthest == null || last > furthest)) {
+                    furthest = last;
+                }
+            }
+        }
+        return furthest;
+    }
+
+    public int getScheduleHandleCount()
+    {
+        int count = 0;
+        for (ScheduleTimeHandleMap stripe : stripes) {
+            synchronized (stripe) {
+                count += stripe.getScheduleHandleCount();
+            }
+        }
+        return count;
+    }
+
+    public boolean isScheduled(ScheduleHandle handle)
+    {
+        ScheduleTimeHandleMap stripe = getStripe(handle);
+        synchronized (stripe) {
+            return stripe.isScheduled(handle);
+        }
+    }
+
+    public Long getNearestTimeHandle() {
+        Long nearest = null;
+        for (ScheduleTimeHandleMap stripe : stripes) {
+            synchronized (stripe) {
+                Long stripeNearest = stripe.getNearestTimeHandle();
+                if (stripeNearest != null && (nearest == null || stripeNearest < nearest)) {
+                    nearest = stripeNearest;
+                }
+            }
+        }
+        return nearest;
+    }
+
+    public void visitSchedules(ScheduleVisitor visitor) {
+        ScheduleVisit visit = new ScheduleVisit();
+        for (ScheduleTimeHandleMap stripe : stripes) {
+            synchronized (stripe) {
+                stripe.visitSchedules(visitor, visit);
+            }
+        }
+    }
+
+    private ScheduleTimeHandleMap getStripe(ScheduleHandle handle)
+    {
+        int hash = handle.getStatementId() * 31 + handle.getAgentInstanceId();
+        hash ^= (hash >>> 16);
+        hash *= 0x85ebca6b;
+        hash ^= (hash >>> 13);
+        return stripes[hash & mask];
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulingServiceStriped.class);
+}
@@ -0,0 +1,472 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.schedule;
+
+import com.espertech.esper.client.util.DateTime;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.metrics.jmx.JmxGetter;
+import com.espertech.esper.timer.TimeSourceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Implements the schedule service as a hierarchical timing wheel of millisecond resolution.
+ * <p>
+ * The wheel has four levels of 256 buckets each: level 0 holds handles due within the next 256 milliseconds
+ * at one-millisecond granularity, each further level covers a 256-times larger span at a 256-times coarser
+ * granularity. Handles further out than the wheel spans are kept in an overflow list.
+ * Adding and removing a handle is constant-time. Advancing time visits the level 0 buckets
+ * one millisecond at a time and cascades a bucket of the next level down when a level 0 revolution completes,
+ * skipping over time spans that have no handles.
+ * <p>
+ * Handles that fire in the same evaluation are returned in the order of time and slot, same as
+ * {@link SchedulingServiceImpl}.
+ * <p>
+ * Synchronized since statement creation and event evaluation by multiple (event send) threads
+ * can lead to callbacks added/removed asynchronously.
+ */
+public final class SchedulingServiceTimingWheel implements SchedulingServiceSPI
+{
+    private static final int BITS = 8;
+    private static final int BUCKETS = 1 << BITS;
+    private static final int MASK = BUCKETS - 1;
+    private static final int LEVELS = 4;
+
+    // the overflow list and the list of handles that are due already but were not evaluated yet
+    private static final int LIST_OVERFLOW = LEVELS;
+    private static final int LIST_OVERDUE = LEVELS + 1;
+
+    private static final Comparator<Entry> DUE_COMPARATOR = new Comparator<Entry>() {
+        public int compare(Entry o1, Entry o2) {
+            if (o1.time != o2.time) {
+                return o1.time < o2.time ? -1 : 1;
+            }
+            if (o1.slot != o2.slot) {
+                return o1.slot < o2.slot ? -1 : 1;
+            }
+            return 0;
+        }
+    };
+
+    // Bucket lists per level, followed by the overflow and overdue lists
+    private final Entry[][] lists;
+    private final int[] listCounts;
+
+    // Map of handle and its entry for faster removal
+    private final Map<ScheduleHandle, Entry> handleMap;
+
+    // Current time - used for evaluation as well as for adding new handles
+    private volatile long currentTime;
+
+    // Time of the next millisecond that the wheel has not yet evaluated
+    private long wheelTime;
+
+    /**
+     * Constructor.
+     * @param timeSourceService time source provider
+     */
+    public SchedulingServiceTimingWheel(TimeSourceService timeSourceService)
+    {
+        this.lists = new Entry[LEVELS + 2][];
+        for (int i = 0; i < LEVELS; i++) {
+            lists[i] = new Entry[BUCKETS];
+        }
+        lists[LIST_OVERFLOW] = new Entry[1];
+        lists[LIST_OVERDUE] = new Entry[1];
+        this.listCounts = new int[LEVELS + 2];
+        this.handleMap = new HashMap<ScheduleHandle, Entry>();
+        // initialize time to just before now as there is a check for duplicate external time events
+        this.currentTime = timeSourceService.getTimeMillis() - 1;
+        this.wheelTime = currentTime + 1;
+    }
+
+    public synchronized void destroy()
+    {
+        log.debug("Destroying scheduling service");
+        handleMap.clear();
+        for (Entry[] list : lists) {
+            Arrays.fill(list, null);
+        }
+        Arrays.fill(listCounts, 0);
+    }
+
+    public long getTime()
+    {
+        // note that this.currentTime is volatile
+        return this.currentTime;
+    }
+
+    public synchronized final void setTime(long currentTime)
+    {
+        this.currentTime = currentTime;
+        if (currentTime + 1 < wheelTime) {
+            // time went backwards: place all handles relative to the new time
+            wheelTime = currentTime + 1;
+            Collection<Entry> entries = new ArrayList<Entry>(handleMap.values());
+            for (Entry[] list : lists) {
+                Arrays.fill(list, null);
+            }
+            Arrays.fill(listCounts, 0);
+            for (Entry entry : entries) {
+                place(entry);
+            }
+        }
+    }
+
+    public synchronized final void add(long afterMSec, ScheduleHandle handle, long slot)
+            throws ScheduleServiceException
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qScheduleAdd(currentTime, afterMSec, handle, slot);}
+        Entry existing = handleMap.remove(handle);
+        if (existing != null) {
+            unlink(existing);
+        }
+
+        Entry entry = new Entry(currentTime + afterMSec, slot, handle);
+        handleMap.put(handle, entry);
+        place(entry);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleAdd();}
+    }
+
+    public synchronized final void remove(ScheduleHandle handle, long slot)
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qScheduleRemove(handle, slot);}
+        Entry entry = handleMap.remove(handle);
+        if (entry != null) {
+            // If it already has been removed then that's fine;
+            // Such could be the case when 2 timers fireStatementStopped at the same time, and one stops the other
+            unlink(entry);
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleRemove();}
+    }
+
+    public synchronized final void evaluate(Collection<ScheduleHandle> handles)
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qScheduleEval(currentTime);}
+        if (handleMap.isEmpty()) {
+            wheelTime = Math.max(wheelTime, currentTime + 1);
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleEval(Collections.<ScheduleHandle>emptyList());}
+            return;
+        }
+
+        List<Entry> due = new ArrayList<Entry>();
+        drain(LIST_OVERDUE, 0, due);
+        advance(currentTime, due);
+
+        if (due.size() > 1) {
+            Collections.sort(due, DUE_COMPARATOR);
+        }
+        for (Entry entry : due) {
+            handleMap.remove(entry.handle);
+            handles.add(entry.handle);
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleEval(handles);}
+    }
+
+    public ScheduleSet take(Set<Integer> statementIds)
+    {
+        List<ScheduleSetEntry> list = new ArrayList<ScheduleSetEntry>();
+        long currentTime = getTime();
+        synchronized (this) {
+            for (Entry entry : handleMap.values())
+            {
+                if (statementIds.contains(entry.handle.getStatementId()))
+                {
+                    long relative = entry.time - currentTime;
+                    list.add(new ScheduleSetEntry(relative, entry.slot, entry.handle));
+                }
+            }
+        }
+
+        for (ScheduleSetEntry entry : list)
+        {
+            remove(entry.getHandle(), entry.getScheduleSlot());
+        }
+
+        return new ScheduleSet(list);
+    }
+
+    public void apply(ScheduleSet scheduleSet)
+    {
+        for (ScheduleSetEntry entry : scheduleSet.getList())
+        {
+            add(entry.getTime(), entry.getHandle(), entry.getScheduleSlot());
+        }
+    }
+
+    public void init() {
+        // no action required
+    }
+
+    @JmxGetter(name = "TimeHandleCount", description = "Number of outstanding time evaluations")
+    public synchronized int getTimeHandleCount()
+    {
+        Set<Long> times = new HashSet<Long>();
+        for (Entry entry : handleMap.values()) {
+            times.add(entry.time);
+        }
+        return times.size();
+    }
+
+    @JmxGetter(name = "FurthestTimeHandle", description = "Furthest outstanding time evaluation")
+    public String getFurthestTimeHandleDate()
+    {
+        Long handle = getFurthestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    @JmxGetter(name = "NearestTimeHandle", description = "Nearest outstanding time evaluation")
+    public String getNearestTimeHandleDate()
+    {
+        Long handle = getNearestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    public synchronized Long getFurthestTimeHandle()
+    {
+        Long furthest = null;
+        for (Entry entry : handleMap.values()) {
+            if (furthest == null || entry.time > furthest) {
+                furthest = entry.time;
+            }
+        }
+        return furthest;
+    }
+
+    public synchronized int getScheduleHandleCount()
+    {
+        return handleMap.size();
+    }
+
+    public synchronized boolean isScheduled(ScheduleHandle handle)
+    {
+        return handleMap.containsKey(handle);
+    }
+
+    public synchronized Long getNearestTimeHandle() {
+        if (handleMap.isEmpty()) {
+            return null;
+        }
+        long nearest = Long.MAX_VALUE;
+        if (listCounts[LIST_OVERDUE] > 0) {
+            nearest = minTime(lists[LIST_OVERDUE][0], nearest);
+        }
+
+        // level 0 buckets all hold a single time, the first non-empty bucket from the wheel position is the nearest
+        if (listCounts[0] > 0) {
+            for (int i = 0; i < BUCKETS; i++) {
+                Entry head = lists[0][(int) ((wheelTime + i) & MASK)];
+                if (head != null) {
+                    nearest = Math.min(nearest, head.time);
+                    break;
+                }
+            }
+        }
+
+        // higher level buckets span multiple times, the first non-empty bucket after the wheel position holds the nearest
+        for (int level = 1; level < LEVELS; level++) {
+            if (listCounts[level] == 0) {
+                continue;
+            }
+            int shift = level * BITS;
+            long block = wheelTime >> shift;
+            if (((block + 1) << shift) > nearest) {
+                continue;
+            }
+            for (int i = 1; i <= BUCKETS; i++) {
+                Entry head = lists[level][(int) ((block + i) & MASK)];
+                if (head != null) {
+                    nearest = minTime(head, nearest);
+                    break;
+                }
+            }
+        }
+
+        if (listCounts[LIST_OVERFLOW] > 0) {
+            nearest = minTime(lists[LIST_OVERFLOW][0], nearest);
+        }
+        return nearest;
+    }
+
+    public synchronized void visitSchedules(ScheduleVisitor visitor) {
+        List<Entry> entries = new ArrayList<Entry>(handleMap.values());
+        Collections.sort(entries, DUE_COMPARATOR);
+        ScheduleVisit visit = new ScheduleVisit();
+        for (Entry entry : entries) {
+            visit.setTimestamp(entry.time);
+            visit.setStatementId(entry.handle.getStatementId());
+            visit.setAgentInstanceId(entry.handle.getAgentInstanceId());
+            visitor.visit(visit);
+        }
+    }
+
+    /**
+     * Moves the wheel forward evaluating all milliseconds up to and including the target time.
+     * @param target time to evaluate to
+     * @param due collects the entries that are due
+     */
+    private void advance(long target, List<Entry> due)
+    {
+        while (wheelTime <= target) {
+            if (listCounts[0] == 0) {
+                // nothing due within this revolution, jump to the next cascade of a non-empty level
+                long next = nextCascadeTime();
+                if (next > target + 1) {
+                    wheelTime = target + 1;
+                    return;
+                }
+                wheelTime = next;
+                cascade();
+                continue;
+            }
+
+            drain(0, (int) (wheelTime & MASK), due);
+            wheelTime++;
+            if ((wheelTime & MASK) == 0) {
+                cascade();
+            }
+        }
+    }
+
+    private long nextCascadeTime()
+    {
+        for (int level = 1; level <= LEVELS; level++) {
+            if (listCounts[level] > 0) {
+                int shift = level * BITS;
+                return ((wheelTime >> shift) + 1) << shift;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Re-places the entries of the current bucket of each higher level, called when the wheel time
+     * reaches a level 0 revolution boundary. The overflow list is re-placed when the highest level completes a revolution.
+     */
+    private void cascade()
+    {
+        for (int level = 1; level <= LEVELS; level++) {
+            int index = level == LIST_OVERFLOW ? 0 : (int) ((wheelTime >> (level * BITS)) & MASK);
+            Entry entry = lists[level][index];
+            lists[level][index] = null;
+            while (entry != null) {
+                Entry next = entry.next;
+                listCounts[level]--;
+                place(entry);
+                entry = next;
+            }
+            if (index != 0) {
+                break;
+            }
+        }
+    }
+
+    private void place(Entry entry)
+    {
+        long delta = entry.time - wheelTime;
+        int list;
+        int index;
+        if (delta < 0) {
+            list = LIST_OVERDUE;
+            index = 0;
+        }
+        else if (delta >= (1L << (LEVELS * BITS))) {
+            list = LIST_OVERFLOW;
+            index = 0;
+        }
+        else {
+            list = 0;
+            while (delta >= (1L << ((list + 1) * BITS))) {
+                list++;
+            }
+            index = (int) ((entry.time >> (list * BITS)) & MASK);
+        }
+
+        Entry head = lists[list][index];
+        entry.list = list;
+        entry.index = index;
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        lists[list][index] = entry;
+        listCounts[list]++;
+    }
+
+    private void unlink(Entry entry)
+    {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        }
+        else {
+            lists[entry.list][entry.index] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+        listCounts[entry.list]--;
+    }
+
+    private void drain(int list, int index, List<Entry> due)
+    {
+        Entry entry = lists[list][index];
+        if (entry == null) {
+            return;
+        }
+        lists[list][index] = null;
+        while (entry != null) {
+            Entry next = entry.next;
+            entry.prev = null;
+            entry.next = null;
+            listCounts[list]--;
+            due.add(entry);
+            entry = next;
+        }
+    }
+
+    private static long minTime(Entry head, long min)
+    {
+        for (Entry entry = head; entry != null; entry = entry.next) {
+            if (entry.time < min) {
+                min = entry.time;
+            }
+        }
+        return min;
+    }
+
+    private static class Entry
+    {
+        private final long time;
+        private final long slot;
+        private final ScheduleHandle handle;
+        private int list;
+        private int index;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(long time, long slot, ScheduleHandle handle) {
+            this.time = time;
+            this.slot = slot;
+            this.handle = handle;
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulingServiceTimingWheel.class);
+}
@@ -11,6 +11,7 @@ package com.espertech.esper.util;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.collection.MultiKey;
 import com.espertech.esper.collection.NullIterator;
+import com.espertech.esper.collection.OrderStatisticTreeMap;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 
 import java.io.StringWriter;
@@ -451,6 +452,95 @@ public class CollectionUtil
         }
     }
 
+    /**
+     * Remove the event from the lazy-list sorted map, maintaining the weight of the key as the number of events.
+     * @param key sort key
+     * @param bean event to remove
+     * @param eventMap map of sort key and either event or list of events
+     * @return true if removed
+     */
+    public static boolean removeEventByKeyLazyListMap(Object key, EventBean bean, OrderStatisticTreeMap<Object, Object> eventMap)
+    {
+        Object listOfBeans = eventMap.get(key);
+        if (listOfBeans == null)
+        {
+            return false;
+        }
+
+        if (listOfBeans instanceof List) {
+            List<EventBean> events = (List<EventBean>) listOfBeans;
+            boolean result = events.remove(bean);
+            if (events.isEmpty())
+            {
+                eventMap.remove(key);
+            }
+            else if (result)
+            {
+                eventMap.put(key, events, events.size());
+            }
+            return result;
+        }
+        else if (listOfBeans.equals(bean)) {
+            eventMap.remove(key);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Add the event to the back of the lazy-list sorted map, maintaining the weight of the key as the number of events.
+     * @param sortKey sort key
+     * @param eventBean event to add
+     * @param eventMap map of sort key and either event or list of events
+     */
+    public static void addEventByKeyLazyListMapBack(Object sortKey, EventBean eventBean, OrderStatisticTreeMap<Object, Object> eventMap) {
+        Object existing = eventMap.get(sortKey);
+        if (existing == null) {
+            eventMap.put(sortKey, eventBean);
+        }
+        else {
+            List<EventBean> existingList;
+            if (existing instanceof List) {
+                existingList = (List<EventBean>) existing;
+                existingList.add(eventBean);
+            }
+            else {
+                existingList = new LinkedList<EventBean>();
+                existingList.add((EventBean)existing);
+                existingList.add(eventBean);
+            }
+            eventMap.put(sortKey, existingList, existingList.size());
+        }
+    }
+
+    /**
+     * Add the event to the front of the lazy-list sorted map, maintaining the weight of the key as the number of events.
+     * @param key sort key
+     * @param bean event to add
+     * @param eventMap map of sort key and either event or list of events
+     */
+    public static void addEventByKeyLazyListMapFront(Object key, EventBean bean, OrderStatisticTreeMap<Object, Object> eventMap)
+    {
+        Object current = eventMap.get(key);
+        if (current != null) {
+            List<EventBean> events;
+            if (current instanceof List) {
+                events = (List<EventBean>) current;
+                events.add(0, bean);    // add to front, newest are listed first
+            }
+            else {
+                events = new LinkedList<EventBean>();
+                events.add(bean);
+                events.add((EventBean) current);
+            }
+            eventMap.put(key, events, events.size());
+        }
+        else {
+            eventMap.put(key, bean);
+        }
+    }
+
     public static boolean isAnySet(boolean[] array) {
         for (int i = 0; i < array.length; i++) {
             if (array[i]) {
@@ -166,6 +166,42 @@ public class ViewServiceHelper
         }
     }
 
+    /**
+     * Returns the views that are in the current child views but not in the prior child views.
+     * @param priorViews child views before
+     * @param currentViews child views after
+     * @return added views
+     */
+    public static List<View> getAddedViews(View[] priorViews, View[] currentViews) {
+        List<View> added = new ArrayList<View>(2);
+        for (View current : currentViews) {
+            boolean found = false;
+            for (View prior : priorViews) {
+                if (prior == current) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                added.add(current);
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Removes consumer views from a possibly-shared leaf view.
+     * @param leaf the possibly-shared view or stream that the consumer views are attached to
+     * @param consumerViews the views to detach
+     * @return true if the leaf remains in use by other consumers, false if the leaf has no more child views
+     */
+    public static boolean removeConsumerViews(Viewable leaf, List<View> consumerViews) {
+        for (View consumer : consumerViews) {
+            leaf.removeView(consumer);
+        }
+        return leaf.hasViews();
+    }
+
     /**
      * Removes a view from a parent view returning the orphaned parent views in a list.
      * @param parentViewable - parent to remove view from
@@ -205,12 +205,13 @@ public final class ViewServiceImpl implements ViewService
                                 boolean hasPreviousNode)
     {
         // Attempt to find existing views under the stream that match specs.
-        // The viewSpecList may have been changed by this method.
+        // Matching removes matched factories, therefore match against a copy as the same chain is used by each context partition.
         Pair<Viewable, List<View>> resultPair;
         if (hasPreviousNode) {
             resultPair = new Pair<Viewable, List<View>>(eventStreamViewable, Collections.<View>emptyList());
         }
         else {
+            viewFactories = new ArrayList<ViewFactory>(viewFactories);
             resultPair = ViewServiceHelper.matchExistingViews(eventStreamViewable, viewFactories);
         }
 
@@ -8,14 +8,13 @@
  **************************************************************************************/
 package com.espertech.esper.view.ext;
 
+import com.espertech.esper.collection.OrderStatisticTreeMap;
 import com.espertech.esper.view.window.RandomAccessByIndex;
 
-import java.util.TreeMap;
-
 /**
  * Provides random access into a rank-window's data.
  */
 public interface IStreamSortRankRandomAccess extends RandomAccessByIndex
 {
-    void refresh(TreeMap<Object, Object> sortedEvents, int currentSize, int maxSize);
+    void refresh(OrderStatisticTreeMap<Object, Object> sortedEvents, int currentSize, int maxSize);
 }
@@ -11,13 +11,14 @@ package com.espertech.esper.view.ext;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.collection.ArrayMaxEventCollectionRO;
 import com.espertech.esper.collection.ArrayMaxEventIterator;
+import com.espertech.esper.collection.OrderStatisticTreeMap;
 import com.espertech.esper.view.window.RandomAccessByIndex;
 import com.espertech.esper.view.window.RandomAccessByIndexObserver;
 
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
-import java.util.TreeMap;
+import java.util.Map;
 
 /**
  * Provides random access into a rank-window's data.
@@ -26,7 +27,7 @@ public class IStreamSortRankRandomAccessImpl implements RandomAccessByIndex, ISt
 {
     private final RandomAccessByIndexObserver updateObserver;
 
-    private TreeMap<Object, Object> sortedEvents;
+    private OrderStatisticTreeMap<Object, Object> sortedEvents;
     private int currentSize;
 
     private Iterator<Object> iterator;
@@ -48,7 +49,7 @@ public class IStreamSortRankRandomAccessImpl implements RandomAccessByIndex, ISt
      * @param currentSize is the current size of the window
      * @param maxSize is the maximum size of the window
      */
-    public void refresh(TreeMap<Object, Object> sortedEvents, int currentSize, int maxSize)
+    public void refresh(OrderStatisticTreeMap<Object, Object> sortedEvents, int currentSize, int maxSize)
     {
         updateObserver.updated(this);
         this.sortedEvents = sortedEvents;
@@ -64,13 +65,8 @@ public class IStreamSortRankRandomAccessImpl implements RandomAccessByIndex, ISt
 
     public EventBean getNewData(int index)
     {
-        if (iterator == null)
-        {
-            iterator = sortedEvents.values().iterator();
-        }
-
         // if asking for more then the sorted window currently holds, return no data
-        if (index >= currentSize)
+        if (index >= currentSize || index < 0)
         {
             return null;
         }
@@ -81,45 +77,18 @@ public class IStreamSortRankRandomAccessImpl implements RandomAccessByIndex, ISt
             return cache[index];
         }
 
-        // Load more into cache
-        while(true)
+        // Find the entry by position, the weight of each entry is the number of events it holds
+        Map.Entry<Object, Object> entry = sortedEvents.select(index);
+        if (entry == null)
         {
-            if (cacheFilledTo == currentSize)
-            {
-                break;
-            }
-            if (!iterator.hasNext())
-            {
-                break;
-            }
-            Object entry = iterator.next();
-            if (entry instanceof List) {
-                List<EventBean> events = (List<EventBean>) entry;
-                for (EventBean theEvent : events)
-                {
-                    cache[cacheFilledTo] = theEvent;
-                    cacheFilledTo++;
-                }
-            }
-            else {
-                EventBean theEvent = (EventBean) entry;
-                cache[cacheFilledTo] = theEvent;
-                cacheFilledTo++;
-            }
-
-            if (cacheFilledTo > index)
-            {
-                break;
-            }
+            return null;
         }
-
-        // If we have it in cache, serve from cache
-        if (index <= cacheFilledTo)
-        {
-            return cache[index];
+        Object value = entry.getValue();
+        if (value instanceof List) {
+            List<EventBean> events = (List<EventBean>) value;
+            return events.get(index - sortedEvents.getWeightBefore(entry.getKey()));
         }
-
-        return null;
+        return (EventBean) value;
     }
 
     public EventBean getOldData(int index)
@@ -129,11 +98,9 @@ public class IStreamSortRankRandomAccessImpl implements RandomAccessByIndex, ISt
 
     public EventBean getNewDataTail(int index)
     {
-        initCache();
-
-        if ((index < cacheFilledTo) && (index >= 0))
+        if ((index < currentSize) && (index >= 0))
         {
-            return cache[cacheFilledTo - index - 1];
+            return getNewData(currentSize - index - 1);
         }
 
         return null;
@@ -12,6 +12,7 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.collection.OneEventCollection;
+import com.espertech.esper.collection.OrderStatisticTreeMap;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
@@ -50,7 +51,7 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
 
     private final Comparator<Object> comparator;
 
-    protected TreeMap<Object, Object> sortedEvents;   // key is computed sort-key, value is either List<EventBean> or EventBean
+    protected OrderStatisticTreeMap<Object, Object> sortedEvents;   // key is computed sort-key, value is either List<EventBean> or EventBean
     protected Map<Object, Object> uniqueKeySortKeys;  // key is computed unique-key, value is computed sort-key
     protected int numberOfEvents;
 
@@ -86,7 +87,7 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
         this.agentInstanceViewFactoryContext = agentInstanceViewFactoryContext;
 
         comparator = CollectionUtil.getComparator(sortCriteriaEvaluators, isSortUsingCollator, isDescendingValues);
-        sortedEvents = new TreeMap<Object, Object>(comparator);
+        sortedEvents = new OrderStatisticTreeMap<Object, Object>(comparator);
         uniqueKeySortKeys = new HashMap<Object, Object>();
     }
 
@@ -185,6 +186,9 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
                     if (existingList.isEmpty()) {
                         sortedEvents.remove(lastKey);
                     }
+                    else {
+                        sortedEvents.put(lastKey, existingList, existingList.size());
+                    }
                 }
                 else {
                     EventBean lastSortedEvent = (EventBean) existing;
@@ -277,6 +281,9 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
                 if (existingList.isEmpty()) {
                     sortedEvents.remove(sortKey);
                 }
+                else {
+                    sortedEvents.put(sortKey, existingList, existingList.size());
+                }
             }
             else {
                 removedOldEvent = (EventBean) existing;
@@ -303,6 +310,7 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
                     }
                 }
                 existingList.add(newData);  // add to back as this is now the newest event
+                sortedEvents.put(sortKey, existingList, existingList.size());
             }
             else {
                 replaced = (EventBean) existing;
@@ -9,28 +9,24 @@
 package com.espertech.esper.view.ext;
 
 import com.espertech.esper.collection.MixedEventBeanAndCollectionIteratorBase;
-
-import java.util.SortedMap;
+import com.espertech.esper.collection.OrderStatisticTreeMap;
 
 /**
  * Iterator for use by {@link SortWindowView}.
  */
 public final class SortWindowIterator extends MixedEventBeanAndCollectionIteratorBase
 {
-    private final SortedMap<Object, Object> window;
-
     /**
      * Ctor.
      * @param window - sorted map with events
      */
-    public SortWindowIterator(SortedMap<Object, Object> window)
+    public SortWindowIterator(OrderStatisticTreeMap<Object, Object> window)
     {
-        super(window.keySet().iterator());
-        this.window = window;
+        super(window.valueIterator(false));
         init();
     }
 
     protected Object getValue(Object iteratorKeyValue) {
-        return window.get(iteratorKeyValue);
+        return iteratorKeyValue;
     }
 }
@@ -12,6 +12,7 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.collection.OneEventCollection;
+import com.espertech.esper.collection.OrderStatisticTreeMap;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNode;
@@ -46,7 +47,7 @@ public class SortWindowView extends ViewSupport implements DataWindowView, Clone
     private final IStreamSortRankRandomAccess optionalSortedRandomAccess;
     protected final AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext;
 
-    protected TreeMap<Object, Object> sortedEvents;
+    protected OrderStatisticTreeMap<Object, Object> sortedEvents;
     protected int eventCount;
 
     /**
@@ -77,7 +78,7 @@ public class SortWindowView extends ViewSupport implements DataWindowView, Clone
         this.agentInstanceViewFactoryContext = agentInstanceViewFactoryContext;
 
         Comparator<Object> comparator = CollectionUtil.getComparator(sortCriteriaEvaluators, isSortUsingCollator, isDescendingValues);
-        sortedEvents = new TreeMap<Object, Object>(comparator);
+        sortedEvents = new OrderStatisticTreeMap<Object, Object>(comparator);
     }
 
     /**
@@ -173,6 +174,9 @@ public class SortWindowView extends ViewSupport implements DataWindowView, Clone
                     if (events.isEmpty()) {
                         sortedEvents.remove(lastKey);
                     }
+                    else {
+                        sortedEvents.put(lastKey, events, events.size());
+                    }
                     if (removedEvents == null) {
                         removedEvents = new OneEventCollection();
                     }
@@ -10,6 +10,7 @@ package com.espertech.esper.view.ext;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.collection.OrderStatisticTreeMap;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.core.service.EPStatementHandleCallback;
 import com.espertech.esper.core.service.EngineLevelExtensionServicesContext;
@@ -27,7 +28,6 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.TreeMap;
 
 /**
  * Window retaining timestamped events up to a given number of seconds such that
@@ -55,7 +55,7 @@ public class TimeOrderView extends ViewSupport implements DataWindowView, Clonea
     protected final EPStatementHandleCallback handle;
 
     private EventBean[] eventsPerStream = new EventBean[1];
-    protected TreeMap<Object, Object> sortedEvents;
+    protected OrderStatisticTreeMap<Object, Object> sortedEvents;
     protected boolean isCallbackScheduled;
     protected int eventCount;
 
@@ -81,7 +81,7 @@ public class TimeOrderView extends ViewSupport implements DataWindowView, Clonea
         this.optionalSortedRandomAccess = optionalSortedRandomAccess;
         this.scheduleSlot = agentInstanceContext.getStatementContext().getScheduleBucket().allocateSlot();
 
-        sortedEvents = new TreeMap<Object, Object>();
+        sortedEvents = new OrderStatisticTreeMap<Object, Object>();
 
         ScheduleHandleCallback callback = new ScheduleHandleCallback() {
             public void scheduledTrigger(EngineLevelExtensionServicesContext extensionServicesContext)
@@ -0,0 +1,94 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.view.std;
+
+import com.espertech.esper.client.EventBean;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Map of values keyed by the result of evaluating the criteria expressions of a unique or group-by view against an event,
+ * specialized by the type of the key, see {@link CriteriaKeyedMapFactory}.
+ * <p>
+ * Lookup by event with {@link #get(EventBean)} computes and retains the key of the event as the current key,
+ * so that a subsequent {@link #put(Object)}, {@link #remove()} or {@link #getKey()} does not evaluate the criteria again.
+ * Not thread-safe.
+ */
+public interface CriteriaKeyedMap<V>
+{
+    /**
+     * Computes the key for the event, retaining it as the current key, and returns the value for the key.
+     * @param theEvent event to compute the key for
+     * @return value or null if the key is not found
+     */
+    public V get(EventBean theEvent);
+
+    /**
+     * Puts a value for the current key.
+     * @param value non-null value
+     * @return previous value or null if the key was not found
+     */
+    public V put(V value);
+
+    /**
+     * Removes the current key.
+     * @return removed value or null if the key was not found
+     */
+    public V remove();
+
+    /**
+     * Returns the current key as a key object, i.e. the single criteria value or a {@link com.espertech.esper.collection.MultiKeyUntyped}
+     * for multiple criteria, allocating the key object as needed.
+     * @return key object
+     */
+    public Object getKey();
+
+    /**
+     * Removes a key object as returned by {@link #getKey()} or {@link #entries()}.
+     * @param key key object
+     * @return removed value or null if the key was not found
+     */
+    public V removeKey(Object key);
+
+    /**
+     * Returns the number of keys.
+     * @return size
+     */
+    public int size();
+
+    /**
+     * Returns true if there are no keys.
+     * @return empty indicator
+     */
+    public boolean isEmpty();
+
+    /**
+     * Removes all keys.
+     */
+    public void clear();
+
+    /**
+     * Returns a read-only collection view of the values.
+     * @return values
+     */
+    public Collection<V> values();
+
+    /**
+     * Returns the entries with key objects, allocating the key objects as needed. For use outside of event processing.
+     * @return entries
+     */
+    public Collection<Map.Entry<Object, V>> entries();
+
+    /**
+     * Returns the content as a map of key objects to values, allocating the key objects as needed. For use outside of event processing.
+     * @return map
+     */
+    public Map<Object, V> toMap();
+}
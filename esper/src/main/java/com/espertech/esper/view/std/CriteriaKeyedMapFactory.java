@@ -0,0 +1,59 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.view.std;
+
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprNodeUtility;
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Chooses, by the return types of the criteria expressions of a unique or group-by view, the {@link CriteriaKeyedMap}
+ * implementation: integral single keys use primitive long open addressing, multiple criteria use probe-array
+ * composite keys and all other single keys use a hash map. The open-addressing maps iterate in key insertion order.
+ */
+public class CriteriaKeyedMapFactory
+{
+    private final ExprEvaluator[] evaluators;
+    private final Class integralBoxedType;
+
+    /**
+     * Ctor.
+     * @param criteriaExpressions validated criteria expressions
+     */
+    public CriteriaKeyedMapFactory(ExprNode[] criteriaExpressions)
+    {
+        this.evaluators = ExprNodeUtility.getEvaluators(criteriaExpressions);
+        Class boxedType = null;
+        if (criteriaExpressions.length == 1) {
+            Class type = JavaClassHelper.getBoxedType(evaluators[0].getType());
+            if (type == Long.class || type == Integer.class || type == Short.class || type == Byte.class) {
+                boxedType = type;
+            }
+        }
+        this.integralBoxedType = boxedType;
+    }
+
+    /**
+     * Makes a new map.
+     * @param exprEvaluatorContext evaluation context
+     * @return map
+     */
+    public <V> CriteriaKeyedMap<V> make(ExprEvaluatorContext exprEvaluatorContext)
+    {
+        if (evaluators.length > 1) {
+            return new CriteriaKeyedMapMulti<V>(evaluators, exprEvaluatorContext);
+        }
+        if (integralBoxedType != null) {
+            return new CriteriaKeyedMapLong<V>(evaluators[0], integralBoxedType, exprEvaluatorContext);
+        }
+        return new CriteriaKeyedMapSingle<V>(evaluators[0], exprEvaluatorContext);
+    }
+}
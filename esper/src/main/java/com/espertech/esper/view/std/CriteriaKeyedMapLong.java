@@ -0,0 +1,158 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.view.std;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.LongLinkedHashMap;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorPrimitive;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Criteria-keyed map for a single criteria expression returning an integral number type, keyed by the primitive
+ * long value using open addressing and iterating in key insertion order, see {@link LongLinkedHashMap}.
+ * <p>
+ * Evaluators implementing {@link ExprEvaluatorPrimitive} supply the key without boxing. A null key, possible only
+ * for a boxed type, is kept in insertion order with the other keys.
+ */
+public class CriteriaKeyedMapLong<V> implements CriteriaKeyedMap<V>
+{
+    private final ExprEvaluator evaluator;
+    private final ExprEvaluatorPrimitive evaluatorPrimitive;
+    private final Class boxedType;
+    private final ExprEvaluatorContext exprEvaluatorContext;
+    private final EventBean[] eventsPerStream = new EventBean[1];
+    private final LongLinkedHashMap<V> map = new LongLinkedHashMap<V>();
+    private long currentKey;
+    private boolean currentKeyNull;
+
+    /**
+     * Ctor.
+     * @param evaluator criteria expression evaluator
+     * @param boxedType boxed integral type of the criteria expression
+     * @param exprEvaluatorContext evaluation context
+     */
+    public CriteriaKeyedMapLong(ExprEvaluator evaluator, Class boxedType, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        this.evaluator = evaluator;
+        this.evaluatorPrimitive = evaluator instanceof ExprEvaluatorPrimitive ? (ExprEvaluatorPrimitive) evaluator : null;
+        this.boxedType = boxedType;
+        this.exprEvaluatorContext = exprEvaluatorContext;
+    }
+
+    public V get(EventBean theEvent)
+    {
+        eventsPerStream[0] = theEvent;
+        if (evaluatorPrimitive != null) {
+            currentKey = evaluatorPrimitive.evaluateLong(eventsPerStream, true, exprEvaluatorContext);
+            currentKeyNull = false;
+            return map.get(currentKey);
+        }
+        Object value = evaluator.evaluate(eventsPerStream, true, exprEvaluatorContext);
+        if (value == null) {
+            currentKeyNull = true;
+            return map.getNullKey();
+        }
+        currentKey = ((Number) value).longValue();
+        currentKeyNull = false;
+        return map.get(currentKey);
+    }
+
+    public V put(V value)
+    {
+        if (currentKeyNull) {
+            return map.putNullKey(value);
+        }
+        return map.put(currentKey, value);
+    }
+
+    public V remove()
+    {
+        if (currentKeyNull) {
+            return map.removeNullKey();
+        }
+        return map.remove(currentKey);
+    }
+
+    public Object getKey()
+    {
+        return currentKeyNull ? null : toKeyObject(currentKey);
+    }
+
+    public V removeKey(Object key)
+    {
+        if (key == null) {
+            return map.removeNullKey();
+        }
+        return map.remove(((Number) key).longValue());
+    }
+
+    public int size()
+    {
+        return map.size();
+    }
+
+    public boolean isEmpty()
+    {
+        return map.isEmpty();
+    }
+
+    public void clear()
+    {
+        map.clear();
+    }
+
+    public Collection<V> values()
+    {
+        return map.values();
+    }
+
+    public Collection<Map.Entry<Object, V>> entries()
+    {
+        List<Map.Entry<Object, V>> entries = new ArrayList<Map.Entry<Object, V>>(size());
+        for (int i = 0; i < map.getTableLength(); i++) {
+            V value = map.getValueAt(i);
+            if (value != null) {
+                Object key = map.isNullKeyAt(i) ? null : toKeyObject(map.getKeyAt(i));
+                entries.add(new AbstractMap.SimpleEntry<Object, V>(key, value));
+            }
+        }
+        return entries;
+    }
+
+    public Map<Object, V> toMap()
+    {
+        Map<Object, V> result = new LinkedHashMap<Object, V>();
+        for (Map.Entry<Object, V> entry : entries()) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    private Object toKeyObject(long key)
+    {
+        if (boxedType == Integer.class) {
+            return (int) key;
+        }
+        if (boxedType == Short.class) {
+            return (short) key;
+        }
+        if (boxedType == Byte.class) {
+            return (byte) key;
+        }
+        return key;
+    }
+}
@@ -0,0 +1,117 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.view.std;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.collection.ObjectArrayLinkedHashMap;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Criteria-keyed map for multiple criteria expressions, evaluating the criteria into a reused probe array
+ * so that no {@link MultiKeyUntyped} is allocated per event, iterating in key insertion order, see {@link ObjectArrayLinkedHashMap}.
+ */
+public class CriteriaKeyedMapMulti<V> implements CriteriaKeyedMap<V>
+{
+    private final ExprEvaluator[] evaluators;
+    private final ExprEvaluatorContext exprEvaluatorContext;
+    private final EventBean[] eventsPerStream = new EventBean[1];
+    private final ObjectArrayLinkedHashMap<V> map = new ObjectArrayLinkedHashMap<V>();
+    private final Object[] probe;
+
+    /**
+     * Ctor.
+     * @param evaluators criteria expression evaluators
+     * @param exprEvaluatorContext evaluation context
+     */
+    public CriteriaKeyedMapMulti(ExprEvaluator[] evaluators, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        this.evaluators = evaluators;
+        this.exprEvaluatorContext = exprEvaluatorContext;
+        this.probe = new Object[evaluators.length];
+    }
+
+    public V get(EventBean theEvent)
+    {
+        eventsPerStream[0] = theEvent;
+        for (int i = 0; i < evaluators.length; i++) {
+            probe[i] = evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
+        }
+        return map.get(probe);
+    }
+
+    public V put(V value)
+    {
+        return map.put(probe, value);
+    }
+
+    public V remove()
+    {
+        return map.remove(probe);
+    }
+
+    public Object getKey()
+    {
+        return new MultiKeyUntyped(probe.clone());
+    }
+
+    public V removeKey(Object key)
+    {
+        return map.remove(((MultiKeyUntyped) key).getKeys());
+    }
+
+    public int size()
+    {
+        return map.size();
+    }
+
+    public boolean isEmpty()
+    {
+        return map.isEmpty();
+    }
+
+    public void clear()
+    {
+        map.clear();
+    }
+
+    public Collection<V> values()
+    {
+        return map.values();
+    }
+
+    public Collection<Map.Entry<Object, V>> entries()
+    {
+        List<Map.Entry<Object, V>> entries = new ArrayList<Map.Entry<Object, V>>(map.size());
+        for (int i = 0; i < map.getTableLength(); i++) {
+            V value = map.getValueAt(i);
+            if (value != null) {
+                entries.add(new AbstractMap.SimpleEntry<Object, V>(new MultiKeyUntyped(map.getKeyAt(i).clone()), value));
+            }
+        }
+        return entries;
+    }
+
+    public Map<Object, V> toMap()
+    {
+        Map<Object, V> result = new LinkedHashMap<Object, V>();
+        for (Map.Entry<Object, V> entry : entries()) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+}
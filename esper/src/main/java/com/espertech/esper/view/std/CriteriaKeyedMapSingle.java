@@ -0,0 +1,97 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.view.std;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Criteria-keyed map for a single criteria expression of any type, backed by a hash map.
+ */
+public class CriteriaKeyedMapSingle<V> implements CriteriaKeyedMap<V>
+{
+    private final ExprEvaluator evaluator;
+    private final ExprEvaluatorContext exprEvaluatorContext;
+    private final EventBean[] eventsPerStream = new EventBean[1];
+    private final Map<Object, V> map = new HashMap<Object, V>();
+    private Object currentKey;
+
+    /**
+     * Ctor.
+     * @param evaluator criteria expression evaluator
+     * @param exprEvaluatorContext evaluation context
+     */
+    public CriteriaKeyedMapSingle(ExprEvaluator evaluator, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        this.evaluator = evaluator;
+        this.exprEvaluatorContext = exprEvaluatorContext;
+    }
+
+    public V get(EventBean theEvent)
+    {
+        eventsPerStream[0] = theEvent;
+        currentKey = evaluator.evaluate(eventsPerStream, true, exprEvaluatorContext);
+        return map.get(currentKey);
+    }
+
+    public V put(V value)
+    {
+        return map.put(currentKey, value);
+    }
+
+    public V remove()
+    {
+        return map.remove(currentKey);
+    }
+
+    public Object getKey()
+    {
+        return currentKey;
+    }
+
+    public V removeKey(Object key)
+    {
+        return map.remove(key);
+    }
+
+    public int size()
+    {
+        return map.size();
+    }
+
+    public boolean isEmpty()
+    {
+        return map.isEmpty();
+    }
+
+    public void clear()
+    {
+        map.clear();
+    }
+
+    public Collection<V> values()
+    {
+        return map.values();
+    }
+
+    public Collection<Map.Entry<Object, V>> entries()
+    {
+        return map.entrySet();
+    }
+
+    public Map<Object, V> toMap()
+    {
+        return map;
+    }
+}
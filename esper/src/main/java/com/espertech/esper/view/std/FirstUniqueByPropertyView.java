@@ -10,11 +10,8 @@ package com.espertech.esper.view.std;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
-import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
-import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNode;
-import com.espertech.esper.epl.expression.core.ExprNodeUtility;
 import com.espertech.esper.event.EventBeanUtility;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.view.*;
@@ -31,9 +28,7 @@ import java.util.*;
 public class FirstUniqueByPropertyView extends ViewSupport implements CloneableView, DataWindowView
 {
     private final FirstUniqueByPropertyViewFactory viewFactory;
-    protected final ExprEvaluator[] uniqueCriteriaEval;
-    private EventBean[] eventsPerStream = new EventBean[1];
-    protected final Map<Object, EventBean> firstEvents = new HashMap<Object, EventBean>();
+    protected final CriteriaKeyedMap<EventBean> firstEvents;
     protected final AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext;
 
     /**
@@ -42,8 +37,8 @@ public class FirstUniqueByPropertyView extends ViewSupport implements CloneableV
     public FirstUniqueByPropertyView(FirstUniqueByPropertyViewFactory viewFactory, AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext)
     {
         this.viewFactory = viewFactory;
-        this.uniqueCriteriaEval = ExprNodeUtility.getEvaluators(viewFactory.criteriaExpressions);
         this.agentInstanceViewFactoryContext = agentInstanceViewFactoryContext;
+        this.firstEvents = viewFactory.getCriteriaKeyedMapFactory().make(agentInstanceViewFactoryContext);
     }
 
     public View cloneView()
@@ -77,11 +72,8 @@ public class FirstUniqueByPropertyView extends ViewSupport implements CloneableV
         {
             for (EventBean oldEvent : oldData)
             {
-                // Obtain unique value
-                Object key = getUniqueKey(oldEvent);
-
                 // If the old event is the current unique event, remove and post as old data
-                EventBean lastValue = firstEvents.get(key);
+                EventBean lastValue = firstEvents.get(oldEvent);
 
                 if (lastValue != oldEvent)
                 {
@@ -97,8 +89,8 @@ public class FirstUniqueByPropertyView extends ViewSupport implements CloneableV
                     oldDataToPost = EventBeanUtility.addToArray(oldDataToPost, oldEvent);
                 }
 
-                firstEvents.remove(key);
-                internalHandleRemoved(key, lastValue);
+                firstEvents.remove();
+                internalHandleRemoved(firstEvents.getKey(), lastValue);
             }
         }
 
@@ -106,18 +98,15 @@ public class FirstUniqueByPropertyView extends ViewSupport implements CloneableV
         {
             for (EventBean newEvent : newData)
             {
-                // Obtain unique value
-                Object key = getUniqueKey(newEvent);
-
                 // already-seen key
-                if (firstEvents.containsKey(key))
+                if (firstEvents.get(newEvent) != null)
                 {
                     continue;
                 }
 
                 // store
-                firstEvents.put(key, newEvent);
-                internalHandleAdded(key, newEvent);
+                firstEvents.put(newEvent);
+                internalHandleAdded(firstEvents.getKey(), newEvent);
 
                 // Post the new value
                 if (newDataToPost == null)
@@ -159,21 +148,6 @@ public class FirstUniqueByPropertyView extends ViewSupport implements CloneableV
         return this.getClass().getName() + " uniqueCriteria=" + Arrays.toString(viewFactory.criteriaExpressions);
     }
 
-    protected Object getUniqueKey(EventBean theEvent)
-    {
-        eventsPerStream[0] = theEvent;
-        if (uniqueCriteriaEval.length == 1) {
-            return uniqueCriteriaEval[0].evaluate(eventsPerStream, true, agentInstanceViewFactoryContext);
-        }
-
-        Object[] values = new Object[uniqueCriteriaEval.length];
-        for (int i = 0; i < uniqueCriteriaEval.length; i++)
-        {
-            values[i] = uniqueCriteriaEval[i].evaluate(eventsPerStream, true, agentInstanceViewFactoryContext);
-        }
-        return new MultiKeyUntyped(values);
-    }
-
     /**
      * Returns true if empty.
      * @return true if empty
@@ -184,7 +158,7 @@ public class FirstUniqueByPropertyView extends ViewSupport implements CloneableV
     }
 
     public void visitView(ViewDataVisitor viewDataVisitor) {
-        viewDataVisitor.visitPrimary(firstEvents, true, FirstUniqueByPropertyViewFactory.NAME, firstEvents.size(), firstEvents.size());
+        viewDataVisitor.visitPrimary(firstEvents.toMap(), true, FirstUniqueByPropertyViewFactory.NAME, firstEvents.size(), firstEvents.size());
     }
 
     public ViewFactory getViewFactory() {
@@ -35,6 +35,8 @@ public class FirstUniqueByPropertyViewFactory implements AsymetricDataWindowView
      */
     protected ExprNode[] criteriaExpressions;
 
+    private CriteriaKeyedMapFactory criteriaKeyedMapFactory;
+
     private EventType eventType;
 
     public void setViewParameters(ViewFactoryContext viewFactoryContext, List<ExprNode> expressionParameters) throws ViewParameterException
@@ -53,6 +55,7 @@ public class FirstUniqueByPropertyViewFactory implements AsymetricDataWindowView
         }
 
         this.eventType = parentEventType;
+        this.criteriaKeyedMapFactory = new CriteriaKeyedMapFactory(criteriaExpressions);
     }
 
     public View makeView(AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext)
@@ -60,6 +63,18 @@ public class FirstUniqueByPropertyViewFactory implements AsymetricDataWindowView
         return new FirstUniqueByPropertyView(this, agentInstanceViewFactoryContext);
     }
 
+    /**
+     * Returns the factory for the map of unique key to event, specialized by the criteria expression types.
+     * @return map factory
+     */
+    public CriteriaKeyedMapFactory getCriteriaKeyedMapFactory()
+    {
+        if (criteriaKeyedMapFactory == null) {
+            criteriaKeyedMapFactory = new CriteriaKeyedMapFactory(criteriaExpressions);
+        }
+        return criteriaKeyedMapFactory;
+    }
+
     public EventType getEventType()
     {
         return eventType;
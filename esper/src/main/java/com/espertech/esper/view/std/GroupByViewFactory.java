@@ -40,6 +40,8 @@ public class GroupByViewFactory implements ViewFactory, GroupByViewFactoryMarker
 
     private EventType eventType;
 
+    private CriteriaKeyedMapFactory criteriaKeyedMapFactory;
+
     protected boolean isReclaimAged;
     protected double reclaimMaxAge;
     protected double reclaimFrequency;
@@ -98,6 +100,7 @@ public class GroupByViewFactory implements ViewFactory, GroupByViewFactoryMarker
         }
 
         this.eventType = parentEventType;
+        this.criteriaKeyedMapFactory = new CriteriaKeyedMapFactory(criteriaExpressions);
     }
 
     /**
@@ -114,7 +117,10 @@ public class GroupByViewFactory implements ViewFactory, GroupByViewFactoryMarker
         if (isReclaimAged) {
             return new GroupByViewReclaimAged(agentInstanceViewFactoryContext, criteriaExpressions, ExprNodeUtility.getEvaluators(criteriaExpressions), reclaimMaxAge, reclaimFrequency);
         }
-        return new GroupByViewImpl(agentInstanceViewFactoryContext, criteriaExpressions, ExprNodeUtility.getEvaluators(criteriaExpressions));
+        if (criteriaKeyedMapFactory == null) {
+            criteriaKeyedMapFactory = new CriteriaKeyedMapFactory(criteriaExpressions);
+        }
+        return new GroupByViewImpl(agentInstanceViewFactoryContext, criteriaExpressions, ExprNodeUtility.getEvaluators(criteriaExpressions), criteriaKeyedMapFactory);
     }
 
     public EventType getEventType()
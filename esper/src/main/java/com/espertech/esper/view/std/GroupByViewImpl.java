@@ -11,7 +11,6 @@ package com.espertech.esper.view.std;
 import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
-import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
@@ -46,11 +45,11 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
 
     private final ExprNode[] criteriaExpressions;
     private final ExprEvaluator[] criteriaEvaluators;
+    private final CriteriaKeyedMapFactory criteriaKeyedMapFactory;
     protected final AgentInstanceViewFactoryChainContext agentInstanceContext;
-    private EventBean[] eventsPerStream = new EventBean[1];
 
     protected String[] propertyNames;
-    protected final Map<Object, Object> subViewsPerKey = new HashMap<Object, Object>();
+    protected final CriteriaKeyedMap<Object> subViewsPerKey;
 
     private final HashMap<Object, Pair<Object, Object>> groupedEvents = new HashMap<Object, Pair<Object, Object>>();
 
@@ -60,10 +59,23 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
      * @param agentInstanceContext contains required view services
      */
     public GroupByViewImpl(AgentInstanceViewFactoryChainContext agentInstanceContext, ExprNode[] criteriaExpressions, ExprEvaluator[] criteriaEvaluators)
+    {
+        this(agentInstanceContext, criteriaExpressions, criteriaEvaluators, new CriteriaKeyedMapFactory(criteriaExpressions));
+    }
+
+    /**
+     * Constructor.
+     * @param criteriaExpressions is the fields from which to pull the values to group by
+     * @param agentInstanceContext contains required view services
+     * @param criteriaKeyedMapFactory factory for the map of group key to subviews, specialized by the criteria expression types
+     */
+    public GroupByViewImpl(AgentInstanceViewFactoryChainContext agentInstanceContext, ExprNode[] criteriaExpressions, ExprEvaluator[] criteriaEvaluators, CriteriaKeyedMapFactory criteriaKeyedMapFactory)
     {
         this.agentInstanceContext = agentInstanceContext;
         this.criteriaExpressions = criteriaExpressions;
         this.criteriaEvaluators = criteriaEvaluators;
+        this.criteriaKeyedMapFactory = criteriaKeyedMapFactory;
+        this.subViewsPerKey = criteriaKeyedMapFactory.make(agentInstanceContext);
 
         propertyNames = new String[criteriaExpressions.length];
         for (int i = 0; i < criteriaExpressions.length; i++)
@@ -74,7 +86,7 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
 
     public View cloneView()
     {
-        return new GroupByViewImpl(agentInstanceContext, criteriaExpressions, criteriaEvaluators);
+        return new GroupByViewImpl(agentInstanceContext, criteriaExpressions, criteriaEvaluators, criteriaKeyedMapFactory);
     }
 
     /**
@@ -102,16 +114,14 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
             EventBean theEvent = newData[0];
             EventBean[] newDataToPost = new EventBean[] {theEvent};
 
-            Object groupByValuesKey = getGroupKey(theEvent);
-
             // Get child views that belong to this group-by value combination
-            Object subViews = this.subViewsPerKey.get(groupByValuesKey);
+            Object subViews = this.subViewsPerKey.get(theEvent);
 
             // If this is a new group-by value, the list of subviews is null and we need to make clone sub-views
             if (subViews == null)
             {
-                subViews = makeSubViews(this, propertyNames, groupByValuesKey, agentInstanceContext);
-                subViewsPerKey.put(groupByValuesKey, subViews);
+                subViews = makeSubViews(this, propertyNames, subViewsPerKey.getKey(), agentInstanceContext);
+                subViewsPerKey.put(subViews);
             }
 
             updateChildViews(subViews, newDataToPost, null);
@@ -199,7 +209,7 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
 
     public void visitViewContainer(ViewDataVisitorContained viewDataVisitor) {
         viewDataVisitor.visitPrimary(VIEWNAME, subViewsPerKey.size());
-        for (Map.Entry<Object, Object> entry : subViewsPerKey.entrySet()) {
+        for (Map.Entry<Object, Object> entry : subViewsPerKey.entries()) {
             GroupByViewImpl.visitView(viewDataVisitor, entry.getKey(), entry.getValue());
         }
     }
@@ -236,7 +246,7 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
         }
         GroupableView removedView = (GroupableView) view;
         Deque<Object> removedKeys = null;
-        for (Map.Entry<Object, Object> entry : subViewsPerKey.entrySet()) {
+        for (Map.Entry<Object, Object> entry : subViewsPerKey.entries()) {
             Object value = entry.getValue();
             if (value instanceof View) {
                 GroupableView subview = (GroupableView) value;
@@ -266,7 +276,7 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
         }
         if (removedKeys != null) {
             for (Object key : removedKeys) {
-                subViewsPerKey.remove(key);
+                subViewsPerKey.removeKey(key);
             }
         }
         return true;
@@ -288,15 +298,13 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
 
     private void handleEvent(EventBean theEvent, boolean isNew)
     {
-        Object groupByValuesKey = getGroupKey(theEvent);
-
         // Get child views that belong to this group-by value combination
-        Object subViews = this.subViewsPerKey.get(groupByValuesKey);
+        Object subViews = this.subViewsPerKey.get(theEvent);
 
         // If this is a new group-by value, the list of subviews is null and we need to make clone sub-views
         if (subViews == null) {
-            subViews = makeSubViews(this, propertyNames, groupByValuesKey, agentInstanceContext);
-            subViewsPerKey.put(groupByValuesKey, subViews);
+            subViews = makeSubViews(this, propertyNames, subViewsPerKey.getKey(), agentInstanceContext);
+            subViewsPerKey.put(subViews);
         }
 
         // Construct a pair of lists to hold the events for the grouped value if not already there
@@ -389,21 +397,6 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
         }
     }
 
-    private Object getGroupKey(EventBean theEvent)
-    {
-        eventsPerStream[0] = theEvent;
-        if (criteriaEvaluators.length == 1) {
-            return criteriaEvaluators[0].evaluate(eventsPerStream, true, agentInstanceContext);
-        }
-
-        Object[] values = new Object[criteriaEvaluators.length];
-        for (int i = 0; i < criteriaEvaluators.length; i++)
-        {
-            values[i] = criteriaEvaluators[i].evaluate(eventsPerStream, true, agentInstanceContext);
-        }
-        return new MultiKeyUntyped(values);
-    }
-
     protected static Object addUpgradeToDequeIfPopulated(Object holder, EventBean theEvent) {
         if (holder == null) {
             return theEvent;
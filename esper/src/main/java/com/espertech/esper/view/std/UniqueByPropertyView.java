@@ -10,12 +10,9 @@ package com.espertech.esper.view.std;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
-import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.collection.OneEventCollection;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
-import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNode;
-import com.espertech.esper.epl.expression.core.ExprNodeUtility;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.view.*;
 
@@ -40,9 +37,7 @@ import java.util.*;
 public class UniqueByPropertyView extends ViewSupport implements CloneableView, DataWindowView
 {
     private final UniqueByPropertyViewFactory viewFactory;
-    protected final ExprEvaluator[] criteriaExpressionsEvals;
-    protected final Map<Object, EventBean> mostRecentEvents = new HashMap<Object, EventBean>();
-    private final EventBean[] eventsPerStream = new EventBean[1];
+    protected final CriteriaKeyedMap<EventBean> mostRecentEvents;
     protected final AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext;
 
     /**
@@ -52,8 +47,8 @@ public class UniqueByPropertyView extends ViewSupport implements CloneableView,
     public UniqueByPropertyView(UniqueByPropertyViewFactory viewFactory, AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext)
     {
         this.viewFactory = viewFactory;
-        this.criteriaExpressionsEvals = ExprNodeUtility.getEvaluators(viewFactory.criteriaExpressions);
         this.agentInstanceViewFactoryContext = agentInstanceViewFactoryContext;
+        this.mostRecentEvents = viewFactory.getCriteriaKeyedMapFactory().make(agentInstanceViewFactoryContext);
     }
 
     public View cloneView()
@@ -90,25 +85,15 @@ public class UniqueByPropertyView extends ViewSupport implements CloneableView,
         {
             for (int i = 0; i < newData.length; i++)
             {
-                // Obtain unique value
-                Object key = getUniqueKey(newData[i]);
-
-                // If there are no child views, just update the own collection
-                if (!this.hasViews())
-                {
-                    mostRecentEvents.put(key, newData[i]);
-                    continue;
-                }
+                // Obtain the last value for the unique key of the event, and override with recent event
+                EventBean lastValue = mostRecentEvents.get(newData[i]);
+                mostRecentEvents.put(newData[i]);
 
                 // Post the last value as old data
-                EventBean lastValue = mostRecentEvents.get(key);
-                if (lastValue != null)
+                if (lastValue != null && postOldData != null)
                 {
                     postOldData.add(lastValue);
                 }
-
-                // Override with recent event
-                mostRecentEvents.put(key, newData[i]);
             }
         }
 
@@ -116,18 +101,15 @@ public class UniqueByPropertyView extends ViewSupport implements CloneableView,
         {
             for (int i = 0; i < oldData.length; i++)
             {
-                // Obtain unique value
-                Object key = getUniqueKey(oldData[i]);
-
                 // If the old event is the current unique event, remove and post as old data
-                EventBean lastValue = mostRecentEvents.get(key);
+                EventBean lastValue = mostRecentEvents.get(oldData[i]);
                 if (lastValue == null || !lastValue.equals(oldData[i]))
                 {
                     continue;
                 }
 
                 postOldData.add(lastValue);
-                mostRecentEvents.remove(key);
+                mostRecentEvents.remove();
             }
         }
 
@@ -171,23 +153,8 @@ public class UniqueByPropertyView extends ViewSupport implements CloneableView,
         return this.getClass().getName() + " uniqueFieldNames=" + Arrays.toString(viewFactory.criteriaExpressions);
     }
 
-    protected Object getUniqueKey(EventBean theEvent)
-    {
-        eventsPerStream[0] = theEvent;
-        if (criteriaExpressionsEvals.length == 1) {
-            return criteriaExpressionsEvals[0].evaluate(eventsPerStream, true, agentInstanceViewFactoryContext);
-        }
-
-        Object[] values = new Object[criteriaExpressionsEvals.length];
-        for (int i = 0; i < criteriaExpressionsEvals.length; i++)
-        {
-            values[i] = criteriaExpressionsEvals[i].evaluate(eventsPerStream, true, agentInstanceViewFactoryContext);
-        }
-        return new MultiKeyUntyped(values);
-    }
-
     public void visitView(ViewDataVisitor viewDataVisitor) {
-        viewDataVisitor.visitPrimary(mostRecentEvents, true, UniqueByPropertyViewFactory.NAME, mostRecentEvents.size(), mostRecentEvents.size());
+        viewDataVisitor.visitPrimary(mostRecentEvents.toMap(), true, UniqueByPropertyViewFactory.NAME, mostRecentEvents.size(), mostRecentEvents.size());
     }
 
     public ViewFactory getViewFactory() {
@@ -34,6 +34,8 @@ public class UniqueByPropertyViewFactory implements DataWindowViewFactoryUniqueC
      * Property name to evaluate unique values.
      */
     protected ExprNode[] criteriaExpressions;
+
+    private CriteriaKeyedMapFactory criteriaKeyedMapFactory;
     private EventType eventType;
 
     public void setViewParameters(ViewFactoryContext viewFactoryContext, List<ExprNode> expressionParameters) throws ViewParameterException
@@ -52,6 +54,7 @@ public class UniqueByPropertyViewFactory implements DataWindowViewFactoryUniqueC
         }
 
         this.eventType = parentEventType;
+        this.criteriaKeyedMapFactory = new CriteriaKeyedMapFactory(criteriaExpressions);
     }
 
     public View makeView(AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext)
@@ -59,6 +62,18 @@ public class UniqueByPropertyViewFactory implements DataWindowViewFactoryUniqueC
         return new UniqueByPropertyView(this, agentInstanceViewFactoryContext);
     }
 
+    /**
+     * Returns the factory for the map of unique key to event, specialized by the criteria expression types.
+     * @return map factory
+     */
+    public CriteriaKeyedMapFactory getCriteriaKeyedMapFactory()
+    {
+        if (criteriaKeyedMapFactory == null) {
+            criteriaKeyedMapFactory = new CriteriaKeyedMapFactory(criteriaExpressions);
+        }
+        return criteriaKeyedMapFactory;
+    }
+
     public EventType getEventType()
     {
         return eventType;
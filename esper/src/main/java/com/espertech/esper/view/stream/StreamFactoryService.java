@@ -17,6 +17,7 @@ import com.espertech.esper.filter.FilterSpecCompiled;
 import com.espertech.esper.view.EventStream;
 
 import java.lang.annotation.Annotation;
+import java.util.List;
 
 /**
  * Service on top of the filter service for reuseing filter callbacks and their associated EventStream instances.
@@ -62,8 +63,35 @@ public interface StreamFactoryService
      * @param isJoin is indicatng whether the stream will participate in a join statement, information
      * necessary for stream reuse and multithreading concerns
      * @param hasOrderBy if the consumer has an order-by clause
+     * @param agentInstanceContext the context of the agent instance dropping the stream
      */
-    public void dropStream(FilterSpecCompiled filterSpec, FilterService filterService, boolean isJoin, boolean hasOrderBy, boolean filterWithSameTypeSubselect, boolean stateless);
+    public void dropStream(FilterSpecCompiled filterSpec, FilterService filterService, boolean isJoin, boolean hasOrderBy, boolean filterWithSameTypeSubselect, boolean stateless, AgentInstanceContext agentInstanceContext);
+
+    /**
+     * Returns the lock shared by all statements of the given context partition, registering the lock
+     * passed in when the context partition does not yet have a shared lock.
+     * Statements of the same context partition may only share event streams and views when they also share the lock.
+     * @param contextName context name
+     * @param agentInstanceId context partition id
+     * @param lock lock to register if none is registered
+     * @return shared lock
+     */
+    public StatementAgentInstanceLock referenceContextPartitionLock(String contextName, int agentInstanceId, StatementAgentInstanceLock lock);
+
+    /**
+     * Releases a reference to the lock shared by all statements of the given context partition.
+     * Has no effect if the lock passed is not the registered shared lock.
+     * @param contextName context name
+     * @param agentInstanceId context partition id
+     * @param lock lock of the agent instance
+     */
+    public void dereferenceContextPartitionLock(String contextName, int agentInstanceId, StatementAgentInstanceLock lock);
+
+    /**
+     * Returns the event streams currently shared between statements along with their reference counts.
+     * @return shared streams
+     */
+    public List<StreamFactoryShareDesc> getSharedStreams();
 
     /**
      * Destroy the service.
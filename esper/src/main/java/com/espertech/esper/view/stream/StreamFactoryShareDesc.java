@@ -0,0 +1,90 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.view.stream;
+
+import com.espertech.esper.filter.FilterSpecCompiled;
+
+/**
+ * Describes an event stream that is shared between statements, for administrative visibility into
+ * stream and view resource sharing.
+ */
+public class StreamFactoryShareDesc
+{
+    private final FilterSpecCompiled filterSpec;
+    private final String contextName;
+    private final int agentInstanceId;
+    private final int statementId;
+    private final int numReferences;
+
+    /**
+     * Ctor.
+     * @param filterSpec the event filter of the stream
+     * @param contextName the context name when the stream is shared within a context partition, or null
+     * @param agentInstanceId the context partition id when the stream is shared within a context partition, or -1
+     * @param statementId the statement id of the statement providing the filter callback
+     * @param numReferences number of statements currently sharing the stream
+     */
+    public StreamFactoryShareDesc(FilterSpecCompiled filterSpec, String contextName, int agentInstanceId, int statementId, int numReferences) {
+        this.filterSpec = filterSpec;
+        this.contextName = contextName;
+        this.agentInstanceId = agentInstanceId;
+        this.statementId = statementId;
+        this.numReferences = numReferences;
+    }
+
+    /**
+     * Returns the event filter of the stream.
+     * @return filter
+     */
+    public FilterSpecCompiled getFilterSpec() {
+        return filterSpec;
+    }
+
+    /**
+     * Returns the context name when the stream is shared within a context partition, or null when shared between statements without context.
+     * @return context name
+     */
+    public String getContextName() {
+        return contextName;
+    }
+
+    /**
+     * Returns the context partition id, or -1 when shared between statements without context.
+     * @return context partition id
+     */
+    public int getAgentInstanceId() {
+        return agentInstanceId;
+    }
+
+    /**
+     * Returns the statement id of the statement providing the filter callback.
+     * @return statement id
+     */
+    public int getStatementId() {
+        return statementId;
+    }
+
+    /**
+     * Returns the number of statements currently sharing the stream.
+     * @return reference count
+     */
+    public int getNumReferences() {
+        return numReferences;
+    }
+
+    public String toString() {
+        return "StreamFactoryShareDesc{" +
+                "filterSpec=" + filterSpec +
+                ", contextName=" + contextName +
+                ", agentInstanceId=" + agentInstanceId +
+                ", statementId=" + statementId +
+                ", numReferences=" + numReferences +
+                '}';
+    }
+}
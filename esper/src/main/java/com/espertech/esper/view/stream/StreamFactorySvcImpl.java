@@ -26,8 +26,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.IdentityHashMap;
+import java.util.List;
 
 
 /**
@@ -51,6 +53,11 @@ import java.util.IdentityHashMap;
  * (B) the first statement supplies the lock for shared filters and views, protecting multiple threads
  * from entering into the same view.
  * (C) joins statements do not participate in filter and view reuse
+ * <p>
+ * For statements that declare a context, event streams are reused only between statements of the same context partition,
+ * and only when the statements share the context partition lock as handed out by this service.
+ * Since context partitions get allocated and destroyed while the engine processes events, the
+ * context partition streams and locks are guarded by their own monitors.
  */
 public class StreamFactorySvcImpl implements StreamFactoryService
 {
@@ -63,6 +70,12 @@ public class StreamFactorySvcImpl implements StreamFactoryService
     // Using a reference-counted map for non-join statements
     private final RefCountedMap<FilterSpecCompiled, StreamEntry> eventStreamsRefCounted;
 
+    // Using a reference-counted map for statements within the same context partition
+    private final RefCountedMap<ContextStreamKey, ContextStreamEntry> eventStreamsContextPartition;
+
+    // Locks shared by statements of the same context partition, keyed by context name and context partition id
+    private final RefCountedMap<Pair<String, Integer>, StatementAgentInstanceLock> contextPartitionLocks;
+
     private final String engineURI;
     private final boolean isReuseViews;
 
@@ -75,6 +88,8 @@ public class StreamFactorySvcImpl implements StreamFactoryService
         this.engineURI = engineURI;
         this.eventStreamsRefCounted = new RefCountedMap<FilterSpecCompiled, StreamEntry>();
         this.eventStreamsIdentity = new IdentityHashMap<Object, StreamEntry>();
+        this.eventStreamsContextPartition = new RefCountedMap<ContextStreamKey, ContextStreamEntry>();
+        this.contextPartitionLocks = new RefCountedMap<Pair<String, Integer>, StatementAgentInstanceLock>();
         this.isReuseViews = isReuseViews;
     }
 
@@ -82,6 +97,12 @@ public class StreamFactorySvcImpl implements StreamFactoryService
     {
         eventStreamsRefCounted.clear();
         eventStreamsIdentity.clear();
+        synchronized (eventStreamsContextPartition) {
+            eventStreamsContextPartition.clear();
+        }
+        synchronized (contextPartitionLocks) {
+            contextPartitionLocks.clear();
+        }
     }
 
     /**
@@ -114,6 +135,10 @@ public class StreamFactorySvcImpl implements StreamFactoryService
         // Check if a stream for this filter already exists
         StreamEntry entry;
         boolean forceNewStream = isJoin || (!isReuseViews) || hasOrderBy || filterWithSameTypeSubselect || stateless;
+        if (!forceNewStream && isContextPartition(agentInstanceContext))
+        {
+            return createStreamContextPartition(filterSpec, filterService, agentInstanceContext, annotations, streamNum, isCanIterateUnbound);
+        }
         if (forceNewStream)
         {
             entry = eventStreamsIdentity.get(filterSpec);
@@ -227,10 +252,15 @@ public class StreamFactorySvcImpl implements StreamFactoryService
      * See the method of the same name in {@link com.espertech.esper.view.stream.StreamFactoryService}.
      * @param filterSpec is the filter definition
      */
-    public void dropStream(FilterSpecCompiled filterSpec, FilterService filterService, boolean isJoin, boolean hasOrderBy, boolean filterWithSameTypeSubselect, boolean stateless)
+    public void dropStream(FilterSpecCompiled filterSpec, FilterService filterService, boolean isJoin, boolean hasOrderBy, boolean filterWithSameTypeSubselect, boolean stateless, AgentInstanceContext agentInstanceContext)
     {
         StreamEntry entry;
         boolean forceNewStream = isJoin || (!isReuseViews) || hasOrderBy || filterWithSameTypeSubselect || stateless;
+        if (!forceNewStream && isContextPartition(agentInstanceContext))
+        {
+            dropStreamContextPartition(filterSpec, filterService, agentInstanceContext);
+            return;
+        }
 
         if (forceNewStream)
         {
@@ -253,6 +283,118 @@ public class StreamFactorySvcImpl implements StreamFactoryService
         }
     }
 
+    public StatementAgentInstanceLock referenceContextPartitionLock(String contextName, int agentInstanceId, StatementAgentInstanceLock lock)
+    {
+        Pair<String, Integer> key = new Pair<String, Integer>(contextName, agentInstanceId);
+        synchronized (contextPartitionLocks) {
+            StatementAgentInstanceLock existing = contextPartitionLocks.get(key);
+            if (existing == null) {
+                contextPartitionLocks.put(key, lock);
+                return lock;
+            }
+            contextPartitionLocks.reference(key);
+            return existing;
+        }
+    }
+
+    public void dereferenceContextPartitionLock(String contextName, int agentInstanceId, StatementAgentInstanceLock lock)
+    {
+        Pair<String, Integer> key = new Pair<String, Integer>(contextName, agentInstanceId);
+        synchronized (contextPartitionLocks) {
+            StatementAgentInstanceLock existing = contextPartitionLocks.get(key);
+            if (existing != lock) {
+                return;
+            }
+            contextPartitionLocks.dereference(key);
+        }
+    }
+
+    public List<StreamFactoryShareDesc> getSharedStreams()
+    {
+        List<StreamFactoryShareDesc> shared = new ArrayList<StreamFactoryShareDesc>();
+        for (FilterSpecCompiled filterSpec : eventStreamsRefCounted.keySet()) {
+            StreamEntry entry = eventStreamsRefCounted.get(filterSpec);
+            shared.add(new StreamFactoryShareDesc(filterSpec, null, -1, entry.getCallback().getStatementId(), eventStreamsRefCounted.getReferenceCount(filterSpec)));
+        }
+        synchronized (eventStreamsContextPartition) {
+            for (ContextStreamKey key : eventStreamsContextPartition.keySet()) {
+                ContextStreamEntry entry = eventStreamsContextPartition.get(key);
+                shared.add(new StreamFactoryShareDesc(key.getFilterSpec(), key.getContextName(), key.getAgentInstanceId(), entry.getStatementId(), eventStreamsContextPartition.getReferenceCount(key)));
+            }
+        }
+        return shared;
+    }
+
+    private static boolean isContextPartition(AgentInstanceContext agentInstanceContext) {
+        return agentInstanceContext != null && agentInstanceContext.getStatementContext().getContextDescriptor() != null;
+    }
+
+    private Pair<EventStream, StatementAgentInstanceLock> createStreamContextPartition(FilterSpecCompiled filterSpec,
+                                                                                      FilterService filterService,
+                                                                                      AgentInstanceContext agentInstanceContext,
+                                                                                      Annotation[] annotations,
+                                                                                      int streamNum,
+                                                                                      boolean isCanIterateUnbound)
+    {
+        ContextStreamKey key = new ContextStreamKey(filterSpec, agentInstanceContext);
+        String statementName = agentInstanceContext.getEpStatementAgentInstanceHandle().getStatementHandle().getStatementName();
+
+        synchronized (eventStreamsContextPartition) {
+            ContextStreamEntry entry = eventStreamsContextPartition.get(key);
+
+            // Reuse: the lock is already shared by the context partition, therefore no lock is returned
+            if (entry != null) {
+                log.debug(".createStream filter already found for context partition");
+                eventStreamsContextPartition.reference(key);
+                entry.getConsumers().add(agentInstanceContext);
+                EventStream eventStream = EventStreamProxy.getAuditProxy(engineURI, statementName, annotations, filterSpec, entry.getEventStream());
+                return new Pair<EventStream, StatementAgentInstanceLock>(eventStream, null);
+            }
+
+            // New event stream
+            EventType resultEventType = filterSpec.getResultEventType();
+            EventStream zeroDepthStream = isCanIterateUnbound ? new ZeroDepthStreamIterable(resultEventType) : new ZeroDepthStreamNoIterate(resultEventType);
+            EventStream inputStream = EventStreamProxy.getAuditProxy(engineURI, statementName, annotations, filterSpec, zeroDepthStream);
+
+            FilterValueSetParam[][] addendum = null;
+            if (agentInstanceContext.getAgentInstanceFilterProxy() != null) {
+                addendum = agentInstanceContext.getAgentInstanceFilterProxy().getAddendumFilters(filterSpec);
+            }
+            FilterValueSet filterValues = filterSpec.getValueSet(null, agentInstanceContext, addendum);
+
+            entry = new ContextStreamEntry(filterSpec, inputStream, filterValues, streamNum);
+            entry.getConsumers().add(agentInstanceContext);
+            entry.activate(filterService);
+            eventStreamsContextPartition.put(key, entry);
+
+            return new Pair<EventStream, StatementAgentInstanceLock>(inputStream, null);
+        }
+    }
+
+    private void dropStreamContextPartition(FilterSpecCompiled filterSpec, FilterService filterService, AgentInstanceContext agentInstanceContext)
+    {
+        ContextStreamKey key = new ContextStreamKey(filterSpec, agentInstanceContext);
+        synchronized (eventStreamsContextPartition) {
+            ContextStreamEntry entry = eventStreamsContextPartition.get(key);
+            if (entry == null) {
+                throw new IllegalStateException("Filter spec object not in collection");
+            }
+            boolean isLast = eventStreamsContextPartition.dereference(key);
+            if (isLast) {
+                entry.deactivate(filterService);
+                return;
+            }
+
+            // the filter callback belongs to the first consumer, hand it over when that consumer drops out
+            boolean isOwner = entry.getConsumers().get(0) == agentInstanceContext;
+            entry.getConsumers().remove(agentInstanceContext);
+            if (isOwner) {
+                entry.deactivate(filterService);
+                entry.activate(filterService);
+            }
+        }
+    }
+
     private final static class StreamEntry {
         private final EventStream eventStream;
         private final EPStatementHandleCallback callback;
@@ -279,4 +421,108 @@ public class StreamFactorySvcImpl implements StreamFactoryService
             return filterServiceEntry;
         }
     }
+
+    private final static class ContextStreamKey {
+        private final FilterSpecCompiled filterSpec;
+        private final String contextName;
+        private final int agentInstanceId;
+        private final StatementAgentInstanceLock lock;
+
+        public ContextStreamKey(FilterSpecCompiled filterSpec, AgentInstanceContext agentInstanceContext) {
+            this.filterSpec = filterSpec;
+            this.contextName = agentInstanceContext.getStatementContext().getContextName();
+            this.agentInstanceId = agentInstanceContext.getAgentInstanceId();
+            this.lock = agentInstanceContext.getEpStatementAgentInstanceHandle().getStatementAgentInstanceLock();
+        }
+
+        public FilterSpecCompiled getFilterSpec() {
+            return filterSpec;
+        }
+
+        public String getContextName() {
+            return contextName;
+        }
+
+        public int getAgentInstanceId() {
+            return agentInstanceId;
+        }
+
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ContextStreamKey)) {
+                return false;
+            }
+            ContextStreamKey other = (ContextStreamKey) o;
+            return agentInstanceId == other.agentInstanceId &&
+                   lock == other.lock &&
+                   contextName.equals(other.contextName) &&
+                   filterSpec.equals(other.filterSpec);
+        }
+
+        public int hashCode() {
+            return 31 * (31 * filterSpec.hashCode() + contextName.hashCode()) + agentInstanceId;
+        }
+    }
+
+    private final static class ContextStreamEntry implements FilterHandleCallback {
+        private final FilterSpecCompiled filterSpec;
+        private final EventStream eventStream;
+        private final FilterValueSet filterValueSet;
+        private final int streamNum;
+        private final List<AgentInstanceContext> consumers = new ArrayList<AgentInstanceContext>(2);
+        private EPStatementHandleCallback callback;
+        private FilterServiceEntry filterServiceEntry;
+
+        public ContextStreamEntry(FilterSpecCompiled filterSpec, EventStream eventStream, FilterValueSet filterValueSet, int streamNum) {
+            this.filterSpec = filterSpec;
+            this.eventStream = eventStream;
+            this.filterValueSet = filterValueSet;
+            this.streamNum = streamNum;
+        }
+
+        public EventStream getEventStream() {
+            return eventStream;
+        }
+
+        public List<AgentInstanceContext> getConsumers() {
+            return consumers;
+        }
+
+        public void activate(FilterService filterService) {
+            callback = new EPStatementHandleCallback(consumers.get(0).getEpStatementAgentInstanceHandle(), this);
+            filterServiceEntry = filterService.add(filterValueSet, callback);
+        }
+
+        public void deactivate(FilterService filterService) {
+            filterService.remove(callback, filterServiceEntry);
+        }
+
+        public int getStatementId() {
+            return callback.getStatementId();
+        }
+
+        public void matchFound(EventBean theEvent, Collection<FilterHandleCallback> allStmtMatches) {
+            if (filterSpec.getOptionalPropertyEvaluator() != null) {
+                EventBean[] result = filterSpec.getOptionalPropertyEvaluator().getProperty(theEvent, consumers.get(0));
+                if (result == null) {
+                    return;
+                }
+                eventStream.insert(result);
+                return;
+            }
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().qFilterActivationStream(theEvent.getEventType().getName(), streamNum);
+            }
+            eventStream.insert(theEvent);
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().aFilterActivationStream();
+            }
+        }
+
+        public boolean isSubSelect() {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,179 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.view.window;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.view.*;
+
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Length window that keeps window contents in an off-heap columnar buffer, see {@link OffHeapWindowStore}.
+ * <p>
+ * The view does not care about old data published by the parent view to this view, and therefore is only
+ * used when remove stream handling is not required. Random access for the "previous" function
+ * is provided by the view itself.
+ */
+public class LengthWindowOffHeapView extends ViewSupport implements DataWindowView, CloneableView, RandomAccessByIndex
+{
+    protected final AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext;
+    private final LengthWindowViewFactory lengthWindowViewFactory;
+    private final int size;
+    private final OffHeapWindowStore store;
+    private final RandomAccessByIndexObserver randomAccessObserver;
+
+    /**
+     * Constructor creates a moving window extending the specified number of elements into the past.
+     * @param agentInstanceViewFactoryContext context
+     * @param lengthWindowViewFactory for copying this view in a group-by
+     * @param size is the specified number of elements into the past
+     */
+    public LengthWindowOffHeapView(AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext, LengthWindowViewFactory lengthWindowViewFactory, int size)
+    {
+        if (size < 1)
+        {
+            throw new IllegalArgumentException("Illegal argument for size of length window");
+        }
+
+        this.agentInstanceViewFactoryContext = agentInstanceViewFactoryContext;
+        this.lengthWindowViewFactory = lengthWindowViewFactory;
+        this.size = size;
+        this.store = new OffHeapWindowStore(lengthWindowViewFactory.getEventType(), false);
+        this.randomAccessObserver = (RandomAccessByIndexObserver) agentInstanceViewFactoryContext.getPreviousNodeGetter();
+        if (randomAccessObserver != null)
+        {
+            randomAccessObserver.updated(this);
+        }
+    }
+
+    public View cloneView()
+    {
+        return lengthWindowViewFactory.makeView(agentInstanceViewFactoryContext);
+    }
+
+    /**
+     * Returns true if the window is empty, or false if not empty.
+     * @return true if empty
+     */
+    public boolean isEmpty()
+    {
+        return store.isEmpty();
+    }
+
+    /**
+     * Returns the size of the length window.
+     * @return size of length window
+     */
+    public final int getSize()
+    {
+        return size;
+    }
+
+    public final EventType getEventType()
+    {
+        // The event type is the parent view's event type
+        return parent.getEventType();
+    }
+
+    public final void update(EventBean[] newData, EventBean[] oldData)
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qViewProcessIRStream(this, lengthWindowViewFactory.getViewName(), newData, oldData);}
+
+        // add data points to the window, posting the events that refer to the stored rows
+        // we don't care about removed data from a prior view
+        EventBean[] posted = null;
+        if (newData != null)
+        {
+            posted = new EventBean[newData.length];
+            for (int i = 0; i < newData.length; i++)
+            {
+                posted[i] = store.add(0, newData[i]);
+            }
+        }
+
+        // Check for any events that get pushed out of the window
+        int expiredCount = store.size() - size;
+        EventBean[] expiredArr = null;
+        if (expiredCount > 0)
+        {
+            expiredArr = new EventBean[expiredCount];
+            for (int i = 0; i < expiredCount; i++)
+            {
+                expiredArr[i] = store.removeFirst();
+            }
+        }
+
+        // update random access for use by expressions, if any
+        if (randomAccessObserver != null)
+        {
+            randomAccessObserver.updated(this);
+        }
+
+        // If there are child views, call update method
+        if (this.hasViews())
+        {
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qViewIndicate(this, lengthWindowViewFactory.getViewName(), posted, expiredArr);}
+            updateChildren(posted, expiredArr);
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aViewIndicate();}
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aViewProcessIRStream();}
+    }
+
+    public final Iterator<EventBean> iterator()
+    {
+        return store.iterator();
+    }
+
+    public final String toString()
+    {
+        return this.getClass().getName() + " size=" + size;
+    }
+
+    public EventBean getNewData(int index)
+    {
+        return store.getFromNewest(index);
+    }
+
+    public EventBean getOldData(int index)
+    {
+        return null;
+    }
+
+    public EventBean getNewDataTail(int index)
+    {
+        return store.getFromOldest(index);
+    }
+
+    public Iterator<EventBean> getWindowIterator()
+    {
+        return store.getCollectionReadOnly(true).iterator();
+    }
+
+    public Collection<EventBean> getWindowCollectionReadOnly()
+    {
+        return store.getCollectionReadOnly(true);
+    }
+
+    public int getWindowCount()
+    {
+        return store.size();
+    }
+
+    public void visitView(ViewDataVisitor viewDataVisitor) {
+        viewDataVisitor.visitPrimary(store.getCollectionReadOnly(false), true, lengthWindowViewFactory.getViewName(), null);
+    }
+
+    public ViewFactory getViewFactory() {
+        return lengthWindowViewFactory;
+    }
+}
@@ -9,6 +9,7 @@
 package com.espertech.esper.view.window;
 
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.collection.ViewUpdatedCollection;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.core.service.StatementContext;
@@ -30,8 +31,14 @@ public class LengthWindowViewFactory implements DataWindowViewFactory, DataWindo
 
     private EventType eventType;
 
+    /**
+     * Indicator whether window contents are kept off-heap.
+     */
+    protected boolean offHeap;
+
     public void setViewParameters(ViewFactoryContext viewFactoryContext, List<ExprNode> expressionParameters) throws ViewParameterException
     {
+        offHeap = HintEnum.WINDOW_OFFHEAP.getHint(viewFactoryContext.getStatementContext().getAnnotations()) != null;
         List<Object> viewParameters = ViewFactorySupport.validateAndEvaluate(getViewName(), viewFactoryContext.getStatementContext(), expressionParameters);
         if (viewParameters.size() != 1)
         {
@@ -60,6 +67,10 @@ public class LengthWindowViewFactory implements DataWindowViewFactory, DataWindo
     public void attach(EventType parentEventType, StatementContext statementContext, ViewFactory optionalParentFactory, List<ViewFactory> parentViewFactories) throws ViewParameterException
     {
         this.eventType = parentEventType;
+        if (offHeap && !OffHeapWindowStore.isSupported(parentEventType))
+        {
+            offHeap = false;
+        }
     }
 
     public Object makePreviousGetter() {
@@ -68,6 +79,10 @@ public class LengthWindowViewFactory implements DataWindowViewFactory, DataWindo
 
     public View makeView(AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext)
     {
+        if (offHeap && !agentInstanceViewFactoryContext.isRemoveStream())
+        {
+            return new LengthWindowOffHeapView(agentInstanceViewFactoryContext, this, size);
+        }
         ViewUpdatedCollection randomAccess = agentInstanceViewFactoryContext.getStatementContext().getViewServicePreviousFactory().getOptPreviousExprRandomAccess(agentInstanceViewFactoryContext);
         if (agentInstanceViewFactoryContext.isRemoveStream())
         {
@@ -86,7 +101,12 @@ public class LengthWindowViewFactory implements DataWindowViewFactory, DataWindo
 
     public boolean canReuse(View view)
     {
-        if (!(view instanceof LengthWindowView))
+        if (view instanceof LengthWindowOffHeapView)
+        {
+            LengthWindowOffHeapView offHeapView = (LengthWindowOffHeapView) view;
+            return offHeap && offHeapView.getSize() == size && offHeapView.isEmpty();
+        }
+        if (offHeap || !(view instanceof LengthWindowView))
         {
             return false;
         }
@@ -99,6 +119,14 @@ public class LengthWindowViewFactory implements DataWindowViewFactory, DataWindo
         return myView.isEmpty();
     }
 
+    /**
+     * Returns true if window contents are kept off-heap when remove stream handling is not required.
+     * @return indicator
+     */
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
     public String getViewName() {
         return "Length";
     }
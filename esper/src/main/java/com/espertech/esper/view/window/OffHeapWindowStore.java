@@ -0,0 +1,322 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.view.window;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.collection.OffHeapColumnarBuffer;
+import com.espertech.esper.event.MappedEventBean;
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.event.arr.ObjectArrayOffHeapEventBean;
+import com.espertech.esper.event.map.MapEventType;
+import com.espertech.esper.event.map.MapOffHeapEventBean;
+
+import java.util.AbstractCollection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Storage of the events of a time or length window in an off-heap columnar buffer, for object-array and map event types.
+ * <p>
+ * Events posted by the window for events entering the window are wrappers that share the underlying of the arriving event.
+ * When events leave the window or when window contents are accessed the store materializes events from the buffer.
+ * A materialized event is equal to the event posted when the event entered the window.
+ * Events of another event type, such as a subtype, and events that have undeclared properties
+ * or values that cannot be serialized are kept on the heap.
+ */
+public class OffHeapWindowStore
+{
+    private final EventType eventType;
+    private final OffHeapColumnarBuffer buffer;
+    private final String[] mapPropertyNames;
+
+    /**
+     * Ctor.
+     * @param eventType event type, see {@link #isSupported(EventType)}
+     * @param timestamped true to keep a timestamp per event
+     */
+    public OffHeapWindowStore(EventType eventType, boolean timestamped)
+    {
+        this.eventType = eventType;
+        Class[] columnTypes;
+        if (eventType instanceof ObjectArrayEventType)
+        {
+            Map<String, Integer> indexes = ((ObjectArrayEventType) eventType).getPropertiesIndexes();
+            columnTypes = new Class[indexes.size()];
+            for (Map.Entry<String, Integer> entry : indexes.entrySet())
+            {
+                columnTypes[entry.getValue()] = eventType.getPropertyType(entry.getKey());
+            }
+            mapPropertyNames = null;
+        }
+        else
+        {
+            mapPropertyNames = eventType.getPropertyNames();
+            columnTypes = new Class[mapPropertyNames.length];
+            for (int i = 0; i < mapPropertyNames.length; i++)
+            {
+                columnTypes[i] = eventType.getPropertyType(mapPropertyNames[i]);
+            }
+        }
+        for (int i = 0; i < columnTypes.length; i++)
+        {
+            if (columnTypes[i] == null)
+            {
+                columnTypes[i] = Object.class;
+            }
+        }
+        this.buffer = new OffHeapColumnarBuffer(columnTypes, timestamped, OffHeapColumnarBuffer.DEFAULT_ROWS_PER_SEGMENT);
+    }
+
+    /**
+     * Returns true if events of the type can be stored off-heap.
+     * @param eventType event type
+     * @return indicator
+     */
+    public static boolean isSupported(EventType eventType)
+    {
+        return eventType instanceof ObjectArrayEventType || eventType instanceof MapEventType;
+    }
+
+    /**
+     * Adds an event as the newest event.
+     * @param timestamp time of arrival, ignored if not timestamped
+     * @param theEvent arriving event
+     * @return event to post for the arriving event
+     */
+    public EventBean add(long timestamp, EventBean theEvent)
+    {
+        long rowId = buffer.getNextRowId();
+        if (!(theEvent instanceof ObjectArrayBackedEventBean) && !(theEvent instanceof MappedEventBean))
+        {
+            buffer.addOnHeap(timestamp, theEvent);
+            return theEvent;
+        }
+        if (theEvent instanceof ObjectArrayBackedEventBean)
+        {
+            Object[] values = ((ObjectArrayBackedEventBean) theEvent).getProperties();
+            EventBean posted = new ObjectArrayOffHeapEventBean(values, theEvent.getEventType(), buffer, rowId);
+            if (theEvent.getEventType() != eventType || mapPropertyNames != null)
+            {
+                buffer.addOnHeap(timestamp, posted);
+            }
+            else
+            {
+                buffer.add(timestamp, values, posted);
+            }
+            return posted;
+        }
+
+        Map<String, Object> map = ((MappedEventBean) theEvent).getProperties();
+        EventBean posted = new MapOffHeapEventBean(map, theEvent.getEventType(), buffer, rowId);
+        Object[] values = theEvent.getEventType() == eventType && mapPropertyNames != null ? toValues(map) : null;
+        if (values == null)
+        {
+            buffer.addOnHeap(timestamp, posted);
+        }
+        else
+        {
+            buffer.add(timestamp, values, posted);
+        }
+        return posted;
+    }
+
+    /**
+     * Materializes the event for a row.
+     * @param rowId row id
+     * @return event
+     */
+    public EventBean get(long rowId)
+    {
+        Object[] values = buffer.read(rowId);
+        if (values == null)
+        {
+            return (EventBean) buffer.getOnHeap(rowId);
+        }
+        if (mapPropertyNames == null)
+        {
+            return new ObjectArrayOffHeapEventBean(values, eventType, buffer, rowId);
+        }
+        Map<String, Object> map = new HashMap<String, Object>();
+        for (int i = 0; i < mapPropertyNames.length; i++)
+        {
+            map.put(mapPropertyNames[i], values[i]);
+        }
+        return new MapOffHeapEventBean(map, eventType, buffer, rowId);
+    }
+
+    /**
+     * Removes and returns the oldest event.
+     * @return event
+     */
+    public EventBean removeFirst()
+    {
+        EventBean theEvent = get(buffer.getFirstRowId());
+        buffer.removeFirst();
+        return theEvent;
+    }
+
+    /**
+     * Returns the event at the given position counting from the newest event, with 0 for the newest event.
+     * @param index position
+     * @return event or null if the position is outside of the window
+     */
+    public EventBean getFromNewest(int index)
+    {
+        if (index < 0 || index >= buffer.size())
+        {
+            return null;
+        }
+        return get(buffer.getNextRowId() - 1 - index);
+    }
+
+    /**
+     * Returns the event at the given position counting from the oldest event, with 0 for the oldest event.
+     * @param index position
+     * @return event or null if the position is outside of the window
+     */
+    public EventBean getFromOldest(int index)
+    {
+        if (index < 0 || index >= buffer.size())
+        {
+            return null;
+        }
+        return get(buffer.getFirstRowId() + index);
+    }
+
+    /**
+     * Returns the timestamp of the oldest event.
+     * @return timestamp
+     */
+    public long getOldestTimestamp()
+    {
+        return buffer.getTimestamp(buffer.getFirstRowId());
+    }
+
+    /**
+     * Adds the delta to the timestamp of each event.
+     * @param delta to add
+     */
+    public void adjust(long delta)
+    {
+        buffer.adjustTimestamps(delta);
+    }
+
+    public int size()
+    {
+        return buffer.size();
+    }
+
+    public boolean isEmpty()
+    {
+        return buffer.isEmpty();
+    }
+
+    /**
+     * Returns the buffer.
+     * @return buffer
+     */
+    public OffHeapColumnarBuffer getBuffer()
+    {
+        return buffer;
+    }
+
+    /**
+     * Returns an iterator materializing events from the oldest to the newest event.
+     * @return iterator
+     */
+    public Iterator<EventBean> iterator()
+    {
+        return new RowIterator(buffer.getFirstRowId(), buffer.getNextRowId(), true);
+    }
+
+    /**
+     * Returns a read-only collection that materializes events on iteration.
+     * @param newestFirst true to iterate from the newest to the oldest event, false for the reverse
+     * @return collection
+     */
+    public AbstractCollection<EventBean> getCollectionReadOnly(final boolean newestFirst)
+    {
+        final long first = buffer.getFirstRowId();
+        final long next = buffer.getNextRowId();
+        return new AbstractCollection<EventBean>()
+        {
+            public Iterator<EventBean> iterator()
+            {
+                return new RowIterator(first, next, !newestFirst);
+            }
+
+            public int size()
+            {
+                return (int) (next - first);
+            }
+        };
+    }
+
+    private Object[] toValues(Map<String, Object> map)
+    {
+        Object[] values = new Object[mapPropertyNames.length];
+        int present = 0;
+        for (int i = 0; i < mapPropertyNames.length; i++)
+        {
+            Object value = map.get(mapPropertyNames[i]);
+            if (value != null || map.containsKey(mapPropertyNames[i]))
+            {
+                present++;
+            }
+            values[i] = value;
+        }
+        // undeclared entries would not survive materialization
+        if (present != map.size())
+        {
+            return null;
+        }
+        return values;
+    }
+
+    private class RowIterator implements Iterator<EventBean>
+    {
+        private final long first;
+        private final long next;
+        private final boolean ascending;
+        private long position;
+
+        private RowIterator(long first, long next, boolean ascending)
+        {
+            this.first = first;
+            this.next = next;
+            this.ascending = ascending;
+            this.position = ascending ? first : next - 1;
+        }
+
+        public boolean hasNext()
+        {
+            return ascending ? position < next : position >= first;
+        }
+
+        public EventBean next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            EventBean theEvent = get(position);
+            position += ascending ? 1 : -1;
+            return theEvent;
+        }
+
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
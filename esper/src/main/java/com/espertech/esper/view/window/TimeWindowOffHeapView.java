@@ -0,0 +1,280 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.view.window;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
+import com.espertech.esper.core.service.EPStatementHandleCallback;
+import com.espertech.esper.core.service.EngineLevelExtensionServicesContext;
+import com.espertech.esper.epl.expression.time.ExprTimePeriodEvalDeltaConst;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.schedule.ScheduleAdjustmentCallback;
+import com.espertech.esper.schedule.ScheduleHandleCallback;
+import com.espertech.esper.schedule.ScheduleTimeSpan;
+import com.espertech.esper.util.StopCallback;
+import com.espertech.esper.view.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Time window that keeps window contents in an off-heap columnar buffer, see {@link OffHeapWindowStore}.
+ * <p>
+ * The view does not care about old data published by the parent view to this view, and therefore is only
+ * used when remove stream handling is not required. Random access for the "previous" function
+ * is provided by the view itself.
+ */
+public class TimeWindowOffHeapView extends ViewSupport implements CloneableView, DataWindowView, ScheduleAdjustmentCallback, StoppableView, StopCallback, RandomAccessByIndex
+{
+    private final TimeWindowViewFactory timeWindowViewFactory;
+    private final ExprTimePeriodEvalDeltaConst timeDeltaComputation;
+    private final OffHeapWindowStore store;
+    private final RandomAccessByIndexObserver randomAccessObserver;
+    protected final AgentInstanceViewFactoryChainContext agentInstanceContext;
+    private final long scheduleSlot;
+    private final EPStatementHandleCallback handle;
+
+    /**
+     * Constructor.
+     * @param agentInstanceContext context
+     * @param timeWindowViewFactory for copying the view in a group-by
+     * @param timeDeltaComputation is the computation for the number of milliseconds before events gets pushed
+     * out of the window as oldData in the update method.
+     */
+    public TimeWindowOffHeapView(AgentInstanceViewFactoryChainContext agentInstanceContext, TimeWindowViewFactory timeWindowViewFactory, ExprTimePeriodEvalDeltaConst timeDeltaComputation)
+    {
+        this.agentInstanceContext = agentInstanceContext;
+        this.timeWindowViewFactory = timeWindowViewFactory;
+        this.timeDeltaComputation = timeDeltaComputation;
+        this.store = new OffHeapWindowStore(timeWindowViewFactory.getEventType(), true);
+        this.randomAccessObserver = (RandomAccessByIndexObserver) agentInstanceContext.getPreviousNodeGetter();
+        if (randomAccessObserver != null)
+        {
+            randomAccessObserver.updated(this);
+        }
+        this.scheduleSlot = agentInstanceContext.getStatementContext().getScheduleBucket().allocateSlot();
+
+        ScheduleHandleCallback callback = new ScheduleHandleCallback() {
+            public void scheduledTrigger(EngineLevelExtensionServicesContext extensionServicesContext)
+            {
+                if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qViewScheduledEval(TimeWindowOffHeapView.this, TimeWindowOffHeapView.this.timeWindowViewFactory.getViewName());}
+                TimeWindowOffHeapView.this.expire();
+                if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aViewScheduledEval();}
+            }
+        };
+        this.handle = new EPStatementHandleCallback(agentInstanceContext.getEpStatementAgentInstanceHandle(), callback);
+
+        if (agentInstanceContext.getStatementContext().getScheduleAdjustmentService() != null) {
+            agentInstanceContext.getStatementContext().getScheduleAdjustmentService().addCallback(this);
+        }
+        agentInstanceContext.addTerminationCallback(this);
+    }
+
+    public void adjust(long delta)
+    {
+        store.adjust(delta);
+    }
+
+    public View cloneView()
+    {
+        return timeWindowViewFactory.makeView(agentInstanceContext);
+    }
+
+    public final EventType getEventType()
+    {
+        return parent.getEventType();
+    }
+
+    public final void update(EventBean[] newData, EventBean[] oldData)
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qViewProcessIRStream(this, timeWindowViewFactory.getViewName(), newData, oldData);}
+        long timestamp = agentInstanceContext.getStatementContext().getSchedulingService().getTime();
+
+        // we don't care about removed data from a prior view
+        EventBean[] posted = newData;
+        if ((newData != null) && (newData.length > 0))
+        {
+            // If we have an empty window about to be filled for the first time, schedule a callback
+            // for now plus millisecondsBeforeExpiry
+            if (store.isEmpty())
+            {
+                scheduleCallback(timeDeltaComputation.deltaMillisecondsAdd(timestamp));
+            }
+
+            // add data points to the window, posting the events that refer to the stored rows
+            posted = new EventBean[newData.length];
+            for (int i = 0; i < newData.length; i++)
+            {
+                posted[i] = store.add(timestamp, newData[i]);
+            }
+
+            if (randomAccessObserver != null)
+            {
+                randomAccessObserver.updated(this);
+            }
+        }
+
+        // update child views
+        if (this.hasViews())
+        {
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qViewIndicate(this, timeWindowViewFactory.getViewName(), posted, oldData);}
+            updateChildren(posted, oldData);
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aViewIndicate();}
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aViewProcessIRStream();}
+    }
+
+    /**
+     * This method removes (expires) objects from the window and schedules a new callback for the
+     * time when the next oldest message would expire from the window.
+     */
+    protected final void expire()
+    {
+        long current = agentInstanceContext.getStatementContext().getSchedulingService().getTime();
+
+        // For bulk expiry, when the engine is advancing time by a time span, expire at the end of the span only
+        if (timeWindowViewFactory.isBulkExpiry())
+        {
+            Long spanTargetTime = ScheduleTimeSpan.getTargetTime(agentInstanceContext.getStatementContext().getSchedulingService());
+            if ((spanTargetTime != null) && (spanTargetTime > current))
+            {
+                scheduleCallback(spanTargetTime - current);
+                return;
+            }
+        }
+
+        long expireBeforeTimestamp = current - timeDeltaComputation.deltaMillisecondsSubtract(current) + 1;
+
+        // Remove any events that have an older timestamp then the given timestamp
+        ArrayList<EventBean> expired = null;
+        while (!store.isEmpty() && store.getOldestTimestamp() < expireBeforeTimestamp)
+        {
+            if (expired == null)
+            {
+                expired = new ArrayList<EventBean>();
+            }
+            expired.add(store.removeFirst());
+        }
+
+        if (expired != null)
+        {
+            if (randomAccessObserver != null)
+            {
+                randomAccessObserver.updated(this);
+            }
+            if (this.hasViews())
+            {
+                EventBean[] oldEvents = expired.toArray(new EventBean[expired.size()]);
+                if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qViewIndicate(this, timeWindowViewFactory.getViewName(), null, oldEvents);}
+                updateChildren(null, oldEvents);
+                if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aViewIndicate();}
+            }
+        }
+
+        scheduleExpiryCallback();
+    }
+
+    private void scheduleExpiryCallback() {
+        // If we still have events in the window, schedule new callback
+        if (store.isEmpty())
+        {
+            return;
+        }
+        long oldestTimestamp = store.getOldestTimestamp();
+        long currentTimestamp = agentInstanceContext.getStatementContext().getSchedulingService().getTime();
+        long scheduleMillisec = timeDeltaComputation.deltaMillisecondsAdd(oldestTimestamp) + oldestTimestamp - currentTimestamp;
+        scheduleCallback(scheduleMillisec);
+    }
+
+    public ExprTimePeriodEvalDeltaConst getTimeDeltaComputation() {
+        return timeDeltaComputation;
+    }
+
+    private void scheduleCallback(long msecAfterCurrentTime)
+    {
+        agentInstanceContext.getStatementContext().getSchedulingService().add(msecAfterCurrentTime, handle, scheduleSlot);
+    }
+
+    public final Iterator<EventBean> iterator()
+    {
+        return store.iterator();
+    }
+
+    public final String toString()
+    {
+        return this.getClass().getName();
+    }
+
+    /**
+     * Returns true if the window is empty, or false if not empty.
+     * @return true if empty
+     */
+    public boolean isEmpty()
+    {
+        return store.isEmpty();
+    }
+
+    public EventBean getNewData(int index)
+    {
+        return store.getFromNewest(index);
+    }
+
+    public EventBean getOldData(int index)
+    {
+        return null;
+    }
+
+    public EventBean getNewDataTail(int index)
+    {
+        return store.getFromOldest(index);
+    }
+
+    public Iterator<EventBean> getWindowIterator()
+    {
+        return store.getCollectionReadOnly(true).iterator();
+    }
+
+    public Collection<EventBean> getWindowCollectionReadOnly()
+    {
+        return store.getCollectionReadOnly(true);
+    }
+
+    public int getWindowCount()
+    {
+        return store.size();
+    }
+
+    public void stopView() {
+        stopSchedule();
+        agentInstanceContext.removeTerminationCallback(this);
+    }
+
+    public void stop() {
+        stopSchedule();
+    }
+
+    public void stopSchedule() {
+        if (handle != null) {
+            agentInstanceContext.getStatementContext().getSchedulingService().remove(handle, scheduleSlot);
+        }
+        if (agentInstanceContext.getStatementContext().getScheduleAdjustmentService() != null) {
+            agentInstanceContext.getStatementContext().getScheduleAdjustmentService().removeCallback(this);
+        }
+    }
+
+    public void visitView(ViewDataVisitor viewDataVisitor) {
+        viewDataVisitor.visitPrimary(store.getCollectionReadOnly(false), true, timeWindowViewFactory.getViewName(), null);
+    }
+
+    public ViewFactory getViewFactory() {
+        return timeWindowViewFactory;
+    }
+}
@@ -19,6 +19,7 @@ import com.espertech.esper.epl.expression.time.ExprTimePeriodEvalDeltaConst;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.schedule.ScheduleAdjustmentCallback;
 import com.espertech.esper.schedule.ScheduleHandleCallback;
+import com.espertech.esper.schedule.ScheduleTimeSpan;
 import com.espertech.esper.util.StopCallback;
 import com.espertech.esper.view.*;
 
@@ -155,6 +156,18 @@ public class TimeWindowView extends ViewSupport implements CloneableView, DataWi
     protected final void expire()
     {
         long current = agentInstanceContext.getStatementContext().getSchedulingService().getTime();
+
+        // For bulk expiry, when the engine is advancing time by a time span, expire at the end of the span only
+        if (timeWindowViewFactory.isBulkExpiry())
+        {
+            Long spanTargetTime = ScheduleTimeSpan.getTargetTime(agentInstanceContext.getStatementContext().getSchedulingService());
+            if ((spanTargetTime != null) && (spanTargetTime > current))
+            {
+                scheduleCallback(spanTargetTime - current);
+                return;
+            }
+        }
+
         long expireBeforeTimestamp = current - timeDeltaComputation.deltaMillisecondsSubtract(current) + 1;
 
         // Remove from the timeWindow any events that have an older or timestamp then the given timestamp
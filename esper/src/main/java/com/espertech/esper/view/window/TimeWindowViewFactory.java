@@ -9,6 +9,7 @@
 package com.espertech.esper.view.window;
 
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.collection.ViewUpdatedCollection;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.core.service.StatementContext;
@@ -27,8 +28,19 @@ public class TimeWindowViewFactory implements DataWindowViewFactory, DataWindowV
 
     private EventType eventType;
 
+    /**
+     * Indicator whether window contents are kept off-heap.
+     */
+    protected boolean offHeap;
+
+    /**
+     * Indicator whether expiry coalesces to the end of a time span.
+     */
+    protected boolean bulkExpiry;
+
     public void setViewParameters(ViewFactoryContext viewFactoryContext, List<ExprNode> expressionParameters) throws ViewParameterException
     {
+        offHeap = HintEnum.WINDOW_OFFHEAP.getHint(viewFactoryContext.getStatementContext().getAnnotations()) != null;
         if (expressionParameters.size() != 1) {
             throw new ViewParameterException(getViewParamMessage());
         }
@@ -38,6 +50,11 @@ public class TimeWindowViewFactory implements DataWindowViewFactory, DataWindowV
     public void attach(EventType parentEventType, StatementContext statementContext, ViewFactory optionalParentFactory, List<ViewFactory> parentViewFactories) throws ViewParameterException
     {
         this.eventType = parentEventType;
+        bulkExpiry = statementContext.getConfigSnapshot().getEngineDefaults().getViewResources().isTimeWindowBulkExpiry();
+        if (offHeap && !OffHeapWindowStore.isSupported(parentEventType))
+        {
+            offHeap = false;
+        }
     }
 
     public Object makePreviousGetter() {
@@ -46,6 +63,10 @@ public class TimeWindowViewFactory implements DataWindowViewFactory, DataWindowV
 
     public View makeView(AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext)
     {
+        if (offHeap && !agentInstanceViewFactoryContext.isRemoveStream())
+        {
+            return new TimeWindowOffHeapView(agentInstanceViewFactoryContext, this, timeDeltaComputation);
+        }
         ViewUpdatedCollection randomAccess = agentInstanceViewFactoryContext.getStatementContext().getViewServicePreviousFactory().getOptPreviousExprRandomAccess(agentInstanceViewFactoryContext);
         return new TimeWindowView(agentInstanceViewFactoryContext, this, timeDeltaComputation, randomAccess);
     }
@@ -57,7 +78,12 @@ public class TimeWindowViewFactory implements DataWindowViewFactory, DataWindowV
 
     public boolean canReuse(View view)
     {
-        if (!(view instanceof TimeWindowView))
+        if (view instanceof TimeWindowOffHeapView)
+        {
+            TimeWindowOffHeapView offHeapView = (TimeWindowOffHeapView) view;
+            return offHeap && timeDeltaComputation.equalsTimePeriod(offHeapView.getTimeDeltaComputation()) && offHeapView.isEmpty();
+        }
+        if (offHeap || !(view instanceof TimeWindowView))
         {
             return false;
         }
@@ -72,6 +98,22 @@ public class TimeWindowViewFactory implements DataWindowViewFactory, DataWindowV
         return myView.isEmpty();
     }
 
+    /**
+     * Returns true if window contents are kept off-heap when remove stream handling is not required.
+     * @return indicator
+     */
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * Returns true if the window expires in bulk at the end of a time span, instead of at each intermediate time.
+     * @return indicator
+     */
+    public boolean isBulkExpiry() {
+        return bulkExpiry;
+    }
+
     public String getViewName() {
         return "Time";
     }
@@ -65,7 +65,11 @@ public class TestConfigurationParser extends TestCase
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolOutboundCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolRouteExecCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolTimerExecCapacity());
+        assertFalse(config.getEngineDefaults().getThreading().isThreadPoolInboundPartitioned());
+        assertEquals(ConfigurationEngineDefaults.Threading.QueueStrategy.BLOCKING, config.getEngineDefaults().getThreading().getThreadPoolQueueStrategy());
+        assertEquals(ConfigurationEngineDefaults.Threading.WaitStrategy.PARK, config.getEngineDefaults().getThreading().getThreadPoolQueueWaitStrategy());
         assertFalse(config.getEngineDefaults().getThreading().isEngineFairlock());
+        assertEquals(0, config.getEngineDefaults().getThreading().getSendBatchDispatchMaxLatency());
         assertFalse(config.getEngineDefaults().getMetricsReporting().isJmxEngineMetrics());
         assertTrue(config.getEngineDefaults().getThreading().isNamedWindowConsumerDispatchPreserveOrder());
         assertEquals(Long.MAX_VALUE, config.getEngineDefaults().getThreading().getNamedWindowConsumerDispatchTimeout());
@@ -75,8 +79,11 @@ public class TestConfigurationParser extends TestCase
         assertEquals(ConfigurationEventTypeLegacy.AccessorStyle.JAVABEAN, config.getEngineDefaults().getEventMeta().getDefaultAccessorStyle());
         assertEquals(Configuration.EventRepresentation.MAP, config.getEngineDefaults().getEventMeta().getDefaultEventRepresentation());
         assertEquals(5, config.getEngineDefaults().getEventMeta().getAnonymousCacheSize());
+        assertEquals(ConfigurationEngineDefaults.PropertyGetterCodegen.FASTCLASS, config.getEngineDefaults().getEventMeta().getPropertyGetterCodegen());
 
         assertTrue(config.getEngineDefaults().getViewResources().isShareViews());
+        assertFalse(config.getEngineDefaults().getViewResources().isShareContextPartitionViews());
+        assertFalse(config.getEngineDefaults().getViewResources().isTimeWindowBulkExpiry());
         assertFalse(config.getEngineDefaults().getViewResources().isAllowMultipleExpiryPolicies());
         assertFalse(config.getEngineDefaults().getViewResources().isIterableUnbound());
         assertFalse(config.getEngineDefaults().getLogging().isEnableExecutionDebug());
@@ -95,7 +102,11 @@ public class TestConfigurationParser extends TestCase
         assertFalse(config.getEngineDefaults().getExecution().isAllowIsolatedService());
         assertEquals(ConfigurationEngineDefaults.ThreadingProfile.NORMAL, config.getEngineDefaults().getExecution().getThreadingProfile());
         assertEquals(ConfigurationEngineDefaults.FilterServiceProfile.READMOSTLY, config.getEngineDefaults().getExecution().getFilterServiceProfile());
+        assertEquals(ConfigurationEngineDefaults.SchedulingServiceProfile.SORTED, config.getEngineDefaults().getExecution().getSchedulingServiceProfile());
         assertEquals(16, config.getEngineDefaults().getExecution().getFilterServiceMaxFilterWidth());
+        assertEquals(16, config.getEngineDefaults().getExecution().getFilterServiceRangeTreeThreshold());
+        assertFalse(config.getEngineDefaults().getExecution().isFilterExprCompile());
+        assertFalse(config.getEngineDefaults().getExecution().isFireAndForgetParallel());
         assertEquals(1, config.getEngineDefaults().getExecution().getDeclaredExprValueCacheSize());
 
         assertEquals(StreamSelector.ISTREAM_ONLY, config.getEngineDefaults().getStreamSelection().getDefaultStreamSelector());
@@ -397,16 +408,23 @@ public class TestConfigurationParser extends TestCase
         assertEquals(1500, (int) config.getEngineDefaults().getThreading().getThreadPoolOutboundCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolTimerExecCapacity());
         assertEquals(2000, (int) config.getEngineDefaults().getThreading().getThreadPoolRouteExecCapacity());
+        assertTrue(config.getEngineDefaults().getThreading().isThreadPoolInboundPartitioned());
+        assertEquals(ConfigurationEngineDefaults.Threading.QueueStrategy.RING_BUFFER, config.getEngineDefaults().getThreading().getThreadPoolQueueStrategy());
+        assertEquals(ConfigurationEngineDefaults.Threading.WaitStrategy.YIELD, config.getEngineDefaults().getThreading().getThreadPoolQueueWaitStrategy());
+        assertEquals(50, config.getEngineDefaults().getThreading().getSendBatchDispatchMaxLatency());
 
         assertFalse(config.getEngineDefaults().getThreading().isInternalTimerEnabled());
         assertEquals(1234567, config.getEngineDefaults().getThreading().getInternalTimerMsecResolution());
         assertFalse(config.getEngineDefaults().getViewResources().isShareViews());
+        assertTrue(config.getEngineDefaults().getViewResources().isShareContextPartitionViews());
+        assertTrue(config.getEngineDefaults().getViewResources().isTimeWindowBulkExpiry());
         assertTrue(config.getEngineDefaults().getViewResources().isAllowMultipleExpiryPolicies());
         assertTrue(config.getEngineDefaults().getViewResources().isIterableUnbound());
         assertEquals(Configuration.PropertyResolutionStyle.DISTINCT_CASE_INSENSITIVE, config.getEngineDefaults().getEventMeta().getClassPropertyResolutionStyle());
         assertEquals(ConfigurationEventTypeLegacy.AccessorStyle.PUBLIC, config.getEngineDefaults().getEventMeta().getDefaultAccessorStyle());
         assertEquals(Configuration.EventRepresentation.MAP, config.getEngineDefaults().getEventMeta().getDefaultEventRepresentation());
         assertEquals(100, config.getEngineDefaults().getEventMeta().getAnonymousCacheSize());
+        assertEquals(ConfigurationEngineDefaults.PropertyGetterCodegen.LAMBDA, config.getEngineDefaults().getEventMeta().getPropertyGetterCodegen());
         assertTrue(config.getEngineDefaults().getLogging().isEnableExecutionDebug());
         assertFalse(config.getEngineDefaults().getLogging().isEnableTimerDebug());
         assertTrue(config.getEngineDefaults().getLogging().isEnableQueryPlan());
@@ -426,7 +444,11 @@ public class TestConfigurationParser extends TestCase
         assertTrue(config.getEngineDefaults().getExecution().isAllowIsolatedService());
         assertEquals(ConfigurationEngineDefaults.ThreadingProfile.LARGE, config.getEngineDefaults().getExecution().getThreadingProfile());
         assertEquals(ConfigurationEngineDefaults.FilterServiceProfile.READWRITE, config.getEngineDefaults().getExecution().getFilterServiceProfile());
+        assertEquals(ConfigurationEngineDefaults.SchedulingServiceProfile.TIMINGWHEEL, config.getEngineDefaults().getExecution().getSchedulingServiceProfile());
         assertEquals(100, config.getEngineDefaults().getExecution().getFilterServiceMaxFilterWidth());
+        assertEquals(32, config.getEngineDefaults().getExecution().getFilterServiceRangeTreeThreshold());
+        assertTrue(config.getEngineDefaults().getExecution().isFilterExprCompile());
+        assertTrue(config.getEngineDefaults().getExecution().isFireAndForgetParallel());
         assertEquals(101, config.getEngineDefaults().getExecution().getDeclaredExprValueCacheSize());
 
         ConfigurationMetricsReporting metrics = config.getEngineDefaults().getMetricsReporting();
@@ -0,0 +1,124 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestDenseIdKeyMap extends TestCase
+{
+    private DenseIdKeyMap map;
+
+    public void setUp()
+    {
+        map = new DenseIdKeyMap();
+    }
+
+    public void testAddGetRemove()
+    {
+        assertEquals(-1, map.get("a"));
+        assertEquals(0, map.add("a"));
+        assertEquals(1, map.add("b"));
+        assertEquals(2, map.add(null));
+        assertEquals(0, map.get("a"));
+        assertEquals(1, map.get("b"));
+        assertEquals(2, map.get(null));
+        assertEquals(3, map.size());
+        assertEquals(3, map.getIdCapacity());
+        assertNull(map.getKey(2));
+        assertTrue(map.isAssigned(2));
+        assertEquals(new HashSet<Object>(Arrays.asList("a", "b", null)), new HashSet<Object>(map.getKeys()));
+
+        assertEquals(1, map.remove("b"));
+        assertEquals(-1, map.remove("b"));
+        assertEquals(-1, map.get("b"));
+        assertFalse(map.isAssigned(1));
+        assertEquals(2, map.size());
+
+        // released id is reused
+        assertEquals(1, map.add("c"));
+        assertEquals(3, map.getIdCapacity());
+        assertEquals("c", map.getKey(1));
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(-1, map.get("a"));
+        assertEquals(0, map.add("x"));
+    }
+
+    public void testCollidingKeys()
+    {
+        // keys with the same hash code exercise probing and backward-shift deletion
+        for (int i = 0; i < 20; i++) {
+            map.add(new SameHashKey(i));
+        }
+        for (int i = 0; i < 20; i += 2) {
+            assertTrue(map.remove(new SameHashKey(i)) >= 0);
+        }
+        for (int i = 0; i < 20; i++) {
+            if (i % 2 == 0) {
+                assertEquals(-1, map.get(new SameHashKey(i)));
+            }
+            else {
+                assertEquals(new SameHashKey(i), map.getKey(map.get(new SameHashKey(i))));
+            }
+        }
+    }
+
+    public void testRandomized()
+    {
+        Random random = new Random(1);
+        Map<Object, Integer> reference = new HashMap<Object, Integer>();
+        for (int i = 0; i < 50000; i++) {
+            Integer key = random.nextInt(2000);
+            if (random.nextBoolean()) {
+                if (!reference.containsKey(key)) {
+                    int id = map.add(key);
+                    assertFalse(reference.containsValue(id));
+                    reference.put(key, id);
+                }
+            }
+            else {
+                Integer id = reference.remove(key);
+                assertEquals(id == null ? -1 : id.intValue(), map.remove(key));
+            }
+            assertEquals(reference.size(), map.size());
+        }
+        for (Map.Entry<Object, Integer> entry : reference.entrySet()) {
+            assertEquals(entry.getValue().intValue(), map.get(entry.getKey()));
+            assertEquals(entry.getKey(), map.getKey(entry.getValue()));
+        }
+        assertTrue(map.getIdCapacity() <= 2000);
+        assertEquals(reference.keySet(), new HashSet<Object>(map.getKeys()));
+    }
+
+    private static class SameHashKey
+    {
+        private final int value;
+
+        private SameHashKey(int value)
+        {
+            this.value = value;
+        }
+
+        public boolean equals(Object o)
+        {
+            return o instanceof SameHashKey && ((SameHashKey) o).value == value;
+        }
+
+        public int hashCode()
+        {
+            return 7;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class TestLongHashMap extends TestCase
+{
+    public void testPutGetRemove()
+    {
+        LongHashMap<String> map = new LongHashMap<String>();
+        assertTrue(map.isEmpty());
+        assertNull(map.put(1, "a"));
+        assertNull(map.put(-1, "b"));
+        assertNull(map.put(Long.MIN_VALUE, "c"));
+        assertEquals("a", map.put(1, "d"));
+        assertEquals(3, map.size());
+        assertEquals("d", map.get(1));
+        assertEquals("b", map.get(-1));
+        assertEquals("c", map.get(Long.MIN_VALUE));
+        assertNull(map.get(0));
+
+        assertEquals("b", map.remove(-1));
+        assertNull(map.remove(-1));
+        assertEquals(2, map.size());
+
+        int count = 0;
+        for (int i = 0; i < map.getTableLength(); i++) {
+            if (map.getValueAt(i) != null) {
+                assertEquals(map.getValueAt(i), map.get(map.getKeyAt(i)));
+                count++;
+            }
+        }
+        assertEquals(2, count);
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(1));
+
+        try {
+            map.put(1, null);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    public void testRandomSameAsHashMap()
+    {
+        Random random = new Random(1);
+        LongHashMap<Long> map = new LongHashMap<Long>();
+        Map<Long, Long> expected = new HashMap<Long, Long>();
+        for (int i = 0; i < 100000; i++) {
+            long key = random.nextInt(500) * 1024L;    // keys that share low bits
+            int action = random.nextInt(3);
+            if (action == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+            else {
+                assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+            }
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(expected.size(), map.size());
+        }
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class TestLongLinkedHashMap extends TestCase
+{
+    public void testPutGetRemove()
+    {
+        LongLinkedHashMap<String> map = new LongLinkedHashMap<String>();
+        assertTrue(map.isEmpty());
+        assertNull(map.put(5, "a"));
+        assertNull(map.put(-1, "b"));
+        assertNull(map.put(Long.MIN_VALUE, "c"));
+        assertEquals("a", map.put(5, "d"));
+        assertEquals(3, map.size());
+        assertEquals("d", map.get(5));
+        assertEquals("b", map.get(-1));
+        assertEquals("c", map.get(Long.MIN_VALUE));
+        assertNull(map.get(0));
+        assertValues(map, "d", "b", "c");
+
+        assertEquals("b", map.remove(-1));
+        assertNull(map.remove(-1));
+        assertEquals(2, map.size());
+        assertValues(map, "d", "c");
+
+        assertNull(map.put(-1, "e"));
+        assertValues(map, "d", "c", "e");
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(5));
+        assertValues(map);
+
+        try {
+            map.put(1, null);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    public void testNullKey()
+    {
+        LongLinkedHashMap<String> map = new LongLinkedHashMap<String>();
+        assertNull(map.getNullKey());
+        assertNull(map.put(1, "a"));
+        assertNull(map.putNullKey("b"));
+        assertNull(map.put(2, "c"));
+        assertEquals("b", map.putNullKey("d"));
+        assertEquals(3, map.size());
+        assertEquals("d", map.getNullKey());
+        assertNull(map.get(0));
+        assertValues(map, "a", "d", "c");
+        assertFalse(map.isNullKeyAt(0));
+        assertTrue(map.isNullKeyAt(1));
+
+        // compaction retains the position of the null key
+        assertEquals("a", map.remove(1));
+        for (int i = 3; i < 10; i++) {
+            map.put(i, "e" + i);
+        }
+        assertValues(map, "d", "c", "e3", "e4", "e5", "e6", "e7", "e8", "e9");
+        assertEquals("d", map.getNullKey());
+
+        assertEquals("d", map.removeNullKey());
+        assertNull(map.removeNullKey());
+        assertNull(map.getNullKey());
+        assertEquals(8, map.size());
+        assertNull(map.putNullKey("f"));
+        assertEquals("f", map.getNullKey());
+        assertValues(map, "c", "e3", "e4", "e5", "e6", "e7", "e8", "e9", "f");
+
+        map.clear();
+        assertNull(map.getNullKey());
+        assertValues(map);
+    }
+
+    public void testRandomSameAsLinkedHashMap()
+    {
+        Random random = new Random(1);
+        LongLinkedHashMap<Long> map = new LongLinkedHashMap<Long>();
+        Map<Long, Long> expected = new LinkedHashMap<Long, Long>();
+        for (int i = 0; i < 100000; i++) {
+            long key = random.nextInt(500) * 1024L;    // keys that share low bits
+            int action = random.nextInt(3);
+            if (action == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+            else {
+                assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+            }
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(expected.size(), map.size());
+        }
+
+        List<Long> keys = new ArrayList<Long>();
+        for (int i = 0; i < map.getTableLength(); i++) {
+            if (map.getValueAt(i) != null) {
+                keys.add(map.getKeyAt(i));
+            }
+        }
+        assertEquals(new ArrayList<Long>(expected.keySet()), keys);
+        assertEquals(new ArrayList<Long>(expected.values()), new ArrayList<Long>(map.values()));
+    }
+
+    private static void assertValues(LongLinkedHashMap<String> map, String... expected)
+    {
+        Iterator<String> it = map.values().iterator();
+        for (String value : expected) {
+            assertTrue(it.hasNext());
+            assertEquals(value, it.next());
+        }
+        assertFalse(it.hasNext());
+        assertEquals(expected.length, map.values().size());
+    }
+}
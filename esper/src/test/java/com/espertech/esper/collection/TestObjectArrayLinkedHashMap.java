@@ -0,0 +1,91 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class TestObjectArrayLinkedHashMap extends TestCase
+{
+    public void testPutGetRemove()
+    {
+        ObjectArrayLinkedHashMap<String> map = new ObjectArrayLinkedHashMap<String>();
+        Object[] probe = new Object[2];
+
+        probe[0] = "a"; probe[1] = 1;
+        assertNull(map.put(probe, "v1"));
+        probe[0] = null; probe[1] = 1;
+        assertNull(map.put(probe, "v2"));
+        probe[0] = "a"; probe[1] = 1L;
+        assertNull(map.put(probe, "v3"));
+        assertEquals(3, map.size());
+
+        // the map keeps a copy of the probe
+        probe[0] = "a"; probe[1] = 1;
+        assertEquals("v1", map.get(probe));
+        assertEquals("v1", map.put(probe, "v4"));
+        probe[0] = null;
+        assertEquals("v2", map.get(probe));
+        probe[0] = "b";
+        assertNull(map.get(probe));
+        assertEquals(new ArrayList<String>(map.values()).toString(), "[v4, v2, v3]");
+
+        probe[0] = null; probe[1] = 1;
+        assertEquals("v2", map.remove(probe));
+        assertNull(map.remove(probe));
+        assertEquals(2, map.size());
+        assertNull(map.getKeyAt(1));
+        assertEquals("a", map.getKeyAt(0)[0]);
+        assertEquals(new ArrayList<String>(map.values()).toString(), "[v4, v3]");
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.values().iterator().hasNext());
+    }
+
+    public void testRandomSameAsLinkedHashMap()
+    {
+        Random random = new Random(1);
+        ObjectArrayLinkedHashMap<Integer> map = new ObjectArrayLinkedHashMap<Integer>();
+        Map<MultiKeyUntyped, Integer> expected = new LinkedHashMap<MultiKeyUntyped, Integer>();
+        Object[] probe = new Object[2];
+        for (int i = 0; i < 100000; i++) {
+            probe[0] = random.nextInt(10) == 0 ? null : "s" + random.nextInt(20);
+            probe[1] = random.nextInt(30);
+            MultiKeyUntyped key = new MultiKeyUntyped(probe.clone());
+            int action = random.nextInt(3);
+            if (action == 0) {
+                assertEquals(expected.remove(key), map.remove(probe));
+            }
+            else {
+                assertEquals(expected.put(key, i), map.put(probe, i));
+            }
+            assertEquals(expected.get(key), map.get(probe));
+            assertEquals(expected.size(), map.size());
+        }
+
+        List<MultiKeyUntyped> keys = new ArrayList<MultiKeyUntyped>();
+        for (int i = 0; i < map.getTableLength(); i++) {
+            if (map.getValueAt(i) != null) {
+                keys.add(new MultiKeyUntyped(map.getKeyAt(i)));
+            }
+        }
+        assertEquals(new ArrayList<MultiKeyUntyped>(expected.keySet()), keys);
+        assertEquals(new ArrayList<Integer>(expected.values()), new ArrayList<Integer>(map.values()));
+    }
+}
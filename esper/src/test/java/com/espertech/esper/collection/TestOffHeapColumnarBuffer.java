@@ -0,0 +1,141 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+public class TestOffHeapColumnarBuffer extends TestCase
+{
+    private final static Class[] COLUMNS = new Class[] {boolean.class, Byte.class, short.class, Character.class, int.class, Long.class,
+            float.class, Double.class, String.class, BigDecimal.class};
+
+    public void testAddRead()
+    {
+        OffHeapColumnarBuffer buffer = new OffHeapColumnarBuffer(COLUMNS, false, 4);
+        assertTrue(buffer.isEmpty());
+
+        Object[] rowOne = new Object[] {true, (byte) -1, (short) 2, 'c', Integer.MIN_VALUE, Long.MAX_VALUE, 1.5f, -2.25d, "\u00e4bc", new BigDecimal("1.5")};
+        Object[] rowTwo = new Object[COLUMNS.length];
+        Object[] rowThree = new Object[] {false, null, (short) 0, null, 0, null, null, Double.NaN, "", null};
+        assertEquals(0, buffer.add(0, rowOne, "one"));
+        assertEquals(1, buffer.add(0, rowTwo, "two"));
+        assertEquals(2, buffer.add(0, rowThree, "three"));
+
+        assertEquals(3, buffer.size());
+        assertTrue(Arrays.equals(rowOne, buffer.read(0)));
+        assertTrue(Arrays.equals(rowTwo, buffer.read(1)));
+        assertTrue(Arrays.equals(rowThree, buffer.read(2)));
+        assertFalse(buffer.isOnHeap(0));
+    }
+
+    public void testOnHeapFallback()
+    {
+        OffHeapColumnarBuffer buffer = new OffHeapColumnarBuffer(new Class[] {Integer.class, Object.class}, false, 2);
+
+        // wrong type, wrong number of values, not serializable
+        assertEquals(0, buffer.add(0, new Object[] {"x", null}, "a"));
+        assertEquals(1, buffer.add(0, new Object[] {1}, "b"));
+        assertEquals(2, buffer.add(0, new Object[] {1, new Object()}, "c"));
+        assertEquals(3, buffer.add(0, new Object[] {1, new MySerializable("d")}, "d"));
+        assertEquals(4, buffer.addOnHeap(0, "e"));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i != 3, buffer.isOnHeap(i));
+        }
+        assertNull(buffer.read(0));
+        assertEquals("a", buffer.getOnHeap(0));
+        assertEquals("c", buffer.getOnHeap(2));
+        assertEquals(new MySerializable("d"), buffer.read(3)[1]);
+        assertEquals("e", buffer.getOnHeap(4));
+    }
+
+    public void testRemoveAndSegments()
+    {
+        OffHeapColumnarBuffer buffer = new OffHeapColumnarBuffer(new Class[] {int.class, String.class}, true, 3);
+        for (int i = 0; i < 10; i++) {
+            buffer.add(i * 10, new Object[] {i, "s" + i}, null);
+        }
+        assertEquals(4, buffer.getSegmentCount());
+        assertEquals(0, buffer.getFirstRowId());
+        assertEquals(10, buffer.getNextRowId());
+
+        for (int i = 0; i < 7; i++) {
+            assertEquals(i * 10, buffer.getTimestamp(buffer.getFirstRowId()));
+            assertEquals(i, buffer.read(buffer.getFirstRowId())[0]);
+            buffer.removeFirst();
+        }
+        assertEquals(3, buffer.size());
+        assertEquals(2, buffer.getSegmentCount());
+
+        buffer.adjustTimestamps(5);
+        assertEquals(75, buffer.getTimestamp(7));
+        assertEquals("s9", buffer.read(9)[1]);
+
+        for (int i = 0; i < 3; i++) {
+            buffer.removeFirst();
+        }
+        assertTrue(buffer.isEmpty());
+        assertEquals(0, buffer.getSegmentCount());
+
+        // continue after becoming empty, with rows ids continuing
+        assertEquals(10, buffer.add(100, new Object[] {10, null}, null));
+        assertEquals(10, buffer.read(10)[0]);
+        assertNull(buffer.read(10)[1]);
+        assertEquals(100, buffer.getTimestamp(10));
+    }
+
+    public void testLargeStrings()
+    {
+        OffHeapColumnarBuffer buffer = new OffHeapColumnarBuffer(new Class[] {String.class}, false, 8);
+        char[] chars = new char[10000];
+        Arrays.fill(chars, 'x');
+        String large = new String(chars);
+        for (int i = 0; i < 20; i++) {
+            buffer.add(0, new Object[] {large + i}, null);
+        }
+        for (int i = 0; i < 20; i++) {
+            assertEquals(large + i, buffer.read(i)[0]);
+        }
+    }
+
+    public void testIsFixedWidthColumn()
+    {
+        assertTrue(OffHeapColumnarBuffer.isFixedWidthColumn(long.class));
+        assertTrue(OffHeapColumnarBuffer.isFixedWidthColumn(Double.class));
+        assertTrue(OffHeapColumnarBuffer.isFixedWidthColumn(String.class));
+        assertFalse(OffHeapColumnarBuffer.isFixedWidthColumn(BigDecimal.class));
+    }
+
+    private static class MySerializable implements Serializable
+    {
+        private final String id;
+
+        private MySerializable(String id)
+        {
+            this.id = id;
+        }
+
+        public boolean equals(Object o)
+        {
+            return o instanceof MySerializable && ((MySerializable) o).id.equals(id);
+        }
+
+        public int hashCode()
+        {
+            return id.hashCode();
+        }
+    }
+}
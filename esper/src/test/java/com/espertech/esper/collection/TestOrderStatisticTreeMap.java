@@ -0,0 +1,141 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestOrderStatisticTreeMap extends TestCase
+{
+    public void testSelectWeighted()
+    {
+        OrderStatisticTreeMap<String, String> map = new OrderStatisticTreeMap<String, String>();
+        assertTrue(map.isEmpty());
+        assertNull(map.select(0));
+        assertNull(map.firstEntry());
+        assertEquals(0, map.getTotalWeight());
+
+        map.put("c", "C", 3);
+        map.put("a", "A");
+        map.put("b", "B", 2);
+        assertEquals(3, map.size());
+        assertEquals(6, map.getTotalWeight());
+        assertEquals("a", map.firstKey());
+        assertEquals("c", map.lastKey());
+
+        String[] expected = {"a", "b", "b", "c", "c", "c"};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], map.select(i).getKey());
+        }
+        assertNull(map.select(6));
+        assertNull(map.select(-1));
+        assertEquals(0, map.getWeightBefore("a"));
+        assertEquals(1, map.getWeightBefore("b"));
+        assertEquals(3, map.getWeightBefore("c"));
+        assertEquals(6, map.getWeightBefore("d"));
+
+        assertEquals("B", map.put("b", "BB", 1));
+        assertEquals(5, map.getTotalWeight());
+        assertEquals("c", map.select(2).getKey());
+        assertEquals("BB", map.get("b"));
+
+        assertEquals("A", map.remove("a"));
+        assertNull(map.remove("a"));
+        assertEquals(4, map.getTotalWeight());
+        assertEquals("b", map.select(0).getKey());
+        assertEquals("[BB, C]", toList(map.valueIterator(false)).toString());
+        assertEquals("[C, BB]", toList(map.valueIterator(true)).toString());
+        assertEquals("{b=BB, c=C}", map.toString());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        try {
+            map.firstKey();
+            fail();
+        }
+        catch (NoSuchElementException ex) {
+            // expected
+        }
+    }
+
+    public void testNullKeyWithComparator()
+    {
+        OrderStatisticTreeMap<Integer, String> map = new OrderStatisticTreeMap<Integer, String>(new Comparator<Integer>() {
+            public int compare(Integer o1, Integer o2) {
+                if (o1 == null) {
+                    return o2 == null ? 0 : -1;
+                }
+                return o2 == null ? 1 : o1.compareTo(o2);
+            }
+        });
+        map.put(5, "five");
+        map.put(null, "null");
+        assertEquals("null", map.select(0).getValue());
+        assertEquals("null", map.remove(null));
+
+        try {
+            new OrderStatisticTreeMap<Integer, String>().put(null, "null");
+            fail();
+        }
+        catch (NullPointerException ex) {
+            // expected
+        }
+    }
+
+    public void testRandomSameAsTreeMap()
+    {
+        Random random = new Random(1);
+        OrderStatisticTreeMap<Integer, Integer> map = new OrderStatisticTreeMap<Integer, Integer>(Collections.<Integer>reverseOrder());
+        TreeMap<Integer, Integer> expected = new TreeMap<Integer, Integer>(Collections.<Integer>reverseOrder());
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(500);
+            if (random.nextInt(100) < 60) {
+                int weight = random.nextInt(4);
+                assertEquals(expected.put(key, weight), map.put(key, weight, weight));
+            }
+            else {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+            assertEquals(expected.size(), map.size());
+
+            if (i % 500 == 0) {
+                assertEquals(new ArrayList<Integer>(expected.values()), toList(map.valueIterator(false)));
+                assertEquals(new ArrayList<Integer>(expected.keySet()), toList(map.keyIterator()));
+                assertEquals(expected, map);
+                assertSelect(expected, map);
+            }
+        }
+    }
+
+    private static void assertSelect(TreeMap<Integer, Integer> expected, OrderStatisticTreeMap<Integer, Integer> map)
+    {
+        int position = 0;
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(position, map.getWeightBefore(entry.getKey()));
+            for (int i = 0; i < entry.getValue(); i++) {
+                assertEquals(entry.getKey(), map.select(position++).getKey());
+            }
+        }
+        assertEquals(position, map.getTotalWeight());
+        assertNull(map.select(position));
+    }
+
+    private static <T> List<T> toList(Iterator<T> it)
+    {
+        List<T> list = new ArrayList<T>();
+        while (it.hasNext()) {
+            list.add(it.next());
+        }
+        return list;
+    }
+}
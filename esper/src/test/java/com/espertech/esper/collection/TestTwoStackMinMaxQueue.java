@@ -0,0 +1,80 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+public class TestTwoStackMinMaxQueue extends TestCase
+{
+    public void testAddRemove()
+    {
+        TwoStackMinMaxQueue<Integer> queue = new TwoStackMinMaxQueue<Integer>(false);
+        assertNull(queue.getValue());
+        assertTrue(queue.remove(1));
+
+        queue.add(5);
+        queue.add(3);
+        queue.add(3);
+        queue.add(7);
+        assertEquals(3, (int) queue.getValue());
+        assertEquals(4, queue.getCountPoints());
+
+        assertFalse(queue.remove(3));
+        assertEquals(4, queue.getCountPoints());
+        assertTrue(queue.remove(5));
+        assertEquals(3, (int) queue.getValue());
+        queue.add(4);
+        assertTrue(queue.remove(3));
+        assertEquals(3, (int) queue.getValue());
+        assertTrue(queue.remove(3));
+        assertEquals(4, (int) queue.getValue());
+
+        SortedRefCountedSet<Integer> refSet = queue.toRefCountedSet();
+        assertEquals(2, refSet.getRefSet().size());
+        assertEquals(4, (int) refSet.minValue());
+        assertEquals(7, (int) refSet.maxValue());
+
+        assertTrue(queue.remove(7));
+        assertTrue(queue.remove(4));
+        assertTrue(queue.isEmpty());
+        assertNull(queue.getValue());
+    }
+
+    public void testRandomSameAsSortedSet()
+    {
+        Random random = new Random(1);
+        for (boolean max : new boolean[] {true, false}) {
+            TwoStackMinMaxQueue<Integer> queue = new TwoStackMinMaxQueue<Integer>(max);
+            SortedRefCountedSet<Integer> expected = new SortedRefCountedSet<Integer>();
+            ArrayDeque<Integer> fifo = new ArrayDeque<Integer>();
+            for (int i = 0; i < 20000; i++) {
+                if (fifo.isEmpty() || random.nextInt(100) < 55) {
+                    int value = random.nextInt(20);
+                    queue.add(value);
+                    expected.add(value);
+                    fifo.add(value);
+                }
+                else {
+                    int value = fifo.removeFirst();
+                    assertTrue(queue.remove(value));
+                    expected.remove(value);
+                }
+                assertEquals(max ? expected.maxValue() : expected.minValue(), queue.getValue());
+                assertEquals(fifo.size(), queue.getCountPoints());
+            }
+            assertEquals(expected.getRefSet(), queue.toRefCountedSet().getRefSet());
+        }
+    }
+}
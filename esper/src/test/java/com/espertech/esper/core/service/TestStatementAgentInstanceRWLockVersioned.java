@@ -0,0 +1,105 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.core.service;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.lookup.LookupStrategyDesc;
+import com.espertech.esper.epl.lookup.SubordIndexedTableLookupStrategyConcurrent;
+import com.espertech.esper.epl.lookup.SubordTableLookupStrategy;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+
+public class TestStatementAgentInstanceRWLockVersioned extends TestCase
+{
+    private StatementAgentInstanceRWLockVersioned lock;
+
+    public void setUp()
+    {
+        lock = new StatementAgentInstanceRWLockVersioned(false);
+    }
+
+    public void testVersion()
+    {
+        long version = lock.getVersion();
+        assertTrue(lock.validate(version));
+
+        lock.acquireWriteLock();
+        long inProgress = lock.getVersion();
+        assertFalse(lock.validate(version));
+        assertFalse(lock.validate(inProgress));
+
+        // reentrant acquisition does not change the version
+        lock.acquireWriteLock();
+        lock.releaseWriteLock();
+        assertEquals(inProgress, lock.getVersion());
+
+        lock.releaseWriteLock();
+        assertTrue(lock.validate(lock.getVersion()));
+        assertFalse(lock.validate(version));
+
+        assertTrue(lock.acquireWriteLock(1000));
+        assertFalse(lock.validate(lock.getVersion()));
+        lock.releaseWriteLock();
+        assertEquals(version + 4, lock.getVersion());
+
+        // read locks do not change the version
+        lock.acquireReadLock();
+        lock.releaseReadLock();
+        assertEquals(version + 4, lock.getVersion());
+    }
+
+    public void testConcurrentLookup()
+    {
+        final Collection<EventBean> bucket = Collections.singletonList(SupportEventBeanFactory.createObject(new SupportBean()));
+        final boolean[] updateDuringLookup = new boolean[1];
+        final int[] numLookups = new int[1];
+        SubordTableLookupStrategy inner = new SubordTableLookupStrategy() {
+            public Collection<EventBean> lookup(EventBean[] events, ExprEvaluatorContext context) {
+                numLookups[0]++;
+                if (updateDuringLookup[0]) {
+                    updateDuringLookup[0] = false;
+                    lock.acquireWriteLock();
+                    lock.releaseWriteLock();
+                }
+                return bucket;
+            }
+            public LookupStrategyDesc getStrategyDesc() {
+                return null;
+            }
+            public String toQueryPlan() {
+                return null;
+            }
+        };
+        SubordIndexedTableLookupStrategyConcurrent strategy = new SubordIndexedTableLookupStrategyConcurrent(inner, lock);
+
+        // no update, result is returned as is
+        assertSame(bucket, strategy.lookup(null, null));
+        assertEquals(1, numLookups[0]);
+
+        // an update completed during the lookup, looks up again under the read lock
+        updateDuringLookup[0] = true;
+        assertTrue(strategy.lookup(null, null) instanceof ArrayDeque);
+        assertEquals(3, numLookups[0]);
+
+        // an update is in progress, looks up under the read lock
+        lock.acquireWriteLock();
+        assertTrue(strategy.lookup(null, null) instanceof ArrayDeque);
+        assertEquals(4, numLookups[0]);
+        lock.releaseWriteLock();
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TestRingBufferBlockingQueue extends TestCase
+{
+    public void testOfferPoll()
+    {
+        RingBufferBlockingQueue<Integer> queue = new RingBufferBlockingQueue<Integer>(3, ConfigurationEngineDefaults.Threading.WaitStrategy.PARK);
+        assertEquals(4, queue.getCapacity());
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+        assertNull(queue.peek());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertFalse(queue.offer(4));
+        assertEquals(4, queue.size());
+        assertEquals(0, queue.remainingCapacity());
+        assertEquals(0, (int) queue.peek());
+
+        // wrap around the ring
+        for (int lap = 0; lap < 3; lap++) {
+            for (int i = 0; i < 4; i++) {
+                assertEquals(i, (int) queue.poll());
+                assertTrue(queue.offer(i));
+            }
+        }
+
+        List<Integer> drained = new ArrayList<Integer>();
+        assertEquals(4, queue.drainTo(drained));
+        assertEquals("[0, 1, 2, 3]", drained.toString());
+        assertTrue(queue.isEmpty());
+    }
+
+    public void testTimeouts() throws Exception
+    {
+        RingBufferBlockingQueue<Integer> queue = new RingBufferBlockingQueue<Integer>(1, ConfigurationEngineDefaults.Threading.WaitStrategy.YIELD);
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+        assertEquals(1, queue.getConsumerWaitCount());
+        assertEquals(2, queue.getCapacity());
+        assertTrue(queue.offer(1, 10, TimeUnit.MILLISECONDS));
+        assertTrue(queue.offer(2, 10, TimeUnit.MILLISECONDS));
+        assertFalse(queue.offer(3, 10, TimeUnit.MILLISECONDS));
+        assertEquals(1, queue.getProducerWaitCount());
+        assertTrue(queue.getProducerWaitNanos() >= TimeUnit.MILLISECONDS.toNanos(10));
+    }
+
+    public void testRemove()
+    {
+        RingBufferBlockingQueue<Integer> queue = new RingBufferBlockingQueue<Integer>(4, ConfigurationEngineDefaults.Threading.WaitStrategy.PARK);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertTrue(queue.remove(Integer.valueOf(0)));
+        assertFalse(queue.remove(Integer.valueOf(0)));
+        assertTrue(queue.remove(Integer.valueOf(2)));
+        assertFalse(queue.remove(Integer.valueOf(5)));
+        assertEquals(2, queue.size());
+        assertEquals(0, queue.remainingCapacity());
+        assertEquals(1, (int) queue.peek());
+        assertFalse(queue.contains(2));
+
+        Iterator<Integer> it = queue.iterator();
+        assertEquals(1, (int) it.next());
+        it.remove();
+        assertEquals(3, (int) it.next());
+        assertFalse(it.hasNext());
+
+        // consumers skip removed elements and the removed slots become free
+        assertEquals(3, (int) queue.poll());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertFalse(queue.offer(4));
+    }
+
+    public void testThreadPoolRejectAndPurge() throws Exception
+    {
+        RingBufferBlockingQueue<Runnable> queue = new RingBufferBlockingQueue<Runnable>(4, ConfigurationEngineDefaults.Threading.WaitStrategy.PARK);
+        final CountDownLatch blocked = new CountDownLatch(1);
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, queue);
+        pool.execute(new Runnable() {
+            public void run() {
+                try {
+                    blocked.await();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        FutureTask<Object> cancelled = new FutureTask<Object>(new Runnable() {
+            public void run() {
+            }
+        }, null);
+        pool.execute(cancelled);
+        assertEquals(1, queue.size());
+        cancelled.cancel(false);
+        pool.purge();
+        assertFalse(queue.contains(cancelled));
+
+        pool.shutdown();
+        try {
+            pool.execute(new Runnable() {
+                public void run() {
+                }
+            });
+            fail();
+        }
+        catch (RejectedExecutionException ex) {
+            // expected
+        }
+        blocked.countDown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    public void testMultiProducerMultiConsumer() throws Exception
+    {
+        for (ConfigurationEngineDefaults.Threading.WaitStrategy waitStrategy : ConfigurationEngineDefaults.Threading.WaitStrategy.values()) {
+            runAssertionMultiProducerMultiConsumer(waitStrategy);
+        }
+    }
+
+    private void runAssertionMultiProducerMultiConsumer(ConfigurationEngineDefaults.Threading.WaitStrategy waitStrategy) throws Exception
+    {
+        final int numProducers = 3;
+        final int numConsumers = 3;
+        final int numPerProducer = 20000;
+        final RingBufferBlockingQueue<Long> queue = new RingBufferBlockingQueue<Long>(64, waitStrategy);
+        final AtomicLong sum = new AtomicLong();
+        final AtomicLong count = new AtomicLong();
+
+        Thread[] producers = new Thread[numProducers];
+        for (int i = 0; i < numProducers; i++) {
+            producers[i] = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        for (long value = 1; value <= numPerProducer; value++) {
+                            queue.put(value);
+                        }
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        }
+        Thread[] consumers = new Thread[numConsumers];
+        for (int i = 0; i < numConsumers; i++) {
+            consumers[i] = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        while (true) {
+                            long value = queue.take();
+                            sum.addAndGet(value);
+                            count.incrementAndGet();
+                        }
+                    }
+                    catch (InterruptedException e) {
+                        // done
+                    }
+                }
+            });
+        }
+
+        for (Thread consumer : consumers) {
+            consumer.start();
+        }
+        for (Thread producer : producers) {
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        long start = System.currentTimeMillis();
+        while (count.get() < numProducers * numPerProducer && System.currentTimeMillis() - start < 10000) {
+            Thread.sleep(10);
+        }
+        for (Thread consumer : consumers) {
+            consumer.interrupt();
+            consumer.join();
+        }
+
+        assertEquals(numProducers * numPerProducer, count.get());
+        assertEquals(numProducers * ((long) numPerProducer * (numPerProducer + 1) / 2), sum.get());
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -29,4 +29,18 @@ public class TestAvgAggregator extends TestCase
         assertEquals(175d, agg.getValue());
     }
 
+    public void testResultPrimitive()
+    {
+        AggregatorAvg agg = new AggregatorAvg();
+        agg.enterDouble(100);
+        agg.enter(150);
+        agg.enterDouble(200);
+        assertEquals(150d, agg.getValue());
+        agg.leaveDouble(100);
+        assertEquals(175d, agg.getValue());
+        agg.leave(150);
+        agg.leaveDouble(200);
+        assertNull(agg.getValue());
+    }
+
 }
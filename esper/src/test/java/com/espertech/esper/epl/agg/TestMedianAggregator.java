@@ -11,9 +11,16 @@
 
 package com.espertech.esper.epl.agg;
 
+import com.espertech.esper.collection.SortedDoubleVector;
 import com.espertech.esper.epl.agg.aggregator.AggregatorMedian;
 import junit.framework.TestCase;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
 public class TestMedianAggregator extends TestCase
 {
     public void testAggregator()
@@ -34,6 +41,48 @@ public class TestMedianAggregator extends TestCase
         median.leave(20);
         assertEquals(null, median.getValue());
     }
-}
 
+    public void testSlidingDuplicates()
+    {
+        Random random = new Random(1);
+        AggregatorMedian median = new AggregatorMedian();
+        ArrayDeque<Double> window = new ArrayDeque<Double>();
+        for (int i = 0; i < 5000; i++) {
+            double value = random.nextInt(50);
+            median.enter(value);
+            window.add(value);
+            if (window.size() > 101) {
+                median.leave(window.removeFirst());
+            }
+
+            List<Double> sorted = new ArrayList<Double>(window);
+            Collections.sort(sorted);
+            int middle = sorted.size() / 2;
+            double expected = sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+            assertEquals(expected, median.getValue());
+        }
+    }
+
+    public void testNaNNotCounted()
+    {
+        // same as the sorted double vector: NaN is neither entered nor left
+        AggregatorMedian median = new AggregatorMedian();
+        SortedDoubleVector vector = new SortedDoubleVector();
+        median.enter(Double.NaN);
+        vector.add(Double.NaN);
+        assertEquals(0, vector.size());
+        assertEquals(null, median.getValue());
 
+        median.enter(10);
+        median.enter(Double.NaN);
+        median.enter(null);
+        median.enter(20);
+        assertEquals(15D, median.getValue());
+
+        median.leave(Double.NaN);
+        vector.remove(Double.NaN);
+        assertEquals(15D, median.getValue());
+        median.leave(10);
+        assertEquals(20D, median.getValue());
+    }
+}
@@ -52,4 +52,28 @@ public class TestMinMaxAggregator extends TestCase
         agg.leave(10);
         assertEquals(null, agg.getValue());
     }
+
+    public void testAggregatorOutOfOrderLeave()
+    {
+        AggregatorMinMax agg = new AggregatorMinMax(MinMaxTypeEnum.MAX);
+        agg.enter(10);
+        agg.enter(30);
+        agg.enter(20);
+        agg.leave(10);
+        assertEquals(30, agg.getValue());
+
+        // not the oldest value
+        agg.leave(20);
+        assertEquals(30, agg.getValue());
+        agg.enter(40);
+        assertEquals(40, agg.getValue());
+        agg.leave(40);
+        agg.leave(30);
+        assertEquals(null, agg.getValue());
+        assertTrue(agg.getRefSet().getRefSet().isEmpty());
+
+        agg.clear();
+        agg.enter(5);
+        assertEquals(5, agg.getValue());
+    }
 }
@@ -53,6 +53,20 @@ public class TestStddevAggregator extends TestCase
         assertEquals(0.0d, agg.getValue());
     }
 
+    public void testAggregateFunctionPrimitive() {
+        AggregatorStddev agg = new AggregatorStddev();
+        agg.enterDouble(10);
+        agg.enterDouble(8);
+        agg.enter(5);
+        agg.enterDouble(9);
+        double result = (Double)agg.getValue();
+        assertEquals("2.1602", Double.toString(result).substring(0, 6));
+
+        agg.leaveDouble(10);
+        result = (Double)agg.getValue();
+        assertEquals("2.0816", Double.toString(result).substring(0, 6));
+    }
+
 }
 
 
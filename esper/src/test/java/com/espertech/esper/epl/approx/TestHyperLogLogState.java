@@ -0,0 +1,87 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.approx;
+
+import com.espertech.esper.util.SerializerUtil;
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+public class TestHyperLogLogState extends TestCase {
+
+    public void testSparseExact() {
+        HyperLogLogState state = new HyperLogLogState();
+        assertEquals(0, state.getEstimate());
+
+        for (int i = 0; i < 1000; i++) {
+            state.add(HyperLogLogState.hash("value" + i));
+            state.add(HyperLogLogState.hash("value" + i));
+        }
+        assertTrue(state.isSparse());
+        assertEquals(1000, state.getEstimate(), 2);
+
+        state.clear();
+        assertEquals(0, state.getEstimate());
+    }
+
+    public void testDenseWithinError() {
+        Random random = new Random(1);
+        for (int count : new int[] {5000, 50000, 1000000}) {
+            HyperLogLogState state = new HyperLogLogState();
+            for (int i = 0; i < count; i++) {
+                state.add(HyperLogLogState.hash(random.nextLong()));
+            }
+            assertFalse(state.isSparse());
+            // standard error at precision 14 is 1.04 / sqrt(16384), about 0.8%
+            assertEquals(count, state.getEstimate(), count * 0.03);
+        }
+    }
+
+    public void testMerge() {
+        HyperLogLogState one = new HyperLogLogState();
+        HyperLogLogState two = new HyperLogLogState();
+        HyperLogLogState all = new HyperLogLogState();
+        for (int i = 0; i < 30000; i++) {
+            long hash = HyperLogLogState.hash(i);
+            (i % 3 == 0 ? one : two).add(hash);
+            all.add(hash);
+        }
+        HyperLogLogState sparse = new HyperLogLogState();
+        sparse.add(HyperLogLogState.hash(-1));
+
+        one.merge(two);
+        one.merge(sparse);
+        all.add(HyperLogLogState.hash(-1));
+        assertEquals(all.getEstimate(), one.getEstimate());
+
+        sparse.merge(two);
+        assertFalse(sparse.isSparse());
+
+        try {
+            one.merge(new HyperLogLogState(10));
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    public void testSerialize() {
+        HyperLogLogState state = new HyperLogLogState();
+        state.add(HyperLogLogState.hash("a"));
+        state.add(HyperLogLogState.hash(1.5d));
+        HyperLogLogState copy = (HyperLogLogState) SerializerUtil.byteArrToObject(SerializerUtil.objectToByteArr(state));
+        assertEquals(2, copy.getEstimate());
+        copy.add(HyperLogLogState.hash("b"));
+        assertEquals(3, copy.getEstimate());
+    }
+}
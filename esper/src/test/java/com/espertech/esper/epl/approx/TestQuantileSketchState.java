@@ -0,0 +1,119 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.approx;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class TestQuantileSketchState extends TestCase {
+
+    public void testSimpleFlow() {
+        QuantileSketchState state = new QuantileSketchState();
+        assertTrue(Double.isNaN(state.getQuantile(0.5)));
+
+        state.add(10);
+        assertEquals(10, state.getQuantile(0), 0.1);
+        assertEquals(10, state.getQuantile(1), 0.1);
+
+        state.add(-5);
+        state.add(0);
+        state.add(Double.NaN);
+        assertEquals(3, state.getCount());
+        assertEquals(-5, state.getQuantile(0), 0.05);
+        assertEquals(0, state.getQuantile(0.5), 0);
+        assertEquals(10, state.getQuantile(1), 0.1);
+
+        assertTrue(state.remove(-5));
+        assertFalse(state.remove(-5));
+        assertTrue(state.remove(0));
+        assertFalse(state.remove(0));
+        assertEquals(10, state.getQuantile(0), 0.1);
+
+        state.clear();
+        assertEquals(0, state.getCount());
+    }
+
+    public void testSlidingWithinRelativeAccuracy() {
+        Random random = new Random(1);
+        QuantileSketchState state = new QuantileSketchState();
+        ArrayDeque<Double> window = new ArrayDeque<Double>();
+        double[] quantiles = {0, 0.25, 0.5, 0.9, 0.99, 0.999, 1};
+        for (int i = 0; i < 20000; i++) {
+            double value = Math.exp(random.nextGaussian() * 3) * (random.nextInt(10) == 0 ? -1 : 1);
+            state.add(value);
+            window.add(value);
+            if (window.size() > 1000) {
+                assertTrue(state.remove(window.removeFirst()));
+            }
+            if (i % 1000 == 999) {
+                assertQuantiles(state, new ArrayList<Double>(window), quantiles);
+            }
+        }
+    }
+
+    public void testBoundedBuckets() {
+        QuantileSketchState state = new QuantileSketchState(0.01, 100);
+        for (int i = 0; i < 1000; i++) {
+            state.add(Math.pow(2, i - 500));
+        }
+        assertEquals(1000, state.getCount());
+
+        // the highest values are kept within the accuracy, the lowest values are collapsed
+        double max = Math.pow(2, 499);
+        assertEquals(max, state.getQuantile(1), max * 0.01);
+        assertTrue(state.getQuantile(0) > Math.pow(2, -500));
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(state.remove(Math.pow(2, i - 500)));
+        }
+        assertEquals(0, state.getCount());
+        state.add(1e-100);
+        assertEquals(1e-100, state.getQuantile(0.5), 1e-102);
+    }
+
+    public void testMerge() {
+        Random random = new Random(2);
+        QuantileSketchState one = new QuantileSketchState();
+        QuantileSketchState two = new QuantileSketchState();
+        List<Double> values = new ArrayList<Double>();
+        for (int i = 0; i < 5000; i++) {
+            double value = random.nextDouble() * 1000;
+            values.add(value);
+            (i % 2 == 0 ? one : two).add(value);
+        }
+        one.merge(two);
+        assertEquals(5000, one.getCount());
+        assertQuantiles(one, values, new double[] {0.01, 0.5, 0.99});
+
+        try {
+            one.merge(new QuantileSketchState(0.05, 100));
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    private static void assertQuantiles(QuantileSketchState state, List<Double> values, double[] quantiles) {
+        Collections.sort(values);
+        for (double quantile : quantiles) {
+            double expected = values.get((int) (quantile * (values.size() - 1)));
+            double actual = state.getQuantile(quantile);
+            assertEquals("quantile " + quantile, expected, actual, Math.abs(expected) * state.getRelativeAccuracy() * 1.0001);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.join.base;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.collection.MultiKey;
+import com.espertech.esper.collection.UniformPair;
+import com.espertech.esper.epl.join.exec.base.FullTableScanLookupStrategy;
+import com.espertech.esper.epl.join.exec.base.TableLookupExecNode;
+import com.espertech.esper.epl.join.plan.TableLookupIndexReqKey;
+import com.espertech.esper.epl.join.table.EventTable;
+import com.espertech.esper.epl.join.table.UnindexedEventTable;
+import com.espertech.esper.epl.join.table.UnindexedEventTableImpl;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestJoinSetComposerBatchImpl extends TestCase
+{
+    private JoinSetComposerBatchImpl composer;
+    private UnindexedEventTable indexLeft;
+    private UnindexedEventTable indexRight;
+
+    public void setUp()
+    {
+        indexLeft = new UnindexedEventTableImpl(0);
+        indexRight = new UnindexedEventTableImpl(1);
+
+        QueryStrategy[] queryStrategies = new QueryStrategy[2];
+        TableLookupExecNode lookupLeft = new TableLookupExecNode(1, new FullTableScanLookupStrategy(indexRight));
+        TableLookupExecNode lookupRight = new TableLookupExecNode(0, new FullTableScanLookupStrategy(indexLeft));
+        queryStrategies[0] = new ExecNodeQueryStrategy(0, 2, lookupLeft);
+        queryStrategies[1] = new ExecNodeQueryStrategy(1, 2, lookupRight);
+
+        Map<TableLookupIndexReqKey,EventTable>[] indexes = new Map[2];
+        indexes[0] = new HashMap<TableLookupIndexReqKey,EventTable>();
+        indexes[1] = new HashMap<TableLookupIndexReqKey,EventTable>();
+        indexes[0].put(new TableLookupIndexReqKey("idxLeft"), indexLeft);
+        indexes[1].put(new TableLookupIndexReqKey("idxRight"), indexRight);
+
+        composer = new JoinSetComposerBatchImpl(true, indexes, queryStrategies, null, true);
+    }
+
+    public void testJoin()
+    {
+        EventBean[] batchLeftOne = SupportEventBeanFactory.makeEvents(new String[] {"l1", "l2"});
+        EventBean[] batchRightOne = SupportEventBeanFactory.makeEvents(new String[] {"r1"});
+        EventBean[] batchLeftTwo = SupportEventBeanFactory.makeEvents(new String[] {"l3"});
+        EventBean[] batchRightTwo = SupportEventBeanFactory.makeEvents(new String[] {"r2", "r3"});
+
+        // left batch released, right has no events yet
+        UniformPair<Set<MultiKey<EventBean>>> result = composer.join(new EventBean[][] {batchLeftOne, null}, new EventBean[][] {null, null}, null);
+        assertTrue(result.getFirst().isEmpty());
+        assertTrue(result.getSecond().isEmpty());
+
+        // right batch released, joins the left batch
+        result = composer.join(new EventBean[][] {null, batchRightOne}, new EventBean[][] {null, null}, null);
+        assertJoined(result.getFirst(), "l1|r1", "l2|r1");
+        assertTrue(result.getSecond().isEmpty());
+
+        // left batch replaces the prior left batch
+        result = composer.join(new EventBean[][] {batchLeftTwo, null}, new EventBean[][] {batchLeftOne, null}, null);
+        assertJoined(result.getFirst(), "l3|r1");
+        assertJoined(result.getSecond(), "l1|r1", "l2|r1");
+        EPAssertionUtil.assertEqualsAnyOrder(batchLeftTwo, EPAssertionUtil.iteratorToArray(indexLeft.iterator()));
+
+        // both batches replaced at the same time
+        result = composer.join(new EventBean[][] {null, batchRightTwo}, new EventBean[][] {batchLeftTwo, batchRightOne}, null);
+        assertTrue(result.getFirst().isEmpty());
+        assertJoined(result.getSecond(), "l3|r1");
+        assertJoined(composer.staticJoin());
+    }
+
+    public void testReplace()
+    {
+        EventBean[] events = SupportEventBeanFactory.makeEvents(new String[] {"e1", "e2", "e3"});
+        EventBean[] newData = SupportEventBeanFactory.makeEvents(new String[] {"e4"});
+
+        assertSame(newData, JoinSetComposerBatchImpl.replace(new EventBean[0], newData, null));
+        assertSame(newData, JoinSetComposerBatchImpl.replace(events, newData, events));
+        assertSame(newData, JoinSetComposerBatchImpl.replace(events, newData, new EventBean[] {events[0], events[1], events[2]}));
+        assertEquals(0, JoinSetComposerBatchImpl.replace(events, null, events).length);
+        EPAssertionUtil.assertEqualsExactOrder(new EventBean[] {events[0], events[2], newData[0]},
+                JoinSetComposerBatchImpl.replace(events, newData, new EventBean[] {events[1]}));
+        EPAssertionUtil.assertEqualsExactOrder(new EventBean[] {events[0], events[1], events[2]},
+                JoinSetComposerBatchImpl.replace(events, newData, newData));
+    }
+
+    private void assertJoined(Set<MultiKey<EventBean>> result, String... expected)
+    {
+        Set<String> actual = new HashSet<String>();
+        for (MultiKey<EventBean> key : result)
+        {
+            actual.add(((SupportBean) key.getArray()[0].getUnderlying()).getTheString() + "|" +
+                    ((SupportBean) key.getArray()[1].getUnderlying()).getTheString());
+        }
+        assertEquals(new HashSet<String>(Arrays.asList(expected)), actual);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.join.exec;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.join.exec.base.*;
+import com.espertech.esper.epl.join.table.EventTable;
+import com.espertech.esper.epl.join.table.UnindexedEventTable;
+import com.espertech.esper.epl.join.table.UnindexedEventTableImpl;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TestAdaptiveIterationExecNode extends TestCase
+{
+    private UnindexedEventTable[] indexes;
+    private AdaptiveIterationExecNode exec;
+
+    public void setUp()
+    {
+        indexes = new UnindexedEventTable[3];
+        for (int i = 0; i < indexes.length; i++)
+        {
+            indexes[i] = new UnindexedEventTableImpl(i);
+        }
+
+        int[][] nestingOrders = new int[][] {{1, 2}, {2, 1}};
+        ExecNode[] candidates = new ExecNode[2];
+        EventTable[][] lookupTables = new EventTable[2][];
+        for (int i = 0; i < nestingOrders.length; i++)
+        {
+            NestedIterationExecNode nested = new NestedIterationExecNode(nestingOrders[i]);
+            lookupTables[i] = new EventTable[2];
+            for (int j = 0; j < 2; j++)
+            {
+                int stream = nestingOrders[i][j];
+                nested.addChildNode(new TableLookupExecNode(stream, new FullTableScanLookupStrategy(indexes[stream])));
+                lookupTables[i][j] = indexes[stream];
+            }
+            candidates[i] = nested;
+        }
+
+        EventTable[][] tablesPerStream = new EventTable[][] {{indexes[0]}, {indexes[1]}, {indexes[2]}};
+        exec = new AdaptiveIterationExecNode("s0", 0, nestingOrders, candidates, lookupTables, tablesPerStream, false);
+    }
+
+    public void testReplan()
+    {
+        EventBean lookupEvent = SupportEventBeanFactory.makeEvents_A(new String[] {"a1"})[0];
+        indexes[1].add(SupportEventBeanFactory.makeEvents_B(new String[] {"b1", "b2"}));
+        indexes[2].add(SupportEventBeanFactory.makeEvents_C(new String[] {"c1", "c2"}));
+
+        assertEquals(4, process(lookupEvent));
+        assertTrue(Arrays.equals(new int[] {1, 2}, exec.getCurrentNestingOrder()));
+
+        // stream 1 grows, the plan looks up stream 2 first
+        indexes[1].add(SupportEventBeanFactory.makeEvents_B(makeIds("b", 100)));
+        exec.checkReplan();
+        assertTrue(Arrays.equals(new int[] {2, 1}, exec.getCurrentNestingOrder()));
+        assertEquals(204, process(lookupEvent));
+
+        // stream 2 grows but remains the smaller stream
+        indexes[2].add(SupportEventBeanFactory.makeEvents_C(makeIds("c", 10)));
+        exec.checkReplan();
+        assertTrue(Arrays.equals(new int[] {2, 1}, exec.getCurrentNestingOrder()));
+
+        // stream 2 grows beyond stream 1
+        indexes[2].add(SupportEventBeanFactory.makeEvents_C(makeIds("x", 1000)));
+        exec.checkReplan();
+        assertTrue(Arrays.equals(new int[] {1, 2}, exec.getCurrentNestingOrder()));
+        assertEquals(102 * 1012, process(lookupEvent));
+    }
+
+    private int process(EventBean lookupEvent)
+    {
+        List<EventBean[]> result = new ArrayList<EventBean[]>();
+        EventBean[] prefill = new EventBean[3];
+        prefill[0] = lookupEvent;
+        exec.process(lookupEvent, prefill, result, null);
+        return result.size();
+    }
+
+    private static String[] makeIds(String prefix, int count)
+    {
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++)
+        {
+            ids[i] = prefix + i;
+        }
+        return ids;
+    }
+}
@@ -53,11 +53,33 @@ public class TestNStreamQueryPlanBuilder extends TestCase
 
     public void testBuild()
     {
-        QueryPlan plan = NStreamQueryPlanBuilder.build(queryGraph, typesPerStream, new HistoricalViewableDesc(6), dependencyGraph, null, false, new String[queryGraph.getNumStreams()][][], new TableMetadata[queryGraph.getNumStreams()]);
+        QueryPlan plan = NStreamQueryPlanBuilder.build(queryGraph, typesPerStream, new HistoricalViewableDesc(6), dependencyGraph, null, false, new String[queryGraph.getNumStreams()][][], new TableMetadata[queryGraph.getNumStreams()], false, false);
 
         log.debug(".testBuild plan=" + plan);
     }
 
+    public void testBuildAdaptive()
+    {
+        QueryGraph triangle = new QueryGraph(3, null, false);
+        triangle.addStrictEquals(0, "p00", make(0, "p00"), 1, "p10", make(1, "p10"));
+        triangle.addStrictEquals(0, "p01", make(0, "p01"), 2, "p20", make(2, "p20"));
+        triangle.addStrictEquals(1, "p11", make(1, "p11"), 2, "p21", make(2, "p21"));
+        EventType[] types = new EventType[] {typesPerStream[0], typesPerStream[1], typesPerStream[2]};
+
+        QueryPlan plan = NStreamQueryPlanBuilder.build(triangle, types, new HistoricalViewableDesc(3), new DependencyGraph(3, false), null, false, new String[3][][], new TableMetadata[3], true, false);
+        for (int i = 0; i < 3; i++) {
+            AdaptiveIterationNode node = (AdaptiveIterationNode) plan.getExecNodeSpecs()[i];
+            assertEquals(2, node.getCandidates().length);
+        }
+        AdaptiveIterationNode node = (AdaptiveIterationNode) plan.getExecNodeSpecs()[0];
+        assertTrue(Arrays.equals(new int[] {1, 2}, node.getCandidates()[0].getNestingOrder()));
+        assertTrue(Arrays.equals(new int[] {2, 1}, node.getCandidates()[1].getNestingOrder()));
+
+        // a chain that is not fully navigable has no alternatives
+        plan = NStreamQueryPlanBuilder.build(queryGraph, typesPerStream, new HistoricalViewableDesc(5), dependencyGraph, null, true, new String[5][][], new TableMetadata[5], true, false);
+        assertTrue(plan.getExecNodeSpecs()[0] instanceof NestedIterationNode);
+    }
+
     public void testCreateStreamPlan()
     {
         QueryPlanIndex[] indexes = QueryPlanIndexBuilder.buildIndexSpec(queryGraph, typesPerStream, new String[queryGraph.getNumStreams()][][]);
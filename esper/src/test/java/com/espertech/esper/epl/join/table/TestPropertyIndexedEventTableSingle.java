@@ -0,0 +1,170 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+
+package com.espertech.esper.epl.join.table;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import com.espertech.esper.support.event.SupportEventTypeFactory;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+public class TestPropertyIndexedEventTableSingle extends TestCase
+{
+    private EventType eventType;
+
+    public void setUp()
+    {
+        eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+    }
+
+    public void testMakeTable()
+    {
+        assertTrue(makeIndex("intPrimitive") instanceof PropertyIndexedEventTableSingleLong);
+        assertTrue(makeIndex("longBoxed") instanceof PropertyIndexedEventTableSingleLong);
+        assertTrue(makeIndex("theString") instanceof PropertyIndexedEventTableSingleUnadorned);
+        assertTrue(makeIndex("doublePrimitive") instanceof PropertyIndexedEventTableSingleUnadorned);
+        assertEquals(PropertyIndexedEventTableSingle.class, makeIndex("intPrimitive").getProviderClass());
+    }
+
+    public void testBucketPromoteDemote()
+    {
+        for (String property : new String[] {"intPrimitive", "theString"}) {
+            PropertyIndexedEventTableSingle index = makeIndex(property);
+            Object key = property.equals("intPrimitive") ? (Object) 1 : "E";
+            int total = PropertyIndexedEventTableBucket.MAX_ARRAY_SIZE + 3;
+            EventBean[] events = new EventBean[total];
+            for (int i = 0; i < total; i++) {
+                events[i] = makeBean("E", 1, null);
+                index.add(events[i]);
+                index.add(events[i]);   // same event is not added twice
+                assertLookup(index, key, events, 0, i + 1);
+            }
+            assertEquals(1, index.getNumKeys());
+
+            // remove out of order and then all the remaining
+            List<EventBean> remaining = new ArrayList<EventBean>(Arrays.asList(events));
+            for (int i : new int[] {3, 0, total - 1}) {
+                index.remove(events[i]);
+                index.remove(events[i]);
+                remaining.remove(events[i]);
+                assertLookup(index, key, remaining.toArray(new EventBean[remaining.size()]), 0, remaining.size());
+            }
+            while (remaining.size() > 1) {
+                index.remove(remaining.remove(0));
+                assertLookup(index, key, remaining.toArray(new EventBean[remaining.size()]), 0, remaining.size());
+            }
+            index.remove(remaining.get(0));
+            assertNull(index.lookup(key));
+            assertTrue(index.isEmpty());
+            assertFalse(index.iterator().hasNext());
+        }
+    }
+
+    public void testLongKey()
+    {
+        PropertyIndexedEventTableSingle index = makeIndex("intBoxed");
+        EventBean e1 = makeBean("E1", 0, 10);
+        EventBean e2 = makeBean("E2", 0, null);
+        EventBean e3 = makeBean("E3", 0, 10);
+        EventBean e4 = makeBean("E4", 0, -5);
+        index.add(new EventBean[] {e1, e2, e3, e4});
+        assertEquals(3, index.getNumKeys());
+
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {e1, e3}, index.lookup(10).toArray());
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {e2}, index.lookup(null).toArray());
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {e4}, index.lookup(-5).toArray());
+        assertNull(index.lookup(11));
+        assertNull(index.lookup(10L));   // same as for boxed keys only the same type matches
+        assertNull(index.lookup("10"));
+        EPAssertionUtil.assertEqualsAnyOrder(new Object[] {e1, e2, e3, e4}, EPAssertionUtil.iteratorToArray(index.iterator()));
+
+        index.remove(new EventBean[] {e2, e3});
+        assertNull(index.lookup(null));
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {e1}, index.lookup(10).toArray());
+        EPAssertionUtil.assertEqualsAnyOrder(new Object[] {e1, e4}, EPAssertionUtil.iteratorToArray(index.iterator()));
+        assertEquals(2, index.getNumKeys());
+
+        index.clear();
+        assertTrue(index.isEmpty());
+        assertNull(index.lookup(10));
+    }
+
+    public void testConcurrentRead()
+    {
+        PropertyIndexedEventTableSingleFactory factory = new PropertyIndexedEventTableSingleFactory(0, eventType, "intBoxed", false, null, true);
+        PropertyIndexedEventTableSingle index = (PropertyIndexedEventTableSingle) factory.makeEventTables(null)[0];
+        assertTrue(index instanceof PropertyIndexedEventTableSingleUnadorned);
+        assertTrue(index.getOrganization().isConcurrentRead());
+
+        // buckets are not promoted and a bucket obtained by a reader does not change
+        int total = PropertyIndexedEventTableBucket.MAX_ARRAY_SIZE + 2;
+        EventBean[] events = new EventBean[total];
+        for (int i = 0; i < total; i++) {
+            events[i] = makeBean("E" + i, 0, i == 0 ? null : 10);
+            index.add(events[i]);
+        }
+        Set<EventBean> before = index.lookup(10);
+        assertEquals(total - 1, before.size());
+        index.remove(events[1]);
+        assertEquals(total - 1, before.size());
+        assertEquals(total - 2, index.lookup(10).size());
+
+        // null keys
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {events[0]}, index.lookup(null).toArray());
+        index.remove(events[0]);
+        assertNull(index.lookup(null));
+        assertEquals(1, index.getNumKeys());
+
+        // unique
+        factory = new PropertyIndexedEventTableSingleFactory(0, eventType, "intBoxed", true, null, true);
+        index = (PropertyIndexedEventTableSingle) factory.makeEventTables(null)[0];
+        index.add(new EventBean[] {events[0], events[1]});
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {events[0]}, index.lookup(null).toArray());
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {events[1]}, index.lookup(10).toArray());
+        index.remove(events[0]);
+        assertNull(index.lookup(null));
+    }
+
+    private void assertLookup(PropertyIndexedEventTableSingle index, Object key, EventBean[] events, int from, int to)
+    {
+        Set<EventBean> result = index.lookup(key);
+        assertEquals(to - from, result.size());
+        Object[] expected = new Object[to - from];
+        System.arraycopy(events, from, expected, 0, expected.length);
+        EPAssertionUtil.assertEqualsExactOrder(expected, result.toArray());
+        EPAssertionUtil.assertEqualsExactOrder(expected, EPAssertionUtil.iteratorToArray(index.iterator()));
+        for (Object expectedEvent : expected) {
+            assertTrue(result.contains(expectedEvent));
+        }
+    }
+
+    private PropertyIndexedEventTableSingle makeIndex(String propertyName)
+    {
+        PropertyIndexedEventTableSingleFactory factory = new PropertyIndexedEventTableSingleFactory(0, eventType, propertyName, false, null);
+        return (PropertyIndexedEventTableSingle) factory.makeEventTables(null)[0];
+    }
+
+    private EventBean makeBean(String theString, int intPrimitive, Integer intBoxed)
+    {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setIntBoxed(intBoxed);
+        return SupportEventBeanFactory.createObject(bean);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.event.bean;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.core.support.SupportEventAdapterService;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.bean.SupportBeanComplexProps;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+import java.lang.reflect.Method;
+
+public class TestLambdaPropertyGetter extends TestCase
+{
+    private EventBean unitTestBean;
+
+    public void setUp()
+    {
+        SupportBean testEvent = new SupportBean();
+        testEvent.setIntPrimitive(10);
+        testEvent.setTheString("a");
+        testEvent.setDoubleBoxed(null);
+
+        unitTestBean = SupportEventBeanFactory.createObject(testEvent);
+    }
+
+    public void testGetter() throws Exception
+    {
+        LambdaPropertyGetter getter = makeGetter(SupportBean.class, "getIntPrimitive");
+        assertEquals(10, getter.get(unitTestBean));
+
+        getter = makeGetter(SupportBean.class, "getTheString");
+        assertEquals("a", getter.get(unitTestBean));
+
+        getter = makeGetter(SupportBean.class, "getDoubleBoxed");
+        assertEquals(null, getter.get(unitTestBean));
+
+        try
+        {
+            getter.get(SupportEventBeanFactory.createObject(new Object()));
+            fail();
+        }
+        catch (PropertyAccessException ex)
+        {
+            // expected
+        }
+    }
+
+    public void testGetterKeyedAndArray() throws Exception
+    {
+        SupportBeanComplexProps bean = SupportBeanComplexProps.makeDefaultBean();
+        EventBean theEvent = SupportEventBeanFactory.createObject(bean);
+
+        Method method = SupportBeanComplexProps.class.getMethod("getIndexed", int.class);
+        KeyedLambdaPropertyGetter indexed = new KeyedLambdaPropertyGetter(method, PropertyHelper.getLambdaKeyedAccessor(method), 1, SupportEventAdapterService.getService());
+        assertEquals(bean.getIndexed(1), indexed.get(theEvent));
+        assertEquals(bean.getIndexed(0), indexed.get(theEvent, 0));
+
+        method = SupportBeanComplexProps.class.getMethod("getMapped", String.class);
+        KeyedLambdaPropertyGetter mapped = new KeyedLambdaPropertyGetter(method, PropertyHelper.getLambdaKeyedAccessor(method), "keyOne", SupportEventAdapterService.getService());
+        assertEquals("valueOne", mapped.get(theEvent));
+        assertEquals("valueTwo", mapped.get(theEvent, "keyTwo"));
+
+        method = SupportBeanComplexProps.class.getMethod("getArrayProperty");
+        ArrayLambdaPropertyGetter array = new ArrayLambdaPropertyGetter(method, PropertyHelper.getLambdaAccessor(method), 2, SupportEventAdapterService.getService());
+        assertEquals(bean.getArrayProperty()[2], array.get(theEvent));
+        assertEquals(bean.getArrayProperty()[0], array.get(theEvent, 0));
+        assertNull(array.get(theEvent, 100));
+
+        try
+        {
+            indexed.get(SupportEventBeanFactory.createObject(""));
+            fail();
+        }
+        catch (PropertyAccessException ex)
+        {
+            // expected
+        }
+    }
+
+    public void testGetterException() throws Exception
+    {
+        Method method = MyThrowingBean.class.getMethod("getValue");
+        LambdaPropertyGetter getter = new LambdaPropertyGetter(method, PropertyHelper.getLambdaAccessor(method), SupportEventAdapterService.getService());
+        try
+        {
+            getter.get(SupportEventBeanFactory.createObject(new MyThrowingBean()));
+            fail();
+        }
+        catch (PropertyAccessException ex)
+        {
+            assertTrue(ex.getCause().getCause() instanceof UnsupportedOperationException);
+        }
+    }
+
+    public void testNotAccessible() throws Exception
+    {
+        assertNull(PropertyHelper.getLambdaAccessor(MyNonPublicBean.class.getMethod("getValue")));
+        assertNull(PropertyHelper.getLambdaAccessor(SupportBeanComplexProps.class.getMethod("getMapped", String.class)));
+        assertNull(PropertyHelper.getLambdaKeyedAccessor(SupportBeanComplexProps.class.getMethod("getArrayProperty")));
+        assertTrue(PropertyHelper.getGetter(MyNonPublicBean.class.getMethod("getValue"), null, true, SupportEventAdapterService.getService()) instanceof ReflectionPropMethodGetter);
+        assertTrue(PropertyHelper.getGetter(SupportBean.class.getMethod("getIntPrimitive"), null, true, SupportEventAdapterService.getService()) instanceof LambdaPropertyGetter);
+    }
+
+    public void testGetterPrimitive() throws Exception
+    {
+        SupportBean bean = new SupportBean("a", -7);
+        bean.setLongPrimitive(Long.MAX_VALUE);
+        bean.setDoublePrimitive(2.75d);
+        EventBean theEvent = SupportEventBeanFactory.createObject(bean);
+
+        LambdaPrimitivePropertyGetter getter = makePrimitiveGetter(SupportBean.class, "getIntPrimitive");
+        assertEquals(-7, getter.get(theEvent));
+        assertEquals(-7d, getter.getDouble(theEvent));
+        assertEquals(-7L, getter.getLong(theEvent));
+
+        getter = makePrimitiveGetter(SupportBean.class, "getLongPrimitive");
+        assertEquals(Long.MAX_VALUE, getter.getLong(theEvent));
+
+        getter = makePrimitiveGetter(SupportBean.class, "getDoublePrimitive");
+        assertEquals(2.75d, getter.getDouble(theEvent));
+        assertEquals(2L, getter.getLong(theEvent));
+
+        Method method = SupportBean.class.getMethod("getDoubleBoxed");
+        assertNull(PropertyHelper.getLambdaDoubleAccessor(method));
+        assertNull(PropertyHelper.getLambdaLongAccessor(SupportBean.class.getMethod("getDoublePrimitive")));
+    }
+
+    private LambdaPrimitivePropertyGetter makePrimitiveGetter(Class clazz, String methodName) throws Exception
+    {
+        Method method = clazz.getMethod(methodName);
+        return new LambdaPrimitivePropertyGetter(method, PropertyHelper.getLambdaAccessor(method), PropertyHelper.getLambdaDoubleAccessor(method), PropertyHelper.getLambdaLongAccessor(method), SupportEventAdapterService.getService());
+    }
+
+    private LambdaPropertyGetter makeGetter(Class clazz, String methodName) throws Exception
+    {
+        Method method = clazz.getMethod(methodName);
+        return new LambdaPropertyGetter(method, PropertyHelper.getLambdaAccessor(method), SupportEventAdapterService.getService());
+    }
+
+    public static class MyThrowingBean
+    {
+        public String getValue()
+        {
+            throw new UnsupportedOperationException("not available");
+        }
+    }
+
+    private static class MyNonPublicBean
+    {
+        public String getValue()
+        {
+            return "value";
+        }
+    }
+}
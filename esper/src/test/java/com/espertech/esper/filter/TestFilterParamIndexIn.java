@@ -42,7 +42,13 @@ public class TestFilterParamIndexIn extends TestCase
 
     public void testIndex()
     {
-        FilterParamIndexIn index = new FilterParamIndexIn(makeLookupable("longBoxed"), new ReentrantReadWriteLock());
+        runAssertionIndex(false);
+        runAssertionIndex(true);
+    }
+
+    private void runAssertionIndex(boolean copyOnWrite)
+    {
+        FilterParamIndexIn index = new FilterParamIndexIn(makeLookupable("longBoxed"), new ReentrantReadWriteLock(), copyOnWrite);
         assertEquals(FilterOperator.IN_LIST_OF_VALUES, index.getFilterOperator());
 
         MultiKeyUntyped inList = new MultiKeyUntyped(new Object[] {2L, 5L});
@@ -90,6 +90,39 @@ public class TestFilterParamIndexNotIn extends TestCase
         }
     }
 
+    public void testIndexCopyOnWrite()
+    {
+        FilterParamIndexNotIn index = new FilterParamIndexNotIn(makeLookupable("longBoxed"), new ReentrantReadWriteLock(), true);
+
+        index.put(new MultiKeyUntyped(new Object[] {2L, 5L}), testEvaluators[0]);
+        index.put(new MultiKeyUntyped(new Object[] {3L, 4L, 5L}), testEvaluators[1]);
+        index.put(new MultiKeyUntyped(new Object[] {1L, 4L, 5L}), testEvaluators[2]);
+        index.put(new MultiKeyUntyped(new Object[] {2L, 5L}), testEvaluators[3]);     // replaces the evaluator for {2, 5}
+
+        verify(index, 0L, new boolean[] {false, true, true, true});
+        verify(index, 1L, new boolean[] {false, true, false, true});
+        verify(index, 2L, new boolean[] {false, true, true, false});
+        verify(index, 3L, new boolean[] {false, false, true, true});
+        verify(index, 4L, new boolean[] {false, false, false, true});
+        verify(index, 5L, new boolean[] {false, false, false, false});
+        verify(index, 6L, new boolean[] {false, true, true, true});
+
+        MultiKeyUntyped inList = new MultiKeyUntyped(new Object[] {3L, 4L, 5L});
+        assertEquals(testEvaluators[1], index.get(inList));
+        assertTrue(index.remove(inList));
+        assertFalse(index.remove(inList));
+        assertEquals(null, index.get(inList));
+
+        // now that {3,4,5} is removed, verify results again
+        verify(index, 0L, new boolean[] {false, false, true, true});
+        verify(index, 1L, new boolean[] {false, false, false, true});
+        verify(index, 2L, new boolean[] {false, false, true, false});
+        verify(index, 3L, new boolean[] {false, false, true, true});
+        verify(index, 4L, new boolean[] {false, false, false, true});
+        verify(index, 5L, new boolean[] {false, false, false, false});
+        verify(index, 6L, new boolean[] {false, false, true, true});
+    }
+
     private void verify(FilterParamIndexBase index, Long testValue, boolean[] expected)
     {
         testBean.setLongBoxed(testValue);
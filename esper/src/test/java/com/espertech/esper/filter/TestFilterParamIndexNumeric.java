@@ -0,0 +1,143 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import com.espertech.esper.support.filter.SupportEventEvaluator;
+import junit.framework.TestCase;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class TestFilterParamIndexNumeric extends TestCase
+{
+    private SupportEventEvaluator testEvaluator;
+    private SupportBean testBean;
+    private EventBean testEventBean;
+    private EventType testEventType;
+    private List<FilterHandle> matchesList;
+
+    public void setUp()
+    {
+        testEvaluator = new SupportEventEvaluator();
+        testBean = new SupportBean();
+        testEventBean = SupportEventBeanFactory.createObject(testBean);
+        testEventType = testEventBean.getEventType();
+        matchesList = new LinkedList<FilterHandle>();
+    }
+
+    public void testEquals()
+    {
+        FilterParamIndexEqualsNumeric index = new FilterParamIndexEqualsNumeric(makeLookupable("intPrimitive"), new ReentrantReadWriteLock());
+        assertEquals(FilterOperator.EQUAL, index.getFilterOperator());
+        for (int i = 0; i < 1000; i++) {
+            index.put(i * 7, testEvaluator);
+        }
+        assertEquals(1000, index.size());
+
+        verifyIntPrimitive(index, 0, 1);
+        verifyIntPrimitive(index, 7 * 999, 1);
+        verifyIntPrimitive(index, 8, 0);
+        verifyIntPrimitive(index, -7, 0);
+
+        assertEquals(testEvaluator, index.get(14));
+        assertNull(index.get(14L));     // a constant of another type is not equal
+        assertTrue(index.remove(14));
+        assertFalse(index.remove(14));
+        verifyIntPrimitive(index, 14, 0);
+        assertEquals(999, index.size());
+    }
+
+    public void testEqualsDouble()
+    {
+        FilterParamIndexEqualsNumeric index = new FilterParamIndexEqualsNumeric(makeLookupable("doubleBoxed"), new ReentrantReadWriteLock());
+        index.put(1.5d, testEvaluator);
+        index.put(Double.NaN, testEvaluator);
+        index.put(0d, testEvaluator);
+
+        verifyDoubleBoxed(index, 1.5d, 1);
+        verifyDoubleBoxed(index, 1.25d, 0);
+        verifyDoubleBoxed(index, Double.NaN, 1);
+        verifyDoubleBoxed(index, 0d, 1);
+        verifyDoubleBoxed(index, -0d, 0);
+        verifyDoubleBoxed(index, null, 0);
+    }
+
+    public void testNotEquals()
+    {
+        FilterParamIndexNotEqualsNumeric index = new FilterParamIndexNotEqualsNumeric(makeLookupable("longBoxed"), new ReentrantReadWriteLock());
+        assertEquals(FilterOperator.NOT_EQUAL, index.getFilterOperator());
+        index.put(1L, testEvaluator);
+        index.put(2L, testEvaluator);
+        index.put(3L, testEvaluator);
+
+        verifyLongBoxed(index, 1L, 2);
+        verifyLongBoxed(index, 5L, 3);
+        verifyLongBoxed(index, null, 0);
+
+        assertTrue(index.remove(2L));
+        verifyLongBoxed(index, 1L, 1);
+    }
+
+    public void testIn()
+    {
+        FilterParamIndexInNumeric index = new FilterParamIndexInNumeric(makeLookupable("longBoxed"), new ReentrantReadWriteLock());
+        assertEquals(FilterOperator.IN_LIST_OF_VALUES, index.getFilterOperator());
+
+        MultiKeyUntyped inList = new MultiKeyUntyped(new Object[] {2L, 5L});
+        index.put(inList, testEvaluator);
+        inList = new MultiKeyUntyped(new Object[] {10L, 5L});
+        index.put(inList, testEvaluator);
+
+        verifyLongBoxed(index, 1L, 0);
+        verifyLongBoxed(index, 2L, 1);
+        verifyLongBoxed(index, 5L, 2);
+        verifyLongBoxed(index, 10L, 1);
+        verifyLongBoxed(index, null, 0);
+
+        assertEquals(testEvaluator, index.get(inList));
+        assertTrue(index.remove(inList));
+        assertFalse(index.remove(inList));
+        verifyLongBoxed(index, 5L, 1);
+        verifyLongBoxed(index, 10L, 0);
+    }
+
+    private void verifyIntPrimitive(FilterParamIndexBase index, int testValue, int numExpected)
+    {
+        testBean.setIntPrimitive(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private void verifyLongBoxed(FilterParamIndexBase index, Long testValue, int numExpected)
+    {
+        testBean.setLongBoxed(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private void verifyDoubleBoxed(FilterParamIndexBase index, Double testValue, int numExpected)
+    {
+        testBean.setDoubleBoxed(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private FilterSpecLookupable makeLookupable(String fieldName) {
+        return new FilterSpecLookupable(fieldName, testEventType.getGetter(fieldName), testEventType.getPropertyType(fieldName), false);
+    }
+}
@@ -160,6 +160,7 @@ public class TestFilterParamIndexRange extends TestCase
             index.put(range, testEvaluator);
         }
 
+        assertTrue(index.isIntervalTree());
         verifyDoublePrimitive(index, 5000, 0);
         verifyDoublePrimitive(index, 5000.5, 1);
         verifyDoublePrimitive(index, 5001, 0);
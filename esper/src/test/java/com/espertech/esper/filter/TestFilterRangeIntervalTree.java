@@ -0,0 +1,171 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class TestFilterRangeIntervalTree extends TestCase
+{
+    private SupportBean testBean;
+    private EventBean testEventBean;
+    private EventType testEventType;
+    private List<EventEvaluator> invoked;
+
+    public void setUp()
+    {
+        testBean = new SupportBean();
+        testEventBean = SupportEventBeanFactory.createObject(testBean);
+        testEventType = testEventBean.getEventType();
+        invoked = new ArrayList<EventEvaluator>();
+    }
+
+    public void testPutRemove()
+    {
+        FilterRangeIntervalTree<DoubleRange, Double> tree = new FilterRangeIntervalTree<DoubleRange, Double>(new DoubleRangeComparator());
+        EventEvaluator evalOne = new MyEvaluator();
+        EventEvaluator evalTwo = new MyEvaluator();
+        for (int i = 0; i < 100; i++) {
+            tree.put(new DoubleRange(i * 1d, i + 10d), i * 1d, i + 10d, evalOne);
+        }
+        tree.put(new DoubleRange(5d, 15d), 5d, 15d, evalTwo);
+        assertEquals(100, tree.size());
+
+        tree.matchContaining(14d, true, false, testEventBean, null);
+        assertEquals(10, invoked.size());
+        assertSame(evalTwo, invoked.get(0));
+
+        assertTrue(tree.remove(new DoubleRange(5d, 15d)));
+        assertFalse(tree.remove(new DoubleRange(5d, 15d)));
+        assertEquals(99, tree.size());
+        invoked.clear();
+        tree.matchNotContaining(15d, true, true, testEventBean, null);
+        assertEquals(99 - 11 + 1, invoked.size());
+    }
+
+    public void testSwitchThreshold()
+    {
+        FilterParamIndexDoubleRange index = new FilterParamIndexDoubleRange(makeLookupable("doublePrimitive"), new ReentrantReadWriteLock(), FilterOperator.RANGE_CLOSED, false, 4);
+        for (int i = 0; i < 5; i++) {
+            assertFalse(index.isIntervalTree());
+            index.put(new DoubleRange(i * 1d, i + 2d), new MyEvaluator());
+        }
+        assertTrue(index.isIntervalTree());
+        assertDouble(index, 3, 3);
+
+        index.remove(new DoubleRange(0d, 2d));
+        index.remove(new DoubleRange(1d, 3d));
+        assertTrue(index.isIntervalTree());
+        assertDouble(index, 3, 2);
+        index.remove(new DoubleRange(2d, 4d));
+        assertFalse(index.isIntervalTree());
+        assertDouble(index, 3, 1);
+    }
+
+    public void testRandomSameAsScan()
+    {
+        Random random = new Random(1);
+        FilterOperator[] operators = new FilterOperator[] {FilterOperator.RANGE_OPEN, FilterOperator.RANGE_CLOSED, FilterOperator.RANGE_HALF_OPEN, FilterOperator.RANGE_HALF_CLOSED,
+                FilterOperator.NOT_RANGE_OPEN, FilterOperator.NOT_RANGE_CLOSED, FilterOperator.NOT_RANGE_HALF_OPEN, FilterOperator.NOT_RANGE_HALF_CLOSED};
+        for (FilterOperator operator : operators) {
+            for (boolean copyOnWrite : new boolean[] {false, true}) {
+                runAssertionRandom(random, makeDouble(operator, copyOnWrite, 0), makeDouble(operator, copyOnWrite, Integer.MAX_VALUE), true);
+                runAssertionRandom(random, makeString(operator, copyOnWrite, 0), makeString(operator, copyOnWrite, Integer.MAX_VALUE), false);
+            }
+        }
+    }
+
+    private void runAssertionRandom(Random random, FilterParamIndexBase treeIndex, FilterParamIndexBase scanIndex, boolean isDouble)
+    {
+        List<Object> ranges = new ArrayList<Object>();
+        for (int step = 0; step < 1000; step++) {
+            int action = random.nextInt(10);
+            if (action < 4) {
+                int low = random.nextInt(100);
+                int high = low + random.nextInt(30);
+                Object range = isDouble ? new DoubleRange(low / 2d, high / 2d) : new StringRange(toString(low), toString(high));
+                EventEvaluator evaluator = new MyEvaluator();
+                treeIndex.put(range, evaluator);
+                scanIndex.put(range, evaluator);
+                ranges.add(range);
+            }
+            else if (action < 6 && !ranges.isEmpty()) {
+                Object range = ranges.remove(random.nextInt(ranges.size()));
+                assertEquals(scanIndex.remove(range), treeIndex.remove(range));
+            }
+            else {
+                int value = random.nextInt(140) - 5;
+                if (isDouble) {
+                    testBean.setDoublePrimitive(value / 2d);
+                }
+                else {
+                    testBean.setTheString(toString(value));
+                }
+                scanIndex.matchEvent(testEventBean, null);
+                List<EventEvaluator> expected = new ArrayList<EventEvaluator>(invoked);
+                invoked.clear();
+                treeIndex.matchEvent(testEventBean, null);
+                assertEquals(expected, invoked);
+                invoked.clear();
+            }
+        }
+    }
+
+    private FilterParamIndexBase makeDouble(FilterOperator operator, boolean copyOnWrite, int threshold)
+    {
+        if (operator.isRangeOperator()) {
+            return new FilterParamIndexDoubleRange(makeLookupable("doublePrimitive"), new ReentrantReadWriteLock(), operator, copyOnWrite, threshold);
+        }
+        return new FilterParamIndexDoubleRangeInverted(makeLookupable("doublePrimitive"), new ReentrantReadWriteLock(), operator, copyOnWrite, threshold);
+    }
+
+    private FilterParamIndexBase makeString(FilterOperator operator, boolean copyOnWrite, int threshold)
+    {
+        if (operator.isRangeOperator()) {
+            return new FilterParamIndexStringRange(makeLookupable("theString"), new ReentrantReadWriteLock(), operator, copyOnWrite, threshold);
+        }
+        return new FilterParamIndexStringRangeInverted(makeLookupable("theString"), new ReentrantReadWriteLock(), operator, copyOnWrite, threshold);
+    }
+
+    private void assertDouble(FilterParamIndexBase index, double value, int numExpected)
+    {
+        testBean.setDoublePrimitive(value);
+        index.matchEvent(testEventBean, null);
+        assertEquals(numExpected, invoked.size());
+        invoked.clear();
+    }
+
+    private static String toString(int value)
+    {
+        // pad so that string order is the same as number order
+        return String.format("%04d", value + 100);
+    }
+
+    private FilterSpecLookupable makeLookupable(String fieldName) {
+        return new FilterSpecLookupable(fieldName, testEventType.getGetter(fieldName), testEventType.getPropertyType(fieldName), false);
+    }
+
+    private class MyEvaluator implements EventEvaluator
+    {
+        public void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
+        {
+            invoked.add(this);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import com.espertech.esper.support.event.SupportEventTypeFactory;
+import com.espertech.esper.support.filter.SupportFilterHandle;
+import com.espertech.esper.support.filter.SupportFilterSpecBuilder;
+import junit.framework.TestCase;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TestFilterServiceCopyOnWrite extends TestCase
+{
+    private EventType eventType;
+    private FilterServiceCopyOnWrite filterService;
+
+    public void setUp()
+    {
+        eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+        filterService = new FilterServiceCopyOnWrite(false);
+    }
+
+    public void testEvalEvents()
+    {
+        SupportFilterHandle[] handles = new SupportFilterHandle[5];
+        FilterServiceEntry[] entries = new FilterServiceEntry[handles.length];
+        Object[][] filters = new Object[][] {
+                {"theString", FilterOperator.EQUAL, "E1"},
+                {"theString", FilterOperator.EQUAL, "E1", "intPrimitive", FilterOperator.GREATER, 10},
+                {"intPrimitive", FilterOperator.RANGE_CLOSED, 5, 15},
+                {"theString", FilterOperator.NOT_EQUAL, "E1"},
+                {}};
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = new SupportFilterHandle();
+            entries[i] = filterService.add(SupportFilterSpecBuilder.build(eventType, filters[i]).getValueSet(null, null, null), handles[i]);
+        }
+
+        assertMatches(makeEvent("E1", 11), handles, new boolean[] {true, true, true, false, true});
+        assertMatches(makeEvent("E2", 5), handles, new boolean[] {false, false, true, true, true});
+        assertMatches(makeEvent("E1", 1), handles, new boolean[] {true, false, false, false, true});
+
+        filterService.remove(handles[0], entries[0]);
+        filterService.remove(handles[2], entries[2]);
+        assertMatches(makeEvent("E1", 11), handles, new boolean[] {false, true, false, false, true});
+
+        for (int i = 0; i < handles.length; i++) {
+            if (i != 0 && i != 2) {
+                filterService.remove(handles[i], entries[i]);
+            }
+        }
+        assertMatches(makeEvent("E1", 11), handles, new boolean[] {false, false, false, false, false});
+        assertEquals(0, filterService.getFilterCountApprox());
+    }
+
+    public void testEvaluateWhileChanging() throws Exception
+    {
+        // stable filters that must always match while other filters come and go in the same indexes
+        final EventBean theEvent = makeEvent("E1", 10);
+        Object[][] stableFilters = new Object[][] {
+                {"theString", FilterOperator.EQUAL, "E1"},
+                {"theString", FilterOperator.EQUAL, "E1", "intPrimitive", FilterOperator.EQUAL, 10},
+                {"intPrimitive", FilterOperator.GREATER, 5},
+                {"intPrimitive", FilterOperator.RANGE_CLOSED, 0, 20},
+                {"theString", FilterOperator.NOT_EQUAL, "E2"}};
+        final Set<FilterHandle> stableHandles = new HashSet<FilterHandle>();
+        for (Object[] filter : stableFilters) {
+            SupportFilterHandle handle = new SupportFilterHandle();
+            filterService.add(SupportFilterSpecBuilder.build(eventType, filter).getValueSet(null, null, null), handle);
+            stableHandles.add(handle);
+        }
+
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicReference<String> failure = new AtomicReference<String>();
+        Thread[] readers = new Thread[3];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread(new Runnable() {
+                public void run() {
+                    List<FilterHandle> matches = new ArrayList<FilterHandle>();
+                    while (!done.get()) {
+                        matches.clear();
+                        filterService.evaluate(theEvent, matches);
+                        if (!matches.containsAll(stableHandles)) {
+                            failure.set("Missing stable filter, matched " + matches);
+                            return;
+                        }
+                    }
+                }
+            });
+            readers[i].start();
+        }
+
+        Random random = new Random(1);
+        for (int i = 0; i < 5000; i++) {
+            Object[] filter;
+            int value = random.nextInt(20);
+            switch (random.nextInt(4)) {
+                case 0:
+                    filter = new Object[] {"theString", FilterOperator.EQUAL, "E1", "intPrimitive", FilterOperator.EQUAL, value};
+                    break;
+                case 1:
+                    filter = new Object[] {"intPrimitive", FilterOperator.GREATER, value};
+                    break;
+                case 2:
+                    filter = new Object[] {"intPrimitive", FilterOperator.RANGE_CLOSED, value, value + 5};
+                    break;
+                default:
+                    filter = new Object[] {"theString", FilterOperator.NOT_EQUAL, "E" + value, "intPrimitive", FilterOperator.EQUAL, value};
+                    break;
+            }
+            SupportFilterHandle handle = new SupportFilterHandle();
+            FilterServiceEntry entry = filterService.add(SupportFilterSpecBuilder.build(eventType, filter).getValueSet(null, null, null), handle);
+            filterService.remove(handle, entry);
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertNull(failure.get());
+    }
+
+    public void testWriteLockBlocksEvaluate() throws Exception
+    {
+        final SupportFilterHandle handle = new SupportFilterHandle();
+        filterService.add(SupportFilterSpecBuilder.build(eventType, new Object[0]).getValueSet(null, null, null), handle);
+
+        filterService.acquireWriteLock();
+        final CountDownLatch evaluated = new CountDownLatch(1);
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                List<FilterHandle> matches = new ArrayList<FilterHandle>();
+                filterService.evaluate(makeEvent("E1", 1), matches);
+                if (matches.size() == 1) {
+                    evaluated.countDown();
+                }
+            }
+        });
+        thread.start();
+        assertFalse(evaluated.await(200, TimeUnit.MILLISECONDS));
+
+        // the write lock holder itself can still evaluate
+        List<FilterHandle> matches = new ArrayList<FilterHandle>();
+        filterService.evaluate(makeEvent("E1", 1), matches);
+        assertEquals(1, matches.size());
+
+        filterService.releaseWriteLock();
+        assertTrue(evaluated.await(10, TimeUnit.SECONDS));
+        thread.join();
+    }
+
+    private void assertMatches(EventBean theEvent, SupportFilterHandle[] handles, boolean[] expected)
+    {
+        List<FilterHandle> matches = new ArrayList<FilterHandle>();
+        filterService.evaluate(theEvent, matches);
+        for (int i = 0; i < handles.length; i++) {
+            assertEquals("handle " + i, expected[i], matches.contains(handles[i]));
+        }
+    }
+
+    private EventBean makeEvent(String theString, int intPrimitive)
+    {
+        return SupportEventBeanFactory.createObject(new SupportBean(theString, intPrimitive));
+    }
+}
@@ -52,6 +52,12 @@ public class TestIndexFactory extends TestCase
         assertTrue(getPropName(index).equals("string"));
         assertTrue(index.getFilterOperator() == FilterOperator.NOT_EQUAL);
 
+        // Create numeric "equals" and "not equals" indexes
+        index = IndexFactory.createIndex(makeLookupable("intPrimitive"), lockFactory, FilterOperator.EQUAL);
+        assertTrue(index instanceof FilterParamIndexEqualsNumeric);
+        index = IndexFactory.createIndex(makeLookupable("longBoxed"), lockFactory, FilterOperator.NOT_EQUAL);
+        assertTrue(index instanceof FilterParamIndexNotEqualsNumeric);
+
         // Create a range index
         index = IndexFactory.createIndex(makeLookupable("doubleBoxed"), lockFactory, FilterOperator.RANGE_CLOSED);
         assertTrue(index instanceof FilterParamIndexDoubleRange);
@@ -60,6 +66,8 @@ public class TestIndexFactory extends TestCase
 
         // Create a in-index
         index = IndexFactory.createIndex(makeLookupable("doubleBoxed"), lockFactory, FilterOperator.IN_LIST_OF_VALUES);
+        assertTrue(index instanceof FilterParamIndexInNumeric);
+        index = IndexFactory.createIndex(makeLookupable("string"), lockFactory, FilterOperator.IN_LIST_OF_VALUES);
         assertTrue(index instanceof FilterParamIndexIn);
         index = IndexFactory.createIndex(makeLookupable("doubleBoxed"), lockFactory, FilterOperator.NOT_IN_LIST_OF_VALUES);
         assertTrue(index instanceof FilterParamIndexNotIn);
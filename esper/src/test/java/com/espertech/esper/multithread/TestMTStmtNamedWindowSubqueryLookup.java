@@ -13,12 +13,16 @@ package com.espertech.esper.multithread;
 
 import com.espertech.esper.client.*;
 import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
 import com.espertech.esper.support.bean.SupportBean;
 import com.espertech.esper.support.client.SupportConfigFactory;
 import junit.framework.TestCase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -40,10 +44,76 @@ public class TestMTStmtNamedWindowSubqueryLookup extends TestCase
 
     public void testConcurrentSubquery() throws Exception
     {
-        trySend(3, 10000);
+        trySend(3, 10000, false);
     }
 
-    private void trySend(int numThreads, int numEventsPerThread) throws Exception
+    public void testConcurrentSubqueryConcurrentRead() throws Exception
+    {
+        trySend(3, 10000, true);
+    }
+
+    public void testConcurrentReadOnMergeUpdate() throws Exception
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        engine = EPServiceProviderManager.getDefaultProvider(config);
+        engine.initialize();
+
+        // each update removes and adds the single row of the named window, subqueries must observe it exactly once
+        engine.getEPAdministrator().createEPL("create schema MyUpdateEvent as (key string, intupd int)");
+        engine.getEPAdministrator().createEPL("@Hint('enable_window_subquery_indexshare') @Hint('index_concurrent_read') create window MyWindow#keepall() as (theString string, intval int)");
+        engine.getEPAdministrator().createEPL("on MyUpdateEvent mue merge MyWindow mw " +
+                "where mw.theString = mue.key " +
+                "when not matched then insert select key as theString, intupd as intval " +
+                "when matched then update set intval = mue.intupd");
+        final EPStatement targetStatement = engine.getEPAdministrator().createEPL("select (select count(*) from MyWindow mw where mw.theString = sb.theString) as val from SupportBean sb");
+        final Map<String, Object> update = new HashMap<String, Object>();
+        update.put("key", "K");
+        update.put("intupd", 0);
+        engine.getEPRuntime().sendEvent(update, "MyUpdateEvent");
+
+        final int numUpdates = 20000;
+        ExecutorService threadPool = Executors.newFixedThreadPool(3);
+        Future<Boolean> writer = threadPool.submit(new Callable<Boolean>() {
+            public Boolean call() throws Exception {
+                for (int i = 0; i < numUpdates; i++) {
+                    Map<String, Object> event = new HashMap<String, Object>();
+                    event.put("key", "K");
+                    event.put("intupd", i);
+                    engine.getEPRuntime().sendEvent(event, "MyUpdateEvent");
+                }
+                return true;
+            }
+        });
+        Future<Boolean> readers[] = new Future[2];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = threadPool.submit(new Callable<Boolean>() {
+                public Boolean call() throws Exception {
+                    SupportUpdateListener listener = new SupportUpdateListener();
+                    targetStatement.addListener(listener);
+                    for (int i = 0; i < numUpdates; i++) {
+                        engine.getEPRuntime().sendEvent(new SupportBean("K", 0));
+                        for (EventBean event : listener.getNewDataListFlattened()) {
+                            if ((Long) event.get("val") != 1L) {
+                                return false;
+                            }
+                        }
+                        listener.reset();
+                    }
+                    return true;
+                }
+            });
+        }
+
+        threadPool.shutdown();
+        threadPool.awaitTermination(30, TimeUnit.SECONDS);
+        assertTrue(writer.get());
+        for (Future<Boolean> reader : readers) {
+            assertTrue(reader.get());
+        }
+    }
+
+    private void trySend(int numThreads, int numEventsPerThread, boolean concurrentRead) throws Exception
     {
         Configuration config = SupportConfigFactory.getConfiguration();
         config.getEngineDefaults().getEventMeta().setDefaultEventRepresentation(Configuration.EventRepresentation.MAP); // use Map-type events for testing
@@ -54,7 +124,8 @@ public class TestMTStmtNamedWindowSubqueryLookup extends TestCase
         // setup statements
         engine.getEPAdministrator().createEPL("create schema MyUpdateEvent as (key string, intupd int)");
         engine.getEPAdministrator().createEPL("create schema MySchema as (theString string, intval int)");
-        EPStatement namedWindow = engine.getEPAdministrator().createEPL("create window MyWindow#keepall() as MySchema");
+        String hints = concurrentRead ? "@Hint('enable_window_subquery_indexshare') @Hint('index_concurrent_read') " : "";
+        EPStatement namedWindow = engine.getEPAdministrator().createEPL(hints + "create window MyWindow#keepall() as MySchema");
         engine.getEPAdministrator().createEPL("on MyUpdateEvent mue merge MyWindow mw " +
                 "where mw.theString = mue.key " +
                 "when not matched then insert select key as theString, intupd as intval " +
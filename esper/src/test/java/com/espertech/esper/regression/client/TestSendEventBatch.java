@@ -0,0 +1,155 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class TestSendEventBatch extends TestCase
+{
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+
+    public void setUp()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType(SupportBean.class);
+        Map<String, Object> mapType = new HashMap<String, Object>();
+        mapType.put("id", String.class);
+        config.addEventType("MyMapEvent", mapType);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        listener = new SupportUpdateListener();
+    }
+
+    public void tearDown() {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+    }
+
+    public void testDispatchOncePerBatch()
+    {
+        epService.getEPAdministrator().createEPL("select theString as c0, sum(intPrimitive) as c1 from SupportBean").addListener(listener);
+
+        epService.getEPRuntime().sendEventBatch(new Object[] {new SupportBean("E1", 10), new SupportBean("E2", 20), new SupportBean("E3", 30)});
+        assertEquals(1, listener.getNewDataList().size());
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), "c0,c1".split(","),
+                new Object[][] {{"E1", 10}, {"E2", 30}, {"E3", 60}});
+
+        epService.getEPRuntime().sendEventBatch(new Object[0]);
+        assertFalse(listener.isInvoked());
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E4", 1));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), "c0,c1".split(","), new Object[] {"E4", 61});
+
+        epService.getEPRuntime().sendEventBatch(Arrays.asList(new SupportBean("E5", 2), new SupportBean("E6", 3)));
+        assertEquals(1, listener.getNewDataList().size());
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), "c0,c1".split(","),
+                new Object[][] {{"E5", 63}, {"E6", 66}});
+    }
+
+    public void testInsertIntoOrderingSameAsSequential()
+    {
+        epService.getEPAdministrator().createEPL("insert into MyStream select theString, intPrimitive from SupportBean");
+        epService.getEPAdministrator().createEPL("select theString as c0, prev(1, theString) as c1 from MyStream#length(2)").addListener(listener);
+
+        epService.getEPRuntime().sendEventBatch(new Object[] {new SupportBean("E1", 1), new SupportBean("E2", 2), new SupportBean("E3", 3)});
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), "c0,c1".split(","),
+                new Object[][] {{"E1", null}, {"E2", "E1"}, {"E3", "E2"}});
+    }
+
+    public void testNamedWindowConsumerSameAsSequential()
+    {
+        epService.getEPAdministrator().createEPL("create window MyWindow#keepall() as SupportBean");
+        epService.getEPAdministrator().createEPL("insert into MyWindow select * from SupportBean");
+        epService.getEPAdministrator().createEPL("select theString as c0, (select count(*) from MyWindow) as c1 from MyWindow").addListener(listener);
+
+        epService.getEPRuntime().sendEventBatch(new Object[] {new SupportBean("E1", 1), new SupportBean("E2", 2)});
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), "c0,c1".split(","),
+                new Object[][] {{"E1", 1L}, {"E2", 2L}});
+    }
+
+    public void testTimeEventsInBatch()
+    {
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        epService.getEPAdministrator().createEPL("select irstream theString as c0 from SupportBean#time(10 sec)").addListener(listener);
+
+        epService.getEPRuntime().sendEventBatch(new Object[] {new SupportBean("E1", 1), new CurrentTimeEvent(5000), new SupportBean("E2", 2), new CurrentTimeEvent(10000)});
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), "c0".split(","), new Object[][] {{"E1"}, {"E2"}});
+        EPAssertionUtil.assertPropsPerRow(listener.getOldDataListFlattened(), "c0".split(","), new Object[][] {{"E1"}});
+    }
+
+    public void testEventSenderBatch()
+    {
+        epService.getEPAdministrator().createEPL("select id as c0 from MyMapEvent").addListener(listener);
+
+        EventSender sender = epService.getEPRuntime().getEventSender("MyMapEvent");
+        sender.sendEventBatch(new Object[] {makeMap("A"), makeMap("B")});
+        assertEquals(1, listener.getNewDataList().size());
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), "c0".split(","), new Object[][] {{"A"}, {"B"}});
+
+        try {
+            sender.sendEventBatch(new Object[] {makeMap("C"), new SupportBean()});
+            fail();
+        }
+        catch (EPException ex) {
+            // expected
+        }
+        assertFalse(listener.isInvoked());
+    }
+
+    public void testMaxLatencyDispatch()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType(SupportBean.class);
+        config.getEngineDefaults().getThreading().setSendBatchDispatchMaxLatency(1);
+        EPServiceProvider epServiceLatency = EPServiceProviderManager.getProvider(TestSendEventBatch.class.getSimpleName(), config);
+        epServiceLatency.getEPAdministrator().createEPL("select * from SupportBean(" + TestSendEventBatch.class.getName() + ".sleep(intPrimitive))").addListener(listener);
+
+        Object[] events = new Object[5];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new SupportBean("E" + i, 2);
+        }
+        epServiceLatency.getEPRuntime().sendEventBatch(events);
+        assertEquals(5, listener.getNewDataListFlattened().length);
+        assertEquals(5, listener.getNewDataList().size());
+
+        epServiceLatency.destroy();
+    }
+
+    public static boolean sleep(int msec) {
+        try {
+            Thread.sleep(msec);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return true;
+    }
+
+    private Map<String, Object> makeMap(String id) {
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("id", id);
+        return map;
+    }
+}
@@ -17,6 +17,7 @@ import com.espertech.esper.support.bean.SupportBean;
 import com.espertech.esper.support.client.SupportConfigFactory;
 import com.espertech.esper.support.epl.SupportStaticMethodLib;
 import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.core.thread.RingBufferBlockingQueue;
 import junit.framework.TestCase;
 
 import java.util.HashMap;
@@ -93,6 +94,7 @@ public class TestThreadedConfigInbound extends TestCase
 
         EPServiceProviderSPI spi = (EPServiceProviderSPI) epService;
         assertEquals(0, spi.getThreadingService().getInboundQueue().size());
+        assertTrue(spi.getThreadingService().getRingBufferQueues().isEmpty());
         assertNotNull(spi.getThreadingService().getInboundThreadPool());
 
         stmtOne.destroy();
@@ -102,6 +104,42 @@ public class TestThreadedConfigInbound extends TestCase
         epService.destroy();
     }
 
+    public void testRingBufferQueue() throws Exception
+    {
+        Configuration config = new Configuration();
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        config.getEngineDefaults().getThreading().setThreadPoolInbound(true);
+        config.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(2);
+        config.getEngineDefaults().getThreading().setThreadPoolInboundCapacity(16);
+        config.getEngineDefaults().getThreading().setThreadPoolQueueStrategy(ConfigurationEngineDefaults.Threading.QueueStrategy.RING_BUFFER);
+        config.addEventType("SupportBean", SupportBean.class);
+        EPServiceProvider epService = EPServiceProviderManager.getProvider(this.getClass().getSimpleName(), config);
+        epService.initialize();
+
+        SupportListenerTimerHRes listener = new SupportListenerTimerHRes();
+        epService.getEPAdministrator().createEPL("select * from SupportBean").addListener(listener);
+
+        for (int i = 0; i < 1000; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean());
+        }
+
+        long start = System.currentTimeMillis();
+        while (listener.getNewEvents().size() < 1000 && System.currentTimeMillis() - start < 5000) {
+            Thread.sleep(10);
+        }
+        assertEquals(1000, listener.getNewEvents().size());
+
+        EPServiceProviderSPI spi = (EPServiceProviderSPI) epService;
+        assertTrue(spi.getThreadingService().getInboundQueue() instanceof RingBufferBlockingQueue);
+        assertEquals(0, spi.getThreadingService().getInboundQueue().size());
+        RingBufferBlockingQueue<Runnable> ring = spi.getThreadingService().getRingBufferQueues().get("Inbound");
+        assertSame(spi.getThreadingService().getInboundQueue(), ring);
+        assertEquals(1, spi.getThreadingService().getRingBufferQueues().size());
+        assertEquals(16, ring.getCapacity());
+
+        epService.destroy();
+    }
+
     public static void sleepaLittle(long time) {
         try {
             Thread.sleep(time);
@@ -0,0 +1,130 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.support.bean.SupportBean;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestThreadedConfigInboundPartitioned extends TestCase
+{
+    private static final int NUM_KEYS = 20;
+    private static final int NUM_EVENTS_PER_KEY = 500;
+
+    private EPServiceProvider epService;
+
+    public void setUp()
+    {
+        Configuration config = new Configuration();
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        config.getEngineDefaults().getThreading().setThreadPoolInbound(true);
+        config.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(4);
+        config.getEngineDefaults().getThreading().setThreadPoolInboundPartitioned(true);
+        config.addEventType(SupportBean.class);
+        epService = EPServiceProviderManager.getProvider(TestThreadedConfigInboundPartitioned.class.getSimpleName(), config);
+        epService.initialize();
+    }
+
+    public void tearDown()
+    {
+        epService.destroy();
+    }
+
+    public void testKeyedSegmentedContext() throws Exception
+    {
+        epService.getEPAdministrator().createEPL("create context SegmentedByString partition by theString from SupportBean");
+        runAssertion("context SegmentedByString select theString, intPrimitive from SupportBean");
+    }
+
+    public void testHashSegmentedContext() throws Exception
+    {
+        epService.getEPAdministrator().createEPL("create context HashByString coalesce by consistent_hash_crc32(theString) from SupportBean granularity 16");
+        runAssertion("context HashByString select theString, intPrimitive from SupportBean");
+    }
+
+    public void testNoContext() throws Exception
+    {
+        runAssertion("select theString, intPrimitive from SupportBean");
+
+        EPServiceProviderSPI spi = (EPServiceProviderSPI) epService;
+        assertTrue(spi.getThreadingService().isInboundPartitioned());
+        assertNull(spi.getThreadingService().getInboundQueue());
+    }
+
+    private void runAssertion(String epl) throws Exception
+    {
+        MyOrderListener listener = new MyOrderListener();
+        epService.getEPAdministrator().createEPL(epl).addListener(listener);
+
+        for (int i = 0; i < NUM_EVENTS_PER_KEY; i++) {
+            for (int key = 0; key < NUM_KEYS; key++) {
+                epService.getEPRuntime().sendEvent(new SupportBean("K" + key, i));
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        while (listener.getCount() < NUM_KEYS * NUM_EVENTS_PER_KEY && System.currentTimeMillis() - start < 10000) {
+            Thread.sleep(20);
+        }
+        assertEquals(NUM_KEYS * NUM_EVENTS_PER_KEY, listener.getCount());
+        assertFalse(listener.isOutOfOrder());
+        for (Set<String> threads : listener.getThreadsPerKey().values()) {
+            assertEquals(1, threads.size());
+        }
+    }
+
+    public static class MyOrderListener implements UpdateListener
+    {
+        private final Map<String, Integer> lastPerKey = new HashMap<String, Integer>();
+        private final Map<String, Set<String>> threadsPerKey = new HashMap<String, Set<String>>();
+        private int count;
+        private boolean outOfOrder;
+
+        public synchronized void update(EventBean[] newEvents, EventBean[] oldEvents)
+        {
+            for (EventBean theEvent : newEvents) {
+                String key = (String) theEvent.get("theString");
+                int value = (Integer) theEvent.get("intPrimitive");
+                Integer last = lastPerKey.put(key, value);
+                if ((last == null && value != 0) || (last != null && last + 1 != value)) {
+                    outOfOrder = true;
+                }
+
+                Set<String> threads = threadsPerKey.get(key);
+                if (threads == null) {
+                    threads = new HashSet<String>();
+                    threadsPerKey.put(key, threads);
+                }
+                threads.add(Thread.currentThread().getName());
+                count++;
+            }
+        }
+
+        public synchronized int getCount()
+        {
+            return count;
+        }
+
+        public synchronized boolean isOutOfOrder()
+        {
+            return outOfOrder;
+        }
+
+        public synchronized Map<String, Set<String>> getThreadsPerKey()
+        {
+            return threadsPerKey;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+
+package com.espertech.esper.regression.context;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.bean.SupportBean_S0;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import com.espertech.esper.view.stream.StreamFactoryShareDesc;
+import junit.framework.TestCase;
+
+import java.util.List;
+
+public class TestContextPartitionedShareViews extends TestCase {
+
+    private EPServiceProvider epService;
+    private EPServiceProviderSPI spi;
+    private SupportUpdateListener listenerOne;
+    private SupportUpdateListener listenerTwo;
+
+    public void setUp()
+    {
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.addEventType("SupportBean", SupportBean.class);
+        configuration.addEventType("SupportBean_S0", SupportBean_S0.class);
+        configuration.getEngineDefaults().getViewResources().setShareContextPartitionViews(true);
+        epService = EPServiceProviderManager.getDefaultProvider(configuration);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        spi = (EPServiceProviderSPI) epService;
+        listenerOne = new SupportUpdateListener();
+        listenerTwo = new SupportUpdateListener();
+    }
+
+    public void tearDown() {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listenerOne = null;
+        listenerTwo = null;
+    }
+
+    public void testKeyedShared() {
+        sendTime(0);
+        epService.getEPAdministrator().createEPL("create context SegmentedByString partition by theString from SupportBean");
+
+        String[] fieldsOne = "theString,intPrimitive".split(",");
+        EPStatement stmtOne = epService.getEPAdministrator().createEPL("context SegmentedByString select irstream theString, intPrimitive from SupportBean#time(10 sec) where intPrimitive > 0");
+        stmtOne.addListener(listenerOne);
+        EPStatement stmtTwo = epService.getEPAdministrator().createEPL("context SegmentedByString select irstream theString, intPrimitive from SupportBean#time(10 sec) where intPrimitive < 15");
+        stmtTwo.addListener(listenerTwo);
+
+        sendEvent("E1", 10);
+        EPAssertionUtil.assertProps(listenerOne.assertOneGetNewAndReset(), fieldsOne, new Object[]{"E1", 10});
+        EPAssertionUtil.assertProps(listenerTwo.assertOneGetNewAndReset(), fieldsOne, new Object[]{"E1", 10});
+
+        sendTime(1000);
+        sendEvent("E2", -5);
+        assertFalse(listenerOne.isInvoked());
+        EPAssertionUtil.assertProps(listenerTwo.assertOneGetNewAndReset(), fieldsOne, new Object[]{"E2", -5});
+
+        sendTime(2000);
+        sendEvent("E1", 20);
+        EPAssertionUtil.assertProps(listenerOne.assertOneGetNewAndReset(), fieldsOne, new Object[]{"E1", 20});
+        assertFalse(listenerTwo.isInvoked());
+
+        // one stream per context partition, shared by both statements
+        assertShared("SegmentedByString", 2, 2);
+
+        // each statement iterates its own partition contents from the shared window
+        EPAssertionUtil.assertPropsPerRowAnyOrder(stmtOne.iterator(), fieldsOne, new Object[][]{{"E1", 10}, {"E1", 20}});
+        EPAssertionUtil.assertPropsPerRowAnyOrder(stmtTwo.iterator(), fieldsOne, new Object[][]{{"E1", 10}, {"E2", -5}});
+
+        sendTime(10000);
+        EPAssertionUtil.assertProps(listenerOne.assertOneGetOldAndReset(), fieldsOne, new Object[]{"E1", 10});
+        EPAssertionUtil.assertProps(listenerTwo.assertOneGetOldAndReset(), fieldsOne, new Object[]{"E1", 10});
+
+        sendTime(11000);
+        assertFalse(listenerOne.isInvoked());
+        EPAssertionUtil.assertProps(listenerTwo.assertOneGetOldAndReset(), fieldsOne, new Object[]{"E2", -5});
+
+        // a statement leaving the partition leaves the stream to the remaining statement
+        stmtOne.destroy();
+        assertShared("SegmentedByString", 2, 1);
+
+        sendEvent("E2", 7);
+        EPAssertionUtil.assertProps(listenerTwo.assertOneGetNewAndReset(), fieldsOne, new Object[]{"E2", 7});
+        assertFalse(listenerOne.isInvoked());
+
+        stmtTwo.destroy();
+        assertShared("SegmentedByString", 0, 0);
+    }
+
+    public void testInitTermShared() {
+        sendTime(0);
+        epService.getEPAdministrator().createEPL("create context StartS0EndS1 start SupportBean_S0 end after 5 sec");
+
+        EPStatement stmtOne = epService.getEPAdministrator().createEPL("context StartS0EndS1 select count(*) as cnt from SupportBean#length(2) where intPrimitive > 0");
+        stmtOne.addListener(listenerOne);
+        EPStatement stmtTwo = epService.getEPAdministrator().createEPL("context StartS0EndS1 select sum(intPrimitive) as total from SupportBean#length(2)");
+        stmtTwo.addListener(listenerTwo);
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1));
+        assertShared("StartS0EndS1", 1, 2);
+
+        sendEvent("E1", 1);
+        sendEvent("E2", -1);
+        sendEvent("E3", 3);
+        assertEquals(1L, listenerOne.getLastNewData()[0].get("cnt"));
+        assertEquals(2, listenerTwo.getLastNewData()[0].get("total"));
+
+        // context partition ends, the shared stream is released
+        sendTime(5000);
+        assertShared("StartS0EndS1", 0, 0);
+
+        listenerOne.reset();
+        listenerTwo.reset();
+        sendEvent("E4", 4);
+        assertFalse(listenerOne.isInvoked());
+        assertFalse(listenerTwo.isInvoked());
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(2));
+        sendEvent("E5", 5);
+        assertEquals(1L, listenerOne.assertOneGetNewAndReset().get("cnt"));
+        assertEquals(5, listenerTwo.assertOneGetNewAndReset().get("total"));
+    }
+
+    public void testNotSharedWhenDisabled() {
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.addEventType("SupportBean", SupportBean.class);
+        EPServiceProvider other = EPServiceProviderManager.getProvider(TestContextPartitionedShareViews.class.getName(), configuration);
+        other.initialize();
+        other.getEPAdministrator().createEPL("create context SegmentedByString partition by theString from SupportBean");
+        other.getEPAdministrator().createEPL("context SegmentedByString select * from SupportBean#length(2)").addListener(listenerOne);
+        other.getEPAdministrator().createEPL("context SegmentedByString select * from SupportBean#length(2)").addListener(listenerTwo);
+        other.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        assertTrue(listenerOne.getAndClearIsInvoked());
+        assertTrue(listenerTwo.getAndClearIsInvoked());
+        assertTrue(((EPServiceProviderSPI) other).getServicesContext().getStreamService().getSharedStreams().isEmpty());
+        other.destroy();
+    }
+
+    private void assertShared(String contextName, int numPartitions, int numReferences) {
+        List<StreamFactoryShareDesc> shared = spi.getServicesContext().getStreamService().getSharedStreams();
+        int count = 0;
+        for (StreamFactoryShareDesc desc : shared) {
+            if (contextName.equals(desc.getContextName())) {
+                assertEquals(numReferences, desc.getNumReferences());
+                count++;
+            }
+        }
+        assertEquals(numPartitions, count);
+    }
+
+    private void sendEvent(String theString, int intPrimitive) {
+        epService.getEPRuntime().sendEvent(new SupportBean(theString, intPrimitive));
+    }
+
+    private void sendTime(long msec) {
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(msec));
+    }
+}
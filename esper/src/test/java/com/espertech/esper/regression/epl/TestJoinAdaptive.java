@@ -0,0 +1,94 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.epl;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.epl.join.plan.AdaptiveIterationNode;
+import com.espertech.esper.epl.join.plan.QueryPlan;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean_S0;
+import com.espertech.esper.support.bean.SupportBean_S1;
+import com.espertech.esper.support.bean.SupportBean_S2;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import com.espertech.esper.support.epl.SupportQueryPlanIndexHook;
+import com.espertech.esper.support.util.IndexBackingTableInfo;
+import junit.framework.TestCase;
+
+public class TestJoinAdaptive extends TestCase implements IndexBackingTableInfo
+{
+    private EPServiceProvider epService;
+    private SupportUpdateListener listenerAdaptive;
+    private SupportUpdateListener listenerStatic;
+
+    public void setUp()
+    {
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.getEngineDefaults().getLogging().setEnableQueryPlan(true);
+        configuration.addEventType("S0", SupportBean_S0.class);
+        configuration.addEventType("S1", SupportBean_S1.class);
+        configuration.addEventType("S2", SupportBean_S2.class);
+        epService = EPServiceProviderManager.getDefaultProvider(configuration);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        listenerAdaptive = new SupportUpdateListener();
+        listenerStatic = new SupportUpdateListener();
+    }
+
+    public void tearDown() {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listenerAdaptive = null;
+        listenerStatic = null;
+    }
+
+    public void testAdaptiveSameResult()
+    {
+        String epl = "select * from S0#lastevent() as s0, S1#keepall() as s1, S2#keepall() as s2 where s0.p00 = s1.p10 and s1.p10 = s2.p20";
+        epService.getEPAdministrator().createEPL(INDEX_CALLBACK_HOOK + "@Hint('adaptive_join') " + epl).addListener(listenerAdaptive);
+        QueryPlan plan = SupportQueryPlanIndexHook.assertJoinAndReset();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(plan.getExecNodeSpecs()[i] instanceof AdaptiveIterationNode);
+        }
+        epService.getEPAdministrator().createEPL(epl).addListener(listenerStatic);
+
+        // stream 1 has many events per key, stream 2 has a single event per key
+        for (int i = 0; i < 500; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean_S1(i, "K" + (i % 5)));
+        }
+        for (int i = 0; i < 20; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean_S2(i, "K" + i));
+        }
+        runAssertionSameResult(1100);
+
+        // stream 2 grows beyond stream 1
+        for (int i = 0; i < 2000; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean_S2(i, "Z" + i));
+        }
+        runAssertionSameResult(1100);
+    }
+
+    private void runAssertionSameResult(int numLookups)
+    {
+        listenerStatic.reset();
+        listenerAdaptive.reset();
+        for (int i = 0; i < numLookups; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean_S0(i, "K" + (i % 10)));
+            int expected = listenerStatic.getNewDataListFlattened().length;
+            assertEquals(i % 10 < 5 ? 100 : 0, expected);
+            assertEquals(expected, listenerAdaptive.getNewDataListFlattened().length);
+            listenerStatic.reset();
+            listenerAdaptive.reset();
+        }
+    }
+}
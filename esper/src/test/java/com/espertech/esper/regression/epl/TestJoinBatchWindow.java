@@ -0,0 +1,99 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.epl;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.bean.SupportBean_S0;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestJoinBatchWindow extends TestCase
+{
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+
+    public void setUp()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        config.addEventType("SupportBean", SupportBean.class);
+        config.addEventType("SupportBean_S0", SupportBean_S0.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        listener = new SupportUpdateListener();
+    }
+
+    public void tearDown() {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+    }
+
+    public void testLengthBatchHashJoin()
+    {
+        String[] fields = "theString,intPrimitive,id".split(",");
+        epService.getEPAdministrator().createEPL("select irstream sb.theString as theString, sb.intPrimitive as intPrimitive, s0.id as id " +
+                "from SupportBean#length_batch(2) as sb, SupportBean_S0#length_batch(2) as s0 where sb.theString = s0.p00").addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 2));
+        assertFalse(listener.isInvoked());
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(10, "E1"));
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(11, "E3"));
+        EPAssertionUtil.assertPropsPerRowAnyOrder(listener.getLastNewData(), fields, new Object[][]{{"E1", 1, 10}});
+        listener.reset();
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E3", 3));
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 4));
+        EPAssertionUtil.assertPropsPerRowAnyOrder(listener.getLastNewData(), fields, new Object[][]{{"E3", 3, 11}, {"E1", 4, 10}});
+        EPAssertionUtil.assertPropsPerRowAnyOrder(listener.getLastOldData(), fields, new Object[][]{{"E1", 1, 10}});
+        listener.reset();
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(12, "E2"));
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(13, "E1"));
+        EPAssertionUtil.assertPropsPerRowAnyOrder(listener.getLastNewData(), fields, new Object[][]{{"E1", 4, 13}});
+        EPAssertionUtil.assertPropsPerRowAnyOrder(listener.getLastOldData(), fields, new Object[][]{{"E3", 3, 11}, {"E1", 4, 10}});
+    }
+
+    public void testTimeBatchRangeJoin()
+    {
+        String[] fields = "theString,id".split(",");
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        epService.getEPAdministrator().createEPL("select irstream sb.theString as theString, s0.id as id " +
+                "from SupportBean#time_batch(1 sec) as sb, SupportBean_S0#time_batch(1 sec) as s0 " +
+                "where sb.intPrimitive between s0.id and s0.id + 10").addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 5));
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 50));
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1));
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(45));
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(100));
+        assertFalse(listener.isInvoked());
+
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(1000));
+        EPAssertionUtil.assertPropsPerRowAnyOrder(listener.getNewDataListFlattened(), fields, new Object[][]{{"E1", 1}, {"E2", 45}});
+        listener.reset();
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E3", 12));
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(2000));
+        assertEquals(0, listener.getNewDataListFlattened().length);
+        EPAssertionUtil.assertPropsPerRowAnyOrder(listener.getOldDataListFlattened(), fields, new Object[][]{{"E1", 1}, {"E2", 45}});
+    }
+}
@@ -17,6 +17,10 @@ import com.espertech.esper.client.scopetest.SupportUpdateListener;
 import com.espertech.esper.core.service.EPServiceProviderSPI;
 import com.espertech.esper.event.EventTypeMetadata;
 import com.espertech.esper.event.EventTypeSPI;
+import com.espertech.esper.event.bean.ArrayLambdaPropertyGetter;
+import com.espertech.esper.event.bean.KeyedLambdaPropertyGetter;
+import com.espertech.esper.event.bean.LambdaPropertyGetter;
+import com.espertech.esper.event.bean.ReflectionPropMethodGetter;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.support.bean.*;
 import com.espertech.esper.support.client.SupportConfigFactory;
@@ -157,6 +161,54 @@ public class TestLegacyBeanEvents extends TestCase
         tryFinalClass(ConfigurationEventTypeLegacy.CodeGeneration.DISABLED);
     }
 
+    public void testPropertyGetterCodegenLambda()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.getEngineDefaults().getEventMeta().setPropertyGetterCodegen(ConfigurationEngineDefaults.PropertyGetterCodegen.LAMBDA);
+        config.addEventType("MyComplexEvent", SupportBeanComplexProps.class);
+        ConfigurationEventTypeLegacy legacyDef = new ConfigurationEventTypeLegacy();
+        legacyDef.setCodeGeneration(ConfigurationEventTypeLegacy.CodeGeneration.DISABLED);
+        config.addEventType("MyNoCodeGenEvent", SupportBean.class.getName(), legacyDef);
+
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+
+        EventType complexType = epService.getEPAdministrator().getConfiguration().getEventType("MyComplexEvent");
+        assertTrue(complexType.getGetter("simpleProperty") instanceof LambdaPropertyGetter);
+        assertTrue(complexType.getGetter("indexed[1]") instanceof KeyedLambdaPropertyGetter);
+        assertTrue(complexType.getGetter("mapped('keyOne')") instanceof KeyedLambdaPropertyGetter);
+        assertTrue(complexType.getGetter("arrayProperty[1]") instanceof ArrayLambdaPropertyGetter);
+        EventType noCodeGenType = epService.getEPAdministrator().getConfiguration().getEventType("MyNoCodeGenEvent");
+        assertTrue(noCodeGenType.getGetter("intPrimitive") instanceof ReflectionPropMethodGetter);
+
+        String[] fields = "simpleProperty,indexed,mapped,arrayProperty,nestedValue,nestedNestedValue".split(",");
+        String statementText = "select simpleProperty, indexed[1] as indexed, mapped('keyOne') as mapped, arrayProperty[2] as arrayProperty, " +
+                "nested.nestedValue as nestedValue, nested.nestedNested.nestedNestedValue as nestedNestedValue " +
+                "from MyComplexEvent(indexed[0] = 1 and mapped('keyTwo') = 'valueTwo')";
+        EPStatement statement = epService.getEPAdministrator().createEPL(statementText);
+        SupportUpdateListener listener = new SupportUpdateListener();
+        statement.addListener(listener);
+
+        SupportBeanComplexProps bean = SupportBeanComplexProps.makeDefaultBean();
+        epService.getEPRuntime().sendEvent(bean);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields,
+                new Object[] {bean.getSimpleProperty(), bean.getIndexed(1), bean.getMapped("keyOne"), bean.getArrayProperty()[2],
+                bean.getNested().getNestedValue(), bean.getNested().getNestedNested().getNestedNestedValue()});
+
+        bean.setIndexed(0, 100);
+        epService.getEPRuntime().sendEvent(bean);
+        assertFalse(listener.isInvoked());
+
+        statement = epService.getEPAdministrator().createEPL("select intPrimitive from MyNoCodeGenEvent(theString = 'E1')");
+        statement.addListener(listener);
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 10));
+        assertEquals(10, listener.assertOneGetNewAndReset().get("intPrimitive"));
+
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        epService.destroy();
+    }
+
     private void tryPublicAccessors(ConfigurationEventTypeLegacy.CodeGeneration codeGeneration)
     {
         Configuration config = SupportConfigFactory.getConfiguration();
@@ -237,6 +237,15 @@ public class TestPlugInEventRepresentation extends TestCase
         EPAssertionUtil.assertAllPropsSortedByName(listeners[0].assertOneGetNewAndReset(), new Object[]{"A", "B"});
         assertFalse(listeners[3].isInvoked() || listeners[1].isInvoked() || listeners[2].isInvoked());
 
+        // batch sending by a plug-in event sender that does not override batch sending
+        sender.sendEventBatch(new Object[] {makeProperties(new String[][] {{"r1", "A1"}, {"t1", "B1"}}), makeProperties(new String[][] {{"r1", "A2"}, {"t1", "B2"}})});
+        EventBean[] received = listeners[0].getNewDataListFlattened();
+        assertEquals(2, received.length);
+        EPAssertionUtil.assertAllPropsSortedByName(received[0], new Object[]{"A1", "B1"});
+        EPAssertionUtil.assertAllPropsSortedByName(received[1], new Object[]{"A2", "B2"});
+        listeners[0].reset();
+        assertFalse(listeners[3].isInvoked() || listeners[1].isInvoked() || listeners[2].isInvoked());
+
         sender = epService.getEPRuntime().getEventSender("TestTypeTwo");
         sender.sendEvent(makeProperties(new String[][] {{"r2", "C"}, {"t2", "D"}}));
         EPAssertionUtil.assertAllPropsSortedByName(listeners[1].assertOneGetNewAndReset(), new Object[]{"C", "D"});
@@ -0,0 +1,192 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+
+package com.espertech.esper.regression.expr;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TestFilterExpressionsCompiled extends TestCase
+{
+    private static final String[] FILTERS = new String[] {
+            "intPrimitive < longPrimitive",
+            "intPrimitive + 1 > longPrimitive",
+            "intBoxed = longBoxed",
+            "intBoxed != longBoxed",
+            "intBoxed is longBoxed",
+            "intBoxed is not longBoxed",
+            "intBoxed = intPrimitive",
+            "doubleBoxed >= intBoxed",
+            "not (intBoxed < longBoxed)",
+            "intBoxed < longBoxed or doubleBoxed > longPrimitive",
+            "intBoxed < longBoxed and doublePrimitive > longPrimitive",
+            "theString > 'E' and theString < intBoxed.toString()",
+            "boolBoxed = (intPrimitive > 2)",
+            "Math.abs(intPrimitive) > longPrimitive or theString = intBoxed.toString()",
+            "floatPrimitive <= doubleBoxed",
+            "intBoxed is not doubleBoxed",
+            "not (intBoxed = null) and longBoxed <= intPrimitive",
+            "(intBoxed > 1 or boolBoxed) and not boolBoxed",
+    };
+
+    private static final List<String> callers = new ArrayList<String>();
+
+    private EPServiceProvider epServiceInterpreted;
+    private EPServiceProvider epServiceCompiled;
+
+    public void setUp()
+    {
+        epServiceInterpreted = makeEngine("TestFilterExpressionsInterpreted", false);
+        epServiceCompiled = makeEngine("TestFilterExpressionsCompiled", true);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epServiceCompiled, this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        epServiceInterpreted.destroy();
+        epServiceCompiled.destroy();
+    }
+
+    public void testSameAsInterpreted()
+    {
+        List<SupportUpdateListener> listenersInterpreted = new ArrayList<SupportUpdateListener>();
+        List<SupportUpdateListener> listenersCompiled = new ArrayList<SupportUpdateListener>();
+        for (String filter : FILTERS) {
+            listenersInterpreted.add(createStatement(epServiceInterpreted, filter));
+            listenersCompiled.add(createStatement(epServiceCompiled, filter));
+        }
+
+        Random random = new Random(1);
+        for (int i = 0; i < 500; i++) {
+            SupportBean bean = makeEvent(random);
+            epServiceInterpreted.getEPRuntime().sendEvent(bean);
+            epServiceCompiled.getEPRuntime().sendEvent(bean);
+            for (int j = 0; j < FILTERS.length; j++) {
+                assertEquals("Filter " + FILTERS[j] + " for event " + bean, listenersInterpreted.get(j).getAndClearIsInvoked(), listenersCompiled.get(j).getAndClearIsInvoked());
+            }
+        }
+    }
+
+    public void testSharedProperties()
+    {
+        // many statements with expressions reading the same properties
+        SupportUpdateListener[] listeners = new SupportUpdateListener[250];
+        for (int i = 0; i < listeners.length; i++) {
+            if (i < 200) {
+                listeners[i] = createStatement(epServiceCompiled, "intPrimitive + " + i + " < longPrimitive and theString != 'x'");
+            }
+            else {
+                listeners[i] = createStatement(epServiceCompiled, "theString.length() = 2");
+            }
+        }
+
+        SupportBean bean = new SupportBean("E1", 0);
+        bean.setLongPrimitive(20);
+        epServiceCompiled.getEPRuntime().sendEvent(bean);
+        for (int i = 0; i < listeners.length; i++) {
+            assertEquals(i < 20 || i >= 200, listeners[i].getAndClearIsInvoked());
+        }
+
+        bean = new SupportBean("x", 0);
+        bean.setLongPrimitive(100);
+        epServiceCompiled.getEPRuntime().sendEvent(bean);
+        for (SupportUpdateListener listener : listeners) {
+            assertFalse(listener.getAndClearIsInvoked());
+        }
+    }
+
+    public void testGeneratedCode()
+    {
+        // an interpreted function reports the classes that evaluate it
+        callers.clear();
+        SupportUpdateListener listener = createStatement(epServiceCompiled, "intPrimitive < longPrimitive and " + this.getClass().getName() + ".recordCallers()");
+
+        SupportBean bean = new SupportBean("E1", 1);
+        bean.setLongPrimitive(2);
+        epServiceCompiled.getEPRuntime().sendEvent(bean);
+        assertTrue(listener.getAndClearIsInvoked());
+
+        boolean found = false;
+        for (String caller : callers) {
+            found |= caller.startsWith("com.espertech.esper.filter.generated.");
+        }
+        assertTrue("Generated code not found in " + callers, found);
+    }
+
+    public void testGeneratedCodeShared()
+    {
+        // statements of the same code use the same generated class, also after the index changed
+        createStatement(epServiceCompiled, "intPrimitive > longPrimitive + 100");
+        List<String> generatedClasses = new ArrayList<String>();
+        for (int i = 0; i < 3; i++) {
+            callers.clear();
+            EPStatement stmt = epServiceCompiled.getEPAdministrator().createEPL("select * from SupportBean(intPrimitive < longPrimitive + " + i + " and " + this.getClass().getName() + ".recordCallers())");
+            SupportBean bean = new SupportBean("E1", 1);
+            bean.setLongPrimitive(2);
+            epServiceCompiled.getEPRuntime().sendEvent(bean);
+            for (String caller : callers) {
+                if (caller.startsWith("com.espertech.esper.filter.generated.")) {
+                    generatedClasses.add(caller);
+                }
+            }
+            stmt.destroy();
+        }
+        assertEquals(3, generatedClasses.size());
+        assertEquals(generatedClasses.get(0), generatedClasses.get(1));
+        assertEquals(generatedClasses.get(0), generatedClasses.get(2));
+    }
+
+    public static boolean recordCallers()
+    {
+        for (StackTraceElement element : Thread.currentThread().getStackTrace()) {
+            callers.add(element.getClassName());
+        }
+        return true;
+    }
+
+    private SupportUpdateListener createStatement(EPServiceProvider epService, String filter)
+    {
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select * from SupportBean(" + filter + ")").addListener(listener);
+        return listener;
+    }
+
+    private SupportBean makeEvent(Random random)
+    {
+        SupportBean bean = new SupportBean(random.nextInt(4) == 0 ? null : "E" + random.nextInt(10), random.nextInt(6) - 1);
+        bean.setLongPrimitive(random.nextInt(6));
+        bean.setDoublePrimitive(random.nextInt(12) / 2d);
+        bean.setIntBoxed(random.nextInt(4) == 0 ? null : Integer.valueOf(random.nextInt(5)));
+        bean.setLongBoxed(random.nextInt(4) == 0 ? null : Long.valueOf(random.nextInt(5)));
+        bean.setDoubleBoxed(random.nextInt(4) == 0 ? null : Double.valueOf(random.nextInt(10) / 2d));
+        bean.setBoolBoxed(random.nextInt(3) == 0 ? null : random.nextBoolean());
+        return bean;
+    }
+
+    private EPServiceProvider makeEngine(String uri, boolean compile)
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        config.getEngineDefaults().getExecution().setFilterExprCompile(compile);
+        EPServiceProvider epService = EPServiceProviderManager.getProvider(uri, config);
+        epService.initialize();
+        return epService;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.nwtable;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.bean.SupportBean_S0;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.math.BigDecimal;
+
+public class TestInfraFAFParallel extends TestCase
+{
+    private final static int NUM_EVENTS = 20000;
+
+    private EPServiceProvider epService;
+
+    public void setUp()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        config.addEventType("SupportBean_S0", SupportBean_S0.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    public void tearDown() {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+    }
+
+    public void testNamedWindow() {
+        epService.getEPAdministrator().createEPL("create window MyWindow#keepall() as SupportBean");
+        epService.getEPAdministrator().createEPL("insert into MyWindow select * from SupportBean");
+        sendEvents();
+
+        runAssertionSameResult("select count(*) as cnt, sum(intPrimitive) as total from MyWindow where intPrimitive % 3 = 0", "cnt,total");
+        runAssertionSameResult("select count(*) as cnt from MyWindow(intPrimitive > 100) where theString like 'E1%'", "cnt");
+        runAssertionSameResult("select theString, intPrimitive from MyWindow where intPrimitive % 1000 = 7", "theString,intPrimitive");
+
+        // parallel filtering preserves the order of the snapshot
+        EPOnDemandQueryResult result = epService.getEPRuntime().executeQuery("@Hint('fire_and_forget_parallel') select intPrimitive from MyWindow where intPrimitive % 5000 = 1");
+        EPAssertionUtil.assertPropsPerRow(result.getArray(), "intPrimitive".split(","), new Object[][]{{1}, {5001}, {10001}, {15001}});
+    }
+
+    public void testAggregation() {
+        epService.getEPAdministrator().createEPL("create window MyWindow#keepall() as SupportBean");
+        epService.getEPAdministrator().createEPL("insert into MyWindow select * from SupportBean");
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            SupportBean bean = new SupportBean("E" + i, i);
+            bean.setLongPrimitive(i * 1000L);
+            bean.setIntBoxed(i % 3 == 0 ? null : i % 100);
+            bean.setBigDecimal(new BigDecimal(i % 10));
+            epService.getEPRuntime().sendEvent(bean);
+        }
+
+        // partial aggregation per segment, merged
+        String fields = "c0,c1,c2,c3,c4,c5,c6,c7,c8";
+        String select = "select count(*) as c0, count(intBoxed) as c1, sum(intPrimitive) as c2, sum(longPrimitive) as c3, avg(intBoxed) as c4, " +
+                "min(intBoxed) as c5, max(theString) as c6, sum(bigDecimal) as c7, sum(intPrimitive, intPrimitive > 10000) as c8 from MyWindow";
+        runAssertionSameResult(select, fields);
+        runAssertionSameResult(select + " where intPrimitive % 3 = 1", fields);
+        runAssertionSameResult(select + " where intPrimitive < 0", fields);
+        runAssertionSameResult("select sum(intPrimitive) / count(*) as c0 from MyWindow having count(*) > 0", "c0");
+
+        // aggregation functions that do not merge partial states aggregate after filtering
+        runAssertionSameResult("select median(intPrimitive) as c0, count(distinct intBoxed) as c1 from MyWindow where intPrimitive % 3 = 1", "c0,c1");
+
+        EPOnDemandPreparedQuery prepared = epService.getEPRuntime().prepareQuery("@Hint('fire_and_forget_parallel') select count(*) as c0, sum(intPrimitive) as c1 from MyWindow where intPrimitive < 10000");
+        for (int i = 0; i < 2; i++) {
+            EPAssertionUtil.assertProps(prepared.execute().getArray()[0], "c0,c1".split(","), new Object[] {10000L, 49995000});
+        }
+    }
+
+    public void testNonConstantPattern() {
+        epService.getEPAdministrator().createEPL("create window MyWindow#keepall() as SupportBean_S0");
+        epService.getEPAdministrator().createEPL("insert into MyWindow select * from SupportBean_S0");
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            String pattern = i % 3 == 0 ? "E%" : (i % 3 == 1 ? "X%" : "%" + (i % 10));
+            epService.getEPRuntime().sendEvent(new SupportBean_S0(i, "E" + i, pattern, pattern.replace("%", ".*")));
+        }
+
+        runAssertionSameResult("select id from MyWindow where p00 like p01 order by id", "id");
+        runAssertionSameResult("select count(*) as cnt from MyWindow where p00 like p01", "cnt");
+        runAssertionSameResult("select count(*) as cnt from MyWindow where p00 regexp p02", "cnt");
+        runAssertionSameResult("select count(*) as cnt from MyWindow where p00 like '%5' and p01 like 'E%'", "cnt");
+    }
+
+    public void testTableGrouped() {
+        epService.getEPAdministrator().createEPL("create table MyTable as (theString string primary key, total sum(int))");
+        epService.getEPAdministrator().createEPL("into table MyTable select sum(intPrimitive) as total from SupportBean group by theString");
+        sendEvents();
+
+        runAssertionSameResult("select count(*) as cnt, sum(total) as alltotal from MyTable where total % 2 = 0", "cnt,alltotal");
+        runAssertionSameResult("select theString, total from MyTable where total between 100 and 110 order by theString", "theString,total");
+    }
+
+    public void testContextPartitioned() {
+        epService.getEPAdministrator().createEPL("create context ByBool partition by boolPrimitive from SupportBean");
+        epService.getEPAdministrator().createEPL("context ByBool create window MyWindow#keepall() as SupportBean");
+        epService.getEPAdministrator().createEPL("context ByBool insert into MyWindow select * from SupportBean");
+        sendEvents();
+
+        runAssertionSameResult("context ByBool select count(*) as cnt, sum(intPrimitive) as total from MyWindow where intPrimitive % 7 = 0", "cnt,total");
+    }
+
+    public void testEngineWideConfig() {
+        epService.getEPAdministrator().getConfiguration().addVariable("myvar", int.class, 10);
+        epService.getEPAdministrator().createEPL("create window MyWindow#keepall() as SupportBean");
+        epService.getEPAdministrator().createEPL("insert into MyWindow select * from SupportBean");
+        sendEvents();
+
+        // queries that reference variables evaluate single-threaded
+        EPOnDemandQueryResult result = epService.getEPRuntime().executeQuery("@Hint('fire_and_forget_parallel') select count(*) as cnt from MyWindow where intPrimitive < myvar");
+        assertEquals(10L, result.getArray()[0].get("cnt"));
+
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        config.getEngineDefaults().getExecution().setFireAndForgetParallel(true);
+        EPServiceProvider engine = EPServiceProviderManager.getProvider(this.getClass().getName(), config);
+        engine.getEPAdministrator().createEPL("create window MyWindow#keepall() as SupportBean");
+        engine.getEPAdministrator().createEPL("insert into MyWindow select * from SupportBean");
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            engine.getEPRuntime().sendEvent(new SupportBean("E" + i, i));
+        }
+        result = engine.getEPRuntime().executeQuery("select count(*) as cnt from MyWindow where intPrimitive >= 100");
+        assertEquals((long) NUM_EVENTS - 100, result.getArray()[0].get("cnt"));
+        engine.destroy();
+    }
+
+    private void runAssertionSameResult(String epl, String fieldCSV) {
+        String[] fields = fieldCSV.split(",");
+        EPOnDemandQueryResult expected = epService.getEPRuntime().executeQuery(epl);
+        EPOnDemandQueryResult parallel = epService.getEPRuntime().executeQuery("@Hint('fire_and_forget_parallel') " + epl);
+        EPOnDemandPreparedQuery prepared = epService.getEPRuntime().prepareQuery("@Hint('fire_and_forget_parallel') " + epl);
+
+        assertTrue(expected.getArray().length > 0);
+        Object[][] expectedRows = new Object[expected.getArray().length][];
+        for (int i = 0; i < expectedRows.length; i++) {
+            expectedRows[i] = new Object[fields.length];
+            for (int j = 0; j < fields.length; j++) {
+                expectedRows[i][j] = expected.getArray()[i].get(fields[j]);
+            }
+        }
+        EPAssertionUtil.assertPropsPerRow(parallel.getArray(), fields, expectedRows);
+        EPAssertionUtil.assertPropsPerRow(prepared.execute().getArray(), fields, expectedRows);
+    }
+
+    private void sendEvents() {
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            SupportBean bean = new SupportBean("E" + i, i);
+            bean.setBoolPrimitive(i % 2 == 0);
+            epService.getEPRuntime().sendEvent(bean);
+        }
+    }
+}
@@ -19,6 +19,7 @@ import com.espertech.esper.client.scopetest.SupportUpdateListener;
 import com.espertech.esper.core.service.EPServiceProviderSPI;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.bean.SupportBean_S0;
 import com.espertech.esper.support.client.SupportConfigFactory;
 import junit.framework.TestCase;
 
@@ -52,4 +53,37 @@ public class TestNamedWindowIndex extends TestCase
 
         EPAssertionUtil.assertPropsPerRowAnyOrder(stmtWindow.iterator(), "theString,intPrimitive".split(","), new Object[][]{{"E0", 5}, {"E1", 4}, {"E2", 3}});
     }
+
+    public void testConcurrentReadSubquery() {
+        epService.getEPAdministrator().getConfiguration().addEventType("SupportBean", SupportBean.class);
+        epService.getEPAdministrator().getConfiguration().addEventType("SupportBean_S0", SupportBean_S0.class);
+        epService.getEPAdministrator().createEPL("@Hint('enable_window_subquery_indexshare') @Hint('index_concurrent_read') create window MyWindowCR#length(4) as SupportBean");
+        epService.getEPAdministrator().createEPL("insert into MyWindowCR select * from SupportBean");
+
+        SupportUpdateListener listener = new SupportUpdateListener();
+        String epl = "select " +
+                "(select sum(intPrimitive) from MyWindowCR mw where mw.theString = s0.p00) as c0, " +
+                "(select count(*) from MyWindowCR mw where mw.theString = s0.p00 and mw.intPrimitive = s0.id) as c1 " +
+                "from SupportBean_S0 s0";
+        epService.getEPAdministrator().createEPL(epl).addListener(listener);
+        String[] fields = "c0,c1".split(",");
+
+        epService.getEPRuntime().sendEvent(new SupportBean("A", 1));
+        epService.getEPRuntime().sendEvent(new SupportBean("A", 2));
+        epService.getEPRuntime().sendEvent(new SupportBean("B", 3));
+        epService.getEPRuntime().sendEvent(new SupportBean("A", 1));
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1, "A"));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {4, 2L});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("B", 5));
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1, "A"));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {3, 1L});
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(3, "B"));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {8, 1L});
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1, "C"));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {null, 0L});
+    }
 }
@@ -0,0 +1,133 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.resultset;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.soda.EPStatementObjectModel;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestAggregateExtApproxCountDistinct extends TestCase {
+
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+
+    public void setUp()
+    {
+        listener = new SupportUpdateListener();
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+    }
+
+    public void testGrouped()
+    {
+        String epl = "select theString, approx_count_distinct(intPrimitive) as cnt from SupportBean group by theString";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        stmt.addListener(listener);
+        assertEquals(Long.class, stmt.getEventType().getPropertyType("cnt"));
+
+        runAssertionGrouped();
+
+        stmt.destroy();
+        EPStatementObjectModel model = epService.getEPAdministrator().compileEPL(epl);
+        stmt = epService.getEPAdministrator().create(model);
+        stmt.addListener(listener);
+        assertEquals(epl, model.toEPL());
+
+        runAssertionGrouped();
+    }
+
+    public void testRollup()
+    {
+        String[] fields = "theString,intPrimitive,cnt".split(",");
+        epService.getEPAdministrator().createEPL("select theString, intPrimitive, approx_count_distinct(longPrimitive) as cnt " +
+                "from SupportBean group by rollup(theString, intPrimitive)").addListener(listener);
+
+        sendEvent("E1", 1, 10);
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), fields, new Object[][]{{"E1", 1, 1L}, {"E1", null, 1L}, {null, null, 1L}});
+
+        sendEvent("E1", 2, 20);
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), fields, new Object[][]{{"E1", 2, 1L}, {"E1", null, 2L}, {null, null, 2L}});
+
+        sendEvent("E2", 1, 10);
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), fields, new Object[][]{{"E2", 1, 1L}, {"E2", null, 1L}, {null, null, 2L}});
+    }
+
+    public void testTable()
+    {
+        epService.getEPAdministrator().createEPL("create table MyTable(theString string primary key, cnt approx_count_distinct(int))");
+        epService.getEPAdministrator().createEPL("into table MyTable select approx_count_distinct(intPrimitive) as cnt from SupportBean(theString != 'read') group by theString");
+        epService.getEPAdministrator().createEPL("select MyTable['P1'].cnt as c1, MyTable['P2'].cnt as c2 from SupportBean(theString = 'read')").addListener(listener);
+
+        for (int i = 0; i < 10000; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("P1", i % 5000));
+            epService.getEPRuntime().sendEvent(new SupportBean("P2", i % 7));
+        }
+        epService.getEPRuntime().sendEvent(new SupportBean("read", 0));
+        EventBean theEvent = listener.assertOneGetNewAndReset();
+        assertEquals(5000, (Long) theEvent.get("c1"), 5000 * 0.03);
+        assertEquals(7L, theEvent.get("c2"));
+    }
+
+    public void testInvalid()
+    {
+        tryInvalid("select approx_count_distinct(intPrimitive) from SupportBean#length(10)",
+                "Error starting statement: Failed to validate select-clause expression 'approx_count_distinct(intPrimitive)': The approx_count_distinct aggregation function does not allow values to leave and cannot be used with data windows, use count(distinct ...) instead [select approx_count_distinct(intPrimitive) from SupportBean#length(10)]");
+        tryInvalid("select approx_count_distinct(intPrimitive, 1) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approx_count_distinct(intPrimitive,1)': The approx_count_distinct aggregation function requires a single parameter, an expression returning the values to count [select approx_count_distinct(intPrimitive, 1) from SupportBean]");
+    }
+
+    private void runAssertionGrouped() {
+        String[] fields = "theString,cnt".split(",");
+
+        epService.getEPRuntime().sendEvent(new SupportBean("G1", 10));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"G1", 1L});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("G1", 10));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"G1", 1L});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("G2", 10));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"G2", 1L});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("G1", 11));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"G1", 2L});
+    }
+
+    private void sendEvent(String theString, int intPrimitive, long longPrimitive) {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setLongPrimitive(longPrimitive);
+        epService.getEPRuntime().sendEvent(bean);
+    }
+
+    private void tryInvalid(String epl, String message) {
+        try
+        {
+            epService.getEPAdministrator().createEPL(epl);
+            fail();
+        }
+        catch (EPStatementException ex) {
+            assertEquals(message, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.resultset;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.soda.EPStatementObjectModel;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestAggregateExtPercentileApprox extends TestCase {
+
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+
+    public void setUp()
+    {
+        listener = new SupportUpdateListener();
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+    }
+
+    public void testPercentileApprox()
+    {
+        String epl = "select " +
+                "theString, " +
+                "percentile_approx(intPrimitive,0.5d) as p50, " +
+                "percentile_approx(intPrimitive,1) as p100, " +
+                "quantiles(intPrimitive,0,0.5d) as q " +
+                "from SupportBean#length(3) group by theString";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        stmt.addListener(listener);
+        assertEquals(Double.class, stmt.getEventType().getPropertyType("p50"));
+        assertEquals(Double[].class, stmt.getEventType().getPropertyType("q"));
+
+        runAssertion();
+
+        stmt.destroy();
+        EPStatementObjectModel model = epService.getEPAdministrator().compileEPL(epl);
+        stmt = epService.getEPAdministrator().create(model);
+        stmt.addListener(listener);
+        assertEquals(epl, model.toEPL());
+
+        runAssertion();
+    }
+
+    public void testTable()
+    {
+        epService.getEPAdministrator().createEPL("create table MyTable(p99 percentile_approx(int, 0.99))");
+        epService.getEPAdministrator().createEPL("into table MyTable select percentile_approx(intPrimitive, 0.99) as p99 from SupportBean");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select MyTable.p99 as value from SupportBean(theString = 'read')");
+        stmt.addListener(listener);
+
+        for (int i = 1; i <= 1000; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E", i));
+        }
+        epService.getEPRuntime().sendEvent(new SupportBean("read", 0));
+        double value = (Double) listener.assertOneGetNewAndReset().get("value");
+        assertEquals(990, value, 990 * 0.01);
+    }
+
+    public void testInvalid()
+    {
+        tryInvalid("select percentile_approx(intPrimitive) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'percentile_approx(intPrimitive)': The percentile_approx aggregation function requires two parameters, an expression returning numeric values and a numeric quantile constant between zero and one [select percentile_approx(intPrimitive) from SupportBean]");
+        tryInvalid("select percentile_approx(intPrimitive, 1.5) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'percentile_approx(intPrimitive,1.5)': The percentile_approx aggregation function requires two parameters, an expression returning numeric values and a numeric quantile constant between zero and one [select percentile_approx(intPrimitive, 1.5) from SupportBean]");
+        tryInvalid("select quantiles(intPrimitive, intBoxed) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'quantiles(intPrimitive,intBoxed)': The quantiles aggregation function requires two or more parameters, an expression returning numeric values and one or more numeric quantile constants between zero and one [select quantiles(intPrimitive, intBoxed) from SupportBean]");
+        tryInvalid("select percentile_approx(theString, 0.5) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'percentile_approx(theString,0.5)': Implicit conversion from datatype 'String' to numeric is not allowed for aggregation function 'percentile_approx' [select percentile_approx(theString, 0.5) from SupportBean]");
+    }
+
+    private void runAssertion() {
+        epService.getEPRuntime().sendEvent(new SupportBean("G1", 10));
+        assertProps("G1", 10, 10);
+        assertQuantiles(10, 10);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("G1", 20));
+        assertProps("G1", 10, 20);
+        assertQuantiles(10, 10);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("G2", 100));
+        assertProps("G2", 100, 100);
+        assertQuantiles(100, 100);
+
+        // G1 value 10 leaves the window
+        epService.getEPRuntime().sendEvent(new SupportBean("G2", 200));
+        assertEquals(2, listener.getLastNewData().length);
+        EventBean g1 = "G1".equals(listener.getLastNewData()[0].get("theString")) ? listener.getLastNewData()[0] : listener.getLastNewData()[1];
+        assertApprox(20, g1.get("p50"));
+        assertApprox(20, g1.get("p100"));
+        listener.reset();
+
+        // G1 value 20 leaves the window
+        epService.getEPRuntime().sendEvent(new SupportBean("G2", 300));
+        assertEquals(2, listener.getLastNewData().length);
+        g1 = "G1".equals(listener.getLastNewData()[0].get("theString")) ? listener.getLastNewData()[0] : listener.getLastNewData()[1];
+        assertNull(g1.get("p50"));
+        assertNull(g1.get("q"));
+        listener.reset();
+
+    }
+
+    private void assertProps(String theString, double expectedMedian, double expectedMax) {
+        EventBean theEvent = listener.getLastNewData()[0];
+        assertEquals(theString, theEvent.get("theString"));
+        assertApprox(expectedMedian, theEvent.get("p50"));
+        assertApprox(expectedMax, theEvent.get("p100"));
+    }
+
+    private void assertQuantiles(double expectedMin, double expectedMedian) {
+        Double[] q = (Double[]) listener.assertOneGetNewAndReset().get("q");
+        assertEquals(2, q.length);
+        assertApprox(expectedMin, q[0]);
+        assertApprox(expectedMedian, q[1]);
+    }
+
+    private void assertApprox(double expected, Object actual) {
+        assertEquals(expected, (Double) actual, expected * 0.01);
+    }
+
+    private void tryInvalid(String epl, String message) {
+        try
+        {
+            epService.getEPAdministrator().createEPL(epl);
+            fail();
+        }
+        catch (EPStatementException ex) {
+            assertEquals(message, ex.getMessage());
+        }
+    }
+}
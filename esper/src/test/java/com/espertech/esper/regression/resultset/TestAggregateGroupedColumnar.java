@@ -0,0 +1,121 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.resultset;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.core.service.EPStatementSPI;
+import com.espertech.esper.epl.agg.service.AggSvcGroupByColumnarImpl;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+public class TestAggregateGroupedColumnar extends TestCase
+{
+    private static final String SELECT = "select irstream theString, intPrimitive % 3 as k, sum(intPrimitive) as si, sum(longPrimitive) as sl, " +
+            "sum(doublePrimitive) as sd, sum(floatPrimitive) as sf, sum(shortPrimitive) as ss, sum(intBoxed) as sib, " +
+            "avg(doublePrimitive) as av, stddev(longPrimitive) as sdev, count(*) as cnt, count(intBoxed) as cntnn ";
+    private static final String[] FIELDS = "theString,k,si,sl,sd,sf,ss,sib,av,sdev,cnt,cntnn".split(",");
+
+    private EPServiceProvider epService;
+    private SupportUpdateListener listenerColumnar;
+    private SupportUpdateListener listenerDefault;
+
+    public void setUp()
+    {
+        listenerColumnar = new SupportUpdateListener();
+        listenerDefault = new SupportUpdateListener();
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType(SupportBean.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listenerColumnar = null;
+        listenerDefault = null;
+    }
+
+    public void testReclaimGroups() {
+        runAssertion("", "from SupportBean#time(5 sec) group by theString, intPrimitive % 3");
+    }
+
+    public void testNoReclaimGroups() {
+        runAssertion("@Hint('disable_reclaim_group') ", "from SupportBean#length(20) group by theString, intPrimitive % 3");
+    }
+
+    public void testUnsupportedAggregation() {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("@Hint('aggregation_columnar') select theString, max(intPrimitive) as mx from SupportBean group by theString");
+        assertFalse(getAggregationService(stmt) instanceof AggSvcGroupByColumnarImpl);
+        stmt.addListener(listenerColumnar);
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 10));
+        EPAssertionUtil.assertProps(listenerColumnar.assertOneGetNewAndReset(), "theString,mx".split(","), new Object[] {"E1", 10});
+    }
+
+    private void runAssertion(String hints, String from) {
+        EPStatement stmtColumnar = epService.getEPAdministrator().createEPL("@Hint('aggregation_columnar') " + hints + SELECT + from);
+        stmtColumnar.addListener(listenerColumnar);
+        EPStatement stmtDefault = epService.getEPAdministrator().createEPL(hints + SELECT + from);
+        stmtDefault.addListener(listenerDefault);
+        assertTrue(getAggregationService(stmtColumnar) instanceof AggSvcGroupByColumnarImpl);
+        assertFalse(getAggregationService(stmtDefault) instanceof AggSvcGroupByColumnarImpl);
+
+        Random random = new Random(1);
+        for (int i = 0; i < 500; i++) {
+            if (random.nextInt(4) == 0) {
+                epService.getEPRuntime().sendEvent(new CurrentTimeEvent(i * 500));
+            }
+            SupportBean bean = new SupportBean(random.nextInt(10) == 0 ? null : "G" + random.nextInt(5), random.nextInt(20) - 5);
+            bean.setLongPrimitive(random.nextInt(1000));
+            bean.setDoublePrimitive(random.nextInt(100) / 4d);
+            bean.setFloatPrimitive(random.nextInt(100) / 8f);
+            bean.setShortPrimitive((short) random.nextInt(10));
+            bean.setIntBoxed(random.nextBoolean() ? null : random.nextInt(50));
+            epService.getEPRuntime().sendEvent(bean);
+
+            assertSameResults(listenerColumnar.getAndResetLastNewData(), listenerDefault.getAndResetLastNewData());
+            assertSameResults(listenerColumnar.getAndResetLastOldData(), listenerDefault.getAndResetLastOldData());
+
+            if (i % 50 == 0) {
+                EPAssertionUtil.assertPropsPerRowAnyOrder(stmtColumnar.iterator(), FIELDS, EPAssertionUtil.iteratorToObjectArr(stmtDefault.iterator(), FIELDS));
+            }
+        }
+    }
+
+    private void assertSameResults(EventBean[] columnar, EventBean[] expected) {
+        if (expected == null) {
+            assertNull(columnar);
+            return;
+        }
+        assertEquals(expected.length, columnar.length);
+        for (int i = 0; i < expected.length; i++) {
+            Object[] expectedValues = new Object[FIELDS.length];
+            for (int j = 0; j < FIELDS.length; j++) {
+                expectedValues[j] = expected[i].get(FIELDS[j]);
+            }
+            EPAssertionUtil.assertProps(columnar[i], FIELDS, expectedValues);
+        }
+    }
+
+    private Object getAggregationService(EPStatement stmt) {
+        EPStatementSPI spi = (EPStatementSPI) stmt;
+        return spi.getStatementContext().getStatementExtensionServicesContext().getStmtResources().getResourcesUnpartitioned().getAggregationService();
+    }
+}
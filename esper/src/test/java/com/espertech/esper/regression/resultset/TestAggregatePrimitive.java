@@ -0,0 +1,131 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.resultset;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.bean.SupportBean_S0;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestAggregatePrimitive extends TestCase
+{
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+
+    public void setUp()
+    {
+        listener = new SupportUpdateListener();
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+    }
+
+    public void testPrimitiveSumAvgStddev() {
+        for (ConfigurationEngineDefaults.PropertyGetterCodegen codegen : ConfigurationEngineDefaults.PropertyGetterCodegen.values()) {
+            initialize(codegen);
+            runAssertionPrimitive();
+            epService.destroy();
+        }
+    }
+
+    public void testPrimitiveOuterJoin() {
+        for (ConfigurationEngineDefaults.PropertyGetterCodegen codegen : ConfigurationEngineDefaults.PropertyGetterCodegen.values()) {
+            initialize(codegen);
+            runAssertionOuterJoin();
+            epService.destroy();
+        }
+    }
+
+    private void runAssertionPrimitive() {
+        String[] fields = "si,sl,sd,sf,ss,avgi,sdl,sov".split(",");
+        String epl = "select sum(intPrimitive) as si, sum(longPrimitive) as sl, sum(doublePrimitive) as sd, " +
+                "sum(floatPrimitive) as sf, sum(shortPrimitive) as ss, avg(intPrimitive * 2) as avgi, " +
+                "sum(doublePrimitive + longPrimitive - 1) as sdl, sum(intPrimitive * 65536) as sov, " +
+                "stddev(doublePrimitive * 2) as sdev " +
+                "from SupportBean#groupwin(theString)#length(2) group by theString";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        stmt.addListener(listener);
+
+        sendEvent("A", 65536, 10L, 1.5d, 2.5f, (short) 3);
+        assertProps(fields,
+                new Object[] {65536, 10L, 1.5d, 2.5f, 3, 131072d, 10.5d, 0}, null);
+
+        sendEvent("A", 2, 20L, 4.5d, 0.5f, (short) 4);
+        assertProps(fields,
+                new Object[] {65538, 30L, 6d, 3f, 7, 65538d, 34d, 131072}, Math.sqrt(18d));
+
+        sendEvent("A", 3, 30L, 6.5d, 1.5f, (short) 5);
+        assertProps(fields,
+                new Object[] {5, 50L, 11d, 2f, 9, 5d, 59d, 327680}, Math.sqrt(8d));
+
+        sendEvent("B", -1, -2L, -3d, -4f, (short) -5);
+        assertProps(fields,
+                new Object[] {-1, -2L, -3d, -4f, -5, -2d, -6d, -65536}, null);
+
+        stmt.destroy();
+    }
+
+    private void assertProps(String[] fields, Object[] expected, Double expectedStddev) {
+        EventBean event = listener.assertOneGetNewAndReset();
+        EPAssertionUtil.assertProps(event, fields, expected);
+        if (expectedStddev == null) {
+            assertNull(event.get("sdev"));
+        }
+        else {
+            assertEquals(expectedStddev, (Double) event.get("sdev"), 1e-9);
+        }
+    }
+
+    private void runAssertionOuterJoin() {
+        String[] fields = "si,sd,cnt".split(",");
+        String epl = "select sum(intPrimitive) as si, sum(doublePrimitive * 2) as sd, count(*) as cnt " +
+                "from SupportBean_S0#lastevent() as s0 left outer join SupportBean#keepall() as sb on s0.p00 = sb.theString";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        stmt.addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1, "A"));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {null, null, 1L});
+
+        sendEvent("A", 10, 0L, 1.5d, 0f, (short) 0);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {10, 3d, 2L});
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(2, "B"));
+        EPAssertionUtil.assertProps(listener.getAndResetLastNewData()[0], fields, new Object[] {null, null, 2L});
+
+        stmt.destroy();
+    }
+
+    private void initialize(ConfigurationEngineDefaults.PropertyGetterCodegen codegen) {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.getEngineDefaults().getEventMeta().setPropertyGetterCodegen(codegen);
+        config.addEventType(SupportBean.class);
+        config.addEventType(SupportBean_S0.class);
+        epService = EPServiceProviderManager.getProvider(TestAggregatePrimitive.class.getSimpleName(), config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    private void sendEvent(String theString, int intPrimitive, long longPrimitive, double doublePrimitive, float floatPrimitive, short shortPrimitive) {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setLongPrimitive(longPrimitive);
+        bean.setDoublePrimitive(doublePrimitive);
+        bean.setFloatPrimitive(floatPrimitive);
+        bean.setShortPrimitive(shortPrimitive);
+        epService.getEPRuntime().sendEvent(bean);
+    }
+}
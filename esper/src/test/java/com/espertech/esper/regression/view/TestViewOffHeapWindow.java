@@ -0,0 +1,221 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.view;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.collection.UniformPair;
+import com.espertech.esper.event.arr.ObjectArrayOffHeapEventBean;
+import com.espertech.esper.event.map.MapOffHeapEventBean;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+public class TestViewOffHeapWindow extends TestCase
+{
+    private final static String[] PROPERTY_NAMES = new String[] {"p0", "p1", "p2", "p3"};
+    private final static Object[] PROPERTY_TYPES = new Object[] {String.class, Integer.class, double.class, BigDecimal.class};
+
+    private EPServiceProvider epService;
+    private SupportUpdateListener listenerHeap;
+    private SupportUpdateListener listenerOffHeap;
+
+    public void setUp()
+    {
+        listenerHeap = new SupportUpdateListener();
+        listenerOffHeap = new SupportUpdateListener();
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        config.addEventType("MyOAEvent", PROPERTY_NAMES, PROPERTY_TYPES);
+        Map<String, Object> mapType = new HashMap<String, Object>();
+        for (int i = 0; i < PROPERTY_NAMES.length; i++) {
+            mapType.put(PROPERTY_NAMES[i], PROPERTY_TYPES[i]);
+        }
+        config.addEventType("MyMapEvent", mapType);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listenerHeap = null;
+        listenerOffHeap = null;
+    }
+
+    public void testLengthWindow()
+    {
+        for (String type : new String[] {"MyOAEvent", "MyMapEvent"}) {
+            runAssertionSame("select irstream p0, p1, p2, p3, prev(1, p0) as pv, prevtail(p0) as pt, prevcount(p0) as pc, sum(p1) as total from " + type + "#length(3)",
+                    new String[] {"p0", "p1", "p2", "p3", "pv", "pt", "pc", "total"}, type, false);
+            runAssertionSame("select irstream p0, count(*) as cnt, window(p1) as w from " + type + "#groupwin(p0)#length(2) group by p0",
+                    new String[] {"p0", "cnt", "w"}, type, false);
+        }
+    }
+
+    public void testTimeWindow()
+    {
+        for (String type : new String[] {"MyOAEvent", "MyMapEvent"}) {
+            runAssertionSame("select irstream p0, p1, p2, p3, prev(1, p0) as pv, prevtail(p0) as pt, prevcount(p0) as pc, avg(p2) as average from " + type + "#time(3 sec)",
+                    new String[] {"p0", "p1", "p2", "p3", "pv", "pt", "pc", "average"}, type, true);
+            runAssertionSame("select irstream p0, p1 from " + type + "#time(2 sec) where p1 > 2",
+                    new String[] {"p0", "p1"}, type, true);
+        }
+    }
+
+    public void testJoin()
+    {
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        String epl = "select irstream a.p0 as a0, b.p0 as b0 from MyOAEvent#length(3) as a, MyMapEvent#time(5 sec) as b where a.p1 = b.p1";
+        epService.getEPAdministrator().createEPL(epl).addListener(listenerHeap);
+        epService.getEPAdministrator().createEPL("@Hint('WINDOW_OFFHEAP') " + epl).addListener(listenerOffHeap);
+
+        String[] fields = new String[] {"a0", "b0"};
+        for (int i = 0; i < 20; i++) {
+            epService.getEPRuntime().sendEvent(new CurrentTimeEvent(i * 1000));
+            sendEvent("MyOAEvent", "A" + i, i % 3, i, null);
+            sendEvent("MyMapEvent", "B" + i, i % 4, i, null);
+            assertSameOutput(fields);
+        }
+    }
+
+    public void testIteratorAndWrapper()
+    {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("@Hint('WINDOW_OFFHEAP') select irstream * from MyOAEvent#length(2)");
+        stmt.addListener(listenerOffHeap);
+
+        sendEvent("MyOAEvent", "E1", 1, 1.5, new BigDecimal("1.25"));
+        sendEvent("MyOAEvent", "E2", null, 2.5, null);
+        EPAssertionUtil.assertPropsPerRow(stmt.iterator(), PROPERTY_NAMES, new Object[][] {{"E1", 1, 1.5, new BigDecimal("1.25")}, {"E2", null, 2.5, null}});
+
+        Iterator<EventBean> it = epService.getEPAdministrator().createEPL("@Hint('WINDOW_OFFHEAP') select * from MyOAEvent#length(2)").iterator();
+        assertFalse(it.hasNext());
+
+        listenerOffHeap.reset();
+        sendEvent("MyOAEvent", "E3", 3, 3.5, null);
+        EventBean expired = listenerOffHeap.assertPairGetIRAndReset().getSecond();
+        EPAssertionUtil.assertProps(expired, PROPERTY_NAMES, new Object[] {"E1", 1, 1.5, new BigDecimal("1.25")});
+
+        // map events with properties not declared by the type are kept on-heap and retain all properties
+        EPStatement stmtMap = epService.getEPAdministrator().createEPL("@Hint('WINDOW_OFFHEAP') select irstream * from MyMapEvent#length(1)");
+        stmtMap.addListener(listenerHeap);
+        Map<String, Object> event = makeMap("E1", 1, 1.5, null);
+        event.put("px", "x");
+        epService.getEPRuntime().sendEvent(event, "MyMapEvent");
+        listenerHeap.reset();
+        epService.getEPRuntime().sendEvent(makeMap("E2", 2, 2.5, null), "MyMapEvent");
+        assertSame(event, listenerHeap.assertPairGetIRAndReset().getSecond().getUnderlying());
+        assertEquals("E2", stmtMap.iterator().next().get("p0"));
+    }
+
+    public void testWrapperEquals()
+    {
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        EPStatement stmt = epService.getEPAdministrator().createEPL("@Hint('WINDOW_OFFHEAP') select irstream * from MyOAEvent#length(1)");
+        stmt.addListener(listenerOffHeap);
+
+        Object[] underlying = new Object[] {"E1", 1, 1.5, null};
+        epService.getEPRuntime().sendEvent(underlying, "MyOAEvent");
+        EventBean posted = listenerOffHeap.assertOneGetNewAndReset();
+        assertTrue(posted instanceof ObjectArrayOffHeapEventBean);
+        assertSame(underlying, posted.getUnderlying());
+
+        sendEvent("MyOAEvent", "E2", 2, 2.5, null);
+        EventBean expired = listenerOffHeap.assertPairGetIRAndReset().getSecond();
+        assertNotSame(underlying, expired.getUnderlying());
+        assertEquals(posted, expired);
+        assertEquals(posted.hashCode(), expired.hashCode());
+        assertFalse(posted.equals(stmt.iterator().next()));
+
+        EPStatement stmtMap = epService.getEPAdministrator().createEPL("@Hint('WINDOW_OFFHEAP') select irstream * from MyMapEvent#time(1 sec)");
+        stmtMap.addListener(listenerHeap);
+        sendEvent("MyMapEvent", "M1", 1, 1.5, null);
+        posted = listenerHeap.assertOneGetNewAndReset();
+        assertTrue(posted instanceof MapOffHeapEventBean);
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(5000));
+        assertEquals(posted, listenerHeap.assertOneGetOldAndReset());
+    }
+
+    private void runAssertionSame(String epl, String[] fields, String type, boolean advanceTime)
+    {
+        epService.getEPAdministrator().destroyAllStatements();
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        epService.getEPAdministrator().createEPL(epl).addListener(listenerHeap);
+        EPStatement stmtOffHeap = epService.getEPAdministrator().createEPL("@Hint('WINDOW_OFFHEAP') " + epl);
+        stmtOffHeap.addListener(listenerOffHeap);
+        listenerHeap.reset();
+        listenerOffHeap.reset();
+
+        for (int i = 0; i < 30; i++) {
+            if (advanceTime) {
+                epService.getEPRuntime().sendEvent(new CurrentTimeEvent(i * 700));
+                assertSameOutput(fields);
+            }
+            sendEvent(type, "E" + (i % 4), i % 5 == 0 ? null : i, i * 1.5, i % 3 == 0 ? null : new BigDecimal(i));
+            assertSameOutput(fields);
+        }
+        if (advanceTime) {
+            epService.getEPRuntime().sendEvent(new CurrentTimeEvent(100000));
+            assertSameOutput(fields);
+        }
+    }
+
+    private void assertSameOutput(String[] fields)
+    {
+        assertEquals(listenerHeap.isInvoked(), listenerOffHeap.isInvoked());
+        UniformPair<EventBean[]> expected = listenerHeap.getAndResetDataListsFlattened();
+        UniformPair<EventBean[]> actual = listenerOffHeap.getAndResetDataListsFlattened();
+        assertEqualsRows(expected.getFirst(), actual.getFirst(), fields);
+        assertEqualsRows(expected.getSecond(), actual.getSecond(), fields);
+    }
+
+    private void assertEqualsRows(EventBean[] expected, EventBean[] actual, String[] fields)
+    {
+        Object[][] expectedRows = EPAssertionUtil.eventsToObjectArr(expected, fields);
+        Object[][] actualRows = EPAssertionUtil.eventsToObjectArr(actual, fields);
+        if (expectedRows == null || actualRows == null) {
+            assertEquals(expectedRows == null || expectedRows.length == 0, actualRows == null || actualRows.length == 0);
+            return;
+        }
+        assertEquals(expectedRows.length, actualRows.length);
+        for (int i = 0; i < expectedRows.length; i++) {
+            EPAssertionUtil.assertEqualsExactOrder(expectedRows[i], actualRows[i]);
+        }
+    }
+
+    private void sendEvent(String type, String p0, Integer p1, double p2, BigDecimal p3)
+    {
+        if (type.equals("MyOAEvent")) {
+            epService.getEPRuntime().sendEvent(new Object[] {p0, p1, p2, p3}, type);
+        }
+        else {
+            epService.getEPRuntime().sendEvent(makeMap(p0, p1, p2, p3), type);
+        }
+    }
+
+    private Map<String, Object> makeMap(String p0, Integer p1, double p2, BigDecimal p3)
+    {
+        Map<String, Object> event = new HashMap<String, Object>();
+        event.put("p0", p0);
+        event.put("p1", p1);
+        event.put("p2", p2);
+        event.put("p3", p3);
+        return event;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+
+package com.espertech.esper.regression.view;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.client.time.CurrentTimeSpanEvent;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestViewTimeWinBulkExpiry extends TestCase
+{
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+
+    public void setUp()
+    {
+        listener = new SupportUpdateListener();
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.getEngineDefaults().getViewResources().setTimeWindowBulkExpiry(true);
+        config.addEventType(SupportBean.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+    }
+
+    public void testBulkExpiryTimeSpan()
+    {
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        String[] fields = "theString".split(",");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select irstream theString from SupportBean#time(10 sec)");
+        stmt.addListener(listener);
+
+        sendEvent(1000, "E1");
+        sendEvent(2000, "E2");
+        sendEvent(3000, "E3");
+        listener.reset();
+
+        // a single remove stream batch at the end of the time span
+        epService.getEPRuntime().sendEvent(new CurrentTimeSpanEvent(100000));
+        assertEquals(1, listener.getOldDataList().size());
+        EPAssertionUtil.assertPropsPerRow(listener.getLastOldData(), fields, new Object[][]{{"E1"}, {"E2"}, {"E3"}});
+        assertEquals(100000, epService.getEPRuntime().getCurrentTime());
+        listener.reset();
+
+        // expiry after the end of the span is not brought forward
+        sendEvent(100000, "E4");
+        listener.reset();
+        epService.getEPRuntime().sendEvent(new CurrentTimeSpanEvent(105000, 1000L));
+        assertFalse(listener.isInvoked());
+        epService.getEPRuntime().sendEvent(new CurrentTimeSpanEvent(109999));
+        assertFalse(listener.isInvoked());
+        epService.getEPRuntime().sendEvent(new CurrentTimeSpanEvent(200000, 1000L));
+        assertEquals(1, listener.getOldDataList().size());
+        EPAssertionUtil.assertPropsPerRow(listener.getLastOldData(), fields, new Object[][]{{"E4"}});
+        listener.reset();
+
+        // a time event outside of a time span expires as usual
+        sendEvent(201000, "E5");
+        listener.reset();
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(210999));
+        assertFalse(listener.isInvoked());
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(211000));
+        EPAssertionUtil.assertPropsPerRow(listener.getLastOldData(), fields, new Object[][]{{"E5"}});
+    }
+
+    public void testBulkExpiryAggregation()
+    {
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        String[] fields = "total".split(",");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select irstream sum(intPrimitive) as total from SupportBean#time(10 sec)");
+        stmt.addListener(listener);
+
+        for (int i = 0; i < 100; i++) {
+            epService.getEPRuntime().sendEvent(new CurrentTimeEvent(i * 100));
+            epService.getEPRuntime().sendEvent(new SupportBean("E" + i, 1));
+        }
+        listener.reset();
+
+        epService.getEPRuntime().sendEvent(new CurrentTimeSpanEvent(50000));
+        assertEquals(1, listener.getNewDataList().size());
+        EPAssertionUtil.assertProps(listener.assertPairGetIRAndReset(), fields, new Object[]{null}, new Object[]{100});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E100", 5));
+        EPAssertionUtil.assertProps(listener.getAndResetLastNewData()[0], fields, new Object[]{5});
+    }
+
+    public void testNoBulkExpiryWhenDisabled()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType(SupportBean.class);
+        EPServiceProvider epServiceDefault = EPServiceProviderManager.getProvider(this.getClass().getName() + "_default", config);
+        epServiceDefault.initialize();
+        epServiceDefault.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+
+        EPStatement stmt = epServiceDefault.getEPAdministrator().createEPL("select irstream theString from SupportBean#time(10 sec)");
+        stmt.addListener(listener);
+        for (int i = 1; i <= 3; i++) {
+            epServiceDefault.getEPRuntime().sendEvent(new CurrentTimeEvent(i * 1000));
+            epServiceDefault.getEPRuntime().sendEvent(new SupportBean("E" + i, 0));
+        }
+        listener.reset();
+
+        epServiceDefault.getEPRuntime().sendEvent(new CurrentTimeSpanEvent(100000));
+        assertEquals(3, listener.getOldDataList().size());
+        epServiceDefault.destroy();
+    }
+
+    private void sendEvent(long time, String theString)
+    {
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(time));
+        epService.getEPRuntime().sendEvent(new SupportBean(theString, 0));
+    }
+}
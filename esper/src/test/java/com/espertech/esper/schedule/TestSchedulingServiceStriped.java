@@ -0,0 +1,164 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.schedule;
+
+import com.espertech.esper.timer.TimeSourceServiceImpl;
+import junit.framework.TestCase;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class TestSchedulingServiceStriped extends TestCase
+{
+    public void testStripes()
+    {
+        assertEquals(1, new SchedulingServiceStriped(new TimeSourceServiceImpl(), 0).getNumStripes());
+        assertEquals(8, new SchedulingServiceStriped(new TimeSourceServiceImpl(), 5).getNumStripes());
+        assertEquals(16, new SchedulingServiceStriped(new TimeSourceServiceImpl(), 16).getNumStripes());
+    }
+
+    public void testTriggerOrderAcrossStripes()
+    {
+        SchedulingServiceStriped service = new SchedulingServiceStriped(new TimeSourceServiceImpl(), 16);
+        service.setTime(0);
+        MyHandle[] handles = new MyHandle[40];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = new MyHandle(i % 10, i / 10);
+            service.add(handles.length - i, handles[i], i);
+        }
+        service.add(1, handles[0], 0);
+        assertEquals(40, service.getScheduleHandleCount());
+        // times include the time the re-added handle was removed from
+        assertEquals(40, service.getTimeHandleCount());
+        assertEquals(1L, (long) service.getNearestTimeHandle());
+        assertEquals(40L, (long) service.getFurthestTimeHandle());
+
+        service.setTime(38);
+        List<ScheduleHandle> due = new ArrayList<ScheduleHandle>();
+        service.evaluate(due);
+        assertEquals(39, due.size());
+        assertSame(handles[0], due.get(0));
+        assertSame(handles[39], due.get(1));
+        assertSame(handles[2], due.get(38));
+        assertTrue(service.isScheduled(handles[1]));
+        assertEquals(39L, (long) service.getNearestTimeHandle());
+
+        ScheduleSet set = service.take(Collections.singleton(1));
+        assertEquals(1, set.getList().size());
+        assertNull(service.getNearestTimeHandle());
+    }
+
+    public void testRandomSameAsSorted()
+    {
+        Random random = new Random(1);
+        SchedulingServiceImpl sorted = new SchedulingServiceImpl(new TimeSourceServiceImpl());
+        SchedulingServiceStriped striped = new SchedulingServiceStriped(new TimeSourceServiceImpl(), 8);
+        long time = 0;
+        sorted.setTime(time);
+        striped.setTime(time);
+
+        MyHandle[] handles = new MyHandle[100];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = new MyHandle(i % 7, i % 3);
+        }
+
+        for (int step = 0; step < 20000; step++) {
+            int slot = random.nextInt(handles.length);
+            int action = random.nextInt(10);
+            if (action < 5) {
+                long after = random.nextInt(200);
+                sorted.add(after, handles[slot], slot);
+                striped.add(after, handles[slot], slot);
+            }
+            else if (action < 6) {
+                sorted.remove(handles[slot], slot);
+                striped.remove(handles[slot], slot);
+            }
+            else {
+                time += random.nextInt(50);
+                sorted.setTime(time);
+                striped.setTime(time);
+                List<ScheduleHandle> sortedDue = new ArrayList<ScheduleHandle>();
+                List<ScheduleHandle> stripedDue = new ArrayList<ScheduleHandle>();
+                sorted.evaluate(sortedDue);
+                striped.evaluate(stripedDue);
+                assertEquals(sortedDue, stripedDue);
+            }
+            assertEquals(sorted.getNearestTimeHandle(), striped.getNearestTimeHandle());
+            assertEquals(sorted.getScheduleHandleCount(), striped.getScheduleHandleCount());
+        }
+    }
+
+    public void testMultithreadedAdd() throws Exception
+    {
+        final SchedulingServiceStriped service = new SchedulingServiceStriped(new TimeSourceServiceImpl(), 16);
+        service.setTime(0);
+        final int numThreads = 4;
+        final int numPerThread = 20000;
+        final AtomicBoolean done = new AtomicBoolean();
+        final Set<ScheduleHandle> fired = Collections.synchronizedSet(new HashSet<ScheduleHandle>());
+
+        Thread timer = new Thread(new Runnable() {
+            public void run() {
+                long time = 0;
+                List<ScheduleHandle> due = new ArrayList<ScheduleHandle>();
+                while (!done.get() || service.getScheduleHandleCount() > 0) {
+                    service.setTime(++time);
+                    due.clear();
+                    service.evaluate(due);
+                    fired.addAll(due);
+                }
+            }
+        });
+        timer.start();
+
+        Thread[] threads = new Thread[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            final int threadNum = i;
+            threads[i] = new Thread(new Runnable() {
+                public void run() {
+                    for (int j = 0; j < numPerThread; j++) {
+                        service.add(j % 100, new MyHandle(threadNum, j), threadNum * numPerThread + j);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        done.set(true);
+        timer.join(10000);
+
+        assertFalse(timer.isAlive());
+        assertEquals(numThreads * numPerThread, fired.size());
+    }
+
+    private static class MyHandle implements ScheduleHandle
+    {
+        private final int statementId;
+        private final int agentInstanceId;
+
+        private MyHandle(int statementId, int agentInstanceId) {
+            this.statementId = statementId;
+            this.agentInstanceId = agentInstanceId;
+        }
+
+        public int getStatementId() {
+            return statementId;
+        }
+
+        public int getAgentInstanceId() {
+            return agentInstanceId;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.schedule;
+
+import com.espertech.esper.support.schedule.SupportScheduleCallback;
+import com.espertech.esper.timer.TimeSourceServiceImpl;
+import junit.framework.TestCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+public class TestSchedulingServiceTimingWheel extends TestCase
+{
+    private SchedulingServiceTimingWheel service;
+    private long slots[];
+    private SupportScheduleCallback callbacks[];
+
+    public void setUp()
+    {
+        service = new SchedulingServiceTimingWheel(new TimeSourceServiceImpl());
+        SchedulingMgmtServiceImpl mgmtService = new SchedulingMgmtServiceImpl();
+        ScheduleBucket bucket = mgmtService.allocateBucket();
+
+        callbacks = new SupportScheduleCallback[5];
+        slots = new long[callbacks.length];
+        for (int i = 0; i < callbacks.length; i++)
+        {
+            callbacks[i] = new SupportScheduleCallback();
+            slots[i] = bucket.allocateSlot();
+        }
+        SupportScheduleCallback.setCallbackOrderNum(0);
+    }
+
+    public void tearDown()
+    {
+        SupportScheduleCallback.setCallbackOrderNum(0);
+    }
+
+    public void testTriggerOrder()
+    {
+        service.setTime(0);
+        service.add(20, callbacks[3], slots[3]);
+        service.add(20, callbacks[2], slots[2]);
+        service.add(20, callbacks[1], slots[1]);
+        service.add(21, callbacks[0], slots[0]);
+        assertEquals(4, service.getScheduleHandleCount());
+        assertEquals(2, service.getTimeHandleCount());
+        assertEquals(20L, (long) service.getNearestTimeHandle());
+        assertEquals(21L, (long) service.getFurthestTimeHandle());
+
+        service.setTime(19);
+        evaluateSchedule();
+        checkCallbacks(new Integer[] {0, 0, 0, 0, 0});
+
+        SupportScheduleCallback.setCallbackOrderNum(0);
+        service.setTime(30);
+        evaluateSchedule();
+        checkCallbacks(new Integer[] {4, 1, 2, 3, 0});
+        assertEquals(0, service.getScheduleHandleCount());
+        assertNull(service.getNearestTimeHandle());
+    }
+
+    public void testAddRemoveReplace()
+    {
+        service.setTime(1000);
+        service.add(100, callbacks[0], slots[0]);
+        service.add(100000, callbacks[0], slots[0]);
+        service.add(300, callbacks[1], slots[1]);
+        service.remove(callbacks[1], slots[1]);
+        service.remove(callbacks[1], slots[1]);
+        assertFalse(service.isScheduled(callbacks[1]));
+        assertEquals(101000L, (long) service.getNearestTimeHandle());
+
+        service.setTime(100999);
+        evaluateSchedule();
+        checkCallbacks(new Integer[] {0, 0, 0, 0, 0});
+
+        SupportScheduleCallback.setCallbackOrderNum(0);
+        service.setTime(101000);
+        evaluateSchedule();
+        checkCallbacks(new Integer[] {1, 0, 0, 0, 0});
+    }
+
+    public void testFarFutureAndTimeBackwards()
+    {
+        service.setTime(0);
+        service.add(10L * 365 * 24 * 60 * 60 * 1000, callbacks[0], slots[0]);
+        service.add(5000000000L, callbacks[1], slots[1]);
+        service.add(70000, callbacks[2], slots[2]);
+        assertEquals(70000L, (long) service.getNearestTimeHandle());
+
+        service.setTime(4999999999L);
+        evaluateSchedule();
+        checkCallbacks(new Integer[] {0, 0, 1, 0, 0});
+        assertEquals(5000000000L, (long) service.getNearestTimeHandle());
+
+        // moving time backwards keeps outstanding schedules and schedules relative to the new time
+        service.setTime(100);
+        service.add(10, callbacks[3], slots[3]);
+        service.setTime(110);
+        evaluateSchedule();
+        checkCallbacks(new Integer[] {0, 0, 0, 2, 0});
+
+        service.setTime(Long.MAX_VALUE / 2);
+        evaluateSchedule();
+        checkCallbacks(new Integer[] {4, 3, 0, 0, 0});
+    }
+
+    public void testTake()
+    {
+        service.setTime(0);
+        service.add(100, callbacks[0], slots[0]);
+        ScheduleSet set = service.take(Collections.singleton(1));
+        assertEquals(1, set.getList().size());
+        assertEquals(100L, (long) set.getList().get(0).getTime());
+        assertFalse(service.isScheduled(callbacks[0]));
+
+        service.setTime(50);
+        service.apply(set);
+        assertEquals(150L, (long) service.getNearestTimeHandle());
+    }
+
+    public void testRandomSameAsSorted()
+    {
+        Random random = new Random(1);
+        for (int run = 0; run < 20; run++) {
+            runAssertionRandom(random);
+        }
+    }
+
+    public void testPerfCompareSorted()
+    {
+        long sortedTime = runPerf(new SchedulingServiceImpl(new TimeSourceServiceImpl()));
+        long wheelTime = runPerf(new SchedulingServiceTimingWheel(new TimeSourceServiceImpl()));
+        log.info("Sorted scheduling service took " + sortedTime + " msec, timing wheel took " + wheelTime + " msec");
+        assertTrue("Timing wheel took " + wheelTime, wheelTime < 10000);
+    }
+
+    private void runAssertionRandom(Random random)
+    {
+        SchedulingServiceImpl sorted = new SchedulingServiceImpl(new TimeSourceServiceImpl());
+        SchedulingServiceTimingWheel wheel = new SchedulingServiceTimingWheel(new TimeSourceServiceImpl());
+        long time = random.nextInt(1000000);
+        sorted.setTime(time);
+        wheel.setTime(time);
+
+        SupportScheduleCallback[] handles = new SupportScheduleCallback[50];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = new SupportScheduleCallback();
+        }
+
+        for (int step = 0; step < 2000; step++) {
+            int action = random.nextInt(10);
+            int slot = random.nextInt(handles.length);
+            SupportScheduleCallback handle = handles[slot];
+            if (action < 5) {
+                long after = random.nextInt(4) == 0 ? random.nextInt(100000000) : random.nextInt(1000);
+                sorted.add(after, handle, slot);
+                wheel.add(after, handle, slot);
+            }
+            else if (action < 6) {
+                sorted.remove(handle, slot);
+                wheel.remove(handle, slot);
+            }
+            else {
+                time += random.nextInt(20) == 0 ? random.nextInt(100000000) : random.nextInt(500);
+                sorted.setTime(time);
+                wheel.setTime(time);
+                List<ScheduleHandle> sortedDue = new ArrayList<ScheduleHandle>();
+                List<ScheduleHandle> wheelDue = new ArrayList<ScheduleHandle>();
+                sorted.evaluate(sortedDue);
+                wheel.evaluate(wheelDue);
+                assertEquals(sortedDue, wheelDue);
+            }
+            assertEquals(sorted.getNearestTimeHandle(), wheel.getNearestTimeHandle());
+            assertEquals(sorted.getScheduleHandleCount(), wheel.getScheduleHandleCount());
+        }
+    }
+
+    private long runPerf(SchedulingServiceSPI schedulingService)
+    {
+        // simulates time windows and pattern timers that add, remove and fire many schedules
+        SupportScheduleCallback[] handles = new SupportScheduleCallback[100000];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = new SupportScheduleCallback();
+        }
+        Random random = new Random(1);
+        List<ScheduleHandle> due = new ArrayList<ScheduleHandle>();
+        long time = 0;
+        schedulingService.setTime(time);
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 300000; i++) {
+            int slot = random.nextInt(handles.length);
+            if (i % 4 == 3) {
+                schedulingService.remove(handles[slot], slot);
+            }
+            else {
+                schedulingService.add(1 + random.nextInt(60000), handles[slot], slot);
+            }
+            if (i % 10 == 0) {
+                time++;
+                schedulingService.setTime(time);
+                due.clear();
+                schedulingService.evaluate(due);
+            }
+        }
+        return System.currentTimeMillis() - start;
+    }
+
+    private void checkCallbacks(Integer[] results)
+    {
+        for (int i = 0; i < callbacks.length; i++)
+        {
+            assertEquals((int) results[i], (int) callbacks[i].clearAndGetOrderTriggered());
+        }
+    }
+
+    private void evaluateSchedule()
+    {
+        Collection<ScheduleHandle> handles = new LinkedList<ScheduleHandle>();
+        service.evaluate(handles);
+
+        for (ScheduleHandle handle : handles)
+        {
+            ScheduleHandleCallback cb = (ScheduleHandleCallback) handle;
+            cb.scheduledTrigger(null);
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(TestSchedulingServiceTimingWheel.class);
+}
@@ -13,6 +13,7 @@ package com.espertech.esper.view.ext;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.collection.OrderStatisticTreeMap;
 import com.espertech.esper.support.bean.SupportBean;
 import com.espertech.esper.support.event.SupportEventBeanFactory;
 import com.espertech.esper.util.MultiKeyCastingComparator;
@@ -23,12 +24,11 @@ import junit.framework.TestCase;
 
 import java.util.LinkedList;
 import java.util.List;
-import java.util.TreeMap;
 
 public class TestIStreamSortedRandomAccess extends TestCase
 {
     private IStreamSortRankRandomAccess access;
-    private TreeMap<Object, Object> sortedEvents;
+    private OrderStatisticTreeMap<Object, Object> sortedEvents;
     private EventBean[] events;
 
     public void setUp()
@@ -40,7 +40,7 @@ public class TestIStreamSortedRandomAccess extends TestCase
             }
         };
         access = new IStreamSortRankRandomAccessImpl(updateObserver);
-        sortedEvents = new TreeMap<Object, Object>(new MultiKeyCastingComparator(new MultiKeyComparator(new boolean[] {false})));
+        sortedEvents = new OrderStatisticTreeMap<Object, Object>(new MultiKeyCastingComparator(new MultiKeyComparator(new boolean[] {false})));
 
         events = new EventBean[100];
         for (int i = 0; i < events.length; i++)
@@ -112,6 +112,6 @@ public class TestIStreamSortedRandomAccess extends TestCase
             eventList = new LinkedList<EventBean>();
         }
         eventList.add(0, theEvent);
-        sortedEvents.put(mkey, eventList);
+        sortedEvents.put(mkey, eventList, eventList.size());
     }
 }
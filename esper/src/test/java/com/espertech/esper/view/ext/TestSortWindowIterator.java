@@ -14,6 +14,7 @@ package com.espertech.esper.view.ext;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.scopetest.EPAssertionUtil;
 import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.collection.OrderStatisticTreeMap;
 import com.espertech.esper.support.event.EventFactoryHelper;
 import com.espertech.esper.util.MultiKeyCastingComparator;
 import com.espertech.esper.util.MultiKeyComparator;
@@ -24,14 +25,14 @@ import java.util.*;
 public class TestSortWindowIterator extends TestCase
 {
     private Map<String, EventBean> events;
-	private SortedMap<Object, Object> testMap;
+	private OrderStatisticTreeMap<Object, Object> testMap;
 	private Comparator<Object> comparator;
 	
     public void setUp()
     {
         events = EventFactoryHelper.makeEventMap(new String[] {"a", "b", "c", "d", "f", "g"});
         comparator = new MultiKeyCastingComparator(new MultiKeyComparator(new boolean[] {false}));
-        testMap = new TreeMap<Object, Object>(comparator);
+        testMap = new OrderStatisticTreeMap<Object, Object>(comparator);
     }
 
     public void testEmpty()
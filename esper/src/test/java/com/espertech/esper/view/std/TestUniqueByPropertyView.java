@@ -91,6 +91,46 @@ public class TestUniqueByPropertyView extends TestCase
         assertEquals(myView.getCriteriaExpressions()[0], copied.getCriteriaExpressions()[0]);
     }
 
+    public void testKeyTypes() throws Exception
+    {
+        assertTrue(makeView("symbol").mostRecentEvents instanceof CriteriaKeyedMapSingle);
+        assertTrue(makeView("symbol", "volume").mostRecentEvents instanceof CriteriaKeyedMapMulti);
+
+        // boxed long key including null
+        UniqueByPropertyView view = makeView("volume");
+        assertTrue(view.mostRecentEvents instanceof CriteriaKeyedMapLong);
+        SupportBeanClassView child = new SupportBeanClassView(SupportMarketDataBean.class);
+        view.addView(child);
+        EventBean[] events = new EventBean[] {makeVolumeBean("A", 10L), makeVolumeBean("B", null), makeVolumeBean("C", 10L), makeVolumeBean("D", null), makeVolumeBean("E", 11L)};
+        view.update(events, null);
+        SupportViewDataChecker.checkOldData(child, new EventBean[] {events[0], events[1]});
+        EPAssertionUtil.assertEqualsExactOrder(new EventBean[]{events[2], events[3], events[4]}, view.iterator());
+
+        view.update(null, new EventBean[] {events[0], events[3]});
+        SupportViewDataChecker.checkOldData(child, new EventBean[] {events[3]});
+        EPAssertionUtil.assertEqualsExactOrder(new EventBean[]{events[2], events[4]}, view.iterator());
+
+        // composite key
+        view = makeView("symbol", "volume");
+        view.addView(child);
+        events = new EventBean[] {makeVolumeBean("A", 10L), makeVolumeBean("A", null), makeVolumeBean("A", 10L), makeVolumeBean("B", 10L)};
+        view.update(events, null);
+        SupportViewDataChecker.checkOldData(child, new EventBean[] {events[0]});
+        EPAssertionUtil.assertEqualsExactOrder(new EventBean[]{events[2], events[1], events[3]}, view.iterator());
+    }
+
+    private UniqueByPropertyView makeView(String... criteria) throws Exception
+    {
+        UniqueByPropertyViewFactory factory = new UniqueByPropertyViewFactory();
+        factory.criteriaExpressions = SupportExprNodeFactory.makeIdentNodesMD(criteria);
+        return new UniqueByPropertyView(factory, null);
+    }
+
+    private EventBean makeVolumeBean(String symbol, Long volume)
+    {
+        return SupportEventBeanFactory.createObject(new SupportMarketDataBean(symbol, 0, volume, ""));
+    }
+
     private EventBean makeTradeBean(String symbol, int price)
     {
         SupportMarketDataBean bean = new SupportMarketDataBean(symbol, price, 0L, "");
@@ -92,18 +92,18 @@ public class TestStreamFactorySvcImpl extends TestCase
         streams[1] = streamFactoryService.createStream(2, filterSpecs[1], supportFilterService, agentHandle, true, null, false, false, null, false, 0, false).getFirst();
         streams[2] = streamFactoryService.createStream(3, filterSpecs[2], supportFilterService, agentHandle, true, null, false, false, null, false, 0, false).getFirst();
 
-        streamFactoryService.dropStream(filterSpecs[0], supportFilterService, true, false, false, false);
-        streamFactoryService.dropStream(filterSpecs[1], supportFilterService, true, false, false, false);
+        streamFactoryService.dropStream(filterSpecs[0], supportFilterService, true, false, false, false, null);
+        streamFactoryService.dropStream(filterSpecs[1], supportFilterService, true, false, false, false, null);
         assertEquals(2, supportFilterService.getRemoved().size());
 
         // Filter removed
-        streamFactoryService.dropStream(filterSpecs[2], supportFilterService, true, false, false, false);
+        streamFactoryService.dropStream(filterSpecs[2], supportFilterService, true, false, false, false, null);
         assertEquals(3, supportFilterService.getRemoved().size());
 
         // Something already removed
         try
         {
-            streamFactoryService.dropStream(filterSpecs[2], supportFilterService, true, false, false, false);
+            streamFactoryService.dropStream(filterSpecs[2], supportFilterService, true, false, false, false, null);
             TestCase.fail();
         }
         catch (IllegalStateException ex)
@@ -145,21 +145,21 @@ public class TestStreamFactorySvcImpl extends TestCase
         streams[2] = streamFactoryService.createStream(3, filterSpecs[1], supportFilterService, stmtAgentHandle, false, null, false, false, null, false, 0, false).getFirst();
         streams[3] = streamFactoryService.createStream(4, filterSpecs[2], supportFilterService, stmtAgentHandle, false, null, false, false, null, false, 0, false).getFirst();
 
-        streamFactoryService.dropStream(filterSpecs[0], supportFilterService, false, false, false, false);
-        streamFactoryService.dropStream(filterSpecs[1], supportFilterService, false, false, false, false);
+        streamFactoryService.dropStream(filterSpecs[0], supportFilterService, false, false, false, false, null);
+        streamFactoryService.dropStream(filterSpecs[1], supportFilterService, false, false, false, false, null);
         assertEquals(0, supportFilterService.getRemoved().size());
 
         // Filter removed
-        streamFactoryService.dropStream(filterSpecs[0], supportFilterService, false, false, false, false);
+        streamFactoryService.dropStream(filterSpecs[0], supportFilterService, false, false, false, false, null);
         assertEquals(1, supportFilterService.getRemoved().size());
 
-        streamFactoryService.dropStream(filterSpecs[2], supportFilterService, false, false, false, false);
+        streamFactoryService.dropStream(filterSpecs[2], supportFilterService, false, false, false, false, null);
         assertEquals(2, supportFilterService.getRemoved().size());
 
         // Something already removed
         try
         {
-            streamFactoryService.dropStream(filterSpecs[2], supportFilterService, false, false, false, false);
+            streamFactoryService.dropStream(filterSpecs[2], supportFilterService, false, false, false, false, null);
             TestCase.fail();
         }
         catch (IllegalStateException ex)
@@ -11,6 +11,8 @@ OPT="-Xms1024m -Xmx1024m"
 
 # uncomment for simulation without client
 #SIM="-rate 2x10000"
+# uncomment for simulation without client, sending events in batches of 100 using sendEventBatch
+#SIM="-rate 2x10000 -batch 100"
 
 # we default to synchronous control flow
 QUEUE="-queue -1"
@@ -25,6 +25,8 @@ public class CEPProvider {
         public void registerStatement(String statementName, Object userObject);
 
         public void sendEvent(Object theEvent);
+
+        public void sendEventBatch(Object[] events);
     }
 
     public static ICEPProvider getCEPProvider() {
@@ -104,6 +106,10 @@ public class CEPProvider {
         public void sendEvent(Object theEvent) {
             epRuntime.sendEvent(theEvent);
         }
+
+        public void sendEventBatch(Object[] events) {
+            epRuntime.sendEventBatch(events);
+        }
     }
 
     public static class MyUpdateListener implements UpdateListener {
@@ -38,6 +38,9 @@ import java.util.concurrent.*;
  * If you use -rate nxM (n threads, M event/s), the server will simulate the load for a standalone simulation without
  * any remote client(s).
  * <p/>
+ * Use -batch n together with -rate and direct handoff to send simulated events to the engine in batches of n events
+ * using EPRuntime.sendEventBatch, to compare with sending events one by one.
+ * <p/>
  * By default the benchmark registers a subscriber to the statement(s). Use -Desper.benchmark.ul to use
  * an UpdateListener instead. Note that the subscriber contains suitable update(..) methods for the default
  * proposed statement in the statements.properties files but might not be suitable if you change statements due
@@ -54,6 +57,7 @@ public class Server extends Thread {
     private int statSec;
     private int simulationRate;
     private int simulationThread;
+    private int batchSize;
     private String mode;
 
     public static final int DEFAULT_PORT = 6789;
@@ -63,6 +67,7 @@ public class Server extends Thread {
     public static final int DEFAULT_SIMULATION_RATE = -1;//-1: no simulation
     public static final int DEFAULT_SIMULATION_THREAD = -1;//-1: no simulation
     public static final int DEFAULT_STAT = 5;
+    public static final int DEFAULT_BATCH = -1;//-1: no batching
     public static final String DEFAULT_MODE = "NOOP";
     public static final Properties MODES = new Properties();
 
@@ -70,7 +75,7 @@ public class Server extends Thread {
 
     private CEPProvider.ICEPProvider cepProvider;
 
-    public Server(String mode, int port, int threads, int queueMax, int sleep, final int statSec, int simulationThread, final int simulationRate) {
+    public Server(String mode, int port, int threads, int queueMax, int sleep, final int statSec, int simulationThread, final int simulationRate, int batchSize) {
         super("EsperServer-main");
         this.mode = mode;
         this.port = port;
@@ -80,6 +85,7 @@ public class Server extends Thread {
         this.statSec = statSec;
         this.simulationThread = simulationThread;
         this.simulationRate = simulationRate;
+        this.batchSize = batchSize;
 
         // turn on stat dump
         Timer t = new Timer("EsperServer-stats", true);
@@ -198,7 +204,7 @@ public class Server extends Thread {
         );
         SimulateClientConnection[] sims = new SimulateClientConnection[simulationThread];
         for (int i = 0; i < sims.length; i++) {
-            sims[i] = new SimulateClientConnection(simulationRate, executor, cepProvider, statSec);
+            sims[i] = new SimulateClientConnection(simulationRate, batchSize, executor, cepProvider, statSec);
             sims[i].start();
         }
 
@@ -224,6 +230,7 @@ public class Server extends Thread {
         int simulationThread = DEFAULT_SIMULATION_THREAD;
         String mode = DEFAULT_MODE;
         int stats = DEFAULT_STAT;
+        int batchSize = DEFAULT_BATCH;
         for (int i = 0; i < argv.length; i++)
             if ("-port".equals(argv[i])) {
                 i++;
@@ -252,11 +259,14 @@ public class Server extends Thread {
                 int xIndex = argv[i].indexOf('x');
                 simulationThread = Integer.parseInt(argv[i].substring(0, xIndex));
                 simulationRate = Integer.parseInt(argv[i].substring(xIndex + 1));
+            } else if ("-batch".equals(argv[i])) {
+                i++;
+                batchSize = Integer.parseInt(argv[i]);
             } else {
                 printUsage();
             }
 
-        Server bs = new Server(mode, port, threadCore, queueMax, sleep, stats, simulationThread, simulationRate);
+        Server bs = new Server(mode, port, threadCore, queueMax, sleep, stats, simulationThread, simulationRate, batchSize);
         bs.start();
         try {
             bs.join();
@@ -266,7 +276,7 @@ public class Server extends Thread {
     }
 
     private static void printUsage() {
-        System.err.println("usage: com.espertech.esper.example.benchmark.server.Server <-port #> <-thread #> <-queue #> <-sleep #> <-stat #> <-rate #x#> <-mode xyz>");
+        System.err.println("usage: com.espertech.esper.example.benchmark.server.Server <-port #> <-thread #> <-queue #> <-sleep #> <-stat #> <-rate #x#> <-batch #> <-mode xyz>");
         System.err.println("defaults:");
         System.err.println("  -port:    " + DEFAULT_PORT);
         System.err.println("  -thread:  " + DEFAULT_THREADCORE);
@@ -274,6 +284,7 @@ public class Server extends Thread {
         System.err.println("  -sleep:   " + DEFAULT_SLEEP + "(no sleep)");
         System.err.println("  -stat:   " + DEFAULT_STAT + "(s)");
         System.err.println("  -rate:    " + DEFAULT_SIMULATION_RATE + "(no standalone simulation, else <n>x<evt/s> such as 2x1000)");
+        System.err.println("  -batch:   " + DEFAULT_BATCH + "(no batching, else <n> events per sendEventBatch in simulation with direct handoff)");
         System.err.println("  -mode:    " + "(default " + DEFAULT_MODE + ", choose from " + MODES.keySet().toString() + ")");
         System.err.println("Modes are read from statements.properties in the classpath");
         System.exit(1);
@@ -45,6 +45,7 @@ public class SimulateClientConnection extends Thread {
     }
 
     private int simulationRate;
+    private int batchSize;
     private CEPProvider.ICEPProvider cepProvider;
     private ThreadPoolExecutor executor;
     private final int statSec;
@@ -54,9 +55,10 @@ public class SimulateClientConnection extends Thread {
     private int myID;
     private static int ID = 0;
 
-    public SimulateClientConnection(int simulationRate, ThreadPoolExecutor executor, CEPProvider.ICEPProvider cepProvider, int statSec) {
+    public SimulateClientConnection(int simulationRate, int batchSize, ThreadPoolExecutor executor, CEPProvider.ICEPProvider cepProvider, int statSec) {
         super("EsperServer-cnx-" + ID++);
         this.simulationRate = simulationRate;
+        this.batchSize = batchSize;
         this.executor = executor;
         this.cepProvider = cepProvider;
         this.statSec = statSec;
@@ -72,11 +74,19 @@ public class SimulateClientConnection extends Thread {
         System.out.println("Event per    s = " + simulationRate);
         int eventPer10Millis = (int) (simulationRate / 100);
         System.out.println("Event per 10ms = " + Math.max(eventPer10Millis, 1));
+        if (batchSize > 0) {
+            System.out.println("Event batch    = " + batchSize);
+        }
         final MarketData[] market = new MarketData[Symbols.SYMBOLS.length];
         for (int i = 0; i < market.length; i++) {
             market[i] = new MarketData(Symbols.SYMBOLS[i], Symbols.nextPrice(10), Symbols.nextVolume(10));
         }
 
+        if (batchSize > 0 && executor == null) {
+            runBatched(market, eventPer10Millis);
+            return;
+        }
+
         try {
             int tickerIndex = 0;
             do {
@@ -124,4 +134,43 @@ public class SimulateClientConnection extends Thread {
             CLIENT_CONNECTIONS.remove(myID);
         }
     }
+
+    /**
+     * Direct handoff simulation that sends events to the engine in batches of batchSize events.
+     */
+    private void runBatched(MarketData[] market, int eventPer10Millis) {
+        Object[] batch = new Object[batchSize];
+        try {
+            int tickerIndex = 0;
+            int batchIndex = 0;
+            do {
+                long ms = System.currentTimeMillis();
+                for (int i = 0; i < eventPer10Millis; i++) {
+                    tickerIndex = tickerIndex % Symbols.SYMBOLS.length;
+                    batch[batchIndex++] = market[tickerIndex++].clone();
+                    if (batchIndex == batchSize) {
+                        long ns = System.nanoTime();
+                        cepProvider.sendEventBatch(batch);
+                        StatsHolder.getEngine().update((System.nanoTime() - ns) / batchSize);
+                        batchIndex = 0;
+                    }
+                    countLast10s++;
+                }
+                if (System.currentTimeMillis() - lastThroughputTick > statSec * 1E3) {
+                    countLast10sLast = countLast10s;
+                    countLast10s = 0;
+                    lastThroughputTick = System.currentTimeMillis();
+                }
+                // going to fast compared to target rate
+                if (System.currentTimeMillis() - ms < 10) {
+                    Thread.sleep(Math.max(1, 10 - (System.currentTimeMillis() - ms)));
+                }
+            } while (true);
+        } catch (Throwable t) {
+            t.printStackTrace();
+            System.err.println("Error receiving data from market. Did market disconnect?");
+        } finally {
+            CLIENT_CONNECTIONS.remove(myID);
+        }
+    }
 }